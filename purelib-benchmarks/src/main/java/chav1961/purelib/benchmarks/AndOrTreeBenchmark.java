@@ -0,0 +1,80 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chav1961.purelib.basic.AndOrTree;
+import chav1961.purelib.basic.ConcurrentAndOrTree;
+import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
+
+/**
+ * <p>Place and seek performance of the {@linkplain AndOrTree} and {@linkplain ConcurrentAndOrTree}.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AndOrTreeBenchmark {
+	@Param({"AndOrTree", "ConcurrentAndOrTree"})
+	public String				implementation;
+
+	@Param({"65536"})
+	public int					amount;
+
+	private char[][]			names;
+	private SyntaxTreeInterface<Object>	tree;
+	private int					index = 0;
+
+	@Setup
+	public void prepare() {
+		names = BenchmarkUtils.names(amount, 16);
+		tree = newTree();
+		for (char[] item : names) {
+			tree.placeName(item, 0, item.length, null);
+		}
+	}
+
+	@Benchmark
+	public long seekExistent() {
+		final char[]	name = names[index++ & (names.length - 1)];
+
+		return tree.seekName(name, 0, name.length);
+	}
+
+	@Benchmark
+	public long seekMissing() {
+		final char[]	name = names[index++ & (names.length - 1)];
+
+		return tree.seekName(name, 0, name.length - 1);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void placeAll(final Blackhole bh) {
+		final SyntaxTreeInterface<Object>	newTree = newTree();
+
+		for (char[] item : names) {
+			bh.consume(newTree.placeName(item, 0, item.length, null));
+		}
+	}
+
+	private SyntaxTreeInterface<Object> newTree() {
+		return "AndOrTree".equals(implementation) ? new AndOrTree<>() : new ConcurrentAndOrTree<>();
+	}
+}
@@ -0,0 +1,71 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.BKTree;
+import chav1961.purelib.basic.CharUtils;
+
+/**
+ * <p>Fuzzy lookup performance of the {@linkplain BKTree} with Levenstain metrics.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BKTreeBenchmark {
+	@Param({"4096"})
+	public int						amount;
+
+	@Param({"1", "2"})
+	public int						distance;
+
+	private char[][]				names;
+	private BKTree<char[], String>	tree;
+	private int						index = 0;
+
+	@Setup
+	public void prepare() {
+		names = BenchmarkUtils.names(amount, 10);
+		tree = new BKTree<>(char[].class, (v1, v2)->CharUtils.calcLevenstain(v1, v2).distance);
+		final Set<String>	unique = new HashSet<>();
+
+		for (char[] item : names) {
+			if (unique.add(new String(item))) {
+				tree.add(item, null);
+			}
+		}
+	}
+
+	@Benchmark
+	public int lookup() {
+		final char[]	name = names[index++ & (names.length - 1)].clone();
+		final int[]		found = new int[1];
+
+		name[0] = '_';
+		tree.walk(name, distance, (content, metrics, cargo)->{found[0]++; return true;});
+		return found[0];
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return tree.contains(names[index++ & (names.length - 1)]);
+	}
+}
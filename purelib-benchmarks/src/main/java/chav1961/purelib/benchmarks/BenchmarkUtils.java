@@ -0,0 +1,54 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.Random;
+
+/**
+ * <p>Test data generators for benchmarks. All the generators are reproducible (use fixed seed).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+class BenchmarkUtils {
+	private static final long	SEED = 1961;
+
+	static char[][] names(final int amount, final int length) {
+		final Random	rnd = new Random(SEED);
+		final char[][]	result = new char[amount][];
+
+		for (int index = 0; index < amount; index++) {
+			final char[]	name = new char[length / 2 + rnd.nextInt(length / 2 + 1)];
+
+			for (int pos = 0; pos < name.length; pos++) {
+				name[pos] = (char)('a' + rnd.nextInt(26));
+			}
+			result[index] = name;
+		}
+		return result;
+	}
+
+	static String json(final int records) {
+		final Random		rnd = new Random(SEED);
+		final StringBuilder	sb = new StringBuilder().append('[');
+
+		for (int index = 0; index < records; index++) {
+			if (index > 0) {
+				sb.append(',');
+			}
+			sb.append("{\"id\":").append(index)
+			  .append(",\"name\":\"name").append(rnd.nextInt(1000)).append('"')
+			  .append(",\"value\":").append(rnd.nextDouble() * 1000)
+			  .append(",\"flag\":").append(rnd.nextBoolean())
+			  .append(",\"tags\":[1,2,3],\"empty\":null}");
+		}
+		return sb.append(']').toString();
+	}
+
+	static String csv(final int records) {
+		final Random		rnd = new Random(SEED);
+		final StringBuilder	sb = new StringBuilder();
+
+		for (int index = 0; index < records; index++) {
+			sb.append(index).append(",\"name").append(rnd.nextInt(1000)).append("\",").append(rnd.nextDouble() * 1000).append(',').append(rnd.nextBoolean()).append("\r\n");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,68 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.CharUtils;
+import chav1961.purelib.basic.exceptions.SyntaxException;
+
+/**
+ * <p>Number parsing and printing performance of the {@linkplain CharUtils}.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharUtilsBenchmark {
+	private final char[]	intContent = "1234567890 ".toCharArray();
+	private final char[]	longContent = "1234567890123456789 ".toCharArray();
+	private final char[]	doubleContent = "12345.6789e-12 ".toCharArray();
+	private final char[]	target = new char[64];
+	private final int[]		intResult = new int[1];
+	private final long[]	longResult = new long[1];
+	private final double[]	doubleResult = new double[1];
+	private double			value = Math.PI * 1.0e10;
+
+	@Benchmark
+	public int parseInt() throws SyntaxException {
+		CharUtils.parseInt(intContent, 0, intResult, true);
+		return intResult[0];
+	}
+
+	@Benchmark
+	public long parseLong() throws SyntaxException {
+		CharUtils.parseLong(longContent, 0, longResult, true);
+		return longResult[0];
+	}
+
+	@Benchmark
+	public double parseDouble() throws SyntaxException {
+		CharUtils.parseDouble(doubleContent, 0, doubleResult, true);
+		return doubleResult[0];
+	}
+
+	@Benchmark
+	public int printDouble() {
+		value += 1.0;
+		return CharUtils.printDouble(target, 0, value, true);
+	}
+
+	@Benchmark
+	public int printDoubleBaseline() {
+		value += 1.0;
+		return Double.toString(value).length();
+	}
+}
@@ -0,0 +1,62 @@
+package chav1961.purelib.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.exceptions.SyntaxException;
+import chav1961.purelib.streams.CsvStaxParser;
+import chav1961.purelib.streams.interfaces.CsvStaxParserLexType;
+
+/**
+ * <p>Parsing performance of the {@linkplain CsvStaxParser}.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvStaxParserBenchmark {
+	@Param({"1000"})
+	public int		records;
+
+	private String	content;
+
+	@Setup
+	public void prepare() {
+		content = BenchmarkUtils.csv(records);
+	}
+
+	@Benchmark
+	public long parse() throws IOException, SyntaxException {
+		long	result = 0;
+
+		try(final CsvStaxParser	parser = new CsvStaxParser(new StringReader(content), 8192, false, long.class, String.class, double.class, boolean.class)) {
+			for (CsvStaxParserLexType lex : parser) {
+				switch (lex) {
+					case INTEGER_VALUE	: result += parser.intValue(); break;
+					case REAL_VALUE		: result += (long)parser.realValue(); break;
+					case STRING_VALUE	: result += parser.stringValue().length(); break;
+					case BOOLEAN_VALUE	: result += parser.booleanValue() ? 1 : 0; break;
+					default : result++;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,111 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.growablearrays.GrowableCharArray;
+import chav1961.purelib.basic.growablearrays.GrowableIntArray;
+import chav1961.purelib.basic.growablearrays.GrowableLongArray;
+
+/**
+ * <p>Append and read performance of the growable arrays (plain and paged variants).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowableArraysBenchmark {
+	@Param({"true", "false"})
+	public boolean				usePlain;
+
+	@Param({"100000"})
+	public int					amount;
+
+	private GrowableIntArray	filled;
+	private final int[]			chunk = new int[1024];
+
+	@Setup
+	public void prepare() {
+		filled = new GrowableIntArray(usePlain);
+		for (int index = 0; index < amount; index++) {
+			filled.append(index);
+		}
+	}
+
+	@Benchmark
+	public int appendInt() {
+		final GrowableIntArray	array = new GrowableIntArray(usePlain);
+
+		for (int index = 0; index < amount; index++) {
+			array.append(index);
+		}
+		return array.length();
+	}
+
+	@Benchmark
+	public int appendIntBulk() {
+		final GrowableIntArray	array = new GrowableIntArray(usePlain);
+
+		for (int index = 0; index < amount; index += chunk.length) {
+			array.append(chunk);
+		}
+		return array.length();
+	}
+
+	@Benchmark
+	public long appendLong() {
+		final GrowableLongArray	array = new GrowableLongArray(usePlain);
+
+		for (int index = 0; index < amount; index++) {
+			array.append(index);
+		}
+		return array.length();
+	}
+
+	@Benchmark
+	public int appendChar() {
+		final GrowableCharArray<?>	array = new GrowableCharArray<>(usePlain);
+
+		for (int index = 0; index < amount; index++) {
+			array.append((char)index);
+		}
+		return array.length();
+	}
+
+	@Benchmark
+	public long readInt() {
+		long	result = 0;
+
+		for (int index = 0, maxIndex = filled.length(); index < maxIndex; index++) {
+			result += filled.read(index);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public long readIntBulk() {
+		long	result = 0;
+
+		for (int index = 0, maxIndex = filled.length(); index < maxIndex; index += chunk.length) {
+			final int	read = filled.read(index, chunk, 0, Math.min(chunk.length, maxIndex - index));
+
+			result += read + chunk[0];
+		}
+		return result;
+	}
+}
@@ -0,0 +1,87 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.exceptions.EnvironmentException;
+import chav1961.purelib.basic.exceptions.SyntaxException;
+import chav1961.purelib.json.JsonSerializer;
+
+/**
+ * <p>Round-trip performance of the {@linkplain JsonSerializer} (serialization to char array and deserialization from it).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializerBenchmark {
+	/**
+	 * <p>Class to serialize</p>
+	 */
+	public static class Record {
+		public int		id;
+		public long		timestamp;
+		public double	value;
+		public boolean	flag;
+		public String	name;
+		public int[]	tags;
+
+		public Record() {
+		}
+	}
+
+	private final char[]			buffer = new char[4096];
+	private final Record[]			result = new Record[1];
+	private JsonSerializer<Record>	serializer;
+	private Record					record;
+	private int						length;
+
+	@Setup
+	public void prepare() throws EnvironmentException {
+		serializer = JsonSerializer.buildSerializer(Record.class);
+		record = new Record();
+		record.id = 1961;
+		record.timestamp = System.currentTimeMillis();
+		record.value = Math.E;
+		record.flag = true;
+		record.name = "benchmark record";
+		record.tags = new int[] {1, 2, 3, 4, 5};
+		length = serializer.serialize(record, buffer, 0, true);
+	}
+
+	@Benchmark
+	public int serialize() {
+		return serializer.serialize(record, buffer, 0, true);
+	}
+
+	@Benchmark
+	public Record deserialize() throws SyntaxException {
+		serializer.deserialize(buffer, 0, result);
+		return result[0];
+	}
+
+	@Benchmark
+	public Record roundTrip() throws SyntaxException {
+		final int	len = serializer.serialize(record, buffer, 0, true);
+
+		if (len != length) {
+			throw new IllegalStateException("Serialized length was changed");
+		}
+		serializer.deserialize(buffer, 0, result);
+		return result[0];
+	}
+}
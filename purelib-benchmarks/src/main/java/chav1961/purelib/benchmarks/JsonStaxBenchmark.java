@@ -0,0 +1,132 @@
+package chav1961.purelib.benchmarks;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.streams.JsonStaxParser;
+import chav1961.purelib.streams.JsonStaxPrinter;
+import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
+
+/**
+ * <p>Parsing and printing performance of the {@linkplain JsonStaxParser} and {@linkplain JsonStaxPrinter}. Parsing is measured for reader, in-memory char content
+ * and direct UTF-8 byte content (the same as memory-mapped file).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonStaxBenchmark {
+	@Param({"1000"})
+	public int		records;
+
+	private String		content;
+	private char[]		chars;
+	private ByteBuffer	bytes;
+
+	@Setup
+	public void prepare() {
+		final byte[]	utf8;
+		
+		content = BenchmarkUtils.json(records);
+		chars = content.toCharArray();
+		utf8 = content.getBytes(StandardCharsets.UTF_8);
+		bytes = ByteBuffer.allocateDirect(utf8.length);
+		bytes.put(utf8).flip();
+	}
+
+	@Benchmark
+	public long parse() throws IOException {
+		try(final JsonStaxParser	parser = new JsonStaxParser(new StringReader(content))) {
+			return walk(parser);
+		}
+	}
+
+	@Benchmark
+	public long parseCharBuffer() throws IOException {
+		try(final JsonStaxParser	parser = new JsonStaxParser(CharBuffer.wrap(chars))) {
+			return walkSlices(parser);
+		}
+	}
+
+	@Benchmark
+	public long parseByteBuffer() throws IOException {
+		try(final JsonStaxParser	parser = new JsonStaxParser(bytes)) {
+			return walkSlices(parser);
+		}
+	}
+
+	@Benchmark
+	public int print() throws IOException {
+		final CharArrayWriter	wr = new CharArrayWriter();
+
+		try(final JsonStaxPrinter	printer = new JsonStaxPrinter(wr)) {
+			printer.startArray();
+			for (int index = 0; index < records; index++) {
+				if (index > 0) {
+					printer.splitter();
+				}
+				printer.startObject()
+						.name("id").value(index).splitter()
+						.name("name").value("name").splitter()
+						.name("value").value(index * 0.5).splitter()
+						.name("flag").value(index % 2 == 0).splitter()
+						.name("tags").array(new int[] {1, 2, 3}).splitter()
+						.name("empty").nullValue()
+					.endObject();
+			}
+			printer.endArray();
+		}
+		return wr.size();
+	}
+
+	private static long walk(final JsonStaxParser parser) throws IOException {
+		long	result = 0;
+
+		for (JsonStaxParserLexType lex : parser) {
+			switch (lex) {
+				case INTEGER_VALUE	: result += parser.intValue(); break;
+				case REAL_VALUE		: result += (long)parser.realValue(); break;
+				case STRING_VALUE	: result += parser.stringValue().length(); break;
+				case NAME			: result += parser.name().length(); break;
+				default : result++;
+			}
+		}
+		return result;
+	}
+
+	private static long walkSlices(final JsonStaxParser parser) throws IOException {
+		long	result = 0;
+
+		for (JsonStaxParserLexType lex : parser) {
+			switch (lex) {
+				case INTEGER_VALUE	: result += parser.intValue(); break;
+				case REAL_VALUE		: result += (long)parser.realValue(); break;
+				case STRING_VALUE	: result += parser.stringValueSlice().length(); break;
+				case NAME			: result += parser.nameSlice().length(); break;
+				default : result++;
+			}
+		}
+		return result;
+	}
+}
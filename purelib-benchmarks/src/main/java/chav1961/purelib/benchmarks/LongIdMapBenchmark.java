@@ -0,0 +1,76 @@
+package chav1961.purelib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.LongIdMap;
+
+/**
+ * <p>Put and get performance of the {@linkplain LongIdMap} for dense and sparse ids.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongIdMapBenchmark {
+	@Param({"dense", "sparse"})
+	public String				distribution;
+
+	@Param({"65536"})
+	public int					amount;
+
+	private long[]				ids;
+	private LongIdMap<String>	map;
+	private int					index = 0;
+
+	@Setup
+	public void prepare() {
+		final Random	rnd = new Random(1961);
+
+		ids = new long[amount];
+		for (int item = 0; item < amount; item++) {
+			ids[item] = "dense".equals(distribution) ? item : rnd.nextLong() & 0xFFFFFFFFFFL;
+		}
+		map = new LongIdMap<>(String.class);
+		for (long id : ids) {
+			map.put(id, "value");
+		}
+	}
+
+	@Benchmark
+	public String get() {
+		return map.get(ids[index++ & (ids.length - 1)]);
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return map.contains(ids[index++ & (ids.length - 1)] + 1);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public long putAll() {
+		final LongIdMap<String>	newMap = new LongIdMap<>(String.class);
+
+		for (long id : ids) {
+			newMap.put(id, "value");
+		}
+		return newMap.size();
+	}
+}
@@ -0,0 +1,62 @@
+package chav1961.purelib.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Piece;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrix;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>Multiplication performance of the {@linkplain PlainComplexFloatMatrix}.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+	@Param({"64", "256"})
+	public int						size;
+
+	private PlainComplexFloatMatrix	left, right;
+
+	@Setup
+	public void prepare() throws IOException {
+		left = fill(new PlainComplexFloatMatrix(size, size), 1);
+		right = fill(new PlainComplexFloatMatrix(size, size), 2);
+	}
+
+	@Benchmark
+	public PlainComplexFloatMatrix mul() throws CalculationException {
+		return left.mul(right);
+	}
+
+	private static PlainComplexFloatMatrix fill(final PlainComplexFloatMatrix matrix, final long seed) throws IOException {
+		final Random	rnd = new Random(seed);
+
+		return matrix.download(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataInputAdapter() {
+			@Override
+			public float readFloat() throws IOException {
+				return rnd.nextFloat() - 0.5f;
+			}
+		});
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * <p>This package contains <a href="https://github.com/openjdk/jmh">JMH</a> benchmarks for the Pure Library hot paths. Build benchmarks module after
+ * installation of the Pure Library into local Maven repository and run it as <code>java -jar target/benchmarks.jar [benchmarkNameRegex]</code>.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+package chav1961.purelib.benchmarks;
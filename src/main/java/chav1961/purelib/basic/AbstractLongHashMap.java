@@ -0,0 +1,342 @@
+package chav1961.purelib.basic;
+
+/**
+ * <p>This class is a common part of the open-addressing maps with primitive long keys ({@linkplain LongHashMap} and {@linkplain LongLongHashMap}). Keys are stored in the plain
+ * long array with linear probing, slot states are stored in the parallel byte array, values are stored by the child classes in their own parallel arrays. Removing keys
+ * uses backward shift, so the table never contains "tombstones".</p>
+ * <p>Table resizing is incremental. When the table is full enough, it becomes "old" and a new table of the double size is allocated. Every subsequent modification
+ * moves a small piece of the old table into the new one, and lookups check both the tables until the old one will be completely moved. Old table never changes it's layout
+ * while moving, so probe sequences in it remain valid. This approach avoids long pauses on rehashing huge maps.</p>
+ * <p>This class is not thread-safe.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+abstract class AbstractLongHashMap {
+	static final int			MIN_CAPACITY = 16;
+	static final int			MAX_CAPACITY = 1 << 30;
+	static final int			MIGRATION_STEP = 16;
+
+	private static final byte	EMPTY = 0;
+	private static final byte	USED = 1;
+	private static final byte	MOVED = 2;
+
+	private final int			initialCapacity;
+	private long[]				keys;
+	private byte[]				states;
+	private int					mask, used, threshold;
+	private long[]				oldKeys = null;
+	private byte[]				oldStates = null;
+	private int					oldMask, migrated;
+	private long				count = 0;
+
+	AbstractLongHashMap(final int expectedSize) throws IllegalArgumentException {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Expected size ["+expectedSize+"] can't be negative");
+		}
+		else {
+			this.initialCapacity = capacityFor(expectedSize);
+			allocate(initialCapacity);
+		}
+	}
+
+	/**
+	 * <p>Get number of keys in the map</p>
+	 * @return number of keys in the map
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * <p>Is map empty</p>
+	 * @return true if map doesn't contain any keys
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * <p>Does map contain key typed</p>
+	 * @param id key to test
+	 * @return true if contains
+	 */
+	public boolean contains(final long id) {
+		return find(id) >= 0 || findOld(id) >= 0;
+	}
+
+	/**
+	 * <p>Clear all map content and shrink the map to it's initial capacity</p>
+	 */
+	public void clear() {
+		allocate(initialCapacity);
+		oldKeys = null;
+		oldStates = null;
+		count = 0;
+	}
+
+	/**
+	 * <p>Create value array(s) for the new table. Current value arrays must be kept as "old" arrays when migration flag is true</p>
+	 * @param capacity capacity of the new table
+	 * @param migrate true if the current table becomes "old" table
+	 */
+	abstract void allocateValues(int capacity, boolean migrate);
+
+	/**
+	 * <p>Release value arrays of the old table</p>
+	 */
+	abstract void releaseOldValues();
+
+	/**
+	 * <p>Move value from the old table into the new one</p>
+	 * @param from index in the old table
+	 * @param to index in the new table
+	 */
+	abstract void migrateValue(int from, int to);
+
+	/**
+	 * <p>Move value inside the new table</p>
+	 * @param from source index
+	 * @param to target index
+	 */
+	abstract void moveValue(int from, int to);
+
+	/**
+	 * <p>Clear value in the new table</p>
+	 * @param index index to clear
+	 */
+	abstract void clearValue(int index);
+
+	/**
+	 * <p>Find key in the new table</p>
+	 * @param id key to find
+	 * @return index in the new table or negative if missing
+	 */
+	final int find(final long id) {
+		final long[]	currentKeys = keys;
+		final byte[]	currentStates = states;
+
+		for (int index = hash(id) & mask; currentStates[index] != EMPTY; index = (index + 1) & mask) {
+			if (currentKeys[index] == id) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p>Find key in the old table. Only keys which were not moved to the new table yet are returned</p>
+	 * @param id key to find
+	 * @return index in the old table or negative if missing or old table doesn't exist
+	 */
+	final int findOld(final long id) {
+		if (oldKeys != null) {
+			for (int index = hash(id) & oldMask; oldStates[index] != EMPTY; index = (index + 1) & oldMask) {
+				if (oldKeys[index] == id) {
+					return oldStates[index] == USED && index >= migrated ? index : -1;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p>Mark key in the old table as removed (for example, it was replaced with the key in the new table)</p>
+	 * @param oldIndex index in the old table
+	 * @param decrement decrement key counter
+	 */
+	final void removeOld(final int oldIndex, final boolean decrement) {
+		oldStates[oldIndex] = MOVED;
+		if (decrement) {
+			count--;
+		}
+	}
+
+	/**
+	 * <p>Insert key that is known to be missing in the both tables into the new table</p>
+	 * @param id key to insert
+	 * @param increment increment key counter
+	 * @return index of the key in the new table
+	 */
+	final int insert(final long id, final boolean increment) {
+		if (used >= threshold) {
+			if (oldKeys != null) {
+				migrate(Integer.MAX_VALUE);
+			}
+			if (keys.length < MAX_CAPACITY) {
+				startResize();
+			}
+			else if (used >= keys.length - 1) {
+				throw new IllegalStateException("Map capacity exhausted");
+			}
+		}
+		int	index = hash(id) & mask;
+
+		while (states[index] != EMPTY) {
+			index = (index + 1) & mask;
+		}
+		keys[index] = id;
+		states[index] = USED;
+		used++;
+		if (increment) {
+			count++;
+		}
+		return index;
+	}
+
+	/**
+	 * <p>Remove key from the new table with backward shift of the keys followed</p>
+	 * @param index index of the key to remove
+	 */
+	final void delete(int index) {
+		int	next = index;
+
+		for (;;) {
+			next = (next + 1) & mask;
+			if (states[next] == EMPTY) {
+				break;
+			}
+			else {
+				final int	home = hash(keys[next]) & mask;
+
+				if (((next - home) & mask) >= ((next - index) & mask)) {	// Key at the "next" position can be shifted to the "index" position
+					keys[index] = keys[next];
+					moveValue(next, index);
+					index = next;
+				}
+			}
+		}
+		states[index] = EMPTY;
+		clearValue(index);
+		used--;
+		count--;
+	}
+
+	/**
+	 * <p>Move a piece of the old table into the new one. Must be called on every modification of the map</p>
+	 */
+	final void step() {
+		if (oldKeys != null) {
+			migrate(MIGRATION_STEP);
+		}
+	}
+
+	/**
+	 * <p>Get number of slots in the new table</p>
+	 * @return number of slots
+	 */
+	final int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * <p>Get number of slots in the old table</p>
+	 * @return number of slots or 0 if the old table doesn't exist
+	 */
+	final int oldCapacity() {
+		return oldKeys != null ? oldKeys.length : 0;
+	}
+
+	/**
+	 * <p>Is slot in the new table occupied</p>
+	 * @param index slot index
+	 * @return true if occupied
+	 */
+	final boolean isUsed(final int index) {
+		return states[index] == USED;
+	}
+
+	/**
+	 * <p>Is slot in the old table occupied by the key which was not moved yet</p>
+	 * @param index slot index
+	 * @return true if occupied
+	 */
+	final boolean isOldUsed(final int index) {
+		return oldKeys != null && index >= migrated && oldStates[index] == USED;
+	}
+
+	/**
+	 * <p>Get key from the slot of the new table</p>
+	 * @param index slot index
+	 * @return key
+	 */
+	final long keyAt(final int index) {
+		return keys[index];
+	}
+
+	/**
+	 * <p>Get key from the slot of the old table</p>
+	 * @param index slot index
+	 * @return key
+	 */
+	final long oldKeyAt(final int index) {
+		return oldKeys[index];
+	}
+
+	static int hash(final long id) {
+		final long	mixed = id * 0x9E3779B97F4A7C15L;
+
+		return (int)(mixed ^ (mixed >>> 32));
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		states = new byte[capacity];
+		mask = capacity - 1;
+		used = 0;
+		threshold = capacity - (capacity >> 2);
+		allocateValues(capacity, false);
+	}
+
+	private void startResize() {
+		final int	capacity = keys.length << 1;
+
+		oldKeys = keys;
+		oldStates = states;
+		oldMask = mask;
+		migrated = 0;
+		keys = new long[capacity];
+		states = new byte[capacity];
+		mask = capacity - 1;
+		used = 0;
+		threshold = capacity - (capacity >> 2);
+		allocateValues(capacity, true);
+	}
+
+	private void migrate(final int slots) {
+		final int	limit = (int)Math.min(oldKeys.length, (long)migrated + slots);
+
+		for (int index = migrated; index < limit; index++) {
+			if (oldStates[index] == USED) {
+				final long	id = oldKeys[index];
+				int			target = hash(id) & mask;
+
+				while (states[target] != EMPTY) {
+					target = (target + 1) & mask;
+				}
+				keys[target] = id;
+				states[target] = USED;
+				used++;
+				migrateValue(index, target);
+			}
+		}
+		migrated = limit;
+		if (migrated == oldKeys.length) {
+			oldKeys = null;
+			oldStates = null;
+			releaseOldValues();
+		}
+	}
+
+	private static int capacityFor(final int expectedSize) {
+		final long	required = Math.max(MIN_CAPACITY, (long)expectedSize * 4 / 3 + 1);
+
+		if (required >= MAX_CAPACITY) {
+			return MAX_CAPACITY;
+		}
+		else {
+			final int	result = Integer.highestOneBit((int)required);
+
+			return result == required ? result : result << 1;
+		}
+	}
+}
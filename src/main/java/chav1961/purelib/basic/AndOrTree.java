@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
 
+import chav1961.purelib.basic.interfaces.LongIdTreeInterface;
 import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
 
 /**
@@ -42,6 +43,10 @@ import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
  * <li>seeking of existent string ~0.9 microseconds/item</li> 
  * </ul>
  *
+ * <p>Tree keeps id-to-node map to support {@linkplain #getName(long)} and similar methods. By default it uses {@linkplain LongIdMap}, that is compact
+ * when ids occupy contiguous range (automatically generated ids). When ids are placed explicitly and are sparse, use {@linkplain #AndOrTree(long, long, boolean)}
+ * constructor to select {@linkplain LongHashMap} instead.</p>
+ *
  * <p>This class is not thread-safe.</p>
  * 
  * @param <T> any king of data associated with the tree elements
@@ -52,7 +57,7 @@ import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
  * 
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.7
+ * @last.update 0.0.9
  */
 
 public class AndOrTree <T> implements SyntaxTreeInterface<T> {
@@ -67,7 +72,7 @@ public class AndOrTree <T> implements SyntaxTreeInterface<T> {
 	private final long			step;
 	private final int[]			forPosition = new int[1];
 	private Node				root = new OrNode();
-	private LongIdMap<Node>		revert = new LongIdMap<>(Node.class);
+	private final LongIdTreeInterface<Node>	revert;
 	private int					maxNameLength = 0;
 	private long				actualId, amount = 0;
 
@@ -84,6 +89,17 @@ public class AndOrTree <T> implements SyntaxTreeInterface<T> {
 	 * @param step step for automatically generated node ids
 	 */
 	public AndOrTree(final long initialId, final long step) {
+		this(initialId, step, false);
+	}
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 * @param initialId initial value for automatically generated node ids
+	 * @param step step for automatically generated node ids
+	 * @param sparseIds true if ids placed into the tree are sparse. In this case {@linkplain LongHashMap} will be used to keep id-to-node map instead of {@linkplain LongIdMap}
+	 * @since 0.0.9
+	 */
+	public AndOrTree(final long initialId, final long step, final boolean sparseIds) {
 		if (initialId <= 0) {
 			throw new IllegalArgumentException("'initialId' ["+initialId+"] need be positive");
 		}
@@ -93,6 +109,7 @@ public class AndOrTree <T> implements SyntaxTreeInterface<T> {
 		else {
 			this.actualId = initialId;
 			this.step = step;
+			this.revert = sparseIds ? new LongHashMap<>() : new LongIdMap<>(Node.class);
 		}
 	}
 
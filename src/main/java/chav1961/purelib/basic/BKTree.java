@@ -1,18 +1,27 @@
 package chav1961.purelib.basic;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * <p>This class implements Burkhard-Keller tree.</p>
+ * <p>To build large trees (for example, fuzzy search dictionaries), use {@linkplain #addAll(Object[], Object[])} method. It selects <i>vantage points</i>
+ * for every subtree to make the tree wide and shallow. To search large trees, use {@linkplain #walk(Object, int, WalkFunction, ForkJoinPool)} method,
+ * that searches different subtrees in parallel. If the metric function implements {@linkplain BoundedBiIntFunction} interface, it will be called with
+ * the maximal distance interesting for the search, so it can stop calculation early (see {@linkplain #CHAR_ARRAY_LEVENSTAIN}).</p>
  * 
- * <p>This class is not thread-safe</p>
+ * <p>This class is not thread-safe, but parallel walking is available when the tree is not modified</p>
  * 
  * @param <Content> content item type inside the tree
  * @param <Cargo> any object associated with the item
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.7
- * @last.update 0.0.8
+ * @last.update 0.0.9
  * @see <a href="https://en.wikipedia.org/wiki/BK-tree">Burkhardt-Keller tree</a>
  */
 public class BKTree<Content, Cargo> {
@@ -53,6 +62,46 @@ public class BKTree<Content, Cargo> {
 		boolean apply(Content content, int metrics, Cargo cargo);
 	}
 	
+	/**
+	 * <p>This interface describes function to calculate metrics with early exit. It's useful for expensive metrics (for example, Levenstein distance),
+	 * because BK-tree search is not interested in exact value of large distances</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 * @param <Content> content to calculate metrics
+	 */
+	public static interface BoundedBiIntFunction<Content> extends BiIntFunction<Content> {
+		/**
+		 * <p>Calculate metrics between two elements with limit</p>
+		 * @param c1 first element to calculate. Can't be null
+		 * @param c2 second element to calculate. Can't be null
+		 * @param limit maximal distance interesting. Can't be negative
+		 * @return exact distance when it is not greater than limit, any value greater than limit otherwise
+		 */
+		int apply(final Content c1, final Content c2, final int limit);
+	}
+	
+	/**
+	 * <p>Levenstein distance for char arrays with early exit.</p>
+	 * @see CharUtils#calcLevenstain(char[], char[])
+	 * @see CharUtils#calcLevenstain(char[], char[], int)
+	 * @since 0.0.9
+	 */
+	public static final BoundedBiIntFunction<char[]>	CHAR_ARRAY_LEVENSTAIN = new BoundedBiIntFunction<char[]>() {
+															@Override
+															public int apply(final char[] c1, final char[] c2) {
+																return CharUtils.calcLevenstain(c1, c2).distance;
+															}
+															
+															@Override
+															public int apply(final char[] c1, final char[] c2, final int limit) {
+																return CharUtils.calcLevenstain(c1, c2, limit);
+															}
+														};
+	
+	private static final int	VANTAGE_POINT_THRESHOLD = 64;
+	private static final int	VANTAGE_POINT_SAMPLE = 8;
+	private static final int	PARALLEL_DEPTH = 4;
+	
 	private final Class<Content> 			clazz;
 	private final BiIntFunction<Content>	metrics;
 	private BKRoot<Content, Cargo>			root;
@@ -103,6 +152,44 @@ public class BKTree<Content, Cargo> {
 		}
 	}
 
+	/**
+	 * <p>Add a lot of items to the tree. When the tree is empty, builds balanced tree: root of every subtree is selected from the subtree items
+	 * as a <i>vantage point</i> with the most number of different distances to other items. It makes the tree wider and reduces number of nodes
+	 * to visit on search. When the tree is not empty, adds items one by one.</p>
+	 * @param content item contents to add. Can't be null and can't contain nulls
+	 * @param cargo cargos associated. Can't be null and must have the same length as content. Can contain nulls
+	 * @throws NullPointerException when any array is null or content contains nulls
+	 * @throws IllegalArgumentException when array lengths are differ or on attempt to add duplicate content
+	 * @since 0.0.9
+	 */
+	public void addAll(final Content[] content, final Cargo[] cargo) throws NullPointerException, IllegalArgumentException {
+		if (content == null) {
+			throw new NullPointerException("Content to add can't be null"); 
+		}
+		else if (cargo == null) {
+			throw new NullPointerException("Cargo to add can't be null"); 
+		}
+		else if (content.length != cargo.length) {
+			throw new IllegalArgumentException("Content length ["+content.length+"] and cargo length ["+cargo.length+"] are differ"); 
+		}
+		else if (Utils.checkArrayContent4Nulls(content) >= 0) {
+			throw new NullPointerException("Content to add contains null at index ["+Utils.checkArrayContent4Nulls(content)+"]"); 
+		}
+		else if (root != null) {
+			for (int index = 0; index < content.length; index++) {
+				add(root, content[index], cargo[index]);
+			}
+		}
+		else if (content.length > 0) {
+			final long[]	keys = new long[content.length];
+			
+			for (int index = 0; index < keys.length; index++) {
+				keys[index] = index;
+			}
+			root = build(keys, 0, keys.length, 0, content, cargo);
+		}
+	}
+
 	/**
 	 * <p>Test the tree contains the given content.</p> 
 	 * @param content content to test. Can't be null
@@ -115,7 +202,7 @@ public class BKTree<Content, Cargo> {
 			throw new NullPointerException("Content to test can't be null"); 
 		}
 		else {
-			return contains(root, content);
+			return root != null && contains(root, content);
 		}
 	}
 	
@@ -128,7 +215,7 @@ public class BKTree<Content, Cargo> {
 		if (callback == null) {
 			throw new NullPointerException("Callback can't be null");
 		}
-		else {
+		else if (root != null) {
 			walk(root, callback);
 		}
 	}
@@ -151,8 +238,39 @@ public class BKTree<Content, Cargo> {
 		else if (callback == null) {
 			throw new NullPointerException("Callback can't be null");
 		}
-		else {
-			forAll(root, content, maxMetrics, callback);
+		else if (root != null) {
+			forAll(root, content, maxMetrics, callback, new AtomicBoolean());
+		}
+	}
+
+	/**
+	 * <p>Walk all tree items with metrics not more than typed in parallel. Works the same way as {@linkplain #walk(Object, int, WalkFunction)} method,
+	 * but searches different subtrees in the given fork-join pool. Callback can be called from different threads concurrently, so it must be thread-safe.
+	 * When callback returns false, walking will be stopped as soon as possible, but callback can be called some more times. Tree must not be modified
+	 * while walking.</p>
+	 * @param content content to calculate tree node metrics relative to. Can't be null
+	 * @param maxMetrics maximal metric difference between content and current tree node.
+	 * @param callback function processed on items found. Can't be null. Must be thread-safe
+	 * @param pool fork-join pool to search in. Can't be null
+	 * @throws NullPointerException when content, callback or pool is null
+	 * @throws IllegalArgumentException when maxMetrics is negative
+	 * @since 0.0.9
+	 */
+	public void walk(final Content content, final int maxMetrics, final WalkFunction<Content, Cargo> callback, final ForkJoinPool pool) throws NullPointerException, IllegalArgumentException {
+		if (content == null) {
+			throw new NullPointerException("Content can't be null");
+		}
+		else if (maxMetrics < 0) {
+			throw new IllegalArgumentException("Max metrics ["+maxMetrics+"] can't be negative");
+		}		
+		else if (callback == null) {
+			throw new NullPointerException("Callback can't be null");
+		}
+		else if (pool == null) {
+			throw new NullPointerException("Fork-join pool can't be null");
+		}
+		else if (root != null) {
+			pool.invoke(new ParallelWalker(root, content, maxMetrics, callback, new AtomicBoolean(), 0));
 		}
 	}
 
@@ -190,18 +308,15 @@ public class BKTree<Content, Cargo> {
 	}
 
 	private boolean contains(final BKRoot<Content, Cargo> root, final Content content) {
-		if (metrics.apply(root.content, content) == 0) {
+		final int	key = metrics.apply(root.content, content);
+		
+		if (key == 0) {
 			return true;
 		}
 		else {
-			final BKRoot<Content, Cargo>[]	array = root.children;
+			final int	index = lowerBound(root.children, root.getLength(), key);
 
-			for(int index = 0; index < root.getLength(); index++) {
-				if (contains(array[index], content)) {
-					return true;
-				}
-			}
-			return false;
+			return index < root.getLength() && root.children[index].metric == key && contains(root.children[index], content);
 		}
 	}
 	
@@ -221,29 +336,44 @@ public class BKTree<Content, Cargo> {
 		}
 	}
 	
-	private boolean forAll(final BKRoot<Content, Cargo> root, final Content content, final int maxMetrics, final WalkFunction<Content, Cargo> callback) {
-		final int 	key = metrics.apply(root.content, content);
+	private boolean forAll(final BKRoot<Content, Cargo> root, final Content content, final int maxMetrics, final WalkFunction<Content, Cargo> callback, final AtomicBoolean stop) {
+		if (stop.get()) {
+			return false;
+		}
+		final int 	key = distance(root, content, maxMetrics);
 		
 		if (key <= maxMetrics) {
 			if (!callback.apply(root.content, key, root.cargo)) {
+				stop.set(true);
 				return false;
 			}
 		}
 		
 		final BKRoot<Content, Cargo>[]	array = root.children;
-		final int	from = find(array, root.getLength(), key - maxMetrics);
-		final int	to = Math.min(root.getLength() - 1, find(array, root.getLength(), key + maxMetrics));
 
-		for(int index = from; index <= to; index++) {
-			if (!forAll(array[index], content, maxMetrics, callback)) {
+		for(int index = lowerBound(array, root.getLength(), key - maxMetrics), maxIndex = root.getLength(); index < maxIndex && array[index].metric <= key + maxMetrics; index++) {
+			if (!forAll(array[index], content, maxMetrics, callback, stop)) {
 				return false;
 			}
 		}
 		return true;
 	}
 	
-	private int find(final BKRoot<Content, Cargo>[] root, final int range, final int key) {
-        int 		low = 0, high = range - 1, mid = 0, midVal;
+	@SuppressWarnings("unchecked")
+	private int distance(final BKRoot<Content, Cargo> root, final Content content, final int maxMetrics) {
+		if (metrics instanceof BoundedBiIntFunction) {
+			// Exact distance is required for all children range, larger distances don't match any child
+			final int	limit = root.getLength() == 0 ? maxMetrics : root.children[root.getLength() - 1].metric + maxMetrics;
+			
+			return ((BoundedBiIntFunction<Content>)metrics).apply(root.content, content, limit < 0 ? Integer.MAX_VALUE - 1 : limit);
+		}
+		else {
+			return metrics.apply(root.content, content);
+		}
+	}
+	
+	private int lowerBound(final BKRoot<Content, Cargo>[] root, final int range, final int key) {
+        int 		low = 0, high = range - 1, mid, midVal;
         
         while (low <= high) {
             mid = (low + high) >>> 1;
@@ -252,14 +382,119 @@ public class BKTree<Content, Cargo> {
             if (midVal < key) {
                 low = mid + 1;
             }
-            else if (midVal > key) {
-            	high = mid - 1;
-            }
             else {
-            	return mid;
+            	high = mid - 1;
             }
         }
-        return mid;
+        return low;
+	}
+	
+	private BKRoot<Content, Cargo> build(final long[] keys, final int from, final int to, final int metric, final Content[] content, final Cargo[] cargo) {
+		selectVantagePoint(keys, from, to, content);
+		
+		final int						pivot = (int)keys[from];
+		final BKRoot<Content, Cargo>	node = new BKRoot<>(content[pivot], metric, cargo[pivot]);
+		
+		for (int index = from + 1; index < to; index++) {
+			final int	item = (int)keys[index], key = metrics.apply(content[pivot], content[item]);
+			
+			if (key == 0) {
+				throw new IllegalArgumentException("Duplicate value ["+content[item]+"] to add"); 
+			}
+			else {
+				keys[index] = ((long)key << 32) | item;
+			}
+		}
+		Arrays.sort(keys, from + 1, to);
+		
+		final List<BKRoot<Content, Cargo>>	children = new ArrayList<>();
+		
+		for (int start = from + 1, end; start < to; start = end) {
+			final int	key = (int)(keys[start] >>> 32);
+			
+			for (end = start + 1; end < to && (int)(keys[end] >>> 32) == key; end++) {
+			}
+			for (int index = start; index < end; index++) {
+				keys[index] &= 0xFFFFFFFFL;
+			}
+			children.add(build(keys, start, end, key, content, cargo));
+		}
+		node.setChildren(children);
+		return node;
+	}
+	
+	private void selectVantagePoint(final long[] keys, final int from, final int to, final Content[] content) {
+		if (to - from >= VANTAGE_POINT_THRESHOLD) {
+			final int	step = (to - from) / VANTAGE_POINT_SAMPLE;
+			final int[]	distances = new int[VANTAGE_POINT_SAMPLE];
+			int			bestIndex = from, bestScore = -1;
+			
+			for (int candidate = 0; candidate < VANTAGE_POINT_SAMPLE; candidate++) {
+				final Content	current = content[(int)keys[from + candidate * step]];
+				int				score = 0;
+				
+				for (int other = 0; other < VANTAGE_POINT_SAMPLE; other++) {
+					distances[other] = metrics.apply(current, content[(int)keys[from + other * step + step / 2]]);
+				}
+				Arrays.sort(distances);
+				for (int index = 0; index < distances.length; index++) {
+					if (index == 0 || distances[index] != distances[index - 1]) {
+						score++;
+					}
+				}
+				if (score > bestScore) {
+					bestScore = score;
+					bestIndex = from + candidate * step;
+				}
+			}
+			final long	temp = keys[from];
+			
+			keys[from] = keys[bestIndex];
+			keys[bestIndex] = temp;
+		}
+	}
+	
+	private class ParallelWalker extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final BKRoot<Content, Cargo>		node;
+		private final Content						content;
+		private final int							maxMetrics;
+		private final WalkFunction<Content, Cargo>	callback;
+		private final AtomicBoolean					stop;
+		private final int							depth;
+		
+		private ParallelWalker(final BKRoot<Content, Cargo> node, final Content content, final int maxMetrics, final WalkFunction<Content, Cargo> callback, final AtomicBoolean stop, final int depth) {
+			this.node = node;
+			this.content = content;
+			this.maxMetrics = maxMetrics;
+			this.callback = callback;
+			this.stop = stop;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (depth >= PARALLEL_DEPTH) {
+				forAll(node, content, maxMetrics, callback, stop);
+			}
+			else if (!stop.get()) {
+				final int 	key = distance(node, content, maxMetrics);
+				
+				if (key <= maxMetrics && !callback.apply(node.content, key, node.cargo)) {
+					stop.set(true);
+				}
+				else {
+					final BKRoot<Content, Cargo>[]	array = node.children;
+					final List<ParallelWalker>		tasks = new ArrayList<>();
+					
+					for(int index = lowerBound(array, node.getLength(), key - maxMetrics), maxIndex = node.getLength(); index < maxIndex && array[index].metric <= key + maxMetrics; index++) {
+						tasks.add(new ParallelWalker(array[index], content, maxMetrics, callback, stop, depth + 1));
+					}
+					invokeAll(tasks);
+				}
+			}
+		}
 	}
 	
 	private static class BKRoot<Content, Cargo> {
@@ -288,6 +523,11 @@ public class BKTree<Content, Cargo> {
 			return children;
 		}
 		
+		public void setChildren(final List<BKRoot<Content, Cargo>> children) {
+			this.children = children.toArray(this.children);
+			this.length = children.size();
+		}
+		
 		@Override
 		public String toString() {
 			return "BKRoot [content=" + content + ", metric=" + metric + ", cargo=" + cargo + "]";
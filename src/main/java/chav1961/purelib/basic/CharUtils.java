@@ -139,7 +139,7 @@ import chav1961.purelib.i18n.internal.PureLibLocalizer;
  * @see chav1961.purelib.basic JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.8
+ * @last.update 0.0.9
  */
 
 public class CharUtils {
@@ -187,7 +187,7 @@ public class CharUtils {
 	private static final char		WILDCARD_ANY_SEQ = '*';
 	private static final char		WILDCARD_ANY_CHAR = '?';
 	private static final SyntaxTreeInterface<Object>	CONSTANTS = new AndOrTree<>();
-	private static final SyntaxTreeInterface<String>	VOCABULARY = new AndOrTree<>();
+	private static final StringInterner	VOCABULARY = new StringInterner(StringInterner.EvictionPolicy.WEAK, Integer.MAX_VALUE);
 	private static final Object[]	RECTANGLE_REPRESENTATION = {new Choise(
 														  new Object[] {ArgumentType.signedInt, ',', ArgumentType.signedInt, new Optional("to"), ArgumentType.signedInt, ',', ArgumentType.signedInt, new Mark(1)}
 														, new Object[] {ArgumentType.signedInt, ',', ArgumentType.signedInt, "size", ArgumentType.signedInt, ',', ArgumentType.signedInt, new Mark(2)}
@@ -3524,6 +3524,71 @@ loop:		for (int index = 0, maxIndex = lexemas.length; index < maxIndex; index++)
     	}
     }
 
+	/**
+	 * <p>Calculate bounded Levenstain distance for two strings. Unlike {@linkplain #calcLevenstain(char[], char[])}, this method doesn't build
+	 * editor prescription, calculates the diagonal band of the distance matrix only and stops as soon as the distance exceeds the given limit.
+	 * It's useful for fuzzy search, when the exact distance is not interesting if it is too large.</p>
+	 * @param str1 string to calculate difference for. Can't be null
+	 * @param str2 string to use as template. Can't be null
+	 * @param maxDistance maximal distance interesting. Can't be negative
+	 * @return Levenstain distance when it is not greater than maxDistance, maxDistance + 1 otherwise
+	 * @throws NullPointerException on any string is null
+	 * @throws IllegalArgumentException on negative maxDistance
+	 * @see #calcLevenstain(char[], char[])
+	 * @since 0.0.9
+	 */
+    public static int calcLevenstain(final char[] str1, final char[] str2, final int maxDistance) throws NullPointerException, IllegalArgumentException {
+    	if (str1 == null) {
+    		throw new NullPointerException("Str1 array can't be null");
+    	}
+    	else  if (str2 == null) {
+    		throw new NullPointerException("Str2 array can't be null");
+    	}
+    	else if (maxDistance < 0) {
+    		throw new IllegalArgumentException("Max distance ["+maxDistance+"] can't be negative");
+    	}
+    	else if (str1 == str2 || Arrays.equals(str1, str2)) {
+    		return 0;
+    	}
+    	else if (Math.abs(str1.length - str2.length) > maxDistance) {
+    		return maxDistance + 1;
+    	}
+    	else {
+			final int	m = str1.length, n = str2.length, overflow = maxDistance + 1;
+			int[]		prev = new int[n + 1], curr = new int[n + 1], temp;
+			
+			for (int j = 0; j <= n; j++) {
+				prev[j] = Math.min(j, overflow);
+			}
+			for (int i = 1; i <= m; i++) {
+				final int	from = Math.max(1, i - maxDistance), to = Math.min(n, i + maxDistance);
+				int			rowMin;
+				
+				curr[0] = Math.min(i, overflow);
+				curr[from - 1] = from == 1 ? curr[0] : overflow;
+				rowMin = curr[from - 1];
+				
+				for (int j = from; j <= to; j++) {
+					final int	cost = str1[i - 1] != str2[j - 1] ? 1 : 0;
+					final int	value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+					
+					curr[j] = Math.min(value, overflow);
+					rowMin = Math.min(rowMin, curr[j]);
+				}
+				if (to < n) {
+					curr[to + 1] = overflow;
+				}
+				if (rowMin > maxDistance) {
+					return overflow;
+				}
+				temp = prev;
+				prev = curr;
+				curr = temp;
+			}
+			return prev[n];
+    	}
+    }
+
     /**
      * <p>Calculate Levenstain distance and editor prescription for two object arrays</p>
      * @param <T> Object nature
@@ -3642,59 +3707,47 @@ loop:		for (int index = 0, maxIndex = lexemas.length; index < maxIndex; index++)
     }
     
     /**
-     * <p>Replace string with the same content to the same string. VEry similar to {@linkplain String#intern()} method</p>
+     * <p>Replace string with the same content to the same string. VEry similar to {@linkplain String#intern()} method. Vocabulary of the strings keeps weak references
+     * to them, so strings not used anywhere will be removed from it by garbage collector.</p>
      * @param source string to replace. Null value will return null  
      * @return string replaced or null
      * @see String#intern()
+     * @see StringInterner
      * @since 0.0.6
+     * @last.update 0.0.9
      */
     public static String buildIdenticalString(final String source) {
-    	if (source == null) {
-    		return null; 
-    	}
-    	else {
-        	return buildIdenticalString(source.toCharArray(), 0, source.length());
-    	}
+    	return VOCABULARY.intern(source);
     }
     
     /**
-     * <p>Replace piece of char with the same content to the same string.</p>
+     * <p>Replace piece of char with the same content to the same string. This method can be called concurrently from a lot of threads.</p>
      * @param source char content. Can't be null
      * @param from from position on the char content
-     * @param to to position in the char content
+     * @param to to position in the char content (exclusive)
      * @return string built from char content. Can't be null
      * @throws NullPointerException when source content is null
      * @throws IllegalArgumentException when from and to arguments out of range
      * @see String#intern()
+     * @see StringInterner
      * @since 0.0.6
+     * @last.update 0.0.9
      */
     public static String buildIdenticalString(final char[] source, final int from, final int to) throws NullPointerException, IllegalArgumentException {
     	if (source == null) {
     		throw new NullPointerException("Source chars buffer can't be null"); 
     	}
-    	else if (from < 0 || from >= source.length) {
-    		throw new IllegalArgumentException("From position ["+from+"] out of range 0.."+(source.length-1)); 
+    	else if (from < 0 || from > source.length) {
+    		throw new IllegalArgumentException("From position ["+from+"] out of range 0.."+source.length); 
     	}
-    	else if (to < 0 || to >= source.length) {
-    		throw new IllegalArgumentException("To position ["+to+"] out of range 0.."+(source.length-1)); 
+    	else if (to < 0 || to > source.length) {
+    		throw new IllegalArgumentException("To position ["+to+"] out of range 0.."+source.length); 
     	}
     	else if (to < from) {
     		throw new IllegalArgumentException("To position ["+to+"] can't be less than from position ["+from+"]"); 
     	}
     	else {
-    		synchronized (VOCABULARY) {
-        		final long	id = VOCABULARY.seekName(source, from, to);
-        		
-        		if (id >= 0) {
-        			return VOCABULARY.getCargo(id);
-        		}
-        		else {
-        			final String	content = new String(source, from, to-from);
-        			
-        			VOCABULARY.placeName(source, from, to, content);
-        			return content;
-        		}
-			}
+    		return VOCABULARY.intern(source, from, to);
     	}
     }
     
@@ -3703,9 +3756,7 @@ loop:		for (int index = 0, maxIndex = lexemas.length; index < maxIndex; index++)
      * @since 0.0.6
      */
     public static void resetIdenticalStringVocabulary() {
-		synchronized (VOCABULARY) {
-			VOCABULARY.clear();
-		}
+		VOCABULARY.clear();
     }
 
     /**
@@ -0,0 +1,685 @@
+package chav1961.purelib.basic;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
+
+/**
+ * <p>This class is a thread-safe variant of the {@linkplain AndOrTree}. It implements {@link SyntaxTreeInterface} interface by the compressed trie with the <b>immutable</b>
+ * nodes. Every modification of the tree copies nodes from the tree root to the node changed (path copying) and publishes the new root. Readers never lock anything
+ * and always see a consistent snapshot of the tree:</p>
+ * <ul>
+ * <li>{@linkplain #seekName(char[], int, int)}, {@linkplain #getCargo(long)}, {@linkplain #getName(long)} and other reading methods are lock-free</li>
+ * <li>{@linkplain #walk(Walker)} and it's variants walk the snapshot of the tree actual at the moment of call, so modifications made during walking are not visible for it</li>
+ * <li>modifications ({@linkplain #placeName(char[], int, int, Object)}, {@linkplain #removeName(long)} and so on) are serialized and take O(name length) time</li>
+ * <li>{@linkplain #setCargo(long, Object)} doesn't change tree structure and is visible for all readers immediately</li>
+ * </ul>
+ * <p>This class is preferred when the same tree is shared between a lot of threads and modifications are rare (for example, shared name tables of parsers).
+ * When the tree is used in one thread only, {@linkplain AndOrTree} is faster.</p>
+ *
+ * @param <T> any king of data associated with the tree elements
+ * @see AndOrTree
+ * @see SyntaxTreeInterface
+ * @see chav1961.purelib.basic JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class ConcurrentAndOrTree<T> implements SyntaxTreeInterface<T> {
+	private static final int		RANGE_STEP = 64;
+	private static final char[]		EMPTY_CHARS = new char[0];
+	private static final Node[]		EMPTY_CHILDREN = new Node[0];
+	private static final Node		EMPTY_ROOT = new Node(EMPTY_CHARS, EMPTY_CHARS, EMPTY_CHILDREN, null);
+
+	private final long						step;
+	private final Object					writeLock = new Object();
+	private final ConcurrentHashMap<Long, Term>	revert = new ConcurrentHashMap<>();
+	private volatile Node					root = EMPTY_ROOT;
+	private volatile long					amount = 0;
+	private volatile int					maxNameLength = 0;
+	private long							actualId;
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 */
+	public ConcurrentAndOrTree() {
+		this(1, RANGE_STEP);
+	}
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 * @param initialId initial value for automatically generated node ids
+	 * @param step step for automatically generated node ids
+	 * @throws IllegalArgumentException when any argument is out of range
+	 */
+	public ConcurrentAndOrTree(final long initialId, final long step) throws IllegalArgumentException {
+		if (initialId <= 0) {
+			throw new IllegalArgumentException("'initialId' ["+initialId+"] need be positive");
+		}
+		else if (step <= 0 || step > RANGE_STEP) {
+			throw new IllegalArgumentException("'step' ["+step+"] out of range 1.."+RANGE_STEP);
+		}
+		else {
+			this.actualId = initialId;
+			this.step = step;
+		}
+	}
+
+	@Override
+	public long placeName(final CharSequence name, final T cargo) {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name to place can't be null or empty");
+		}
+		else {
+			return placeName(CharUtils.toCharArray(name), 0, name.length(), 0, cargo, true, true);
+		}
+	}
+
+	@Override
+	public long placeOrChangeName(final CharSequence name, final T cargo) {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name to place can't be null or empty");
+		}
+		else {
+			return placeName(CharUtils.toCharArray(name), 0, name.length(), 0, cargo, true, false);
+		}
+	}
+
+	@Override
+	public long placeName(final char[] source, final int from, final int to, final T cargo) {
+		return placeName(source, from, to, 0, cargo, true, true);
+	}
+
+	@Override
+	public long placeOrChangeName(final char[] source, final int from, final int to, final T cargo) {
+		return placeName(source, from, to, 0, cargo, true, false);
+	}
+
+	@Override
+	public long placeName(final char[] source, final int from, final int to, final long id, final T cargo) {
+		return placeName(source, from, to, id, cargo, false, true);
+	}
+
+	@Override
+	public long placeOrChangeName(final char[] source, final int from, final int to, final long id, final T cargo) {
+		return placeName(source, from, to, id, cargo, false, false);
+	}
+
+	@Override
+	public long placeName(final CharSequence name, final long id, final T cargo) {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name to place can't be null or empty");
+		}
+		else {
+			return placeName(CharUtils.toCharArray(name), 0, name.length(), id, cargo, false, true);
+		}
+	}
+
+	@Override
+	public long placeOrChangeName(final CharSequence name, final long id, final T cargo) {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name to place can't be null or empty");
+		}
+		else {
+			return placeName(CharUtils.toCharArray(name), 0, name.length(), id, cargo, false, false);
+		}
+	}
+
+	@Override
+	public void placeAll(final SyntaxTreeInterface<T> another) {
+		if (another == null) {
+			throw new NullPointerException("Another tree can't be null");
+		}
+		else {
+			another.walk((name, len, id, cargo)->{
+				if (seekName(name, 0, len) < 0) {
+					placeName(name, 0, len, cargo);
+				}
+				return true;
+			});
+		}
+	}
+
+	@Override
+	public void placeOrChangeAll(final SyntaxTreeInterface<T> another) {
+		if (another == null) {
+			throw new NullPointerException("Another tree can't be null");
+		}
+		else {
+			another.walk((name, len, id, cargo)->{
+				placeOrChangeName(name, 0, len, cargo);
+				return true;
+			});
+		}
+	}
+
+	@Override
+	public long seekName(final CharSequence name) {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name to seek can't be null or empty");
+		}
+		else {
+			return seekName(CharUtils.toCharArray(name), 0, name.length());
+		}
+	}
+
+	@Override
+	public long seekNameI(final CharSequence name) {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name to seek can't be null or empty");
+		}
+		else {
+			return seekNameI(CharUtils.toCharArray(name), 0, name.length());
+		}
+	}
+
+	@Override
+	public long seekName(final char[] source, final int from, final int to) {
+		checkRange(source, from, to, false);
+
+		Node	node = root;
+		int		pos = from;
+
+		for (;;) {
+			final char[]	chars = node.chars;
+
+			for (int index = 0; index < chars.length; index++, pos++) {
+				if (pos >= to || chars[index] != source[pos]) {
+					return -pos - 1;
+				}
+			}
+			if (pos == to) {
+				return node.term != null ? node.term.id : -pos - 1;
+			}
+			else {
+				final int	index = Arrays.binarySearch(node.labels, source[pos]);
+
+				if (index < 0) {
+					return -pos - 1;
+				}
+				else {
+					node = node.children[index];
+				}
+			}
+		}
+	}
+
+	@Override
+	public long seekNameI(final char[] source, final int from, final int to) {
+		checkRange(source, from, to, true);
+
+		final Term	term = seekIgnoreCase(root, source, from, to);
+
+		return term != null ? term.id : -from - 1;
+	}
+
+	@Override
+	public boolean removeName(final long id) {
+		checkId(id);
+		synchronized (writeLock) {
+			final Term	term = revert.get(id);
+
+			if (term == null) {
+				return false;
+			}
+			else {
+				root = remove(root, term.name, 0, true);
+				revert.remove(id);
+				amount--;
+				return true;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T getCargo(final long id) {
+		checkId(id);
+
+		final Term	term = revert.get(id);
+
+		return term == null ? null : (T)term.cargo;
+	}
+
+	@Override
+	public void setCargo(final long id, final T cargo) {
+		checkId(id);
+
+		final Term	term = revert.get(id);
+
+		if (term != null) {
+			term.cargo = cargo;
+		}
+	}
+
+	@Override
+	public boolean contains(final long id) {
+		checkId(id);
+		return revert.containsKey(id);
+	}
+
+	@Override
+	public int getNameLength(final long id) {
+		checkId(id);
+
+		final Term	term = revert.get(id);
+
+		return term == null ? -1 : term.name.length;
+	}
+
+	@Override
+	public String getName(final long id) {
+		checkId(id);
+
+		final Term	term = revert.get(id);
+
+		return term == null ? null : new String(term.name);
+	}
+
+	@Override
+	public int getName(final long id, final char[] where, final int from) {
+		final int	len;
+
+		checkId(id);
+		if (where == null || (len = where.length) == 0) {
+			throw new IllegalArgumentException("where can't be null or empty array");
+		}
+		else if (from < 0 || from > len) {
+			throw new IllegalArgumentException("'from' location ["+from+"] outside the range 0.."+len);
+		}
+		else {
+			final Term	term = revert.get(id);
+
+			if (term == null) {
+				return 0;
+			}
+			else if (len - from < term.name.length) {
+				return -term.name.length;
+			}
+			else {
+				System.arraycopy(term.name, 0, where, from, term.name.length);
+				return from + term.name.length;
+			}
+		}
+	}
+
+	@Override
+	public int compareNames(final long first, final long second) {
+		checkId(first);
+		checkId(second);
+
+		final Term	firstTerm = revert.get(first), secondTerm = revert.get(second);
+
+		if (firstTerm == null) {
+			throw new IllegalArgumentException("Can't compare names because id ["+first+"] is not exists in the tree");
+		}
+		else if (secondTerm == null) {
+			throw new IllegalArgumentException("Can't compare names because id ["+second+"] is not exists in the tree");
+		}
+		else {
+			return Arrays.compare(firstTerm.name, secondTerm.name);
+		}
+	}
+
+	@Override
+	public void walk(final Walker<T> walker) {
+		walk(EMPTY_CHARS, 0, 0, walker, true);
+	}
+
+	@Override
+	public void walkBack(final Walker<T> walker) {
+		walk(EMPTY_CHARS, 0, 0, walker, false);
+	}
+
+	@Override
+	public void walk(final char[] prefix, final int from, final int to, final Walker<T> walker) {
+		checkPrefix(prefix, from, to);
+		walk(prefix, from, to, walker, true);
+	}
+
+	@Override
+	public void walkBack(final char[] prefix, final int from, final int to, final Walker<T> walker) {
+		checkPrefix(prefix, from, to);
+		walk(prefix, from, to, walker, false);
+	}
+
+	@Override
+	public void walk(final CharSequence prefix, final Walker<T> walker) {
+		if (prefix == null) {
+			throw new NullPointerException("Prefix can't be null");
+		}
+		else {
+			walk(CharUtils.toCharArray(prefix), 0, prefix.length(), walker, true);
+		}
+	}
+
+	@Override
+	public void walkBack(final CharSequence prefix, final Walker<T> walker) {
+		if (prefix == null) {
+			throw new NullPointerException("Prefix can't be null");
+		}
+		else {
+			walk(CharUtils.toCharArray(prefix), 0, prefix.length(), walker, false);
+		}
+	}
+
+	@Override
+	public long longSize() {
+		return amount;
+	}
+
+	@Override
+	public void clear() {
+		synchronized (writeLock) {
+			root = EMPTY_ROOT;
+			revert.clear();
+			amount = 0;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentAndOrTree [size=" + amount + ", step=" + step + "]";
+	}
+
+	private long placeName(final char[] source, final int from, final int to, final long id, final T cargo, final boolean createId, final boolean refreshCargo) {
+		checkRange(source, from, to, true);
+		if (id < 0) {
+			throw new IllegalArgumentException("'id' ["+id+"] need be non-negtive");
+		}
+		else {
+			synchronized (writeLock) {
+				final long	existent = seekName(source, from, to);
+
+				if (existent >= 0) {
+					final Term	term = revert.get(existent);
+
+					if (refreshCargo || term.cargo == null) {
+						term.cargo = cargo;
+					}
+					return existent;
+				}
+				else {
+					final long	newId = createId ? actualId : id;
+
+					if (revert.containsKey(newId)) {
+						throw new IllegalArgumentException("'id' ["+newId+"] is already used by another name in the tree");
+					}
+					else {
+						final Term	term = new Term(newId, Arrays.copyOfRange(source, from, to), cargo);
+
+						if (createId) {
+							actualId += step;
+						}
+						revert.put(newId, term);	// Must be visible before new root publishing
+						root = place(root, term.name, 0, term);
+						maxNameLength = Math.max(maxNameLength, to - from);
+						amount++;
+						return newId;
+					}
+				}
+			}
+		}
+	}
+
+	private static Node place(final Node node, final char[] name, final int pos, final Term term) {
+		final char[]	chars = node.chars;
+		int				common = 0;
+
+		while (common < chars.length && pos + common < name.length && chars[common] == name[pos + common]) {
+			common++;
+		}
+		if (common < chars.length) {	// Split AND part of the node
+			final Node	lower = new Node(Arrays.copyOfRange(chars, common, chars.length), node.labels, node.children, node.term);
+
+			if (pos + common == name.length) {
+				return new Node(Arrays.copyOf(chars, common), new char[] {lower.chars[0]}, new Node[] {lower}, term);
+			}
+			else {
+				final Node	upper = new Node(Arrays.copyOf(chars, common), new char[] {lower.chars[0]}, new Node[] {lower}, null);
+
+				return upper.insertChild(new Node(Arrays.copyOfRange(name, pos + common, name.length), EMPTY_CHARS, EMPTY_CHILDREN, term));
+			}
+		}
+		else if (pos + common == name.length) {
+			return new Node(chars, node.labels, node.children, term);
+		}
+		else {
+			final int	index = Arrays.binarySearch(node.labels, name[pos + common]);
+
+			if (index < 0) {
+				return node.insertChild(new Node(Arrays.copyOfRange(name, pos + common, name.length), EMPTY_CHARS, EMPTY_CHILDREN, term));
+			}
+			else {
+				return node.replaceChild(index, place(node.children[index], name, pos + common, term));
+			}
+		}
+	}
+
+	private static Node remove(final Node node, final char[] name, final int pos, final boolean isRoot) {
+		final int	next = pos + node.chars.length;
+		final Node	result;
+
+		if (next == name.length) {
+			result = new Node(node.chars, node.labels, node.children, null);
+		}
+		else {
+			final int	index = Arrays.binarySearch(node.labels, name[next]);
+			final Node	child = remove(node.children[index], name, next, false);
+
+			result = child == null ? node.removeChild(index) : node.replaceChild(index, child);
+		}
+		if (isRoot || result.term != null) {
+			return result;
+		}
+		else if (result.children.length == 0) {
+			return null;
+		}
+		else if (result.children.length == 1) {	// Merge with the only child
+			final Node		child = result.children[0];
+			final char[]	chars = Arrays.copyOf(result.chars, result.chars.length + child.chars.length);
+
+			System.arraycopy(child.chars, 0, chars, result.chars.length, child.chars.length);
+			return new Node(chars, child.labels, child.children, child.term);
+		}
+		else {
+			return result;
+		}
+	}
+
+	private static Term seekIgnoreCase(final Node node, final char[] source, int pos, final int to) {
+		for (char ch : node.chars) {
+			if (pos >= to || !equalsIgnoreCase(ch, source[pos])) {
+				return null;
+			}
+			pos++;
+		}
+		if (pos == to) {
+			return node.term;
+		}
+		else {
+			final char	upper = Character.toUpperCase(source[pos]), lower = Character.toLowerCase(source[pos]);
+			int			index = Arrays.binarySearch(node.labels, upper);
+
+			if (index >= 0) {
+				final Term	term = seekIgnoreCase(node.children[index], source, pos, to);
+
+				if (term != null) {
+					return term;
+				}
+			}
+			if (lower != upper && (index = Arrays.binarySearch(node.labels, lower)) >= 0) {
+				return seekIgnoreCase(node.children[index], source, pos, to);
+			}
+			else {
+				return null;
+			}
+		}
+	}
+
+	private static boolean equalsIgnoreCase(final char first, final char second) {
+		return first == second || Character.toUpperCase(first) == Character.toUpperCase(second) || Character.toLowerCase(first) == Character.toLowerCase(second);
+	}
+
+	private void walk(final char[] prefix, final int from, final int to, final Walker<T> walker, final boolean forward) {
+		if (walker == null) {
+			throw new NullPointerException("Walking callback interface can't be null");
+		}
+		else {
+			Node	node = root;
+			int		pos = from;
+
+			for (;;) {
+				final char[]	chars = node.chars;
+				final int		compared = Math.min(chars.length, to - pos);
+
+				for (int index = 0; index < compared; index++) {
+					if (chars[index] != prefix[pos + index]) {
+						return;
+					}
+				}
+				if (to - pos <= chars.length) {
+					final char[]	place = new char[Math.max(maxNameLength, to - from + chars.length)];
+
+					System.arraycopy(prefix, from, place, 0, pos - from);
+					walk(node, place, pos - from, walker, forward);
+					return;
+				}
+				else {
+					pos += chars.length;
+
+					final int	index = Arrays.binarySearch(node.labels, prefix[pos]);
+
+					if (index < 0) {
+						return;
+					}
+					else {
+						node = node.children[index];
+					}
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean walk(final Node node, char[] place, final int length, final Walker<T> walker, final boolean forward) {
+		final int	newLength = length + node.chars.length;
+
+		if (newLength > place.length) {
+			place = Arrays.copyOf(place, 2 * newLength);
+		}
+		System.arraycopy(node.chars, 0, place, length, node.chars.length);
+		if (node.term != null && !walker.process(place, newLength, node.term.id, (T)node.term.cargo)) {
+			return false;
+		}
+		else if (forward) {
+			for (int index = 0; index < node.children.length; index++) {
+				if (!walk(node.children[index], place, newLength, walker, forward)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		else {
+			for (int index = node.children.length - 1; index >= 0; index--) {
+				if (!walk(node.children[index], place, newLength, walker, forward)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static void checkRange(final char[] source, final int from, final int to, final boolean nonEmpty) {
+		final int	len;
+
+		if (source == null || (len = source.length) == 0) {
+			throw new IllegalArgumentException("Source array can't be null or empty");
+		}
+		else if (from < 0 || from > len) {
+			throw new IllegalArgumentException("'from' location ["+from+"] outside the range 0.."+len);
+		}
+		else if (to < 0 || to > len) {
+			throw new IllegalArgumentException("'to' location ["+to+"] outside the range 0.."+len);
+		}
+		else if (nonEmpty ? to <= from : to < from) {
+			throw new IllegalArgumentException("'to' location ["+to+"] not greater than 'from' ["+from+"]");
+		}
+	}
+
+	private static void checkPrefix(final char[] prefix, final int from, final int to) {
+		if (prefix == null) {
+			throw new NullPointerException("Prefix can't be null");
+		}
+		else if (from < 0 || from > prefix.length) {
+			throw new IllegalArgumentException("'from' location ["+from+"] outside the range 0.."+prefix.length);
+		}
+		else if (to < from || to > prefix.length) {
+			throw new IllegalArgumentException("'to' location ["+to+"] outside the range "+from+".."+prefix.length);
+		}
+	}
+
+	private static void checkId(final long id) {
+		if (id < 0) {
+			throw new IllegalArgumentException("'id' ["+id+"] need be non-negtive");
+		}
+	}
+
+	private static class Term {
+		final long		id;
+		final char[]	name;
+		volatile Object	cargo;
+
+		Term(final long id, final char[] name, final Object cargo) {
+			this.id = id;
+			this.name = name;
+			this.cargo = cargo;
+		}
+	}
+
+	private static class Node {
+		final char[]	chars;
+		final char[]	labels;
+		final Node[]	children;
+		final Term		term;
+
+		Node(final char[] chars, final char[] labels, final Node[] children, final Term term) {
+			this.chars = chars;
+			this.labels = labels;
+			this.children = children;
+			this.term = term;
+		}
+
+		Node insertChild(final Node child) {
+			final int		index = -Arrays.binarySearch(labels, child.chars[0]) - 1;
+			final char[]	newLabels = new char[labels.length + 1];
+			final Node[]	newChildren = new Node[children.length + 1];
+
+			System.arraycopy(labels, 0, newLabels, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newLabels[index] = child.chars[0];
+			newChildren[index] = child;
+			System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+			return new Node(chars, newLabels, newChildren, term);
+		}
+
+		Node replaceChild(final int index, final Node child) {
+			final Node[]	newChildren = children.clone();
+
+			newChildren[index] = child;
+			return new Node(chars, labels, newChildren, term);
+		}
+
+		Node removeChild(final int index) {
+			final char[]	newLabels = new char[labels.length - 1];
+			final Node[]	newChildren = new Node[children.length - 1];
+
+			System.arraycopy(labels, 0, newLabels, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			return new Node(chars, newLabels, newChildren, term);
+		}
+	}
+}
@@ -530,6 +530,25 @@ public class GettersAndSettersFactory {
 	 * @since 0.0.4
 	 */
 	public static <T> GetterAndSetter buildGetterAndSetter(final Class<T> awaited, final String fieldName, final ModuleAccessor assigner, final SimpleURLClassLoader loader) throws ContentException, IllegalArgumentException, NullPointerException {
+		return buildGetterAndSetter(awaited, fieldName, assigner, loader, true);
+	}
+
+	/**
+	 * <p>Build getter and setter for the given field in the class or instance. Getters and setters built without cache are not kept by the factory, so they
+	 * (and the class loader they were built in) can be garbage collected together with the awaited class.</p>
+	 * @param <T> instance to build getter and setter for
+	 * @param awaited class containing field to get access to
+	 * @param fieldName field name to get access to
+	 * @param assigner module assigner to allow cross-module access in Java 1.9 and higher
+	 * @param loader loader to create on-the-fly class in
+	 * @param useCache true - seek getter and setter in the factory cache and place it there, false - always build new getter and setter 
+	 * @return getter and setter built
+	 * @throws ContentException on any building errors
+	 * @throws IllegalArgumentException field name is null, empty or is missing in the class
+	 * @throws NullPointerException awaited class, assigner or loader is null
+	 * @since 0.0.9
+	 */
+	public static <T> GetterAndSetter buildGetterAndSetter(final Class<T> awaited, final String fieldName, final ModuleAccessor assigner, final SimpleURLClassLoader loader, final boolean useCache) throws ContentException, IllegalArgumentException, NullPointerException {
 		if (awaited == null) {
 			throw new NullPointerException("Awaited class can't be null");
 		}
@@ -543,17 +562,19 @@ public class GettersAndSettersFactory {
 			throw new NullPointerException("Loader class can't be null");
 		}
 		else {
-			synchronized (gettersAndSettersCache) {
-				Map<String,GetterAndSetter>	clazz = gettersAndSettersCache.get(awaited.getCanonicalName());
-				
-				if (clazz == null) {
-					gettersAndSettersCache.put(awaited.getCanonicalName(),clazz = new HashMap<>());
-				}
-				
-				final GetterAndSetter	item = clazz.get(fieldName);
+			if (useCache) {
+				synchronized (gettersAndSettersCache) {
+					Map<String,GetterAndSetter>	clazz = gettersAndSettersCache.get(awaited.getCanonicalName());
+					
+					if (clazz == null) {
+						gettersAndSettersCache.put(awaited.getCanonicalName(),clazz = new HashMap<>());
+					}
 					
-				if (item != null) {
-					return item;
+					final GetterAndSetter	item = clazz.get(fieldName);
+						
+					if (item != null) {
+						return item;
+					}
 				}
 			}
 			final GetterAndSetter	gas;
@@ -620,10 +641,12 @@ public class GettersAndSettersFactory {
 			} catch (IOException exc) {
 				throw new ContentException(exc.getLocalizedMessage(),exc);
 			}
-			synchronized (gettersAndSettersCache) {
-				gettersAndSettersCache.get(awaited.getCanonicalName()).put(fieldName,gas);
-				return gas;
+			if (useCache) {
+				synchronized (gettersAndSettersCache) {
+					gettersAndSettersCache.get(awaited.getCanonicalName()).put(fieldName,gas);
+				}
 			}
+			return gas;
 		}
 	}
 
@@ -0,0 +1,159 @@
+package chav1961.purelib.basic;
+
+import chav1961.purelib.basic.interfaces.LongIdTreeInterface;
+
+/**
+ * <p>This class implements an open-addressing hash map with primitive long keys. It's an alternative to the {@linkplain LongIdMap} class, when long keys don't
+ * occupy contiguous range (for example, ids are hash codes or timestamps). Keys are never boxed, table is resized incrementally (see {@linkplain AbstractLongHashMap}),
+ * and walking the map scans plain arrays sequentially. Walking order is not defined.</p>
+ * <p>Unlike {@linkplain LongIdMap}, this map supports null values: {@linkplain #contains(long)} returns true for keys with null values.</p>
+ * <p>This class is not thread-safe.</p>
+ * @param <T> any kind of data associated with the keys
+ * @see LongIdMap
+ * @see LongLongHashMap
+ * @see chav1961.purelib.basic JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class LongHashMap<T> extends AbstractLongHashMap implements LongIdTreeInterface<T> {
+	private Object[]	values;
+	private Object[]	oldValues;
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 */
+	public LongHashMap() {
+		this(0);
+	}
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 * @param expectedSize expected number of keys in the map. Map will not be resized until this number will be reached
+	 * @throws IllegalArgumentException when expected size is negative
+	 */
+	public LongHashMap(final int expectedSize) throws IllegalArgumentException {
+		super(expectedSize);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(final long id) {
+		final int	index = find(id);
+
+		if (index >= 0) {
+			return (T)values[index];
+		}
+		else {
+			final int	oldIndex = findOld(id);
+
+			return oldIndex >= 0 ? (T)oldValues[oldIndex] : null;
+		}
+	}
+
+	@Override
+	public LongHashMap<T> put(final long id, final T cargo) {
+		step();
+		final int	index = find(id);
+
+		if (index >= 0) {
+			values[index] = cargo;
+		}
+		else {
+			final int	oldIndex = findOld(id);
+
+			if (oldIndex >= 0) {
+				removeOld(oldIndex, false);
+				oldValues[oldIndex] = null;
+				place(insert(id, false), cargo);
+			}
+			else {
+				place(insert(id, true), cargo);
+			}
+		}
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T remove(final long id) {
+		step();
+		final int	index = find(id);
+
+		if (index >= 0) {
+			final T	result = (T)values[index];
+
+			delete(index);
+			return result;
+		}
+		else {
+			final int	oldIndex = findOld(id);
+
+			if (oldIndex >= 0) {
+				final T	result = (T)oldValues[oldIndex];
+
+				removeOld(oldIndex, true);
+				oldValues[oldIndex] = null;
+				return result;
+			}
+			else {
+				return null;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void walk(final WalkCallback<T> callback) {
+		if (callback == null) {
+			throw new NullPointerException("Walk callback can't be null");
+		}
+		else {
+			for (int index = 0, maxIndex = capacity(); index < maxIndex; index++) {
+				if (isUsed(index) && !callback.process(keyAt(index), (T)values[index])) {
+					return;
+				}
+			}
+			for (int index = 0, maxIndex = oldCapacity(); index < maxIndex; index++) {
+				if (isOldUsed(index) && !callback.process(oldKeyAt(index), (T)oldValues[index])) {
+					return;
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LongHashMap [size=" + size() + ", capacity=" + capacity() + "]";
+	}
+
+	@Override
+	void allocateValues(final int capacity, final boolean migrate) {
+		oldValues = migrate ? values : null;
+		values = new Object[capacity];
+	}
+
+	@Override
+	void releaseOldValues() {
+		oldValues = null;
+	}
+
+	@Override
+	void migrateValue(final int from, final int to) {
+		values[to] = oldValues[from];
+		oldValues[from] = null;
+	}
+
+	@Override
+	void moveValue(final int from, final int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	void clearValue(final int index) {
+		values[index] = null;
+	}
+
+	private void place(final int index, final T cargo) {	// insert(...) can replace values array, so it must be called before the array reference will be taken
+		values[index] = cargo;
+	}
+}
@@ -0,0 +1,202 @@
+package chav1961.purelib.basic;
+
+/**
+ * <p>This class implements an open-addressing hash map with primitive long keys and primitive long values. Neither keys nor values are boxed, table is resized
+ * incrementally (see {@linkplain AbstractLongHashMap}), and walking the map scans plain arrays sequentially. Walking order is not defined.</p>
+ * <p>This class is not thread-safe.</p>
+ * @see LongHashMap
+ * @see chav1961.purelib.basic JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class LongLongHashMap extends AbstractLongHashMap {
+	/**
+	 * <p>This interface describes callback to process walking pair in the map.</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	@FunctionalInterface
+	public static interface WalkCallback {
+		/**
+		 * <p>Process current walking pair.</p>
+		 * @param id pair key
+		 * @param value pair value
+		 * @return true - continue walking, false - cancel walking and exit.
+		 */
+		boolean process(long id, long value);
+	}
+
+	private long[]	values;
+	private long[]	oldValues;
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 */
+	public LongLongHashMap() {
+		this(0);
+	}
+
+	/**
+	 * <p>Constructor of the class.</p>
+	 * @param expectedSize expected number of keys in the map. Map will not be resized until this number will be reached
+	 * @throws IllegalArgumentException when expected size is negative
+	 */
+	public LongLongHashMap(final int expectedSize) throws IllegalArgumentException {
+		super(expectedSize);
+	}
+
+	/**
+	 * <p>Get value by it's key</p>
+	 * @param id key to get value for
+	 * @param defaultValue value to return when key is missing
+	 * @return value associated or default value
+	 */
+	public long get(final long id, final long defaultValue) {
+		final int	index = find(id);
+
+		if (index >= 0) {
+			return values[index];
+		}
+		else {
+			final int	oldIndex = findOld(id);
+
+			return oldIndex >= 0 ? oldValues[oldIndex] : defaultValue;
+		}
+	}
+
+	/**
+	 * <p>Put key/value pair into the map. If key already exists, replace old value with the new one</p>
+	 * @param id key to put
+	 * @param value value to put
+	 * @return self
+	 */
+	public LongLongHashMap put(final long id, final long value) {
+		final int	index = locate(id, 0);	// locate(...) can replace values array, so it must be called before the array reference will be taken
+
+		values[index] = value;
+		return this;
+	}
+
+	/**
+	 * <p>Add delta to the value associated with the key. Missing key is treated as key with 0 value</p>
+	 * @param id key to add delta to
+	 * @param delta delta to add
+	 * @return new value associated with the key
+	 */
+	public long addAndGet(final long id, final long delta) {
+		final int	index = locate(id, 0);
+
+		return values[index] += delta;
+	}
+
+	/**
+	 * <p>Remove key/value pair from the map</p>
+	 * @param id key to remove
+	 * @param defaultValue value to return when key is missing
+	 * @return value removed or default value
+	 */
+	public long remove(final long id, final long defaultValue) {
+		step();
+		final int	index = find(id);
+
+		if (index >= 0) {
+			final long	result = values[index];
+
+			delete(index);
+			return result;
+		}
+		else {
+			final int	oldIndex = findOld(id);
+
+			if (oldIndex >= 0) {
+				removeOld(oldIndex, true);
+				return oldValues[oldIndex];
+			}
+			else {
+				return defaultValue;
+			}
+		}
+	}
+
+	/**
+	 * <p>Walk all map pairs</p>
+	 * @param callback callback to process every walking pair. Can't be null.
+	 * @throws NullPointerException when callback is null
+	 */
+	public void walk(final WalkCallback callback) throws NullPointerException {
+		if (callback == null) {
+			throw new NullPointerException("Walk callback can't be null");
+		}
+		else {
+			for (int index = 0, maxIndex = capacity(); index < maxIndex; index++) {
+				if (isUsed(index) && !callback.process(keyAt(index), values[index])) {
+					return;
+				}
+			}
+			for (int index = 0, maxIndex = oldCapacity(); index < maxIndex; index++) {
+				if (isOldUsed(index) && !callback.process(oldKeyAt(index), oldValues[index])) {
+					return;
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LongLongHashMap [size=" + size() + ", capacity=" + capacity() + "]";
+	}
+
+	@Override
+	void allocateValues(final int capacity, final boolean migrate) {
+		oldValues = migrate ? values : null;
+		values = new long[capacity];
+	}
+
+	@Override
+	void releaseOldValues() {
+		oldValues = null;
+	}
+
+	@Override
+	void migrateValue(final int from, final int to) {
+		values[to] = oldValues[from];
+	}
+
+	@Override
+	void moveValue(final int from, final int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	void clearValue(final int index) {
+		values[index] = 0;
+	}
+
+	private int locate(final long id, final long initialValue) {
+		step();
+		final int	index = find(id);
+
+		if (index >= 0) {
+			return index;
+		}
+		else {
+			final int	oldIndex = findOld(id);
+
+			if (oldIndex >= 0) {
+				final long	value = oldValues[oldIndex];
+				final int	newIndex;
+
+				removeOld(oldIndex, false);
+				newIndex = insert(id, false);
+				values[newIndex] = value;
+				return newIndex;
+			}
+			else {
+				final int	newIndex = insert(id, true);
+
+				values[newIndex] = initialValue;
+				return newIndex;
+			}
+		}
+	}
+}
@@ -0,0 +1,392 @@
+package chav1961.purelib.basic;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * <p>This class is a concurrent vocabulary of strings. It replaces any char content with the same string instance (see {@linkplain String#intern()}), but works directly
+ * with the char array ranges and doesn't create new string when it already exists in the vocabulary. Vocabulary is split to a set of independent stripes, every stripe
+ * has it's own lock, so threads interning different strings mostly don't block each other.</p>
+ * <p>Vocabulary can limit it's content by the {@linkplain EvictionPolicy}:</p>
+ * <ul>
+ * <li>{@linkplain EvictionPolicy#NONE} - vocabulary keeps all the strings placed until {@linkplain #clear()} call</li>
+ * <li>{@linkplain EvictionPolicy#WEAK} - vocabulary keeps weak references to the strings, so strings not used by anybody will be removed by garbage collector</li>
+ * <li>{@linkplain EvictionPolicy#BOUNDED} - vocabulary keeps at most the given number of strings and removes rarely used strings (by the <b>clock</b> algorithm) when the limit is exceeded</li>
+ * </ul>
+ * <p>This class is thread-safe.</p>
+ * @see CharUtils#buildIdenticalString(char[], int, int)
+ * @see chav1961.purelib.basic JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class StringInterner {
+	private static final int	MAX_STRIPES = 256;
+	private static final int	INITIAL_TABLE_SIZE = 16;
+
+	/**
+	 * <p>Eviction policy of the vocabulary</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	public static enum EvictionPolicy {
+		/**
+		 * <p>Never remove strings from the vocabulary</p>
+		 */
+		NONE,
+		/**
+		 * <p>Keep weak references to strings</p>
+		 */
+		WEAK,
+		/**
+		 * <p>Keep at most the given number of strings</p>
+		 */
+		BOUNDED
+	}
+
+	private final EvictionPolicy	policy;
+	private final Stripe[]			stripes;
+	private final int				stripeMask;
+
+	/**
+	 * <p>Constructor of the class. Creates unbounded vocabulary</p>
+	 */
+	public StringInterner() {
+		this(EvictionPolicy.NONE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * <p>Constructor of the class. Number of stripes depends on number of available processors</p>
+	 * @param policy eviction policy. Can't be null
+	 * @param maxSize max number of strings in the vocabulary. Used by {@linkplain EvictionPolicy#BOUNDED} policy only
+	 * @throws NullPointerException when policy is null
+	 * @throws IllegalArgumentException when max size is less than 1
+	 */
+	public StringInterner(final EvictionPolicy policy, final int maxSize) throws NullPointerException, IllegalArgumentException {
+		this(Math.min(MAX_STRIPES, 4 * Runtime.getRuntime().availableProcessors()), policy, maxSize);
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param stripes number of stripes in the vocabulary. Will be rounded to the nearest power of 2. Must be in range 1..256
+	 * @param policy eviction policy. Can't be null
+	 * @param maxSize max number of strings in the vocabulary. Used by {@linkplain EvictionPolicy#BOUNDED} policy only
+	 * @throws NullPointerException when policy is null
+	 * @throws IllegalArgumentException when stripes or max size are out of range
+	 */
+	public StringInterner(final int stripes, final EvictionPolicy policy, final int maxSize) throws NullPointerException, IllegalArgumentException {
+		if (stripes <= 0 || stripes > MAX_STRIPES) {
+			throw new IllegalArgumentException("Number of stripes ["+stripes+"] out of range 1.."+MAX_STRIPES);
+		}
+		else if (policy == null) {
+			throw new NullPointerException("Eviction policy can't be null");
+		}
+		else if (maxSize <= 0) {
+			throw new IllegalArgumentException("Max size ["+maxSize+"] must be positive");
+		}
+		else {
+			final int	count = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+			final int	stripeBits = Integer.numberOfTrailingZeros(count);
+			final int	stripeLimit = policy == EvictionPolicy.BOUNDED ? Math.max(1, maxSize / count) : Integer.MAX_VALUE;
+
+			this.policy = policy;
+			this.stripes = new Stripe[count];
+			this.stripeMask = count - 1;
+			for (int index = 0; index < count; index++) {
+				this.stripes[index] = new Stripe(policy, stripeLimit, stripeBits);
+			}
+		}
+	}
+
+	/**
+	 * <p>Get eviction policy of the vocabulary</p>
+	 * @return eviction policy. Can't be null
+	 */
+	public EvictionPolicy getEvictionPolicy() {
+		return policy;
+	}
+
+	/**
+	 * <p>Replace string with the same content to the same string.</p>
+	 * @param source string to replace. Null value will return null
+	 * @return string replaced or null. If the vocabulary doesn't contain string, source string will be placed into it and returned
+	 */
+	public String intern(final String source) {
+		if (source == null) {
+			return null;
+		}
+		else {
+			final int		hash = source.hashCode();		// The same polynomial hash as for char content, but cached in the string
+			final Stripe	stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+
+			synchronized (stripe) {
+				return stripe.intern(source, hash);
+			}
+		}
+	}
+
+	/**
+	 * <p>Replace piece of char content with the same string.</p>
+	 * @param source char content. Can't be null
+	 * @param from from position in the char content (inclusive)
+	 * @param to to position in the char content (exclusive)
+	 * @return string built from char content. Can't be null
+	 * @throws NullPointerException when source content is null
+	 * @throws IllegalArgumentException when from and to arguments out of range
+	 */
+	public String intern(final char[] source, final int from, final int to) throws NullPointerException, IllegalArgumentException {
+		if (source == null) {
+			throw new NullPointerException("Source chars buffer can't be null");
+		}
+		else if (from < 0 || from > source.length) {
+			throw new IllegalArgumentException("From position ["+from+"] out of range 0.."+source.length);
+		}
+		else if (to < from || to > source.length) {
+			throw new IllegalArgumentException("To position ["+to+"] out of range "+from+".."+source.length);
+		}
+		else {
+			int	hash = 0;
+
+			for (int index = from; index < to; index++) {
+				hash = 31 * hash + source[index];
+			}
+			final Stripe	stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+
+			synchronized (stripe) {
+				return stripe.intern(source, from, to, hash);
+			}
+		}
+	}
+
+	/**
+	 * <p>Get number of strings in the vocabulary. For {@linkplain EvictionPolicy#WEAK} policy it can include strings already collected by garbage collector</p>
+	 * @return number of strings in the vocabulary
+	 */
+	public int size() {
+		int	result = 0;
+
+		for (Stripe item : stripes) {
+			synchronized (item) {
+				result += item.count;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * <p>Remove all the strings from the vocabulary</p>
+	 */
+	public void clear() {
+		for (Stripe item : stripes) {
+			synchronized (item) {
+				item.clear();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "StringInterner [policy=" + policy + ", stripes=" + stripes.length + ", size=" + size() + "]";
+	}
+
+	private static abstract class Entry {
+		final int	hash;
+		Entry		next;
+		boolean		referenced = true;
+
+		Entry(final int hash) {
+			this.hash = hash;
+		}
+
+		abstract String value();
+	}
+
+	private static class StrongEntry extends Entry {
+		final String	value;
+
+		StrongEntry(final String value, final int hash) {
+			super(hash);
+			this.value = value;
+		}
+
+		@Override
+		String value() {
+			return value;
+		}
+	}
+
+	private static class WeakEntry extends Entry {
+		final WeakValue	value;
+
+		WeakEntry(final String value, final int hash, final ReferenceQueue<String> queue) {
+			super(hash);
+			this.value = new WeakValue(value, queue, this);
+		}
+
+		@Override
+		String value() {
+			return value.get();
+		}
+	}
+
+	private static class WeakValue extends WeakReference<String> {
+		final WeakEntry	owner;
+
+		WeakValue(final String value, final ReferenceQueue<String> queue, final WeakEntry owner) {
+			super(value, queue);
+			this.owner = owner;
+		}
+	}
+
+	private static class Stripe {
+		private final int						limit, shift;
+		private final ReferenceQueue<String>	queue;
+		private Entry[]							table = new Entry[INITIAL_TABLE_SIZE];
+		private int								count = 0, hand = 0;
+
+		Stripe(final EvictionPolicy policy, final int limit, final int shift) {
+			this.limit = limit;
+			this.shift = shift;
+			this.queue = policy == EvictionPolicy.WEAK ? new ReferenceQueue<>() : null;
+		}
+
+		String intern(final String source, final int hash) {
+			if (queue != null) {
+				expunge();
+			}
+			for (Entry entry = table[spreadIndex(hash, table.length)]; entry != null; entry = entry.next) {
+				final String	value;
+
+				if (entry.hash == hash && (value = entry.value()) != null && value.equals(source)) {
+					entry.referenced = true;
+					return value;
+				}
+			}
+			return insert(source, hash);
+		}
+
+		String intern(final char[] source, final int from, final int to, final int hash) {
+			if (queue != null) {
+				expunge();
+			}
+			for (Entry entry = table[spreadIndex(hash, table.length)]; entry != null; entry = entry.next) {
+				final String	value;
+
+				if (entry.hash == hash && (value = entry.value()) != null && equals(value, source, from, to)) {
+					entry.referenced = true;
+					return value;
+				}
+			}
+			return insert(new String(source, from, to - from), hash);
+		}
+
+		private String insert(final String result, final int hash) {
+			if (count >= limit) {
+				evict();
+			}
+			if (count >= table.length - (table.length >> 2)) {
+				resize();
+			}
+			final int	index = spreadIndex(hash, table.length);
+			final Entry	entry = queue != null ? new WeakEntry(result, hash, queue) : new StrongEntry(result, hash);
+
+			entry.next = table[index];
+			table[index] = entry;
+			count++;
+			return result;
+		}
+
+		void clear() {
+			table = new Entry[INITIAL_TABLE_SIZE];
+			count = hand = 0;
+			if (queue != null) {
+				while (queue.poll() != null) {
+					// Drop references to old entries
+				}
+			}
+		}
+
+		private void expunge() {
+			Object	ref;
+
+			while ((ref = queue.poll()) != null) {
+				remove(((WeakValue)ref).owner);
+			}
+		}
+
+		private void remove(final Entry toRemove) {
+			final int	index = spreadIndex(toRemove.hash, table.length);
+			Entry		prev = null;
+
+			for (Entry entry = table[index]; entry != null; prev = entry, entry = entry.next) {
+				if (entry == toRemove) {
+					if (prev == null) {
+						table[index] = entry.next;
+					}
+					else {
+						prev.next = entry.next;
+					}
+					count--;
+					return;
+				}
+			}
+		}
+
+		private void evict() {	// Clock algorithm: remove the first entry not referenced since the last sweep
+			for (;;) {
+				Entry	prev = null;
+
+				for (Entry entry = table[hand]; entry != null; prev = entry, entry = entry.next) {
+					if (!entry.referenced) {
+						if (prev == null) {
+							table[hand] = entry.next;
+						}
+						else {
+							prev.next = entry.next;
+						}
+						count--;
+						return;
+					}
+					else {
+						entry.referenced = false;
+					}
+				}
+				hand = (hand + 1) & (table.length - 1);
+			}
+		}
+
+		private void resize() {
+			final Entry[]	newTable = new Entry[2 * table.length];
+
+			for (Entry entry : table) {
+				while (entry != null) {
+					final Entry	next = entry.next;
+					final int	index = spreadIndex(entry.hash, newTable.length);
+
+					entry.next = newTable[index];
+					newTable[index] = entry;
+					entry = next;
+				}
+			}
+			table = newTable;
+			hand = 0;
+		}
+
+		private int spreadIndex(final int hash, final int tableSize) {
+			return ((hash ^ (hash >>> 16)) >>> shift) & (tableSize - 1);
+		}
+
+		private static boolean equals(final String value, final char[] source, final int from, final int to) {
+			if (value.length() != to - from) {
+				return false;
+			}
+			else {
+				for (int index = from; index < to; index++) {
+					if (value.charAt(index - from) != source[index]) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+	}
+}
@@ -35,9 +35,20 @@ abstract class AbstractDoubleSpliterator implements SpliteratorOfDouble {
 		return false;
 	}
 
+	@Override
+	public void forEachRemaining(final DoubleConsumer action) {
+		while (index < to) {
+			final double	value = getValue(index);
+			
+			if (mustBeProcessed(index++, value)) {
+				action.accept(value);
+			}
+		}
+	}
+
 	@Override 
 	public long estimateSize() {
-		return to - from;
+		return to - index;
 	}
 
 	@Override
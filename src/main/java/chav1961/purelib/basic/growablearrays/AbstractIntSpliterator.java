@@ -33,9 +33,20 @@ abstract class AbstractIntSpliterator implements SpliteratorOfInt {
 		return false;
 	}
 
+	@Override
+	public void forEachRemaining(final IntConsumer action) {
+		while (index < to) {
+			final int	value = getValue(index);
+			
+			if (mustBeProcessed(index++, value)) {
+				action.accept(value);
+			}
+		}
+	}
+
 	@Override 
 	public long estimateSize() {
-		return to - from;
+		return to - index;
 	}
 
 	@Override
@@ -33,9 +33,20 @@ abstract class AbstractLongSpliterator implements SpliteratorOfLong {
 		return false;
 	}
 
+	@Override
+	public void forEachRemaining(final LongConsumer action) {
+		while (index < to) {
+			final long	value = getValue(index);
+			
+			if (mustBeProcessed(index++, value)) {
+				action.accept(value);
+			}
+		}
+	}
+
 	@Override 
 	public long estimateSize() {
-		return to - from;
+		return to - index;
 	}
 
 	@Override
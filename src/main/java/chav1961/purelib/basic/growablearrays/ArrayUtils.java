@@ -38,6 +38,35 @@ class ArrayUtils {
 	interface SpliteratorOfDouble extends Spliterator.OfDouble, ProcessedOfDouble {
 		// Empty body...
 	}
+
+	/**
+	 * <p>Calculate split point for the [from..to) range of the spliterator. Split point is aligned to the nearest slice boundary 
+	 * when the range contains more than one slice, so every half of the split walks it's own set of slices.</p>
+	 * @param from start of the range
+	 * @param to end of the range (exclusive)
+	 * @param minimumSplitSize minimum size of every half after splitting
+	 * @param slicePow 2^^slicePow is a slice size of the sliced array. 0 for plain arrays
+	 * @return split point or -1 if the range can't be splitted
+	 */
+	static int splitPoint(final int from, final int to, final int minimumSplitSize, final int slicePow) {
+		final int	halfDelta = (to - from) >>> 1;
+		
+		if (halfDelta < minimumSplitSize) {
+			return -1;
+		}
+		else {
+			final int	middle = from + halfDelta;
+			
+			if (slicePow > 0) {
+				final long	sliceSize = 1L << slicePow, aligned = ((middle + (sliceSize >> 1)) / sliceSize) * sliceSize;
+				
+				if (aligned - from >= minimumSplitSize && to - aligned >= minimumSplitSize) {
+					return (int)aligned;
+				}
+			}
+			return middle;
+		}
+	}
 	
 	static class Executes<R,T> extends RecursiveTask<R> {
 		private static final long 		serialVersionUID = 1L;
@@ -66,9 +95,7 @@ class ArrayUtils {
            	if (leftSplit == null) {
            		final R	result = supplier.get();
            		
-           		while (spliterator.tryAdvance((value)->accumulator.accept(result, value))) {
-           			// empty body...
-           		}
+           		spliterator.forEachRemaining((value)->accumulator.accept(result, value));
            		return result;
            	}
            	else {
@@ -115,9 +142,7 @@ class ArrayUtils {
            	if (leftSplit == null) {
            		final R	result = supplier.get();
            		
-           		while (spliterator.tryAdvance((int value)->accumulator.accept(result, value))) {
-           			// empty body...
-           		}
+           		spliterator.forEachRemaining((int value)->accumulator.accept(result, value));
            		return result;
            	}
            	else {
@@ -164,9 +189,7 @@ class ArrayUtils {
            	if (leftSplit == null) {
            		final R	result = supplier.get();
            		
-           		while (spliterator.tryAdvance((long value)->accumulator.accept(result, value))) {
-           			// empty body...
-           		}
+           		spliterator.forEachRemaining((long value)->accumulator.accept(result, value));
            		return result;
            	}
            	else {
@@ -213,9 +236,7 @@ class ArrayUtils {
            	if (leftSplit == null) {
            		final R	result = supplier.get();
            		
-           		while (spliterator.tryAdvance((double value)->accumulator.accept(result, value))) {
-           			// empty body...
-           		}
+           		spliterator.forEachRemaining((double value)->accumulator.accept(result, value));
            		return result;
            	}
            	else {
@@ -3,7 +3,6 @@ package chav1961.purelib.basic.growablearrays;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.DoubleSummaryStatistics;
-import java.util.HashSet;
 import java.util.List;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -11,6 +10,8 @@ import java.util.Set;
 import java.util.PrimitiveIterator.OfDouble;
 import java.util.PrimitiveIterator.OfInt;
 import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RecursiveTask;
 import java.util.function.BiConsumer;
@@ -34,29 +35,33 @@ class DoubleStreamImpl implements DoubleStream {
 	private final SpliteratorOfDouble	spliterator;
 	private final OfDouble				iterator;
 	private final AutoCloseable			close;
+	private final boolean				parallel;
 	private List<Runnable>				handlers = null;
 	
 	public DoubleStreamImpl(final GrowableDoubleArray gda) { 
 		this.spliterator = gda.getSpliterator();
-		this.iterator = null;
+		this.iterator = Spliterators.iterator(this.spliterator);
 		this.close = null;
+		this.parallel = false;
 	}
 
 	public DoubleStreamImpl(final SpliteratorOfDouble spliterator, final AutoCloseable close) {
 		this.spliterator = spliterator;
 		this.iterator = null;
 		this.close = close; 
+		this.parallel = true;
 	}
 
 	public DoubleStreamImpl(final OfDouble iterator, final AutoCloseable close) {
 		this.spliterator = null;
 		this.iterator = iterator;
 		this.close = close; 
+		this.parallel = false;
 	}
 
 	@Override
 	public boolean isParallel() {
-		return spliterator != null ? (spliterator.characteristics() & Spliterator.SUBSIZED) != 0 : false;
+		return parallel;
 	}
 
 	@Override
@@ -96,8 +101,8 @@ class DoubleStreamImpl implements DoubleStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate can't be null");
 		}
-		else if (spliterator != null) {
-			return sequential().filter(predicate);
+		else if (parallel) {
+			return new DoubleStreamImpl(new SpliteratorFilterDouble(spliterator, predicate), this::close);
 		}
 		else {
 			final double[]	stored = new double[1];
@@ -125,7 +130,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new DoubleStreamImpl(new SpliteratorWrapperDouble(spliterator, mapper), this::close);
 		}
 		else {
@@ -138,7 +143,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new ObjectStreamImpl<U>(new SpliteratorWrapperObj<U>(spliterator, (double val)->mapper.apply(val)), this::close);
 		}
 		else {
@@ -151,7 +156,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new IntStreamImpl(new SpliteratorWrapperInt(spliterator,mapper), this::close);
 		}
 		else {
@@ -164,7 +169,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new LongStreamImpl(new SpliteratorWrapperLong(spliterator,mapper), this::close);
 		}
 		else {
@@ -177,7 +182,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().flatMap(mapper);
 		}
 		else {
@@ -226,22 +231,14 @@ class DoubleStreamImpl implements DoubleStream {
 
 	@Override
 	public DoubleStream distinct() {
-		final Set<Double>	values = new HashSet<>();
+		final Set<Double>	values = ConcurrentHashMap.newKeySet();
 		
-		return filter((e)->{
-			if (values.contains(e)) {
-				return false;
-			}
-			else {
-				values.add(e);
-				return true;
-			}
-		});
+		return filter((e)->values.add(e));
 	}
 
 	@Override
 	public DoubleStream sorted() {
-		if (spliterator != null) {
+		if (parallel) {
 			return sequential().sorted();
 		}
 		else {
@@ -288,7 +285,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (maxSize < 0) {
 			throw new IllegalArgumentException("Max size ["+maxSize+"] can't be negative"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().limit(maxSize);
 		}
 		else {
@@ -301,7 +298,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (n < 0) {
 			throw new IllegalArgumentException("Number of skips ["+n+"] can't be negative"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().skip(n);
 		}
 		else {
@@ -328,7 +325,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (action == null) {
 			throw new NullPointerException("Action can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			collect(()->null, (acc, val) ->action.accept(val), null);
 		}
 		else {
@@ -343,7 +340,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (action == null) {
 			throw new NullPointerException("Action can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			while (spliterator.tryAdvance((double value) -> action.accept(value))) {
 				// Empty body...
 			}
@@ -357,7 +354,7 @@ class DoubleStreamImpl implements DoubleStream {
 
 	@Override
 	public double[] toArray() {
-		if (spliterator != null) {
+		if (parallel) {
 			if ((spliterator.characteristics() & Spliterator.SUBSIZED) != 0) {
 				final double[]	result = new double[(int)spliterator.estimateSize()];
 				
@@ -390,26 +387,12 @@ class DoubleStreamImpl implements DoubleStream {
 		if (op == null) {
 			throw new NullPointerException("Binary operator can't be null"); 
 		}
-		else if (spliterator != null) {
-			if (spliterator.hasCharacteristics(Spliterator.SIZED) && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-				if (spliterator.estimateSize() != 0) {
-					try{
-						return identity + ArrayUtils.forkJoinPool.submit(new Reduces<double[]>(spliterator, op)).get()[0];
-					} catch (InterruptedException | ExecutionException e) {
-						throw new RuntimeException(e.getLocalizedMessage(),e);
-					}
-				}
-				else {
-					return identity;
-				}
-			}
-			else {
-				double[]	result = {identity};
-				
-				while (spliterator.tryAdvance((double e)->result[0] = op.applyAsDouble(result[0], iterator.nextDouble()))) {
-					// Empty body
-				}
-				return result[0];
+		else if (parallel) {
+			try{final double[]	result = ArrayUtils.forkJoinPool.submit(new Reduces<double[]>(spliterator, op)).get();
+			
+				return result != null ? op.applyAsDouble(identity, result[0]) : identity;
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
 		else {
@@ -427,29 +410,12 @@ class DoubleStreamImpl implements DoubleStream {
 		if (op == null) {
 			throw new NullPointerException("Binary operator can't be null"); 
 		}
-		else if (spliterator != null) {
-			if (spliterator.hasCharacteristics(Spliterator.SIZED) && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-				if (spliterator.estimateSize() != 0) {
-					try{
-						return OptionalDouble.of(ArrayUtils.forkJoinPool.submit(new Reduces<double[]>(spliterator, op)).get()[0]);
-					} catch (InterruptedException | ExecutionException e) {
-						throw new RuntimeException(e.getLocalizedMessage(),e);
-					}
-				}
-				else {
-					return OptionalDouble.empty();
-				}
-			}
-			else {
-				double[]	result = {0};
-				boolean[]	inside = {false};
-				
-				while (spliterator.tryAdvance((double e)->{
-					result[0] = op.applyAsDouble(result[0], iterator.nextDouble());
-					inside[0] = true;})) {
-					// Empty body
-				}
-				return inside[0] ? OptionalDouble.of(result[0]) : OptionalDouble.empty();
+		else if (parallel) {
+			try{final double[]	result = ArrayUtils.forkJoinPool.submit(new Reduces<double[]>(spliterator, op)).get();
+			
+				return result != null ? OptionalDouble.of(result[0]) : OptionalDouble.empty();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
 		else if (iterator.hasNext()) {
@@ -473,7 +439,7 @@ class DoubleStreamImpl implements DoubleStream {
 		else if (accumulator == null) {
 			throw new NullPointerException("Accumulator can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			try{if (combiner == null) {
 					final BiConsumer<R, R>	simpleCombiner = new BiConsumer<R, R>(){
 												@Override public void accept(R t, R u) {}
@@ -532,7 +498,7 @@ class DoubleStreamImpl implements DoubleStream {
 
 	@Override
 	public DoubleSummaryStatistics summaryStatistics() {
-		if (spliterator != null) {
+		if (parallel) {
 			try{return ArrayUtils.forkJoinPool.submit(new Statistics(spliterator)).get();
 			} catch (InterruptedException | ExecutionException e) {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
@@ -548,7 +514,7 @@ class DoubleStreamImpl implements DoubleStream {
 				count++;
 				sum += value;
 				min = Math.min(min, value);
-				max = Math.max(min, value);
+				max = Math.max(max, value);
 			}
 			return new DoubleSummaryStatistics(count, min, max, sum);
 		}
@@ -562,7 +528,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	result = {false};
 			
 			while (!result[0] && spliterator.tryAdvance((double value)->{
@@ -587,7 +553,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	tested = {false};
 			
 			try{return !ArrayUtils.forkJoinPool.submit(new Matches(spliterator, (double value)->{
@@ -598,6 +564,17 @@ class DoubleStreamImpl implements DoubleStream {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
+		else if (spliterator != null) {	// Sequential stream on the array content, results are the same as the parallel ones
+			final boolean[]	tested = {false}, found = {false};
+			
+			while (!found[0] && spliterator.tryAdvance((double value)->{
+					tested[0] = true;
+					found[0] = !predicate.test(value);
+				})) {
+				// Empty body...
+			}
+			return !found[0] && tested[0];
+		}
 		else {
 			while (iterator.hasNext()) {
 				if (!predicate.test(iterator.nextDouble())) {
@@ -613,7 +590,7 @@ class DoubleStreamImpl implements DoubleStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	tested = {false};
 			
 			try{return !ArrayUtils.forkJoinPool.submit(new Matches(spliterator, (double value)->{
@@ -624,6 +601,17 @@ class DoubleStreamImpl implements DoubleStream {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
+		else if (spliterator != null) {	// Sequential stream on the array content, results are the same as the parallel ones
+			final boolean[]	tested = {false}, found = {false};
+			
+			while (!found[0] && spliterator.tryAdvance((double value)->{
+					tested[0] = true;
+					found[0] = predicate.test(value);
+				})) {
+				// Empty body...
+			}
+			return !found[0] && tested[0];
+		}
 		else {
 			while (iterator.hasNext()) {
 				if (predicate.test(iterator.nextDouble())) {
@@ -636,7 +624,7 @@ class DoubleStreamImpl implements DoubleStream {
 
 	@Override
 	public OptionalDouble findFirst() {
-		if (spliterator != null) {
+		if (parallel) {
 			final double[]	result = new double[] {0};
 			
 			if (spliterator.tryAdvance((double value)->{result[0] = value;})) {
@@ -666,22 +654,30 @@ class DoubleStreamImpl implements DoubleStream {
 
 	@Override
 	public DoubleStream sequential() {
-		final GrowableDoubleArray	gia = new GrowableDoubleArray(false);
+		if (!parallel) {
+			return this;
+		}
+		else {
+			final GrowableDoubleArray	gia = new GrowableDoubleArray(false);
 		
-		gia.append(toArray());
-		return new DoubleStreamImpl(gia.getIterator(),this::close);
+			gia.append(toArray());
+			return new DoubleStreamImpl(gia.getIterator(),this::close);
+		}
 	}
 
 	@Override
 	public DoubleStream parallel() {
-		if (spliterator != null && spliterator().hasCharacteristics(Spliterator.CONCURRENT)) {
+		if (parallel) {
 			return this;
 		}
+		else if (spliterator != null) {	// Stream on the growable array content, splitting is available
+			return new DoubleStreamImpl(spliterator, this::close);
+		}
 		else {
 			final GrowableDoubleArray	gia = new GrowableDoubleArray(false);
 			
 			gia.append(toArray());
-			return new DoubleStreamImpl(gia);
+			return new DoubleStreamImpl(gia.getSpliterator(), this::close);
 		}
 	}
 
@@ -692,7 +688,7 @@ class DoubleStreamImpl implements DoubleStream {
 
 	@Override
 	public java.util.Spliterator.OfDouble spliterator() {
-		return spliterator();
+		return spliterator;
 	}
 
 	private static class SpliteratorWrapperDouble implements SpliteratorOfDouble {
@@ -771,6 +767,72 @@ class DoubleStreamImpl implements DoubleStream {
 		}
 	}
 	
+	private static class SpliteratorFilterDouble implements SpliteratorOfDouble {
+		private final SpliteratorOfDouble	nested;
+		private final DoublePredicate		predicate;
+		
+		private SpliteratorFilterDouble(final SpliteratorOfDouble nested, final DoublePredicate predicate) {
+			this.nested = nested;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean mustBeProcessed(final long sequential, final double value) {
+			return nested.mustBeProcessed(sequential, value) && predicate.test(value);
+		}
+		
+		@Override
+		public long estimateSize() {
+			return nested.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return nested.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+		}
+
+		@Override
+		public SpliteratorOfDouble trySplit() {
+			final SpliteratorOfDouble	result = (SpliteratorOfDouble)nested.trySplit();
+			
+			if (result != null) {
+				return new SpliteratorFilterDouble(result, predicate);
+			}
+			else {
+				return null;
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(final DoubleConsumer action) {
+			final boolean[]	accepted = {false};
+			
+			while (!accepted[0] && nested.tryAdvance((double e)->{
+					if (predicate.test(e)) {
+						action.accept(e);
+						accepted[0] = true;
+					}
+				})) {
+				// Empty body...
+			}
+			return accepted[0];
+		}
+
+		@Override
+		public void forEachRemaining(final DoubleConsumer action) {
+			nested.forEachRemaining((double e)->{
+				if (predicate.test(e)) {
+					action.accept(e);
+				}
+			});
+		}
+
+		@Override
+		public String toString() {
+			return "SpliteratorFilterDouble [nested=" + nested + ", predicate=" + predicate + "]";
+		}
+	}
+
 	private static class Statistics extends RecursiveTask<DoubleSummaryStatistics> {
 		private static final long 		serialVersionUID = 1L;
 		
@@ -786,16 +848,14 @@ class DoubleStreamImpl implements DoubleStream {
 
            	if (leftSplit == null) {
            		final long[]	result = new long[] {0};
-           		final double[]	resultD = new double[] {Double.MAX_VALUE, Double.MIN_VALUE, 0};
+           		final double[]	resultD = new double[] {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0};
            		
-           		while (spliterator.tryAdvance((double value)->{
+           		spliterator.forEachRemaining((double value)->{
            				result[0]++;
            				resultD[0] = Math.min(resultD[0], value);
            				resultD[1] = Math.max(resultD[1], value);
            				resultD[2] += value; 
-           			})) {
-           			// empty body...
-           		}
+           			});
            		return new DoubleSummaryStatistics(result[0], resultD[0], resultD[1], resultD[2]);
            	}
            	else {
@@ -386,12 +386,22 @@ public class GrowableIntArray implements AnyGrowableArray {
 
 		@Override
 		public int characteristics() {
-			return Spliterator.SIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED;
+			return Spliterator.SIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.SUBSIZED;
 		}
 
 		@Override 
 		public SpliteratorOfInt trySplit() {
-			return null;
+			final int	splitPoint = ArrayUtils.splitPoint(index, to, MINIMUM_SPLIT_SIZE, 0);
+			
+			if (splitPoint >= 0) {
+				final PlainSpliterator	prefix = new PlainSpliterator(index, splitPoint);
+				
+				from = index = splitPoint;
+				return prefix;
+			}
+			else {
+				return null;
+			}
 		}
 
 		@Override
@@ -419,7 +429,7 @@ public class GrowableIntArray implements AnyGrowableArray {
 
 		SlicedSpliterator(final SlicedSpliterator nested, final int from, final int to, final int minimumSplitSize) {
 			super(from, to);
-			this.minimumSplitSize = nested != null ? nested.minimumSplitSize : MINIMUM_SPLIT_SIZE;
+			this.minimumSplitSize = nested != null ? nested.minimumSplitSize : minimumSplitSize;
 			this.nested = nested;
 		}
 		
@@ -435,13 +445,13 @@ public class GrowableIntArray implements AnyGrowableArray {
 
 		@Override
 		public SpliteratorOfInt trySplit() {
- 			final int	delta = to - index, halfDelta = delta / 2;
+			final int	splitPoint = ArrayUtils.splitPoint(index, to, minimumSplitSize, initialPow);
 			
-			if (halfDelta >= minimumSplitSize) {
-				final int	splittedTo = to;
+			if (splitPoint >= 0) {
+				final SlicedSpliterator	prefix = new SlicedSpliterator(nested, index, splitPoint, minimumSplitSize);
 				
-				to = halfDelta;
-				return new SlicedSpliterator(this, index + halfDelta, splittedTo, minimumSplitSize);
+				from = index = splitPoint;
+				return prefix;
 			}
 			else {
 				return null;
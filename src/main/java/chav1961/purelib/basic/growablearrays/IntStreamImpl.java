@@ -3,7 +3,6 @@ package chav1961.purelib.basic.growablearrays;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.IntSummaryStatistics;
 import java.util.List;
 import java.util.OptionalDouble;
@@ -11,6 +10,8 @@ import java.util.OptionalInt;
 import java.util.PrimitiveIterator.OfInt;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RecursiveTask;
 import java.util.function.BiConsumer;
@@ -34,47 +35,54 @@ class IntStreamImpl implements IntStream {
 	private final SpliteratorOfInt	spliterator;
 	private final OfInt				iterator;
 	private final AutoCloseable		close;
+	private final boolean				parallel;
 	private List<Runnable>			handlers = null;
 	
 	IntStreamImpl(final GrowableByteArray gba) {
 		this.spliterator = gba.getSpliterator();
-		this.iterator = null;
+		this.iterator = Spliterators.iterator(this.spliterator);
 		this.close = null;
+		this.parallel = false;
 	}
 
 	public IntStreamImpl(final GrowableShortArray gsa) {
 		this.spliterator = gsa.getSpliterator();
-		this.iterator = null;
+		this.iterator = Spliterators.iterator(this.spliterator);
 		this.close = null;
+		this.parallel = false;
 	}
 	
 	IntStreamImpl(final GrowableIntArray gia) {
 		this.spliterator = gia.getSpliterator();
-		this.iterator = null;
+		this.iterator = Spliterators.iterator(this.spliterator);
 		this.close = null;
+		this.parallel = false;
 	}
 
 	public IntStreamImpl(GrowableCharArray<?> gca) {
 		this.spliterator = gca.getSpliterator();
-		this.iterator = null;
+		this.iterator = Spliterators.iterator(this.spliterator);
 		this.close = null;
+		this.parallel = false;
 	}
 	
 	IntStreamImpl(final OfInt iterator, final AutoCloseable close) {
 		this.spliterator = null;
 		this.iterator = iterator;
 		this.close = close; 
+		this.parallel = false;
 	}
 
 	IntStreamImpl(final SpliteratorOfInt spliterator, final AutoCloseable close) {
 		this.spliterator = spliterator;
 		this.iterator = null;
 		this.close = close; 
+		this.parallel = true;
 	}
 	
 	@Override
 	public boolean isParallel() {
-		return spliterator != null ? (spliterator.characteristics() & Spliterator.SUBSIZED) != 0 : false;
+		return parallel;
 	}
 
 	@Override
@@ -114,8 +122,8 @@ class IntStreamImpl implements IntStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate can't be null");
 		}
-		else if (spliterator != null) {
-			return sequential().filter(predicate);
+		else if (parallel) {
+			return new IntStreamImpl(new SpliteratorFilterInt(spliterator, predicate), this::close);
 		}
 		else {
 			final int[]	stored = new int[1];
@@ -143,7 +151,7 @@ class IntStreamImpl implements IntStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new IntStreamImpl(new SpliteratorWrapperInt(spliterator, mapper), this::close);
 		}
 		else {
@@ -156,7 +164,7 @@ class IntStreamImpl implements IntStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new ObjectStreamImpl<U>(new SpliteratorWrapperObj<U>(spliterator, (int val)->mapper.apply(val)), this::close);
 		}
 		else {
@@ -169,7 +177,7 @@ class IntStreamImpl implements IntStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new LongStreamImpl(new SpliteratorWrapperLong(spliterator,mapper), this::close);
 		}
 		else {
@@ -182,7 +190,7 @@ class IntStreamImpl implements IntStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new DoubleStreamImpl(new SpliteratorWrapperDouble(spliterator,mapper), this::close);
 		}
 		else {
@@ -195,7 +203,7 @@ class IntStreamImpl implements IntStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().flatMap(mapper);
 		}
 		else {
@@ -244,22 +252,14 @@ class IntStreamImpl implements IntStream {
 
 	@Override
 	public IntStream distinct() {
-		final Set<Integer>	values = new HashSet<>();
+		final Set<Integer>	values = ConcurrentHashMap.newKeySet();
 		
-		return filter((e)->{
-			if (values.contains(e)) {
-				return false;
-			}
-			else {
-				values.add(e);
-				return true;
-			}
-		});
+		return filter((e)->values.add(e));
 	}
 
 	@Override
 	public IntStream sorted() {
-		if (spliterator != null) {
+		if (parallel) {
 			return sequential().sorted();
 		}
 		else {
@@ -306,7 +306,7 @@ class IntStreamImpl implements IntStream {
 		if (maxSize < 0) {
 			throw new IllegalArgumentException("Max size ["+maxSize+"] can't be negative"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().limit(maxSize);
 		}
 		else {
@@ -319,7 +319,7 @@ class IntStreamImpl implements IntStream {
 		if (n < 0) {
 			throw new IllegalArgumentException("Number of skips ["+n+"] can't be negative"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().skip(n);
 		}
 		else {
@@ -346,7 +346,7 @@ class IntStreamImpl implements IntStream {
 		if (action == null) {
 			throw new NullPointerException("Action can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			collect(()->null, (acc, val) ->action.accept(val), null);
 		}
 		else {
@@ -361,7 +361,7 @@ class IntStreamImpl implements IntStream {
 		if (action == null) {
 			throw new NullPointerException("Action can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			while (spliterator.tryAdvance((int value) -> action.accept(value))) {
 				// Empty body...
 			}
@@ -375,7 +375,7 @@ class IntStreamImpl implements IntStream {
 
 	@Override
 	public int[] toArray() {
-		if (spliterator != null) {
+		if (parallel) {
 			if ((spliterator.characteristics() & Spliterator.SUBSIZED) != 0) {
 				final int[]	result = new int[(int)spliterator.estimateSize()];
 				
@@ -408,26 +408,12 @@ class IntStreamImpl implements IntStream {
 		if (op == null) {
 			throw new NullPointerException("Binary operator can't be null"); 
 		}
-		else if (spliterator != null) {
-			if (spliterator.hasCharacteristics(Spliterator.SIZED) && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-				if (spliterator.estimateSize() != 0) {
-					try{
-						return identity + ArrayUtils.forkJoinPool.submit(new Reduces<int[]>(spliterator, op)).get()[0];
-					} catch (InterruptedException | ExecutionException e) {
-						throw new RuntimeException(e.getLocalizedMessage(),e);
-					}
-				}
-				else {
-					return identity;
-				}
-			}
-			else {
-				int[]		result = {identity};
-				
-				while (spliterator.tryAdvance((int e)->result[0] = op.applyAsInt(result[0], iterator.nextInt()))) {
-					// Empty body
-				}
-				return result[0];
+		else if (parallel) {
+			try{final int[]	result = ArrayUtils.forkJoinPool.submit(new Reduces<int[]>(spliterator, op)).get();
+			
+				return result != null ? op.applyAsInt(identity, result[0]) : identity;
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
 		else {
@@ -445,29 +431,12 @@ class IntStreamImpl implements IntStream {
 		if (op == null) {
 			throw new NullPointerException("Binary operator can't be null"); 
 		}
-		else if (spliterator != null) {
-			if (spliterator.hasCharacteristics(Spliterator.SIZED) && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-				if (spliterator.estimateSize() != 0) {
-					try{
-						return OptionalInt.of(ArrayUtils.forkJoinPool.submit(new Reduces<int[]>(spliterator, op)).get()[0]);
-					} catch (InterruptedException | ExecutionException e) {
-						throw new RuntimeException(e.getLocalizedMessage(),e);
-					}
-				}
-				else {
-					return OptionalInt.empty();
-				}
-			}
-			else {
-				int[]		result = {0};
-				boolean[]	inside = {false};
-				
-				while (spliterator.tryAdvance((int e)->{
-					result[0] = op.applyAsInt(result[0], iterator.nextInt());
-					inside[0] = true;})) {
-					// Empty body
-				}
-				return inside[0] ? OptionalInt.of(result[0]) : OptionalInt.empty();
+		else if (parallel) {
+			try{final int[]	result = ArrayUtils.forkJoinPool.submit(new Reduces<int[]>(spliterator, op)).get();
+			
+				return result != null ? OptionalInt.of(result[0]) : OptionalInt.empty();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
 		else if (iterator.hasNext()) {
@@ -491,7 +460,7 @@ class IntStreamImpl implements IntStream {
 		else if (accumulator == null) {
 			throw new NullPointerException("Accumulator can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			try{if (combiner == null) {
 					final BiConsumer<R, R>	simpleCombiner = new BiConsumer<R, R>(){
 												@Override public void accept(R t, R u) {}
@@ -550,7 +519,7 @@ class IntStreamImpl implements IntStream {
 
 	@Override
 	public IntSummaryStatistics summaryStatistics() {
-		if (spliterator != null) {
+		if (parallel) {
 			try{return ArrayUtils.forkJoinPool.submit(new Statistics(spliterator)).get();
 			} catch (InterruptedException | ExecutionException e) {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
@@ -566,7 +535,7 @@ class IntStreamImpl implements IntStream {
 				count++;
 				sum += value;
 				min = Math.min(min, value);
-				max = Math.max(min, value);
+				max = Math.max(max, value);
 			}
 			return new IntSummaryStatistics(count, min, max, sum);
 		}
@@ -580,7 +549,7 @@ class IntStreamImpl implements IntStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	result = {false};
 			
 			while (!result[0] && spliterator.tryAdvance((int value)->{
@@ -605,7 +574,7 @@ class IntStreamImpl implements IntStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	tested = {false};
 			
 			try{return !ArrayUtils.forkJoinPool.submit(new Matches(spliterator, (int value)->{
@@ -616,6 +585,17 @@ class IntStreamImpl implements IntStream {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
+		else if (spliterator != null) {	// Sequential stream on the array content, results are the same as the parallel ones
+			final boolean[]	tested = {false}, found = {false};
+			
+			while (!found[0] && spliterator.tryAdvance((int value)->{
+					tested[0] = true;
+					found[0] = !predicate.test(value);
+				})) {
+				// Empty body...
+			}
+			return !found[0] && tested[0];
+		}
 		else {
 			while (iterator.hasNext()) {
 				if (!predicate.test(iterator.nextInt())) {
@@ -631,7 +611,7 @@ class IntStreamImpl implements IntStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	tested = {false};
 			
 			try{return !ArrayUtils.forkJoinPool.submit(new Matches(spliterator, (int value)->{
@@ -642,6 +622,17 @@ class IntStreamImpl implements IntStream {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
+		else if (spliterator != null) {	// Sequential stream on the array content, results are the same as the parallel ones
+			final boolean[]	tested = {false}, found = {false};
+			
+			while (!found[0] && spliterator.tryAdvance((int value)->{
+					tested[0] = true;
+					found[0] = predicate.test(value);
+				})) {
+				// Empty body...
+			}
+			return !found[0] && tested[0];
+		}
 		else {
 			while (iterator.hasNext()) {
 				if (predicate.test(iterator.nextInt())) {
@@ -654,7 +645,7 @@ class IntStreamImpl implements IntStream {
 
 	@Override
 	public OptionalInt findFirst() {
-		if (spliterator != null) {
+		if (parallel) {
 			final int[]	result = new int[] {0};
 			
 			if (spliterator.tryAdvance((int value)->{result[0] = value;})) {
@@ -694,22 +685,30 @@ class IntStreamImpl implements IntStream {
 
 	@Override
 	public IntStream sequential() {
-		final GrowableIntArray	gia = new GrowableIntArray(false);
+		if (!parallel) {
+			return this;
+		}
+		else {
+			final GrowableIntArray	gia = new GrowableIntArray(false);
 		
-		gia.append(toArray());
-		return new IntStreamImpl(gia.getIterator(),this::close);
+			gia.append(toArray());
+			return new IntStreamImpl(gia.getIterator(),this::close);
+		}
 	}
 
 	@Override
 	public IntStream parallel() {
-		if (spliterator != null && spliterator().hasCharacteristics(Spliterator.CONCURRENT)) {
+		if (parallel) {
 			return this;
 		}
+		else if (spliterator != null) {	// Stream on the growable array content, splitting is available
+			return new IntStreamImpl(spliterator, this::close);
+		}
 		else {
 			final GrowableIntArray	gia = new GrowableIntArray(false);
 			
 			gia.append(toArray());
-			return new IntStreamImpl(gia);
+			return new IntStreamImpl(gia.getSpliterator(), this::close);
 		}
 	}
 
@@ -723,6 +722,72 @@ class IntStreamImpl implements IntStream {
 		return spliterator;
 	}
 	
+	private static class SpliteratorFilterInt implements SpliteratorOfInt {
+		private final SpliteratorOfInt	nested;
+		private final IntPredicate		predicate;
+		
+		private SpliteratorFilterInt(final SpliteratorOfInt nested, final IntPredicate predicate) {
+			this.nested = nested;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean mustBeProcessed(final long sequential, final int value) {
+			return nested.mustBeProcessed(sequential, value) && predicate.test(value);
+		}
+		
+		@Override
+		public long estimateSize() {
+			return nested.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return nested.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+		}
+
+		@Override
+		public SpliteratorOfInt trySplit() {
+			final SpliteratorOfInt	result = (SpliteratorOfInt)nested.trySplit();
+			
+			if (result != null) {
+				return new SpliteratorFilterInt(result, predicate);
+			}
+			else {
+				return null;
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(final IntConsumer action) {
+			final boolean[]	accepted = {false};
+			
+			while (!accepted[0] && nested.tryAdvance((int e)->{
+					if (predicate.test(e)) {
+						action.accept(e);
+						accepted[0] = true;
+					}
+				})) {
+				// Empty body...
+			}
+			return accepted[0];
+		}
+
+		@Override
+		public void forEachRemaining(final IntConsumer action) {
+			nested.forEachRemaining((int e)->{
+				if (predicate.test(e)) {
+					action.accept(e);
+				}
+			});
+		}
+
+		@Override
+		public String toString() {
+			return "SpliteratorFilterInt [nested=" + nested + ", predicate=" + predicate + "]";
+		}
+	}
+
 	private static class Statistics extends RecursiveTask<IntSummaryStatistics> {
 		private static final long 		serialVersionUID = 1L;
 		
@@ -739,14 +804,12 @@ class IntStreamImpl implements IntStream {
            	if (leftSplit == null) {
            		final long[]	result = new long[] {0, Long.MAX_VALUE, Long.MIN_VALUE, 0};
            		
-           		while (spliterator.tryAdvance((int value)->{
+           		spliterator.forEachRemaining((int value)->{
            				result[0]++;
            				result[1] = Math.min(result[1], value);
            				result[2] = Math.max(result[2], value);
            				result[3] += value; 
-           			})) {
-           			// empty body...
-           		}
+           			});
            		return new IntSummaryStatistics(result[0], (int)result[1], (int)result[2], result[3]);
            	}
            	else {
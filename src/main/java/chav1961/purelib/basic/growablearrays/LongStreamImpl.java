@@ -2,7 +2,6 @@ package chav1961.purelib.basic.growablearrays;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.OptionalDouble;
@@ -12,6 +11,8 @@ import java.util.Set;
 import java.util.PrimitiveIterator.OfInt;
 import java.util.PrimitiveIterator.OfLong;
 import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RecursiveTask;
 import java.util.function.BiConsumer;
@@ -35,29 +36,33 @@ class LongStreamImpl implements LongStream {
 	private final SpliteratorOfLong		spliterator;
 	private final OfLong				iterator;
 	private final AutoCloseable			close;
+	private final boolean				parallel;
 	private List<Runnable>				handlers = null;
 	
 	public LongStreamImpl(final GrowableLongArray gla) {
 		this.spliterator = gla.getSpliterator();
-		this.iterator = null;
+		this.iterator = Spliterators.iterator(this.spliterator);
 		this.close = null;
+		this.parallel = false;
 	}
 
 	public LongStreamImpl(final SpliteratorOfLong spliterator, final AutoCloseable close) {
 		this.spliterator = spliterator;
 		this.iterator = null;
 		this.close = close; 
+		this.parallel = true;
 	}
 
 	public LongStreamImpl(final OfLong iterator, final AutoCloseable close) {
 		this.spliterator = null;
 		this.iterator = iterator;
 		this.close = close; 
+		this.parallel = false;
 	}
 	
 	@Override
 	public boolean isParallel() {
-		return spliterator != null ? (spliterator.characteristics() & Spliterator.SUBSIZED) != 0 : false;
+		return parallel;
 	}
 
 	@Override
@@ -97,8 +102,8 @@ class LongStreamImpl implements LongStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate can't be null");
 		}
-		else if (spliterator != null) {
-			return sequential().filter(predicate);
+		else if (parallel) {
+			return new LongStreamImpl(new SpliteratorFilterLong(spliterator, predicate), this::close);
 		}
 		else {
 			final long[]	stored = new long[1];
@@ -126,7 +131,7 @@ class LongStreamImpl implements LongStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new LongStreamImpl(new SpliteratorWrapperLong(spliterator, mapper), this::close);
 		}
 		else {
@@ -139,7 +144,7 @@ class LongStreamImpl implements LongStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new ObjectStreamImpl<U>(new SpliteratorWrapperObj<U>(spliterator, (long val)->mapper.apply(val)), this::close);
 		}
 		else {
@@ -152,7 +157,7 @@ class LongStreamImpl implements LongStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new IntStreamImpl(new SpliteratorWrapperInt(spliterator,mapper), this::close);
 		}
 		else {
@@ -165,7 +170,7 @@ class LongStreamImpl implements LongStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return new DoubleStreamImpl(new SpliteratorWrapperDouble(spliterator,mapper), this::close);
 		}
 		else {
@@ -178,7 +183,7 @@ class LongStreamImpl implements LongStream {
 		if (mapper == null) {
 			throw new NullPointerException("Mapper can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().flatMap(mapper);
 		}
 		else {
@@ -227,22 +232,14 @@ class LongStreamImpl implements LongStream {
 
 	@Override
 	public LongStream distinct() {
-		final Set<Long>	values = new HashSet<>();
+		final Set<Long>	values = ConcurrentHashMap.newKeySet();
 		
-		return filter((e)->{
-			if (values.contains(e)) {
-				return false;
-			}
-			else {
-				values.add(e);
-				return true;
-			}
-		});
+		return filter((e)->values.add(e));
 	}
 
 	@Override
 	public LongStream sorted() {
-		if (spliterator != null) {
+		if (parallel) {
 			return sequential().sorted();
 		}
 		else {
@@ -289,7 +286,7 @@ class LongStreamImpl implements LongStream {
 		if (maxSize < 0) {
 			throw new IllegalArgumentException("Max size ["+maxSize+"] can't be negative"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().limit(maxSize);
 		}
 		else {
@@ -302,7 +299,7 @@ class LongStreamImpl implements LongStream {
 		if (n < 0) {
 			throw new IllegalArgumentException("Number of skips ["+n+"] can't be negative"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			return sequential().skip(n);
 		}
 		else {
@@ -329,7 +326,7 @@ class LongStreamImpl implements LongStream {
 		if (action == null) {
 			throw new NullPointerException("Action can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			collect(()->null, (acc, val) ->action.accept(val), null);
 		}
 		else {
@@ -344,7 +341,7 @@ class LongStreamImpl implements LongStream {
 		if (action == null) {
 			throw new NullPointerException("Action can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			while (spliterator.tryAdvance((long value) -> action.accept(value))) {
 				// Empty body...
 			}
@@ -358,7 +355,7 @@ class LongStreamImpl implements LongStream {
 
 	@Override
 	public long[] toArray() {
-		if (spliterator != null) {
+		if (parallel) {
 			if ((spliterator.characteristics() & Spliterator.SUBSIZED) != 0) {
 				final long[]	result = new long[(int)spliterator.estimateSize()];
 				
@@ -392,26 +389,12 @@ class LongStreamImpl implements LongStream {
 		if (op == null) {
 			throw new NullPointerException("Binary operator can't be null"); 
 		}
-		else if (spliterator != null) {
-			if (spliterator.hasCharacteristics(Spliterator.SIZED) && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-				if (spliterator.estimateSize() != 0) {
-					try{
-						return identity + ArrayUtils.forkJoinPool.submit(new Reduces<long[]>(spliterator, op)).get()[0];
-					} catch (InterruptedException | ExecutionException e) {
-						throw new RuntimeException(e.getLocalizedMessage(),e);
-					}
-				}
-				else {
-					return identity;
-				}
-			}
-			else {
-				long[]		result = {identity};
-				
-				while (spliterator.tryAdvance((long e)->result[0] = op.applyAsLong(result[0], iterator.nextLong()))) {
-					// Empty body
-				}
-				return result[0];
+		else if (parallel) {
+			try{final long[]	result = ArrayUtils.forkJoinPool.submit(new Reduces<long[]>(spliterator, op)).get();
+			
+				return result != null ? op.applyAsLong(identity, result[0]) : identity;
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
 		else {
@@ -429,29 +412,12 @@ class LongStreamImpl implements LongStream {
 		if (op == null) {
 			throw new NullPointerException("Binary operator can't be null"); 
 		}
-		else if (spliterator != null) {
-			if (spliterator.hasCharacteristics(Spliterator.SIZED) && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-				if (spliterator.estimateSize() != 0) {
-					try{
-						return OptionalLong.of(ArrayUtils.forkJoinPool.submit(new Reduces<long[]>(spliterator, op)).get()[0]);
-					} catch (InterruptedException | ExecutionException e) {
-						throw new RuntimeException(e.getLocalizedMessage(),e);
-					}
-				}
-				else {
-					return OptionalLong.empty();
-				}
-			}
-			else {
-				long[]		result = {0};
-				boolean[]	inside = {false};
-				
-				while (spliterator.tryAdvance((long e)->{
-					result[0] = op.applyAsLong(result[0], iterator.nextLong());
-					inside[0] = true;})) {
-					// Empty body
-				}
-				return inside[0] ? OptionalLong.of(result[0]) : OptionalLong.empty();
+		else if (parallel) {
+			try{final long[]	result = ArrayUtils.forkJoinPool.submit(new Reduces<long[]>(spliterator, op)).get();
+			
+				return result != null ? OptionalLong.of(result[0]) : OptionalLong.empty();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
 		else if (iterator.hasNext()) {
@@ -475,7 +441,7 @@ class LongStreamImpl implements LongStream {
 		else if (accumulator == null) {
 			throw new NullPointerException("Accumulator can't be null"); 
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			try{if (combiner == null) {
 					final BiConsumer<R, R>	simpleCombiner = new BiConsumer<R, R>(){
 												@Override public void accept(R t, R u) {}
@@ -534,7 +500,7 @@ class LongStreamImpl implements LongStream {
 
 	@Override
 	public LongSummaryStatistics summaryStatistics() {
-		if (spliterator != null) {
+		if (parallel) {
 			try{return ArrayUtils.forkJoinPool.submit(new Statistics(spliterator)).get();
 			} catch (InterruptedException | ExecutionException e) {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
@@ -550,7 +516,7 @@ class LongStreamImpl implements LongStream {
 				count++;
 				sum += value;
 				min = Math.min(min, value);
-				max = Math.max(min, value);
+				max = Math.max(max, value);
 			}
 			return new LongSummaryStatistics(count, min, max, sum);
 		}
@@ -564,7 +530,7 @@ class LongStreamImpl implements LongStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	result = {false};
 			
 			while (!result[0] && spliterator.tryAdvance((long value)->{
@@ -589,7 +555,7 @@ class LongStreamImpl implements LongStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	tested = {false};
 			
 			try{return !ArrayUtils.forkJoinPool.submit(new Matches(spliterator, (long value)->{
@@ -600,6 +566,17 @@ class LongStreamImpl implements LongStream {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
+		else if (spliterator != null) {	// Sequential stream on the array content, results are the same as the parallel ones
+			final boolean[]	tested = {false}, found = {false};
+			
+			while (!found[0] && spliterator.tryAdvance((long value)->{
+					tested[0] = true;
+					found[0] = !predicate.test(value);
+				})) {
+				// Empty body...
+			}
+			return !found[0] && tested[0];
+		}
 		else {
 			while (iterator.hasNext()) {
 				if (!predicate.test(iterator.nextLong())) {
@@ -615,7 +592,7 @@ class LongStreamImpl implements LongStream {
 		if (predicate == null) {
 			throw new NullPointerException("Predicate to test mathes can't be null");
 		}
-		else if (spliterator != null) {
+		else if (parallel) {
 			final boolean[]	tested = {false};
 			
 			try{return !ArrayUtils.forkJoinPool.submit(new Matches(spliterator, (long value)->{
@@ -626,6 +603,17 @@ class LongStreamImpl implements LongStream {
 				throw new RuntimeException(e.getLocalizedMessage(),e);
 			}
 		}
+		else if (spliterator != null) {	// Sequential stream on the array content, results are the same as the parallel ones
+			final boolean[]	tested = {false}, found = {false};
+			
+			while (!found[0] && spliterator.tryAdvance((long value)->{
+					tested[0] = true;
+					found[0] = predicate.test(value);
+				})) {
+				// Empty body...
+			}
+			return !found[0] && tested[0];
+		}
 		else {
 			while (iterator.hasNext()) {
 				if (predicate.test(iterator.nextLong())) {
@@ -638,7 +626,7 @@ class LongStreamImpl implements LongStream {
 
 	@Override
 	public OptionalLong findFirst() {
-		if (spliterator != null) {
+		if (parallel) {
 			final long[]	result = new long[] {0};
 			
 			if (spliterator.tryAdvance((long value)->{result[0] = value;})) {
@@ -673,22 +661,30 @@ class LongStreamImpl implements LongStream {
 
 	@Override
 	public LongStream sequential() {
-		final GrowableLongArray	gia = new GrowableLongArray(false);
+		if (!parallel) {
+			return this;
+		}
+		else {
+			final GrowableLongArray	gia = new GrowableLongArray(false);
 		
-		gia.append(toArray());
-		return new LongStreamImpl(gia.getIterator(),this::close);
+			gia.append(toArray());
+			return new LongStreamImpl(gia.getIterator(),this::close);
+		}
 	}
 
 	@Override
 	public LongStream parallel() {
-		if (spliterator != null && spliterator().hasCharacteristics(Spliterator.CONCURRENT)) {
+		if (parallel) {
 			return this;
 		}
+		else if (spliterator != null) {	// Stream on the growable array content, splitting is available
+			return new LongStreamImpl(spliterator, this::close);
+		}
 		else {
 			final GrowableLongArray	gia = new GrowableLongArray(false);
 			
 			gia.append(toArray());
-			return new LongStreamImpl(gia);
+			return new LongStreamImpl(gia.getSpliterator(), this::close);
 		}
 	}
 
@@ -778,6 +774,72 @@ class LongStreamImpl implements LongStream {
 		}
 	}
 	
+	private static class SpliteratorFilterLong implements SpliteratorOfLong {
+		private final SpliteratorOfLong	nested;
+		private final LongPredicate		predicate;
+		
+		private SpliteratorFilterLong(final SpliteratorOfLong nested, final LongPredicate predicate) {
+			this.nested = nested;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean mustBeProcessed(final long sequential, final long value) {
+			return nested.mustBeProcessed(sequential, value) && predicate.test(value);
+		}
+		
+		@Override
+		public long estimateSize() {
+			return nested.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return nested.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+		}
+
+		@Override
+		public SpliteratorOfLong trySplit() {
+			final SpliteratorOfLong	result = (SpliteratorOfLong)nested.trySplit();
+			
+			if (result != null) {
+				return new SpliteratorFilterLong(result, predicate);
+			}
+			else {
+				return null;
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(final LongConsumer action) {
+			final boolean[]	accepted = {false};
+			
+			while (!accepted[0] && nested.tryAdvance((long e)->{
+					if (predicate.test(e)) {
+						action.accept(e);
+						accepted[0] = true;
+					}
+				})) {
+				// Empty body...
+			}
+			return accepted[0];
+		}
+
+		@Override
+		public void forEachRemaining(final LongConsumer action) {
+			nested.forEachRemaining((long e)->{
+				if (predicate.test(e)) {
+					action.accept(e);
+				}
+			});
+		}
+
+		@Override
+		public String toString() {
+			return "SpliteratorFilterLong [nested=" + nested + ", predicate=" + predicate + "]";
+		}
+	}
+
 	private static class Statistics extends RecursiveTask<LongSummaryStatistics> {
 		private static final long 		serialVersionUID = 1L;
 		
@@ -794,14 +856,12 @@ class LongStreamImpl implements LongStream {
            	if (leftSplit == null) {
            		final long[]	result = new long[] {0, Long.MAX_VALUE, Long.MIN_VALUE, 0};
            		
-           		while (spliterator.tryAdvance((long value)->{
+           		spliterator.forEachRemaining((long value)->{
            				result[0]++;
            				result[1] = Math.min(result[1], value);
            				result[2] = Math.max(result[2], value);
            				result[3] += value; 
-           			})) {
-           			// empty body...
-           		}
+           			});
            		return new LongSummaryStatistics(result[0], result[1], result[2], result[3]);
            	}
            	else {
@@ -53,8 +53,7 @@ class ObjectStreamImpl<T> implements Stream<T> {
 
 	@Override
 	public boolean isParallel() {
-		// TODO Auto-generated method stub
-		return false;
+		return spliterator != null;
 	}
 
 	@Override
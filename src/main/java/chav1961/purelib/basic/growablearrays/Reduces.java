@@ -68,14 +68,19 @@ class Reduces<T> extends RecursiveTask<T> {
     	final SpliteratorOfInt		leftSplit = (SpliteratorOfInt)spliteratorInt.trySplit();
 
        	if (leftSplit == null) {
-       		final int[]	result = new int[1];
+       		final int[]		result = new int[1];
+       		final boolean[]	found = new boolean[] {false};
        		
-       		while (spliteratorInt.tryAdvance((int value)->{
+       		spliteratorInt.forEachRemaining((int value)->{
+       			if (found[0]) {
        				result[0] = opInt.applyAsInt(result[0],value);
-       			})) {
-       			// empty body...
-       		}
-       		return result;
+       			}
+       			else {
+       				result[0] = value;
+       				found[0] = true;
+       			}
+       		});
+       		return found[0] ? result : null;
        	}
        	else {
            	final Reduces<int[]>	leftReduce = new Reduces<>(leftSplit, opInt);
@@ -83,8 +88,16 @@ class Reduces<T> extends RecursiveTask<T> {
            	leftReduce.fork();            	
         	final int[]				right = this.computeInt(), left = leftReduce.join();
         	
-        	left[0] = opInt.applyAsInt(left[0], right[0]);
-       		return left;
+        	if (left == null) {
+        		return right;
+        	}
+        	else if (right == null) {
+        		return left;
+        	}
+        	else {
+            	left[0] = opInt.applyAsInt(left[0], right[0]);
+           		return left;
+        	}
     	}
     }
 
@@ -92,23 +105,36 @@ class Reduces<T> extends RecursiveTask<T> {
     	final SpliteratorOfLong		leftSplit = (SpliteratorOfLong)spliteratorLong.trySplit();
 
        	if (leftSplit == null) {
-       		final long[]	result = new long[1];
+       		final long[]		result = new long[1];
+       		final boolean[]	found = new boolean[] {false};
        		
-       		while (spliteratorLong.tryAdvance((long value)->{
+       		spliteratorLong.forEachRemaining((long value)->{
+       			if (found[0]) {
        				result[0] = opLong.applyAsLong(result[0],value);
-       			})) {
-       			// empty body...
-       		}
-       		return result;
+       			}
+       			else {
+       				result[0] = value;
+       				found[0] = true;
+       			}
+       		});
+       		return found[0] ? result : null;
        	}
        	else {
            	final Reduces<long[]>	leftReduce = new Reduces<>(leftSplit, opLong);
         	
            	leftReduce.fork();            	
-        	final long[]			right = this.computeLong(), left = leftReduce.join();
+        	final long[]				right = this.computeLong(), left = leftReduce.join();
         	
-        	left[0] = opLong.applyAsLong(left[0], right[0]);
-       		return left;
+        	if (left == null) {
+        		return right;
+        	}
+        	else if (right == null) {
+        		return left;
+        	}
+        	else {
+            	left[0] = opLong.applyAsLong(left[0], right[0]);
+           		return left;
+        	}
     	}
     }
 
@@ -116,23 +142,36 @@ class Reduces<T> extends RecursiveTask<T> {
     	final SpliteratorOfDouble		leftSplit = (SpliteratorOfDouble)spliteratorDouble.trySplit();
 
        	if (leftSplit == null) {
-       		final double[]	result = new double[1];
+       		final double[]		result = new double[1];
+       		final boolean[]	found = new boolean[] {false};
        		
-       		while (spliteratorDouble.tryAdvance((double value)->{
+       		spliteratorDouble.forEachRemaining((double value)->{
+       			if (found[0]) {
        				result[0] = opDouble.applyAsDouble(result[0],value);
-       			})) {
-       			// empty body...
-       		}
-       		return result;
+       			}
+       			else {
+       				result[0] = value;
+       				found[0] = true;
+       			}
+       		});
+       		return found[0] ? result : null;
        	}
        	else {
            	final Reduces<double[]>	leftReduce = new Reduces<>(leftSplit, opDouble);
         	
            	leftReduce.fork();            	
-        	final double[]			right = this.computeDouble(), left = leftReduce.join();
+        	final double[]				right = this.computeDouble(), left = leftReduce.join();
         	
-        	left[0] = opDouble.applyAsDouble(left[0], right[0]);
-       		return left;
+        	if (left == null) {
+        		return right;
+        	}
+        	else if (right == null) {
+        		return left;
+        	}
+        	else {
+            	left[0] = opDouble.applyAsDouble(left[0], right[0]);
+           		return left;
+        	}
     	}
     }
     
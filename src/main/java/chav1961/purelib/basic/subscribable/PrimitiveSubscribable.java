@@ -1,8 +1,14 @@
 package chav1961.purelib.basic.subscribable;
 
+import java.util.concurrent.Executor;
+
 abstract class PrimitiveSubscribable<Listener> extends Subscribable<Listener> {
 
 	protected PrimitiveSubscribable(final Class<Listener> listenerClass) throws NullPointerException {
 		super(listenerClass);
 	}
+
+	protected PrimitiveSubscribable(final Class<Listener> listenerClass, final Executor executor) throws NullPointerException {
+		super(listenerClass, executor);
+	}
 }
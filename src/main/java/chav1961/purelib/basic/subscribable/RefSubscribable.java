@@ -1,7 +1,13 @@
 package chav1961.purelib.basic.subscribable;
 
+import java.util.concurrent.Executor;
+
 abstract class RefSubscribable<Listener> extends Subscribable<Listener> {
 	protected RefSubscribable(final Class<Listener> listenerClass) throws NullPointerException {
 		super(listenerClass);
 	}
+
+	protected RefSubscribable(final Class<Listener> listenerClass, final Executor executor) throws NullPointerException {
+		super(listenerClass, executor);
+	}
 }
@@ -1,16 +1,22 @@
 package chav1961.purelib.basic.subscribable;
 
+import java.util.concurrent.Executor;
+
 import chav1961.purelib.concurrent.LightWeightListenerList;
 import chav1961.purelib.concurrent.LightWeightListenerList.LightWeightListenerCallback;
 
 /**
  * <p>This class describes basic functionality for listenable values. Is supports dynamic list of listeners and method to call them.</p>  
+ * <p>Listeners are kept in the {@linkplain LightWeightListenerList}, so firing events doesn't use any locks. When the {@linkplain Executor} is passed
+ * to the constructor, events are fired asynchronously, and bursts of events from the same instance are coalesced.</p>
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.3
+ * @last.update 0.0.9
  * @param <Listener> any listener to associate with the given instance
  */
 public abstract class Subscribable<Listener> {
 	private final LightWeightListenerList<Listener>	listenerList;
+	private final Object							eventKey = new Object();
 	
 	/**
 	 * <p>Constructor of the class</p>
@@ -20,6 +26,17 @@ public abstract class Subscribable<Listener> {
 	protected Subscribable(final Class<Listener> listenerClass) throws NullPointerException {
 		this.listenerList = new LightWeightListenerList<>(listenerClass);
 	}
+
+	/**
+	 * <p>Constructor of the class with asynchronous events</p>
+	 * @param listenerClass listener class to use with the instance
+	 * @param executor executor to fire events. Can't be null
+	 * @throws NullPointerException if listener class or executor is null
+	 * @since 0.0.9
+	 */
+	protected Subscribable(final Class<Listener> listenerClass, final Executor executor) throws NullPointerException {
+		this.listenerList = new LightWeightListenerList<>(listenerClass, false, executor);
+	}
 	
 	/**
 	 * <p>Add listener to the listener's list of the given instance</p>
@@ -55,6 +72,11 @@ public abstract class Subscribable<Listener> {
 	public abstract void refresh();
 	
 	protected void fireChange(final LightWeightListenerCallback<Listener> callback) throws NullPointerException {
-		listenerList.fireEvent(callback);
+		if (listenerList.isAsynchronous()) {
+			listenerList.fireEventAsync(eventKey, callback);
+		}
+		else {
+			listenerList.fireEvent(callback);
+		}
 	}
 }
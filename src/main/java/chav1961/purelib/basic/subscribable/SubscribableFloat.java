@@ -1,9 +1,12 @@
 package chav1961.purelib.basic.subscribable;
 
+import java.util.concurrent.Executor;
+
 /**
  * <p>This class describes listenable float value. When it's value changes, all the listeners in the given instance will receive events.</p>
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.3
+ * @last.update 0.0.9
  */
 public class SubscribableFloat extends PrimitiveSubscribable<SubscribableFloatListener>{
 	private final boolean	multithread;
@@ -24,6 +27,19 @@ public class SubscribableFloat extends PrimitiveSubscribable<SubscribableFloatLi
 		super(SubscribableFloatListener.class);
 		this.multithread = multithread;
 	}
+
+	/**
+	 * <p>Constructor of the class. Listeners will receive events asynchronously by the given executor. Bursts of changes are coalesced,
+	 * so listeners can receive the last change of the burst only</p>
+	 * @param multithread use multithreaded version of the container
+	 * @param executor executor to fire events. Can't be null
+	 * @throws NullPointerException if executor is null
+	 * @since 0.0.9
+	 */
+	public SubscribableFloat(final boolean multithread, final Executor executor) throws NullPointerException {
+		super(SubscribableFloatListener.class, executor);
+		this.multithread = multithread;
+	}
 	
 	/**
 	 * <p>Get current value of the container content</p>
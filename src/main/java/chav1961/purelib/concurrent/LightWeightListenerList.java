@@ -1,10 +1,11 @@
 package chav1961.purelib.concurrent;
 
 import java.lang.reflect.Array;
-import java.util.Arrays;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import chav1961.purelib.basic.PureLibSettings;
 import chav1961.purelib.basic.interfaces.LoggerFacade.Severity;
@@ -12,15 +13,22 @@ import chav1961.purelib.basic.interfaces.LoggerFacade.Severity;
 /**
  * <p>This class is a simple implementation of listeners repository. Listener mechanism is often used in the different classes. Most of cases require thread-safe
  * implementation of the listener list, but thread-safe implementation must use synchronized sections to keep list consistency. This class reduces cost of the
- * implementation by using {@linkplain ReentrantReadWriteLock} class instead of synchronized sections. Use it for listener's lists everywhere.</p>
- * <p>This class is thread-save</p>   
+ * implementation by using <i>copy-on-write</i> array of listeners instead of synchronized sections. Adding and removing listeners replaces the array with atomic
+ * compare-and-set operation, and firing events iterates the current array snapshot without any locks and allocations. Use it for listener's lists everywhere.</p>
+ * <p>The class also supports asynchronous mode. When the {@linkplain Executor} is passed to the constructor, events can be fired with
+ * {@linkplain #fireEventAsync(LightWeightListenerCallback)} and {@linkplain #fireEventAsync(Object, LightWeightListenerCallback)} methods. The second method
+ * <i>coalesces</i> bursts of identical events: while event with the given key is waiting for processing, all the subsequent events with the same key
+ * replace it's callback, so the listeners will receive the last event of the burst only.</p>
+ * <p>This class is thread-save</p>
  * @param <Listener> any listener type to keep in the class
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.2
- * @last.update 0.0.3
+ * @last.update 0.0.9
  */
 public class LightWeightListenerList<Listener> {
-	
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<LightWeightListenerList,Object[]>	LIST = AtomicReferenceFieldUpdater.newUpdater(LightWeightListenerList.class, Object[].class, "list");
+
 	/**
 	 * <p>This interface describes callback for processing every listener in the listener's list.</p>
 	 * @param <Listener> any listener type to keep in the class
@@ -31,12 +39,13 @@ public class LightWeightListenerList<Listener> {
 	public interface LightWeightListenerCallback<Listener> {
 		void fire(final Listener listener);
 	}
-	
-	private final ReentrantReadWriteLock	lock = new ReentrantReadWriteLock();
+
 	private final boolean					strictImplementation;
 	private final Class<Listener>			listenerClass;
+	private final Executor					executor;
+	private final ConcurrentMap<Object,LightWeightListenerCallback<Listener>>	pending;
 	private volatile Listener[]				list;
-	
+
 	/**
 	 * <p>Constructor of the class</p>
 	 * @param listenerClass class of the listeners to store
@@ -48,9 +57,10 @@ public class LightWeightListenerList<Listener> {
 	/**
 	 * <p>Constructor of the class</p>
 	 * @param listenerClass class of the listeners to store
-	 * @param strictImplementation strictly implement repository functionality. When true, implementation guarantees, that no any calls 
-	 * to the given listener instance will be made after returning from {@linkplain #removeListener(Object)} method. False allows some 
-	 * calls after returning from {@linkplain #removeListener(Object)}. False is good choice in most of cases.
+	 * @param strictImplementation strictly implement repository functionality. When true, every listener will be checked for presence in the repository
+	 * immediately before calling, so events are processing now will not call the listener after returning from {@linkplain #removeListener(Object)}
+	 * method (except calls were already started). False allows some calls after returning from {@linkplain #removeListener(Object)}. False is good
+	 * choice in most of cases.
 	 */
 	@SuppressWarnings("unchecked")
 	public LightWeightListenerList(final Class<Listener> listenerClass, final boolean strictImplementation) {
@@ -60,6 +70,33 @@ public class LightWeightListenerList<Listener> {
 		else {
 			this.listenerClass = listenerClass;
 			this.strictImplementation = strictImplementation;
+			this.executor = null;
+			this.pending = null;
+			this.list = (Listener[]) Array.newInstance(listenerClass,0);
+		}
+	}
+
+	/**
+	 * <p>Constructor of the class with asynchronous mode support</p>
+	 * @param listenerClass class of the listeners to store
+	 * @param strictImplementation strictly implement repository functionality (see {@linkplain #LightWeightListenerList(Class, boolean)})
+	 * @param executor executor to fire asynchronous events. Can't be null
+	 * @throws NullPointerException if listener class or executor is null
+	 * @since 0.0.9
+	 */
+	@SuppressWarnings("unchecked")
+	public LightWeightListenerList(final Class<Listener> listenerClass, final boolean strictImplementation, final Executor executor) throws NullPointerException {
+		if (listenerClass == null) {
+			throw new NullPointerException("Listener class can't be null");
+		}
+		else if (executor == null) {
+			throw new NullPointerException("Executor can't be null");
+		}
+		else {
+			this.listenerClass = listenerClass;
+			this.strictImplementation = strictImplementation;
+			this.executor = executor;
+			this.pending = new ConcurrentHashMap<>();
 			this.list = (Listener[]) Array.newInstance(listenerClass,0);
 		}
 	}
@@ -69,26 +106,22 @@ public class LightWeightListenerList<Listener> {
 	 * @param listener listener to add. Can't be null
 	 * @throws NullPointerException if listener to add is null
 	 */
+	@SuppressWarnings("unchecked")
 	public void addListener(final Listener listener) throws NullPointerException {
 		if (listener == null) {
 			throw new NullPointerException("Listener to add can't be null");
 		}
 		else {
-			final WriteLock	wr = lock.writeLock();
-			
-			try{wr.lock();
-				@SuppressWarnings("unchecked")
-				final Listener[]	newContent = (Listener[]) Array.newInstance(listenerClass,list.length+1);
-				
-				System.arraycopy(list,0,newContent,0,list.length);
-				newContent[list.length] = listener;
-				list = newContent; 
-			} finally {
-				wr.unlock();
-			}
+			Listener[]	oldContent, newContent;
+
+			do {oldContent = list;
+				newContent = (Listener[]) Array.newInstance(listenerClass,oldContent.length+1);
+				System.arraycopy(oldContent,0,newContent,0,oldContent.length);
+				newContent[oldContent.length] = listener;
+			} while (!LIST.compareAndSet(this, oldContent, newContent));
 		}
 	}
-	
+
 	/**
 	 * <p>Remove existent listener from the repository</p>
 	 * @param listener listener to remove. Can't be null
@@ -99,48 +132,37 @@ public class LightWeightListenerList<Listener> {
 			throw new NullPointerException("Listener to remove can't be null");
 		}
 		else {
-			final WriteLock	wr = lock.writeLock();
-			
-			try{wr.lock();
-				for (int index = 0, maxIndex = list.length; index < maxIndex; index++) {
-					if (listener.equals(list[index])) {
-						@SuppressWarnings("unchecked")
-						final Listener[]	newContent = (Listener[]) Array.newInstance(listenerClass,list.length-1);
-						
-						if (index > 0) {
-							System.arraycopy(list,0,newContent,0,index);
-						}
-						if (index < maxIndex - 1) {
-							System.arraycopy(list,index+1,newContent,index,maxIndex-index-1);
-						}
-						list = newContent;
-						return;
-					}
+			Listener[]	oldContent, newContent;
+
+			do {oldContent = list;
+				if ((newContent = removeFrom(oldContent, listener)) == null) {
+					return;
 				}
-			} finally {
-				wr.unlock();
-			}
+			} while (!LIST.compareAndSet(this, oldContent, newContent));
 		}
 	}
-	
+
 	/**
 	 * <p>Remove all listeners from list</p>
 	 * @since 0.0.3
 	 */
+	@SuppressWarnings("unchecked")
 	public void clear() {
-		final WriteLock	wr = lock.writeLock();
-		
-		try{wr.lock();
-			Arrays.fill(list,null);
-			list = (Listener[]) Array.newInstance(listenerClass,0);
-		} finally {
-			wr.unlock();
-		}
+		list = (Listener[]) Array.newInstance(listenerClass,0);
 	}
-	
+
+	/**
+	 * <p>Is the list support asynchronous events</p>
+	 * @return true if executor was passed to the constructor
+	 * @since 0.0.9
+	 */
+	public boolean isAsynchronous() {
+		return executor != null;
+	}
+
 	/**
 	 * <p>Process event for all the listeners in the repository.</p>
-	 * @param callback callback to process event. This callback will be called for every listener in the repo 
+	 * @param callback callback to process event. This callback will be called for every listener in the repo
 	 * (order to call listeners is not predictable). Can't be null.
 	 * @throws NullPointerException if callback is null
 	 */
@@ -149,26 +171,102 @@ public class LightWeightListenerList<Listener> {
 			throw new NullPointerException("Listener's callback can't be null");
 		}
 		else {
-			final Listener[]	items;  
-
-			if (strictImplementation) {
-				final ReadLock		rd = lock.readLock();
-				
-				try{rd.lock();
-					items = list;
-				} finally {
-					rd.unlock();
+			final Listener[]	items = list;
+
+			for (Listener item : items) {
+				if (!strictImplementation || isStillRegistered(items, item)) {
+					try{callback.fire(item);
+					} catch (Exception exc) {
+						PureLibSettings.CURRENT_LOGGER.message(Severity.error, exc, exc.getLocalizedMessage());
+					}
 				}
 			}
-			else {
-				items = list;
+		}
+	}
+
+	/**
+	 * <p>Process event for all the listeners in the repository asynchronously. Event will be processed by the executor passed to the constructor</p>
+	 * @param callback callback to process event (see {@linkplain #fireEvent(LightWeightListenerCallback)}). Can't be null.
+	 * @throws NullPointerException if callback is null
+	 * @throws IllegalStateException if the list doesn't support asynchronous mode
+	 * @since 0.0.9
+	 */
+	public void fireEventAsync(final LightWeightListenerCallback<Listener> callback) throws NullPointerException, IllegalStateException {
+		if (callback == null) {
+			throw new NullPointerException("Listener's callback can't be null");
+		}
+		else if (!isAsynchronous()) {
+			throw new IllegalStateException("Asynchronous mode is not supported, use constructor with executor");
+		}
+		else {
+			executor.execute(()->fireEvent(callback));
+		}
+	}
+
+	/**
+	 * <p>Process event for all the listeners in the repository asynchronously with coalescing. If event with the same key is already waiting for
+	 * processing, it's callback will be replaced with the new one, and no new events will be passed to executor.</p>
+	 * @param eventKey key to identify identical events (usually event source or event class). Can't be null
+	 * @param callback callback to process event (see {@linkplain #fireEvent(LightWeightListenerCallback)}). Can't be null.
+	 * @throws NullPointerException if any argument is null
+	 * @throws IllegalStateException if the list doesn't support asynchronous mode
+	 * @throws RejectedExecutionException if executor rejects event processing
+	 * @since 0.0.9
+	 */
+	public void fireEventAsync(final Object eventKey, final LightWeightListenerCallback<Listener> callback) throws NullPointerException, IllegalStateException, RejectedExecutionException {
+		if (eventKey == null) {
+			throw new NullPointerException("Event key can't be null");
+		}
+		else if (callback == null) {
+			throw new NullPointerException("Listener's callback can't be null");
+		}
+		else if (!isAsynchronous()) {
+			throw new IllegalStateException("Asynchronous mode is not supported, use constructor with executor");
+		}
+		else if (pending.put(eventKey, callback) == null) {
+			try{executor.execute(()->{
+					final LightWeightListenerCallback<Listener>	latest = pending.remove(eventKey);
+
+					if (latest != null) {
+						fireEvent(latest);
+					}
+				});
+			} catch (RuntimeException exc) {
+				pending.remove(eventKey);	// Events coalesced with the rejected one are rejected too, next event with the key will be submitted again
+				throw exc;
 			}
-			for (Listener item : items) {
-				try{callback.fire(item);
-				} catch (Exception exc) {
-					PureLibSettings.CURRENT_LOGGER.message(Severity.error, exc, exc.getLocalizedMessage());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Listener[] removeFrom(final Listener[] content, final Listener listener) {
+		for (int index = 0, maxIndex = content.length; index < maxIndex; index++) {
+			if (listener.equals(content[index])) {
+				final Listener[]	newContent = (Listener[]) Array.newInstance(listenerClass,maxIndex-1);
+
+				if (index > 0) {
+					System.arraycopy(content,0,newContent,0,index);
+				}
+				if (index < maxIndex - 1) {
+					System.arraycopy(content,index+1,newContent,index,maxIndex-index-1);
 				}
+				return newContent;
+			}
+		}
+		return null;
+	}
+
+	private boolean isStillRegistered(final Listener[] snapshot, final Listener listener) {
+		final Listener[]	current = list;
+
+		if (current == snapshot) {	// Copy-on-write array was not changed since the event started, so the listener is still registered
+			return true;
+		}
+		for (Listener item : current) {
+			if (item == listener) {
+				return true;
 			}
 		}
+		return false;
 	}
 }
@@ -0,0 +1,581 @@
+package chav1961.purelib.concurrent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.exceptions.FlowException;
+import chav1961.purelib.concurrent.interfaces.ExecutionControl;
+import chav1961.purelib.concurrent.interfaces.ResourceDispatcherLock;
+
+/**
+ * <p>This class implements resource dispatcher without any dispatching thread. It supports locking and unlocking a <b>group</b> of resources
+ * of any type, similar to {@linkplain SimpleBitmapResourceDispatcher}, but every thread locks resources of the group by itself. To avoid deadlocks,
+ * resources of any group are always locked in the same order (order of their registration in the dispatcher). Every resource is locked by CAS operation.
+ * When the resource is busy, the thread spins some times and then parks until the resource owner unlocks it. There is an example to use this class:</p>
+ * <pre>
+ * {@code
+ * 	try(final LockFreeResourceDispatcher<String> disp = new LockFreeResourceDispatcher<>("first", "second")) {
+ *    disp.start();
+ *    . . .
+ *    try(final ResourceDispatcherLock lock = disp.lock("first", "second")) {
+ *    // process locked resources
+ *    }
+ *    . . .
+ *    disp.stop();
+ * 	}
+ * }
+ * </pre>
+ * <p>Dispatcher can be <i>fair</i> or <i>unfair</i>. Fair dispatcher grants every resource to waiting threads in the order of their arrival. Unfair dispatcher
+ * allows newly arrived threads to catch the resource before waiting ones. Unfair dispatcher has a better throughput, but can starve some threads. Dispatcher
+ * collects contention statistics, see {@linkplain #getStatistics()} method.</p>
+ * <p>Suspending the dispatcher rejects new lock requests only. Stopping the dispatcher also rejects all the lock requests are waiting for resources.</p>
+ * <p>This class is thread-safe</p>
+ * @param <Res> resource type
+ * @see SimpleBitmapResourceDispatcher
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class LockFreeResourceDispatcher<Res> implements AutoCloseable, ExecutionControl {
+	/**
+	 * <p>Default number of spins before parking the thread waiting for the resource</p>
+	 */
+	public static final int		DEFAULT_SPIN_COUNT = 128;
+
+	private static final Comparator<ResourceSlot>	ORDER = (s1, s2)->Long.compare(s1.order, s2.order);
+
+	private final Map<Res,ResourceSlot>	resources = new ConcurrentHashMap<>();
+	private final AtomicLong			orderSequence = new AtomicLong();
+	private final boolean				fair;
+	private final int					spinCount;
+	private final LongAdder				lockRequests = new LongAdder();
+	private final LongAdder				contendedRequests = new LongAdder();
+	private final LongAdder				failedRequests = new LongAdder();
+	private final LongAdder				spins = new LongAdder();
+	private final LongAdder				parks = new LongAdder();
+	private final LongAdder				waitTime = new LongAdder();
+	private final AtomicLong			maxWaitTime = new AtomicLong();
+	private volatile boolean			isStarted = false;
+	private volatile boolean			isSuspended = false;
+	private volatile boolean			isAvailable = false;
+
+	/**
+	 * <p>This class contains snapshot of the dispatcher contention statistics.</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	public static class ContentionStatistics {
+		private final long	lockRequests;
+		private final long	contendedRequests;
+		private final long	failedRequests;
+		private final long	spins;
+		private final long	parks;
+		private final long	waitTime;
+		private final long	maxWaitTime;
+
+		ContentionStatistics(final long lockRequests, final long contendedRequests, final long failedRequests, final long spins, final long parks, final long waitTime, final long maxWaitTime) {
+			this.lockRequests = lockRequests;
+			this.contendedRequests = contendedRequests;
+			this.failedRequests = failedRequests;
+			this.spins = spins;
+			this.parks = parks;
+			this.waitTime = waitTime;
+			this.maxWaitTime = maxWaitTime;
+		}
+
+		/**
+		 * <p>Get total number of lock requests</p>
+		 * @return total number of lock requests
+		 */
+		public long getLockRequests() {
+			return lockRequests;
+		}
+
+		/**
+		 * <p>Get number of lock requests which waited for any resource</p>
+		 * @return number of contended lock requests
+		 */
+		public long getContendedRequests() {
+			return contendedRequests;
+		}
+
+		/**
+		 * <p>Get number of failed lock requests (resource is not registered, dispatcher is stopped, thread is interrupted)</p>
+		 * @return number of failed lock requests
+		 */
+		public long getFailedRequests() {
+			return failedRequests;
+		}
+
+		/**
+		 * <p>Get total number of spins while waiting for resources</p>
+		 * @return total number of spins
+		 */
+		public long getSpins() {
+			return spins;
+		}
+
+		/**
+		 * <p>Get total number of thread parks while waiting for resources</p>
+		 * @return total number of parks
+		 */
+		public long getParks() {
+			return parks;
+		}
+
+		/**
+		 * <p>Get total time of waiting for resources</p>
+		 * @return total waiting time (in nanoseconds)
+		 */
+		public long getWaitTime() {
+			return waitTime;
+		}
+
+		/**
+		 * <p>Get maximal time of waiting for resources</p>
+		 * @return maximal waiting time (in nanoseconds)
+		 */
+		public long getMaxWaitTime() {
+			return maxWaitTime;
+		}
+
+		/**
+		 * <p>Get average time of waiting for resources of contended lock requests</p>
+		 * @return average waiting time (in nanoseconds)
+		 */
+		public long getAverageWaitTime() {
+			return contendedRequests == 0 ? 0 : waitTime / contendedRequests;
+		}
+
+		@Override
+		public String toString() {
+			return "ContentionStatistics [lockRequests=" + lockRequests + ", contendedRequests=" + contendedRequests
+					+ ", failedRequests=" + failedRequests + ", spins=" + spins + ", parks=" + parks + ", waitTime="
+					+ waitTime + ", maxWaitTime=" + maxWaitTime + "]";
+		}
+	}
+
+	/**
+	 * <p>Constructor of the class. Creates unfair dispatcher with default spin count</p>
+	 * @param res resources to register initially. Can't be null and can't contain nulls inside
+	 * @throws IllegalArgumentException when resource list is null or contains nulls inside or contains duplicates
+	 */
+	@SafeVarargs
+	public LockFreeResourceDispatcher(final Res... res) throws IllegalArgumentException {
+		this(false, DEFAULT_SPIN_COUNT);
+		if (res == null || Utils.checkArrayContent4Nulls(res) >= 0) {
+			throw new IllegalArgumentException("Resource list is null or contains nulls inside");
+		}
+		else {
+			for (Res item : res) {
+				if (resources.putIfAbsent(item, new ResourceSlot(orderSequence.incrementAndGet())) != null) {
+					throw new IllegalArgumentException("Resource list contains duplicate ["+item+"]");
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Constructor of the class. Creates dispatcher without resources. Use {@linkplain #registerResource(Object)} to register them</p>
+	 * @param fair true to grant resources to waiting threads in the order of their arrival
+	 * @param spinCount number of spins before parking the thread waiting for the resource. Can't be negative. Use 0 to park thread immediately
+	 * @throws IllegalArgumentException when spin count is negative
+	 */
+	public LockFreeResourceDispatcher(final boolean fair, final int spinCount) throws IllegalArgumentException {
+		if (spinCount < 0) {
+			throw new IllegalArgumentException("Spin count ["+spinCount+"] can't be negative");
+		}
+		else {
+			this.fair = fair;
+			this.spinCount = spinCount;
+		}
+	}
+
+	/**
+	 * <p>Is dispatcher fair</p>
+	 * @return true if yes
+	 */
+	public boolean isFair() {
+		return fair;
+	}
+
+	/**
+	 * <p>Register new resource in the dispatcher</p>
+	 * @param resource resource to register. Can't be null
+	 * @throws NullPointerException when resource is null
+	 * @throws IllegalArgumentException when resource was registered already
+	 */
+	public void registerResource(final Res resource) throws NullPointerException, IllegalArgumentException {
+		if (resource == null) {
+			throw new NullPointerException("Resource to register can't be null");
+		}
+		else if (resources.putIfAbsent(resource, new ResourceSlot(orderSequence.incrementAndGet())) != null) {
+			throw new IllegalArgumentException("Resource was registered already");
+		}
+	}
+
+	/**
+	 * <p>Unregister resource from the dispatcher. If the resource is locked now, it's owner remains the owner until unlocking. All the threads
+	 * waiting for the resource will fail their lock requests</p>
+	 * @param resource resource to unregister. Can't be null
+	 * @throws NullPointerException when resource is null
+	 * @throws IllegalArgumentException when resource is not registered
+	 */
+	public void unregisterResource(final Res resource) throws NullPointerException, IllegalArgumentException {
+		if (resource == null) {
+			throw new NullPointerException("Resource to unregister can't be null");
+		}
+		else {
+			final ResourceSlot	slot = resources.remove(resource);
+
+			if (slot == null) {
+				throw new IllegalArgumentException("Resource is not registered yet");
+			}
+			else {
+				slot.removed = true;
+				slot.wakeUpAll();
+			}
+		}
+	}
+
+	/**
+	 * <p>Is resource registered in the dispatcher</p>
+	 * @param resource resource to test. Can't be null
+	 * @return true if yes
+	 * @throws NullPointerException when resource is null
+	 */
+	public boolean isResourceRegistered(final Res resource) throws NullPointerException {
+		if (resource == null) {
+			throw new NullPointerException("Resource to test can't be null");
+		}
+		else {
+			return resources.containsKey(resource);
+		}
+	}
+
+	/**
+	 * <p>Is resource locked now</p>
+	 * @param resource resource to test. Can't be null
+	 * @return true if resource is registered and locked now
+	 * @throws NullPointerException when resource is null
+	 */
+	public boolean isResourceLocked(final Res resource) throws NullPointerException {
+		if (resource == null) {
+			throw new NullPointerException("Resource to test can't be null");
+		}
+		else {
+			final ResourceSlot	slot = resources.get(resource);
+
+			return slot != null && slot.state.get() != 0;
+		}
+	}
+
+	/**
+	 * <p>Get all registered resources</p>
+	 * @return unmodifiable set of registered resources. Can be empty but not null
+	 */
+	public Set<Res> getRegisteredResources() {
+		return Collections.unmodifiableSet(resources.keySet());
+	}
+
+	/**
+	 * <p>Lock group of resources. Waits until all the resources will be available</p>
+	 * @param res resources to lock. Can't be null or empty and can't contain nulls inside
+	 * @return lock to unlock resources. Can't be null
+	 * @throws IllegalArgumentException when resource list is null, empty or contains nulls inside
+	 * @throws FlowException when dispatcher is not started or suspended, any resource is not registered or dispatcher was stopped while waiting
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	@SafeVarargs
+	public final ResourceDispatcherLock lock(final Res... res) throws IllegalArgumentException, FlowException, InterruptedException {
+		return internalLock(true, res);
+	}
+
+	/**
+	 * <p>Try to lock group of resources without waiting</p>
+	 * @param res resources to lock. Can't be null or empty and can't contain nulls inside
+	 * @return lock to unlock resources or null if any of resources is locked now
+	 * @throws IllegalArgumentException when resource list is null, empty or contains nulls inside
+	 * @throws FlowException when dispatcher is not started or suspended or any resource is not registered
+	 */
+	@SafeVarargs
+	public final ResourceDispatcherLock tryLock(final Res... res) throws IllegalArgumentException, FlowException {
+		try{return internalLock(false, res);
+		} catch (InterruptedException e) {
+			throw new FlowException(e);
+		}
+	}
+
+	/**
+	 * <p>Get snapshot of the contention statistics</p>
+	 * @return statistics snapshot. Can't be null
+	 */
+	public ContentionStatistics getStatistics() {
+		return new ContentionStatistics(lockRequests.sum(), contendedRequests.sum(), failedRequests.sum(), spins.sum(), parks.sum(), waitTime.sum(), maxWaitTime.get());
+	}
+
+	/**
+	 * <p>Reset contention statistics</p>
+	 */
+	public void resetStatistics() {
+		lockRequests.reset();
+		contendedRequests.reset();
+		failedRequests.reset();
+		spins.reset();
+		parks.reset();
+		waitTime.reset();
+		maxWaitTime.set(0);
+	}
+
+	@Override
+	public synchronized void close() throws IllegalStateException {
+		if (isStarted()) {
+			stop();
+		}
+	}
+
+	@Override
+	public synchronized void start() throws IllegalStateException {
+		if (isStarted()) {
+			throw new IllegalStateException("Dispatcher is already started");
+		}
+		else {
+			isStarted = true;
+			isAvailable = true;
+		}
+	}
+
+	@Override
+	public synchronized void suspend() throws IllegalStateException {
+		if (!isStarted()) {
+			throw new IllegalStateException("Dispatcher is not started");
+		}
+		else if (isSuspended()) {
+			throw new IllegalStateException("Dispatcher is already suspended");
+		}
+		else {
+			isSuspended = true;
+			isAvailable = false;
+		}
+	}
+
+	@Override
+	public synchronized void resume() throws IllegalStateException {
+		if (!isStarted()) {
+			throw new IllegalStateException("Dispatcher is not started");
+		}
+		else if (!isSuspended()) {
+			throw new IllegalStateException("Dispatcher is not suspended");
+		}
+		else {
+			isSuspended = false;
+			isAvailable = true;
+		}
+	}
+
+	@Override
+	public synchronized void stop() throws IllegalStateException {
+		if (!isStarted()) {
+			throw new IllegalStateException("Dispatcher is not started");
+		}
+		else {
+			isAvailable = false;
+			isSuspended = false;
+			isStarted = false;
+			for (ResourceSlot slot : resources.values()) {
+				slot.wakeUpAll();
+			}
+		}
+	}
+
+	@Override
+	public synchronized boolean isStarted() {
+		return isStarted;
+	}
+
+	@Override
+	public synchronized boolean isSuspended() {
+		return isSuspended;
+	}
+
+	private ResourceDispatcherLock internalLock(final boolean wait, final Res[] res) throws IllegalArgumentException, FlowException, InterruptedException {
+		if (res == null || res.length == 0 || Utils.checkArrayContent4Nulls(res) >= 0) {
+			throw new IllegalArgumentException("Resource list is null, empty or contains nulls inside");
+		}
+		else if (!isAvailable) {
+			throw new FlowException("Resource lock unsuccessful (dispatcher "+(isStarted ? "suspended" : "not started")+")");
+		}
+		else {
+			final ResourceSlot[]	slots = new ResourceSlot[res.length];
+			int		count = 0;
+
+			lockRequests.increment();
+			for (Res item : res) {
+				final ResourceSlot	slot = resources.get(item);
+
+				if (slot == null) {
+					failedRequests.increment();
+					throw new FlowException("Resource lock unsuccessful (resource ["+item+"] is not registered yet)");
+				}
+				else {
+					slots[count++] = slot;
+				}
+			}
+			Arrays.sort(slots, ORDER);
+
+			final ResourceSlot[]	ordered = removeDuplicates(slots);
+			long	startTime = 0;
+			int		locked = 0;
+
+			try{for (ResourceSlot slot : ordered) {
+					if (!slot.tryAcquire(fair)) {
+						if (!wait) {
+							return null;
+						}
+						else {
+							if (startTime == 0) {
+								startTime = System.nanoTime();
+								contendedRequests.increment();
+							}
+							acquire(slot);
+						}
+					}
+					if (slot.removed) {		// Resource can be unregistered after the successful state change
+						slot.release();
+						failedRequests.increment();
+						throw new FlowException("Resource lock unsuccessful (some of the resources was unregistered)");
+					}
+					locked++;
+				}
+				if (startTime != 0) {
+					final long	delta = System.nanoTime() - startTime;
+
+					waitTime.add(delta);
+					maxWaitTime.accumulateAndGet(delta, Math::max);
+				}
+				return new LockFreeResourceDispatcherLock(ordered);
+			} finally {
+				if (locked < ordered.length) {
+					for (int index = locked - 1; index >= 0; index--) {
+						ordered[index].release();
+					}
+				}
+			}
+		}
+	}
+
+	private void acquire(final ResourceSlot slot) throws FlowException, InterruptedException {
+		final Thread	current = Thread.currentThread();
+		int		spinsAvailable = spinCount;
+
+		slot.waiters.add(current);
+		try{for (;;) {
+				if (slot.removed) {
+					failedRequests.increment();
+					throw new FlowException("Resource lock unsuccessful (some of the resources was unregistered)");
+				}
+				else if (!isStarted) {
+					failedRequests.increment();
+					throw new FlowException("Resource lock unsuccessful (dispatcher stopped)");
+				}
+				else if ((!fair || slot.waiters.peek() == current) && slot.state.compareAndSet(0, 1)) {
+					return;
+				}
+				else if (spinsAvailable > 0) {
+					spinsAvailable--;
+					spins.increment();
+					Thread.onSpinWait();
+				}
+				else {
+					parks.increment();
+					LockSupport.park(this);
+					if (Thread.interrupted()) {
+						failedRequests.increment();
+						throw new InterruptedException();
+					}
+				}
+			}
+		} finally {
+			slot.waiters.remove(current);
+			if (slot.state.get() == 0) {	// Pass the wake up to the next waiter, because it could be consumed by the current thread
+				slot.wakeUpFirst();
+			}
+		}
+	}
+
+	private static ResourceSlot[] removeDuplicates(final ResourceSlot[] slots) {
+		int	count = 1;
+
+		for (int index = 1; index < slots.length; index++) {
+			if (slots[index] != slots[count - 1]) {
+				slots[count++] = slots[index];
+			}
+		}
+		return count == slots.length ? slots : Arrays.copyOf(slots, count);
+	}
+
+	private static class ResourceSlot {
+		final long							order;
+		final AtomicInteger					state = new AtomicInteger();
+		final ConcurrentLinkedQueue<Thread>	waiters = new ConcurrentLinkedQueue<>();
+		volatile boolean					removed = false;
+
+		ResourceSlot(final long order) {
+			this.order = order;
+		}
+
+		boolean tryAcquire(final boolean fair) {
+			return (!fair || waiters.isEmpty()) && state.compareAndSet(0, 1);
+		}
+
+		void release() {
+			state.set(0);
+			wakeUpFirst();
+		}
+
+		void wakeUpFirst() {
+			final Thread	first = waiters.peek();
+
+			if (first != null) {
+				LockSupport.unpark(first);
+			}
+		}
+
+		void wakeUpAll() {
+			for (Thread item : waiters) {
+				LockSupport.unpark(item);
+			}
+		}
+	}
+
+	private static class LockFreeResourceDispatcherLock implements ResourceDispatcherLock {
+		private final ResourceSlot[]	slots;
+		private final AtomicBoolean		closed = new AtomicBoolean(false);
+
+		LockFreeResourceDispatcherLock(final ResourceSlot[] slots) {
+			this.slots = slots;
+		}
+
+		@Override
+		public void close() {
+			if (!closed.getAndSet(true)) {
+				for (int index = slots.length - 1; index >= 0; index--) {
+					slots[index].release();
+				}
+			}
+			else {
+				throw new IllegalStateException("Resource is already unlocked");
+			}
+		}
+	}
+}
@@ -0,0 +1,544 @@
+package chav1961.purelib.concurrent;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>This class implements bounded lock-free ring buffer for thread-to-thread communications. It supports either one producer thread
+ * ({@linkplain ProducerType#SINGLE}) or any number of producer threads ({@linkplain ProducerType#MULTI}) and exactly one consumer thread.
+ * Differ to {@linkplain java.util.concurrent.Exchanger}-based transfer, producers don't wait for the consumer until the buffer is full, and
+ * both producers and consumer can transfer content by batches.</p>
+ * <p>Producer and consumer sequences are padded to separate cache lines, so producers and consumer don't interfere each other. When producer
+ * waits for free space or consumer waits for content, the thread behavior is defined by {@linkplain WaitStrategy}.</p>
+ * <p>Example to use the class is:</p>
+ * <pre>
+ * // Producer thread:
+ * try(final RingBuffer&lt;String&gt; rb = new RingBuffer&lt;&gt;(1024)) {
+ *    ...
+ *    rb.put("content");
+ *    ...
+ * }
+ * // Consumer thread:
+ *    String	content;
+ *
+ *    while ((content = rb.take()) != null) {
+ *       ...
+ *    }
+ * </pre>
+ * <p>Null values can't be transferred. Closing the buffer rejects all subsequent publishing, but consumer can get all the content was published
+ * before closing.</p>
+ * <p>This class is thread-safe for producers, but only one consumer thread can use it at the same time.</p>
+ * @param <T> content type to transfer
+ * @see XStream
+ * @see XByteStream
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class RingBuffer<T> implements Closeable {
+	/**
+	 * <p>Default ring buffer capacity</p>
+	 */
+	public static final int		DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * <p>Number of producer threads supported</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	public static enum ProducerType {
+		/**
+		 * <p>Only one producer thread can publish content (SPSC)</p>
+		 */
+		SINGLE,
+		/**
+		 * <p>Any number of producer threads can publish content (MPSC)</p>
+		 */
+		MULTI
+	}
+
+	/**
+	 * <p>Thread behavior when producer waits for free space or consumer waits for content</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	public static enum WaitStrategy {
+		/**
+		 * <p>Busy spin. The lowest latency, but one CPU is fully loaded while waiting</p>
+		 */
+		SPIN,
+		/**
+		 * <p>Spin some time and then yield CPU to other threads</p>
+		 */
+		YIELD,
+		/**
+		 * <p>Spin some time and then park the thread for short time. The highest latency, but CPU is free while waiting</p>
+		 */
+		PARK;
+
+		private static final int	SPIN_TRIES = 100;
+		private static final long	PARK_NANOS = 50_000;
+
+		void idle(final int attempt) {
+			if (this == SPIN || attempt < SPIN_TRIES) {
+				Thread.onSpinWait();
+			}
+			else if (this == YIELD) {
+				Thread.yield();
+			}
+			else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+	}
+
+	private static final VarHandle	AVAILABLE = MethodHandles.arrayElementVarHandle(long[].class);
+
+	private final Object[]		entries;
+	private final long[]		available;
+	private final int			mask;
+	private final ProducerType	producerType;
+	private final WaitStrategy	waitStrategy;
+	private final Sequence		tail = new Sequence();
+	private final Sequence		head = new Sequence();
+	private volatile boolean	closed = false;
+
+	/**
+	 * <p>Constructor of the class. Creates single producer ring buffer with {@linkplain WaitStrategy#PARK} wait strategy</p>
+	 * @param capacity buffer capacity. Must be positive. Will be rounded up to the nearest power of 2
+	 * @throws IllegalArgumentException when capacity is not positive or too large
+	 */
+	public RingBuffer(final int capacity) throws IllegalArgumentException {
+		this(capacity, ProducerType.SINGLE, WaitStrategy.PARK);
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param capacity buffer capacity. Must be positive. Will be rounded up to the nearest power of 2
+	 * @param producerType number of producer threads supported. Can't be null
+	 * @param waitStrategy wait strategy for producers and consumer. Can't be null
+	 * @throws IllegalArgumentException when capacity is not positive or too large
+	 * @throws NullPointerException when any of the enumerations is null
+	 */
+	public RingBuffer(final int capacity, final ProducerType producerType, final WaitStrategy waitStrategy) throws IllegalArgumentException, NullPointerException {
+		if (capacity <= 0 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Capacity ["+capacity+"] out of range 1.."+(1 << 30));
+		}
+		else if (producerType == null) {
+			throw new NullPointerException("Producer type can't be null");
+		}
+		else if (waitStrategy == null) {
+			throw new NullPointerException("Wait strategy can't be null");
+		}
+		else {
+			final int	size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+			this.entries = new Object[size];
+			this.available = new long[size];
+			this.mask = size - 1;
+			this.producerType = producerType;
+			this.waitStrategy = waitStrategy;
+			for (int index = 0; index < size; index++) {
+				available[index] = -1;
+			}
+		}
+	}
+
+	/**
+	 * <p>Get buffer capacity</p>
+	 * @return buffer capacity
+	 */
+	public int capacity() {
+		return entries.length;
+	}
+
+	/**
+	 * <p>Get number of items in the buffer now</p>
+	 * @return number of items in the buffer
+	 */
+	public int size() {
+		return (int)Math.max(0, Math.min(entries.length, tail.getAcquire() - head.getAcquire()));
+	}
+
+	/**
+	 * <p>Is buffer closed</p>
+	 * @return true if yes
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * <p>Get producer type of the buffer</p>
+	 * @return producer type. Can't be null
+	 */
+	public ProducerType getProducerType() {
+		return producerType;
+	}
+
+	/**
+	 * <p>Get wait strategy of the buffer</p>
+	 * @return wait strategy. Can't be null
+	 */
+	public WaitStrategy getWaitStrategy() {
+		return waitStrategy;
+	}
+
+	/**
+	 * <p>Close the buffer. All subsequent publishing will be rejected, but consumer can get content was published earlier</p>
+	 */
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	/**
+	 * <p>Try to publish item without waiting</p>
+	 * @param item item to publish. Can't be null
+	 * @return true if published, false if the buffer is full now
+	 * @throws NullPointerException when item is null
+	 * @throws IllegalStateException when the buffer is closed
+	 */
+	public boolean offer(final T item) throws NullPointerException, IllegalStateException {
+		if (item == null) {
+			throw new NullPointerException("Item to publish can't be null");
+		}
+		else {
+			ensureNotClosed();
+			final long	sequence = tryClaim(1);
+
+			if (sequence < 0) {
+				return false;
+			}
+			else {
+				store(sequence, item);
+				commit(sequence, 1);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * <p>Publish item. Waits when the buffer is full</p>
+	 * @param item item to publish. Can't be null
+	 * @throws NullPointerException when item is null
+	 * @throws IllegalStateException when the buffer is closed
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	public void put(final T item) throws NullPointerException, IllegalStateException, InterruptedException {
+		if (item == null) {
+			throw new NullPointerException("Item to publish can't be null");
+		}
+		else {
+			ensureNotClosed();
+			final long	sequence = claim(1);
+
+			store(sequence, item);
+			commit(sequence, 1);
+		}
+	}
+
+	/**
+	 * <p>Publish batch of items. Waits when the buffer is full. Batches greater than buffer capacity will be published by parts</p>
+	 * @param items items to publish. Can't be null and can't contain nulls inside the range to publish
+	 * @param from start index of the items to publish
+	 * @param len number of items to publish
+	 * @throws NullPointerException when items array or any item to publish is null
+	 * @throws IllegalArgumentException when range is out of array bounds
+	 * @throws IllegalStateException when the buffer is closed
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	public void put(final T[] items, final int from, final int len) throws NullPointerException, IllegalArgumentException, IllegalStateException, InterruptedException {
+		if (items == null) {
+			throw new NullPointerException("Items to publish can't be null");
+		}
+		else if (from < 0 || from > items.length) {
+			throw new IllegalArgumentException("From index ["+from+"] out of range 0.."+items.length);
+		}
+		else if (len < 0 || from + len > items.length) {
+			throw new IllegalArgumentException("From index + length ["+(from+len)+"] out of range "+from+".."+items.length);
+		}
+		else {
+			for (int index = from; index < from + len; index++) {
+				if (items[index] == null) {
+					throw new NullPointerException("Item at index ["+index+"] is null");
+				}
+			}
+			ensureNotClosed();
+			int	start = from, rest = len;
+
+			while (rest > 0) {
+				final int	batch = Math.min(rest, entries.length);
+				final long	sequence = claim(batch);
+
+				for (int index = 0; index < batch; index++) {
+					store(sequence + index, items[start + index]);
+				}
+				commit(sequence, batch);
+				start += batch;
+				rest -= batch;
+			}
+		}
+	}
+
+	/**
+	 * <p>Try to get item without waiting. Must be called by consumer thread only</p>
+	 * @return item got or null if buffer is empty now
+	 */
+	public T poll() {
+		final long	current = head.get();
+
+		if (isAvailable(current)) {
+			return fetch(current);
+		}
+		else {
+			return null;
+		}
+	}
+
+	/**
+	 * <p>Get item. Waits when the buffer is empty. Must be called by consumer thread only</p>
+	 * @return item got or null if the buffer is closed and empty
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	public T take() throws InterruptedException {
+		final long	current = head.get();
+
+		return awaitAvailable(current) ? fetch(current) : null;
+	}
+
+	/**
+	 * <p>Get item. Waits when the buffer is empty, but not longer than timeout. Must be called by consumer thread only</p>
+	 * @param timeout timeout to wait. Can't be negative
+	 * @param unit timeout unit. Can't be null
+	 * @return item got or null if timeout was expired or the buffer is closed and empty
+	 * @throws IllegalArgumentException when timeout is negative
+	 * @throws NullPointerException when timeout unit is null
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	public T poll(final long timeout, final TimeUnit unit) throws IllegalArgumentException, NullPointerException, InterruptedException {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Timeout ["+timeout+"] can't be negative");
+		}
+		else if (unit == null) {
+			throw new NullPointerException("Time unit can't be null");
+		}
+		else {
+			final long	current = head.get(), deadline = System.nanoTime() + unit.toNanos(timeout);
+			int			attempt = 0;
+
+			while (!isAvailable(current)) {
+				if (closed && tail.getAcquire() <= current || System.nanoTime() - deadline >= 0) {
+					return null;
+				}
+				else if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				else {
+					waitStrategy.idle(attempt++);
+				}
+			}
+			return fetch(current);
+		}
+	}
+
+	/**
+	 * <p>Get batch of items. Waits when the buffer is empty, but returns immediately when at least one item is available. Must be called by consumer
+	 * thread only</p>
+	 * @param target array to store items got. Can't be null
+	 * @param from start index to store items
+	 * @param len maximal number of items to get
+	 * @return number of items got or -1 if the buffer is closed and empty
+	 * @throws NullPointerException when target array is null
+	 * @throws IllegalArgumentException when range is out of array bounds
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	public int take(final T[] target, final int from, final int len) throws NullPointerException, IllegalArgumentException, InterruptedException {
+		if (target == null) {
+			throw new NullPointerException("Target array can't be null");
+		}
+		else if (from < 0 || from > target.length) {
+			throw new IllegalArgumentException("From index ["+from+"] out of range 0.."+target.length);
+		}
+		else if (len < 0 || from + len > target.length) {
+			throw new IllegalArgumentException("From index + length ["+(from+len)+"] out of range "+from+".."+target.length);
+		}
+		else if (len == 0) {
+			return 0;
+		}
+		else if (!awaitAvailable(head.get())) {
+			return -1;
+		}
+		else {
+			return drainTo(target, from, len);
+		}
+	}
+
+	/**
+	 * <p>Get batch of items without waiting. Must be called by consumer thread only</p>
+	 * @param target array to store items got. Can't be null
+	 * @param from start index to store items
+	 * @param len maximal number of items to get
+	 * @return number of items got (can be 0)
+	 * @throws NullPointerException when target array is null
+	 * @throws IllegalArgumentException when range is out of array bounds
+	 */
+	@SuppressWarnings("unchecked")
+	public int drainTo(final T[] target, final int from, final int len) throws NullPointerException, IllegalArgumentException {
+		if (target == null) {
+			throw new NullPointerException("Target array can't be null");
+		}
+		else if (from < 0 || from > target.length) {
+			throw new IllegalArgumentException("From index ["+from+"] out of range 0.."+target.length);
+		}
+		else if (len < 0 || from + len > target.length) {
+			throw new IllegalArgumentException("From index + length ["+(from+len)+"] out of range "+from+".."+target.length);
+		}
+		else {
+			final long	current = head.get();
+			int			count = 0;
+
+			while (count < len && isAvailable(current + count)) {
+				final int	index = (int)((current + count) & mask);
+
+				target[from + count] = (T)entries[index];
+				entries[index] = null;
+				count++;
+			}
+			if (count > 0) {
+				head.setRelease(current + count);
+			}
+			return count;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RingBuffer [capacity=" + entries.length + ", producerType=" + producerType + ", waitStrategy=" + waitStrategy + ", size=" + size() + ", closed=" + closed + "]";
+	}
+
+	private long tryClaim(final int count) {
+		for (;;) {
+			final long	current = tail.get();
+
+			if (current + count - head.getAcquire() > entries.length) {
+				return -1;
+			}
+			else if (producerType == ProducerType.SINGLE || tail.compareAndSet(current, current + count)) {
+				return current;
+			}
+		}
+	}
+
+	private long claim(final int count) throws InterruptedException {
+		int		attempt = 0;
+		long	sequence;
+
+		while ((sequence = tryClaim(count)) < 0) {
+			ensureNotClosed();
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			else {
+				waitStrategy.idle(attempt++);
+			}
+		}
+		return sequence;
+	}
+
+	private void store(final long sequence, final T item) {
+		entries[(int)(sequence & mask)] = item;
+	}
+
+	private void commit(final long sequence, final int count) {
+		if (producerType == ProducerType.SINGLE) {
+			tail.setRelease(sequence + count);
+		}
+		else {
+			for (int index = 0; index < count; index++) {
+				AVAILABLE.setRelease(available, (int)((sequence + index) & mask), sequence + index);
+			}
+		}
+	}
+
+	private boolean isAvailable(final long sequence) {
+		if (producerType == ProducerType.SINGLE) {
+			return sequence < tail.getAcquire();
+		}
+		else {
+			return (long)AVAILABLE.getAcquire(available, (int)(sequence & mask)) == sequence;
+		}
+	}
+
+	private boolean awaitAvailable(final long sequence) throws InterruptedException {
+		int	attempt = 0;
+
+		while (!isAvailable(sequence)) {
+			if (closed && tail.getAcquire() <= sequence) {
+				return false;
+			}
+			else if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			else {
+				waitStrategy.idle(attempt++);
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T fetch(final long sequence) {
+		final int	index = (int)(sequence & mask);
+		final T		result = (T)entries[index];
+
+		entries[index] = null;
+		head.setRelease(sequence + 1);
+		return result;
+	}
+
+	private void ensureNotClosed() throws IllegalStateException {
+		if (closed) {
+			throw new IllegalStateException("Ring buffer is closed");
+		}
+	}
+
+	static class LeftPadding {
+		long	p01, p02, p03, p04, p05, p06, p07;
+	}
+
+	static class SequenceValue extends LeftPadding {
+		volatile long	value = 0;
+	}
+
+	static class Sequence extends SequenceValue {
+		private static final VarHandle	VALUE;
+
+		static {
+			try{VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		long	p11, p12, p13, p14, p15, p16, p17;
+
+		long get() {
+			return value;
+		}
+
+		long getAcquire() {
+			return (long)VALUE.getAcquire(this);
+		}
+
+		void setRelease(final long newValue) {
+			VALUE.setRelease(this, newValue);
+		}
+
+		boolean compareAndSet(final long expected, final long newValue) {
+			return VALUE.compareAndSet(this, expected, newValue);
+		}
+	}
+}
@@ -0,0 +1,644 @@
+package chav1961.purelib.concurrent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import chav1961.purelib.concurrent.interfaces.ExecutionControl;
+import chav1961.purelib.concurrent.interfaces.RequestProcessor;
+import chav1961.purelib.concurrent.interfaces.StagedFuture;
+
+/**
+ * <p>This class implements multi-staged asynchronous processing pipeline. Stages of the pipeline are described by enumeration constants. Every stage
+ * has it's own bounded queue, worker pool and {@linkplain StageHandler}. Stage workers get <i>micro-batches</i> of requests from the stage queue and pass
+ * them to the stage handler. Every request in the batch is a {@linkplain RequestProcessor} instance, and the handler must call one of it's
+ * {@linkplain RequestProcessor#complete(Object)}, {@linkplain RequestProcessor#fail(Throwable)} or {@linkplain RequestProcessor#reject()}
+ * methods. Completed request moves to the next stage queue, or completes the pipeline request on the last stage. Failed or rejected requests
+ * leave the pipeline immediately. There is an example to use the class:</p>
+ * <pre>
+ * {@code
+ * enum Stages {PARSE, CALCULATE}
+ *
+ * try(final StagedPipeline<Stages,String,Integer> pipe = new StagedPipeline<Stages,String,Integer>(Stages.class)) {
+ *    pipe.stage(Stages.PARSE, 100, 1, 16, (List<RequestProcessor<String,Integer>> batch)->{
+ *              for (RequestProcessor<String,Integer> item : batch) {
+ *                  item.complete(Integer.valueOf(item.take()));
+ *              }
+ *          })
+ *        .stage(Stages.CALCULATE, 100, 4, 1, (List<RequestProcessor<Integer,Integer>> batch)->{
+ *              batch.get(0).complete(batch.get(0).take() * 2);
+ *          });
+ *    pipe.start();
+ *    final StagedFuture<Stages,Integer> future = pipe.submit("100");
+ *    . . .
+ *    System.err.println("Current stage: "+future.currentStage());
+ *    . . .
+ *    System.err.println("Result: "+future.get());
+ * }
+ * }
+ * </pre>
+ * <p>Stage queues are bounded, so the pipeline supports <i>backpressure</i>: {@linkplain #submit(Object)} waits while the first stage queue
+ * is full, and stage workers wait while the next stage queue is full. Every stage collects it's latency histogram (time from entering the stage
+ * queue to the request completion by the stage handler), see {@linkplain #getLatencyHistogram(Enum)}.</p>
+ * <p>Worker threads are created by {@linkplain ThreadFactory} passed for every stage. On Java 21 and later, pass <b>Thread.ofVirtual().factory()</b>
+ * to use virtual threads for the stage.</p>
+ * <p>This class is thread-safe</p>
+ * @param <Stage> enumeration describing pipeline stages. Stages are processed in the order of enumeration constants
+ * @param <F> type of source data to process
+ * @param <T> type of result processed
+ * @see LightWeightFuture
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class StagedPipeline<Stage extends Enum<Stage>,F,T> implements AutoCloseable, ExecutionControl {
+	private static final AtomicInteger	AI = new AtomicInteger(1);
+	private static final long			POLL_TIMEOUT = 100;
+
+	/**
+	 * <p>This interface describes processing of the requests batch on the stage.</p>
+	 * @param <I> stage input type
+	 * @param <O> stage output type
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	@FunctionalInterface
+	public static interface StageHandler<I,O> {
+		/**
+		 * <p>Process batch of requests. Handler must call any of {@linkplain RequestProcessor} completion methods for every request in the batch.
+		 * Requests without completion will be failed after returning from the method.</p>
+		 * @param batch batch of requests to process. Contains at least one request
+		 * @throws Exception on any processing errors. All the requests without completion will be failed with this exception
+		 */
+		void process(List<RequestProcessor<I,O>> batch) throws Exception;
+	}
+
+	/**
+	 * <p>This class implements simple latency histogram with logarithmic buckets. Every bucket N keeps number of values in the range
+	 * 2<sup>N-1</sup>..2<sup>N</sup>-1 nanoseconds.</p>
+	 * <p>This class is thread-safe</p>
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	public static class LatencyHistogram {
+		private static final int	BUCKETS = 64;
+
+		private final AtomicLongArray	buckets = new AtomicLongArray(BUCKETS);
+		private final LongAdder			count = new LongAdder();
+		private final LongAdder			total = new LongAdder();
+		private final AtomicLong		max = new AtomicLong();
+
+		/**
+		 * <p>Record latency value</p>
+		 * @param nanos latency value (in nanoseconds). Negative values are treated as 0
+		 */
+		public void record(final long nanos) {
+			final long	value = Math.max(0, nanos);
+
+			buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+			count.increment();
+			total.add(value);
+			max.accumulateAndGet(value, Math::max);
+		}
+
+		/**
+		 * <p>Get number of values recorded</p>
+		 * @return number of values recorded
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * <p>Get mean latency</p>
+		 * @return mean latency (in nanoseconds)
+		 */
+		public long getMean() {
+			final long	currentCount = count.sum();
+
+			return currentCount == 0 ? 0 : total.sum() / currentCount;
+		}
+
+		/**
+		 * <p>Get maximal latency</p>
+		 * @return maximal latency (in nanoseconds)
+		 */
+		public long getMax() {
+			return max.get();
+		}
+
+		/**
+		 * <p>Get latency percentile. Returns upper bound of the histogram bucket containing the percentile</p>
+		 * @param percentile percentile to get. Must be in range 0..100
+		 * @return latency percentile (in nanoseconds)
+		 * @throws IllegalArgumentException when percentile is out of range
+		 */
+		public long getPercentile(final double percentile) throws IllegalArgumentException {
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("Percentile ["+percentile+"] out of range 0..100");
+			}
+			else {
+				final long[]	current = new long[BUCKETS];
+				long			sum = 0;
+
+				for (int index = 0; index < BUCKETS; index++) {
+					sum += current[index] = buckets.get(index);
+				}
+				if (sum == 0) {
+					return 0;
+				}
+				else {
+					final long	threshold = Math.max(1, (long)Math.ceil(sum * percentile / 100));
+					long		accumulated = 0;
+
+					for (int index = 0; index < BUCKETS; index++) {
+						if ((accumulated += current[index]) >= threshold) {
+							return index == 0 ? 0 : Math.min(getMax(), index == BUCKETS - 1 ? Long.MAX_VALUE : (1L << index) - 1);
+						}
+					}
+					return getMax();
+				}
+			}
+		}
+
+		/**
+		 * <p>Reset histogram content</p>
+		 */
+		public void reset() {
+			for (int index = 0; index < BUCKETS; index++) {
+				buckets.set(index, 0);
+			}
+			count.reset();
+			total.reset();
+			max.set(0);
+		}
+
+		@Override
+		public String toString() {
+			return "LatencyHistogram [count=" + getCount() + ", mean=" + getMean() + ", p50=" + getPercentile(50) + ", p99=" + getPercentile(99) + ", max=" + getMax() + "]";
+		}
+	}
+
+	private final Class<Stage>					stageClass;
+	private final Map<Stage,StageDescriptor>	stages;
+	private final List<Thread>					workers = new ArrayList<>();
+	private final Object						suspendSync = new Object();
+	private StageDescriptor						first = null;
+	private volatile boolean					isStarted = false;
+	private volatile boolean					isSuspended = false;
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param stageClass enumeration class describing pipeline stages. Can't be null
+	 * @throws NullPointerException when stage class is null
+	 */
+	public StagedPipeline(final Class<Stage> stageClass) throws NullPointerException {
+		if (stageClass == null) {
+			throw new NullPointerException("Stage class can't be null");
+		}
+		else {
+			this.stageClass = stageClass;
+			this.stages = new EnumMap<>(stageClass);
+		}
+	}
+
+	/**
+	 * <p>Configure pipeline stage with daemon platform worker threads. Must be called before starting the pipeline</p>
+	 * @param <I> stage input type
+	 * @param <O> stage output type
+	 * @param stage stage to configure. Can't be null
+	 * @param queueSize stage queue size. Must be positive
+	 * @param workers number of stage workers. Must be positive
+	 * @param batchSize maximal number of requests in the batch. Must be positive
+	 * @param handler stage handler. Can't be null
+	 * @return self
+	 * @throws NullPointerException when stage or handler is null
+	 * @throws IllegalArgumentException when any numeric parameter is not positive or stage is already configured
+	 * @throws IllegalStateException when pipeline is started
+	 */
+	public <I,O> StagedPipeline<Stage,F,T> stage(final Stage stage, final int queueSize, final int workers, final int batchSize, final StageHandler<I,O> handler) throws NullPointerException, IllegalArgumentException, IllegalStateException {
+		return stage(stage, queueSize, workers, batchSize, (r)->{
+					final Thread	t = new Thread(r);
+
+					t.setDaemon(true);
+					return t;
+				}, handler);
+	}
+
+	/**
+	 * <p>Configure pipeline stage. Must be called before starting the pipeline</p>
+	 * @param <I> stage input type
+	 * @param <O> stage output type
+	 * @param stage stage to configure. Can't be null
+	 * @param queueSize stage queue size. Must be positive
+	 * @param workers number of stage workers. Must be positive
+	 * @param batchSize maximal number of requests in the batch. Must be positive
+	 * @param threadFactory factory to create stage worker threads. Can't be null
+	 * @param handler stage handler. Can't be null
+	 * @return self
+	 * @throws NullPointerException when stage, thread factory or handler is null
+	 * @throws IllegalArgumentException when any numeric parameter is not positive or stage is already configured
+	 * @throws IllegalStateException when pipeline is started
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <I,O> StagedPipeline<Stage,F,T> stage(final Stage stage, final int queueSize, final int workers, final int batchSize, final ThreadFactory threadFactory, final StageHandler<I,O> handler) throws NullPointerException, IllegalArgumentException, IllegalStateException {
+		if (stage == null) {
+			throw new NullPointerException("Stage can't be null");
+		}
+		else if (queueSize <= 0) {
+			throw new IllegalArgumentException("Queue size ["+queueSize+"] must be greater than 0");
+		}
+		else if (workers <= 0) {
+			throw new IllegalArgumentException("Number of workers ["+workers+"] must be greater than 0");
+		}
+		else if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size ["+batchSize+"] must be greater than 0");
+		}
+		else if (threadFactory == null) {
+			throw new NullPointerException("Thread factory can't be null");
+		}
+		else if (handler == null) {
+			throw new NullPointerException("Stage handler can't be null");
+		}
+		else if (isStarted()) {
+			throw new IllegalStateException("Pipeline is started, stages can't be configured");
+		}
+		else if (stages.containsKey(stage)) {
+			throw new IllegalArgumentException("Stage ["+stage+"] is already configured");
+		}
+		else {
+			stages.put(stage, new StageDescriptor(stage, queueSize, workers, batchSize, threadFactory, (StageHandler<Object,Object>)handler));
+			return this;
+		}
+	}
+
+	/**
+	 * <p>Submit content to process. Waits while the first stage queue is full</p>
+	 * @param content content to process. Can't be null
+	 * @return future to control processing. Can't be null
+	 * @throws NullPointerException when content is null
+	 * @throws IllegalStateException when pipeline is not started or suspended
+	 * @throws InterruptedException when thread was interrupted while waiting
+	 */
+	public StagedFuture<Stage,T> submit(final F content) throws NullPointerException, IllegalStateException, InterruptedException {
+		final PipelineFuture	future = prepareSubmit(content);
+
+		first.queue.put(new StageRequest(first, future, content));
+		return future;
+	}
+
+	/**
+	 * <p>Submit content to process without waiting</p>
+	 * @param content content to process. Can't be null
+	 * @return future to control processing or null if the first stage queue is full now
+	 * @throws NullPointerException when content is null
+	 * @throws IllegalStateException when pipeline is not started or suspended
+	 */
+	public StagedFuture<Stage,T> trySubmit(final F content) throws NullPointerException, IllegalStateException {
+		final PipelineFuture	future = prepareSubmit(content);
+
+		return first.queue.offer(new StageRequest(first, future, content)) ? future : null;
+	}
+
+	/**
+	 * <p>Get latency histogram of the stage</p>
+	 * @param stage stage to get histogram for. Can't be null
+	 * @return latency histogram. Can't be null
+	 * @throws NullPointerException when stage is null
+	 * @throws IllegalArgumentException when stage is not configured
+	 */
+	public LatencyHistogram getLatencyHistogram(final Stage stage) throws NullPointerException, IllegalArgumentException {
+		return getStage(stage).histogram;
+	}
+
+	/**
+	 * <p>Get number of requests waiting in the stage queue</p>
+	 * @param stage stage to get queue length for. Can't be null
+	 * @return number of requests in the stage queue
+	 * @throws NullPointerException when stage is null
+	 * @throws IllegalArgumentException when stage is not configured
+	 */
+	public int getQueueLength(final Stage stage) throws NullPointerException, IllegalArgumentException {
+		return getStage(stage).queue.size();
+	}
+
+	/**
+	 * <p>Get number of batches processed by the stage</p>
+	 * @param stage stage to get number of batches for. Can't be null
+	 * @return number of batches processed
+	 * @throws NullPointerException when stage is null
+	 * @throws IllegalArgumentException when stage is not configured
+	 */
+	public long getBatchCount(final Stage stage) throws NullPointerException, IllegalArgumentException {
+		return getStage(stage).batches.sum();
+	}
+
+	@Override
+	public synchronized void close() throws InterruptedException {
+		if (isStarted()) {
+			stop();
+		}
+	}
+
+	@Override
+	public synchronized void start() throws IllegalStateException {
+		if (isStarted()) {
+			throw new IllegalStateException("Pipeline is already started");
+		}
+		else if (stages.isEmpty()) {
+			throw new IllegalStateException("No any stages configured in the pipeline");
+		}
+		else {
+			final int			pipeId = AI.getAndIncrement();
+			StageDescriptor		prev = null;
+
+			for (Stage item : stageClass.getEnumConstants()) {
+				final StageDescriptor	desc = stages.get(item);
+
+				if (desc != null) {
+					if (prev == null) {
+						first = desc;
+					}
+					else {
+						prev.next = desc;
+					}
+					prev = desc;
+				}
+			}
+			isStarted = true;
+			isSuspended = false;
+			for (StageDescriptor desc : stages.values()) {
+				for (int index = 0; index < desc.workers; index++) {
+					final Thread	t = desc.threadFactory.newThread(()->work(desc));
+
+					t.setName("StagedPipeline-"+pipeId+"-"+desc.stage+"-"+index);
+					workers.add(t);
+					t.start();
+				}
+			}
+		}
+	}
+
+	@Override
+	public synchronized void suspend() throws IllegalStateException {
+		if (!isStarted()) {
+			throw new IllegalStateException("Pipeline is not started");
+		}
+		else if (isSuspended()) {
+			throw new IllegalStateException("Pipeline is already suspended");
+		}
+		else {
+			isSuspended = true;
+		}
+	}
+
+	@Override
+	public synchronized void resume() throws IllegalStateException {
+		if (!isStarted()) {
+			throw new IllegalStateException("Pipeline is not started");
+		}
+		else if (!isSuspended()) {
+			throw new IllegalStateException("Pipeline is not suspended");
+		}
+		else {
+			synchronized (suspendSync) {
+				isSuspended = false;
+				suspendSync.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * <p>Stop the pipeline. Waits for termination of the stage handlers currently running. All the requests are not completed yet will be rejected</p>
+	 * @throws IllegalStateException when pipeline is not started
+	 * @throws InterruptedException when thread was interrupted while waiting for workers termination
+	 */
+	@Override
+	public synchronized void stop() throws IllegalStateException, InterruptedException {
+		if (!isStarted()) {
+			throw new IllegalStateException("Pipeline is not started");
+		}
+		else {
+			isStarted = false;
+			isSuspended = false;
+			for (Thread item : workers) {
+				item.interrupt();
+			}
+			for (Thread item : workers) {
+				item.join();
+			}
+			workers.clear();
+			for (StageDescriptor desc : stages.values()) {
+				StageRequest	rq;
+
+				while ((rq = desc.queue.poll()) != null) {
+					rq.reject();
+				}
+				desc.next = null;
+			}
+			first = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isStarted() {
+		return isStarted;
+	}
+
+	@Override
+	public synchronized boolean isSuspended() {
+		return isSuspended;
+	}
+
+	private PipelineFuture prepareSubmit(final F content) throws NullPointerException, IllegalStateException {
+		if (content == null) {
+			throw new NullPointerException("Content to process can't be null");
+		}
+		else if (!isStarted) {
+			throw new IllegalStateException("Pipeline is not started");
+		}
+		else if (isSuspended) {
+			throw new IllegalStateException("Pipeline is suspended");
+		}
+		else {
+			final PipelineFuture	future = new PipelineFuture(content);
+
+			future.stage = first.stage;
+			return future;
+		}
+	}
+
+	private StageDescriptor getStage(final Stage stage) throws NullPointerException, IllegalArgumentException {
+		if (stage == null) {
+			throw new NullPointerException("Stage can't be null");
+		}
+		else {
+			final StageDescriptor	desc = stages.get(stage);
+
+			if (desc == null) {
+				throw new IllegalArgumentException("Stage ["+stage+"] is not configured");
+			}
+			else {
+				return desc;
+			}
+		}
+	}
+
+	private void work(final StageDescriptor desc) {
+		final List<StageRequest>					batch = new ArrayList<>(desc.batchSize);
+		final List<RequestProcessor<Object,Object>>	toProcess = new ArrayList<>(desc.batchSize);
+
+		try{while (!Thread.currentThread().isInterrupted()) {
+				if (isSuspended) {
+					synchronized (suspendSync) {	// Workers are parked until resume() or stop() call
+						while (isSuspended) {
+							suspendSync.wait();
+						}
+					}
+				}
+				else {
+					final StageRequest	rq = desc.queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+
+					if (rq != null) {
+						batch.add(rq);
+						desc.queue.drainTo(batch, desc.batchSize - 1);
+						for (StageRequest item : batch) {
+							if (item.future.isCancelled()) {
+								item.reject();
+							}
+							else {
+								toProcess.add(item);
+							}
+						}
+						if (!toProcess.isEmpty()) {
+							desc.batches.increment();
+							try{desc.handler.process(toProcess);
+								for (StageRequest item : batch) {
+									if (!item.done.get()) {
+										item.fail(new IllegalStateException("Request was not completed by the stage ["+desc.stage+"] handler"));
+									}
+								}
+							} catch (InterruptedException exc) {
+								throw exc;
+							} catch (Throwable exc) {
+								for (StageRequest item : batch) {
+									item.fail(exc);
+								}
+							}
+						}
+						batch.clear();
+						toProcess.clear();
+					}
+				}
+			}
+		} catch (InterruptedException exc) {
+			for (StageRequest item : batch) {
+				item.reject();
+			}
+		}
+	}
+
+	private class StageDescriptor {
+		final Stage								stage;
+		final BlockingQueue<StageRequest>		queue;
+		final int								workers;
+		final int								batchSize;
+		final ThreadFactory						threadFactory;
+		final StageHandler<Object,Object>		handler;
+		final LatencyHistogram					histogram = new LatencyHistogram();
+		final LongAdder							batches = new LongAdder();
+		volatile StageDescriptor				next = null;
+
+		StageDescriptor(final Stage stage, final int queueSize, final int workers, final int batchSize, final ThreadFactory threadFactory, final StageHandler<Object,Object> handler) {
+			this.stage = stage;
+			this.queue = new ArrayBlockingQueue<>(queueSize);
+			this.workers = workers;
+			this.batchSize = batchSize;
+			this.threadFactory = threadFactory;
+			this.handler = handler;
+		}
+	}
+
+	private class StageRequest implements RequestProcessor<Object,Object> {
+		final StageDescriptor	desc;
+		final PipelineFuture	future;
+		final Object			content;
+		final long				enterTime = System.nanoTime();
+		final AtomicBoolean		done = new AtomicBoolean(false);
+
+		StageRequest(final StageDescriptor desc, final PipelineFuture future, final Object content) {
+			this.desc = desc;
+			this.future = future;
+			this.content = content;
+		}
+
+		@Override
+		public Object take() {
+			return content;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void complete(final Object result) {
+			if (result == null) {
+				throw new NullPointerException("Result can't be null");
+			}
+			else if (!done.getAndSet(true)) {
+				final StageDescriptor	next = desc.next;
+
+				desc.histogram.record(System.nanoTime() - enterTime);
+				if (next == null) {
+					future.complete((T)result);
+				}
+				else {
+					future.stage = next.stage;
+					try{next.queue.put(new StageRequest(next, future, result));
+					} catch (InterruptedException e) {
+						future.reject();
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		}
+
+		@Override
+		public void fail(final Throwable exception) {
+			if (exception == null) {
+				throw new NullPointerException("Exception can't be null");
+			}
+			else if (!done.getAndSet(true)) {
+				desc.histogram.record(System.nanoTime() - enterTime);
+				future.fail(exception);
+			}
+		}
+
+		@Override
+		public void reject() {
+			if (!done.getAndSet(true)) {
+				future.reject();
+			}
+		}
+	}
+
+	private class PipelineFuture extends LightWeightFuture<F,T> implements StagedFuture<Stage,T> {
+		volatile Stage	stage;
+
+		PipelineFuture(final F content) {
+			super(content);
+		}
+
+		@Override
+		public Stage currentStage() {
+			return stage;
+		}
+	}
+}
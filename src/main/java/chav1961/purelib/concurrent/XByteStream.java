@@ -7,26 +7,35 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.Arrays;
 import java.util.concurrent.Exchanger;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import chav1961.purelib.basic.growablearrays.GrowableByteArray;
+import chav1961.purelib.concurrent.RingBuffer.ProducerType;
+import chav1961.purelib.concurrent.RingBuffer.WaitStrategy;
 
 /**
  * <p>This class is used to support I/O channel between two threads. It's functionality is similar to {@linkplain PipedInputStream}/{@linkplain PipedOutputStream} pair.
  * This class implements {@linkplain Closeable} interface and can be used in the <b>try-with-resource</b> statements.</p>
+ * <p>By default, every {@linkplain OutputStream#flush()} call waits until the receiver gets the content. Use {@linkplain #XByteStream(int, WaitStrategy)}
+ * constructor to transfer content asynchronously through {@linkplain RingBuffer}. In this case, sender waits only when the ring buffer is full.</p>
  * <p>This class is not reusable</p>
  * @see XStream
  * @see XCharStream
+ * @see RingBuffer
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.3
+ * @last.update 0.0.9
  */
 public class XByteStream implements Closeable {
 	private static final int			EXCHANGE_TIMEOUT_SECONDS = 1;
+	private static final int			CHUNK_SIZE = 8192;
 	
 	private final Object				sync = new Object();
 	private final Exchanger<GrowableByteArray>	ex = new Exchanger<>();
+	private final RingBuffer<byte[]>	ring;
 	private volatile Thread				sender = null, receiver = null;
 	private volatile boolean			senderClosed = false, receiverClosed = false;
 
@@ -34,6 +43,19 @@ public class XByteStream implements Closeable {
 	 * <p>Constructor of the class</p>
 	 */
 	public XByteStream() {
+		this.ring = null;
+	}
+
+	/**
+	 * <p>Constructor of the class. Creates channel with asynchronous content transfer through {@linkplain RingBuffer}</p>
+	 * @param capacity ring buffer capacity (in chunks). Every chunk is up to 8192 bytes. Must be positive
+	 * @param waitStrategy wait strategy for sender and receiver. Can't be null
+	 * @throws IllegalArgumentException when capacity is not positive
+	 * @throws NullPointerException when wait strategy is null
+	 * @since 0.0.9
+	 */
+	public XByteStream(final int capacity, final WaitStrategy waitStrategy) throws IllegalArgumentException, NullPointerException {
+		this.ring = new RingBuffer<>(capacity, ProducerType.SINGLE, waitStrategy);
 	}
 
 	@Override
@@ -41,6 +63,9 @@ public class XByteStream implements Closeable {
 		synchronized(sync) {
 			senderClosed = true;
 			receiverClosed = true;
+			if (ring != null) {
+				ring.close();
+			}
 		}		
 	}
 	
@@ -59,7 +84,7 @@ public class XByteStream implements Closeable {
 			}
 			else {
 				receiver = Thread.currentThread();
-				return new InternalInputStream();
+				return ring != null ? new RingInputStream() : new InternalInputStream();
 			}
 		}
 	}
@@ -79,7 +104,7 @@ public class XByteStream implements Closeable {
 			}
 			else {
 				sender = Thread.currentThread();
-				return new InternalOutputStream();
+				return ring != null ? new RingOutputStream() : new InternalOutputStream();
 			}
 		}
 	}
@@ -201,4 +226,149 @@ public class XByteStream implements Closeable {
 			}
 		}
 	}
+
+	private class RingInputStream extends InputStream {
+		private byte[]	chunk = null;
+		private int		cursor = 0;
+
+		@Override
+		public int read() throws IOException {
+			if (!ensureDataExists()) {
+				return -1;
+			} 
+			else {
+				return chunk[cursor++] & 0xFF;
+			}
+		}
+		
+		@Override
+		public int read(byte[] cbuf, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			else if (!ensureDataExists()) {
+				return -1;
+			} 
+			else {
+				final int	currentLen = Math.min(len, chunk.length - cursor);
+	
+				System.arraycopy(chunk, cursor, cbuf, off, currentLen);
+				cursor += currentLen;
+				return currentLen;
+			}
+		}
+
+		@Override
+		public int available() throws IOException {
+			return chunk == null ? 0 : chunk.length - cursor;
+		}
+
+		@Override
+		public void close() throws IOException {
+			synchronized (sync) {
+				receiverClosed = true;
+				ring.close();
+				chunk = null;
+			}
+		}
+		
+		private boolean ensureDataExists() throws IOException {
+			if (receiverClosed) {
+				throw new IOException("Pipe is closed");
+			}
+			else if (chunk == null || cursor >= chunk.length) {
+				for (;;) {
+					try{final byte[]	newChunk = ring.poll(EXCHANGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+					
+						if (newChunk != null) {
+							chunk = newChunk;
+							cursor = 0;
+							break;
+						}
+						else if (ring.isClosed() && ring.size() == 0) {
+							return false;
+						}
+						else if (sender != null && !sender.isAlive()) {
+							throw new IOException("Pipe is broken");
+						}
+					} catch (InterruptedException e) {
+						receiverClosed = true;
+						throw new IOException("Pipe transfer is interrupted");
+					}
+				}
+			}
+			return true;
+		}
+	}
+	
+	private class RingOutputStream extends OutputStream {
+		private byte[]	chunk = new byte[CHUNK_SIZE];
+		private int		filled = 0;
+
+		@Override
+		public void write(int b) throws IOException {
+			if (filled >= chunk.length) {
+				publish();
+			}
+			chunk[filled++] = (byte)b;
+		}
+		
+		@Override
+		public void write(byte[] cbuf, int off, int len) throws IOException {
+			while (len > 0) {
+				if (filled >= chunk.length) {
+					publish();
+				}
+				final int	currentLen = Math.min(len, chunk.length - filled);
+				
+				System.arraycopy(cbuf, off, chunk, filled, currentLen);
+				filled += currentLen;
+				off += currentLen;
+				len -= currentLen;
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (filled > 0) {
+				publish();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!senderClosed) {
+				try{flush();
+				} finally {
+					synchronized (sync) {
+						senderClosed = true;
+						ring.close();
+						chunk = null;
+					}
+				}
+			}
+		}
+		
+		private void publish() throws IOException {
+			if (senderClosed) {
+				throw new IOException("Pipe is closed");
+			}
+			else {
+				try{if (filled == chunk.length) {
+						ring.put(chunk);
+						chunk = new byte[CHUNK_SIZE];
+					}
+					else {
+						ring.put(Arrays.copyOf(chunk, filled));
+					}
+					filled = 0;
+				} catch (InterruptedException e) {
+					senderClosed = true;
+					throw new IOException("Pipe transfer is interrupted");
+				} catch (IllegalStateException e) {
+					throw new IOException("Pipe is closed by receiver");
+				}
+			}
+		}
+	}
 }
@@ -8,6 +8,9 @@ import java.util.concurrent.Exchanger;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import chav1961.purelib.concurrent.RingBuffer.ProducerType;
+import chav1961.purelib.concurrent.RingBuffer.WaitStrategy;
+
 /**
  * <p>This class implements reader/writer stream pair for thread-to-thread communications. It's a light-weight replacement for {@link java.io.PipedReader}/{@link java.io.PipedWriter} pairs. Differ
  * to these streams, methods of XStream streams are not synchronized, and <i>bulk</i> data transfer is used everywhere, so this class is optimized for bulk data transfer.</p>
@@ -41,23 +44,46 @@ import java.util.concurrent.TimeoutException;
  * }<br>   
  * </code>   
  * <p>Note, that writer part of the class automatically flushes when the '\n' char is appeared in the output stream.</p>
+ * <p>By default, every flush waits until the reader gets the content. Use {@linkplain #XStream(int, WaitStrategy)} constructor to transfer content
+ * asynchronously through {@linkplain RingBuffer}. In this case, writer waits only when the ring buffer is full.</p>
  *
  * @see XByteStream
  * @see XCharStream
+ * @see RingBuffer
  * @see chav1961.purelib.concurrent JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.2
+ * @last.update 0.0.9
  */
 
 public class XStream implements Closeable {
+	private static final int			CHUNK_SIZE = 1024;
+	
 	private final StringBuilder			sb = new StringBuilder(); 
 	private final Exchanger<ExContent>	ex = new Exchanger<>(); 
-	private final Reader				reader = new ReaderImpl();
-	private final Writer				writer = new WriterImpl();
+	private final RingBuffer<char[]>	ring;
+	private final Reader				reader;
+	private final Writer				writer;
 	private ExContent					contentWrite = new ExContent(), contentRead = new ExContent();
 
 	public XStream() {
-		
+		this.ring = null;
+		this.reader = new ReaderImpl();
+		this.writer = new WriterImpl();
+	}
+
+	/**
+	 * <p>Constructor of the class. Creates stream pair with asynchronous content transfer through {@linkplain RingBuffer}</p>
+	 * @param capacity ring buffer capacity (in chunks). Must be positive
+	 * @param waitStrategy wait strategy for writer and reader. Can't be null
+	 * @throws IllegalArgumentException when capacity is not positive
+	 * @throws NullPointerException when wait strategy is null
+	 * @since 0.0.9
+	 */
+	public XStream(final int capacity, final WaitStrategy waitStrategy) throws IllegalArgumentException, NullPointerException {
+		this.ring = new RingBuffer<>(capacity, ProducerType.SINGLE, waitStrategy);
+		this.reader = new RingReaderImpl();
+		this.writer = new RingWriterImpl();
 	}
 	
 	/**
@@ -78,8 +104,13 @@ public class XStream implements Closeable {
 
 	@Override
 	public void close() throws IOException {
-		reader.close();
-		writer.close();
+		if (ring != null) {
+			writer.close();		// Reader can get the rest of content before end of stream
+		}
+		else {
+			reader.close();
+			writer.close();
+		}
 	}
 
 	private class ReaderImpl extends Reader {
@@ -210,6 +241,126 @@ public class XStream implements Closeable {
 		}
 	}
 	
+	private class RingReaderImpl extends Reader {
+		private char[]		chunk = null;
+		private int			cursor = 0;
+		private boolean		closed = false;
+		
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (cbuf == null) {
+				throw new NullPointerException("Buffer to write can't be null");
+			}
+			else if (off < 0 || off >= cbuf.length) {
+				throw new IllegalArgumentException("Offset ["+off+"] out of range 0.."+(cbuf.length-1));
+			}
+			else if (off+len-1 < 0 || off+len-1 >= cbuf.length) {
+				throw new IllegalArgumentException("Offset + length ["+(off+len-1)+"] out of range 0.."+(cbuf.length-1));
+			}
+			else if (closed) {
+				throw new IllegalStateException("Attempt to read from closed stream");
+			}
+			else {
+				int		total = 0;
+				
+				try{while (total < len) {
+						if (chunk == null || cursor >= chunk.length) {
+							if ((chunk = total == 0 ? ring.take() : ring.poll()) == null) {
+								break;
+							}
+							cursor = 0;
+						}
+						final int	currentLen = Math.min(len - total, chunk.length - cursor);
+						
+						System.arraycopy(chunk, cursor, cbuf, off + total, currentLen);
+						cursor += currentLen;
+						total += currentLen;
+					}
+				} catch (InterruptedException e) {
+					throw new IOException("Exchanger stream was interrupted");
+				}
+				return total == 0 ? -1 : total;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				chunk = null;
+				ring.close();
+			}
+		}
+	}
+	
+	private class RingWriterImpl extends Writer {
+		private boolean		closed = false;
+		
+		@Override
+		public void write(final char[] cbuf, int off, int len) throws IOException {
+			if (cbuf == null) {
+				throw new NullPointerException("Buffer to write can't be null");
+			}
+			else if (off < 0 || off > cbuf.length) {
+				throw new IllegalArgumentException("Offset ["+off+"] out of range 0.."+cbuf.length);
+			}
+			else if (len < 0 || off+len > cbuf.length) {
+				throw new IllegalArgumentException("Offset + length ["+(off+len)+"] out of range 0.."+cbuf.length);
+			}
+			else if (closed) {
+				throw new IllegalStateException("Attempt to write into closed stream");
+			}
+			else {
+				final int	maxIndex = off + len;
+				int			start = off;
+				
+				for (int index = off; index < maxIndex; index++) {
+					if (cbuf[index] == '\n') {
+						sb.append(cbuf, start, index - start + 1);
+						flush();
+						start = index + 1;
+					}
+				}
+				sb.append(cbuf, start, maxIndex - start);
+				if (sb.length() >= CHUNK_SIZE) {
+					flush();
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (closed) {
+				throw new IllegalStateException("Attempt to write into closed stream");
+			}
+			else if (sb.length() > 0) {
+				final char[]	chunk = new char[sb.length()];
+				
+				sb.getChars(0, chunk.length, chunk, 0);
+				sb.setLength(0);
+				try{ring.put(chunk);
+				} catch (InterruptedException e) {
+					closed = true;
+					throw new IOException("Exchanger stream was interrupted");
+				} catch (IllegalStateException e) {
+					closed = true;
+					throw new IOException("Exchanger stream was closed by reader");
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				try{flush();
+				} finally {
+					closed = true;
+					ring.close();
+				}
+			}
+		}
+	}
+	
 	private static class ExContent {
 		char[]	buffer = new char[1024];
 		int		from = 0;
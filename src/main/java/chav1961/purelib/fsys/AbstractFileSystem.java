@@ -10,12 +10,20 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import chav1961.purelib.basic.AndOrTree;
@@ -23,6 +31,7 @@ import chav1961.purelib.basic.CharUtils;
 import chav1961.purelib.basic.URIUtils;
 import chav1961.purelib.basic.Utils;
 import chav1961.purelib.basic.exceptions.EnvironmentException;
+import chav1961.purelib.basic.interfaces.ProgressIndicator;
 import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
 import chav1961.purelib.enumerations.ContinueMode;
 import chav1961.purelib.fsys.interfaces.DataWrapperInterface;
@@ -47,7 +56,7 @@ import chav1961.purelib.fsys.interfaces.FileSystemInterface;
  * @see chav1961.purelib.fsys JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.7
+ * @last.update 0.0.9
  */
 
 public abstract class AbstractFileSystem implements FileSystemInterface {
@@ -350,7 +359,7 @@ public abstract class AbstractFileSystem implements FileSystemInterface {
 			throw new IOException("Entity ["+getPath()+"] is not exists. Append mode available for the existent files only");
 		}
 		appendMode = true;		
-		return null;
+		return this;
 	}
 
 	@Override
@@ -405,6 +414,22 @@ public abstract class AbstractFileSystem implements FileSystemInterface {
 		return this;
 	}
 
+	@Override
+	public FileSystemInterface deleteAll(final int parallelism, final ProgressIndicator progress) throws IOException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism ["+parallelism+"] must be positive");
+		}
+		else if (progress == null) {
+			throw new NullPointerException("Progress indicator can't be null");
+		}
+		else {
+			if (exists()) {
+				ParallelTreeProcessor.delete(this, parallelism, progress);
+			}
+			return this;
+		}
+	}
+
 	@Override
 	public FileSystemInterface mount(final FileSystemInterface another) throws IOException {
 		if (another == null) {
@@ -554,6 +579,45 @@ public abstract class AbstractFileSystem implements FileSystemInterface {
 		return deleteAll();
 	}
 
+	@Override
+	public FileSystemInterface copy(final FileSystemInterface another, final int parallelism, final ProgressIndicator progress) throws IOException {
+		if (another == null) {
+			throw new NullPointerException("Another file system can't be null");
+		}
+		else if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism ["+parallelism+"] must be positive");
+		}
+		else if (progress == null) {
+			throw new NullPointerException("Progress indicator can't be null");
+		}
+		else {
+			if (exists()) {
+				ParallelTreeProcessor.copy(this, another, parallelism, progress);
+			}
+			return this;
+		}
+	}
+
+	@Override
+	public FileSystemInterface move(final FileSystemInterface another, final int parallelism, final ProgressIndicator progress) throws IOException {
+		if (another == null) {
+			throw new NullPointerException("Another file system can't be null");
+		}
+		else if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism ["+parallelism+"] must be positive");
+		}
+		else if (progress == null) {
+			throw new NullPointerException("Progress indicator can't be null");
+		}
+		else {
+			if (exists() && !ParallelTreeProcessor.moveNatively(this, another, progress)) {
+				ParallelTreeProcessor.copy(this, another, parallelism, progress);
+				ParallelTreeProcessor.delete(this, parallelism, ProgressIndicator.DUMMY);
+			}
+			return this;
+		}
+	}
+
 	@Override
 	public FileSystemInterface copy(final OutputStream stream) throws IOException {
 		if (stream == null) {
@@ -618,6 +682,16 @@ public abstract class AbstractFileSystem implements FileSystemInterface {
 		}
 	}
 
+	@Override
+	public SeekableByteChannel channel(final Set<? extends OpenOption> options) throws IOException {
+		if (options == null) {
+			throw new NullPointerException("Options can't be null");
+		}
+		else {
+			return ChunkedByteChannel.open(getDataWrapper(currentPath), options);
+		}
+	}
+
 	@Override
 	public Reader charRead() throws IOException {
 		return charRead(emptyMap,DEFAULT_ENCODING);
@@ -830,6 +904,26 @@ public abstract class AbstractFileSystem implements FileSystemInterface {
 		});
 	}
 	
+	/**
+	 * <p>Get native path for the current path of the file system. Native path is available when the file system is a plain local file system (it's root
+	 * is a <b>file:</b> URI and it doesn't contain any mounts and joins). It is used for native renames in the
+	 * {@linkplain #move(FileSystemInterface, int, ProgressIndicator)} method. Override it to return null if content of your file system must not be accessed directly</p>
+	 * @return native path or null if not available
+	 * @throws IOException on any I/O errors
+	 * @since 0.0.9
+	 */
+	protected Path getNativePath() throws IOException {
+		if (rootPath == null || !"file".equals(rootPath.getScheme()) || mounts.size() > 0 || joins.size() > 0) {
+			return null;
+		}
+		else {
+			try{return Paths.get(getAbsoluteURI());
+			} catch (IllegalArgumentException | FileSystemNotFoundException exc) {
+				return null;
+			}
+		}
+	}
+
 	protected void purgeCurrentDataWrapper() {
 		prevPath = null;
 		prevWrapper = null;
@@ -1045,6 +1139,21 @@ public abstract class AbstractFileSystem implements FileSystemInterface {
 			throw new IOException("Directory/file ["+currentPath+"] not found anywhere");
 		}
 	
+		@Override
+		public SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+			for (DataWrapperInterface item : collection) {
+				if ((Boolean)item.getAttributes().get(ATTR_EXIST)) {
+					return item.getChannel(options);
+				}
+			}
+			if (options.contains(StandardOpenOption.CREATE) || options.contains(StandardOpenOption.CREATE_NEW)) {
+				return collection.get(0).getChannel(options);
+			}
+			else {
+				throw new NoSuchFileException("Directory/file ["+currentPath+"] not found anywhere");
+			}
+		}
+	
 		@Override
 		public Map<String, Object> getAttributes() throws IOException {
 			for (DataWrapperInterface item : collection) {
@@ -0,0 +1,426 @@
+package chav1961.purelib.fsys;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import chav1961.purelib.fsys.interfaces.DataWrapperInterface;
+
+/**
+ * <p>This class emulates {@linkplain SeekableByteChannel} for the file systems which have stream access to the content only. It is used by the
+ * {@linkplain AbstractFileSystem} when the {@linkplain DataWrapperInterface#getChannel(Set)} method doesn't return native channel. Channel works in
+ * one of three modes, depending on open options:</p>
+ * <ul>
+ * <li>read-only mode (no {@linkplain StandardOpenOption#WRITE} and {@linkplain StandardOpenOption#APPEND} options). Content is read from
+ * {@linkplain DataWrapperInterface#getInputStream()} by chunks. Moving position forward skips stream content, moving position backward reopens
+ * the stream. If the wrapper doesn't report content size, content is read until the end of stream</li>
+ * <li>sequential write mode (write-only channel with {@linkplain StandardOpenOption#TRUNCATE_EXISTING} or {@linkplain StandardOpenOption#APPEND}
+ * options, or write-only channel for the new entity). Content is written to {@linkplain DataWrapperInterface#getOutputStream(boolean)} directly,
+ * and position can't be changed</li>
+ * <li>random access mode (all other cases). Content is loaded into memory chunks, and will be written back on closing the channel if it was changed</li>
+ * </ul>
+ * <p>This class is not thread-safe</p>
+ * @see DataWrapperInterface
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class ChunkedByteChannel implements SeekableByteChannel {
+	/**
+	 * <p>Chunk size to read and keep content</p>
+	 */
+	public static final int		CHUNK_SIZE = 64 * 1024;
+
+	private static final long	UNKNOWN_SIZE = -1;
+
+	private static enum ChannelMode {
+		READ_ONLY, SEQUENTIAL_WRITE, RANDOM_ACCESS
+	}
+
+	private final DataWrapperInterface	wrapper;
+	private final ChannelMode			mode;
+	private final boolean				readable;
+	private final boolean				append;
+	private final List<byte[]>			chunks = new ArrayList<>();
+	private boolean						isOpen = true;
+	private boolean						isDirty = false;
+	private long						position = 0;
+	private long						size;
+	private InputStream					is = null;
+	private long						streamPosition = 0;
+	private byte[]						readChunk = null;
+	private long						readChunkStart = 0;
+	private int							readChunkLength = 0;
+	private OutputStream				os = null;
+
+	/**
+	 * <p>Open native channel of the data wrapper or emulate it if native channels are not supported</p>
+	 * @param wrapper data wrapper to access content. Can't be null
+	 * @param options open options (see {@linkplain StandardOpenOption}). Can't be null
+	 * @return channel opened. Can't be null
+	 * @throws NullPointerException when any argument is null
+	 * @throws IOException on any I/O errors
+	 */
+	public static SeekableByteChannel open(final DataWrapperInterface wrapper, final Set<? extends OpenOption> options) throws NullPointerException, IOException {
+		if (wrapper == null) {
+			throw new NullPointerException("Data wrapper can't be null");
+		}
+		else {
+			final SeekableByteChannel	nativeChannel = wrapper.getChannel(options);
+
+			return nativeChannel != null ? nativeChannel : new ChunkedByteChannel(wrapper, options);
+		}
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param wrapper data wrapper to access content. Can't be null
+	 * @param options open options (see {@linkplain StandardOpenOption}). Can't be null
+	 * @throws NullPointerException when any argument is null
+	 * @throws IllegalArgumentException when options are incompatible
+	 * @throws NoSuchFileException when entity doesn't exist and creation was not requested
+	 * @throws FileAlreadyExistsException when entity exists, but {@linkplain StandardOpenOption#CREATE_NEW} option was typed
+	 * @throws IOException on any I/O errors
+	 */
+	public ChunkedByteChannel(final DataWrapperInterface wrapper, final Set<? extends OpenOption> options) throws NullPointerException, IllegalArgumentException, IOException {
+		if (wrapper == null) {
+			throw new NullPointerException("Data wrapper can't be null");
+		}
+		else if (options == null) {
+			throw new NullPointerException("Options can't be null");
+		}
+		else {
+			final boolean	write = options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND);
+			final boolean	truncate = write && options.contains(StandardOpenOption.TRUNCATE_EXISTING);
+
+			this.wrapper = wrapper;
+			this.append = options.contains(StandardOpenOption.APPEND);
+			this.readable = options.contains(StandardOpenOption.READ) || !write;
+
+			if (append && options.contains(StandardOpenOption.READ)) {
+				throw new IllegalArgumentException("READ and APPEND options can't be used together");
+			}
+			else if (append && options.contains(StandardOpenOption.TRUNCATE_EXISTING)) {
+				throw new IllegalArgumentException("APPEND and TRUNCATE_EXISTING options can't be used together");
+			}
+			else {
+				final Map<String, Object>	attrs = wrapper.getAttributes();
+				final boolean				exists = Boolean.TRUE.equals(attrs.get(DataWrapperInterface.ATTR_EXIST));
+				final boolean				created;
+
+				if (exists && Boolean.TRUE.equals(attrs.get(DataWrapperInterface.ATTR_DIR))) {
+					throw new IOException("Entity ["+attrs.get(DataWrapperInterface.ATTR_NAME)+"] is a directory");
+				}
+				else if (exists && write && options.contains(StandardOpenOption.CREATE_NEW)) {
+					throw new FileAlreadyExistsException(String.valueOf(attrs.get(DataWrapperInterface.ATTR_NAME)));
+				}
+				else if (!exists) {
+					if (write && (options.contains(StandardOpenOption.CREATE) || options.contains(StandardOpenOption.CREATE_NEW))) {
+						wrapper.create();
+						created = true;
+					}
+					else {
+						throw new NoSuchFileException(String.valueOf(attrs.get(DataWrapperInterface.ATTR_NAME)));
+					}
+				}
+				else {
+					created = false;
+				}
+
+				if (!write) {
+					this.mode = ChannelMode.READ_ONLY;
+					this.size = extractSize(attrs);
+				}
+				else if (!readable && (truncate || append || created)) {
+					this.mode = ChannelMode.SEQUENTIAL_WRITE;
+					this.size = truncate || created ? 0 : extractSize(attrs);
+					if (size == UNKNOWN_SIZE) {
+						size = countSize();
+					}
+					this.position = size;
+					this.os = wrapper.getOutputStream(append);
+				}
+				else {
+					this.mode = ChannelMode.RANDOM_ACCESS;
+					this.size = 0;
+					if (truncate) {
+						isDirty = true;
+					}
+					else if (!created) {
+						load();
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		return isOpen;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (isOpen) {
+			isOpen = false;
+			try{if (is != null) {
+					is.close();
+				}
+				if (os != null) {
+					os.close();
+				}
+				else if (isDirty) {
+					try(final OutputStream	out = wrapper.getOutputStream(false)) {
+						for (int index = 0; index < chunks.size(); index++) {
+							out.write(chunks.get(index), 0, (int)Math.min(CHUNK_SIZE, size - (long)index * CHUNK_SIZE));
+						}
+					}
+				}
+			} finally {
+				chunks.clear();
+				readChunk = null;
+			}
+		}
+	}
+
+	@Override
+	public int read(final ByteBuffer dst) throws IOException {
+		ensureOpen();
+		if (!readable) {
+			throw new NonReadableChannelException();
+		}
+		else if (size != UNKNOWN_SIZE && position >= size) {
+			return -1;
+		}
+		else if (mode == ChannelMode.READ_ONLY) {
+			if (position < readChunkStart || position >= readChunkStart + readChunkLength) {
+				if (!loadReadChunk()) {
+					if (size == UNKNOWN_SIZE) {
+						size = streamPosition;	// End of stream was reached, so size is known now
+					}
+					return -1;
+				}
+			}
+			final int	offset = (int)(position - readChunkStart), length = Math.min(dst.remaining(), readChunkLength - offset);
+
+			dst.put(readChunk, offset, length);
+			position += length;
+			return length;
+		}
+		else {
+			final int	chunk = (int)(position / CHUNK_SIZE), offset = (int)(position % CHUNK_SIZE);
+			final int	length = (int)Math.min(Math.min(dst.remaining(), CHUNK_SIZE - offset), size - position);
+
+			dst.put(chunks.get(chunk), offset, length);
+			position += length;
+			return length;
+		}
+	}
+
+	@Override
+	public int write(final ByteBuffer src) throws IOException {
+		ensureOpen();
+		if (mode == ChannelMode.READ_ONLY) {
+			throw new NonWritableChannelException();
+		}
+		else {
+			final int	total = src.remaining();
+
+			if (mode == ChannelMode.SEQUENTIAL_WRITE) {
+				if (src.hasArray()) {
+					os.write(src.array(), src.arrayOffset() + src.position(), total);
+					src.position(src.limit());
+				}
+				else {
+					final byte[]	temp = new byte[Math.min(total, CHUNK_SIZE)];
+
+					while (src.hasRemaining()) {
+						final int	length = Math.min(temp.length, src.remaining());
+
+						src.get(temp, 0, length);
+						os.write(temp, 0, length);
+					}
+				}
+				position += total;
+			}
+			else {
+				if (append) {
+					position = size;
+				}
+				ensureCapacity(position + total);
+				while (src.hasRemaining()) {
+					final int	chunk = (int)(position / CHUNK_SIZE), offset = (int)(position % CHUNK_SIZE);
+					final int	length = Math.min(src.remaining(), CHUNK_SIZE - offset);
+
+					src.get(chunks.get(chunk), offset, length);
+					position += length;
+				}
+				isDirty = true;
+			}
+			size = Math.max(size, position);
+			return total;
+		}
+	}
+
+	@Override
+	public long position() throws IOException {
+		ensureOpen();
+		return position;
+	}
+
+	@Override
+	public SeekableByteChannel position(final long newPosition) throws IOException {
+		ensureOpen();
+		if (newPosition < 0) {
+			throw new IllegalArgumentException("New position ["+newPosition+"] can't be negative");
+		}
+		else if (mode == ChannelMode.SEQUENTIAL_WRITE && newPosition != position) {
+			throw new IOException("Sequential write channel doesn't support position changing. Open channel with READ option to get random access");
+		}
+		else {
+			position = newPosition;
+			return this;
+		}
+	}
+
+	@Override
+	public long size() throws IOException {
+		ensureOpen();
+		if (size == UNKNOWN_SIZE) {
+			size = countSize();
+		}
+		return size;
+	}
+
+	@Override
+	public SeekableByteChannel truncate(final long newSize) throws IOException {
+		ensureOpen();
+		if (newSize < 0) {
+			throw new IllegalArgumentException("New size ["+newSize+"] can't be negative");
+		}
+		else if (mode == ChannelMode.READ_ONLY) {
+			throw new NonWritableChannelException();
+		}
+		else if (mode == ChannelMode.SEQUENTIAL_WRITE && newSize < size) {
+			throw new IOException("Sequential write channel doesn't support truncation. Open channel with READ option to get random access");
+		}
+		else {
+			if (newSize < size) {
+				while ((long)chunks.size() * CHUNK_SIZE - newSize >= CHUNK_SIZE) {
+					chunks.remove(chunks.size() - 1);
+				}
+				size = newSize;
+				isDirty = true;
+			}
+			position = Math.min(position, newSize);
+			return this;
+		}
+	}
+
+	private void ensureOpen() throws ClosedChannelException {
+		if (!isOpen) {
+			throw new ClosedChannelException();
+		}
+	}
+
+	private void ensureCapacity(final long newSize) {
+		while ((long)chunks.size() * CHUNK_SIZE < newSize) {
+			chunks.add(new byte[CHUNK_SIZE]);
+		}
+		if (size < position) {	// Gap after the end of content must be filled with zeroes
+			for (long from = size; from < position; ) {
+				final int	chunk = (int)(from / CHUNK_SIZE), offset = (int)(from % CHUNK_SIZE);
+				final int	length = (int)Math.min(CHUNK_SIZE - offset, position - from);
+
+				Arrays.fill(chunks.get(chunk), offset, offset + length, (byte)0);
+				from += length;
+			}
+		}
+	}
+
+	private void load() throws IOException {
+		try(final InputStream	in = wrapper.getInputStream()) {
+			for (;;) {
+				final byte[]	chunk = new byte[CHUNK_SIZE];
+				final int		length = in.readNBytes(chunk, 0, CHUNK_SIZE);
+
+				if (length > 0) {
+					chunks.add(chunk);
+					size += length;
+				}
+				if (length < CHUNK_SIZE) {
+					break;
+				}
+			}
+		}
+	}
+
+	private boolean loadReadChunk() throws IOException {
+		if (is == null || position < streamPosition) {
+			if (is != null) {
+				is.close();
+			}
+			is = wrapper.getInputStream();
+			streamPosition = 0;
+		}
+		while (streamPosition < position) {
+			final long	skipped = is.skip(position - streamPosition);
+
+			if (skipped <= 0) {
+				if (is.read() < 0) {
+					return false;
+				}
+				streamPosition++;
+			}
+			else {
+				streamPosition += skipped;
+			}
+		}
+		if (readChunk == null) {
+			readChunk = new byte[CHUNK_SIZE];
+		}
+		readChunkStart = streamPosition;
+		readChunkLength = is.readNBytes(readChunk, 0, CHUNK_SIZE);
+		streamPosition += readChunkLength;
+		return readChunkLength > 0;
+	}
+
+	private long countSize() throws IOException {
+		try(final InputStream	in = wrapper.getInputStream()) {
+			long	count = 0;
+
+			for (;;) {
+				final long	skipped = in.skip(CHUNK_SIZE);
+
+				if (skipped > 0) {
+					count += skipped;
+				}
+				else if (in.read() >= 0) {
+					count++;
+				}
+				else {
+					return count;
+				}
+			}
+		}
+	}
+
+	private static long extractSize(final Map<String, Object> attrs) {
+		final Object	value = attrs.get(DataWrapperInterface.ATTR_SIZE);
+
+		return value instanceof Number ? ((Number)value).longValue() : UNKNOWN_SIZE;
+	}
+}
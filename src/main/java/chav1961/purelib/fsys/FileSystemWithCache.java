@@ -0,0 +1,649 @@
+package chav1961.purelib.fsys;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.exceptions.EnvironmentException;
+import chav1961.purelib.fsys.interfaces.DataWrapperInterface;
+import chav1961.purelib.fsys.interfaces.FileSystemInterface;
+
+/**
+ * <p>This class is a read-through caching decorator for any {@linkplain AbstractFileSystem} implementation. It caches directory listings, attributes
+ * and file bodies of the nested file system, so repeated {@linkplain #exists()}, {@linkplain #list()}, {@linkplain #getAttributes()} and {@linkplain #read()}
+ * calls don't reach the nested file system until cache entry expired. It's especially useful for remote file systems (see
+ * {@linkplain chav1961.purelib.fsys.internal.FileSystemOnRMI}, {@linkplain chav1961.purelib.fsys.internal.FileSystemOnFTP}). Typical usage is:</p>
+ * <code>
+ * try(final FileSystemInterface fs = new FileSystemOnFile(URI.create("file:./"))) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;fs.open("/config").mount(new FileSystemWithCache(remoteFs, 60_000, 1024, 16 * 1024 * 1024));<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;...<br>
+ * }
+ * </code>
+ * <p>Cache has two tiers:</p>
+ * <ul>
+ * <li>memory tier keeps file bodies in the memory. It's size is bounded by <b>maxMemorySize</b> parameter. Files greater than a quarter of memory tier size
+ * are never cached</li>
+ * <li>optional disk tier keeps file bodies evicted from the memory tier in the temporary files of the given directory. It's size is bounded by
+ * <b>maxDiskSize</b> parameter. Files are placed into the temporary subdirectory, that is removed on closing the file system or clearing the cache</li>
+ * </ul>
+ * <p>Both tiers and total number of cached entities use LRU eviction policy. Every cached item expires after <b>timeToLive</b> milliseconds. Any modification
+ * made through this file system (creation, writing, renaming, deletion) immediately invalidates appropriative cache entries. Modifications made directly in the nested
+ * file system are visible after expiration or after explicit {@linkplain #invalidate()} or {@linkplain #invalidateAll()} call only. Mounts and joins of the
+ * nested file system are not visible through the cache, so mount this class instead.</p>
+ * <p>This class is not thread-safe, but cache content is shared between all it's clones, and the clones can be used in different threads.</p>
+ * @see chav1961.purelib.fsys JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class FileSystemWithCache extends AbstractFileSystem {
+	private final AbstractFileSystem	nested;
+	private final CacheStore			store;
+	private final boolean				cloned;
+
+	/**
+	 * <p>Constructor of the class with memory tier only</p>
+	 * @param nested nested file system to cache. Can't be null
+	 * @param timeToLive time to live for every cache item (in milliseconds). Must be positive
+	 * @param maxEntries max number of cached entities. Must be positive
+	 * @param maxMemorySize max size of file bodies in the memory tier (in bytes). Can't be negative. Zero disables file bodies caching
+	 * @throws NullPointerException if nested file system is null
+	 * @throws IllegalArgumentException if any numeric parameters are out of range
+	 */
+	public FileSystemWithCache(final AbstractFileSystem nested, final long timeToLive, final int maxEntries, final long maxMemorySize) throws NullPointerException, IllegalArgumentException {
+		this(nested, timeToLive, maxEntries, maxMemorySize, null, 0);
+	}
+
+	/**
+	 * <p>Constructor of the class with memory and disk tiers</p>
+	 * @param nested nested file system to cache. Can't be null
+	 * @param timeToLive time to live for every cache item (in milliseconds). Must be positive
+	 * @param maxEntries max number of cached entities. Must be positive
+	 * @param maxMemorySize max size of file bodies in the memory tier (in bytes). Can't be negative. Zero disables file bodies caching
+	 * @param diskCacheDir directory to keep disk tier in. Can be null to disable disk tier, otherwise must be existent directory with write access
+	 * @param maxDiskSize max size of file bodies in the disk tier (in bytes). Can't be negative. Ignored when directory is null
+	 * @throws NullPointerException if nested file system is null
+	 * @throws IllegalArgumentException if any numeric parameters are out of range or disk cache directory is not accessible
+	 */
+	public FileSystemWithCache(final AbstractFileSystem nested, final long timeToLive, final int maxEntries, final long maxMemorySize, final File diskCacheDir, final long maxDiskSize) throws NullPointerException, IllegalArgumentException {
+		super(extractRoot(nested));
+		if (timeToLive <= 0) {
+			throw new IllegalArgumentException("Time to live ["+timeToLive+"] must be positive");
+		}
+		else if (maxEntries <= 0) {
+			throw new IllegalArgumentException("Max entries ["+maxEntries+"] must be positive");
+		}
+		else if (maxMemorySize < 0) {
+			throw new IllegalArgumentException("Max memory size ["+maxMemorySize+"] can't be negative");
+		}
+		else if (diskCacheDir != null && (!diskCacheDir.isDirectory() || !diskCacheDir.canWrite())) {
+			throw new IllegalArgumentException("Disk cache directory ["+diskCacheDir.getAbsolutePath()+"] is not exists, not a directory or is not writable");
+		}
+		else if (diskCacheDir != null && maxDiskSize < 0) {
+			throw new IllegalArgumentException("Max disk size ["+maxDiskSize+"] can't be negative");
+		}
+		else {
+			this.nested = nested;
+			this.store = new CacheStore(timeToLive, maxEntries, maxMemorySize, diskCacheDir, diskCacheDir != null ? maxDiskSize : 0);
+			this.cloned = false;
+		}
+	}
+
+	protected FileSystemWithCache(final FileSystemWithCache another) {
+		super(another);
+		this.nested = another.nested;
+		this.store = another.store;
+		this.cloned = true;
+	}
+
+	/**
+	 * <p>Close the file system. Closing the original (not cloned) instance also clears the cache and closes nested file system</p>
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!cloned) {
+			super.close();
+			store.clear();
+			nested.close();
+		}
+	}
+
+	@Override
+	public boolean canServe(final URI uriSchema) {
+		return nested.canServe(uriSchema);
+	}
+
+	@Override
+	public FileSystemInterface newInstance(final URI uriSchema) throws EnvironmentException {
+		final FileSystemInterface	fs = nested.newInstance(uriSchema);
+
+		if (fs instanceof AbstractFileSystem) {
+			return new FileSystemWithCache((AbstractFileSystem)fs, store.timeToLive, store.maxEntries, store.maxMemorySize, store.diskCacheDir, store.maxDiskSize);
+		}
+		else {
+			throw new EnvironmentException("Nested file system ["+nested.getClass().getName()+"] returned unsupported instance for URI ["+uriSchema+"]");
+		}
+	}
+
+	@Override
+	public FileSystemInterface clone() {
+		return new FileSystemWithCache(this);
+	}
+
+	@Override
+	public DataWrapperInterface createDataWrapper(final URI actualPath) throws IOException {
+		final String	path = actualPath.toString();
+		
+		return new CachedDataWrapper(path.isEmpty() ? "/" : path, nested.createDataWrapper(actualPath));
+	}
+
+	@Override
+	protected Path getNativePath() throws IOException {
+		return null;	// Content must not be changed bypassing the cache
+	}
+
+	/**
+	 * <p>Invalidate cache content for the current path and all it's descendants</p>
+	 * @return self
+	 * @throws IOException on any I/O errors
+	 */
+	public FileSystemWithCache invalidate() throws IOException {
+		store.invalidate(getPath(), true);
+		purgeCurrentDataWrapper();
+		return this;
+	}
+
+	/**
+	 * <p>Invalidate all the cache content</p>
+	 * @return self
+	 */
+	public FileSystemWithCache invalidateAll() {
+		store.clear();
+		purgeCurrentDataWrapper();
+		return this;
+	}
+
+	/**
+	 * <p>Get number of requests served from the cache</p>
+	 * @return number of requests served
+	 */
+	public long getHitCount() {
+		synchronized (store) {
+			return store.hits;
+		}
+	}
+
+	/**
+	 * <p>Get number of requests passed to nested file system</p>
+	 * @return number of requests passed
+	 */
+	public long getMissCount() {
+		synchronized (store) {
+			return store.misses;
+		}
+	}
+
+	private static URI extractRoot(final AbstractFileSystem nested) {
+		if (nested == null) {
+			throw new NullPointerException("Nested file system can't be null");
+		}
+		else {
+			return nested.rootPath;
+		}
+	}
+
+	private static boolean isModification(final Set<? extends OpenOption> options) {
+		return options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND)
+				|| options.contains(StandardOpenOption.CREATE) || options.contains(StandardOpenOption.CREATE_NEW)
+				|| options.contains(StandardOpenOption.TRUNCATE_EXISTING) || options.contains(StandardOpenOption.DELETE_ON_CLOSE);
+	}
+
+	private class CachedDataWrapper implements DataWrapperInterface {
+		private final String				path;
+		private final DataWrapperInterface	wrapper;
+
+		private CachedDataWrapper(final String path, final DataWrapperInterface wrapper) {
+			this.path = path;
+			this.wrapper = wrapper;
+		}
+
+		@Override
+		public URI[] list(final Pattern pattern) throws IOException {
+			final URI[]	cached = store.getListing(path, pattern.pattern());
+
+			if (cached != null) {
+				return cached.clone();
+			}
+			else {
+				final URI[]	result = wrapper.list(pattern);
+
+				store.putListing(path, pattern.pattern(), result.clone());
+				return result;
+			}
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() throws IOException {
+			final Map<String, Object>	cached = store.getAttributes(path);
+
+			if (cached != null) {
+				return new HashMap<>(cached);
+			}
+			else {
+				final Map<String, Object>	result = wrapper.getAttributes();
+
+				store.putAttributes(path, new HashMap<>(result));
+				return result;
+			}
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			final byte[]	cached = store.getContent(path);
+
+			if (cached != null) {
+				return new ByteArrayInputStream(cached);
+			}
+			else if (isCacheable()) {
+				final byte[]	content;
+
+				try(final InputStream	is = wrapper.getInputStream()) {
+					content = is.readAllBytes();
+				}
+				store.putContent(path, content);
+				return new ByteArrayInputStream(content);
+			}
+			else {
+				return wrapper.getInputStream();
+			}
+		}
+
+		@Override
+		public OutputStream getOutputStream(final boolean append) throws IOException {
+			store.invalidate(path, false);
+			return new FilterOutputStream(wrapper.getOutputStream(append)) {
+				@Override
+				public void write(final byte[] b, final int off, final int len) throws IOException {
+					out.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					try{super.close();
+					} finally {
+						store.invalidate(path, false);
+					}
+				}
+			};
+		}
+
+		@Override
+		public SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+			if (options == null) {
+				throw new NullPointerException("Options can't be null");
+			}
+			else if (isModification(options)) {
+				store.invalidate(path, false);
+				return new InvalidatingChannel(ChunkedByteChannel.open(wrapper, options), path);
+			}
+			else if (store.getContent(path) != null || isCacheable()) {
+				return new ChunkedByteChannel(this, options);
+			}
+			else {
+				return wrapper.getChannel(options);
+			}
+		}
+
+		@Override
+		public void mkDir() throws IOException {
+			try{wrapper.mkDir();
+			} finally {
+				store.invalidate(path, false);
+			}
+		}
+
+		@Override
+		public void create() throws IOException {
+			try{wrapper.create();
+			} finally {
+				store.invalidate(path, false);
+			}
+		}
+
+		@Override
+		public void setName(final String name) throws IOException {
+			try{wrapper.setName(name);
+			} finally {
+				store.invalidate(path, true);
+				store.invalidate(path.substring(0, path.lastIndexOf('/') + 1) + name, true);
+			}
+		}
+
+		@Override
+		public void delete() throws IOException {
+			try{wrapper.delete();
+			} finally {
+				store.invalidate(path, true);
+			}
+		}
+
+		@Override
+		public void linkAttributes(final Map<String, Object> attributes) throws IOException {
+			wrapper.linkAttributes(attributes);
+		}
+
+		@Override
+		public boolean tryLock(final String path, final boolean sharedMode) throws IOException {
+			return wrapper.tryLock(path, sharedMode);
+		}
+
+		@Override
+		public void lock(final String path, final boolean sharedMode) throws IOException {
+			wrapper.lock(path, sharedMode);
+		}
+
+		@Override
+		public void unlock(final String path, final boolean sharedMode) throws IOException {
+			wrapper.unlock(path, sharedMode);
+		}
+
+		private boolean isCacheable() throws IOException {
+			final Map<String, Object>	attr = getAttributes();
+
+			return Boolean.TRUE.equals(attr.get(ATTR_EXIST)) && !Boolean.TRUE.equals(attr.get(ATTR_DIR))
+					&& attr.get(ATTR_SIZE) instanceof Long && (Long)attr.get(ATTR_SIZE) <= store.maxFileSize;
+		}
+	}
+
+	private class InvalidatingChannel implements SeekableByteChannel {
+		private final SeekableByteChannel	channel;
+		private final String				path;
+
+		private InvalidatingChannel(final SeekableByteChannel channel, final String path) {
+			this.channel = channel;
+			this.path = path;
+		}
+
+		@Override public boolean isOpen() {return channel.isOpen();}
+		@Override public int read(final ByteBuffer dst) throws IOException {return channel.read(dst);}
+		@Override public int write(final ByteBuffer src) throws IOException {return channel.write(src);}
+		@Override public long position() throws IOException {return channel.position();}
+		@Override public long size() throws IOException {return channel.size();}
+
+		@Override
+		public SeekableByteChannel position(final long newPosition) throws IOException {
+			channel.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public SeekableByteChannel truncate(final long size) throws IOException {
+			channel.truncate(size);
+			return this;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try{channel.close();
+			} finally {
+				store.invalidate(path, false);
+			}
+		}
+	}
+
+	private static class CacheEntry {
+		long					attributesExpired;
+		Map<String, Object>		attributes;
+		long					listingsExpired;
+		Map<String, URI[]>		listings;
+		long					contentExpired;
+		byte[]					content;
+		File					diskContent;
+		long					diskSize;
+	}
+
+	private static class CacheStore {
+		private static final int	MAX_FILE_FRACTION = 4;
+
+		private final long			timeToLive;
+		private final int			maxEntries;
+		private final long			maxMemorySize;
+		private final long			maxFileSize;
+		private final File			diskCacheDir;
+		private final long			maxDiskSize;
+		private final LinkedHashMap<String, CacheEntry>	entries = new LinkedHashMap<>(16, 0.75f, true);
+		private File				spillDir = null;
+		private long				memoryUsed = 0, diskUsed = 0;
+		private long				hits = 0, misses = 0;
+
+		private CacheStore(final long timeToLive, final int maxEntries, final long maxMemorySize, final File diskCacheDir, final long maxDiskSize) {
+			this.timeToLive = timeToLive;
+			this.maxEntries = maxEntries;
+			this.maxMemorySize = maxMemorySize;
+			this.maxFileSize = maxMemorySize / MAX_FILE_FRACTION;
+			this.diskCacheDir = diskCacheDir;
+			this.maxDiskSize = maxDiskSize;
+		}
+
+		synchronized Map<String, Object> getAttributes(final String path) {
+			final CacheEntry	entry = entries.get(path);
+
+			if (entry != null && entry.attributes != null && entry.attributesExpired > System.currentTimeMillis()) {
+				hits++;
+				return entry.attributes;
+			}
+			else {
+				misses++;
+				return null;
+			}
+		}
+
+		synchronized void putAttributes(final String path, final Map<String, Object> attributes) {
+			final CacheEntry	entry = getOrCreate(path);
+
+			entry.attributes = attributes;
+			entry.attributesExpired = System.currentTimeMillis() + timeToLive;
+		}
+
+		synchronized URI[] getListing(final String path, final String pattern) {
+			final CacheEntry	entry = entries.get(path);
+
+			if (entry != null && entry.listings != null && entry.listingsExpired > System.currentTimeMillis() && entry.listings.containsKey(pattern)) {
+				hits++;
+				return entry.listings.get(pattern);
+			}
+			else {
+				misses++;
+				return null;
+			}
+		}
+
+		synchronized void putListing(final String path, final String pattern, final URI[] listing) {
+			final CacheEntry	entry = getOrCreate(path);
+
+			if (entry.listings == null || entry.listingsExpired <= System.currentTimeMillis()) {
+				entry.listings = new HashMap<>();
+				entry.listingsExpired = System.currentTimeMillis() + timeToLive;
+			}
+			entry.listings.put(pattern, listing);
+		}
+
+		synchronized byte[] getContent(final String path) throws IOException {
+			final CacheEntry	entry = entries.get(path);
+
+			if (entry != null && (entry.content != null || entry.diskContent != null)) {
+				if (entry.contentExpired <= System.currentTimeMillis()) {
+					dropContent(entry);
+				}
+				else if (entry.content != null) {
+					hits++;
+					return entry.content;
+				}
+				else {
+					final byte[]	content = Files.readAllBytes(entry.diskContent.toPath());
+
+					dropDiskContent(entry);
+					entry.content = content;
+					memoryUsed += content.length;
+					evict();
+					hits++;
+					return content;
+				}
+			}
+			misses++;
+			return null;
+		}
+
+		synchronized void putContent(final String path, final byte[] content) throws IOException {
+			final CacheEntry	entry = getOrCreate(path);
+
+			dropContent(entry);
+			entry.content = content;
+			entry.contentExpired = System.currentTimeMillis() + timeToLive;
+			memoryUsed += content.length;
+			evict();
+		}
+
+		synchronized void invalidate(final String path, final boolean withDescendants) {
+			final String	parent = path.lastIndexOf('/') > 0 ? path.substring(0, path.lastIndexOf('/')) : "/";
+			final String	prefix = path.endsWith("/") ? path : path + '/';
+
+			remove(path);
+			remove(parent);
+			if (withDescendants) {
+				final List<String>	toRemove = new ArrayList<>();
+
+				for (String key : entries.keySet()) {
+					if (key.startsWith(prefix)) {
+						toRemove.add(key);
+					}
+				}
+				for (String key : toRemove) {
+					remove(key);
+				}
+			}
+		}
+
+		synchronized void clear() {
+			for (CacheEntry entry : entries.values()) {
+				dropContent(entry);
+			}
+			entries.clear();
+			if (spillDir != null) {
+				Utils.deleteDir(spillDir);		// Remove the files failed to delete earlier
+				spillDir = null;
+			}
+		}
+
+		private CacheEntry getOrCreate(final String path) {
+			CacheEntry	entry = entries.get(path);
+
+			if (entry == null) {
+				entries.put(path, entry = new CacheEntry());
+				evict();
+			}
+			return entry;
+		}
+
+		private void remove(final String path) {
+			final CacheEntry	entry = entries.remove(path);
+
+			if (entry != null) {
+				dropContent(entry);
+			}
+		}
+
+		private void dropContent(final CacheEntry entry) {
+			if (entry.content != null) {
+				memoryUsed -= entry.content.length;
+				entry.content = null;
+			}
+			dropDiskContent(entry);
+		}
+
+		private void dropDiskContent(final CacheEntry entry) {
+			if (entry.diskContent != null) {
+				diskUsed -= entry.diskSize;
+				entry.diskContent.delete();
+				entry.diskContent = null;
+				entry.diskSize = 0;
+			}
+		}
+
+		private void evict() {
+			if (entries.size() > maxEntries) {
+				final Iterator<CacheEntry>	it = entries.values().iterator();
+
+				while (entries.size() > maxEntries && it.hasNext()) {
+					dropContent(it.next());
+					it.remove();
+				}
+			}
+			if (memoryUsed > maxMemorySize) {
+				for (CacheEntry entry : entries.values()) {
+					if (memoryUsed <= maxMemorySize) {
+						break;
+					}
+					else if (entry.content != null) {
+						if (diskCacheDir != null && entry.content.length <= maxDiskSize) {
+							spill(entry);
+						}
+						else {
+							memoryUsed -= entry.content.length;
+							entry.content = null;
+						}
+					}
+				}
+			}
+			if (diskUsed > maxDiskSize) {
+				for (CacheEntry entry : entries.values()) {
+					if (diskUsed <= maxDiskSize) {
+						break;
+					}
+					else {
+						dropDiskContent(entry);
+					}
+				}
+			}
+		}
+
+		private void spill(final CacheEntry entry) {
+			File	temp = null;
+
+			try{if (spillDir == null) {
+					spillDir = Files.createTempDirectory(diskCacheDir.toPath(), "fsCache").toFile();
+				}
+				temp = File.createTempFile("fsCache", ".bin", spillDir);
+				Files.write(temp.toPath(), entry.content);
+				entry.diskContent = temp;
+				entry.diskSize = entry.content.length;
+				diskUsed += entry.diskSize;
+			} catch (IOException exc) {
+				// Disk tier is a best-effort storage, so content will be simply dropped
+				if (temp != null) {
+					temp.delete();
+				}
+			}
+			memoryUsed -= entry.content.length;
+			entry.content = null;
+		}
+	}
+}
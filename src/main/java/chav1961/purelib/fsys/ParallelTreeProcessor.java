@@ -0,0 +1,337 @@
+package chav1961.purelib.fsys;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.interfaces.ProgressIndicator;
+import chav1961.purelib.fsys.interfaces.FileSystemInterface;
+
+/**
+ * <p>This class is an engine for parallel tree operations in the {@linkplain AbstractFileSystem}. Every operation scans the tree in the calling thread,
+ * then processes all the files with a bounded pool of workers. Every worker uses it's own clones of the file systems, because file system cursor is not a
+ * reentrant resource. Calling thread is always one of the workers.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+class ParallelTreeProcessor {
+	static final String			CAPTION_COPY = "fsys.copy";
+	static final String			CAPTION_MOVE = "fsys.move";
+	static final String			CAPTION_DELETE = "fsys.delete";
+
+	private static final Set<StandardOpenOption>	READ_OPTIONS = EnumSet.of(StandardOpenOption.READ);
+	private static final Set<StandardOpenOption>	WRITE_OPTIONS = EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+	private static final long						TRANSFER_CHUNK = 8 * 1024 * 1024;
+	private static final AtomicInteger				WORKER_NUMBER = new AtomicInteger();
+
+	@FunctionalInterface
+	private interface WorkerFactory {
+		Worker create() throws IOException;
+	}
+
+	private static abstract class Worker implements Closeable {
+		abstract void process(String item) throws IOException;
+	}
+
+	/**
+	 * <p>Copy current content of the source file system to the target one</p>
+	 * @param source source file system. Current path must exist
+	 * @param target target file system
+	 * @param parallelism number of concurrent workers
+	 * @param progress progress indicator to report copied bytes to
+	 * @throws IOException on any I/O errors
+	 */
+	static void copy(final AbstractFileSystem source, final FileSystemInterface target, final int parallelism, final ProgressIndicator progress) throws IOException {
+		final Tree			tree = scan(source, true);
+		final String		targetBase = target.getPath();
+		final Progress		counter = new Progress(progress);
+		final AtomicBoolean	useChannels = new AtomicBoolean(true);
+
+		for (String dir : tree.dirs) {
+			try(final FileSystemInterface	fsi = target.clone().open(join(targetBase, dir))) {
+				fsi.mkDir();
+			}
+		}
+		progress.start(CAPTION_COPY, tree.totalSize);
+		try{run(parallelism, tree.files, ()->new Worker() {
+				final FileSystemInterface	from = source.clone(), to = target.clone();
+
+				@Override
+				void process(final String item) throws IOException {
+					from.open(join(tree.base, item));
+					to.open(join(targetBase, item));
+					copyFile(from, to, counter, useChannels);
+				}
+
+				@Override
+				public void close() throws IOException {
+					from.close();
+					to.close();
+				}
+			});
+		} finally {
+			progress.end();
+		}
+	}
+
+	/**
+	 * <p>Delete current content of the file system</p>
+	 * @param source file system to delete content in. Current path must exist
+	 * @param parallelism number of concurrent workers
+	 * @param progress progress indicator to report number of deleted files to
+	 * @throws IOException on any I/O errors
+	 */
+	static void delete(final AbstractFileSystem source, final int parallelism, final ProgressIndicator progress) throws IOException {
+		final Tree		tree = scan(source, false);
+		final Progress	counter = new Progress(progress);
+
+		progress.start(CAPTION_DELETE, tree.files.size());
+		try{run(parallelism, tree.files, ()->new Worker() {
+				final FileSystemInterface	fsi = source.clone();
+
+				@Override
+				void process(final String item) throws IOException {
+					fsi.open(join(tree.base, item)).delete();
+					counter.add(1);
+				}
+
+				@Override
+				public void close() throws IOException {
+					fsi.close();
+				}
+			});
+
+			try(final FileSystemInterface	fsi = source.clone()) {
+				for (int index = tree.dirs.size() - 1; index >= 0; index--) {
+					fsi.open(join(tree.base, tree.dirs.get(index))).delete();
+				}
+			}
+		} finally {
+			progress.end();
+		}
+		if (tree.directory) {
+			source.delete();
+		}
+	}
+
+	/**
+	 * <p>Move current content of the source file system to the target one with native rename</p>
+	 * @param source source file system. Current path must exist
+	 * @param target target file system
+	 * @param progress progress indicator to report to
+	 * @return true if content was moved, false if native rename is not available or target already contains any of the moved names and content need be copied
+	 * @throws IOException on any I/O errors
+	 */
+	static boolean moveNatively(final AbstractFileSystem source, final FileSystemInterface target, final ProgressIndicator progress) throws IOException {
+		if (!(target instanceof AbstractFileSystem)) {
+			return false;
+		}
+		else {
+			final Path	from = source.getNativePath(), to = ((AbstractFileSystem)target).getNativePath();
+
+			if (from == null || to == null || !Files.exists(from) || !Files.isDirectory(to) || !Files.getFileStore(from).equals(Files.getFileStore(to))) {
+				return false;
+			}
+			else {
+				final boolean		directory = Files.isDirectory(from);
+				final List<Path>	children = new ArrayList<>();
+
+				if (directory) {
+					try(final Stream<Path>	stream = Files.list(from)) {
+						stream.forEach(children::add);
+					}
+				}
+				else {
+					children.add(from);
+				}
+				for (Path item : children) {	// Existent target content is never replaced natively, the copying fallback will overwrite it
+					if (Files.exists(to.resolve(item.getFileName().toString()))) {
+						return false;
+					}
+				}
+				progress.start(CAPTION_MOVE, children.size());
+				try{for (int index = 0; index < children.size(); index++) {
+						Files.move(children.get(index), to.resolve(children.get(index).getFileName().toString()));
+						if (!progress.processed(index + 1)) {
+							throw new InterruptedIOException("Moving ["+source.getPath()+"] was interrupted");
+						}
+					}
+				} finally {
+					progress.end();
+				}
+				if (directory && !"/".equals(source.getPath())) {
+					Files.delete(from);
+				}
+			}
+			source.purgeCurrentDataWrapper();
+			((AbstractFileSystem)target).purgeCurrentDataWrapper();
+			return true;
+		}
+	}
+
+	private static void copyFile(final FileSystemInterface from, final FileSystemInterface to, final Progress counter, final AtomicBoolean useChannels) throws IOException {
+		if (useChannels.get()) {
+			try(final SeekableByteChannel	in = from.channel(READ_OPTIONS)) {
+				if (in instanceof FileChannel) {
+					try(final SeekableByteChannel	out = to.channel(WRITE_OPTIONS)) {
+						final FileChannel	fc = (FileChannel)in;
+						final long			size = fc.size();
+
+						for (long position = 0, transferred; position < size; position += transferred) {
+							if ((transferred = fc.transferTo(position, Math.min(size - position, TRANSFER_CHUNK), out)) <= 0) {
+								throw new IOException("Unexpected end of file ["+from.getPath()+"]");
+							}
+							counter.add(transferred);
+						}
+					}
+					return;
+				}
+				else {
+					useChannels.set(false);		// Non-local source, channels are useless for this tree
+				}
+			}
+		}
+		if (!to.exists()) {
+			to.create();
+		}
+		try(final InputStream	is = from.read();
+			final OutputStream	os = to.write()) {
+			counter.add(Utils.copyStream(is, os));
+		}
+	}
+
+	private static void run(final int parallelism, final List<String> items, final WorkerFactory factory) throws IOException {
+		final AtomicInteger					next = new AtomicInteger();
+		final AtomicReference<IOException>	error = new AtomicReference<>();
+		final Runnable						body = ()->{
+												try(final Worker	worker = factory.create()) {
+													int		index;
+
+													while (error.get() == null && (index = next.getAndIncrement()) < items.size()) {
+														worker.process(items.get(index));
+													}
+												} catch (IOException exc) {
+													error.compareAndSet(null, exc);
+												} catch (RuntimeException exc) {
+													error.compareAndSet(null, new IOException(exc.getLocalizedMessage(), exc));
+												}
+											};
+		final Thread[]						workers = new Thread[Math.max(0, Math.min(parallelism, items.size()) - 1)];
+
+		for (int index = 0; index < workers.length; index++) {
+			workers[index] = new Thread(body, "fsysWorker-"+WORKER_NUMBER.incrementAndGet());
+			workers[index].setDaemon(true);
+			workers[index].start();
+		}
+		body.run();
+		for (Thread item : workers) {
+			try{item.join();
+			} catch (InterruptedException exc) {
+				error.compareAndSet(null, new InterruptedIOException("Processing was interrupted"));
+				for (Thread worker : workers) {
+					worker.interrupt();
+				}
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	private static Tree scan(final AbstractFileSystem source, final boolean calculateSize) throws IOException {
+		final String	path = source.getPath();
+
+		if (source.isFile()) {
+			final Tree	tree = new Tree(path.lastIndexOf('/') > 0 ? path.substring(0, path.lastIndexOf('/')) : "/", false);
+
+			tree.files.add(source.getName());
+			tree.totalSize = calculateSize ? source.size() : 0;
+			return tree;
+		}
+		else {
+			final Tree	tree = new Tree(path, true);
+
+			try(final FileSystemInterface	fsi = source.clone()) {
+				scan(fsi, path, "", tree, calculateSize);
+			}
+			return tree;
+		}
+	}
+
+	private static void scan(final FileSystemInterface fsi, final String base, final String relative, final Tree tree, final boolean calculateSize) throws IOException {
+		for (String name : fsi.open(join(base, relative)).list()) {
+			final String	item = relative.isEmpty() ? name : relative + '/' + name;
+
+			if (fsi.open(join(base, item)).isDirectory()) {
+				tree.dirs.add(item);
+				scan(fsi, base, item, tree, calculateSize);
+			}
+			else {
+				tree.files.add(item);
+				if (calculateSize) {
+					tree.totalSize += fsi.size();
+				}
+			}
+		}
+	}
+
+	private static String join(final String base, final String relative) {
+		if (relative.isEmpty()) {
+			return base;
+		}
+		else {
+			return base.endsWith("/") ? base + relative : base + '/' + relative;
+		}
+	}
+
+	private static class Tree {
+		final String		base;
+		final boolean		directory;
+		final List<String>	dirs = new ArrayList<>();
+		final List<String>	files = new ArrayList<>();
+		long				totalSize = 0;
+
+		Tree(final String base, final boolean directory) {
+			this.base = base;
+			this.directory = directory;
+		}
+	}
+
+	private static class Progress {
+		private final ProgressIndicator	progress;
+		private final AtomicLong		processed = new AtomicLong();
+
+		Progress(final ProgressIndicator progress) {
+			this.progress = progress;
+		}
+
+		void add(final long delta) throws InterruptedIOException {
+			final long	current = processed.addAndGet(delta);
+
+			synchronized (progress) {
+				if (!progress.processed(current)) {
+					throw new InterruptedIOException("Processing was interrupted by progress indicator");
+				}
+			}
+		}
+	}
+}
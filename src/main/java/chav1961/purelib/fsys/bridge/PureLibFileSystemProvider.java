@@ -2,7 +2,13 @@ package chav1961.purelib.fsys.bridge;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AccessMode;
 import java.nio.file.CopyOption;
@@ -117,7 +123,44 @@ public class PureLibFileSystemProvider extends FileSystemProvider {
 
 	@Override
 	public SeekableByteChannel newByteChannel(final Path path, final Set<? extends OpenOption> options, final FileAttribute<?>... attrs) throws IOException {
-		throw new UnsupportedOperationException("This file system doesn't support channels to access content");
+		if (path == null) {
+			throw new NullPointerException("Path to open channel can't be null"); 
+		}
+		else if (!(path instanceof PureLibPath)) {
+			throw new IllegalArgumentException("Path to open channel ["+path+"] is not a Pure library path"); 
+		}
+		else if (options == null) {
+			throw new NullPointerException("Open options can't be null"); 
+		}
+		else {
+			final FileSystemInterface	fsi = FileSystemFactory.createFileSystem(URI.create(FileSystemInterface.FILESYSTEM_URI_SCHEME+":"+path.toUri()));
+			
+			try{final SeekableByteChannel	channel = fsi.channel(options);
+				
+				if (channel instanceof FileChannel) {
+					return new FileSystemBoundFileChannel(fsi, (FileChannel)channel);
+				}
+				else {
+					return new FileSystemBoundByteChannel(fsi, channel);
+				}
+			} catch (IOException | RuntimeException exc) {
+				fsi.close();
+				throw exc;
+			}
+		}
+	}
+
+	@Override
+	public FileChannel newFileChannel(final Path path, final Set<? extends OpenOption> options, final FileAttribute<?>... attrs) throws IOException {
+		final SeekableByteChannel	channel = newByteChannel(path, options, attrs);
+		
+		if (channel instanceof FileChannel) {
+			return (FileChannel)channel;
+		}
+		else {
+			channel.close();
+			throw new UnsupportedOperationException("File system for path ["+path+"] doesn't support native file channels, use newByteChannel(...) instead");
+		}
 	}
 
 	@Override
@@ -644,4 +687,85 @@ public class PureLibFileSystemProvider extends FileSystemProvider {
 			};
 		}
 	}
+
+	private static class FileSystemBoundByteChannel implements SeekableByteChannel {
+		private final FileSystemInterface	fsi;
+		private final SeekableByteChannel	nested;
+		
+		private FileSystemBoundByteChannel(final FileSystemInterface fsi, final SeekableByteChannel nested) {
+			this.fsi = fsi;
+			this.nested = nested;
+		}
+
+		@Override public boolean isOpen() {return nested.isOpen();}
+		@Override public int read(final ByteBuffer dst) throws IOException {return nested.read(dst);}
+		@Override public int write(final ByteBuffer src) throws IOException {return nested.write(src);}
+		@Override public long position() throws IOException {return nested.position();}
+		@Override public long size() throws IOException {return nested.size();}
+
+		@Override 
+		public SeekableByteChannel position(final long newPosition) throws IOException {
+			nested.position(newPosition);
+			return this;
+		}
+
+		@Override 
+		public SeekableByteChannel truncate(final long size) throws IOException {
+			nested.truncate(size);
+			return this;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try{nested.close();
+			} finally {
+				fsi.close();
+			}
+		}
+	}
+
+	private static class FileSystemBoundFileChannel extends FileChannel {
+		private final FileSystemInterface	fsi;
+		private final FileChannel			nested;
+		
+		private FileSystemBoundFileChannel(final FileSystemInterface fsi, final FileChannel nested) {
+			this.fsi = fsi;
+			this.nested = nested;
+		}
+
+		@Override public int read(final ByteBuffer dst) throws IOException {return nested.read(dst);}
+		@Override public long read(final ByteBuffer[] dsts, final int offset, final int length) throws IOException {return nested.read(dsts, offset, length);}
+		@Override public int write(final ByteBuffer src) throws IOException {return nested.write(src);}
+		@Override public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {return nested.write(srcs, offset, length);}
+		@Override public long position() throws IOException {return nested.position();}
+		@Override public long size() throws IOException {return nested.size();}
+		@Override public void force(final boolean metaData) throws IOException {nested.force(metaData);}
+		@Override public long transferTo(final long position, final long count, final WritableByteChannel target) throws IOException {return nested.transferTo(position, count, target);}
+		@Override public long transferFrom(final ReadableByteChannel src, final long position, final long count) throws IOException {return nested.transferFrom(src, position, count);}
+		@Override public int read(final ByteBuffer dst, final long position) throws IOException {return nested.read(dst, position);}
+		@Override public int write(final ByteBuffer src, final long position) throws IOException {return nested.write(src, position);}
+		@Override public MappedByteBuffer map(final MapMode mode, final long position, final long size) throws IOException {return nested.map(mode, position, size);}
+		@Override public FileLock lock(final long position, final long size, final boolean shared) throws IOException {return nested.lock(position, size, shared);}
+		@Override public FileLock tryLock(final long position, final long size, final boolean shared) throws IOException {return nested.tryLock(position, size, shared);}
+
+		@Override
+		public FileChannel position(final long newPosition) throws IOException {
+			nested.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public FileChannel truncate(final long size) throws IOException {
+			nested.truncate(size);
+			return this;
+		}
+
+		@Override
+		protected void implCloseChannel() throws IOException {
+			try{nested.close();
+			} finally {
+				fsi.close();
+			}
+		}
+	}
 }
@@ -4,7 +4,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -19,7 +24,7 @@ import java.util.regex.Pattern;
  *   
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.7
+ * @last.update 0.0.9
  */
 
 public interface DataWrapperInterface extends FileSystemLockInterface {
@@ -82,6 +87,20 @@ public interface DataWrapperInterface extends FileSystemLockInterface {
 	 */
 	InputStream getInputStream() throws IOException;
 
+	/**
+	 * <p>Create a channel to get random access to the file system cursor entity content. This capability is optional. Default implementation returns null,
+	 * and the caller emulates the channel with {@link #getInputStream() getInputStream()} and {@link #getOutputStream(boolean) getOutputStream(boolean)} methods
+	 * (see {@link chav1961.purelib.fsys.ChunkedByteChannel ChunkedByteChannel}). File systems with native random access should override it and 
+	 * return {@link FileChannel} instance, to support positional reads and zero-copy transfers</p>
+	 * @param options open options (see {@link StandardOpenOption}). Can't be null
+	 * @return channel to access content or null if native channels are not supported. You need close this channel after processing 
+	 * @throws IOException if any exceptions was thrown
+	 * @since 0.0.9
+	 */
+	default SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+		return null;
+	}
+
 	/**
 	 * <p>Get attributes of the given file system cursor entity.</p>
 	 * @return entity attributes. Need be not null and contain at least ATTR_EXIST key 
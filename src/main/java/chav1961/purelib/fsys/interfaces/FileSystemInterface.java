@@ -7,9 +7,13 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.OpenOption;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
+import chav1961.purelib.basic.interfaces.ProgressIndicator;
 import chav1961.purelib.basic.interfaces.SpiService;
 import chav1961.purelib.enumerations.ContinueMode;
 import chav1961.purelib.fsys.FileSystemFactory;
@@ -75,7 +79,7 @@ import chav1961.purelib.fsys.FileSystemFactory;
  * 
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.7
+ * @last.update 0.0.9
  */
 
 public interface FileSystemInterface extends Cloneable, Closeable, SpiService<FileSystemInterface>, FileSystemLockInterface {
@@ -276,6 +280,27 @@ public interface FileSystemInterface extends Cloneable, Closeable, SpiService<Fi
 	 * @throws IOException if any exceptions was thrown
 	 */
 	FileSystemInterface deleteAll() throws IOException;
+
+	/**
+	 * <p>Delete file or non-empty directory with a bounded pool of workers. Files are deleted concurrently, directories are deleted after all their content
+	 * was deleted. Default implementation ignores parallelism and calls {@linkplain #deleteAll()}</p>
+	 * @param parallelism number of concurrent workers. Must be positive
+	 * @param progress progress indicator to report number of deleted files to. Can't be null
+	 * @return self
+	 * @throws IOException if any exceptions was thrown. {@linkplain java.io.InterruptedIOException} will be thrown when progress indicator interrupts deletion
+	 * @since 0.0.9
+	 */
+	default FileSystemInterface deleteAll(final int parallelism, final ProgressIndicator progress) throws IOException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism ["+parallelism+"] must be positive");
+		}
+		else if (progress == null) {
+			throw new NullPointerException("Progress indicator can't be null");
+		}
+		else {
+			return deleteAll();
+		}
+	}
 	
 	/**
 	 * <p>Mount another filesystem to the given file system cursor location</p>
@@ -381,6 +406,58 @@ public interface FileSystemInterface extends Cloneable, Closeable, SpiService<Fi
 	 * @throws IOException if any exceptions was thrown
 	 */
 	FileSystemInterface move(FileSystemInterface another) throws IOException;
+
+	/**
+	 * <p>Copy content from one file system to another with a bounded pool of workers. Directory tree is created in the target file system first, and files
+	 * are copied concurrently after it. When the source content is a local file, it will be transferred with {@linkplain java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+	 * Default implementation ignores parallelism and calls {@linkplain #copy(FileSystemInterface)}</p>
+	 * @param another target file system to copy to. Copying makes to the actual getPath() for the target file system. Can't be null
+	 * @param parallelism number of concurrent workers. Must be positive
+	 * @param progress progress indicator to report number of bytes copied to. Can't be null
+	 * @return self
+	 * @throws IOException if any exceptions was thrown. {@linkplain java.io.InterruptedIOException} will be thrown when progress indicator interrupts copying
+	 * @since 0.0.9
+	 */
+	default FileSystemInterface copy(final FileSystemInterface another, final int parallelism, final ProgressIndicator progress) throws IOException {
+		if (another == null) {
+			throw new NullPointerException("Another file system can't be null");
+		}
+		else if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism ["+parallelism+"] must be positive");
+		}
+		else if (progress == null) {
+			throw new NullPointerException("Progress indicator can't be null");
+		}
+		else {
+			return copy(another);
+		}
+	}
+
+	/**
+	 * <p>Move content from one file system to another with a bounded pool of workers. When both file systems are on the same local file system, native rename
+	 * will be used instead of copying. Otherwise content will be copied as {@linkplain #copy(FileSystemInterface, int, ProgressIndicator)} does and removed
+	 * as {@linkplain #deleteAll(int, ProgressIndicator)} does. Default implementation ignores parallelism and calls {@linkplain #move(FileSystemInterface)}</p>
+	 * @param another target file system to move to. Moving makes to the actual getPath() for the target file system. Can't be null
+	 * @param parallelism number of concurrent workers. Must be positive
+	 * @param progress progress indicator to report number of bytes copied to. Can't be null
+	 * @return self
+	 * @throws IOException if any exceptions was thrown. {@linkplain java.io.InterruptedIOException} will be thrown when progress indicator interrupts moving
+	 * @since 0.0.9
+	 */
+	default FileSystemInterface move(final FileSystemInterface another, final int parallelism, final ProgressIndicator progress) throws IOException {
+		if (another == null) {
+			throw new NullPointerException("Another file system can't be null");
+		}
+		else if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism ["+parallelism+"] must be positive");
+		}
+		else if (progress == null) {
+			throw new NullPointerException("Progress indicator can't be null");
+		}
+		else {
+			return move(another);
+		}
+	}
 	
 	/**
 	 * <p>Copy file content from current file system cursor to the given output stream</p>
@@ -429,6 +506,20 @@ public interface FileSystemInterface extends Cloneable, Closeable, SpiService<Fi
 	 */
 	InputStream read(Map<String,Object> attributes) throws IOException;
 	
+	/**
+	 * <p>Open channel to get random access to the file content from the current file system cursor. If the file system supports native random access,
+	 * returned channel is a {@link java.nio.channels.FileChannel FileChannel} instance. Default implementation throws {@linkplain IOException}, the file systems
+	 * extending {@linkplain chav1961.purelib.fsys.AbstractFileSystem AbstractFileSystem} support channels always</p>
+	 * @param options open options (see {@link java.nio.file.StandardOpenOption StandardOpenOption}). Can't be null
+	 * @return channel to access the file content. You need close this channel after processing, so let's use it in the <b>try-with-resource</b> statement
+	 * @throws IOException if any exceptions was thrown or the file system doesn't support channels
+	 * @see DataWrapperInterface#getChannel(Set)
+	 * @since 0.0.9
+	 */
+	default SeekableByteChannel channel(final Set<? extends OpenOption> options) throws IOException {
+		throw new IOException("File system ["+getClass().getName()+"] doesn't support channels");
+	}
+	
 	/**
 	 * <p>Read content of the file from the current file system cursor as character stream</p>
 	 * @return input stream to get access to the file content. Default encoding 'UTF-8' is used to get data. You need close this stream after processing, so let's use it in the <b>try-with-resource</b> statement
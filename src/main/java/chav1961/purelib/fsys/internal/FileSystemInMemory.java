@@ -1,20 +1,18 @@
 package chav1961.purelib.fsys.internal;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import javax.swing.Icon;
@@ -34,15 +32,19 @@ import chav1961.purelib.fsys.interfaces.FileSystemInterfaceDescriptor;
 import chav1961.purelib.i18n.internal.PureLibLocalizer;
 
 /**
- * <p>This class implements the file system interface in the RAM. The URI for this class is not used really, so type any valid URI to pass it in the constructor</p>
+ * <p>This class implements the file system interface in the RAM. The URI for this class is not used really, so type any valid URI to pass it in the constructor.
+ * File system content is kept in the concurrent directory index, and every file content is kept as a chain of fixed-size chunks (on the heap or in the direct
+ * {@linkplain ByteBuffer}s outside the heap). Appending data to file never copies content already written, and every input stream reads the <i>snapshot</i> of the
+ * file content at the moment of it's opening, so concurrent writes are not visible for it. Writing without append mode replaces file content atomically on
+ * closing output stream. Size of chunk and off-heap mode can be typed in the constructor or in the URI query (for example, <code>fsys:memory:/?chunkSize=65536&amp;offHeap=true</code>)</p>
  * 
- * <p>This class is not thread-safe.</p>
+ * <p>This class is not thread-safe, but it's content is thread-safe and can be shared between clones of the file system used in different threads.</p>
  * 
  * @see chav1961.purelib.fsys.interfaces.FileSystemInterface FileSystemInterface
  * @see chav1961.purelib.fsys JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.2
- * @last.update 0.0.5
+ * @last.update 0.0.9
  */
 
 
@@ -56,7 +58,30 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 	private static final String	HELP = FileSystemFactory.FILESYSTEM_LOCALIZATION_PREFIX+'.'+FileSystemInMemory.class.getSimpleName()+'.'+FileSystemFactory.FILESYSTEM_LICENSE_HELP_SUFFIX;
 	private static final Icon	ICON = new ImageIcon(FileSystemInMemory.class.getResource("memoryIcon.png"));
 	
-	private final Map<String,MemoryDesc>	content;
+	/**
+	 * <p>Default size of the content chunk</p>
+	 * @since 0.0.9
+	 */
+	public static final int		DEFAULT_CHUNK_SIZE = 16 * 1024;
+	
+	/**
+	 * <p>URI query parameter to define size of the content chunk</p>
+	 * @since 0.0.9
+	 */
+	public static final String	QUERY_CHUNK_SIZE = "chunkSize";
+	
+	/**
+	 * <p>URI query parameter to define off-heap mode</p>
+	 * @since 0.0.9
+	 */
+	public static final String	QUERY_OFF_HEAP = "offHeap";
+	
+	private static final int	MIN_CHUNK_SIZE = 64;
+	private static final int	INITIAL_CHAIN_LENGTH = 4;
+	
+	private final ConcurrentMap<String,MemoryDesc>	content;
+	private final int						chunkSize;
+	private final boolean					offHeap;
 	private final FileSystemInMemory		another;
 	private final boolean					cloned;
 	private final InMemoryFileSystemLocker			lock;
@@ -65,7 +90,9 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 	 * <p>This constructor is an entry for the SPI service only. Don't use it in any purposes</p> 
 	 */
 	public FileSystemInMemory(){
-		this.content = new HashMap<>();
+		this.content = new ConcurrentHashMap<>();
+		this.chunkSize = DEFAULT_CHUNK_SIZE;
+		this.offHeap = false;
 		this.another = null;
 		this.cloned = false;
 		this.lock = new InMemoryFileSystemLocker(false);
@@ -75,26 +102,39 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 	 * <p>Create the file system in the memory.</p>  
 	 * @param rootPath any valid URI. It is not used really, but need for the compatibility
 	 */
-	
 	public FileSystemInMemory(final URI rootPath) {
+		this(rootPath, DEFAULT_CHUNK_SIZE, false);
+	}
+	
+	/**
+	 * <p>Create the file system in the memory.</p>  
+	 * @param rootPath any valid URI. It is not used really, but need for the compatibility
+	 * @param chunkSize size of the content chunk. Must be not less than 64 bytes
+	 * @param offHeap true to keep content in the direct byte buffers outside the heap
+	 * @throws IllegalArgumentException if chunk size is too small
+	 * @since 0.0.9
+	 */
+	public FileSystemInMemory(final URI rootPath, final int chunkSize, final boolean offHeap) throws IllegalArgumentException {
 		super(rootPath);
-		this.content = new HashMap<>();
-		content.put("/",new MemoryDesc("/",Utils.mkMap(DataWrapperInterface.ATTR_SIZE, 0L, 
-								DataWrapperInterface.ATTR_NAME, "/", 
-								DataWrapperInterface.ATTR_ALIAS, "/", 
-								DataWrapperInterface.ATTR_LASTMODIFIED, System.currentTimeMillis(), 
-								DataWrapperInterface.ATTR_DIR, true, 
-								DataWrapperInterface.ATTR_EXIST, true, 
-								DataWrapperInterface.ATTR_CANREAD, true, 
-								DataWrapperInterface.ATTR_CANWRITE, true)));
-		this.another = null;
-		this.cloned = false;
-		this.lock = new InMemoryFileSystemLocker(false);
+		if (chunkSize < MIN_CHUNK_SIZE) {
+			throw new IllegalArgumentException("Chunk size ["+chunkSize+"] must be not less than "+MIN_CHUNK_SIZE);
+		}
+		else {
+			this.content = new ConcurrentHashMap<>();
+			this.chunkSize = chunkSize;
+			this.offHeap = offHeap;
+			this.content.put("/",new MemoryDesc("/",true));
+			this.another = null;
+			this.cloned = false;
+			this.lock = new InMemoryFileSystemLocker(false);
+		}
 	}
 	
 	protected FileSystemInMemory(final FileSystemInMemory another) {
 		super(another);
 		this.content = another.content;
+		this.chunkSize = another.chunkSize;
+		this.offHeap = another.offHeap;
 		this.another = another;
 		this.cloned = true;
 		this.lock =  null;
@@ -121,7 +161,15 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 			throw new EnvironmentException("Resource URI ["+resource+"] is not supported by the class. Valid URI must be ["+SERVE+"...]");
 		}
 		else {
-			return new FileSystemInMemory(URI.create(resource.getRawSchemeSpecificPart()));
+			final URI							root = URI.create(resource.getRawSchemeSpecificPart());
+			final Hashtable<String,String[]>	query = URIUtils.parseQuery(root);
+			
+			try{return new FileSystemInMemory(URIUtils.removeQueryFromURI(root)
+						, query.containsKey(QUERY_CHUNK_SIZE) ? Integer.parseInt(query.get(QUERY_CHUNK_SIZE)[0]) : DEFAULT_CHUNK_SIZE
+						, query.containsKey(QUERY_OFF_HEAP) && Boolean.parseBoolean(query.get(QUERY_OFF_HEAP)[0]));
+			} catch (IllegalArgumentException exc) {
+				throw new EnvironmentException("Resource URI ["+resource+"] contains invalid query parameters: "+exc.getLocalizedMessage(),exc);
+			}
 		}
 	}
 	
@@ -208,109 +256,230 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 		}
 	}
 	
+	private ByteBuffer allocate(final int size) {
+		return offHeap ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+	}
+
+	/*
+	 * Appends data to the chunk chain of the snapshot and returns new snapshot. Content of the source snapshot is never changed, so all the readers
+	 * of it are not affected. Only the first chunk can be smaller than chunk size (to reduce memory for small files), and it grows by copying.
+	 */
+	private Snapshot append(final Snapshot current, final byte[] data, int from, int len) {
+		ByteBuffer[]	chunks = current.chunks;
+		long			size = current.size;
+		
+		while (len > 0) {
+			final int	index = (int)(size / chunkSize), displ = (int)(size % chunkSize), portion = Math.min(len, chunkSize - displ);
+			
+			if (index >= chunks.length) {
+				chunks = Arrays.copyOf(chunks, Math.max(INITIAL_CHAIN_LENGTH, 2 * chunks.length));
+			}
+			if (chunks[index] == null) {
+				chunks[index] = allocate(index == 0 ? Math.max(MIN_CHUNK_SIZE, portion) : chunkSize);
+			}
+			else if (chunks[index].capacity() < displ + portion) {
+				final ByteBuffer	grown = allocate(Math.min(chunkSize, Math.max(2 * chunks[index].capacity(), displ + portion)));
+				
+				grown.put(0, chunks[index], 0, displ);
+				chunks = chunks.clone();
+				chunks[index] = grown;
+			}
+			chunks[index].put(displ, data, from, portion);
+			from += portion;
+			len -= portion;
+			size += portion;
+		}
+		return new Snapshot(chunks, size);
+	}
+
+	private void register(final String path, final boolean directory) {
+		final String	parent = parentOf(path);
+		
+		if (parent != null) {
+			MemoryDesc	parentDesc = content.get(parent);
+
+			if (parentDesc == null) {
+				register(parent, true);
+				parentDesc = content.get(parent);
+			}
+			if (directory) {
+				content.putIfAbsent(path, new MemoryDesc(nameOf(path), true));
+			}
+			else {
+				content.put(path, new MemoryDesc(nameOf(path), false));
+			}
+			if (parentDesc != null && parentDesc.children != null) {
+				parentDesc.children.add(nameOf(path));
+			}
+		}
+	}
+
+	private void unregister(final String path) {
+		final String	parent = parentOf(path);
+		
+		if (parent != null) {
+			final MemoryDesc	parentDesc = content.get(parent);
+			
+			if (parentDesc != null && parentDesc.children != null) {
+				parentDesc.children.remove(nameOf(path));
+			}
+		}
+	}
+	
+	private static String parentOf(final String path) {
+		final int	slash = path.lastIndexOf('/');
+		
+		if ("/".equals(path)) {
+			return null;
+		}
+		else {
+			return slash > 0 ? path.substring(0, slash) : "/";
+		}
+	}
+
+	private static String nameOf(final String path) {
+		return "/".equals(path) ? "/" : path.substring(path.lastIndexOf('/')+1);
+	}
+	
 	private class MemoryDataWrapper implements DataWrapperInterface {
 		private final String	wrapper;
 		
 		public MemoryDataWrapper(final URI wrapper) {
-			this.wrapper = wrapper.toString();
+			final String	path = wrapper.toString();
+			
+			if (path.isEmpty() || "/".equals(path)) {
+				this.wrapper = "/";
+			}
+			else {
+				this.wrapper = path.endsWith("/") ? path.substring(0, path.length()-1) : path;
+			}
 		}
 
 		@Override
-		public OutputStream getOutputStream(boolean append) throws IOException {
-			final MemoryDesc	desc = content.get(wrapper);
+		public OutputStream getOutputStream(final boolean append) throws IOException {
+			final MemoryDesc	desc = getFile();
 			
-			return new ByteArrayOutputStream(){
-				@Override
-				public void close() throws IOException {
-					desc.content = this.buf;
-					desc.attributes.put(DataWrapperInterface.ATTR_SIZE,Long.valueOf(this.count));
-					super.close();
-				}
-			};
+			if (append) {
+				return new OutputStream() {
+					private final byte[]	single = new byte[1];
+					
+					@Override
+					public void write(final int b) throws IOException {
+						single[0] = (byte)b;
+						write(single, 0, 1);
+					}
+
+					@Override
+					public void write(final byte[] b, final int off, final int len) throws IOException {
+						synchronized (desc) {
+							desc.snapshot = append(desc.snapshot, b, off, len);
+							desc.lastModified = System.currentTimeMillis();
+						}
+					}
+				};
+			}
+			else {
+				return new OutputStream() {
+					private final byte[]	single = new byte[1];
+					private Snapshot		snapshot = Snapshot.EMPTY;
+					private boolean			closed = false;
+					
+					@Override
+					public void write(final int b) throws IOException {
+						single[0] = (byte)b;
+						write(single, 0, 1);
+					}
+
+					@Override
+					public void write(final byte[] b, final int off, final int len) throws IOException {
+						if (closed) {
+							throw new IOException("Stream is closed");
+						}
+						else {
+							snapshot = append(snapshot, b, off, len);
+						}
+					}
+					
+					@Override
+					public void close() throws IOException {
+						if (!closed) {
+							closed = true;
+							synchronized (desc) {
+								desc.snapshot = snapshot;
+								desc.lastModified = System.currentTimeMillis();
+							}
+						}
+					}
+				};
+			}
 		}
 
 		@Override
 		public InputStream getInputStream() throws IOException {
-			final MemoryDesc	desc = content.get(wrapper);
-			
-			return new ByteArrayInputStream(desc.content,0,((Long)desc.attributes.get(DataWrapperInterface.ATTR_SIZE)).intValue());
+			return new SnapshotInputStream(getFile().snapshot);
 		}
 
 		@Override
 		public URI[] list(final Pattern pattern) throws IOException {
-			final Set<URI>	result = new HashSet<>();
-			final int		startPathLen = wrapper.length();
+			final MemoryDesc	desc = content.get(wrapper);
 			
-			for(Entry<String, MemoryDesc> item : content.entrySet()) {
-				final String	uri = item.getKey();
+			if (desc == null || desc.children == null) {
+				return new URI[0];
+			}
+			else {
+				final List<URI>	result = new ArrayList<>();
 				
-//				if (uri.length() > startPathLen && uri.startsWith(wrapper) && pattern.matcher(uri.substring(startPathLen)).matches()) {
-				if (uri.length() > startPathLen && uri.startsWith(wrapper)) {
-					String		curPath = uri.substring(startPathLen+1);
-					int			trimIndex = curPath.indexOf('/');
-					
-					if (trimIndex > 0 ) {
-						curPath = curPath.substring(0,trimIndex); 
-					}
-					if (pattern.matcher(curPath).matches()) {
-						result.add(URI.create(curPath));
-//						result.add(URI.create(uri.endsWith("/") ? uri.substring(startPathLen,uri.length()-1) : uri.substring(startPathLen,uri.length())));
+				for (String item : desc.children) {
+					if (pattern.matcher(item).matches()) {
+						result.add(URI.create(item));
 					}
 				}
+				return result.toArray(new URI[result.size()]);
 			}
-			
-			final URI[]			returned = result.toArray(new URI[result.size()]);
-			return returned;
 		}
 
 		@Override
 		public void mkDir() throws IOException {
-			content.put(wrapper,new MemoryDesc(wrapper,Utils.mkMap(DataWrapperInterface.ATTR_SIZE, 0L, 
-						DataWrapperInterface.ATTR_NAME, getName(), 
-						DataWrapperInterface.ATTR_ALIAS, getName(), 
-						DataWrapperInterface.ATTR_LASTMODIFIED, System.currentTimeMillis(), 
-						DataWrapperInterface.ATTR_DIR, true, 
-						DataWrapperInterface.ATTR_EXIST, true, 
-						DataWrapperInterface.ATTR_CANREAD, true, 
-						DataWrapperInterface.ATTR_CANWRITE, true)));
+			register(wrapper, true);
 		}
 
 		@Override
 		public void create() throws IOException {
-			content.put(wrapper,new MemoryDesc(wrapper,Utils.mkMap(DataWrapperInterface.ATTR_SIZE, 0L, 
-					DataWrapperInterface.ATTR_NAME, getName(), 
-					DataWrapperInterface.ATTR_ALIAS, getName(), 
-					DataWrapperInterface.ATTR_LASTMODIFIED, System.currentTimeMillis(), 
-					DataWrapperInterface.ATTR_DIR, false, 
-					DataWrapperInterface.ATTR_EXIST, true, 
-					DataWrapperInterface.ATTR_CANREAD, true, 
-					DataWrapperInterface.ATTR_CANWRITE, true)));
+			final MemoryDesc	desc = content.get(wrapper);
+			
+			if (desc != null && desc.children != null) {
+				throw new IOException("Directory ["+wrapper+"] already exists and can't be replaced with file");
+			}
+			else {
+				register(wrapper, false);
+			}
 		}
 
 		@Override
 		public void delete() throws IOException {
-			content.remove(wrapper);
+			if (content.remove(wrapper) != null) {
+				unregister(wrapper);
+			}
 		}
 
 		@Override
 		public Map<String, Object> getAttributes() throws IOException {
-			if ("/".equals(wrapper)) {
-				return Utils.mkMap(DataWrapperInterface.ATTR_SIZE, 0L, 
-						DataWrapperInterface.ATTR_NAME, "/", 
-						DataWrapperInterface.ATTR_ALIAS, "/", 
-						DataWrapperInterface.ATTR_LASTMODIFIED, 0L, 
-						DataWrapperInterface.ATTR_DIR, true, 
+			final MemoryDesc	desc = content.get(wrapper);
+			
+			if (desc != null) {
+				return Utils.mkMap(DataWrapperInterface.ATTR_SIZE, desc.children != null ? 0L : desc.snapshot.size, 
+						DataWrapperInterface.ATTR_NAME, desc.name, 
+						DataWrapperInterface.ATTR_ALIAS, desc.name, 
+						DataWrapperInterface.ATTR_LASTMODIFIED, desc.lastModified, 
+						DataWrapperInterface.ATTR_DIR, desc.children != null, 
 						DataWrapperInterface.ATTR_EXIST, true, 
 						DataWrapperInterface.ATTR_CANREAD, true, 
 						DataWrapperInterface.ATTR_CANWRITE, true);						
 			}
-			else if (content.containsKey(wrapper)) {
-				return content.get(wrapper).attributes;
-			}
 			else {
 				return Utils.mkMap(DataWrapperInterface.ATTR_SIZE, 0L, 
-						DataWrapperInterface.ATTR_NAME, getName(), 
-						DataWrapperInterface.ATTR_ALIAS, getName(), 
+						DataWrapperInterface.ATTR_NAME, nameOf(wrapper), 
+						DataWrapperInterface.ATTR_ALIAS, nameOf(wrapper), 
 						DataWrapperInterface.ATTR_LASTMODIFIED, 0L, 
 						DataWrapperInterface.ATTR_DIR, false, 
 						DataWrapperInterface.ATTR_EXIST, false, 
@@ -323,11 +492,36 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 		
 		@Override
 		public void setName(final String name) throws IOException {
-			final MemoryDesc	desc = content.remove(wrapper);
-			final String		key = wrapper.replace("/"+getName(),"/"+name);
+			final String		parent = parentOf(wrapper);
+			final String		key = parent == null ? null : (parent.endsWith("/") ? parent : parent + '/') + name;
+			final MemoryDesc	desc = content.get(wrapper);
 			
-			desc.attributes.put(DataWrapperInterface.ATTR_NAME, getName());
-			content.put(key,desc);
+			if (desc == null || key == null) {
+				throw new IOException("Directory/file ["+wrapper+"] not exists or can't be renamed");
+			}
+			else if (content.containsKey(key)) {
+				throw new IOException("Directory/file ["+key+"] already exists");
+			}
+			else {
+				if (desc.children != null) {
+					final String	prefix = wrapper + '/';
+					
+					for (String item : content.keySet()) {
+						if (item.startsWith(prefix)) {
+							final MemoryDesc	moved = content.remove(item);
+							
+							if (moved != null) {
+								content.put(key + item.substring(wrapper.length()), moved);
+							}
+						}
+					}
+				}
+				desc.name = name;
+				content.put(key, desc);
+				content.remove(wrapper);
+				unregister(wrapper);
+				content.get(parent).children.add(name);
+			}
 		}
 
 		@Override
@@ -358,24 +552,121 @@ public class FileSystemInMemory extends AbstractFileSystem implements FileSystem
 			else {
 				another.unlock(path, sharedMode);
 			}
-		}		
+		}
+
+		private MemoryDesc getFile() throws IOException {
+			final MemoryDesc	desc = content.get(wrapper);
+			
+			if (desc == null || desc.children != null) {
+				throw new IOException("File ["+wrapper+"] not exists or is a directory");
+			}
+			else {
+				return desc;
+			}
+		}
 	}
 
-	private static class MemoryDesc {
-		private static final byte[]	EMPTY_CONTENT = new byte[0];
+	private class SnapshotInputStream extends InputStream {
+		private final Snapshot	snapshot;
+		private long			position = 0, mark = 0;
+		
+		private SnapshotInputStream(final Snapshot snapshot) {
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (position >= snapshot.size) {
+				return -1;
+			}
+			else {
+				final int	result = snapshot.chunks[(int)(position / chunkSize)].get((int)(position % chunkSize)) & 0xFF;
+				
+				position++;
+				return result;
+			}
+		}
+		
+		@Override
+		public int read(final byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			else if (position >= snapshot.size) {
+				return -1;
+			}
+			else {
+				int	total = 0;
+				
+				len = (int)Math.min(len, snapshot.size - position);
+				while (len > 0) {
+					final int	displ = (int)(position % chunkSize), portion = Math.min(len, chunkSize - displ);
+					
+					snapshot.chunks[(int)(position / chunkSize)].get(displ, b, off, portion);
+					position += portion;
+					off += portion;
+					len -= portion;
+					total += portion;
+				}
+				return total;
+			}
+		}
+		
+		@Override
+		public long skip(final long n) throws IOException {
+			final long	skipped = Math.max(0, Math.min(n, snapshot.size - position));
+			
+			position += skipped;
+			return skipped;
+		}
+		
+		@Override
+		public int available() throws IOException {
+			return (int)Math.min(Integer.MAX_VALUE, snapshot.size - position);
+		}
+		
+		@Override
+		public boolean markSupported() {
+			return true;
+		}
+		
+		@Override
+		public synchronized void mark(final int readlimit) {
+			mark = position;
+		}
 		
-		final String				path;
-		final Map<String,Object>	attributes;
-		byte[]						content = EMPTY_CONTENT;
+		@Override
+		public synchronized void reset() throws IOException {
+			position = mark;
+		}
+	}
+	
+	private static class Snapshot {
+		private static final Snapshot	EMPTY = new Snapshot(new ByteBuffer[0], 0);
+		
+		final ByteBuffer[]	chunks;
+		final long			size;
+		
+		private Snapshot(final ByteBuffer[] chunks, final long size) {
+			this.chunks = chunks;
+			this.size = size;
+		}
+	}
+
+	private static class MemoryDesc {
+		final Set<String>	children;
+		volatile String		name;
+		volatile long		lastModified = System.currentTimeMillis();
+		volatile Snapshot	snapshot = Snapshot.EMPTY;
 		
-		public MemoryDesc(final String path, final Map<String,Object> attributes) {
-			this.path = path;
-			this.attributes = attributes;
+		public MemoryDesc(final String name, final boolean directory) {
+			this.name = name;
+			this.children = directory ? ConcurrentHashMap.newKeySet() : null;
 		}
 
 		@Override
 		public String toString() {
-			return "MemoryDesc [path=" + path + ", attributes=" + attributes + ", content=" + Arrays.toString(content) + "]";
+			return "MemoryDesc [name=" + name + ", directory=" + (children != null) + ", size=" + snapshot.size + "]";
 		}
 	}
 }
@@ -0,0 +1,1027 @@
+package chav1961.purelib.fsys.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+
+import chav1961.purelib.basic.PureLibSettings;
+import chav1961.purelib.basic.URIUtils;
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.exceptions.EnvironmentException;
+import chav1961.purelib.basic.interfaces.LoggerFacade;
+import chav1961.purelib.basic.interfaces.LoggerFacade.Severity;
+import chav1961.purelib.fsys.AbstractFileSystem;
+import chav1961.purelib.fsys.FileSystemFactory;
+import chav1961.purelib.fsys.interfaces.DataWrapperInterface;
+import chav1961.purelib.fsys.interfaces.FileSystemInterface;
+import chav1961.purelib.fsys.interfaces.FileSystemInterfaceDescriptor;
+import chav1961.purelib.i18n.internal.PureLibLocalizer;
+import chav1961.purelib.streams.byte2byte.ZLibInputStream;
+import chav1961.purelib.streams.byte2byte.ZLibOutputStream;
+
+/**
+ * <p>This class implements the file system interface on the content-addressed block store in the local directory. The URI to use this class is
+ * <code>URI.create("fsys:dedup:path_to_store_directory");</code> (for example <code>URI.create("fsys:dedup:./myStore?blockSize=65536&amp;compress=true");</code>)</p>
+ *
+ * <p>Every file body is split to the fixed-size blocks. Every block is stored once in the <b>blocks</b> subdirectory of the store under the name of it's
+ * SHA-256 hash, so identical content of different files (or identical parts of them) occupies disk space only once. Blocks can be compressed with
+ * {@linkplain ZLibOutputStream} (block is stored uncompressed when compression doesn't reduce it's size). Small <b>index</b> file in the store directory
+ * maps file system paths to the block lists, and it is rewritten atomically on every change of the file system. Reading file decompresses it's blocks
+ * one by one, so the whole file content is never loaded into memory. Blocks which are not referenced by any file are removed from the store immediately.</p>
+ *
+ * <p>Index is rewritten completely on every change, so cost of creating, writing, renaming or deleting any file is proportional to the total number of files
+ * and directories in the store. This file system is good for the moderate number of large files, and it is not intended to keep millions of small ones.
+ * Blocks are compressed and written to the disk outside of the store lock, so the file systems in different threads can write their content in parallel.</p>
+ *
+ * <p>This class is not thread-safe, but it's content is thread-safe and can be shared between clones of the file system used in different threads.
+ * Only one instance of the file system can use the same store directory.</p>
+ *
+ * @see chav1961.purelib.fsys.interfaces.FileSystemInterface FileSystemInterface
+ * @see chav1961.purelib.fsys JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class FileSystemOnDedupStore extends AbstractFileSystem implements FileSystemInterfaceDescriptor {
+	public static final URI		SERVE = URI.create(FileSystemInterface.FILESYSTEM_URI_SCHEME+":dedup:/");
+
+	/**
+	 * <p>Default size of the content block</p>
+	 */
+	public static final int		DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+	/**
+	 * <p>URI query parameter to define size of the content block</p>
+	 */
+	public static final String	QUERY_BLOCK_SIZE = "blockSize";
+
+	/**
+	 * <p>URI query parameter to define block compression</p>
+	 */
+	public static final String	QUERY_COMPRESS = "compress";
+
+	private static final String	DESCRIPTION = FileSystemFactory.FILESYSTEM_LOCALIZATION_PREFIX+'.'+FileSystemOnDedupStore.class.getSimpleName()+'.'+FileSystemFactory.FILESYSTEM_DESCRIPTION_SUFFIX;
+	private static final String	VENDOR = FileSystemFactory.FILESYSTEM_LOCALIZATION_PREFIX+'.'+FileSystemOnDedupStore.class.getSimpleName()+'.'+FileSystemFactory.FILESYSTEM_VENDOR_SUFFIX;
+	private static final String	LICENSE = FileSystemFactory.FILESYSTEM_LOCALIZATION_PREFIX+'.'+FileSystemOnDedupStore.class.getSimpleName()+'.'+FileSystemFactory.FILESYSTEM_LICENSE_SUFFIX;
+	private static final String	LICENSE_CONTENT = FileSystemFactory.FILESYSTEM_LOCALIZATION_PREFIX+'.'+FileSystemOnDedupStore.class.getSimpleName()+'.'+FileSystemFactory.FILESYSTEM_LICENSE_CONTENT_SUFFIX;
+	private static final String	HELP = FileSystemFactory.FILESYSTEM_LOCALIZATION_PREFIX+'.'+FileSystemOnDedupStore.class.getSimpleName()+'.'+FileSystemFactory.FILESYSTEM_LICENSE_HELP_SUFFIX;
+	private static final Icon	ICON = new ImageIcon(FileSystemOnDedupStore.class.getResource("fileIcon.png"));
+
+	private static final int	MIN_BLOCK_SIZE = 1024;
+	private static final String	INDEX_FILE = "index";
+	private static final String	INDEX_TEMP_FILE = "index.tmp";
+	private static final String	BLOCKS_DIR = "blocks";
+	private static final String	BLOCK_TEMP_SUFFIX = ".tmp";
+	private static final int	INDEX_MAGIC = 0x44445331;	// DDS1
+	private static final String	HASH_ALGORITHM = "SHA-256";
+	private static final int	BLOCK_RAW = 0;
+	private static final int	BLOCK_ZLIB = 1;
+
+	private final BlockStore				store;
+	private final FileSystemOnDedupStore	another;
+	private final boolean					cloned;
+	private final InMemoryFileSystemLocker	lock;
+
+	/**
+	 * <p>This constructor is an entry for the SPI service only. Don't use it in any purposes</p>
+	 */
+	public FileSystemOnDedupStore(){
+		this.store = null;
+		this.another = null;
+		this.cloned = false;
+		this.lock = new InMemoryFileSystemLocker(false);
+	}
+
+	/**
+	 * <p>Create the file system on the given store directory with default block size and compression.</p>
+	 * @param storeDir directory to keep store in. Will be created if not exists. Can't be null
+	 * @throws NullPointerException if store directory is null
+	 * @throws IllegalArgumentException if store directory is not a directory
+	 * @throws IOException on any I/O errors reading store
+	 */
+	public FileSystemOnDedupStore(final File storeDir) throws NullPointerException, IllegalArgumentException, IOException {
+		this(storeDir, DEFAULT_BLOCK_SIZE, true);
+	}
+
+	/**
+	 * <p>Create the file system on the given store directory.</p>
+	 * @param storeDir directory to keep store in. Will be created if not exists. Can't be null
+	 * @param blockSize size of the content block. Must be not less than 1024 bytes. Blocks stored earlier can have another size
+	 * @param compress true to compress new blocks
+	 * @throws NullPointerException if store directory is null
+	 * @throws IllegalArgumentException if block size is too small or store directory is not a directory
+	 * @throws IOException on any I/O errors reading store
+	 */
+	public FileSystemOnDedupStore(final File storeDir, final int blockSize, final boolean compress) throws NullPointerException, IllegalArgumentException, IOException {
+		super(URI.create("/"));
+		if (storeDir == null) {
+			throw new NullPointerException("Store directory can't be null");
+		}
+		else if (storeDir.exists() && !storeDir.isDirectory()) {
+			throw new IllegalArgumentException("Store directory ["+storeDir.getAbsolutePath()+"] is not a directory");
+		}
+		else if (blockSize < MIN_BLOCK_SIZE) {
+			throw new IllegalArgumentException("Block size ["+blockSize+"] must be not less than "+MIN_BLOCK_SIZE);
+		}
+		else {
+			this.store = new BlockStore(storeDir, blockSize, compress);
+			this.another = null;
+			this.cloned = false;
+			this.lock = new InMemoryFileSystemLocker(false);
+		}
+	}
+
+	protected FileSystemOnDedupStore(final FileSystemOnDedupStore another) {
+		super(another);
+		this.store = another.store;
+		this.another = another;
+		this.cloned = true;
+		this.lock =  null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!cloned) {
+			super.close();
+		}
+	}
+
+	@Override
+	public boolean canServe(final URI resource) {
+		return URIUtils.canServeURI(resource,SERVE);
+	}
+
+	@Override
+	public FileSystemInterface newInstance(final URI resource) throws EnvironmentException {
+		if (!canServe(resource)) {
+			throw new EnvironmentException("Resource URI ["+resource+"] is not supported by the class. Valid URI must be ["+SERVE+"...]");
+		}
+		else {
+			final URI							root = URI.create(resource.getRawSchemeSpecificPart());
+			final Hashtable<String,String[]>	query = URIUtils.parseQuery(root);
+			final File							dir = new File(URIUtils.removeQueryFromURI(root).getSchemeSpecificPart()).getAbsoluteFile();
+
+			try{return new FileSystemOnDedupStore(dir
+						, query.containsKey(QUERY_BLOCK_SIZE) ? Integer.parseInt(query.get(QUERY_BLOCK_SIZE)[0]) : DEFAULT_BLOCK_SIZE
+						, !query.containsKey(QUERY_COMPRESS) || Boolean.parseBoolean(query.get(QUERY_COMPRESS)[0]));
+			} catch (IllegalArgumentException exc) {
+				throw new EnvironmentException("Resource URI ["+resource+"] contains invalid parameters: "+exc.getLocalizedMessage(),exc);
+			} catch (IOException exc) {
+				throw new EnvironmentException("I/O error creating file system on store ["+dir+"]: "+exc.getLocalizedMessage(),exc);
+			}
+		}
+	}
+
+	@Override
+	public DataWrapperInterface createDataWrapper(final URI actualPath) throws IOException {
+		return new DedupDataWrapper(actualPath);
+	}
+
+	@Override
+	public FileSystemInterface clone() {
+		return new FileSystemOnDedupStore(this);
+	}
+
+	@Override
+	public String getClassName() {
+		return this.getClass().getSimpleName();
+	}
+
+	@Override
+	public String getVersion() {
+		return PureLibSettings.CURRENT_VERSION;
+	}
+
+	@Override
+	public URI getLocalizerAssociated() {
+		return PureLibLocalizer.LOCALIZER_SCHEME_URI;
+	}
+
+	@Override
+	public String getDescriptionId() {
+		return DESCRIPTION;
+	}
+
+	@Override
+	public Icon getIcon() {
+		return ICON;
+	}
+
+	@Override
+	public String getVendorId() {
+		return VENDOR;
+	}
+
+	@Override
+	public String getLicenseId() {
+		return LICENSE;
+	}
+
+	@Override
+	public String getLicenseContentId() {
+		return LICENSE_CONTENT;
+	}
+
+	@Override
+	public String getHelpId() {
+		return HELP;
+	}
+
+	@Override
+	public URI getUriTemplate() {
+		return SERVE;
+	}
+
+	@Override
+	public FileSystemInterface getInstance() throws EnvironmentException {
+		return this;
+	}
+
+	@Override
+	public boolean testConnection(final URI connection, final LoggerFacade logger) throws IOException {
+		if (connection == null) {
+			throw new NullPointerException("Connection to test can't be null");
+		}
+		else {
+			try(final FileSystemInterface	inst  = newInstance(connection)) {
+
+				return inst.exists();
+			} catch (EnvironmentException e) {
+				if (logger != null) {
+					logger.message(Severity.error, e, "Error testing connection [%1$s]: %2$s",connection,e.getLocalizedMessage());
+				}
+				throw new IOException(e.getLocalizedMessage(),e);
+			}
+		}
+	}
+
+	/**
+	 * <p>Get number of distinct blocks in the store</p>
+	 * @return number of distinct blocks
+	 */
+	public int getBlockCount() {
+		return store.getBlockCount();
+	}
+
+	private static String parentOf(final String path) {
+		final int	slash = path.lastIndexOf('/');
+
+		if ("/".equals(path)) {
+			return null;
+		}
+		else {
+			return slash > 0 ? path.substring(0, slash) : "/";
+		}
+	}
+
+	private static String nameOf(final String path) {
+		return "/".equals(path) ? "/" : path.substring(path.lastIndexOf('/')+1);
+	}
+
+	private static String childPrefix(final String path) {
+		return path.endsWith("/") ? path : path + '/';
+	}
+
+	private class DedupDataWrapper implements DataWrapperInterface {
+		private final String	wrapper;
+
+		public DedupDataWrapper(final URI wrapper) {
+			final String	path = wrapper.toString();
+
+			if (path.isEmpty() || "/".equals(path)) {
+				this.wrapper = "/";
+			}
+			else {
+				this.wrapper = path.endsWith("/") ? path.substring(0, path.length()-1) : path;
+			}
+		}
+
+		@Override
+		public OutputStream getOutputStream(final boolean append) throws IOException {
+			return new BlockOutputStream(wrapper, append);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new BlockInputStream(store.pin(wrapper));
+		}
+
+		@Override
+		public URI[] list(final Pattern pattern) throws IOException {
+			final List<URI>	result = new ArrayList<>();
+
+			for (String item : store.list(wrapper)) {
+				if (pattern.matcher(item).matches()) {
+					result.add(URI.create(item));
+				}
+			}
+			return result.toArray(new URI[result.size()]);
+		}
+
+		@Override
+		public void mkDir() throws IOException {
+			store.mkDir(wrapper);
+		}
+
+		@Override
+		public void create() throws IOException {
+			store.publish(wrapper, new Block[0], true);
+		}
+
+		@Override
+		public void delete() throws IOException {
+			store.delete(wrapper);
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() throws IOException {
+			final Entry	entry = store.get(wrapper);
+
+			if (entry != null) {
+				return Utils.mkMap(DataWrapperInterface.ATTR_SIZE, entry.size,
+						DataWrapperInterface.ATTR_NAME, nameOf(wrapper),
+						DataWrapperInterface.ATTR_ALIAS, nameOf(wrapper),
+						DataWrapperInterface.ATTR_LASTMODIFIED, entry.lastModified,
+						DataWrapperInterface.ATTR_DIR, entry.directory,
+						DataWrapperInterface.ATTR_EXIST, true,
+						DataWrapperInterface.ATTR_CANREAD, true,
+						DataWrapperInterface.ATTR_CANWRITE, true);
+			}
+			else {
+				return Utils.mkMap(DataWrapperInterface.ATTR_SIZE, 0L,
+						DataWrapperInterface.ATTR_NAME, nameOf(wrapper),
+						DataWrapperInterface.ATTR_ALIAS, nameOf(wrapper),
+						DataWrapperInterface.ATTR_LASTMODIFIED, 0L,
+						DataWrapperInterface.ATTR_DIR, false,
+						DataWrapperInterface.ATTR_EXIST, false,
+						DataWrapperInterface.ATTR_CANREAD, false,
+						DataWrapperInterface.ATTR_CANWRITE, false);
+			}
+		}
+
+		@Override public void linkAttributes(Map<String, Object> attributes) throws IOException {}
+
+		@Override
+		public void setName(final String name) throws IOException {
+			store.rename(wrapper, name);
+		}
+
+		@Override
+		public boolean tryLock(final String path, final boolean sharedMode) throws IOException {
+			if (!cloned) {
+				return lock.tryLock(path, sharedMode);
+			}
+			else {
+				return another.tryLock(path, sharedMode);
+			}
+		}
+
+		@Override
+		public void lock(final String path, final boolean sharedMode) throws IOException {
+			if (!cloned) {
+				lock.lock(path, sharedMode);
+			}
+			else {
+				another.lock(path, sharedMode);
+			}
+		}
+
+		@Override
+		public void unlock(final String path, final boolean sharedMode) throws IOException {
+			if (!cloned) {
+				lock.unlock(path, sharedMode);
+			}
+			else {
+				another.unlock(path, sharedMode);
+			}
+		}
+	}
+
+	/*
+	 * Collects written content to the block-sized buffer and stores every filled buffer as a block. Block list is published to the index on closing.
+	 * In the append mode, the last incomplete block of the file is loaded into the buffer and will be replaced with the new one.
+	 */
+	private class BlockOutputStream extends OutputStream {
+		private final String		path;
+		private final List<Block>	blocks = new ArrayList<>();
+		private final byte[]		buffer;
+		private int					filled = 0;
+		private boolean				closed = false;
+
+		private BlockOutputStream(final String path, final boolean append) throws IOException {
+			final Entry	entry = store.get(path);
+
+			if (entry == null || entry.directory) {
+				throw new IOException("File ["+path+"] not exists or is a directory");
+			}
+			else {
+				this.path = path;
+				this.buffer = new byte[store.blockSize];
+				if (append) {
+					final Block[]	pinned = store.pin(path).blocks;
+
+					blocks.addAll(Arrays.asList(pinned));
+					if (pinned.length > 0 && pinned[pinned.length-1].length < buffer.length) {
+						final Block	last = blocks.remove(blocks.size()-1);
+
+						try(final InputStream	is = store.openBlock(last)) {
+							filled = is.readNBytes(buffer, 0, last.length);
+						} finally {
+							store.release(new Block[] {last});
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[] {(byte)b}, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, int off, int len) throws IOException {
+			if (closed) {
+				throw new IOException("Stream is closed");
+			}
+			else {
+				while (len > 0) {
+					final int	portion = Math.min(len, buffer.length - filled);
+
+					System.arraycopy(b, off, buffer, filled, portion);
+					filled += portion;
+					off += portion;
+					len -= portion;
+					if (filled == buffer.length) {
+						blocks.add(store.storeBlock(buffer, filled));
+						filled = 0;
+					}
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				if (filled > 0) {
+					blocks.add(store.storeBlock(buffer, filled));
+				}
+				store.publish(path, blocks.toArray(new Block[blocks.size()]), false);
+			}
+		}
+	}
+
+	/*
+	 * Reads pinned block list sequentially, opening and decompressing blocks one by one. Blocks are unpinned on closing.
+	 */
+	private class BlockInputStream extends InputStream {
+		private final Block[]	blocks;
+		private int				current = -1;
+		private InputStream		blockStream = null;
+		private long			remains = 0;
+		private boolean			closed = false;
+
+		private BlockInputStream(final Entry entry) {
+			this.blocks = entry.blocks;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final byte[]	single = new byte[1];
+
+			return read(single, 0, 1) <= 0 ? -1 : single[0] & 0xFF;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			else if (!prepare()) {
+				return -1;
+			}
+			else {
+				final int	read = blockStream.read(b, off, (int)Math.min(len, remains));
+
+				if (read <= 0) {
+					throw new IOException("Block ["+blocks[current].hash+"] is truncated or damaged");
+				}
+				else {
+					remains -= read;
+					return read;
+				}
+			}
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			long	skipped = 0;
+
+			while (skipped < n && prepare()) {
+				if (remains == blocks[current].length && n - skipped >= remains) {
+					skipped += remains;		// Skip the whole block without reading it
+					remains = 0;
+				}
+				else {
+					final long	portion = Math.min(n - skipped, remains);
+
+					blockStream.skipNBytes(portion);
+					skipped += portion;
+					remains -= portion;
+				}
+			}
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int)Math.min(Integer.MAX_VALUE, remains);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				closeBlock();
+				store.release(blocks);
+			}
+		}
+
+		private boolean prepare() throws IOException {
+			if (closed) {
+				throw new IOException("Stream is closed");
+			}
+			else {
+				while (remains == 0) {
+					closeBlock();
+					if (++current >= blocks.length) {
+						current = blocks.length;
+						return false;
+					}
+					else {
+						remains = blocks[current].length;
+					}
+				}
+				if (blockStream == null) {
+					blockStream = store.openBlock(blocks[current]);
+				}
+				return true;
+			}
+		}
+
+		private void closeBlock() throws IOException {
+			if (blockStream != null) {
+				blockStream.close();
+				blockStream = null;
+			}
+		}
+	}
+
+	/*
+	 * Keeps path index and block reference counters. All index changes are saved immediately, and blocks of the replaced or removed files are released
+	 * only after successful saving. Every block is referenced by the files contain it and
+	 * by the streams are reading or writing it now, and it is removed from the disk when the last reference is released. New block is reserved in the
+	 * reference counters and marked as pending under the lock, written to the temporary file without lock and published with atomic rename. Another writer
+	 * of the same block waits until pending block is published.
+	 */
+	private static class BlockStore {
+		private final File						root;
+		private final File						blocksDir;
+		private final int						blockSize;
+		private final boolean					compress;
+		private final TreeMap<String,Entry>		index = new TreeMap<>();
+		private final Map<String,int[]>			refs = new HashMap<>();
+		private final Set<String>				pending = new HashSet<>();
+
+		private BlockStore(final File root, final int blockSize, final boolean compress) throws IOException {
+			this.root = root;
+			this.blocksDir = new File(root, BLOCKS_DIR);
+			this.blockSize = blockSize;
+			this.compress = compress;
+
+			if (!blocksDir.exists() && !blocksDir.mkdirs()) {
+				throw new IOException("Store directory ["+blocksDir.getAbsolutePath()+"] can't be created");
+			}
+			else if (new File(root, INDEX_FILE).exists()) {
+				loadIndex();
+			}
+			else {
+				index.put("/", new Entry(true, new Block[0], System.currentTimeMillis()));
+				saveIndex();
+			}
+		}
+
+		synchronized int getBlockCount() {
+			return refs.size();
+		}
+
+		synchronized Entry get(final String path) {
+			return index.get(path);
+		}
+
+		synchronized List<String> list(final String path) {
+			final Entry			entry = index.get(path);
+			final List<String>	result = new ArrayList<>();
+
+			if (entry != null && entry.directory) {
+				final String	prefix = childPrefix(path);
+
+				for (String item : index.subMap(prefix, prefix + Character.MAX_VALUE).keySet()) {
+					if (!item.equals(prefix) && item.indexOf('/', prefix.length()) < 0) {
+						result.add(item.substring(prefix.length()));
+					}
+				}
+			}
+			return result;
+		}
+
+		synchronized void mkDir(final String path) throws IOException {
+			final Entry	entry = index.get(path);
+
+			if (entry == null) {
+				final TreeMap<String,Entry>	snapshot = new TreeMap<>(index);
+
+				ensureParents(path);
+				index.put(path, new Entry(true, new Block[0], System.currentTimeMillis()));
+				saveIndex(snapshot);
+			}
+			else if (!entry.directory) {
+				throw new IOException("File ["+path+"] already exists and can't be replaced with directory");
+			}
+		}
+
+		synchronized void publish(final String path, final Block[] blocks, final boolean create) throws IOException {
+			final Entry	entry = index.get(path);
+
+			if (create ? entry != null && entry.directory : entry == null || entry.directory) {
+				release(blocks);
+				throw new IOException(create ? "Directory ["+path+"] already exists and can't be replaced with file" : "File ["+path+"] was removed or replaced with directory");
+			}
+			else {
+				final TreeMap<String,Entry>	snapshot = new TreeMap<>(index);
+
+				try{if (create) {
+						ensureParents(path);
+					}
+					index.put(path, new Entry(false, blocks, System.currentTimeMillis()));
+					saveIndex(snapshot);
+				} catch (IOException exc) {
+					release(blocks);
+					throw exc;
+				}
+				if (entry != null) {
+					release(entry.blocks);
+				}
+			}
+		}
+
+		synchronized void delete(final String path) throws IOException {
+			final Entry	entry = index.get(path);
+
+			if ("/".equals(path)) {
+				throw new IOException("Root directory can't be deleted");
+			}
+			else if (entry != null) {
+				if (entry.directory && !list(path).isEmpty()) {
+					throw new IOException("Directory ["+path+"] is not empty and can't be deleted");
+				}
+				else {
+					final TreeMap<String,Entry>	snapshot = new TreeMap<>(index);
+
+					index.remove(path);
+					saveIndex(snapshot);
+					release(entry.blocks);
+				}
+			}
+		}
+
+		synchronized void rename(final String path, final String name) throws IOException {
+			final Entry		entry = index.get(path);
+			final String	parent = parentOf(path);
+
+			if (entry == null || parent == null) {
+				throw new IOException("Directory/file ["+path+"] not exists or can't be renamed");
+			}
+			else {
+				final String	newPath = childPrefix(parent) + name;
+
+				if (index.containsKey(newPath)) {
+					throw new IOException("Directory/file ["+newPath+"] already exists");
+				}
+				else {
+					final String				prefix = childPrefix(path);
+					final SortedMap<String,Entry>	children = index.subMap(prefix, prefix + Character.MAX_VALUE);
+					final Map<String,Entry>		moved = new HashMap<>(children);
+					final TreeMap<String,Entry>	snapshot = new TreeMap<>(index);
+
+					children.clear();
+					index.remove(path);
+					index.put(newPath, entry);
+					for (Map.Entry<String,Entry> item : moved.entrySet()) {
+						index.put(newPath + item.getKey().substring(path.length()), item.getValue());
+					}
+					saveIndex(snapshot);
+				}
+			}
+		}
+
+		synchronized Entry pin(final String path) throws IOException {
+			final Entry	entry = index.get(path);
+
+			if (entry == null || entry.directory) {
+				throw new IOException("File ["+path+"] not exists or is a directory");
+			}
+			else {
+				for (Block item : entry.blocks) {
+					refs.get(item.hash)[0]++;
+				}
+				return entry;
+			}
+		}
+
+		synchronized void release(final Block[] blocks) {
+			for (Block item : blocks) {
+				final int[]	counter = refs.get(item.hash);
+
+				if (counter != null && --counter[0] <= 0) {
+					refs.remove(item.hash);
+					blockFile(item.hash).delete();
+				}
+			}
+		}
+
+		Block storeBlock(final byte[] content, final int length) throws IOException {
+			final String	hash = hash(content, length);
+
+			synchronized (this) {
+				try{while (pending.contains(hash)) {
+						wait();
+					}
+				} catch (InterruptedException exc) {
+					throw new InterruptedIOException("Storing block ["+hash+"] was interrupted");
+				}
+				final int[]	counter = refs.get(hash);
+
+				if (counter != null) {
+					counter[0]++;
+					return new Block(hash, length);
+				}
+				else {
+					refs.put(hash, new int[] {1});
+					pending.add(hash);
+				}
+			}
+			boolean	stored = false;
+
+			try{writeBlock(hash, content, length);
+				stored = true;
+				return new Block(hash, length);
+			} finally {
+				synchronized (this) {
+					if (!stored) {
+						refs.remove(hash);
+					}
+					pending.remove(hash);
+					notifyAll();
+				}
+			}
+		}
+
+		InputStream openBlock(final Block block) throws IOException {
+			final InputStream	is = new BufferedInputStream(new FileInputStream(blockFile(block.hash)));
+
+			switch (is.read()) {
+				case BLOCK_RAW	:
+					return is;
+				case BLOCK_ZLIB	:
+					return new ZLibInputStream(is) {
+						@Override
+						public void close() throws IOException {
+							nested.close();
+						}
+					};
+				default :
+					is.close();
+					throw new IOException("Block ["+block.hash+"] has unknown format");
+			}
+		}
+
+		private void ensureParents(final String path) throws IOException {
+			final String	parent = parentOf(path);
+			final Entry		entry = parent == null ? null : index.get(parent);
+
+			if (parent != null) {
+				if (entry == null) {
+					ensureParents(parent);
+					index.put(parent, new Entry(true, new Block[0], System.currentTimeMillis()));
+				}
+				else if (!entry.directory) {
+					throw new IOException("Path ["+parent+"] is a file, not a directory");
+				}
+			}
+		}
+
+		private void writeBlock(final String hash, final byte[] content, final int length) throws IOException {
+			final File	file = blockFile(hash), temp;
+
+			file.getParentFile().mkdirs();
+			temp = File.createTempFile(hash, BLOCK_TEMP_SUFFIX, file.getParentFile());
+			try{try(final OutputStream	os = new FileOutputStream(temp)) {
+					final byte[]	compressed = compress ? compress(content, length) : null;
+
+					if (compressed != null && compressed.length < length) {
+						os.write(BLOCK_ZLIB);
+						os.write(compressed);
+					}
+					else {
+						os.write(BLOCK_RAW);
+						os.write(content, 0, length);
+					}
+				}
+				moveAtomically(temp.toPath(), file.toPath());
+			} finally {
+				temp.delete();
+			}
+		}
+
+		private File blockFile(final String hash) {
+			return new File(new File(blocksDir, hash.substring(0, 2)), hash);
+		}
+
+		private void loadIndex() throws IOException {
+			try(final InputStream		is = new FileInputStream(new File(root, INDEX_FILE));
+				final DataInputStream	dis = new DataInputStream(new BufferedInputStream(is))) {
+
+				if (dis.readInt() != INDEX_MAGIC) {
+					throw new IOException("Store index ["+new File(root, INDEX_FILE).getAbsolutePath()+"] has invalid format");
+				}
+				else {
+					for (int count = dis.readInt(); count > 0; count--) {
+						final String	path = dis.readUTF();
+						final boolean	directory = dis.readBoolean();
+						final long		lastModified = dis.readLong();
+						final Block[]	blocks = new Block[dis.readInt()];
+
+						for (int index = 0; index < blocks.length; index++) {
+							blocks[index] = new Block(dis.readUTF(), dis.readInt());
+							refs.computeIfAbsent(blocks[index].hash, (k)->new int[1])[0]++;
+						}
+						index.put(path, new Entry(directory, blocks, lastModified));
+					}
+				}
+			}
+			sweepBlocks();
+		}
+
+		/*
+		 * Removes block files and temporary files are not referenced by the index. They can remain after crash between index saving and block releasing
+		 */
+		private void sweepBlocks() {
+			final File[]	dirs = blocksDir.listFiles();
+
+			if (dirs != null) {
+				for (File dir : dirs) {
+					final File[]	files = dir.isDirectory() ? dir.listFiles() : null;
+
+					if (files != null) {
+						for (File file : files) {
+							if (!refs.containsKey(file.getName())) {
+								file.delete();
+							}
+						}
+					}
+				}
+			}
+		}
+
+		/*
+		 * Saves index and restores it from the snapshot on failure, so in-memory index always matches the saved one
+		 */
+		private void saveIndex(final TreeMap<String,Entry> snapshot) throws IOException {
+			try{saveIndex();
+			} catch (IOException exc) {
+				index.clear();
+				index.putAll(snapshot);
+				throw exc;
+			}
+		}
+
+		private void saveIndex() throws IOException {
+			final File	temp = new File(root, INDEX_TEMP_FILE);
+
+			try(final OutputStream		os = new FileOutputStream(temp);
+				final DataOutputStream	dos = new DataOutputStream(new BufferedOutputStream(os))) {
+
+				dos.writeInt(INDEX_MAGIC);
+				dos.writeInt(index.size());
+				for (Map.Entry<String,Entry> item : index.entrySet()) {
+					dos.writeUTF(item.getKey());
+					dos.writeBoolean(item.getValue().directory);
+					dos.writeLong(item.getValue().lastModified);
+					dos.writeInt(item.getValue().blocks.length);
+					for (Block block : item.getValue().blocks) {
+						dos.writeUTF(block.hash);
+						dos.writeInt(block.length);
+					}
+				}
+			}
+			moveAtomically(temp.toPath(), new File(root, INDEX_FILE).toPath());
+		}
+
+		private static void moveAtomically(final Path from, final Path to) throws IOException {
+			try{Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException exc) {
+				Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+
+		private static String hash(final byte[] content, final int length) throws IOException {
+			try{final MessageDigest	md = MessageDigest.getInstance(HASH_ALGORITHM);
+
+				md.update(content, 0, length);
+				return HexFormat.of().formatHex(md.digest());
+			} catch (NoSuchAlgorithmException exc) {
+				throw new IOException(exc.getLocalizedMessage(), exc);
+			}
+		}
+
+		private static byte[] compress(final byte[] content, final int length) throws IOException {
+			final ByteArrayOutputStream	baos = new ByteArrayOutputStream();
+
+			try(final ZLibOutputStream	zos = new ZLibOutputStream(baos)) {
+				zos.write(content, 0, length);		// Only one write, because ZLibOutputStream doesn't keep input between writes
+			}
+			return baos.toByteArray();
+		}
+	}
+
+	private static class Block {
+		final String	hash;
+		final int		length;
+
+		private Block(final String hash, final int length) {
+			this.hash = hash;
+			this.length = length;
+		}
+
+		@Override
+		public String toString() {
+			return "Block [hash=" + hash + ", length=" + length + "]";
+		}
+	}
+
+	private static class Entry {
+		final boolean	directory;
+		final Block[]	blocks;
+		final long		size;
+		final long		lastModified;
+
+		private Entry(final boolean directory, final Block[] blocks, final long lastModified) {
+			long	size = 0;
+
+			for (Block item : blocks) {
+				size += item.length;
+			}
+			this.directory = directory;
+			this.blocks = blocks;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry [directory=" + directory + ", blocks=" + blocks.length + ", size=" + size + "]";
+		}
+	}
+}
@@ -12,11 +12,14 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.swing.Icon;
@@ -45,7 +48,7 @@ import chav1961.purelib.i18n.internal.PureLibLocalizer;
  * @see chav1961.purelib.fsys JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.5
+ * @last.update 0.0.9
  */
 
 public class FileSystemOnFile extends AbstractFileSystemWithLockService<FileChannel,FileLock> implements FileSystemInterfaceDescriptor {
@@ -277,6 +280,11 @@ public class FileSystemOnFile extends AbstractFileSystemWithLockService<FileChan
 			return new FileInputStream(getFile());
 		}
 
+		@Override
+		public SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+			return FileChannel.open(getFile().toPath(), options);
+		}
+
 		@Override
 		public URI[] list(final Pattern pattern) throws IOException {
 			if (atRoot) {
@@ -429,6 +437,11 @@ public class FileSystemOnFile extends AbstractFileSystemWithLockService<FileChan
 			return new FileInputStream(getFile());
 		}
 
+		@Override
+		public SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+			return FileChannel.open(getFile().toPath(), options);
+		}
+
 		@Override
 		public URI[] list(final Pattern pattern) throws IOException {
 			if (atRoot) {
@@ -582,6 +595,11 @@ public class FileSystemOnFile extends AbstractFileSystemWithLockService<FileChan
 			return new FileInputStream(getFile());
 		}
 
+		@Override
+		public SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+			return FileChannel.open(getFile().toPath(), options);
+		}
+
 		@Override
 		public URI[] list(final Pattern pattern) throws IOException {
 			if (atRoot) {
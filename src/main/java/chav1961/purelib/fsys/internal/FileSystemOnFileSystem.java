@@ -5,10 +5,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
 import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
@@ -18,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.swing.Icon;
@@ -48,7 +51,7 @@ import chav1961.purelib.i18n.internal.PureLibLocalizer;
  * @see chav1961.purelib.fsys JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.1
- * @last.update 0.0.5
+ * @last.update 0.0.9
  */
 public class FileSystemOnFileSystem extends AbstractFileSystemWithLockService<AutoCloseable, AutoCloseable> implements FileSystemInterfaceDescriptor {
 	private static final URI	SERVE = URI.create(FileSystemInterface.FILESYSTEM_URI_SCHEME+":filesystem:/");
@@ -313,6 +316,11 @@ public class FileSystemOnFileSystem extends AbstractFileSystemWithLockService<Au
 			return Files.newInputStream(fs.getPath(wrapper2String()),StandardOpenOption.READ);
 		}
 
+		@Override
+		public SeekableByteChannel getChannel(final Set<? extends OpenOption> options) throws IOException {
+			return Files.newByteChannel(fs.getPath(wrapper2String()),options);
+		}
+
 		@Override
 		public Map<String, Object> getAttributes() throws IOException {
 			final Path	path = fs.getPath(wrapper2String());
@@ -12,17 +12,20 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import chav1961.purelib.basic.AndOrTree;
 import chav1961.purelib.basic.BitCharSet;
 import chav1961.purelib.basic.CharUtils;
 import chav1961.purelib.basic.PureLibSettings;
 import chav1961.purelib.basic.ReusableInstances;
+import chav1961.purelib.basic.SimpleURLClassLoader;
 import chav1961.purelib.basic.GettersAndSettersFactory;
 import chav1961.purelib.basic.exceptions.ContentException;
 import chav1961.purelib.basic.exceptions.EnvironmentException;
@@ -57,8 +60,8 @@ import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
  * <li>{@linkplain CharacterSource} and {@linkplain CharacterTarget} implementations</li>
  * <li>{@linkplain JsonStaxParser} and {@linkplain JsonStaxPrinter} streams</li>
  * </ul>
- * <p>To speed up serialization/deserialization, class can generate byte code on-the-fly for requested classes (see {@linkplain GettersAndSettersFactory}). Reading/writing to char arrays is limited by it's 
- * current size. Reading/writing to other source/targets has no any limitations.</p>
+ * <p>To speed up serialization/deserialization, class can generate byte code on-the-fly for requested classes (see {@linkplain GettersAndSettersFactory} and
+ * {@linkplain #buildSerializer(Class, boolean)}). Reading/writing to char arrays is limited by it's current size. Reading/writing to other source/targets has no any limitations.</p>
  * <p>Rules for serialization/deserialization are:</p>
  * <ul>
  * <li>any primitive types and {@linkplain String} entities can be serialized</li>
@@ -75,6 +78,7 @@ import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
  * @see chav1961.purelib.streams
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.2
+ * @last.update 0.0.9
  * @param <T> T - class to serialize.
  */
 public abstract class JsonSerializer<T> {
@@ -84,6 +88,16 @@ public abstract class JsonSerializer<T> {
 	private static final Map<Class<?>,JsonSerializer<?>>	STANDARD_WRAPPERS = new HashMap<>();
 	private static final Map<Class<?>,JsonSerializer<?>>	PRIMITIVE_ARRAY_WRAPPERS = new HashMap<>();
 	private static final Map<Class<? extends Enum<?>>,JsonSerializer<?>>	ENUM_WRAPPERS = new HashMap<>();
+	private static final ClassValue<JsonSerializer<?>>	GENERATED_SERIALIZERS = new ClassValue<JsonSerializer<?>>() {
+															@Override
+															protected JsonSerializer<?> computeValue(final Class<?> type) {
+																try{return buildGeneratedSerializer(type);
+																} catch (EnvironmentException exc) {
+																	throw new IllegalArgumentException(exc.getLocalizedMessage(),exc);
+																}
+															}
+														};
+	private static final ThreadLocal<Map<Class<?>,JsonSerializer<?>>>	GENERATED_IN_PROGRESS = ThreadLocal.withInitial(()->new HashMap<>());
 
 	private static final int			NOT_PRIMITIVE = 0;
 	private static final int			PRIMITIVE_BOOLEAN = 1;
@@ -134,8 +148,33 @@ public abstract class JsonSerializer<T> {
 		PRIMITIVE_ARRAY_WRAPPERS.put(short.class,new ShortArraySerializer());
 	}
 	
+	/**
+	 * <p>Build serializer for the given class. Serializer uses reflection to access class fields</p>
+	 * @param <Type> class to build serializer for
+	 * @param awaited class to build serializer for. Can't be null
+	 * @return serializer built. Can't be null
+	 * @throws EnvironmentException when class can't be serialized
+	 * @throws NullPointerException when awaited class is null
+	 */
+	public static <Type> JsonSerializer<Type> buildSerializer(final Class<Type> awaited) throws EnvironmentException, NullPointerException {
+		return buildSerializer(awaited,false);
+	}
+
+	/**
+	 * <p>Build serializer for the given class. In the code generation mode, every class serializer is built once and contains a flat table of the class fields
+	 * with the names pre-built as constant char arrays. Access to public fields of the public classes is made by on-the-fly generated getters and setters 
+	 * (see {@linkplain GettersAndSettersFactory}), so primitive field values are not boxed on serialization. Generated serializers are cached per class and
+	 * are loaded by separate class loaders, so they are garbage collected together with the classes they were built for.</p>
+	 * @param <Type> class to build serializer for
+	 * @param awaited class to build serializer for. Can't be null
+	 * @param generateCode true - use code generation mode, false - use reflection
+	 * @return serializer built. Can't be null
+	 * @throws EnvironmentException when class can't be serialized
+	 * @throws NullPointerException when awaited class is null
+	 * @since 0.0.9
+	 */
 	@SuppressWarnings("unchecked")
-	public static <Type> JsonSerializer<Type> buildSerializer(final Class<Type> awaited) throws EnvironmentException {
+	public static <Type> JsonSerializer<Type> buildSerializer(final Class<Type> awaited, final boolean generateCode) throws EnvironmentException, NullPointerException {
 		if (awaited == null) {
 			throw new NullPointerException("Awaited class can't be null");
 		}
@@ -147,19 +186,19 @@ public abstract class JsonSerializer<T> {
 				return buildEnumSerialier((Class<Type>) awaited);
 			}
 			else if (awaited.isArray()) {
-				return buildArraySerializer(awaited);
+				return buildArraySerializer(awaited,generateCode);
 			}
 			else if (STANDARD_WRAPPERS.containsKey(awaited)) {
 				return (JsonSerializer<Type>) STANDARD_WRAPPERS.get(awaited);
 			}
 			else if (Serializable.class.isAssignableFrom(awaited) || Externalizable.class.isAssignableFrom(awaited)) {
-				return buildTotalSerializer(awaited);
+				return generateCode ? getGeneratedSerializer(awaited) : buildTotalSerializer(awaited);
 			}
 			else if (ContentNodeMetadata.class.isAssignableFrom(awaited)) {
 				return (JsonSerializer<Type>) new ContentNodeMetadataSerializer();
 			}
 			else {
-				return buildPublicSerializer(awaited);
+				return generateCode ? getGeneratedSerializer(awaited) : buildPublicSerializer(awaited);
 			}
 		}
 	}
@@ -240,13 +279,84 @@ public abstract class JsonSerializer<T> {
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private static <Type> JsonSerializer<Type> buildArraySerializer(final Class<Type> awaited) throws EnvironmentException {
+	private static <Type> JsonSerializer<Type> buildArraySerializer(final Class<Type> awaited, final boolean generateCode) throws EnvironmentException {
 		if (awaited.getComponentType().isPrimitive()) {
 			return (JsonSerializer<Type>) PRIMITIVE_ARRAY_WRAPPERS.get(awaited.getComponentType());
 		}
 		else {
-			return new RefArraySerializer(awaited.getComponentType(),buildSerializer(awaited.getComponentType()));
+			return new RefArraySerializer(awaited.getComponentType(),buildSerializer(awaited.getComponentType(),generateCode));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <Type> JsonSerializer<Type> getGeneratedSerializer(final Class<Type> awaited) throws EnvironmentException {
+		final JsonSerializer<?>	inProgress = GENERATED_IN_PROGRESS.get().get(awaited);	// Class references itself directly or indirectly
+		
+		if (inProgress != null) {
+			return (JsonSerializer<Type>) inProgress;
+		}
+		try{return (JsonSerializer<Type>) GENERATED_SERIALIZERS.get(awaited);
+		} catch (IllegalArgumentException exc) {
+			if (exc.getCause() instanceof EnvironmentException) {
+				throw (EnvironmentException)exc.getCause();
+			}
+			else {
+				throw exc;
+			}
+		}
+	}
+
+	private static <Type> JsonSerializer<Type> buildGeneratedSerializer(final Class<Type> awaited) throws EnvironmentException {
+		final Map<String,Field>	fields = new TreeMap<>();	// Sorted to keep the same field order as the reflective serializer has 
+		
+		if (Serializable.class.isAssignableFrom(awaited) || Externalizable.class.isAssignableFrom(awaited)) {
+			collectFields(awaited,false,true,fields);
+		}
+		else {
+			collectFields(awaited,true,false,fields);
+		}
+		if (fields.size() == 0) {
+			throw new EnvironmentException("Class ["+awaited+"] has no any field to serialize/deserialize");
 		}
+		else {
+			final SyntaxTreeInterface<GetterAndSetter>	classComponentsTree = new AndOrTree<>();
+			final GeneratedObjectSerializer<Type>		result = new GeneratedObjectSerializer<>(awaited,classComponentsTree);
+			final GetterAndSetter[]						accessors = new GetterAndSetter[fields.size()];
+			final boolean								codeAvailable = isAvailableForCode(awaited);
+			SimpleURLClassLoader						loader = null;
+			int											index = 0;
+			
+			GENERATED_IN_PROGRESS.get().put(awaited,result);
+			try{for (Entry<String, Field> item : fields.entrySet()) {
+					final Field									f = item.getValue();
+					GettersAndSettersFactory.GetterAndSetter	accessor = null;
+					
+					if (codeAvailable && Modifier.isPublic(f.getModifiers()) && Modifier.isPublic(f.getDeclaringClass().getModifiers()) && !Modifier.isFinal(f.getModifiers())) {
+						if (loader == null) {
+							loader = new SimpleURLClassLoader(new URL[0],awaited.getClassLoader());
+						}
+						try{accessor = GettersAndSettersFactory.buildGetterAndSetter(awaited,f.getName(),(m)->{},loader,false);
+						} catch (ContentException | IllegalArgumentException e) {
+							accessor = null;	// Use method handles instead of the code generated
+						}
+					}
+					try{accessors[index] = new GetterAndSetter(f,buildSerializer(f.getType(),true),accessor);
+					} catch (IllegalAccessException e) {
+						throw new EnvironmentException(e.getLocalizedMessage(),e);
+					}
+					classComponentsTree.placeName(item.getKey(),accessors[index++]);
+				}
+			} finally {
+				GENERATED_IN_PROGRESS.get().remove(awaited);
+			}
+			result.setFields(accessors);
+			return result;
+		}
+	}
+	
+	private static boolean isAvailableForCode(final Class<?> awaited) {	// Assembler can reference public top-level classes from exported packages only
+		return awaited.getClassLoader() != null && awaited.getEnclosingClass() == null && Modifier.isPublic(awaited.getModifiers()) 
+				&& awaited.getModule().isExported(awaited.getPackageName());
 	}
 
 	private static <Type> JsonSerializer<Type> buildPublicSerializer(final Class<Type> awaited) throws EnvironmentException {
@@ -4919,14 +5029,22 @@ loop:						for (JsonStaxParserLexType item : reader) {
 	}
 	
 	private static class GetterAndSetter {
+		private final char[]		name;
 		private final Class<?>		valueType;
 		private final int			typeSort;
 		private final MethodHandle	getter;
 		private final MethodHandle	setter;
 		private final JsonSerializer<?>	serializer;
+		private final GettersAndSettersFactory.GetterAndSetter	accessor;
 		
 		private GetterAndSetter(final Field field, final JsonSerializer<?> serializer) throws IllegalAccessException {
+			this(field,serializer,null);
+		}
+		
+		private GetterAndSetter(final Field field, final JsonSerializer<?> serializer, final GettersAndSettersFactory.GetterAndSetter accessor) throws IllegalAccessException {
 			field.setAccessible(true);
+			this.name = field.getName().toCharArray();
+			this.accessor = accessor;
 			this.getter = MethodHandles.lookup().unreflectGetter(field);
 			this.setter = MethodHandles.lookup().unreflectSetter(field);
 			this.serializer = serializer;
@@ -4950,16 +5068,87 @@ loop:						for (JsonStaxParserLexType item : reader) {
 		}
 		
 		private Object getValue(final Object instance) throws ContentException {
-			try{return getter.invoke(instance);
-			} catch (Throwable e) {
-				throw new ContentException(e.getLocalizedMessage(),e);
+			if (accessor != null) {
+				switch (typeSort) {
+					case PRIMITIVE_BOOLEAN	: return Boolean.valueOf(((GettersAndSettersFactory.BooleanGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_BYTE		: return Byte.valueOf(((GettersAndSettersFactory.ByteGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_CHAR		: return Character.valueOf(((GettersAndSettersFactory.CharGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_DOUBLE	: return Double.valueOf(((GettersAndSettersFactory.DoubleGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_FLOAT	: return Float.valueOf(((GettersAndSettersFactory.FloatGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_INT		: return Integer.valueOf(((GettersAndSettersFactory.IntGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_LONG		: return Long.valueOf(((GettersAndSettersFactory.LongGetterAndSetter)accessor).get(instance));
+					case PRIMITIVE_SHORT	: return Short.valueOf(((GettersAndSettersFactory.ShortGetterAndSetter)accessor).get(instance));
+					default : return ((GettersAndSettersFactory.ObjectGetterAndSetter<?>)accessor).get(instance);
+				}
+			}
+			else {
+				try{return getter.invoke(instance);
+				} catch (Throwable e) {
+					throw new ContentException(e.getLocalizedMessage(),e);
+				}
+			}
+		}
+		
+		private boolean getBoolean(final Object instance) throws ContentException {
+			if (accessor != null) {
+				return ((GettersAndSettersFactory.BooleanGetterAndSetter)accessor).get(instance);
+			}
+			else {
+				return ((Boolean)getValue(instance)).booleanValue();
+			}
+		}
+
+		private long getLong(final Object instance) throws ContentException {
+			if (accessor != null) {
+				switch (typeSort) {
+					case PRIMITIVE_BYTE		: return ((GettersAndSettersFactory.ByteGetterAndSetter)accessor).get(instance);
+					case PRIMITIVE_INT		: return ((GettersAndSettersFactory.IntGetterAndSetter)accessor).get(instance);
+					case PRIMITIVE_LONG		: return ((GettersAndSettersFactory.LongGetterAndSetter)accessor).get(instance);
+					case PRIMITIVE_SHORT	: return ((GettersAndSettersFactory.ShortGetterAndSetter)accessor).get(instance);
+					default : throw new UnsupportedOperationException("Type sort ["+typeSort+"] is not an integer type");
+				}
+			}
+			else {
+				return ((Number)getValue(instance)).longValue();
+			}
+		}
+
+		private double getDouble(final Object instance) throws ContentException {
+			if (accessor != null) {
+				switch (typeSort) {
+					case PRIMITIVE_DOUBLE	: return ((GettersAndSettersFactory.DoubleGetterAndSetter)accessor).get(instance);
+					case PRIMITIVE_FLOAT	: return ((GettersAndSettersFactory.FloatGetterAndSetter)accessor).get(instance);
+					default : throw new UnsupportedOperationException("Type sort ["+typeSort+"] is not a floating point type");
+				}
+			}
+			else {
+				return ((Number)getValue(instance)).doubleValue();
 			}
 		}
 		
+		@SuppressWarnings("unchecked")
 		private void setValue(final Object instance, final Object value) throws ContentException {
-			try{setter.invoke(instance,value);
-			} catch (Throwable e) {
-				throw new ContentException(e.getLocalizedMessage(),e);
+			if (accessor != null) {
+				try{switch (typeSort) {
+						case PRIMITIVE_BOOLEAN	: ((GettersAndSettersFactory.BooleanGetterAndSetter)accessor).set(instance,((Boolean)value).booleanValue()); break;
+						case PRIMITIVE_BYTE		: ((GettersAndSettersFactory.ByteGetterAndSetter)accessor).set(instance,((Number)value).byteValue()); break;
+						case PRIMITIVE_CHAR		: ((GettersAndSettersFactory.CharGetterAndSetter)accessor).set(instance,((Character)value).charValue()); break;
+						case PRIMITIVE_DOUBLE	: ((GettersAndSettersFactory.DoubleGetterAndSetter)accessor).set(instance,((Number)value).doubleValue()); break;
+						case PRIMITIVE_FLOAT	: ((GettersAndSettersFactory.FloatGetterAndSetter)accessor).set(instance,((Number)value).floatValue()); break;
+						case PRIMITIVE_INT		: ((GettersAndSettersFactory.IntGetterAndSetter)accessor).set(instance,((Number)value).intValue()); break;
+						case PRIMITIVE_LONG		: ((GettersAndSettersFactory.LongGetterAndSetter)accessor).set(instance,((Number)value).longValue()); break;
+						case PRIMITIVE_SHORT	: ((GettersAndSettersFactory.ShortGetterAndSetter)accessor).set(instance,((Number)value).shortValue()); break;
+						default : ((GettersAndSettersFactory.ObjectGetterAndSetter<Object>)accessor).set(instance,value); break;
+					}
+				} catch (NullPointerException | ClassCastException e) {
+					throw new ContentException("Field ["+new String(name)+"]: illegal value ["+value+"] to set",e);
+				}
+			}
+			else {
+				try{setter.invoke(instance,value);
+				} catch (Throwable e) {
+					throw new ContentException(e.getLocalizedMessage(),e);
+				}
 			}
 		}
 		
@@ -5485,6 +5674,183 @@ loop:						for (JsonStaxParserLexType item : reader) {
 		}
 	}
 
+	private static class GeneratedObjectSerializer<T> extends ObjectSerializer<T> {
+		private final ReusableInstances<char[]>	forNumbers = new ReusableInstances<char[]>(()->{return new char[64];});
+		private volatile GetterAndSetter[]		fields;		// Serializer can be referenced by it's own fields, so fields are assigned after building
+		private volatile char[][]				prefixes;
+		
+		private GeneratedObjectSerializer(final Class<T> contentType, final SyntaxTreeInterface<GetterAndSetter> names) {
+			super(contentType,names);
+		}
+		
+		private void setFields(final GetterAndSetter[] fields) {
+			final char[][]	prefixes = new char[fields.length][];
+			
+			for (int index = 0; index < fields.length; index++) {	// Build "{"name": and ,"name": constants
+				final char[]	name = fields[index].name, prefix = new char[name.length + 4];
+				
+				prefix[0] = index == 0 ? OBJECT_STARTER : LIST_SPLITTER;
+				prefix[1] = STRING_TERMINATOR;
+				System.arraycopy(name,0,prefix,2,name.length);
+				prefix[prefix.length - 2] = STRING_TERMINATOR;
+				prefix[prefix.length - 1] = NAME_SPLITTER;
+				prefixes[index] = prefix;
+			}
+			this.prefixes = prefixes;
+			this.fields = fields;
+		}
+
+		@Override
+		public void serialize(final T instance, final CharacterTarget writer) throws PrintingException {
+			if (writer == null) {
+				throw new NullPointerException("Writer to serialize can't be null"); 
+			}
+			else if (instance == null) {
+				writer.put(FOR_NULL);
+			}
+			else {
+				final GetterAndSetter[]	fields = this.fields;
+				final char[][]			prefixes = this.prefixes;
+				final char[]			buffer = forNumbers.allocate();
+				
+				try{for (int index = 0; index < fields.length; index++) {
+						final GetterAndSetter	field = fields[index];
+						
+						writer.put(prefixes[index]);
+						switch (field.getTypeSort()) {
+							case PRIMITIVE_BOOLEAN	:
+								printBoolean(field.getBoolean(instance),writer);
+								break;
+							case PRIMITIVE_BYTE		: case PRIMITIVE_SHORT	: case PRIMITIVE_INT	: case PRIMITIVE_LONG	:
+								printLong(field.getLong(instance),buffer,writer);
+								break;
+							case PRIMITIVE_FLOAT	: case PRIMITIVE_DOUBLE	:
+								printDouble(field.getDouble(instance),buffer,writer);
+								break;
+							default :
+								field.getSerializer().serialize(field.getValue(instance),writer);
+						}
+					}
+					writer.put(OBJECT_TERMINATOR);
+				} catch (PrintingException e) {
+					throw e;
+				} catch (ContentException e) {
+					throw new PrintingException(e.getLocalizedMessage(),e);
+				} finally {
+					forNumbers.free(buffer);
+				}
+			}
+		}
+
+		@Override
+		public int serialize(final T instance, final char[] content, final int from, final boolean reallyFilled) {
+			if (content == null || content.length == 0) {
+				throw new IllegalArgumentException("Content to serialize can't be null or empty array"); 
+			}
+			else if (from < 0) {
+				throw new IllegalArgumentException("From position ["+from+"] can't be negative"); 
+			}
+			else if (instance == null) {
+				return printCharArray(content,from,FOR_NULL,reallyFilled);
+			}
+			else {
+				final GetterAndSetter[]	fields = this.fields;
+				final char[][]			prefixes = this.prefixes;
+				final int				to = content.length;
+				int						newFrom = from;
+				boolean					needFill = reallyFilled;
+				
+				try{for (int index = 0; index < fields.length; index++) {
+						final GetterAndSetter	field = fields[index];
+						final char[]			prefix = prefixes[index];
+						
+						if (newFrom + prefix.length <= to) {
+							if (needFill) {
+								System.arraycopy(prefix,0,content,newFrom,prefix.length);
+							}
+						}
+						else {
+							needFill = false;
+						}
+						newFrom += prefix.length;
+						
+						switch (field.getTypeSort()) {
+							case PRIMITIVE_BOOLEAN	:
+								newFrom = printBoolean(field.getBoolean(instance),content,newFrom,needFill);
+								break;
+							case PRIMITIVE_BYTE		: case PRIMITIVE_SHORT	: case PRIMITIVE_INT	: case PRIMITIVE_LONG	:
+								newFrom = printLong(field.getLong(instance),content,newFrom,needFill);
+								break;
+							case PRIMITIVE_FLOAT	: case PRIMITIVE_DOUBLE	:
+								newFrom = printDouble(field.getDouble(instance),content,newFrom,needFill);
+								break;
+							default :
+								newFrom = field.getSerializer().serialize(field.getValue(instance),content,newFrom,needFill);
+						}
+						if (newFrom < 0) {
+							newFrom = -newFrom;
+							needFill = false;
+						}
+					}
+				} catch (ContentException e) {
+					throw new IllegalArgumentException(e.getLocalizedMessage(),e);
+				}
+				if (newFrom < to) {
+					if (needFill) {
+						content[newFrom] = OBJECT_TERMINATOR;
+					}
+				}
+				else {
+					needFill = false;
+				}
+				newFrom++;
+				return needFill ? newFrom : -newFrom;
+			}
+		}
+
+		@Override
+		public void serialize(final T instance, final JsonStaxPrinter writer) throws PrintingException {
+			try{if (writer == null) {
+					throw new NullPointerException("Writer to serialize can't be null"); 
+				}
+				else if (instance == null) {
+					writer.nullValue();
+				}
+				else {
+					final GetterAndSetter[]	fields = this.fields;
+					
+					writer.startObject();
+					for (int index = 0; index < fields.length; index++) {
+						final GetterAndSetter	field = fields[index];
+						
+						if (index > 0) {
+							writer.splitter();
+						}
+						writer.name(field.name,0,field.name.length);
+						switch (field.getTypeSort()) {
+							case PRIMITIVE_BOOLEAN	:
+								printBoolean(field.getBoolean(instance),writer);
+								break;
+							case PRIMITIVE_BYTE		: case PRIMITIVE_SHORT	: case PRIMITIVE_INT	: case PRIMITIVE_LONG	:
+								printLong(field.getLong(instance),writer);
+								break;
+							case PRIMITIVE_FLOAT	: case PRIMITIVE_DOUBLE	:
+								printDouble(field.getDouble(instance),writer);
+								break;
+							default :
+								field.getSerializer().serialize(field.getValue(instance),writer);
+						}
+					}
+					writer.endObject();
+				}
+			} catch (PrintingException e) {
+				throw e;
+			} catch (ContentException | IOException e) {
+				throw new PrintingException(e.getLocalizedMessage(),e);
+			}
+		}
+	}
+
 	private static void printBoolean(final boolean value, final CharacterTarget target) throws PrintingException {
 		target.put(value ? TRUE_VALUE : FALSE_VALUE);
 	}
@@ -26,6 +26,7 @@ import chav1961.purelib.enumerations.ContinueMode;
 import chav1961.purelib.enumerations.NodeEnterMode;
 import chav1961.purelib.i18n.internal.PureLibLocalizer;
 import chav1961.purelib.json.interfaces.JsonNodeType;
+import chav1961.purelib.json.interfaces.JsonStaxFilter;
 import chav1961.purelib.json.interfaces.JsonTreeWalkerCallback;
 import chav1961.purelib.sql.SQLUtils;
 import chav1961.purelib.streams.JsonStaxParser;
@@ -39,10 +40,11 @@ import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
  * <li>{@linkplain #walkDownJson(JsonNode, JsonTreeWalkerCallback)} method to walk JSON tree from it's root or any subtree</li>
  * </ul>
  * <p>This class also contains a builder to create <i>XPath-styled</i> filter for use in conjunction with {@linkplain #walkDownJson(JsonNode, JsonTreeWalkerCallback)} method to simplify JSON tree walking.
- * Syntax of the filter see {@linkplain #filterOf(String, JsonTreeWalkerCallback)} method description</p> 
+ * Syntax of the filter see {@linkplain #filterOf(String, JsonTreeWalkerCallback)} method description. The same filter can also be applied to the stream of
+ * {@linkplain JsonStaxParser} lexemas without loading the content into tree (see {@linkplain #staxFilterOf(String, JsonTreeWalkerCallback)} method)</p> 
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.4
- * @last.update 0.0.5
+ * @last.update 0.0.9
  */
 public class JsonUtils {
 	public static final String		JSON_TYPE_BOOLEAN = "bool";
@@ -158,58 +160,8 @@ public class JsonUtils {
 		else {
 			final List<Object>	path = new ArrayList<>();
 			
-			return Utils.<JsonNode>walkDownEverywhere(root, (ref,node)->{
-				switch (ref) {
-					case CHILDREN	:
-						if (node.getType() == JsonNodeType.JsonObject || node.getType() == JsonNodeType.JsonArray) {
-							return node.children();
-						}
-						else {
-							return EMPTY_LIST;
-						}
-					case PARENT		:
-						return EMPTY_LIST;
-					case SIBLINGS	:
-						return EMPTY_LIST;
-					default:
-						throw new UnsupportedOperationException("Reference type ["+ref+"] is not supported yet");
-				}
-			}
-			, (mode,node)->{
-				switch (mode) {
-					case ENTER	:
-						if (node.hasName()) {
-							if (node.getType() == JsonNodeType.JsonArray) {
-								path.add(new ArrayRoot(node.getName()));
-							}
-							else if (node.getType() == JsonNodeType.JsonObject) {
-								path.add(new ObjectRoot(node.getName()));
-							}
-							else {
-								path.add(node.getName());
-							}
-						}
-						else {
-							if (node.getType() == JsonNodeType.JsonArray) {
-								path.add(new ArrayRoot());
-							}
-							else if (!path.isEmpty() && (path.get(path.size()-1) instanceof ArrayRoot)) {
-								path.add(((ArrayRoot)path.get(path.size()-1)).incrementAndGet());	// generate next array index!
-							}
-							else {
-								path.add(node);
-							}
-						}
-						return callback.process(mode, node, path.toArray(new Object[path.size()])); 
-					case EXIT	:
-						final Object[]	currentPath = path.toArray(new Object[path.size()]);
-						
-						path.remove(path.size()-1);
-						return callback.process(mode, node, currentPath); 
-					default:
-						throw new UnsupportedOperationException("Enter mode ["+mode+"] is not supported yet");
-				}
-			});
+			path.add(buildPathItem(root,path));
+			return walkDownJson(root,path,callback);
 		}
 	}
 	
@@ -654,19 +606,116 @@ public class JsonUtils {
 			throw new NullPointerException("Nested callback can't be null");
 		}
 		else {
-			final List<Lexema>	lex = new ArrayList<>();
-			final SyntaxTree	root = new SyntaxTree(0,Command.TEMPLATE,0,null);
-			
-			buildLexemaList(CharUtils.terminateAndConvert2CharArray(expression,'\0'),lex);
-			
-			final Lexema[]		lexArray = lex.toArray(new Lexema[lex.size()]);
-			final int			lastLex = buildJsonPath(lexArray,0,root);
+			return new XPathStyledFilter(compileFilter(expression),nested);
+		}
+	}
 
-			if (lexArray[lastLex].type != LexemaType.EOF) {
-				throw new SyntaxException(0, lexArray[lastLex].pos, URIUtils.appendFragment2URI(PureLibLocalizer.LOCALIZER_SCHEME_URI, SyntaxException.SE_UNPARSED_TAIL)); 
+	/**
+	 * <p>Build filter for the stream of {@linkplain JsonStaxParser} lexemas. Syntax of the expression is the same as {@linkplain #filterOf(String, JsonTreeWalkerCallback)} method
+	 * uses, and nested callback is called with the same nodes and paths as the callback built by the {@linkplain #filterOf(String, JsonTreeWalkerCallback)} method does.
+	 * Difference is that filter doesn't load the whole JSON content into {@linkplain JsonNode} tree. It keeps a chain of the <i>empty</i> (without children) nodes from the root
+	 * to the current lexema only, skips all the subtrees which can't match the expression without building them, and loads subtrees matched only. Use it to extract a few
+	 * fields from huge JSON content.</p>
+	 * <p>Conditional filters ('#'&lt;filter&gt;) can refer to any node of the content (for example, to siblings that follows the current node), so expressions with them
+	 * are processed by loading the whole content into the tree.</p>
+	 * <p>Filter built is not reentrant and doesn't be used recursively, but it is reusable and doesn't need re-creation for subsequential calls</p>
+	 * @param expression expression to filter content
+	 * @param nested nested callback will be called on all the nodes successfully filtered by the filter expressions
+	 * @return filter. Can't be null. Pass {@linkplain JsonStaxParser} to it's {@linkplain JsonStaxFilter#filter(JsonStaxParser)} method
+	 * @throws IllegalArgumentException expression is null or empty
+	 * @throws NullPointerException nested callback is null
+	 * @throws SyntaxException any syntax errors in the expression
+	 * @see #filterOf(String, JsonTreeWalkerCallback)
+	 * @since 0.0.9
+	 */
+	public static JsonStaxFilter staxFilterOf(final String expression, final JsonTreeWalkerCallback nested) throws IllegalArgumentException, NullPointerException, SyntaxException {
+		if (expression == null || expression.isEmpty()) {
+			throw new IllegalArgumentException("String expression can't be null or empty");
+		}
+		else if (nested == null) {
+			throw new NullPointerException("Nested callback can't be null");
+		}
+		else {
+			return new XPathStyledStaxFilter(compileFilter(expression),nested);
+		}
+	}
+	
+	private static SyntaxTree compileFilter(final String expression) throws SyntaxException {
+		final List<Lexema>	lex = new ArrayList<>();
+		final SyntaxTree	root = new SyntaxTree(0,Command.TEMPLATE,0,null);
+		
+		buildLexemaList(CharUtils.terminateAndConvert2CharArray(expression,'\0'),lex);
+		
+		final Lexema[]		lexArray = lex.toArray(new Lexema[lex.size()]);
+		final int			lastLex = buildJsonPath(lexArray,0,root);
+
+		if (lexArray[lastLex].type != LexemaType.EOF) {
+			throw new SyntaxException(0, lexArray[lastLex].pos, URIUtils.appendFragment2URI(PureLibLocalizer.LOCALIZER_SCHEME_URI, SyntaxException.SE_UNPARSED_TAIL)); 
+		}
+		else {
+			return root;
+		}
+	}
+
+	private static ContinueMode walkDownJson(final JsonNode root, final List<Object> path, final JsonTreeWalkerCallback callback) throws ContentException {
+		return Utils.<JsonNode>walkDownEverywhere(root, (ref,node)->{
+			switch (ref) {
+				case CHILDREN	:
+					if (node.getType() == JsonNodeType.JsonObject || node.getType() == JsonNodeType.JsonArray) {
+						return node.children();
+					}
+					else {
+						return EMPTY_LIST;
+					}
+				case PARENT		:
+					return EMPTY_LIST;
+				case SIBLINGS	:
+					return EMPTY_LIST;
+				default:
+					throw new UnsupportedOperationException("Reference type ["+ref+"] is not supported yet");
+			}
+		}
+		, (mode,node)->{
+			switch (mode) {
+				case ENTER	:
+					if (node != root) {	// Path item for the root is already in the path
+						path.add(buildPathItem(node,path));
+					}
+					return callback.process(mode, node, path.toArray(new Object[path.size()])); 
+				case EXIT	:
+					final Object[]	currentPath = path.toArray(new Object[path.size()]);
+					
+					if (node != root) {
+						path.remove(path.size()-1);
+					}
+					return callback.process(mode, node, currentPath); 
+				default:
+					throw new UnsupportedOperationException("Enter mode ["+mode+"] is not supported yet");
+			}
+		});
+	}
+
+	private static Object buildPathItem(final JsonNode node, final List<Object> path) {
+		if (node.hasName()) {
+			if (node.getType() == JsonNodeType.JsonArray) {
+				return new ArrayRoot(node.getName());
+			}
+			else if (node.getType() == JsonNodeType.JsonObject) {
+				return new ObjectRoot(node.getName());
 			}
 			else {
-				return new XPathStyledFilter(root,nested);
+				return node.getName();
+			}
+		}
+		else {
+			if (node.getType() == JsonNodeType.JsonArray) {
+				return new ArrayRoot();
+			}
+			else if (!path.isEmpty() && (path.get(path.size()-1) instanceof ArrayRoot)) {
+				return ((ArrayRoot)path.get(path.size()-1)).incrementAndGet();	// generate next array index!
+			}
+			else {
+				return node;
 			}
 		}
 	}
@@ -1025,6 +1074,215 @@ objLoop:		while (parser.hasNext()) {
 		}
 	}
 	
+	private static class XPathStyledStaxFilter implements JsonStaxFilter {
+		private final List<JsonNode>			stack = new ArrayList<>();
+		private final List<Object>				path = new ArrayList<>();
+		private final SyntaxTree				root;
+		private final JsonTreeWalkerCallback	nested;
+		private final boolean					hasConditions;
+
+		private XPathStyledStaxFilter(final SyntaxTree root, final JsonTreeWalkerCallback nested) {
+			boolean	conditions = false;
+			
+			for (SyntaxTree item : root.children) {
+				if (item.type == Command.TEMPLATE_ITEM && ((TemplateType)item.cargo) == TemplateType.COND_FILTER) {
+					conditions = true;
+					break;
+				}
+			}
+			this.root = root;
+			this.nested = nested;
+			this.hasConditions = conditions;
+		}
+		
+		@Override
+		public ContinueMode filter(final JsonStaxParser parser) throws ContentException, IOException {
+			if (parser == null) {
+				throw new NullPointerException("Json parser can't be null");  
+			}
+			else if (parser.current() != JsonStaxParserLexType.START_ARRAY && parser.current() != JsonStaxParserLexType.START_OBJECT) {
+				throw new SyntaxException(parser.row(),parser.col(),"Neither '[' nor '{' in the input JSON"); 
+			}
+			else if (hasConditions) {	// Conditions can refer to any node, so the whole tree is required
+				return walkDownJson(loadJsonTree(parser),new XPathStyledFilter(root,nested));
+			}
+			else {
+				try{return filterValue(parser,null);
+				} finally {
+					stack.clear();
+					path.clear();
+				}
+			}
+		}
+		
+		private ContinueMode filterValue(final JsonStaxParser parser, final String name) throws ContentException, IOException {
+			final JsonNode	node = createEmptyNode(parser);
+			
+			if (name != null) {
+				node.setName(name);
+			}
+			stack.add(node);
+			path.add(buildPathItem(node,path));
+			
+			try{final ComparisonType	ct = isPathMatches(root,stack.toArray(new JsonNode[stack.size()]),path.toArray(new Object[path.size()]));
+				
+				switch (ct) {
+					case TRUE			:
+						if (node.getType() == JsonNodeType.JsonArray || node.getType() == JsonNodeType.JsonObject) {
+							internalLoadJsonTree(parser,node);
+						}
+						else if (parser.hasNext()) {
+							parser.next();
+						}
+						return walkDownJson(node,path,nested);
+					case POSSIBLY_TRUE	:
+						if (node.getType() == JsonNodeType.JsonArray) {
+							return filterArray(parser);
+						}
+						else if (node.getType() == JsonNodeType.JsonObject) {
+							return filterObject(parser);
+						}
+					case FALSE			:
+						skipValue(parser);
+						return ContinueMode.CONTINUE;
+					default :
+						throw new UnsupportedOperationException("Comparison type ["+ct+"] is not supported yet");
+				}
+			} finally {
+				stack.remove(stack.size()-1);
+				path.remove(path.size()-1);
+			}
+		}
+
+		private ContinueMode filterArray(final JsonStaxParser parser) throws ContentException, IOException {
+			ContinueMode	rc = ContinueMode.CONTINUE;
+			
+			if (parser.hasNext() && parser.next() != JsonStaxParserLexType.END_ARRAY) {
+				for (;;) {
+					if (rc == ContinueMode.CONTINUE) {
+						if ((rc = filterValue(parser,null)) == ContinueMode.STOP) {
+							return rc;
+						}
+					}
+					else {	// Skip the rest of siblings
+						skipValue(parser);
+					}
+					if (parser.current() == JsonStaxParserLexType.LIST_SPLITTER && parser.hasNext()) {
+						parser.next();
+					}
+					else {
+						break;
+					}
+				}
+			}
+			if (parser.current() == JsonStaxParserLexType.END_ARRAY) {
+				if (parser.hasNext()) {
+					parser.next();
+				}
+				return ContinueMode.CONTINUE;
+			}
+			else {
+				throw new SyntaxException(parser.row(), parser.col(), URIUtils.appendFragment2URI(PureLibLocalizer.LOCALIZER_SCHEME_URI, SyntaxException.SE_MISSING_CLOSE_SQUARE_BRACKET)); 
+			}
+		}
+
+		private ContinueMode filterObject(final JsonStaxParser parser) throws ContentException, IOException {
+			ContinueMode	rc = ContinueMode.CONTINUE;
+			
+			if (parser.hasNext() && parser.next() != JsonStaxParserLexType.END_OBJECT) {
+				for (;;) {
+					if (parser.current() != JsonStaxParserLexType.NAME) {
+						throw new SyntaxException(parser.row(),parser.col(),"Missing name"); 
+					}
+					final String	name = parser.name();
+					
+					if (!parser.hasNext() || parser.next() != JsonStaxParserLexType.NAME_SPLITTER) {
+						throw new SyntaxException(parser.row(), parser.col(), URIUtils.appendFragment2URI(PureLibLocalizer.LOCALIZER_SCHEME_URI, SyntaxException.SE_MISSING_COLON)); 
+					}
+					else if (!parser.hasNext()) {
+						throw new SyntaxException(parser.row(),parser.col(),"Missing value"); 
+					}
+					parser.next();
+					if (rc == ContinueMode.CONTINUE) {
+						if ((rc = filterValue(parser,name)) == ContinueMode.STOP) {
+							return rc;
+						}
+					}
+					else {	// Skip the rest of siblings
+						skipValue(parser);
+					}
+					if (parser.current() == JsonStaxParserLexType.LIST_SPLITTER && parser.hasNext()) {
+						parser.next();
+					}
+					else {
+						break;
+					}
+				}
+			}
+			if (parser.current() == JsonStaxParserLexType.END_OBJECT) {
+				if (parser.hasNext()) {
+					parser.next();
+				}
+				return ContinueMode.CONTINUE;
+			}
+			else {
+				throw new SyntaxException(parser.row(), parser.col(), URIUtils.appendFragment2URI(PureLibLocalizer.LOCALIZER_SCHEME_URI, SyntaxException.SE_MISSING_CLOSE_FIGURE_BRACKET)); 
+			}
+		}
+		
+		private static JsonNode createEmptyNode(final JsonStaxParser parser) throws SyntaxException, IOException {
+			switch (parser.current()) {
+				case START_ARRAY	:
+					return new JsonNode(JsonNodeType.JsonArray);
+				case START_OBJECT	:
+					return new JsonNode(JsonNodeType.JsonObject);
+				case BOOLEAN_VALUE	:
+					return new JsonNode(parser.booleanValue());
+				case INTEGER_VALUE	:
+					return new JsonNode(parser.intValue());
+				case REAL_VALUE		:
+					return new JsonNode(parser.realValue());
+				case STRING_VALUE	:
+					return new JsonNode(parser.stringValue());
+				case NULL_VALUE		:
+					return new JsonNode();
+				default :
+					throw new SyntaxException(parser.row(),parser.col(),"Missing value"); 
+			}
+		}
+		
+		private static void skipValue(final JsonStaxParser parser) throws SyntaxException, IOException {
+			switch (parser.current()) {
+				case START_ARRAY : case START_OBJECT :
+					int		depth = 1;
+					
+					while (depth > 0 && parser.hasNext()) {
+						switch (parser.next()) {
+							case START_ARRAY : case START_OBJECT	:
+								depth++;
+								break;
+							case END_ARRAY : case END_OBJECT		:
+								depth--;
+								break;
+							default :
+								break;
+						}
+					}
+					if (depth > 0) {
+						throw new SyntaxException(parser.row(),parser.col(),"Unterminated JSON content"); 
+					}
+					break;
+				case BOOLEAN_VALUE : case INTEGER_VALUE : case REAL_VALUE : case STRING_VALUE : case NULL_VALUE :
+					break;
+				default :
+					throw new SyntaxException(parser.row(),parser.col(),"Missing value"); 
+			}
+			if (parser.hasNext()) {
+				parser.next();
+			}
+		}
+	}
+	
 	static int buildLexemaList(final char[] source, final List<Lexema> result) throws SyntaxException {
 		final double[]		forDouble = new double[2];
 		final long[]		forLong = new long[2];
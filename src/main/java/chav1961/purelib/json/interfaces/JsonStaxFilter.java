@@ -0,0 +1,28 @@
+package chav1961.purelib.json.interfaces;
+
+import java.io.IOException;
+
+import chav1961.purelib.basic.exceptions.ContentException;
+import chav1961.purelib.enumerations.ContinueMode;
+import chav1961.purelib.json.JsonUtils;
+import chav1961.purelib.streams.JsonStaxParser;
+
+/**
+ * <p>This interface describes compiled <i>XPath-styled</i> filter to apply to the stream of {@linkplain JsonStaxParser} lexemas. It's instances
+ * can be built by the {@linkplain JsonUtils#staxFilterOf(String, JsonTreeWalkerCallback)} method.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+@FunctionalInterface
+public interface JsonStaxFilter {
+	/**
+	 * <p>Filter JSON content from the parser. Parser must be pointed to any JSON lexema into it. Call parser.next() method before pass it to the
+	 * method, if you doesn't call it earlier. After successful completion parser will be pointed to the lexema after the JSON content processed.</p>
+	 * @param parser parser to get content from. Can't be null
+	 * @return last {@linkplain ContinueMode} code from the nested callback
+	 * @throws NullPointerException parser is null
+	 * @throws ContentException on any syntax errors in the input or any processing errors in the nested callback
+	 * @throws IOException on any I/O errors
+	 */
+	ContinueMode filter(JsonStaxParser parser) throws ContentException, IOException;
+}
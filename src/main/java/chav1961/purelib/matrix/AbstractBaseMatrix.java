@@ -511,7 +511,7 @@ public abstract class AbstractBaseMatrix<T extends BaseMatrix<?>> implements Bas
 			throw new IllegalStateException("Attempt to call method after calling close()");
 		}
 		else {
-			return mulKroneker(another);
+			return mulKronekerInternal(another);
 		}
 	}
 
@@ -524,7 +524,7 @@ public abstract class AbstractBaseMatrix<T extends BaseMatrix<?>> implements Bas
 			throw new IllegalStateException("Attempt to call method after calling close()");
 		}
 		else {
-			return mulKronekerRev(another);
+			return mulKronekerRevInternal(another);
 		}
 	}
 
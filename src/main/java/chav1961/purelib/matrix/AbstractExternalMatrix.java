@@ -0,0 +1,228 @@
+package chav1961.purelib.matrix;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import chav1961.purelib.basic.PureLibSettings;
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+
+/**
+ * <p>This is base class to implement {@linkplain BaseMatrix} functionality for {@linkplain StoreType#EXTERNAL} matrices. Matrix content is
+ * stored by rows in the temporary file, and is never loaded into memory entirely. All the operations process the content <i>tile by tile</i>.
+ * Every tile is a {@linkplain java.nio.MappedByteBuffer} for the band of the matrix rows, so size of the matrix is limited by the disk space
+ * only. Default tile size is about {@value #TILE_SIZE} bytes, but every tile contains at least one matrix row.</p>
+ * <p>Temporary file is removed on {@linkplain #close()} call or on garbage collection of the matrix.</p>
+ * @param <T> matrix type.
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public abstract class AbstractExternalMatrix<T extends BaseMatrix<?>> extends AbstractBaseMatrix<T> {
+	/**
+	 * <p>Default tile size (in bytes).</p>
+	 */
+	public static final int			TILE_SIZE = 1 << 22;
+
+	private final FileChannel		channel;
+	private final Cleaner.Cleanable	cc;
+	private final int				itemSize;
+	private final int				rowSize;
+	private final int				tileSize;
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param contentType matrix content type. Can't be null
+	 * @param width matrix width. Must be greater than 0
+	 * @param height matrix height. Must be greater than 0
+	 * @param itemSize size of one matrix element in bytes. Must be greater than 0
+	 * @param tileSize desired tile size in bytes. Must be greater than 0
+	 * @throws IOException on any I/O errors on temporary file creation
+	 */
+	protected AbstractExternalMatrix(final ContentType contentType, final int width, final int height, final int itemSize, final int tileSize) throws IOException {
+		super(contentType, FormatType.PLAIN, StoreType.EXTERNAL, width, height);
+		if (itemSize <= 0) {
+			throw new IllegalArgumentException("Item size ["+itemSize+"] must be greater than 0");
+		}
+		else if (tileSize <= 0) {
+			throw new IllegalArgumentException("Tile size ["+tileSize+"] must be greater than 0");
+		}
+		else if (1L * itemSize * width > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Matrix width ["+width+"] is too long to store it");
+		}
+		else {
+			final File				f = File.createTempFile("purelib", ".mat");
+			final RandomAccessFile	raf = new RandomAccessFile(f, "rw");
+
+			raf.setLength(1L * itemSize * width * height);
+			this.cc = PureLibSettings.COMMON_CLEANER.register(this, ()->{
+								try {
+									raf.close();
+								} catch (IOException e) {
+								}
+								f.delete();
+							});
+			this.channel = raf.getChannel();
+			this.itemSize = itemSize;
+			this.rowSize = itemSize * width;
+			this.tileSize = tileSize;
+		}
+	}
+
+	@Override
+	public void close() throws CalculationException {
+		super.close();
+		cc.clean();
+	}
+
+	/**
+	 * <p>Tile processing callback</p>
+	 */
+	@FunctionalInterface
+	protected static interface TileCallback {
+		/**
+		 * <p>Process tile</p>
+		 * @param fromRow first matrix row in the tile
+		 * @param rows number of matrix rows in the tile
+		 * @param tile tile content. Position of the buffer is 0, limit is rows * row size
+		 * @throws IOException on any I/O errors
+		 * @throws CalculationException on any calculation errors
+		 */
+		void process(int fromRow, int rows, ByteBuffer tile) throws IOException, CalculationException;
+	}
+
+	/**
+	 * <p>Get matrix element size</p>
+	 * @return matrix element size in bytes
+	 */
+	protected int getItemSize() {
+		return itemSize;
+	}
+
+	/**
+	 * <p>Get desired tile size</p>
+	 * @return desired tile size in bytes
+	 */
+	protected int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * <p>Get number of rows in the tile</p>
+	 * @return number of rows in the tile. Always greater than 0
+	 */
+	protected int getRowsPerTile() {
+		return getRowsPerTile(getWidth());
+	}
+
+	/**
+	 * <p>Get number of rows in the tile for the given matrix width.</p>
+	 * @param width matrix width
+	 * @return number of rows in the tile. Always greater than 0
+	 */
+	protected int getRowsPerTile(final int width) {
+		return Math.max(1, Math.min(getHeight(), tileSize / Math.max(1, itemSize * width)));
+	}
+
+	/**
+	 * <p>Map band of the matrix rows to memory.</p>
+	 * @param fromRow first row to map
+	 * @param rows number of rows to map
+	 * @return mapped content with native byte order
+	 * @throws IOException on any I/O errors
+	 */
+	protected ByteBuffer map(final int fromRow, final int rows) throws IOException {
+		return channel.map(MapMode.READ_WRITE, 1L * fromRow * rowSize, 1L * rows * rowSize).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * <p>Walk all the tiles in the row range.</p>
+	 * @param fromRow first row to walk
+	 * @param toRow row after the last row to walk
+	 * @param callback callback to process tiles
+	 * @throws IOException on any I/O errors
+	 * @throws CalculationException on any calculation errors
+	 */
+	protected void forEachTile(final int fromRow, final int toRow, final TileCallback callback) throws IOException, CalculationException {
+		final int	rowsPerTile = getRowsPerTile();
+
+		for (int row = fromRow; row < toRow; row += rowsPerTile) {
+			final int	rows = Math.min(rowsPerTile, toRow - row);
+
+			callback.process(row, rows, map(row, rows));
+		}
+	}
+
+	/**
+	 * <p>Copy all the content to another matrix with the same size and element size</p>
+	 * @param target matrix to copy content to
+	 * @throws IOException on any I/O errors
+	 */
+	protected void transferTo(final AbstractExternalMatrix<?> target) throws IOException {
+		final long	size = 1L * rowSize * getHeight();
+
+		for (long position = 0; position < size; ) {
+			position += channel.transferTo(position, size - position, target.channel.position(position));
+		}
+	}
+
+	/**
+	 * <p>Copy rectangular area of the matrix content to another matrix with the same element size</p>
+	 * @param piece area of the current matrix to copy
+	 * @param target matrix to copy content to
+	 * @param toX column of the target matrix to copy area to
+	 * @param toY row of the target matrix to copy area to
+	 * @throws IOException on any I/O errors
+	 */
+	protected void transferTo(final Piece piece, final AbstractExternalMatrix<?> target, final int toX, final int toY) throws IOException {
+		final long	size = 1L * itemSize * piece.getWidth();
+
+		for (int y = 0, maxY = piece.getHeight(); y < maxY; y++) {
+			final long	from = 1L * (piece.getY() + y) * rowSize + 1L * itemSize * piece.getX();
+			final long	to = 1L * (toY + y) * target.rowSize + 1L * itemSize * toX;
+
+			for (long position = 0; position < size; ) {
+				position += channel.transferTo(from + position, size - position, target.channel.position(to + position));
+			}
+		}
+	}
+
+	/**
+	 * <p>This class supports sequential access to the matrix content from the first element to the last one. It maps content tile by tile
+	 * on demand.</p>
+	 */
+	protected class TileCursor {
+		private ByteBuffer	tile = ByteBuffer.allocate(0);
+		private int			row = 0;
+
+		public TileCursor() {
+		}
+
+		/**
+		 * <p>Get buffer to read or write next value</p>
+		 * @return buffer positioned to the next value. Can't be null
+		 * @throws EOFException when all the matrix content was passed
+		 * @throws IOException on any I/O errors
+		 */
+		public ByteBuffer next() throws EOFException, IOException {
+			if (!tile.hasRemaining()) {
+				if (row >= getHeight()) {
+					throw new EOFException();
+				}
+				else {
+					final int	rows = Math.min(getRowsPerTile(), getHeight() - row);
+
+					tile = map(row, rows);
+					row += rows;
+				}
+			}
+			return tile;
+		}
+	}
+}
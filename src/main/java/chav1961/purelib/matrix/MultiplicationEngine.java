@@ -0,0 +1,986 @@
+package chav1961.purelib.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>This class contains cache-blocked multi-threaded multiplication engine for matrices with flat content. It is used by the
+ * {@linkplain AbstractBaseMatrix} children, but can be used by any other code. All matrices processed are stored by rows in one
+ * contiguous primitive array (element [x,y] of matrix with width W is located at the y*W+x index of the array). Complex
+ * matrices keep real and image parts of every element in the two adjacent array elements (real part of the element [x,y] is located
+ * at the 2*(y*W+x) index, image part - at the 2*(y*W+x)+1 index).</p>
+ * <p>Multiplication splits target matrix by row blocks and processes every block in the fork/join pool, so every row of the target
+ * matrix is always written by exactly one thread. Inside every block source matrices are walked by square tiles of
+ * {@value #TILE_SIZE} elements to keep working set in the processor cache. Small matrices (less than {@value #PARALLEL_THRESHOLD}
+ * multiply-add operations) are processed in the caller thread.</p>
+ * <p>Methods of the class don't check their arguments, because the caller ({@linkplain AbstractBaseMatrix}) already did it. Target
+ * array of all the multiplication methods must be filled with zeroes before call.</p>
+ * <p>This class is thread-safe.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class MultiplicationEngine {
+	/**
+	 * <p>Tile size (in matrix elements) to walk source matrices.</p>
+	 */
+	public static final int		TILE_SIZE = 64;
+
+	/**
+	 * <p>Minimal number of multiply-add operations to use fork/join pool.</p>
+	 */
+	public static final long	PARALLEL_THRESHOLD = 1L << 16;
+
+	static final ForkJoinPool 	forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	@FunctionalInterface
+	private interface RowsProcessor {
+		void process(int fromRow, int toRow);
+	}
+
+	private MultiplicationEngine() {}
+
+	/**
+	 * <p>Multiply bit matrices (target = left * right). Multiplication uses logical AND as multiply and logical OR as add operation</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiply(final boolean[] left, final int leftWidth, final int leftHeight, final boolean[] right, final int rightWidth, final boolean[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = y * leftWidth, targetRow = y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							if (left[leftRow + k]) {
+								final int	rightRow = k * rightWidth;
+
+								for (int x = x0; x < x1; x++) {
+									target[targetRow + x] |= right[rightRow + x];
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply int matrices (target = left * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiply(final int[] left, final int leftWidth, final int leftHeight, final int[] right, final int rightWidth, final int[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = y * leftWidth, targetRow = y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							final int	value = left[leftRow + k];
+
+							if (value != 0) {
+								final int	rightRow = k * rightWidth;
+
+								for (int x = x0; x < x1; x++) {
+									target[targetRow + x] += value * right[rightRow + x];
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply long matrices (target = left * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiply(final long[] left, final int leftWidth, final int leftHeight, final long[] right, final int rightWidth, final long[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = y * leftWidth, targetRow = y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							final long	value = left[leftRow + k];
+
+							if (value != 0) {
+								final int	rightRow = k * rightWidth;
+
+								for (int x = x0; x < x1; x++) {
+									target[targetRow + x] += value * right[rightRow + x];
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply float matrices (target = left * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiply(final float[] left, final int leftWidth, final int leftHeight, final float[] right, final int rightWidth, final float[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = y * leftWidth, targetRow = y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							final float	value = left[leftRow + k];
+
+							final int	rightRow = k * rightWidth;
+
+							for (int x = x0; x < x1; x++) {
+								target[targetRow + x] += value * right[rightRow + x];
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply double matrices (target = left * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiply(final double[] left, final int leftWidth, final int leftHeight, final double[] right, final int rightWidth, final double[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = y * leftWidth, targetRow = y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							final double	value = left[leftRow + k];
+
+							final int	rightRow = k * rightWidth;
+
+							for (int x = x0; x < x1; x++) {
+								target[targetRow + x] += value * right[rightRow + x];
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply complex float matrices (target = left * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyComplex(final float[] left, final int leftWidth, final int leftHeight, final float[] right, final int rightWidth, final float[] target) {
+		processRows(leftHeight, 4L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = 2 * y * leftWidth, targetRow = 2 * y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							final float	real = left[leftRow + 2 * k], image = left[leftRow + 2 * k + 1];
+
+							final int	rightRow = 2 * k * rightWidth;
+
+							for (int x = 2 * x0, maxX = 2 * x1; x < maxX; x += 2) {
+								final float	rightReal = right[rightRow + x], rightImage = right[rightRow + x + 1];
+
+								target[targetRow + x] += real * rightReal - image * rightImage;
+								target[targetRow + x + 1] += real * rightImage + image * rightReal;
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply complex double matrices (target = left * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyComplex(final double[] left, final int leftWidth, final int leftHeight, final double[] right, final int rightWidth, final double[] target) {
+		processRows(leftHeight, 4L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftWidth; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftWidth);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int y = fromRow; y < toRow; y++) {
+						final int	leftRow = 2 * y * leftWidth, targetRow = 2 * y * rightWidth;
+
+						for (int k = k0; k < k1; k++) {
+							final double	real = left[leftRow + 2 * k], image = left[leftRow + 2 * k + 1];
+
+							final int	rightRow = 2 * k * rightWidth;
+
+							for (int x = 2 * x0, maxX = 2 * x1; x < maxX; x += 2) {
+								final double	rightReal = right[rightRow + x], rightImage = right[rightRow + x + 1];
+
+								target[targetRow + x] += real * rightReal - image * rightImage;
+								target[targetRow + x + 1] += real * rightImage + image * rightReal;
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left bit matrix to right bit matrix (target = transpose(left) * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedLeft(final boolean[] left, final int leftWidth, final int leftHeight, final boolean[] right, final int rightWidth, final boolean[] target) {
+		processRows(leftWidth, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = k * leftWidth, rightRow = k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							if (left[leftRow + y]) {
+								final int	targetRow = y * rightWidth;
+
+								for (int x = x0; x < x1; x++) {
+									target[targetRow + x] |= right[rightRow + x];
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left int matrix to right int matrix (target = transpose(left) * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedLeft(final int[] left, final int leftWidth, final int leftHeight, final int[] right, final int rightWidth, final int[] target) {
+		processRows(leftWidth, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = k * leftWidth, rightRow = k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							final int	value = left[leftRow + y];
+
+							if (value != 0) {
+								final int	targetRow = y * rightWidth;
+
+								for (int x = x0; x < x1; x++) {
+									target[targetRow + x] += value * right[rightRow + x];
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left long matrix to right long matrix (target = transpose(left) * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedLeft(final long[] left, final int leftWidth, final int leftHeight, final long[] right, final int rightWidth, final long[] target) {
+		processRows(leftWidth, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = k * leftWidth, rightRow = k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							final long	value = left[leftRow + y];
+
+							if (value != 0) {
+								final int	targetRow = y * rightWidth;
+
+								for (int x = x0; x < x1; x++) {
+									target[targetRow + x] += value * right[rightRow + x];
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left float matrix to right float matrix (target = transpose(left) * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedLeft(final float[] left, final int leftWidth, final int leftHeight, final float[] right, final int rightWidth, final float[] target) {
+		processRows(leftWidth, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = k * leftWidth, rightRow = k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							final float	value = left[leftRow + y];
+
+							final int	targetRow = y * rightWidth;
+
+							for (int x = x0; x < x1; x++) {
+								target[targetRow + x] += value * right[rightRow + x];
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left double matrix to right double matrix (target = transpose(left) * right).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedLeft(final double[] left, final int leftWidth, final int leftHeight, final double[] right, final int rightWidth, final double[] target) {
+		processRows(leftWidth, 1L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = k * leftWidth, rightRow = k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							final double	value = left[leftRow + y];
+
+							final int	targetRow = y * rightWidth;
+
+							for (int x = x0; x < x1; x++) {
+								target[targetRow + x] += value * right[rightRow + x];
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left complex float matrix to right complex float matrix (target = transpose(left) * right). Transposition
+	 * doesn't make complex conjugation of the left matrix elements.</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyComplexTransposedLeft(final float[] left, final int leftWidth, final int leftHeight, final float[] right, final int rightWidth, final float[] target) {
+		processRows(leftWidth, 4L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = 2 * k * leftWidth, rightRow = 2 * k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							final float	real = left[leftRow + 2 * y], image = left[leftRow + 2 * y + 1];
+
+							final int	targetRow = 2 * y * rightWidth;
+
+							for (int x = 2 * x0, maxX = 2 * x1; x < maxX; x += 2) {
+								final float	rightReal = right[rightRow + x], rightImage = right[rightRow + x + 1];
+
+								target[targetRow + x] += real * rightReal - image * rightImage;
+								target[targetRow + x + 1] += real * rightImage + image * rightReal;
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply transposed left complex double matrix to right complex double matrix (target = transpose(left) * right). Transposition
+	 * doesn't make complex conjugation of the left matrix elements.</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and target matrix height)
+	 * @param leftHeight left matrix height (and right matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyComplexTransposedLeft(final double[] left, final int leftWidth, final int leftHeight, final double[] right, final int rightWidth, final double[] target) {
+		processRows(leftWidth, 4L * leftWidth * leftHeight * rightWidth, (fromRow, toRow)->{
+			for (int k0 = 0; k0 < leftHeight; k0 += TILE_SIZE) {
+				final int	k1 = Math.min(k0 + TILE_SIZE, leftHeight);
+
+				for (int x0 = 0; x0 < rightWidth; x0 += TILE_SIZE) {
+					final int	x1 = Math.min(x0 + TILE_SIZE, rightWidth);
+
+					for (int k = k0; k < k1; k++) {
+						final int	leftRow = 2 * k * leftWidth, rightRow = 2 * k * rightWidth;
+
+						for (int y = fromRow; y < toRow; y++) {
+							final double	real = left[leftRow + 2 * y], image = left[leftRow + 2 * y + 1];
+
+							final int	targetRow = 2 * y * rightWidth;
+
+							for (int x = 2 * x0, maxX = 2 * x1; x < maxX; x += 2) {
+								final double	rightReal = right[rightRow + x], rightImage = right[rightRow + x + 1];
+
+								target[targetRow + x] += real * rightReal - image * rightImage;
+								target[targetRow + x + 1] += real * rightImage + image * rightReal;
+							}
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left bit matrix to transposed right bit matrix (target = left * transpose(right)).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedRight(final boolean[] left, final int leftWidth, final int leftHeight, final boolean[] right, final int rightHeight, final boolean[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = y * leftWidth, targetRow = y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = x * leftWidth;
+						boolean		sum = false;
+
+						for (int k = 0; k < leftWidth && !sum; k++) {
+							sum = left[leftRow + k] & right[rightRow + k];
+						}
+						target[targetRow + x] = sum;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left int matrix to transposed right int matrix (target = left * transpose(right)).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedRight(final int[] left, final int leftWidth, final int leftHeight, final int[] right, final int rightHeight, final int[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = y * leftWidth, targetRow = y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = x * leftWidth;
+						int			sum = 0;
+
+						for (int k = 0; k < leftWidth; k++) {
+							sum += left[leftRow + k] * right[rightRow + k];
+						}
+						target[targetRow + x] = sum;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left long matrix to transposed right long matrix (target = left * transpose(right)).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedRight(final long[] left, final int leftWidth, final int leftHeight, final long[] right, final int rightHeight, final long[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = y * leftWidth, targetRow = y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = x * leftWidth;
+						long		sum = 0;
+
+						for (int k = 0; k < leftWidth; k++) {
+							sum += left[leftRow + k] * right[rightRow + k];
+						}
+						target[targetRow + x] = sum;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left float matrix to transposed right float matrix (target = left * transpose(right)).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedRight(final float[] left, final int leftWidth, final int leftHeight, final float[] right, final int rightHeight, final float[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = y * leftWidth, targetRow = y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = x * leftWidth;
+						float		sum = 0;
+
+						for (int k = 0; k < leftWidth; k++) {
+							sum += left[leftRow + k] * right[rightRow + k];
+						}
+						target[targetRow + x] = sum;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left double matrix to transposed right double matrix (target = left * transpose(right)).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyTransposedRight(final double[] left, final int leftWidth, final int leftHeight, final double[] right, final int rightHeight, final double[] target) {
+		processRows(leftHeight, 1L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = y * leftWidth, targetRow = y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = x * leftWidth;
+						double		sum = 0;
+
+						for (int k = 0; k < leftWidth; k++) {
+							sum += left[leftRow + k] * right[rightRow + k];
+						}
+						target[targetRow + x] = sum;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left complex float matrix to transposed right complex float matrix (target = left * transpose(right)). Transposition
+	 * doesn't make complex conjugation of the right matrix elements.</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyComplexTransposedRight(final float[] left, final int leftWidth, final int leftHeight, final float[] right, final int rightHeight, final float[] target) {
+		processRows(leftHeight, 4L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = 2 * y * leftWidth, targetRow = 2 * y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = 2 * x * leftWidth;
+						float		sumReal = 0, sumImage = 0;
+
+						for (int k = 0, maxK = 2 * leftWidth; k < maxK; k += 2) {
+							final float	real = left[leftRow + k], image = left[leftRow + k + 1];
+							final float	rightReal = right[rightRow + k], rightImage = right[rightRow + k + 1];
+
+							sumReal += real * rightReal - image * rightImage;
+							sumImage += real * rightImage + image * rightReal;
+						}
+						target[targetRow + 2 * x] = sumReal;
+						target[targetRow + 2 * x + 1] = sumImage;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply left complex double matrix to transposed right complex double matrix (target = left * transpose(right)). Transposition
+	 * doesn't make complex conjugation of the right matrix elements.</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix width)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightHeight right matrix height (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplyComplexTransposedRight(final double[] left, final int leftWidth, final int leftHeight, final double[] right, final int rightHeight, final double[] target) {
+		processRows(leftHeight, 4L * leftWidth * leftHeight * rightHeight, (fromRow, toRow)->{
+			for (int x0 = 0; x0 < rightHeight; x0 += TILE_SIZE) {
+				final int	x1 = Math.min(x0 + TILE_SIZE, rightHeight);
+
+				for (int y = fromRow; y < toRow; y++) {
+					final int	leftRow = 2 * y * leftWidth, targetRow = 2 * y * rightHeight;
+
+					for (int x = x0; x < x1; x++) {
+						final int	rightRow = 2 * x * leftWidth;
+						double		sumReal = 0, sumImage = 0;
+
+						for (int k = 0, maxK = 2 * leftWidth; k < maxK; k += 2) {
+							final double	real = left[leftRow + k], image = left[leftRow + k + 1];
+							final double	rightReal = right[rightRow + k], rightImage = right[rightRow + k + 1];
+
+							sumReal += real * rightReal - image * rightImage;
+							sumImage += real * rightImage + image * rightReal;
+						}
+						target[targetRow + 2 * x] = sumReal;
+						target[targetRow + 2 * x + 1] = sumImage;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply bit matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyHadamard(final boolean[] left, final boolean[] right, final boolean[] target) {
+		processRows(target.length, target.length, (from, to)->{
+			for (int index = from; index < to; index++) {
+				target[index] = left[index] & right[index];
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply int matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyHadamard(final int[] left, final int[] right, final int[] target) {
+		processRows(target.length, target.length, (from, to)->{
+			for (int index = from; index < to; index++) {
+				target[index] = left[index] * right[index];
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply long matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyHadamard(final long[] left, final long[] right, final long[] target) {
+		processRows(target.length, target.length, (from, to)->{
+			for (int index = from; index < to; index++) {
+				target[index] = left[index] * right[index];
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply float matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyHadamard(final float[] left, final float[] right, final float[] target) {
+		processRows(target.length, target.length, (from, to)->{
+			for (int index = from; index < to; index++) {
+				target[index] = left[index] * right[index];
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply double matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyHadamard(final double[] left, final double[] right, final double[] target) {
+		processRows(target.length, target.length, (from, to)->{
+			for (int index = from; index < to; index++) {
+				target[index] = left[index] * right[index];
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply complex float matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyComplexHadamard(final float[] left, final float[] right, final float[] target) {
+		processRows(target.length / 2, 4L * target.length, (from, to)->{
+			for (int index = 2 * from, maxIndex = 2 * to; index < maxIndex; index += 2) {
+				final float	real = left[index], image = left[index + 1];
+				final float	rightReal = right[index], rightImage = right[index + 1];
+
+				target[index] = real * rightReal - image * rightImage;
+				target[index + 1] = real * rightImage + image * rightReal;
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply complex double matrices element-by-element (Hadamard product).</p>
+	 * @param left left matrix content
+	 * @param right right matrix content
+	 * @param target target matrix content. Can be the same as left or right content
+	 */
+	public static void multiplyComplexHadamard(final double[] left, final double[] right, final double[] target) {
+		processRows(target.length / 2, 4L * target.length, (from, to)->{
+			for (int index = 2 * from, maxIndex = 2 * to; index < maxIndex; index += 2) {
+				final double	real = left[index], image = left[index + 1];
+				final double	rightReal = right[index], rightImage = right[index + 1];
+
+				target[index] = real * rightReal - image * rightImage;
+				target[index + 1] = real * rightImage + image * rightReal;
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply sparse double matrix by dense one (target = left * right). Left matrix is stored in the <i>compressed sparse row</i>
+	 * format: non-zero elements of the row y are located at the [leftRowStarts[y], leftRowStarts[y+1]) indices of the leftColumns and leftValues arrays.</p>
+	 * @param leftRowStarts left matrix row starts. Must contain leftHeight + 1 elements
+	 * @param leftColumns left matrix column numbers of non-zero elements
+	 * @param leftValues left matrix non-zero elements
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param right right matrix content
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplySparse(final int[] leftRowStarts, final int[] leftColumns, final double[] leftValues, final int leftHeight, final double[] right, final int rightWidth, final double[] target) {
+		processRows(leftHeight, 1L * leftRowStarts[leftHeight] * rightWidth, (fromRow, toRow)->{
+			for (int y = fromRow; y < toRow; y++) {
+				final int	targetRow = y * rightWidth;
+
+				for (int index = leftRowStarts[y], maxIndex = leftRowStarts[y + 1]; index < maxIndex; index++) {
+					final double	value = leftValues[index];
+					final int		rightRow = leftColumns[index] * rightWidth;
+
+					for (int x = 0; x < rightWidth; x++) {
+						target[targetRow + x] += value * right[rightRow + x];
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>Multiply dense double matrix by sparse one (target = left * right). Right matrix is stored in the <i>compressed sparse row</i>
+	 * format (see {@linkplain #multiplySparse(int[], int[], double[], int, double[], int, double[])}).</p>
+	 * @param left left matrix content
+	 * @param leftWidth left matrix width (and right matrix height)
+	 * @param leftHeight left matrix height (and target matrix height)
+	 * @param rightRowStarts right matrix row starts. Must contain leftWidth + 1 elements
+	 * @param rightColumns right matrix column numbers of non-zero elements
+	 * @param rightValues right matrix non-zero elements
+	 * @param rightWidth right matrix width (and target matrix width)
+	 * @param target target matrix content
+	 */
+	public static void multiplySparse(final double[] left, final int leftWidth, final int leftHeight, final int[] rightRowStarts, final int[] rightColumns, final double[] rightValues, final int rightWidth, final double[] target) {
+		processRows(leftHeight, 1L * leftHeight * rightRowStarts[leftWidth], (fromRow, toRow)->{
+			for (int y = fromRow; y < toRow; y++) {
+				final int	leftRow = y * leftWidth, targetRow = y * rightWidth;
+
+				for (int k = 0; k < leftWidth; k++) {
+					final double	value = left[leftRow + k];
+
+					for (int index = rightRowStarts[k], maxIndex = rightRowStarts[k + 1]; index < maxIndex; index++) {
+						target[targetRow + rightColumns[index]] += value * rightValues[index];
+					}
+				}
+			}
+		});
+	}
+
+	private static void processRows(final int rows, final long operations, final RowsProcessor processor) {
+		if (operations < PARALLEL_THRESHOLD || rows <= 1) {
+			processor.process(0, rows);
+		}
+		else {
+			final int	minRows = (int)Math.max(1, Math.min(TILE_SIZE, PARALLEL_THRESHOLD * rows / operations));
+
+			forkJoinPool.invoke(new RowsTask(processor, 0, rows, minRows));
+		}
+	}
+
+	private static class RowsTask extends RecursiveAction {
+		private static final long 	serialVersionUID = 1L;
+
+		private final RowsProcessor	processor;
+		private final int			fromRow, toRow, minRows;
+
+		private RowsTask(final RowsProcessor processor, final int fromRow, final int toRow, final int minRows) {
+			this.processor = processor;
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+			this.minRows = minRows;
+		}
+
+		@Override
+		protected void compute() {
+			if (toRow - fromRow <= minRows) {
+				processor.process(fromRow, toRow);
+			}
+			else {
+				final int	middle = (fromRow + toRow) >>> 1;
+
+				invokeAll(new RowsTask(processor, fromRow, middle, minRows), new RowsTask(processor, middle, toRow, minRows));
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "RowsTask [fromRow=" + fromRow + ", toRow=" + toRow + "]";
+		}
+	}
+}
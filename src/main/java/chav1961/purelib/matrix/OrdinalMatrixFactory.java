@@ -0,0 +1,101 @@
+package chav1961.purelib.matrix;
+
+import java.io.IOException;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.ContentType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.FormatType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.StoreType;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.matrix.internal.bit.PlainBitMatrix;
+import chav1961.purelib.matrix.internal.complexdouble.PlainComplexDoubleMatrix;
+import chav1961.purelib.matrix.internal.complexdouble.PlainComplexDoubleMatrixX;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrix;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrixX;
+import chav1961.purelib.matrix.internal.realdouble.ListDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PackedLineDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PlainDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PlainDoubleMatrixX;
+import chav1961.purelib.matrix.internal.realfloat.PlainFloatMatrix;
+import chav1961.purelib.matrix.internal.realfloat.PlainFloatMatrixX;
+import chav1961.purelib.matrix.internal.realint.PlainIntMatrix;
+import chav1961.purelib.matrix.internal.realint.PlainIntMatrixX;
+import chav1961.purelib.matrix.internal.reallong.PlainLongMatrix;
+import chav1961.purelib.matrix.internal.reallong.PlainLongMatrixX;
+
+/**
+ * <p>This class is a default implementation of the {@linkplain MatrixFactory} interface. It supports {@linkplain FormatType#PLAIN} matrices
+ * with any content type, stored in memory, and {@linkplain FormatType#PLAIN} matrices with any content type except {@linkplain ContentType#BIT},
+ * stored in the external temporary files. It also supports sparse {@linkplain FormatType#PACKED_LINE} and {@linkplain FormatType#LIST}
+ * matrices with {@linkplain ContentType#REAL_DOUBLE} content, stored in memory.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class OrdinalMatrixFactory implements MatrixFactory {
+	public OrdinalMatrixFactory() {
+	}
+
+	@Override
+	public boolean canServe(final ContentType contentType, final FormatType formatType, final StoreType storeType) throws NullPointerException {
+		if (contentType == null) {
+			throw new NullPointerException("Content type can't be null");
+		}
+		else if (formatType == null) {
+			throw new NullPointerException("Format type can't be null");
+		}
+		else if (storeType == null) {
+			throw new NullPointerException("Store type can't be null");
+		}
+		else {
+			switch (formatType) {
+				case PLAIN			:
+					return storeType == StoreType.IN_MEMORY || storeType == StoreType.EXTERNAL && contentType != ContentType.BIT;
+				case PACKED_LINE : case LIST	:
+					return storeType == StoreType.IN_MEMORY && contentType == ContentType.REAL_DOUBLE;
+				default :
+					return false;
+			}
+		}
+	}
+
+	@Override
+	public BaseMatrix<?> newInstance(final ContentType contentType, final FormatType formatType, final StoreType storeType, final int width, final int height) throws NullPointerException, IllegalArgumentException, CalculationException {
+		if (!canServe(contentType, formatType, storeType)) {
+			throw new IllegalArgumentException("Format type ["+formatType+"] and store type ["+storeType+"] are not supported by the factory");
+		}
+		else if (formatType == FormatType.PACKED_LINE) {
+			return new PackedLineDoubleMatrix(width, height);
+		}
+		else if (formatType == FormatType.LIST) {
+			return new ListDoubleMatrix(width, height);
+		}
+		else if (storeType == StoreType.EXTERNAL) {
+			try {
+				switch (contentType) {
+					case REAL_INT		: return new PlainIntMatrixX(width, height);
+					case REAL_LONG		: return new PlainLongMatrixX(width, height);
+					case REAL_FLOAT		: return new PlainFloatMatrixX(width, height);
+					case REAL_DOUBLE	: return new PlainDoubleMatrixX(width, height);
+					case COMPLEX_FLOAT	: return new PlainComplexFloatMatrixX(width, height);
+					case COMPLEX_DOUBLE	: return new PlainComplexDoubleMatrixX(width, height);
+					default : throw new UnsupportedOperationException("Content type ["+contentType+"] is not supported yet");
+				}
+			} catch (IOException e) {
+				throw new CalculationException(e.getLocalizedMessage(), e);
+			}
+		}
+		else {
+			switch (contentType) {
+				case BIT			: return new PlainBitMatrix(width, height);
+				case REAL_INT		: return new PlainIntMatrix(width, height);
+				case REAL_LONG		: return new PlainLongMatrix(width, height);
+				case REAL_FLOAT		: return new PlainFloatMatrix(width, height);
+				case REAL_DOUBLE	: return new PlainDoubleMatrix(width, height);
+				case COMPLEX_FLOAT	: return new PlainComplexFloatMatrix(width, height);
+				case COMPLEX_DOUBLE	: return new PlainComplexDoubleMatrix(width, height);
+				default : throw new UnsupportedOperationException("Content type ["+contentType+"] is not supported yet");
+			}
+		}
+	}
+}
@@ -530,7 +530,7 @@ public interface BaseMatrix<T extends BaseMatrix<?>> extends Cloneable, AutoClos
 		 */
 		static Operand of(final double value) {
 			return new Operand() {
-				@Override public ContentType getContentType() {return ContentType.REAL_FLOAT;}
+				@Override public ContentType getContentType() {return ContentType.REAL_DOUBLE;}
 				@Override public boolean getBoolean() {return value != 0;}
 				@Override public float getFloat() {return (float)value;}
 				@Override public double getDouble() {return value;}
@@ -0,0 +1,73 @@
+package chav1961.purelib.matrix.interfaces;
+
+import java.util.ServiceLoader;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.ContentType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.FormatType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.StoreType;
+
+/**
+ * <p>This interface describes factory to create {@linkplain BaseMatrix} instances. All the factory implementations are SPI services
+ * (see META-INF/services for details). Use {@linkplain #newMatrix(ContentType, FormatType, StoreType, int, int)} method to create matrix
+ * by any registered factory.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public interface MatrixFactory {
+	/**
+	 * <p>Can the factory create matrix with the given characteristics.</p>
+	 * @param contentType matrix content type. Can't be null
+	 * @param formatType matrix format type. Can't be null
+	 * @param storeType matrix store type. Can't be null
+	 * @return true if can
+	 * @throws NullPointerException any parameter is null
+	 */
+	boolean canServe(ContentType contentType, FormatType formatType, StoreType storeType) throws NullPointerException;
+
+	/**
+	 * <p>Create new matrix with the given characteristics. Content of the matrix is filled with zeroes.</p>
+	 * @param contentType matrix content type. Can't be null
+	 * @param formatType matrix format type. Can't be null
+	 * @param storeType matrix store type. Can't be null
+	 * @param width matrix width. Must be greater than 0
+	 * @param height matrix height. Must be greater than 0
+	 * @return matrix created. Can't be null
+	 * @throws NullPointerException any type parameter is null
+	 * @throws IllegalArgumentException matrix sizes are invalid or matrix characteristics are not supported by the factory
+	 * @throws CalculationException on any errors on matrix creation
+	 */
+	BaseMatrix<?> newInstance(ContentType contentType, FormatType formatType, StoreType storeType, int width, int height) throws NullPointerException, IllegalArgumentException, CalculationException;
+
+	/**
+	 * <p>Create new matrix with the given characteristics by the first registered factory supported them.</p>
+	 * @param contentType matrix content type. Can't be null
+	 * @param formatType matrix format type. Can't be null
+	 * @param storeType matrix store type. Can't be null
+	 * @param width matrix width. Must be greater than 0
+	 * @param height matrix height. Must be greater than 0
+	 * @return matrix created. Can't be null
+	 * @throws NullPointerException any type parameter is null
+	 * @throws IllegalArgumentException matrix sizes are invalid or no registered factories support the matrix characteristics
+	 * @throws CalculationException on any errors on matrix creation
+	 */
+	static BaseMatrix<?> newMatrix(final ContentType contentType, final FormatType formatType, final StoreType storeType, final int width, final int height) throws NullPointerException, IllegalArgumentException, CalculationException {
+		if (contentType == null) {
+			throw new NullPointerException("Content type can't be null");
+		}
+		else if (formatType == null) {
+			throw new NullPointerException("Format type can't be null");
+		}
+		else if (storeType == null) {
+			throw new NullPointerException("Store type can't be null");
+		}
+		else {
+			for (MatrixFactory item : ServiceLoader.load(MatrixFactory.class)) {
+				if (item.canServe(contentType, formatType, storeType)) {
+					return item.newInstance(contentType, formatType, storeType, width, height);
+				}
+			}
+			throw new IllegalArgumentException("No registered matrix factories support content type ["+contentType+"], format type ["+formatType+"] and store type ["+storeType+"]");
+		}
+	}
+}
@@ -5,48 +5,40 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.lang.reflect.Array;
-import java.util.Arrays;
 
 import chav1961.purelib.basic.exceptions.CalculationException;
 import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
 import chav1961.purelib.matrix.interfaces.BaseMatrix;
-import chav1961.purelib.streams.DataOutputAdapter;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
 
 public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
-	private final boolean[][]	content;
+	private final boolean[]	content;
 	
 	public PlainBitMatrix(final int width, final int height) {
 		super(ContentType.BIT, FormatType.PLAIN, StoreType.IN_MEMORY, width, height);
-		this.content = new boolean[height][width];
-	}
-
-	@Override
-	public void close() throws CalculationException {
-		super.close();
-		Arrays.fill(content, null);
+		this.content = new boolean[width*height];
 	}
 
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		final PlainBitMatrix 	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		target = result.content;
-		final boolean[][]		source = content;
 
-		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-			System.arraycopy(source[y], 0, target[y], 0, getWidth());
-		}
+		System.arraycopy(content, 0, result.content, 0, content.length);
 		return result;
 	}
 
 	@Override
 	public PlainBitMatrix transpose() throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getHeight(), getWidth());
-		final boolean[][]		target = result.content;
-		final boolean[][]		source = content;
+		final boolean[]			target = result.content;
+		final boolean[]			source = content;
+		final int				width = getWidth(), height = getHeight();
 
-		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-			for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-				target[x][y] = source[y][x];
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				target[x*height+y] = source[y*width+x];
 			}
 		}
 		return result;
@@ -66,11 +58,12 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 
 	@Override
 	protected PlainBitMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
-		final boolean[][]	target = content;
+		final boolean[]	target = content;
+		final int		width = getWidth();
 		
 		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
 			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				target[y][x] = in.readBoolean();
+				target[y*width+x] = in.readBoolean();
 			}
 		}
 		return this;
@@ -78,24 +71,24 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 
 	@Override
 	protected PlainBitMatrix downloadInternal(final Piece piece, final PlainBitMatrix in) throws IOException {
-		final boolean[][]	source = in.content;
-		final boolean[][]	target = content;
+		final boolean[]	source = in.content;
+		final boolean[]	target = content;
+		final int		width = getWidth(), sourceWidth = in.getWidth();
 		
 		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				target[y][x] = source[y][x];
-			}
+			System.arraycopy(source, y*sourceWidth+piece.getX(), target, y*width+piece.getX(), piece.getWidth());
 		}
 		return this;
 	}
 
 	@Override
 	protected PlainBitMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
-		final boolean[][]	source = content;
+		final boolean[]	source = content;
+		final int		width = getWidth();
 		
 		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
 			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				out.writeBoolean(source[y][x]);
+				out.writeBoolean(source[y*width+x]);
 			}
 		}
 		return this;
@@ -103,13 +96,12 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 
 	@Override
 	protected PlainBitMatrix uploadInternal(final Piece piece, final PlainBitMatrix out) throws IOException {
-		final boolean[][]	source = content;
-		final boolean[][]	target = out.content;
+		final boolean[]	source = content;
+		final boolean[]	target = out.content;
+		final int		width = getWidth(), targetWidth = out.getWidth();
 		
 		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				target[y][x] = source[y][x];
-			}
+			System.arraycopy(source, y*width+piece.getX(), target, y*targetWidth+piece.getX(), piece.getWidth());
 		}
 		return this;
 	}
@@ -117,56 +109,61 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 	@Override
 	protected PlainBitMatrix cropInternal(final Piece piece) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(piece.getWidth(), piece.getHeight());
-		final boolean[][]		source = content;
-		final boolean[][]		target = result.content;
+		final boolean[]			source = content;
+		final boolean[]			target = result.content;
+		final int				width = getWidth();
 		
-		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				target[y][x] = source[y][x];
-			}
+		for(int y = 0, maxY = piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, (piece.getY()+y)*width+piece.getX(), target, y*piece.getWidth(), piece.getWidth());
 		}
 		return result;
 	}
 
 	@Override
 	protected <AC extends ApplyCallback> PlainBitMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
-		final boolean[][]		source = content;
+		final boolean[]			source = content;
 		final BitApplyCallback	bac = (BitApplyCallback)callback;
+		final int				width = getWidth();
 		
 		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
 			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				source[y][x] = bac.apply(x, y, source[y][x]);
+				source[y*width+x] = bac.apply(x, y, source[y*width+x]);
 			}
 		}
 		return this;
 	}
 
 	@Override
-	protected BaseMatrix<?> castInternal(ContentType type) throws CalculationException {
-		// TODO Auto-generated method stub
-		switch (type) {
-			case BIT			:
-				try {
-					return (BaseMatrix<?>) this.clone();
-				} catch (CloneNotSupportedException e) {
-					throw new CalculationException();
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final boolean[]	source = content;
+				int				index = 0;
+				boolean			image = false;
+
+				@Override public boolean readBoolean() throws IOException {return source[index++];}
+				@Override public int readInt() throws IOException {return source[index++] ? 1 : 0;}
+				@Override public long readLong() throws IOException {return source[index++] ? 1 : 0;}
+				@Override public float readFloat() throws IOException {return next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private int next() {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return source[index++] ? 1 : 0;
 				}
-			case COMPLEX_DOUBLE	:
-				break;
-			case COMPLEX_FLOAT	:
-				break;
-			case REAL_DOUBLE	:
-				break;
-			case REAL_FLOAT		:
-				break;
-			case REAL_INT		:
-				break;
-			case REAL_LONG		:
-				break;
-			default:
-				throw new UnsupportedOperationException("Content type ["+type+"] is not supported yet");
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
 		}
-		return null;
 	}
 
 	@Override
@@ -212,51 +209,25 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 	@Override
 	protected PlainBitMatrix addInternal(final PlainBitMatrix another) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		target = result.content;
-
-		if (another instanceof PlainBitMatrix) {
-			final boolean[][]	source = content;
-			
-			for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-				for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-					target[y][x] |= source[y][x];
-				}
-			}
-			return result;
-		}
-		else {
-			try {
-				another.upload(new DataOutputAdapter() {
-					int	y = 0;
-					int x = 0;
-					
-					@Override
-					public void writeBoolean(boolean v) throws IOException {
-						target[y][x] |= v;
-						if (++x >= getWidth()) {
-							y++;
-							x = 0;
-						}
-					}
-				});
-				return result;
-			} catch (IOException e) {
-				throw new CalculationException(e.getLocalizedMessage(), e);
-			}
+		final boolean[]			source1 = content;
+		final boolean[]			source2 = another.content;
+		final boolean[]			target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] | source2[index];
 		}
+		return result;
 	}
 
 	@Override
 	protected PlainBitMatrix addInternal(final Operand another) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		source = content;
-		final boolean[][]		target = result.content;
+		final boolean[]			source = content;
+		final boolean[]			target = result.content;
 		final boolean			value = another.getBoolean();
 		
-		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-			for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-				target[y][x] = source[y][x] | value;
-			}
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] | value;
 		}
 		return result;
 	}
@@ -264,51 +235,25 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 	@Override
 	protected PlainBitMatrix subtractInternal(final PlainBitMatrix another) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		target = result.content;
-
-		if (another instanceof PlainBitMatrix) {
-			final boolean[][]	source = content;
-			
-			for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-				for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-					target[y][x] ^= source[y][x];
-				}
-			}
-			return result;
-		}
-		else {
-			try {
-				another.upload(new DataOutputAdapter() {
-					int	y = 0;
-					int x = 0;
-					
-					@Override
-					public void writeBoolean(boolean v) throws IOException {
-						target[y][x] ^= v;
-						if (++x >= getWidth()) {
-							y++;
-							x = 0;
-						}
-					}
-				});
-				return result;
-			} catch (IOException e) {
-				throw new CalculationException(e.getLocalizedMessage(), e);
-			}
+		final boolean[]			source1 = content;
+		final boolean[]			source2 = another.content;
+		final boolean[]			target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] ^ source2[index];
 		}
+		return result;
 	}
 
 	@Override
 	protected PlainBitMatrix subtractInternal(final Operand another) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		source = content;
-		final boolean[][]		target = result.content;
+		final boolean[]			source = content;
+		final boolean[]			target = result.content;
 		final boolean			value = another.getBoolean();
 		
-		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-			for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-				target[y][x] = source[y][x] ^ value;
-			}
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] ^ value;
 		}
 		return result;
 	}
@@ -324,15 +269,19 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 	}
 
 	@Override
-	protected PlainBitMatrix mulInternal(PlainBitMatrix another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainBitMatrix mulInternal(final PlainBitMatrix another) throws CalculationException {
+		final PlainBitMatrix	result = new PlainBitMatrix(another.getWidth(), getHeight());
+
+		MultiplicationEngine.multiply(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
 	}
 
 	@Override
-	protected PlainBitMatrix mulTInternal(PlainBitMatrix another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainBitMatrix mulTInternal(final PlainBitMatrix another) throws CalculationException {
+		final PlainBitMatrix	result = new PlainBitMatrix(another.getWidth(), getWidth());
+
+		MultiplicationEngine.multiplyTransposedLeft(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
 	}
 
 	@Override
@@ -342,69 +291,54 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 
 	@Override
 	protected PlainBitMatrix mulRevTInternal(final PlainBitMatrix another) throws CalculationException {
-		return another.mulTInternal(this);
+		final PlainBitMatrix	result = new PlainBitMatrix(getHeight(), another.getHeight());
+
+		MultiplicationEngine.multiplyTransposedRight(another.content, another.getWidth(), another.getHeight(), content, getHeight(), result.content);
+		return result;
 	}
 	
 	@Override
-	protected PlainBitMatrix mulHadamardInternal(PlainBitMatrix another) throws CalculationException {
+	protected PlainBitMatrix mulHadamardInternal(final PlainBitMatrix another) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		target = result.content;
-
-		if (another instanceof PlainBitMatrix) {
-			final boolean[][]	source = content;
-			
-			for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-				for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-					target[y][x] &= source[y][x];
-				}
-			}
-			return result;
-		}
-		else {
-			try {
-				another.upload(new DataOutputAdapter() {
-					int	y = 0;
-					int x = 0;
-					
-					@Override
-					public void writeBoolean(boolean v) throws IOException {
-						target[y][x] &= v;
-						if (++x >= getWidth()) {
-							y++;
-							x = 0;
-						}
-					}
-				});
-				return result;
-			} catch (IOException e) {
-				throw new CalculationException(e.getLocalizedMessage(), e);
-			}
-		}
+
+		MultiplicationEngine.multiplyHadamard(content, another.content, result.content);
+		return result;
 	}
 
 	@Override
-	protected PlainBitMatrix mulKronekerInternal(PlainBitMatrix another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainBitMatrix mulKronekerInternal(final PlainBitMatrix another) throws CalculationException {
+		final PlainBitMatrix	result = new PlainBitMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final boolean[]			source1 = content;
+		final boolean[]			source2 = another.content;
+		final boolean[]			target = result.content;
+		final int				width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+
+		for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+			for(int x1 = 0; x1 < width1; x1++) {
+				if (source1[y1*width1+x1]) {
+					for(int y2 = 0; y2 < height2; y2++) {
+						System.arraycopy(source2, y2*width2, target, (y1*height2+y2)*targetWidth + x1*width2, width2);
+					}
+				}
+			}
+		}
+		return result;
 	}
 
 	@Override
-	protected PlainBitMatrix mulKronekerRevInternal(PlainBitMatrix another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainBitMatrix mulKronekerRevInternal(final PlainBitMatrix another) throws CalculationException {
+		return another.mulKronekerInternal(this);
 	}
 
 	@Override
 	protected PlainBitMatrix mulInternal(final Operand another) throws CalculationException {
 		final PlainBitMatrix	result = new PlainBitMatrix(getWidth(), getHeight());
-		final boolean[][]		source = content;
-		final boolean[][]		target = result.content;
+		final boolean[]			source = content;
+		final boolean[]			target = result.content;
 		final boolean			value = another.getBoolean();
 		
-		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
-			for(int x = 0, maxX = getWidth(); x < maxX; x++) {
-				target[y][x] = source[y][x] & value;
-			} 
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] & value;
 		}
 		return result;
 	}
@@ -421,7 +355,8 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 
 	@Override
 	protected PlainBitMatrix aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
-		final boolean[][]		source = content;
+		final boolean[]			source = content;
+		final int				width = getWidth();
 		final BitGroupFunction	bgf;
 		
 		switch (type) {
@@ -445,10 +380,10 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 		switch (dir) {
 			case BY_COLUMNS	:
 				total = Array.newInstance(bgf.getResultClass(), piece.getHeight());
-				for(int x = piece.getY(), where = 0, maxX = x + piece.getWidth(); x < maxX; x++, where++) {
+				for(int x = piece.getX(), where = 0, maxX = x + piece.getWidth(); x < maxX; x++, where++) {
 					bgf.init();
 					for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-						bgf.add(source[y][x]);
+						bgf.add(source[y*width+x]);
 					}
 					Array.set(total, where, extractValue(bgf.total()));
 				}
@@ -457,8 +392,8 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 				total = Array.newInstance(bgf.getResultClass(), piece.getWidth());
 				for(int y = piece.getY(), where = 0, maxY = y + piece.getHeight(); y < maxY; y++, where++) {
 					bgf.init();
-					for(int x = piece.getY(), maxX = x + piece.getWidth(); x < maxX; x++) {
-						bgf.add(source[y][x]);
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						bgf.add(source[y*width+x]);
 					}
 					Array.set(total, where, extractValue(bgf.total()));
 				}
@@ -467,8 +402,8 @@ public class PlainBitMatrix extends AbstractBaseMatrix<PlainBitMatrix>{
 				total = Array.newInstance(bgf.getResultClass(), 1);
 				bgf.init();
 				for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-					for(int x = piece.getY(), maxX = x + piece.getWidth(); x < maxX; x++) {
-						bgf.add(source[y][x]);
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						bgf.add(source[y*width+x]);
 					}
 				}
 				Array.set(total, 0, extractValue(bgf.total()));
@@ -0,0 +1,703 @@
+package chav1961.purelib.matrix.internal.complexdouble;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+public class PlainComplexDoubleMatrix extends AbstractBaseMatrix<PlainComplexDoubleMatrix>{
+	private final double[]	content;
+
+	public PlainComplexDoubleMatrix(final int width,final int height) {
+		super(ContentType.COMPLEX_DOUBLE, FormatType.PLAIN, StoreType.IN_MEMORY, width, height);
+		this.content = new double[2*width*height];
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+
+		System.arraycopy(content, 0, result.content, 0, content.length);
+		return result;
+	}
+
+	@Override
+	public PlainComplexDoubleMatrix transpose() throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getHeight(), getWidth());
+		final double[]	target = result.content;
+		final double[]	source = content;
+		final int		width = getWidth(), height = getHeight();
+
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				target[2*(x*height+y)] = source[2*(y*width+x)];
+				target[2*(x*height+y)+1] = source[2*(y*width+x)+1];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final double[]	target = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				target[2*(y*width+x)] = in.readDouble();
+				target[2*(y*width+x)+1] = in.readDouble();
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix downloadInternal(final Piece piece, final PlainComplexDoubleMatrix in) throws IOException {
+		final double[]	target = content;
+		final double[]	source = in.content;
+		final int		width = getWidth(), sourceWidth = in.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, 2*(y*sourceWidth+piece.getX()), target, 2*(y*width+piece.getX()), 2*piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final double[]	source = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				out.writeDouble(source[2*(y*width+x)]);
+				out.writeDouble(source[2*(y*width+x)+1]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix uploadInternal(final Piece piece, final PlainComplexDoubleMatrix out) throws IOException {
+		final double[]	source = content;
+		final double[]	target = out.content;
+		final int		width = getWidth(), targetWidth = out.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, 2*(y*width+piece.getX()), target, 2*(y*targetWidth+piece.getX()), 2*piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix cropInternal(final Piece piece) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(piece.getWidth(), piece.getHeight());
+		final double[]	source = content;
+		final double[]	target = result.content;
+		final int		width = getWidth();
+
+		for(int y = 0, maxY = piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, 2*((piece.getY()+y)*width+piece.getX()), target, 2*y*piece.getWidth(), 2*piece.getWidth());
+		}
+		return result;
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainComplexDoubleMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final double[]		source = content;
+		final double[]		temp = new double[2];
+		final ComplexDoubleApplyCallback	cfac = (ComplexDoubleApplyCallback)callback;
+		final int			width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				final int	index = 2*(y*width+x);
+
+				temp[0] = source[index];
+				temp[1] = source[index+1];
+				cfac.apply(x, y, temp);
+				source[index] = temp[0];
+				source[index+1] = temp[1];
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final double[]	source = content;
+				int				index = 0;
+
+				@Override
+				public boolean readBoolean() throws IOException {
+					final boolean	value = source[index] != 0 || source[index+1] != 0;
+
+					index += 2;
+					return value;
+				}
+
+				@Override public int readInt() throws IOException {return (int)next();}
+				@Override public long readLong() throws IOException {return (long)next();}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() {
+					final double	value = source[index];
+
+					index += complex ? 1 : 2;
+					return value;
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return MatrixFactory.newMatrix(getContentType(), getFormatType(), type, getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final double[]	source = content;
+						int	index = 0;
+
+						@Override
+						public double readDouble() throws IOException {
+							return source[index++];
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			case IN_MEMORY	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix addInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]	source1 = content;
+		final double[]	source2 = another.content;
+		final double[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] + source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix addInternal(final Operand another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]		source = content;
+		final double[]		target = result.content;
+		final double[]		add = another.getComplexDouble();
+		final double			realA = add[0], imageA = add[1];
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index += 2) {
+			target[index] = source[index] + realA;
+			target[index+1] = source[index+1] + imageA;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix subtractInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]	source1 = content;
+		final double[]	source2 = another.content;
+		final double[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] - source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix subtractInternal(final Operand another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]		source = content;
+		final double[]		target = result.content;
+		final double[]		subtract = another.getComplexDouble();
+		final double			realS = subtract[0], imageS = subtract[1];
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index += 2) {
+			target[index] = source[index] - realS;
+			target[index+1] = source[index+1] - imageS;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix subtractRevInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		return another.subtractInternal(this);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix subtractRevInternal(final Operand another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]		source = content;
+		final double[]		target = result.content;
+		final double[]		subtract = another.getComplexDouble();
+		final double			realS = subtract[0], imageS = subtract[1];
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index += 2) {
+			target[index] = realS - source[index];
+			target[index+1] = imageS - source[index+1];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(another.getWidth(), getHeight());
+
+		MultiplicationEngine.multiplyComplex(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulTInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(another.getWidth(), getWidth());
+
+		MultiplicationEngine.multiplyComplexTransposedLeft(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulRevInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulRevTInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getHeight(), another.getHeight());
+
+		MultiplicationEngine.multiplyComplexTransposedRight(another.content, another.getWidth(), another.getHeight(), content, getHeight(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulHadamardInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+
+		MultiplicationEngine.multiplyComplexHadamard(content, another.content, result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulKronekerInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final double[]		source1 = content;
+		final double[]		source2 = another.content;
+		final double[]		target = result.content;
+		final int			width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+
+		for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+			for(int x1 = 0; x1 < width1; x1++) {
+				final double	real = source1[2*(y1*width1+x1)];
+				final double	image = source1[2*(y1*width1+x1)+1];
+
+				if (real != 0 || image != 0) {
+					for(int y2 = 0; y2 < height2; y2++) {
+						for(int x2 = 0; x2 < width2; x2++) {
+							final int	from = 2*(y2*width2+x2), to = 2*((y1*height2+y2)*targetWidth + x1*width2+x2);
+
+							target[to] = source2[from] * real - source2[from+1] * image;
+							target[to+1] = source2[from] * image + source2[from+1] * real;
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulKronekerRevInternal(final PlainComplexDoubleMatrix another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix mulInternal(final Operand another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]		source = content;
+		final double[]		target = result.content;
+		final double[]		mul = another.getComplexDouble();
+		final double			realM = mul[0], imageM = mul[1];
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index += 2) {
+			final double real = source[index];
+			final double image = source[index+1];
+
+			target[index] = real * realM - image * imageM;
+			target[index+1] = real * imageM + image * realM;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix divInternal(final Operand another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]		source = content;
+		final double[]		target = result.content;
+		final double[]		div = another.getComplexDouble();
+		final double			realD = div[0], imageD = div[1];
+		final double			znam = 1 / (realD * realD + imageD * imageD);
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index += 2) {
+			final double real = source[index];
+			final double image = source[index+1];
+
+			target[index] = znam * (real * realD + image * imageD);
+			target[index+1] = znam * (image * realD - real * imageD);
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix divRevInternal(final Operand another) throws CalculationException {
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(getWidth(), getHeight());
+		final double[]		source = content;
+		final double[]		target = result.content;
+		final double[]		div = another.getComplexDouble();
+		final double			realD = div[0], imageD = div[1];
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index += 2) {
+			final double real = source[index];
+			final double image = source[index+1];
+			final double	znam = 1 / (real * real + image * image);
+
+			target[index] = znam * (realD * real + imageD * image);
+			target[index+1] = znam * (imageD * real - realD * image);
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix aggregateInternal(Piece piece, AggregateDirection dir, AggregateType type) throws CalculationException {
+		final double[]		source = content;
+		final int			width = getWidth();
+		final ComplexDoubleGroupFunction	cfgf = newGroupFunction(type);
+		final PlainComplexDoubleMatrix	result;
+
+		switch (dir) {
+			case BY_COLUMNS	:
+				result = new PlainComplexDoubleMatrix(piece.getWidth(), 1);
+				for(int x = piece.getX(), where = 0, maxX = x + piece.getWidth(); x < maxX; x++, where++) {
+					cfgf.init();
+					for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+						cfgf.add(source[2*(y*width+x)], source[2*(y*width+x)+1]);
+					}
+					System.arraycopy(cfgf.total().getComplexDouble(), 0, result.content, 2*where, 2);
+				}
+				break;
+			case BY_ROWS	:
+				result = new PlainComplexDoubleMatrix(1, piece.getHeight());
+				for(int y = piece.getY(), where = 0, maxY = y + piece.getHeight(); y < maxY; y++, where++) {
+					cfgf.init();
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						cfgf.add(source[2*(y*width+x)], source[2*(y*width+x)+1]);
+					}
+					System.arraycopy(cfgf.total().getComplexDouble(), 0, result.content, 2*where, 2);
+				}
+				break;
+			case TOTAL		:
+				result = new PlainComplexDoubleMatrix(1, 1);
+				cfgf.init();
+				for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						cfgf.add(source[2*(y*width+x)], source[2*(y*width+x)+1]);
+					}
+				}
+				System.arraycopy(cfgf.total().getComplexDouble(), 0, result.content, 0, 2);
+				break;
+			default:
+				throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+		}
+		return result;
+	}
+
+	@Override
+	public Operand det() throws CalculationException {
+		final double[]	source = content.clone();
+		final int		colSize = getWidth();
+		double			detReal = 1, detImage = 0;
+
+		for(int y = 0; y < colSize; y++) {
+			final int	row = 2*y*colSize;
+			final double	real = source[row+2*y];		// Take diagonal element.
+			final double	image = source[row+2*y+1];	// Take diagonal element.
+			final double	znam = 1 / (real * real + image * image);
+			final double	newDetReal = detReal * real - detImage * image;
+
+			detImage = detReal * image + detImage * real;
+			detReal = newDetReal;
+			for(int x = 0; x < colSize; x++) {		// divide all line by diagonal element
+				final double	currentReal = source[row+2*x], currentImage = source[row+2*x+1];
+
+				source[row+2*x] = znam * (currentReal * real + currentImage * image);
+				source[row+2*x+1] = znam * (currentImage * real - currentReal * image);
+			}
+			for(int i = y + 1; i < colSize; i++) {	// subtract current line from all lines below to make zeroes at the current column
+				final int		row2 = 2*i*colSize;
+				final double		real2 = source[row2+2*y];
+				final double		image2 = source[row2+2*y+1];
+
+				for(int x = 0; x < colSize; x++) {
+					source[row2+2*x] -= source[row+2*x] * real2 - source[row+2*x+1] * image2;
+					source[row2+2*x+1] -= source[row+2*x+1] * real2 + source[row+2*x] * image2;
+				}
+			}
+		}
+		return Operand.of(detReal, detImage);
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final double[]	source = content;
+		final int		width = getWidth();
+		double			real = 0, image = 0;
+
+		for(int index = 0, maxIndex = Math.min(width, getHeight()); index < maxIndex; index++) {
+			real += source[2*(index*width+index)];
+			image += source[2*(index*width+index)+1];
+		}
+		return Operand.of(real, image);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrix invertInternal() throws CalculationException {
+		final int		size = getWidth();
+		final double[]	source = content.clone();
+		final double[]	inverted = new double[source.length];
+		final PlainComplexDoubleMatrix	result = new PlainComplexDoubleMatrix(size, size);
+
+		for(int index = 0; index < size; index++) {
+			inverted[2*(index*size+index)] = 1;
+		}
+		for(int y = 0; y < size; y++) {
+			final int	pivot = findPivot(source, size, y);
+			final int	row = 2*y*size;
+
+			if (source[2*(pivot*size+y)] == 0 && source[2*(pivot*size+y)+1] == 0) {
+				throw new CalculationException("Matrix "+getMatrixBounds(this)+" is singular and can't be inverted");
+			}
+			else if (pivot != y) {
+				swapRows(source, size, pivot, y);
+				swapRows(inverted, size, pivot, y);
+			}
+			final double	real = source[row+2*y], image = source[row+2*y+1];
+			final double	znam = 1 / (real * real + image * image);
+
+			for(int x = 0; x < size; x++) {		// divide all line by diagonal element
+				divide(source, row+2*x, real, image, znam);
+				divide(inverted, row+2*x, real, image, znam);
+			}
+			for(int i = 0; i < size; i++) {		// subtract current line from all other lines to make zeroes at the current column
+				final int		row2 = 2*i*size;
+				final double	real2 = source[row2+2*y], image2 = source[row2+2*y+1];
+
+				if (i != y && (real2 != 0 || image2 != 0)) {
+					for(int x = 0; x < size; x++) {
+						source[row2+2*x] -= source[row+2*x] * real2 - source[row+2*x+1] * image2;
+						source[row2+2*x+1] -= source[row+2*x+1] * real2 + source[row+2*x] * image2;
+						inverted[row2+2*x] -= inverted[row+2*x] * real2 - inverted[row+2*x+1] * image2;
+						inverted[row2+2*x+1] -= inverted[row+2*x+1] * real2 + inverted[row+2*x] * image2;
+					}
+				}
+			}
+		}
+		System.arraycopy(inverted, 0, result.content, 0, inverted.length);
+		return result;
+	}
+
+	private static void divide(final double[] source, final int where, final double real, final double image, final double znam) {
+		final double	currentReal = source[where], currentImage = source[where+1];
+
+		source[where] = znam * (currentReal * real + currentImage * image);
+		source[where+1] = znam * (currentImage * real - currentReal * image);
+	}
+
+	private static int findPivot(final double[] source, final int size, final int column) {
+		int		pivot = column;
+		double	module = module(source, 2*(column*size+column));
+
+		for(int y = column + 1; y < size; y++) {
+			final double	current = module(source, 2*(y*size+column));
+
+			if (current > module) {
+				pivot = y;
+				module = current;
+			}
+		}
+		return pivot;
+	}
+
+	private static double module(final double[] source, final int where) {
+		return source[where] * source[where] + source[where+1] * source[where+1];
+	}
+
+	private static void swapRows(final double[] source, final int size, final int row1, final int row2) {
+		for(int x = 0; x < 2*size; x++) {
+			final double	temp = source[2*row1*size+x];
+
+			source[2*row1*size+x] = source[2*row2*size+x];
+			source[2*row2*size+x] = temp;
+		}
+	}
+
+	static ComplexDoubleGroupFunction newGroupFunction(final AggregateType type) {
+		switch (type) {
+			case AVG	: return new AvgGroupFunction();
+			case MAX	: return new MaxGroupFunction();
+			case MIN	: return new MinGroupFunction();
+			case SUM	: return new SumGroupFunction();
+			default		: throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+
+	static interface ComplexDoubleGroupFunction {
+		void init();
+		void add(double real, double image);
+		Operand total();
+	}
+
+	private static class SumGroupFunction implements ComplexDoubleGroupFunction {
+		double	sumReal, sumImage;
+
+		@Override
+		public void init() {
+			sumReal = 0;
+			sumImage = 0;
+		}
+
+		@Override
+		public void add(double real, double image) {
+			sumReal += real;
+			sumImage += image;
+		}
+
+		@Override
+		public Operand total() {
+			return Operand.of(sumReal, sumImage);
+		}
+	}
+
+	private static class AvgGroupFunction implements ComplexDoubleGroupFunction {
+		int		count;
+		double	sumReal, sumImage;
+
+		@Override
+		public void init() {
+			count = 0;
+			sumReal = 0;
+			sumImage = 0;
+		}
+
+		@Override
+		public void add(double real, double image) {
+			count++;
+			sumReal += real;
+			sumImage += image;
+		}
+
+		@Override
+		public Operand total() {
+			return count > 0 ? Operand.of(sumReal / count, sumImage / count) : Operand.of(0.0, 0.0);
+		}
+	}
+
+	private static class MinGroupFunction implements ComplexDoubleGroupFunction {
+		double	minReal, minImage;
+		double 	module;
+
+		@Override
+		public void init() {
+			module = Double.MAX_VALUE;
+			minReal = Double.MAX_VALUE;
+			minImage = Double.MAX_VALUE;
+		}
+
+		@Override
+		public void add(double real, double image) {
+			double	currentModule = real * real + image * image;
+
+			if (currentModule <= module) {
+				minReal = real;
+				minImage = image;
+				module = currentModule;
+			}
+		}
+
+		@Override
+		public Operand total() {
+			return Operand.of(minReal, minImage);
+		}
+	}
+
+	private static class MaxGroupFunction implements ComplexDoubleGroupFunction {
+		double	maxReal, maxImage;
+		double 	module;
+
+		@Override
+		public void init() {
+			module = 0;
+			maxReal = 0;
+			maxImage = 0;
+		}
+
+		@Override
+		public void add(double real, double image) {
+			double	currentModule = real * real + image * image;
+
+			if (currentModule >= module) {
+				maxReal = real;
+				maxImage = image;
+				module = currentModule;
+			}
+		}
+
+		@Override
+		public Operand total() {
+			return Operand.of(maxReal, maxImage);
+		}
+	}
+}
@@ -0,0 +1,582 @@
+package chav1961.purelib.matrix.internal.complexdouble;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractExternalMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.matrix.internal.complexdouble.PlainComplexDoubleMatrix.ComplexDoubleGroupFunction;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements external matrix with complex double content. Matrix content is stored in the temporary file and is processed tile by tile
+ * (see {@linkplain AbstractExternalMatrix}). Real and image parts of every element are stored sequentially.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainComplexDoubleMatrixX extends AbstractExternalMatrix<PlainComplexDoubleMatrixX> {
+	@FunctionalInterface
+	private static interface Operation {
+		void apply(double leftReal, double leftImage, double rightReal, double rightImage, DoubleBuffer target, int index);
+	}
+
+	public PlainComplexDoubleMatrixX(final int width, final int height) throws IOException {
+		this(width, height, TILE_SIZE);
+	}
+
+	public PlainComplexDoubleMatrixX(final int width, final int height, final int tileSize) throws IOException {
+		super(ContentType.COMPLEX_DOUBLE, width, height, 2 * Double.BYTES, tileSize);
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		try {
+			final PlainComplexDoubleMatrixX	result = new PlainComplexDoubleMatrixX(getWidth(), getHeight(), getTileSize());
+
+			transferTo(result);
+			return result;
+		} catch (IOException e) {
+			throw new CloneNotSupportedException(e.getLocalizedMessage());
+		}
+	}
+
+	@Override
+	public PlainComplexDoubleMatrixX transpose() throws CalculationException {
+		final PlainComplexDoubleMatrixX	result = newMatrix(getHeight(), getWidth());
+		final int		width = getWidth(), height = getHeight();
+
+		try {
+			forEachTile(0, height, (fromRow, rows, tile)->{
+				final DoubleBuffer	source = tile.asDoubleBuffer();
+
+				result.forEachTile(0, width, (fromColumn, columns, targetTile)->{
+					final DoubleBuffer	target = targetTile.asDoubleBuffer();
+
+					for(int x = 0; x < columns; x++) {
+						for(int y = 0; y < rows; y++) {
+							final int	from = 2*(y*width+fromColumn+x), to = 2*(x*height+fromRow+y);
+
+							target.put(to, source.get(from));
+							target.put(to+1, source.get(from+1));
+						}
+					}
+				});
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final DoubleBuffer	target = tile.asDoubleBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						target.put(2*(y*width+x), in.readDouble());
+						target.put(2*(y*width+x)+1, in.readDouble());
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX downloadInternal(final Piece piece, final PlainComplexDoubleMatrixX in) throws IOException {
+		in.transferTo(piece, this, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final DoubleBuffer	source = tile.asDoubleBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						out.writeDouble(source.get(2*(y*width+x)));
+						out.writeDouble(source.get(2*(y*width+x)+1));
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX uploadInternal(final Piece piece, final PlainComplexDoubleMatrixX out) throws IOException {
+		transferTo(piece, out, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX cropInternal(final Piece piece) throws CalculationException {
+		final PlainComplexDoubleMatrixX	result = newMatrix(piece.getWidth(), piece.getHeight());
+
+		try {
+			transferTo(piece, result, 0, 0);
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainComplexDoubleMatrixX applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final ComplexDoubleApplyCallback	ac = (ComplexDoubleApplyCallback)callback;
+		final double[]		temp = new double[2];
+		final int			width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final DoubleBuffer	source = tile.asDoubleBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						final int	index = 2*(y*width+x);
+
+						temp[0] = source.get(index);
+						temp[1] = source.get(index+1);
+						ac.apply(x, fromRow+y, temp);
+						source.put(index, temp[0]);
+						source.put(index+1, temp[1]);
+					}
+				}
+			});
+			return this;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final TileCursor	cursor = new TileCursor();
+
+				@Override
+				public boolean readBoolean() throws IOException {
+					final double	real = cursor.next().getDouble(), image = cursor.next().getDouble();
+
+					return real != 0 || image != 0;
+				}
+
+				@Override public int readInt() throws IOException {return (int)next();}
+				@Override public long readLong() throws IOException {return (long)next();}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() throws IOException {
+					final double	value = cursor.next().getDouble();
+
+					if (!complex) {
+						cursor.next().getDouble();
+					}
+					return value;
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case IN_MEMORY	:
+				try {
+					return new PlainComplexDoubleMatrix(getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final TileCursor	cursor = new TileCursor();
+
+						@Override
+						public double readDouble() throws IOException {
+							return cursor.next().getDouble();
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX addInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		return process(another, (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal + rightReal);
+			target.put(index+1, leftImage + rightImage);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX addInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexDouble(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal + rightReal);
+			target.put(index+1, leftImage + rightImage);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX subtractInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		return process(another, (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal - rightReal);
+			target.put(index+1, leftImage - rightImage);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX subtractInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexDouble(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal - rightReal);
+			target.put(index+1, leftImage - rightImage);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX subtractRevInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		return another.subtractInternal(this);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX subtractRevInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexDouble(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, rightReal - leftReal);
+			target.put(index+1, rightImage - leftImage);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		final int		width = getWidth(), height = getHeight(), anotherWidth = another.getWidth();
+		final PlainComplexDoubleMatrixX	result = newMatrix(anotherWidth, height);
+		final int		rowsPerTile = getRowsPerTile(Math.max(width, anotherWidth)), depthPerTile = Math.min(width, another.getRowsPerTile());
+		final double[]	leftPart = new double[2 * rowsPerTile * depthPerTile], rightPart = new double[2 * depthPerTile * anotherWidth], product = new double[2 * rowsPerTile * anotherWidth];
+
+		try {
+			for(int fromRow = 0; fromRow < height; fromRow += rowsPerTile) {
+				final int		rows = Math.min(rowsPerTile, height - fromRow);
+				final DoubleBuffer	left = map(fromRow, rows).asDoubleBuffer();
+
+				Arrays.fill(product, 0, 2 * rows * anotherWidth, 0.0);
+				for(int fromDepth = 0; fromDepth < width; fromDepth += depthPerTile) {
+					final int	depth = Math.min(depthPerTile, width - fromDepth);
+
+					for(int y = 0; y < rows; y++) {
+						left.get(2*(y*width+fromDepth), leftPart, 2*y*depth, 2*depth);
+					}
+					another.map(fromDepth, depth).asDoubleBuffer().get(0, rightPart, 0, 2*depth*anotherWidth);
+					MultiplicationEngine.multiplyComplex(leftPart, depth, rows, rightPart, anotherWidth, product);
+				}
+				result.map(fromRow, rows).asDoubleBuffer().put(0, product, 0, 2*rows*anotherWidth);
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulTInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		final PlainComplexDoubleMatrixX	transposed = transpose();
+
+		try {
+			return transposed.mulInternal(another);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulRevInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulRevTInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		final PlainComplexDoubleMatrixX	transposed = transpose();
+
+		try {
+			return another.mulInternal(transposed);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulHadamardInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		return process(another, (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal * rightReal - leftImage * rightImage);
+			target.put(index+1, leftReal * rightImage + leftImage * rightReal);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulKronekerInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		final PlainComplexDoubleMatrixX	result = newMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+		final double[]	row = new double[2 * width1];
+
+		try {
+			for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+				final int	targetRow = y1 * height2;
+
+				map(y1, 1).asDoubleBuffer().get(0, row);
+				another.forEachTile(0, height2, (fromRow, rows, tile)->{
+					final DoubleBuffer	source = tile.asDoubleBuffer();
+					final DoubleBuffer	target = result.map(targetRow+fromRow, rows).asDoubleBuffer();
+
+					for(int y2 = 0; y2 < rows; y2++) {
+						for(int x1 = 0; x1 < width1; x1++) {
+							final double	real = row[2*x1], image = row[2*x1+1];
+
+							if (real != 0 || image != 0) {
+								for(int x2 = 0; x2 < width2; x2++) {
+									final int	from = 2*(y2*width2+x2), to = 2*(y2*targetWidth + x1*width2+x2);
+
+									target.put(to, source.get(from) * real - source.get(from+1) * image);
+									target.put(to+1, source.get(from) * image + source.get(from+1) * real);
+								}
+							}
+						}
+					}
+				});
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulKronekerRevInternal(final PlainComplexDoubleMatrixX another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX mulInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexDouble(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal * rightReal - leftImage * rightImage);
+			target.put(index+1, leftReal * rightImage + leftImage * rightReal);
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX divInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexDouble(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			final double	znam = 1 / (rightReal * rightReal + rightImage * rightImage);
+
+			target.put(index, znam * (leftReal * rightReal + leftImage * rightImage));
+			target.put(index+1, znam * (leftImage * rightReal - leftReal * rightImage));
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX divRevInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexDouble(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			final double	znam = 1 / (leftReal * leftReal + leftImage * leftImage);
+
+			target.put(index, znam * (rightReal * leftReal + rightImage * leftImage));
+			target.put(index+1, znam * (rightImage * leftReal - rightReal * leftImage));
+		});
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int		width = getWidth(), fromX = piece.getX(), fromY = piece.getY();
+		final PlainComplexDoubleMatrixX	result;
+
+		try {
+			switch (dir) {
+				case BY_COLUMNS	:
+					final ComplexDoubleGroupFunction[]	columns = new ComplexDoubleGroupFunction[piece.getWidth()];
+					final double[]	totals = new double[2 * columns.length];
+
+					result = newMatrix(piece.getWidth(), 1);
+					for(int x = 0; x < columns.length; x++) {
+						columns[x] = PlainComplexDoubleMatrix.newGroupFunction(type);
+						columns[x].init();
+					}
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final DoubleBuffer	source = tile.asDoubleBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0; x < columns.length; x++) {
+								columns[x].add(source.get(2*(y*width+fromX+x)), source.get(2*(y*width+fromX+x)+1));
+							}
+						}
+					});
+					for(int x = 0; x < columns.length; x++) {
+						System.arraycopy(columns[x].total().getComplexDouble(), 0, totals, 2*x, 2);
+					}
+					result.map(0, 1).asDoubleBuffer().put(0, totals);
+					break;
+				case BY_ROWS	:
+					final ComplexDoubleGroupFunction	rowFunction = PlainComplexDoubleMatrix.newGroupFunction(type);
+
+					result = newMatrix(1, piece.getHeight());
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final DoubleBuffer	source = tile.asDoubleBuffer();
+						final DoubleBuffer	target = result.map(fromRow - fromY, rows).asDoubleBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							rowFunction.init();
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								rowFunction.add(source.get(2*(y*width+fromX+x)), source.get(2*(y*width+fromX+x)+1));
+							}
+							target.put(2*y, rowFunction.total().getComplexDouble());
+						}
+					});
+					break;
+				case TOTAL		:
+					final ComplexDoubleGroupFunction	totalFunction = PlainComplexDoubleMatrix.newGroupFunction(type);
+
+					result = newMatrix(1, 1);
+					totalFunction.init();
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final DoubleBuffer	source = tile.asDoubleBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								totalFunction.add(source.get(2*(y*width+fromX+x)), source.get(2*(y*width+fromX+x)+1));
+							}
+						}
+					});
+					result.map(0, 1).asDoubleBuffer().put(0, totalFunction.total().getComplexDouble());
+					break;
+				default:
+					throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Calculate determinant. Matrix is loaded into memory to calculate determinant.</p>
+	 */
+	@Override
+	public Operand det() throws CalculationException {
+		try(final PlainComplexDoubleMatrix	inMemory = (PlainComplexDoubleMatrix)castInternal(StoreType.IN_MEMORY)) {
+			return inMemory.det();
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final int		width = getWidth();
+		final double[]	sum = new double[2];
+
+		try {
+			forEachTile(0, Math.min(width, getHeight()), (fromRow, rows, tile)->{
+				final DoubleBuffer	source = tile.asDoubleBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					sum[0] += source.get(2*(y*width+fromRow+y));
+					sum[1] += source.get(2*(y*width+fromRow+y)+1);
+				}
+			});
+			return Operand.of(sum[0], sum[1]);
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainComplexDoubleMatrixX invertInternal() throws CalculationException {
+		throw new UnsupportedOperationException("Inversion of complex matrices is not supported yet");
+	}
+
+	private PlainComplexDoubleMatrixX newMatrix(final int width, final int height) throws CalculationException {
+		try {
+			return new PlainComplexDoubleMatrixX(width, height, getTileSize());
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainComplexDoubleMatrixX process(final PlainComplexDoubleMatrixX another, final Operation op) throws CalculationException {
+		final PlainComplexDoubleMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final DoubleBuffer	source1 = tile.asDoubleBuffer();
+				final DoubleBuffer	source2 = another.map(fromRow, rows).asDoubleBuffer();
+				final DoubleBuffer	target = result.map(fromRow, rows).asDoubleBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index += 2) {
+					op.apply(source1.get(index), source1.get(index+1), source2.get(index), source2.get(index+1), target, index);
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainComplexDoubleMatrixX process(final double[] value, final Operation op) throws CalculationException {
+		final PlainComplexDoubleMatrixX	result = newMatrix(getWidth(), getHeight());
+		final double		real = value[0], image = value[1];
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final DoubleBuffer	source = tile.asDoubleBuffer();
+				final DoubleBuffer	target = result.map(fromRow, rows).asDoubleBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index += 2) {
+					op.apply(source.get(index), source.get(index+1), real, image, target, index);
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+}
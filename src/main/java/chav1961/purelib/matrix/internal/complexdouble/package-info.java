@@ -0,0 +1,6 @@
+/**
+ * <p>This package contains in-memory matrix implementation with complex double content.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+package chav1961.purelib.matrix.internal.complexdouble;
\ No newline at end of file
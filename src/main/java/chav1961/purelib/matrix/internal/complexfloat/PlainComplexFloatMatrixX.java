@@ -2,267 +2,581 @@ package chav1961.purelib.matrix.internal.complexfloat;
 
 import java.io.DataInput;
 import java.io.DataOutput;
-import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.lang.ref.Cleaner;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 
-import chav1961.purelib.basic.PureLibSettings;
 import chav1961.purelib.basic.exceptions.CalculationException;
-import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.AbstractExternalMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
 import chav1961.purelib.matrix.interfaces.BaseMatrix;
-
-public class PlainComplexFloatMatrixX extends AbstractBaseMatrix<PlainComplexFloatMatrixX>{
-	private static final long		ITEM_SIZE = 8L;
-	private final Cleaner.Cleanable	cc;
-	private final RandomAccessFile	raf;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrix.ComplexFloatGroupFunction;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements external matrix with complex float content. Matrix content is stored in the temporary file and is processed tile by tile
+ * (see {@linkplain AbstractExternalMatrix}). Real and image parts of every element are stored sequentially.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainComplexFloatMatrixX extends AbstractExternalMatrix<PlainComplexFloatMatrixX> {
+	@FunctionalInterface
+	private static interface Operation {
+		void apply(float leftReal, float leftImage, float rightReal, float rightImage, FloatBuffer target, int index);
+	}
 
 	public PlainComplexFloatMatrixX(final int width, final int height) throws IOException {
-		super(ContentType.COMPLEX_FLOAT, FormatType.PLAIN, StoreType.EXTERNAL, width, height);
-		final File	f = File.createTempFile("PlainComplexFloat", ".mat");
-		final RandomAccessFile	raf = new RandomAccessFile(f, "rw");
-		
-		this.cc = PureLibSettings.COMMON_CLEANER.register(this, ()->{
-							try {
-								raf.close();
-							} catch (IOException e) {
-							}
-							f.delete();
-						});
-		this.raf = raf;
-		raf.seek(ITEM_SIZE*getHeight()*getWidth());
+		this(width, height, TILE_SIZE);
 	}
 
-	@Override
-	public void close() throws CalculationException {
-		super.close();
-		cc.clean();
+	public PlainComplexFloatMatrixX(final int width, final int height, final int tileSize) throws IOException {
+		super(ContentType.COMPLEX_FLOAT, width, height, 2 * Float.BYTES, tileSize);
 	}
-	
+
 	@Override
 	public Object clone() throws CloneNotSupportedException {
-		final PlainComplexFloatMatrix	result = new PlainComplexFloatMatrix(getWidth(), getHeight());
-		
-		return result;
+		try {
+			final PlainComplexFloatMatrixX	result = new PlainComplexFloatMatrixX(getWidth(), getHeight(), getTileSize());
+
+			transferTo(result);
+			return result;
+		} catch (IOException e) {
+			throw new CloneNotSupportedException(e.getLocalizedMessage());
+		}
 	}
 
 	@Override
 	public PlainComplexFloatMatrixX transpose() throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+		final PlainComplexFloatMatrixX	result = newMatrix(getHeight(), getWidth());
+		final int		width = getWidth(), height = getHeight();
+
+		try {
+			forEachTile(0, height, (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				result.forEachTile(0, width, (fromColumn, columns, targetTile)->{
+					final FloatBuffer	target = targetTile.asFloatBuffer();
+
+					for(int x = 0; x < columns; x++) {
+						for(int y = 0; y < rows; y++) {
+							final int	from = 2*(y*width+fromColumn+x), to = 2*(x*height+fromRow+y);
+
+							target.put(to, source.get(from));
+							target.put(to+1, source.get(from+1));
+						}
+					}
+				});
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
-	public Operand det() throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	target = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						target.put(2*(y*width+x), in.readFloat());
+						target.put(2*(y*width+x)+1, in.readFloat());
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
-	public Operand track() throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX downloadInternal(final Piece piece, final PlainComplexFloatMatrixX in) throws IOException {
+		in.transferTo(piece, this, piece.getX(), piece.getY());
+		return this;
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX downloadInternal(final Piece piece, final DataInput in) throws IOException {
-		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-			raf.seek(ITEM_SIZE * (y * getHeight() + piece.getX()));
-			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				raf.writeFloat(in.readFloat());
-				raf.writeFloat(in.readFloat());
-			}
+	protected PlainComplexFloatMatrixX uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						out.writeFloat(source.get(2*(y*width+x)));
+						out.writeFloat(source.get(2*(y*width+x)+1));
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
 		}
-		return this;
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX downloadInternal(Piece piece, PlainComplexFloatMatrixX in) throws IOException {
-		// TODO Auto-generated method stub
-		if (in instanceof PlainComplexFloatMatrixX) {
-			final byte[]	buffer = new byte[(int) (ITEM_SIZE * piece.getWidth())];
-			final RandomAccessFile	source = in.raf;
-					
-			for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-				source.seek(ITEM_SIZE * (y * getHeight() + piece.getX()));
-				raf.seek(ITEM_SIZE * (y * getHeight() + piece.getX()));
-				source.read(buffer);
-				raf.write(buffer);
-			}
-		}
-		else {
-//			for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-//				raf.seek(ITEM_SIZE * (y * getHeight() + piece.getX()));
-//				for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-//					raf.writeFloat(in.readFloat());
-//					raf.writeFloat(in.readFloat());
-//				}
-//			}
-		}
+	protected PlainComplexFloatMatrixX uploadInternal(final Piece piece, final PlainComplexFloatMatrixX out) throws IOException {
+		transferTo(piece, out, piece.getX(), piece.getY());
 		return this;
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX uploadInternal(final Piece piece, final DataOutput out) throws IOException {
-		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
-			raf.seek(ITEM_SIZE * (y * getHeight() + piece.getX()));
-			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
-				out.writeFloat(raf.readFloat());
-				out.writeFloat(raf.readFloat());
-			}
+	protected PlainComplexFloatMatrixX cropInternal(final Piece piece) throws CalculationException {
+		final PlainComplexFloatMatrixX	result = newMatrix(piece.getWidth(), piece.getHeight());
+
+		try {
+			transferTo(piece, result, 0, 0);
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
 		}
-		return this;
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX uploadInternal(Piece piece, PlainComplexFloatMatrixX out) throws IOException {
-		// TODO Auto-generated method stub
-		return null;
+	protected <AC extends ApplyCallback> PlainComplexFloatMatrixX applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final ComplexFloatApplyCallback	ac = (ComplexFloatApplyCallback)callback;
+		final float[]		temp = new float[2];
+		final int			width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						final int	index = 2*(y*width+x);
+
+						temp[0] = source.get(index);
+						temp[1] = source.get(index+1);
+						ac.apply(x, fromRow+y, temp);
+						source.put(index, temp[0]);
+						source.put(index+1, temp[1]);
+					}
+				}
+			});
+			return this;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX cropInternal(Piece piece) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final TileCursor	cursor = new TileCursor();
+
+				@Override
+				public boolean readBoolean() throws IOException {
+					final float	real = cursor.next().getFloat(), image = cursor.next().getFloat();
+
+					return real != 0 || image != 0;
+				}
+
+				@Override public int readInt() throws IOException {return (int)next();}
+				@Override public long readLong() throws IOException {return (long)next();}
+				@Override public float readFloat() throws IOException {return next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private float next() throws IOException {
+					final float	value = cursor.next().getFloat();
+
+					if (!complex) {
+						cursor.next().getFloat();
+					}
+					return value;
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
-	protected <AC extends ApplyCallback> PlainComplexFloatMatrixX applyInternal(Piece piece, AC callback)
-			throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
 	}
 
 	@Override
-	protected BaseMatrix<?> castInternal(ContentType type) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case IN_MEMORY	:
+				try {
+					return new PlainComplexFloatMatrix(getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final TileCursor	cursor = new TileCursor();
+
+						@Override
+						public float readFloat() throws IOException {
+							return cursor.next().getFloat();
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
 	}
 
 	@Override
-	protected BaseMatrix<?> castInternal(FormatType type) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX addInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		return process(another, (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal + rightReal);
+			target.put(index+1, leftImage + rightImage);
+		});
 	}
 
 	@Override
-	protected BaseMatrix<?> castInternal(StoreType type) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX addInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexFloat(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal + rightReal);
+			target.put(index+1, leftImage + rightImage);
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX addInternal(PlainComplexFloatMatrixX another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX subtractInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		return process(another, (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal - rightReal);
+			target.put(index+1, leftImage - rightImage);
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX addInternal(Operand another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX subtractInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexFloat(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal - rightReal);
+			target.put(index+1, leftImage - rightImage);
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX subtractInternal(PlainComplexFloatMatrixX another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX subtractRevInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		return another.subtractInternal(this);
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX subtractInternal(Operand another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX subtractRevInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexFloat(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, rightReal - leftReal);
+			target.put(index+1, rightImage - leftImage);
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX subtractRevInternal(PlainComplexFloatMatrixX another)
-			throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		final int		width = getWidth(), height = getHeight(), anotherWidth = another.getWidth();
+		final PlainComplexFloatMatrixX	result = newMatrix(anotherWidth, height);
+		final int		rowsPerTile = getRowsPerTile(Math.max(width, anotherWidth)), depthPerTile = Math.min(width, another.getRowsPerTile());
+		final float[]	leftPart = new float[2 * rowsPerTile * depthPerTile], rightPart = new float[2 * depthPerTile * anotherWidth], product = new float[2 * rowsPerTile * anotherWidth];
+
+		try {
+			for(int fromRow = 0; fromRow < height; fromRow += rowsPerTile) {
+				final int		rows = Math.min(rowsPerTile, height - fromRow);
+				final FloatBuffer	left = map(fromRow, rows).asFloatBuffer();
+
+				Arrays.fill(product, 0, 2 * rows * anotherWidth, 0f);
+				for(int fromDepth = 0; fromDepth < width; fromDepth += depthPerTile) {
+					final int	depth = Math.min(depthPerTile, width - fromDepth);
+
+					for(int y = 0; y < rows; y++) {
+						left.get(2*(y*width+fromDepth), leftPart, 2*y*depth, 2*depth);
+					}
+					another.map(fromDepth, depth).asFloatBuffer().get(0, rightPart, 0, 2*depth*anotherWidth);
+					MultiplicationEngine.multiplyComplex(leftPart, depth, rows, rightPart, anotherWidth, product);
+				}
+				result.map(fromRow, rows).asFloatBuffer().put(0, product, 0, 2*rows*anotherWidth);
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX subtractRevInternal(Operand another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulTInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		final PlainComplexFloatMatrixX	transposed = transpose();
+
+		try {
+			return transposed.mulInternal(another);
+		} finally {
+			transposed.close();
+		}
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulInternal(PlainComplexFloatMatrixX another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulRevInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		return another.mulInternal(this);
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulTInternal(PlainComplexFloatMatrixX another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulRevTInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		final PlainComplexFloatMatrixX	transposed = transpose();
+
+		try {
+			return another.mulInternal(transposed);
+		} finally {
+			transposed.close();
+		}
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulRevInternal(PlainComplexFloatMatrixX another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulHadamardInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		return process(another, (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal * rightReal - leftImage * rightImage);
+			target.put(index+1, leftReal * rightImage + leftImage * rightReal);
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulRevTInternal(PlainComplexFloatMatrixX another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulKronekerInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		final PlainComplexFloatMatrixX	result = newMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+		final float[]	row = new float[2 * width1];
+
+		try {
+			for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+				final int	targetRow = y1 * height2;
+
+				map(y1, 1).asFloatBuffer().get(0, row);
+				another.forEachTile(0, height2, (fromRow, rows, tile)->{
+					final FloatBuffer	source = tile.asFloatBuffer();
+					final FloatBuffer	target = result.map(targetRow+fromRow, rows).asFloatBuffer();
+
+					for(int y2 = 0; y2 < rows; y2++) {
+						for(int x1 = 0; x1 < width1; x1++) {
+							final float	real = row[2*x1], image = row[2*x1+1];
+
+							if (real != 0 || image != 0) {
+								for(int x2 = 0; x2 < width2; x2++) {
+									final int	from = 2*(y2*width2+x2), to = 2*(y2*targetWidth + x1*width2+x2);
+
+									target.put(to, source.get(from) * real - source.get(from+1) * image);
+									target.put(to+1, source.get(from) * image + source.get(from+1) * real);
+								}
+							}
+						}
+					}
+				});
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulHadamardInternal(PlainComplexFloatMatrixX another)
-			throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulKronekerRevInternal(final PlainComplexFloatMatrixX another) throws CalculationException {
+		return another.mulKronekerInternal(this);
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulKronekerInternal(PlainComplexFloatMatrixX another)
-			throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX mulInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexFloat(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			target.put(index, leftReal * rightReal - leftImage * rightImage);
+			target.put(index+1, leftReal * rightImage + leftImage * rightReal);
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulKronekerRevInternal(PlainComplexFloatMatrixX another)
-			throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX divInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexFloat(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			final float	znam = 1 / (rightReal * rightReal + rightImage * rightImage);
+
+			target.put(index, znam * (leftReal * rightReal + leftImage * rightImage));
+			target.put(index+1, znam * (leftImage * rightReal - leftReal * rightImage));
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX mulInternal(Operand another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX divRevInternal(final Operand another) throws CalculationException {
+		return process(another.getComplexFloat(), (leftReal, leftImage, rightReal, rightImage, target, index)->{
+			final float	znam = 1 / (leftReal * leftReal + leftImage * leftImage);
+
+			target.put(index, znam * (rightReal * leftReal + rightImage * leftImage));
+			target.put(index+1, znam * (rightImage * leftReal - rightReal * leftImage));
+		});
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX divInternal(Operand another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	protected PlainComplexFloatMatrixX aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int		width = getWidth(), fromX = piece.getX(), fromY = piece.getY();
+		final PlainComplexFloatMatrixX	result;
+
+		try {
+			switch (dir) {
+				case BY_COLUMNS	:
+					final ComplexFloatGroupFunction[]	columns = new ComplexFloatGroupFunction[piece.getWidth()];
+					final float[]	totals = new float[2 * columns.length];
+
+					result = newMatrix(piece.getWidth(), 1);
+					for(int x = 0; x < columns.length; x++) {
+						columns[x] = PlainComplexFloatMatrix.newGroupFunction(type);
+						columns[x].init();
+					}
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final FloatBuffer	source = tile.asFloatBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0; x < columns.length; x++) {
+								columns[x].add(source.get(2*(y*width+fromX+x)), source.get(2*(y*width+fromX+x)+1));
+							}
+						}
+					});
+					for(int x = 0; x < columns.length; x++) {
+						System.arraycopy(columns[x].total().getComplexFloat(), 0, totals, 2*x, 2);
+					}
+					result.map(0, 1).asFloatBuffer().put(0, totals);
+					break;
+				case BY_ROWS	:
+					final ComplexFloatGroupFunction	rowFunction = PlainComplexFloatMatrix.newGroupFunction(type);
+
+					result = newMatrix(1, piece.getHeight());
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final FloatBuffer	source = tile.asFloatBuffer();
+						final FloatBuffer	target = result.map(fromRow - fromY, rows).asFloatBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							rowFunction.init();
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								rowFunction.add(source.get(2*(y*width+fromX+x)), source.get(2*(y*width+fromX+x)+1));
+							}
+							target.put(2*y, rowFunction.total().getComplexFloat());
+						}
+					});
+					break;
+				case TOTAL		:
+					final ComplexFloatGroupFunction	totalFunction = PlainComplexFloatMatrix.newGroupFunction(type);
+
+					result = newMatrix(1, 1);
+					totalFunction.init();
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final FloatBuffer	source = tile.asFloatBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								totalFunction.add(source.get(2*(y*width+fromX+x)), source.get(2*(y*width+fromX+x)+1));
+							}
+						}
+					});
+					result.map(0, 1).asFloatBuffer().put(0, totalFunction.total().getComplexFloat());
+					break;
+				default:
+					throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
+	/**
+	 * <p>Calculate determinant. Matrix is loaded into memory to calculate determinant.</p>
+	 */
 	@Override
-	protected PlainComplexFloatMatrixX divRevInternal(Operand another) throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	public Operand det() throws CalculationException {
+		try(final PlainComplexFloatMatrix	inMemory = (PlainComplexFloatMatrix)castInternal(StoreType.IN_MEMORY)) {
+			return inMemory.det();
+		}
 	}
 
 	@Override
-	protected PlainComplexFloatMatrixX aggregateInternal(Piece piece, AggregateDirection dir, AggregateType type)
-			throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+	public Operand track() throws CalculationException {
+		final int		width = getWidth();
+		final double[]	sum = new double[2];
+
+		try {
+			forEachTile(0, Math.min(width, getHeight()), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					sum[0] += source.get(2*(y*width+fromRow+y));
+					sum[1] += source.get(2*(y*width+fromRow+y)+1);
+				}
+			});
+			return Operand.of((float)sum[0], (float)sum[1]);
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
 	@Override
 	protected PlainComplexFloatMatrixX invertInternal() throws CalculationException {
-		// TODO Auto-generated method stub
-		return null;
+		throw new UnsupportedOperationException("Inversion of complex matrices is not supported yet");
+	}
+
+	private PlainComplexFloatMatrixX newMatrix(final int width, final int height) throws CalculationException {
+		try {
+			return new PlainComplexFloatMatrixX(width, height, getTileSize());
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainComplexFloatMatrixX process(final PlainComplexFloatMatrixX another, final Operation op) throws CalculationException {
+		final PlainComplexFloatMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source1 = tile.asFloatBuffer();
+				final FloatBuffer	source2 = another.map(fromRow, rows).asFloatBuffer();
+				final FloatBuffer	target = result.map(fromRow, rows).asFloatBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index += 2) {
+					op.apply(source1.get(index), source1.get(index+1), source2.get(index), source2.get(index+1), target, index);
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
 	}
 
+	private PlainComplexFloatMatrixX process(final float[] value, final Operation op) throws CalculationException {
+		final PlainComplexFloatMatrixX	result = newMatrix(getWidth(), getHeight());
+		final float		real = value[0], image = value[1];
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+				final FloatBuffer	target = result.map(fromRow, rows).asFloatBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index += 2) {
+					op.apply(source.get(index), source.get(index+1), real, image, target, index);
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
 }
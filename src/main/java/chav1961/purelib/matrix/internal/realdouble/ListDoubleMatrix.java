@@ -0,0 +1,359 @@
+package chav1961.purelib.matrix.internal.realdouble;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+
+/**
+ * <p>This class implements in-memory sparse matrix with double content in the <i>coordinate list</i> format ({@linkplain FormatType#LIST}).
+ * Only non-zero elements of the matrix are stored as (row, column, value) triplets sorted by rows and columns. The format is convenient to build
+ * sparse matrices from unordered lists of elements (for example, from lists of graph edges, see {@linkplain #ListDoubleMatrix(int, int, int[], int[], double[])}).
+ * Arithmetic operations are executed by the {@linkplain PackedLineDoubleMatrix} engine, because sorted triplets can be converted to the compressed
+ * sparse row format and back for the time proportional to the number of non-zero elements.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class ListDoubleMatrix extends AbstractBaseMatrix<ListDoubleMatrix> {
+	private int[]		rows;
+	private int[]		columns;
+	private double[]	values;
+
+	public ListDoubleMatrix(final int width, final int height) {
+		super(ContentType.REAL_DOUBLE, FormatType.LIST, StoreType.IN_MEMORY, width, height);
+		this.rows = new int[0];
+		this.columns = new int[0];
+		this.values = new double[0];
+	}
+
+	/**
+	 * <p>Constructor of the class. Builds matrix from the unordered list of elements. Values of the duplicated elements are added.</p>
+	 * @param width matrix width. Must be greater than 0
+	 * @param height matrix height. Must be greater than 0
+	 * @param rows row numbers of the elements. Can't be null
+	 * @param columns column numbers of the elements. Can't be null and must have the same length as rows
+	 * @param values values of the elements. Can't be null and must have the same length as rows
+	 * @throws NullPointerException when any array is null
+	 * @throws IllegalArgumentException when array lengths differ or any element is outside the matrix
+	 */
+	public ListDoubleMatrix(final int width, final int height, final int[] rows, final int[] columns, final double[] values) throws NullPointerException, IllegalArgumentException {
+		super(ContentType.REAL_DOUBLE, FormatType.LIST, StoreType.IN_MEMORY, width, height);
+		if (rows == null) {
+			throw new NullPointerException("Rows can't be null");
+		}
+		else if (columns == null) {
+			throw new NullPointerException("Columns can't be null");
+		}
+		else if (values == null) {
+			throw new NullPointerException("Values can't be null");
+		}
+		else if (columns.length != rows.length || values.length != rows.length) {
+			throw new IllegalArgumentException("Rows length ["+rows.length+"], columns length ["+columns.length+"] and values length ["+values.length+"] differ");
+		}
+		else {
+			final int[]		rowStarts = new int[height + 1];
+			final long[]	keys = new long[rows.length];
+
+			for(int index = 0; index < keys.length; index++) {
+				if (rows[index] < 0 || rows[index] >= height || columns[index] < 0 || columns[index] >= width) {
+					throw new IllegalArgumentException("Element ["+columns[index]+","+rows[index]+"] at index ["+index+"] is outside the matrix "+getMatrixBounds(this));
+				}
+				else {
+					rowStarts[rows[index] + 1]++;
+				}
+			}
+			for(int y = 0; y < height; y++) {
+				rowStarts[y + 1] += rowStarts[y];
+			}
+			final int[]		positions = Arrays.copyOf(rowStarts, height);
+
+			for(int index = 0; index < keys.length; index++) {	// Distribute elements by rows keeping column and element index in the key
+				keys[positions[rows[index]]++] = ((long)columns[index]) << 32 | index;
+			}
+
+			final PackedLineDoubleMatrix.Builder	builder = new PackedLineDoubleMatrix.Builder(height);
+
+			for(int y = 0; y < height; y++) {
+				final int	maxIndex = rowStarts[y + 1];
+
+				Arrays.sort(keys, rowStarts[y], maxIndex);
+				for(int index = rowStarts[y]; index < maxIndex; ) {
+					final int	column = (int)(keys[index] >>> 32);
+					double		sum = 0;
+
+					while (index < maxIndex && (int)(keys[index] >>> 32) == column) {
+						sum += values[(int)keys[index++]];
+					}
+					builder.append(column, sum);
+				}
+				builder.endRow();
+			}
+			assign(builder.build(width, height));
+		}
+	}
+
+	ListDoubleMatrix(final PackedLineDoubleMatrix matrix) {
+		super(ContentType.REAL_DOUBLE, FormatType.LIST, StoreType.IN_MEMORY, matrix.getWidth(), matrix.getHeight());
+		assign(matrix);
+	}
+
+	/**
+	 * <p>Get number of non-zero elements in the matrix</p>
+	 * @return number of non-zero elements
+	 */
+	public int getNonZeroCount() {
+		return values.length;
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		return new ListDoubleMatrix(toPackedLine());
+	}
+
+	@Override
+	public ListDoubleMatrix transpose() throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().transpose());
+	}
+
+	@Override
+	protected ListDoubleMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final PackedLineDoubleMatrix	temp = toPackedLine();
+
+		temp.downloadInternal(piece, in);
+		assign(temp);
+		return this;
+	}
+
+	@Override
+	protected ListDoubleMatrix downloadInternal(final Piece piece, final ListDoubleMatrix in) throws IOException {
+		final PackedLineDoubleMatrix	temp = toPackedLine();
+
+		temp.downloadInternal(piece, in.toPackedLine());
+		assign(temp);
+		return this;
+	}
+
+	@Override
+	protected ListDoubleMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		toPackedLine().uploadInternal(piece, out);
+		return this;
+	}
+
+	@Override
+	protected ListDoubleMatrix uploadInternal(final Piece piece, final ListDoubleMatrix out) throws IOException {
+		out.downloadInternal(piece, this);
+		return this;
+	}
+
+	@Override
+	protected ListDoubleMatrix cropInternal(final Piece piece) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().cropInternal(piece));
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> ListDoubleMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final PackedLineDoubleMatrix	temp = toPackedLine();
+
+		temp.applyInternal(piece, callback);
+		assign(temp);
+		return this;
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		return toPackedLine().castInternal(type);
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case LIST		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case PACKED_LINE:
+				try {
+					return (BaseMatrix<?>) toPackedLine().clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				return toPackedLine().castInternal(type);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case IN_MEMORY	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				return toPackedLine().castInternal(type);
+		}
+	}
+
+	@Override
+	protected ListDoubleMatrix addInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().addInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix addInternal(final Operand another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().addInternal(another));
+	}
+
+	@Override
+	protected ListDoubleMatrix subtractInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().subtractInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix subtractInternal(final Operand another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().subtractInternal(another));
+	}
+
+	@Override
+	protected ListDoubleMatrix subtractRevInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().subtractRevInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix subtractRevInternal(final Operand another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().subtractRevInternal(another));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulTInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulTInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulRevInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulRevInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulRevTInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulRevTInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulHadamardInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulHadamardInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulKronekerInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulKronekerInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulKronekerRevInternal(final ListDoubleMatrix another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulKronekerRevInternal(another.toPackedLine()));
+	}
+
+	@Override
+	protected ListDoubleMatrix mulInternal(final Operand another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().mulInternal(another));
+	}
+
+	@Override
+	protected ListDoubleMatrix divInternal(final Operand another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().divInternal(another));
+	}
+
+	@Override
+	protected ListDoubleMatrix divRevInternal(final Operand another) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().divRevInternal(another));
+	}
+
+	@Override
+	protected ListDoubleMatrix aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().aggregateInternal(piece, dir, type));
+	}
+
+	@Override
+	public Operand det() throws CalculationException {
+		return toPackedLine().det();
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		double	sum = 0;
+
+		for(int index = 0; index < values.length; index++) {
+			if (rows[index] == columns[index]) {
+				sum += values[index];
+			}
+		}
+		return Operand.of(sum);
+	}
+
+	@Override
+	protected ListDoubleMatrix invertInternal() throws CalculationException {
+		return new ListDoubleMatrix(toPackedLine().invertInternal());
+	}
+
+	/**
+	 * <p>Multiply sparse matrix by dense one (this * another).</p>
+	 * @param another dense matrix to multiply. Can't be null and it's height must be equal to the current matrix width
+	 * @return dense result of multiplication. Can't be null
+	 * @throws NullPointerException when another matrix is null
+	 * @throws IllegalArgumentException when matrix sizes are incompatible
+	 * @throws CalculationException on any calculation errors
+	 */
+	public PlainDoubleMatrix mul(final PlainDoubleMatrix another) throws NullPointerException, IllegalArgumentException, CalculationException {
+		return toPackedLine().mul(another);
+	}
+
+	/**
+	 * <p>Multiply dense matrix by sparse one (another * this).</p>
+	 * @param another dense matrix to multiply. Can't be null and it's width must be equal to the current matrix height
+	 * @return dense result of multiplication. Can't be null
+	 * @throws NullPointerException when another matrix is null
+	 * @throws IllegalArgumentException when matrix sizes are incompatible
+	 * @throws CalculationException on any calculation errors
+	 */
+	public PlainDoubleMatrix mulRev(final PlainDoubleMatrix another) throws NullPointerException, IllegalArgumentException, CalculationException {
+		return toPackedLine().mulRev(another);
+	}
+
+	PackedLineDoubleMatrix toPackedLine() {
+		final int[]	rowStarts = new int[getHeight() + 1];
+
+		for(int index = 0; index < rows.length; index++) {
+			rowStarts[rows[index] + 1]++;
+		}
+		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
+			rowStarts[y + 1] += rowStarts[y];
+		}
+		return new PackedLineDoubleMatrix(getWidth(), getHeight(), rowStarts, columns, values);
+	}
+
+	private void assign(final PackedLineDoubleMatrix matrix) {
+		final int[]	rowStarts = matrix.getRowStarts();
+		final int	size = matrix.getNonZeroCount();
+
+		rows = new int[size];
+		for(int y = 0, maxY = matrix.getHeight(); y < maxY; y++) {
+			Arrays.fill(rows, rowStarts[y], rowStarts[y + 1], y);
+		}
+		columns = Arrays.copyOf(matrix.getColumns(), size);
+		values = Arrays.copyOf(matrix.getValues(), size);
+	}
+}
@@ -0,0 +1,680 @@
+package chav1961.purelib.matrix.internal.realdouble;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+
+/**
+ * <p>This class implements in-memory sparse matrix with double content in the <i>compressed sparse row</i> format ({@linkplain FormatType#PACKED_LINE}).
+ * Only non-zero elements of the matrix are stored. Non-zero elements of the row y are located at the [rowStarts[y], rowStarts[y+1]) indices
+ * of the columns and values arrays and are sorted by column number. All the operations skip zero elements whenever it is possible, so
+ * they cost proportional to the number of non-zero elements instead of the matrix size. Operations which can't keep zeroes (for example,
+ * adding non-zero scalar) produce matrix with all the elements stored.</p>
+ * <p>In addition to {@linkplain BaseMatrix} operations, the class supports multiplication with the {@linkplain PlainDoubleMatrix} dense matrices
+ * (see {@linkplain #mul(PlainDoubleMatrix)} and {@linkplain #mulRev(PlainDoubleMatrix)}).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PackedLineDoubleMatrix extends AbstractBaseMatrix<PackedLineDoubleMatrix> {
+	@FunctionalInterface
+	private static interface Operation {
+		double apply(double left, double right);
+	}
+
+	@FunctionalInterface
+	private static interface RowUpdater {
+		void update(int row, double[] content) throws IOException, CalculationException;
+	}
+
+	private int[]		rowStarts;
+	private int[]		columns;
+	private double[]	values;
+
+	public PackedLineDoubleMatrix(final int width, final int height) {
+		this(width, height, new int[height + 1], new int[0], new double[0]);
+	}
+
+	PackedLineDoubleMatrix(final int width, final int height, final int[] rowStarts, final int[] columns, final double[] values) {
+		super(ContentType.REAL_DOUBLE, FormatType.PACKED_LINE, StoreType.IN_MEMORY, width, height);
+		this.rowStarts = rowStarts;
+		this.columns = columns;
+		this.values = values;
+	}
+
+	/**
+	 * <p>Get number of non-zero elements in the matrix</p>
+	 * @return number of non-zero elements
+	 */
+	public int getNonZeroCount() {
+		return rowStarts[getHeight()];
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		return new PackedLineDoubleMatrix(getWidth(), getHeight(), rowStarts.clone(), columns.clone(), values.clone());
+	}
+
+	@Override
+	public PackedLineDoubleMatrix transpose() throws CalculationException {
+		final int		width = getWidth(), height = getHeight(), size = getNonZeroCount();
+		final int[]		targetRowStarts = new int[width + 1], targetColumns = new int[size];
+		final double[]	targetValues = new double[size];
+
+		for(int index = 0; index < size; index++) {
+			targetRowStarts[columns[index] + 1]++;
+		}
+		for(int x = 0; x < width; x++) {
+			targetRowStarts[x + 1] += targetRowStarts[x];
+		}
+		final int[]		positions = Arrays.copyOf(targetRowStarts, width);
+
+		for(int y = 0; y < height; y++) {
+			for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+				final int	where = positions[columns[index]]++;
+
+				targetColumns[where] = y;
+				targetValues[where] = values[index];
+			}
+		}
+		return new PackedLineDoubleMatrix(height, width, targetRowStarts, targetColumns, targetValues);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		try {
+			updateRows(piece.getY(), piece.getY() + piece.getHeight(), (row, content)->{
+				for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+					content[x] = in.readDouble();
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix downloadInternal(final Piece piece, final PackedLineDoubleMatrix in) throws IOException {
+		try {
+			updateRows(piece.getY(), piece.getY() + piece.getHeight(), (row, content)->{
+				final int	fromX = piece.getX(), toX = fromX + piece.getWidth();
+
+				Arrays.fill(content, fromX, toX, 0);
+				for(int index = in.rowStarts[row], maxIndex = in.rowStarts[row + 1]; index < maxIndex; index++) {
+					if (in.columns[index] >= fromX && in.columns[index] < toX) {
+						content[in.columns[index]] = in.values[index];
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			int		index = rowStarts[y];
+			final int	maxIndex = rowStarts[y + 1];
+
+			while (index < maxIndex && columns[index] < piece.getX()) {
+				index++;
+			}
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				if (index < maxIndex && columns[index] == x) {
+					out.writeDouble(values[index++]);
+				}
+				else {
+					out.writeDouble(0);
+				}
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix uploadInternal(final Piece piece, final PackedLineDoubleMatrix out) throws IOException {
+		out.downloadInternal(piece, this);
+		return this;
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix cropInternal(final Piece piece) throws CalculationException {
+		final Builder	builder = new Builder(piece.getHeight());
+		final int		fromX = piece.getX(), toX = fromX + piece.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+				if (columns[index] >= fromX && columns[index] < toX) {
+					builder.append(columns[index] - fromX, values[index]);
+				}
+			}
+			builder.endRow();
+		}
+		return builder.build(piece.getWidth(), piece.getHeight());
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PackedLineDoubleMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final DoubleApplyCallback	ac = (DoubleApplyCallback)callback;
+
+		try {
+			updateRows(piece.getY(), piece.getY() + piece.getHeight(), (row, content)->{
+				for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+					content[x] = ac.apply(x, row, content[x]);
+				}
+			});
+			return this;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		try(final PlainDoubleMatrix	plain = toPlain()) {
+			return plain.cast(type);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				return toPlain();
+			case LIST		:
+				return new ListDoubleMatrix(this);
+			case PACKED_LINE:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case IN_MEMORY	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case EXTERNAL	:
+				try(final PlainDoubleMatrix	plain = toPlain()) {
+					return plain.cast(type);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix addInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return process(another, (left, right)->left + right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix addInternal(final Operand another) throws CalculationException {
+		return process(another.getDouble(), (left, right)->left + right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix subtractInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return process(another, (left, right)->left - right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix subtractInternal(final Operand another) throws CalculationException {
+		return process(another.getDouble(), (left, right)->left - right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix subtractRevInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return process(another, (left, right)->right - left);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix subtractRevInternal(final Operand another) throws CalculationException {
+		return process(another.getDouble(), (left, right)->right - left);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		final int		height = getHeight(), anotherWidth = another.getWidth();
+		final Builder	builder = new Builder(height);
+		final double[]	accumulator = new double[anotherWidth];
+		final int[]		marks = new int[anotherWidth], touched = new int[anotherWidth];
+
+		Arrays.fill(marks, -1);
+		for(int y = 0; y < height; y++) {	// Gustavson's algorithm: accumulate row of the result in the dense accumulator
+			int		count = 0;
+
+			for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+				final double	value = values[index];
+				final int		k = columns[index];
+
+				for(int anotherIndex = another.rowStarts[k], maxAnotherIndex = another.rowStarts[k + 1]; anotherIndex < maxAnotherIndex; anotherIndex++) {
+					final int	x = another.columns[anotherIndex];
+
+					if (marks[x] != y) {
+						marks[x] = y;
+						accumulator[x] = 0;
+						touched[count++] = x;
+					}
+					accumulator[x] += value * another.values[anotherIndex];
+				}
+			}
+			Arrays.sort(touched, 0, count);
+			for(int index = 0; index < count; index++) {
+				builder.append(touched[index], accumulator[touched[index]]);
+			}
+			builder.endRow();
+		}
+		return builder.build(anotherWidth, height);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulTInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return transpose().mulInternal(another);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulRevInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulRevTInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return another.mulInternal(transpose());
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulHadamardInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return process(another, (left, right)->left * right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulKronekerInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		final int		width2 = another.getWidth(), height2 = another.getHeight();
+		final Builder	builder = new Builder(getHeight() * height2);
+
+		for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+			for(int y2 = 0; y2 < height2; y2++) {
+				for(int index1 = rowStarts[y1], maxIndex1 = rowStarts[y1 + 1]; index1 < maxIndex1; index1++) {
+					final int		x1 = columns[index1] * width2;
+					final double	value = values[index1];
+
+					for(int index2 = another.rowStarts[y2], maxIndex2 = another.rowStarts[y2 + 1]; index2 < maxIndex2; index2++) {
+						builder.append(x1 + another.columns[index2], value * another.values[index2]);
+					}
+				}
+				builder.endRow();
+			}
+		}
+		return builder.build(getWidth() * width2, getHeight() * height2);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulKronekerRevInternal(final PackedLineDoubleMatrix another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix mulInternal(final Operand another) throws CalculationException {
+		return process(another.getDouble(), (left, right)->left * right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix divInternal(final Operand another) throws CalculationException {
+		return process(another.getDouble(), (left, right)->left / right);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix divRevInternal(final Operand another) throws CalculationException {
+		return process(another.getDouble(), (left, right)->right / left);
+	}
+
+	@Override
+	protected PackedLineDoubleMatrix aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int		fromX = piece.getX(), toX = fromX + piece.getWidth();
+		final Builder	builder;
+
+		switch (dir) {
+			case BY_COLUMNS	:
+				final double[]	totals = new double[piece.getWidth()];
+				final int[]		counts = new int[piece.getWidth()];
+
+				builder = new Builder(1);
+				for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+					for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+						if (columns[index] >= fromX && columns[index] < toX) {
+							final int	x = columns[index] - fromX;
+
+							totals[x] = counts[x]++ == 0 ? values[index] : aggregate(totals[x], values[index], type);
+						}
+					}
+				}
+				for(int x = 0; x < totals.length; x++) {
+					builder.append(x, total(totals[x], counts[x], piece.getHeight(), type));
+				}
+				builder.endRow();
+				return builder.build(piece.getWidth(), 1);
+			case BY_ROWS	:
+				builder = new Builder(piece.getHeight());
+				for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+					double	total = 0;
+					int		count = 0;
+
+					for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+						if (columns[index] >= fromX && columns[index] < toX) {
+							total = count++ == 0 ? values[index] : aggregate(total, values[index], type);
+						}
+					}
+					builder.append(0, total(total, count, piece.getWidth(), type));
+					builder.endRow();
+				}
+				return builder.build(1, piece.getHeight());
+			case TOTAL		:
+				double	total = 0;
+				int		count = 0;
+
+				builder = new Builder(1);
+				for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+					for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+						if (columns[index] >= fromX && columns[index] < toX) {
+							total = count++ == 0 ? values[index] : aggregate(total, values[index], type);
+						}
+					}
+				}
+				builder.append(0, total(total, count, piece.getWidth() * piece.getHeight(), type));
+				builder.endRow();
+				return builder.build(1, 1);
+			default:
+				throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+		}
+	}
+
+	/**
+	 * <p>Calculate determinant. Matrix is converted to {@linkplain FormatType#PLAIN} format to calculate determinant.</p>
+	 */
+	@Override
+	public Operand det() throws CalculationException {
+		try(final PlainDoubleMatrix	plain = toPlain()) {
+			return plain.det();
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		double	sum = 0;
+
+		for(int y = 0, maxY = Math.min(getWidth(), getHeight()); y < maxY; y++) {
+			final int	index = Arrays.binarySearch(columns, rowStarts[y], rowStarts[y + 1], y);
+
+			if (index >= 0) {
+				sum += values[index];
+			}
+		}
+		return Operand.of(sum);
+	}
+
+	/**
+	 * <p>Invert matrix. Matrix is converted to {@linkplain FormatType#PLAIN} format to invert it.</p>
+	 */
+	@Override
+	protected PackedLineDoubleMatrix invertInternal() throws CalculationException {
+		try(final PlainDoubleMatrix	plain = toPlain();
+			final PlainDoubleMatrix	inverted = plain.invert()) {
+			return of(inverted.content, inverted.getWidth(), inverted.getHeight());
+		}
+	}
+
+	/**
+	 * <p>Multiply sparse matrix by dense one (this * another).</p>
+	 * @param another dense matrix to multiply. Can't be null and it's height must be equal to the current matrix width
+	 * @return dense result of multiplication. Can't be null
+	 * @throws NullPointerException when another matrix is null
+	 * @throws IllegalArgumentException when matrix sizes are incompatible
+	 * @throws CalculationException on any calculation errors
+	 */
+	public PlainDoubleMatrix mul(final PlainDoubleMatrix another) throws NullPointerException, IllegalArgumentException, CalculationException {
+		if (another == null) {
+			throw new NullPointerException("Another matrix to multiply can't be null");
+		}
+		else if (another.getHeight() != getWidth()) {
+			throw new IllegalArgumentException("Incompatible matrices: another matrix height ["+another.getHeight()+"] differ with current matrix width ["+getWidth()+"]");
+		}
+		else {
+			final PlainDoubleMatrix	result = new PlainDoubleMatrix(another.getWidth(), getHeight());
+
+			MultiplicationEngine.multiplySparse(rowStarts, columns, values, getHeight(), another.content, another.getWidth(), result.content);
+			return result;
+		}
+	}
+
+	/**
+	 * <p>Multiply dense matrix by sparse one (another * this).</p>
+	 * @param another dense matrix to multiply. Can't be null and it's width must be equal to the current matrix height
+	 * @return dense result of multiplication. Can't be null
+	 * @throws NullPointerException when another matrix is null
+	 * @throws IllegalArgumentException when matrix sizes are incompatible
+	 * @throws CalculationException on any calculation errors
+	 */
+	public PlainDoubleMatrix mulRev(final PlainDoubleMatrix another) throws NullPointerException, IllegalArgumentException, CalculationException {
+		if (another == null) {
+			throw new NullPointerException("Another matrix to multiply can't be null");
+		}
+		else if (another.getWidth() != getHeight()) {
+			throw new IllegalArgumentException("Incompatible matrices: another matrix width ["+another.getWidth()+"] differ with current matrix height ["+getHeight()+"]");
+		}
+		else {
+			final PlainDoubleMatrix	result = new PlainDoubleMatrix(getWidth(), another.getHeight());
+
+			MultiplicationEngine.multiplySparse(another.content, another.getWidth(), another.getHeight(), rowStarts, columns, values, getWidth(), result.content);
+			return result;
+		}
+	}
+
+	int[] getRowStarts() {
+		return rowStarts;
+	}
+
+	int[] getColumns() {
+		return columns;
+	}
+
+	double[] getValues() {
+		return values;
+	}
+
+	PlainDoubleMatrix toPlain() {
+		final PlainDoubleMatrix	result = new PlainDoubleMatrix(getWidth(), getHeight());
+		final double[]			target = result.content;
+		final int				width = getWidth();
+
+		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
+			for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+				target[y * width + columns[index]] = values[index];
+			}
+		}
+		return result;
+	}
+
+	static PackedLineDoubleMatrix of(final double[] content, final int width, final int height) {
+		final Builder	builder = new Builder(height);
+
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				builder.append(x, content[y * width + x]);
+			}
+			builder.endRow();
+		}
+		return builder.build(width, height);
+	}
+
+	private void updateRows(final int fromRow, final int toRow, final RowUpdater updater) throws IOException, CalculationException {
+		final Builder	builder = new Builder(getHeight());
+		final double[]	content = new double[getWidth()];
+
+		for(int y = 0, maxY = getHeight(); y < maxY; y++) {
+			if (y < fromRow || y >= toRow) {
+				for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+					builder.append(columns[index], values[index]);
+				}
+			}
+			else {
+				Arrays.fill(content, 0);
+				for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+					content[columns[index]] = values[index];
+				}
+				updater.update(y, content);
+				for(int x = 0; x < content.length; x++) {
+					builder.append(x, content[x]);
+				}
+			}
+			builder.endRow();
+		}
+		rowStarts = builder.rowStarts;
+		columns = Arrays.copyOf(builder.columns, builder.size);
+		values = Arrays.copyOf(builder.values, builder.size);
+	}
+
+	private PackedLineDoubleMatrix process(final PackedLineDoubleMatrix another, final Operation op) {
+		final int		height = getHeight();
+		final Builder	builder = new Builder(height);
+
+		for(int y = 0; y < height; y++) {	// Merge sorted rows of both matrices
+			int			index1 = rowStarts[y], index2 = another.rowStarts[y];
+			final int	maxIndex1 = rowStarts[y + 1], maxIndex2 = another.rowStarts[y + 1];
+
+			while (index1 < maxIndex1 || index2 < maxIndex2) {
+				final int	x1 = index1 < maxIndex1 ? columns[index1] : Integer.MAX_VALUE;
+				final int	x2 = index2 < maxIndex2 ? another.columns[index2] : Integer.MAX_VALUE;
+
+				if (x1 < x2) {
+					builder.append(x1, op.apply(values[index1++], 0));
+				}
+				else if (x1 > x2) {
+					builder.append(x2, op.apply(0, another.values[index2++]));
+				}
+				else {
+					builder.append(x1, op.apply(values[index1++], another.values[index2++]));
+				}
+			}
+			builder.endRow();
+		}
+		return builder.build(getWidth(), height);
+	}
+
+	private PackedLineDoubleMatrix process(final double value, final Operation op) {
+		final double	zero = op.apply(0, value);
+
+		final int		width = getWidth(), height = getHeight();
+		final Builder	builder = new Builder(height);
+
+		if (zero == 0) {	// Zeroes remain zeroes, process non-zero elements only
+			for(int y = 0; y < height; y++) {
+				for(int index = rowStarts[y], maxIndex = rowStarts[y + 1]; index < maxIndex; index++) {
+					builder.append(columns[index], op.apply(values[index], value));
+				}
+				builder.endRow();
+			}
+			return builder.build(width, height);
+		}
+		else {
+			for(int y = 0; y < height; y++) {
+				int			index = rowStarts[y];
+				final int	maxIndex = rowStarts[y + 1];
+
+				for(int x = 0; x < width; x++) {
+					if (index < maxIndex && columns[index] == x) {
+						builder.append(x, op.apply(values[index++], value));
+					}
+					else {
+						builder.append(x, zero);
+					}
+				}
+				builder.endRow();
+			}
+			return builder.build(width, height);
+		}
+	}
+
+	private static double aggregate(final double total, final double value, final AggregateType type) {
+		switch (type) {
+			case AVG : case SUM	:
+				return total + value;
+			case MAX	:
+				return Math.max(total, value);
+			case MIN	:
+				return Math.min(total, value);
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+
+	private static double total(final double total, final int count, final int size, final AggregateType type) {
+		if (count < size) {	// Skipped zeroes take part in the aggregation
+			switch (type) {
+				case AVG	:
+					return total / size;
+				case MAX	:
+					return count == 0 ? 0 : Math.max(total, 0);
+				case MIN	:
+					return count == 0 ? 0 : Math.min(total, 0);
+				default :
+					return total;
+			}
+		}
+		else {
+			return type == AggregateType.AVG ? total / size : total;
+		}
+	}
+
+	/**
+	 * <p>This class builds compressed sparse row content row by row. Zero elements are skipped.</p>
+	 */
+	static class Builder {
+		private final int[]	rowStarts;
+		private int[]		columns = new int[16];
+		private double[]	values = new double[16];
+		private int			size = 0, row = 0;
+
+		Builder(final int height) {
+			this.rowStarts = new int[height + 1];
+		}
+
+		void append(final int column, final double value) {
+			if (value != 0) {
+				if (size == columns.length) {
+					columns = Arrays.copyOf(columns, 2 * size);
+					values = Arrays.copyOf(values, 2 * size);
+				}
+				columns[size] = column;
+				values[size++] = value;
+			}
+		}
+
+		void endRow() {
+			rowStarts[++row] = size;
+		}
+
+		PackedLineDoubleMatrix build(final int width, final int height) {
+			return new PackedLineDoubleMatrix(width, height, rowStarts, Arrays.copyOf(columns, size), Arrays.copyOf(values, size));
+		}
+	}
+}
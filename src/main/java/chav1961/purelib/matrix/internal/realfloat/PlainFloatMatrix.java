@@ -0,0 +1,564 @@
+package chav1961.purelib.matrix.internal.realfloat;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements in-memory matrix with float content. All matrix content is stored by rows in one contiguous
+ * float array.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainFloatMatrix extends AbstractBaseMatrix<PlainFloatMatrix>{
+	private final float[]	content;
+
+	public PlainFloatMatrix(final int width,final int height) {
+		super(ContentType.REAL_FLOAT, FormatType.PLAIN, StoreType.IN_MEMORY, width, height);
+		this.content = new float[width*height];
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+
+		System.arraycopy(content, 0, result.content, 0, content.length);
+		return result;
+	}
+
+	@Override
+	public PlainFloatMatrix transpose() throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getHeight(), getWidth());
+		final float[]	target = result.content;
+		final float[]	source = content;
+		final int		width = getWidth(), height = getHeight();
+
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				target[x*height+y] = source[y*width+x];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final float[]	target = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				target[y*width+x] = in.readFloat();
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainFloatMatrix downloadInternal(final Piece piece, final PlainFloatMatrix in) throws IOException {
+		final float[]	target = content;
+		final float[]	source = in.content;
+		final int		width = getWidth(), sourceWidth = in.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, y*sourceWidth+piece.getX(), target, y*width+piece.getX(), piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainFloatMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final float[]	source = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				out.writeFloat(source[y*width+x]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainFloatMatrix uploadInternal(final Piece piece, final PlainFloatMatrix out) throws IOException {
+		final float[]	source = content;
+		final float[]	target = out.content;
+		final int		width = getWidth(), targetWidth = out.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, y*width+piece.getX(), target, y*targetWidth+piece.getX(), piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainFloatMatrix cropInternal(final Piece piece) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(piece.getWidth(), piece.getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final int		width = getWidth();
+
+		for(int y = 0, maxY = piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, (piece.getY()+y)*width+piece.getX(), target, y*piece.getWidth(), piece.getWidth());
+		}
+		return result;
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainFloatMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final float[]		source = content;
+		final FloatApplyCallback	ac = (FloatApplyCallback)callback;
+		final int			width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				source[y*width+x] = ac.apply(x, y, source[y*width+x]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final float[]	source = content;
+				int				index = 0;
+				boolean			image = false;
+
+				@Override public boolean readBoolean() throws IOException {return source[index++] != 0;}
+				@Override public int readInt() throws IOException {return (int)source[index++];}
+				@Override public long readLong() throws IOException {return (long)source[index++];}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return source[index++];
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return MatrixFactory.newMatrix(getContentType(), getFormatType(), type, getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final float[]	source = content;
+						int	index = 0;
+
+						@Override
+						public float readFloat() throws IOException {
+							return source[index++];
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			case IN_MEMORY	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrix addInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source1 = content;
+		final float[]	source2 = another.content;
+		final float[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] + source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix addInternal(final Operand another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final float		value = another.getFloat();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] + value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix subtractInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source1 = content;
+		final float[]	source2 = another.content;
+		final float[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] - source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix subtractInternal(final Operand another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final float		value = another.getFloat();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] - value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix subtractRevInternal(final PlainFloatMatrix another) throws CalculationException {
+		return another.subtractInternal(this);
+	}
+
+	@Override
+	protected PlainFloatMatrix subtractRevInternal(final Operand another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final float		value = another.getFloat();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = value - source[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix mulInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(another.getWidth(), getHeight());
+
+		MultiplicationEngine.multiply(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix mulTInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(another.getWidth(), getWidth());
+
+		MultiplicationEngine.multiplyTransposedLeft(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix mulRevInternal(final PlainFloatMatrix another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainFloatMatrix mulRevTInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getHeight(), another.getHeight());
+
+		MultiplicationEngine.multiplyTransposedRight(another.content, another.getWidth(), another.getHeight(), content, getHeight(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix mulHadamardInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+
+		MultiplicationEngine.multiplyHadamard(content, another.content, result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix mulKronekerInternal(final PlainFloatMatrix another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final float[]	source1 = content;
+		final float[]	source2 = another.content;
+		final float[]	target = result.content;
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+
+		for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+			for(int x1 = 0; x1 < width1; x1++) {
+				final float	value = source1[y1*width1+x1];
+
+				if (value != 0) {
+					for(int y2 = 0; y2 < height2; y2++) {
+						for(int x2 = 0, from = y2*width2, to = (y1*height2+y2)*targetWidth + x1*width2; x2 < width2; x2++) {
+							target[to+x2] = value * source2[from+x2];
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix mulKronekerRevInternal(final PlainFloatMatrix another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainFloatMatrix mulInternal(final Operand another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final float		value = another.getFloat();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] * value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix divInternal(final Operand another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final float		value = another.getFloat();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] / value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix divRevInternal(final Operand another) throws CalculationException {
+		final PlainFloatMatrix	result = new PlainFloatMatrix(getWidth(), getHeight());
+		final float[]	source = content;
+		final float[]	target = result.content;
+		final float		value = another.getFloat();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = value / source[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainFloatMatrix aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final float[]	source = content;
+		final int		width = getWidth();
+		final PlainFloatMatrix	result;
+
+		switch (dir) {
+			case BY_COLUMNS	:
+				result = new PlainFloatMatrix(piece.getWidth(), 1);
+				for(int x = piece.getX(), where = 0, maxX = x + piece.getWidth(); x < maxX; x++, where++) {
+					result.content[where] = aggregate(source, piece.getY()*width+x, width, piece.getHeight(), type);
+				}
+				break;
+			case BY_ROWS	:
+				result = new PlainFloatMatrix(1, piece.getHeight());
+				for(int y = piece.getY(), where = 0, maxY = y + piece.getHeight(); y < maxY; y++, where++) {
+					result.content[where] = aggregate(source, y*width+piece.getX(), 1, piece.getWidth(), type);
+				}
+				break;
+			case TOTAL		:
+				final PlainFloatMatrix	rows = aggregateInternal(piece, AggregateDirection.BY_ROWS, type == AggregateType.AVG ? AggregateType.SUM : type);
+
+				result = new PlainFloatMatrix(1, 1);
+				result.content[0] = aggregate(rows.content, 0, 1, rows.content.length, type == AggregateType.AVG ? AggregateType.SUM : type);
+				if (type == AggregateType.AVG) {
+					result.content[0] /= piece.getWidth() * piece.getHeight();
+				}
+				break;
+			default:
+				throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+		}
+		return result;
+	}
+
+	@Override
+	public Operand det() throws CalculationException {
+		if (getWidth() != getHeight()) {
+			throw new IllegalStateException("Current matrix is not a square matrix: "+getMatrixBounds(this)+", determinant is not applicable for it");
+		}
+		else {
+			final int		size = getWidth();
+			final double[]	source = toDouble(content);
+			double			det = 1;
+
+			for(int y = 0; y < size; y++) {
+				final int	pivot = findPivot(source, size, y);
+
+				if (source[pivot*size+y] == 0) {
+					return Operand.of(0f);
+				}
+				else if (pivot != y) {
+					swapRows(source, size, pivot, y);
+					det = -det;
+				}
+				final double	diag = source[y*size+y];
+
+				det *= diag;
+				for(int i = y + 1; i < size; i++) {	// subtract current line from all lines below to make zeroes at the current column
+					final double	factor = source[i*size+y] / diag;
+
+					if (factor != 0) {
+						for(int x = y; x < size; x++) {
+							source[i*size+x] -= factor * source[y*size+x];
+						}
+					}
+				}
+			}
+			return Operand.of((float)det);
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final float[]	source = content;
+		final int		width = getWidth();
+		float			sum = 0;
+
+		for(int index = 0, maxIndex = Math.min(width, getHeight()); index < maxIndex; index++) {
+			sum += source[index*width+index];
+		}
+		return Operand.of(sum);
+	}
+
+	@Override
+	protected PlainFloatMatrix invertInternal() throws CalculationException {
+		final int		size = getWidth();
+		final double[]	source = toDouble(content);
+		final double[]	inverted = new double[source.length];
+		final PlainFloatMatrix	result = new PlainFloatMatrix(size, size);
+
+		for(int index = 0; index < size; index++) {
+			inverted[index*size+index] = 1;
+		}
+		for(int y = 0; y < size; y++) {
+			final int	pivot = findPivot(source, size, y);
+
+			if (source[pivot*size+y] == 0) {
+				throw new CalculationException("Matrix "+getMatrixBounds(this)+" is singular and can't be inverted");
+			}
+			else if (pivot != y) {
+				swapRows(source, size, pivot, y);
+				swapRows(inverted, size, pivot, y);
+			}
+			final double	diag = source[y*size+y];
+
+			for(int x = 0; x < size; x++) {		// divide all line by diagonal element
+				source[y*size+x] /= diag;
+				inverted[y*size+x] /= diag;
+			}
+			for(int i = 0; i < size; i++) {		// subtract current line from all other lines to make zeroes at the current column
+				final double	factor = source[i*size+y];
+
+				if (i != y && factor != 0) {
+					for(int x = 0; x < size; x++) {
+						source[i*size+x] -= factor * source[y*size+x];
+						inverted[i*size+x] -= factor * inverted[y*size+x];
+					}
+				}
+			}
+		}
+		for(int index = 0; index < inverted.length; index++) {
+			result.content[index] = (float)inverted[index];
+		}
+		return result;
+	}
+
+	private static float aggregate(final float[] source, final int from, final int step, final int count, final AggregateType type) {
+		switch (type) {
+			case AVG	:
+				return count > 0 ? aggregate(source, from, step, count, AggregateType.SUM) / count : 0;
+			case MAX	:
+				float	max = source[from];
+
+				for(int index = 1, where = from + step; index < count; index++, where += step) {
+					max = Math.max(max, source[where]);
+				}
+				return max;
+			case MIN	:
+				float	min = source[from];
+
+				for(int index = 1, where = from + step; index < count; index++, where += step) {
+					min = Math.min(min, source[where]);
+				}
+				return min;
+			case SUM	:
+				float	sum = 0;
+
+				for(int index = 0, where = from; index < count; index++, where += step) {
+					sum += source[where];
+				}
+				return sum;
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+
+	private static double[] toDouble(final float[] content) {
+		final double[]	result = new double[content.length];
+
+		for(int index = 0; index < result.length; index++) {
+			result[index] = content[index];
+		}
+		return result;
+	}
+
+	private static int findPivot(final double[] source, final int size, final int column) {
+		int		pivot = column;
+
+		for(int y = column + 1; y < size; y++) {
+			if (Math.abs(source[y*size+column]) > Math.abs(source[pivot*size+column])) {
+				pivot = y;
+			}
+		}
+		return pivot;
+	}
+
+	private static void swapRows(final double[] source, final int size, final int row1, final int row2) {
+		for(int x = 0; x < size; x++) {
+			final double	temp = source[row1*size+x];
+
+			source[row1*size+x] = source[row2*size+x];
+			source[row2*size+x] = temp;
+		}
+	}
+}
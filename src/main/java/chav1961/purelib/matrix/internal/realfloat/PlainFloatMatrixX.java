@@ -0,0 +1,550 @@
+package chav1961.purelib.matrix.internal.realfloat;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractExternalMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements external matrix with float content. Matrix content is stored in the temporary file and is processed tile by tile
+ * (see {@linkplain AbstractExternalMatrix}).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainFloatMatrixX extends AbstractExternalMatrix<PlainFloatMatrixX> {
+	@FunctionalInterface
+	private static interface Operation {
+		float apply(float left, float right);
+	}
+
+	public PlainFloatMatrixX(final int width, final int height) throws IOException {
+		this(width, height, TILE_SIZE);
+	}
+
+	public PlainFloatMatrixX(final int width, final int height, final int tileSize) throws IOException {
+		super(ContentType.REAL_FLOAT, width, height, Float.BYTES, tileSize);
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		try {
+			final PlainFloatMatrixX	result = new PlainFloatMatrixX(getWidth(), getHeight(), getTileSize());
+
+			transferTo(result);
+			return result;
+		} catch (IOException e) {
+			throw new CloneNotSupportedException(e.getLocalizedMessage());
+		}
+	}
+
+	@Override
+	public PlainFloatMatrixX transpose() throws CalculationException {
+		final PlainFloatMatrixX	result = newMatrix(getHeight(), getWidth());
+		final int		width = getWidth(), height = getHeight();
+
+		try {
+			forEachTile(0, height, (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				result.forEachTile(0, width, (fromColumn, columns, targetTile)->{
+					final FloatBuffer	target = targetTile.asFloatBuffer();
+
+					for(int x = 0; x < columns; x++) {
+						for(int y = 0; y < rows; y++) {
+							target.put(x*height+fromRow+y, source.get(y*width+fromColumn+x));
+						}
+					}
+				});
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	target = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						target.put(y*width+x, in.readFloat());
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX downloadInternal(final Piece piece, final PlainFloatMatrixX in) throws IOException {
+		in.transferTo(piece, this, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainFloatMatrixX uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						out.writeFloat(source.get(y*width+x));
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX uploadInternal(final Piece piece, final PlainFloatMatrixX out) throws IOException {
+		transferTo(piece, out, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainFloatMatrixX cropInternal(final Piece piece) throws CalculationException {
+		final PlainFloatMatrixX	result = newMatrix(piece.getWidth(), piece.getHeight());
+
+		try {
+			transferTo(piece, result, 0, 0);
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainFloatMatrixX applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final FloatApplyCallback	ac = (FloatApplyCallback)callback;
+		final int				width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						source.put(y*width+x, ac.apply(x, fromRow+y, source.get(y*width+x)));
+					}
+				}
+			});
+			return this;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final TileCursor	cursor = new TileCursor();
+				boolean				image = false;
+
+				@Override public boolean readBoolean() throws IOException {return cursor.next().getFloat() != 0;}
+				@Override public int readInt() throws IOException {return (int)cursor.next().getFloat();}
+				@Override public long readLong() throws IOException {return (long)cursor.next().getFloat();}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() throws IOException {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return cursor.next().getFloat();
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case IN_MEMORY	:
+				try {
+					return new PlainFloatMatrix(getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final TileCursor	cursor = new TileCursor();
+
+						@Override
+						public float readFloat() throws IOException {
+							return cursor.next().getFloat();
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX addInternal(final PlainFloatMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left + right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX addInternal(final Operand another) throws CalculationException {
+		return process(another.getFloat(), (left, right)->left + right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX subtractInternal(final PlainFloatMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left - right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX subtractInternal(final Operand another) throws CalculationException {
+		return process(another.getFloat(), (left, right)->left - right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX subtractRevInternal(final PlainFloatMatrixX another) throws CalculationException {
+		return process(another, (left, right)->right - left);
+	}
+
+	@Override
+	protected PlainFloatMatrixX subtractRevInternal(final Operand another) throws CalculationException {
+		return process(another.getFloat(), (left, right)->right - left);
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulInternal(final PlainFloatMatrixX another) throws CalculationException {
+		final int		width = getWidth(), height = getHeight(), anotherWidth = another.getWidth();
+		final PlainFloatMatrixX	result = newMatrix(anotherWidth, height);
+		final int		rowsPerTile = getRowsPerTile(Math.max(width, anotherWidth)), depthPerTile = Math.min(width, another.getRowsPerTile());
+		final float[]	leftPart = new float[rowsPerTile * depthPerTile], rightPart = new float[depthPerTile * anotherWidth], product = new float[rowsPerTile * anotherWidth];
+
+		try {
+			for(int fromRow = 0; fromRow < height; fromRow += rowsPerTile) {
+				final int		rows = Math.min(rowsPerTile, height - fromRow);
+				final FloatBuffer	left = map(fromRow, rows).asFloatBuffer();
+
+				Arrays.fill(product, 0, rows * anotherWidth, 0f);
+				for(int fromDepth = 0; fromDepth < width; fromDepth += depthPerTile) {
+					final int	depth = Math.min(depthPerTile, width - fromDepth);
+
+					for(int y = 0; y < rows; y++) {
+						left.get(y*width+fromDepth, leftPart, y*depth, depth);
+					}
+					another.map(fromDepth, depth).asFloatBuffer().get(0, rightPart, 0, depth*anotherWidth);
+					MultiplicationEngine.multiply(leftPart, depth, rows, rightPart, anotherWidth, product);
+				}
+				result.map(fromRow, rows).asFloatBuffer().put(0, product, 0, rows*anotherWidth);
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulTInternal(final PlainFloatMatrixX another) throws CalculationException {
+		final PlainFloatMatrixX	transposed = transpose();
+
+		try {
+			return transposed.mulInternal(another);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulRevInternal(final PlainFloatMatrixX another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulRevTInternal(final PlainFloatMatrixX another) throws CalculationException {
+		final PlainFloatMatrixX	transposed = transpose();
+
+		try {
+			return another.mulInternal(transposed);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulHadamardInternal(final PlainFloatMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left * right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulKronekerInternal(final PlainFloatMatrixX another) throws CalculationException {
+		final PlainFloatMatrixX	result = newMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+		final float[]	row = new float[width1];
+
+		try {
+			for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+				final int	targetRow = y1 * height2;
+
+				map(y1, 1).asFloatBuffer().get(0, row);
+				another.forEachTile(0, height2, (fromRow, rows, tile)->{
+					final FloatBuffer	source = tile.asFloatBuffer();
+					final FloatBuffer	target = result.map(targetRow+fromRow, rows).asFloatBuffer();
+
+					for(int y2 = 0; y2 < rows; y2++) {
+						for(int x1 = 0; x1 < width1; x1++) {
+							final float	value = row[x1];
+
+							if (value != 0) {
+								for(int x2 = 0, from = y2*width2, to = y2*targetWidth + x1*width2; x2 < width2; x2++) {
+									target.put(to+x2, value * source.get(from+x2));
+								}
+							}
+						}
+					}
+				});
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulKronekerRevInternal(final PlainFloatMatrixX another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainFloatMatrixX mulInternal(final Operand another) throws CalculationException {
+		return process(another.getFloat(), (left, right)->left * right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX divInternal(final Operand another) throws CalculationException {
+		return process(another.getFloat(), (left, right)->left / right);
+	}
+
+	@Override
+	protected PlainFloatMatrixX divRevInternal(final Operand another) throws CalculationException {
+		return process(another.getFloat(), (left, right)->right / left);
+	}
+
+	@Override
+	protected PlainFloatMatrixX aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int		width = getWidth(), fromX = piece.getX(), fromY = piece.getY();
+		final PlainFloatMatrixX	result;
+
+		try {
+			switch (dir) {
+				case BY_COLUMNS	:
+					final float[]	columns = new float[piece.getWidth()];
+
+					result = newMatrix(piece.getWidth(), 1);
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final FloatBuffer	source = tile.asFloatBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0; x < columns.length; x++) {
+								final float	value = source.get(y*width+fromX+x);
+
+								columns[x] = fromRow + y == fromY ? value : aggregate(columns[x], value, type);
+							}
+						}
+					});
+					if (type == AggregateType.AVG) {
+						for(int x = 0; x < columns.length; x++) {
+							columns[x] /= piece.getHeight();
+						}
+					}
+					result.map(0, 1).asFloatBuffer().put(0, columns);
+					break;
+				case BY_ROWS	:
+					result = newMatrix(1, piece.getHeight());
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final FloatBuffer	source = tile.asFloatBuffer();
+						final FloatBuffer	target = result.map(fromRow - fromY, rows).asFloatBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							float		total = source.get(y*width+fromX);
+
+							for(int x = 1, maxX = piece.getWidth(); x < maxX; x++) {
+								total = aggregate(total, source.get(y*width+fromX+x), type);
+							}
+							target.put(y, type == AggregateType.AVG ? total / piece.getWidth() : total);
+						}
+					});
+					break;
+				case TOTAL		:
+					final float[]	total = new float[1];
+
+					result = newMatrix(1, 1);
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final FloatBuffer	source = tile.asFloatBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								final float	value = source.get(y*width+fromX+x);
+
+								total[0] = fromRow + y == fromY && x == 0 ? value : aggregate(total[0], value, type);
+							}
+						}
+					});
+					if (type == AggregateType.AVG) {
+						total[0] /= piece.getWidth() * piece.getHeight();
+					}
+					result.map(0, 1).asFloatBuffer().put(0, total);
+					break;
+				default:
+					throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Calculate determinant. Matrix is loaded into memory to calculate determinant.</p>
+	 */
+	@Override
+	public Operand det() throws CalculationException {
+		try(final PlainFloatMatrix	inMemory = (PlainFloatMatrix)castInternal(StoreType.IN_MEMORY)) {
+			return inMemory.det();
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final int		width = getWidth();
+		final float[]	sum = new float[1];
+
+		try {
+			forEachTile(0, Math.min(width, getHeight()), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					sum[0] += source.get(y*width+fromRow+y);
+				}
+			});
+			return Operand.of(sum[0]);
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Invert matrix. Matrix is loaded into memory to invert it.</p>
+	 */
+	@Override
+	protected PlainFloatMatrixX invertInternal() throws CalculationException {
+		try(final PlainFloatMatrix	inMemory = (PlainFloatMatrix)castInternal(StoreType.IN_MEMORY);
+			final PlainFloatMatrix	inverted = inMemory.invert()) {
+			return (PlainFloatMatrixX)inverted.cast(StoreType.EXTERNAL);
+		}
+	}
+
+	private PlainFloatMatrixX newMatrix(final int width, final int height) throws CalculationException {
+		try {
+			return new PlainFloatMatrixX(width, height, getTileSize());
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainFloatMatrixX process(final PlainFloatMatrixX another, final Operation op) throws CalculationException {
+		final PlainFloatMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source1 = tile.asFloatBuffer();
+				final FloatBuffer	source2 = another.map(fromRow, rows).asFloatBuffer();
+				final FloatBuffer	target = result.map(fromRow, rows).asFloatBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index++) {
+					target.put(index, op.apply(source1.get(index), source2.get(index)));
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainFloatMatrixX process(final float value, final Operation op) throws CalculationException {
+		final PlainFloatMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final FloatBuffer	source = tile.asFloatBuffer();
+				final FloatBuffer	target = result.map(fromRow, rows).asFloatBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index++) {
+					target.put(index, op.apply(source.get(index), value));
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private static float aggregate(final float total, final float value, final AggregateType type) {
+		switch (type) {
+			case AVG : case SUM	:
+				return total + value;
+			case MAX	:
+				return Math.max(total, value);
+			case MIN	:
+				return Math.min(total, value);
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+}
@@ -0,0 +1,526 @@
+package chav1961.purelib.matrix.internal.realint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements in-memory matrix with int content. All matrix content is stored by rows in one contiguous
+ * int array.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainIntMatrix extends AbstractBaseMatrix<PlainIntMatrix>{
+	private final int[]	content;
+
+	public PlainIntMatrix(final int width,final int height) {
+		super(ContentType.REAL_INT, FormatType.PLAIN, StoreType.IN_MEMORY, width, height);
+		this.content = new int[width*height];
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+
+		System.arraycopy(content, 0, result.content, 0, content.length);
+		return result;
+	}
+
+	@Override
+	public PlainIntMatrix transpose() throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getHeight(), getWidth());
+		final int[]	target = result.content;
+		final int[]	source = content;
+		final int		width = getWidth(), height = getHeight();
+
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				target[x*height+y] = source[y*width+x];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final int[]	target = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				target[y*width+x] = in.readInt();
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainIntMatrix downloadInternal(final Piece piece, final PlainIntMatrix in) throws IOException {
+		final int[]	target = content;
+		final int[]	source = in.content;
+		final int		width = getWidth(), sourceWidth = in.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, y*sourceWidth+piece.getX(), target, y*width+piece.getX(), piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainIntMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final int[]	source = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				out.writeInt(source[y*width+x]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainIntMatrix uploadInternal(final Piece piece, final PlainIntMatrix out) throws IOException {
+		final int[]	source = content;
+		final int[]	target = out.content;
+		final int		width = getWidth(), targetWidth = out.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, y*width+piece.getX(), target, y*targetWidth+piece.getX(), piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainIntMatrix cropInternal(final Piece piece) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(piece.getWidth(), piece.getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		width = getWidth();
+
+		for(int y = 0, maxY = piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, (piece.getY()+y)*width+piece.getX(), target, y*piece.getWidth(), piece.getWidth());
+		}
+		return result;
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainIntMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final int[]		source = content;
+		final IntApplyCallback	ac = (IntApplyCallback)callback;
+		final int			width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				source[y*width+x] = ac.apply(x, y, source[y*width+x]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final int[]	source = content;
+				int				index = 0;
+				boolean			image = false;
+
+				@Override public boolean readBoolean() throws IOException {return source[index++] != 0;}
+				@Override public int readInt() throws IOException {return source[index++];}
+				@Override public long readLong() throws IOException {return (long)source[index++];}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return source[index++];
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return MatrixFactory.newMatrix(getContentType(), getFormatType(), type, getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final int[]	source = content;
+						int	index = 0;
+
+						@Override
+						public int readInt() throws IOException {
+							return source[index++];
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			case IN_MEMORY	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainIntMatrix addInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source1 = content;
+		final int[]	source2 = another.content;
+		final int[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] + source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix addInternal(final Operand another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		value = another.getInt();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] + value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix subtractInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source1 = content;
+		final int[]	source2 = another.content;
+		final int[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] - source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix subtractInternal(final Operand another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		value = another.getInt();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] - value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix subtractRevInternal(final PlainIntMatrix another) throws CalculationException {
+		return another.subtractInternal(this);
+	}
+
+	@Override
+	protected PlainIntMatrix subtractRevInternal(final Operand another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		value = another.getInt();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = value - source[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix mulInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(another.getWidth(), getHeight());
+
+		MultiplicationEngine.multiply(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix mulTInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(another.getWidth(), getWidth());
+
+		MultiplicationEngine.multiplyTransposedLeft(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix mulRevInternal(final PlainIntMatrix another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainIntMatrix mulRevTInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getHeight(), another.getHeight());
+
+		MultiplicationEngine.multiplyTransposedRight(another.content, another.getWidth(), another.getHeight(), content, getHeight(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix mulHadamardInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+
+		MultiplicationEngine.multiplyHadamard(content, another.content, result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix mulKronekerInternal(final PlainIntMatrix another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final int[]	source1 = content;
+		final int[]	source2 = another.content;
+		final int[]	target = result.content;
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+
+		for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+			for(int x1 = 0; x1 < width1; x1++) {
+				final int	value = source1[y1*width1+x1];
+
+				if (value != 0) {
+					for(int y2 = 0; y2 < height2; y2++) {
+						for(int x2 = 0, from = y2*width2, to = (y1*height2+y2)*targetWidth + x1*width2; x2 < width2; x2++) {
+							target[to+x2] = value * source2[from+x2];
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix mulKronekerRevInternal(final PlainIntMatrix another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainIntMatrix mulInternal(final Operand another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		value = another.getInt();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] * value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix divInternal(final Operand another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		value = another.getInt();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] / value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix divRevInternal(final Operand another) throws CalculationException {
+		final PlainIntMatrix	result = new PlainIntMatrix(getWidth(), getHeight());
+		final int[]	source = content;
+		final int[]	target = result.content;
+		final int		value = another.getInt();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = value / source[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainIntMatrix aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int[]	source = content;
+		final int		width = getWidth();
+		final PlainIntMatrix	result;
+
+		switch (dir) {
+			case BY_COLUMNS	:
+				result = new PlainIntMatrix(piece.getWidth(), 1);
+				for(int x = piece.getX(), where = 0, maxX = x + piece.getWidth(); x < maxX; x++, where++) {
+					result.content[where] = aggregate(source, piece.getY()*width+x, width, piece.getHeight(), type);
+				}
+				break;
+			case BY_ROWS	:
+				result = new PlainIntMatrix(1, piece.getHeight());
+				for(int y = piece.getY(), where = 0, maxY = y + piece.getHeight(); y < maxY; y++, where++) {
+					result.content[where] = aggregate(source, y*width+piece.getX(), 1, piece.getWidth(), type);
+				}
+				break;
+			case TOTAL		:
+				final PlainIntMatrix	rows = aggregateInternal(piece, AggregateDirection.BY_ROWS, type == AggregateType.AVG ? AggregateType.SUM : type);
+
+				result = new PlainIntMatrix(1, 1);
+				result.content[0] = aggregate(rows.content, 0, 1, rows.content.length, type == AggregateType.AVG ? AggregateType.SUM : type);
+				if (type == AggregateType.AVG) {
+					result.content[0] /= piece.getWidth() * piece.getHeight();
+				}
+				break;
+			default:
+				throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+		}
+		return result;
+	}
+
+	@Override
+	public Operand det() throws CalculationException {
+		if (getWidth() != getHeight()) {
+			throw new IllegalStateException("Current matrix is not a square matrix: "+getMatrixBounds(this)+", determinant is not applicable for it");
+		}
+		else {
+			final int		size = getWidth();
+			final double[]	source = toDouble(content);
+			double			det = 1;
+
+			for(int y = 0; y < size; y++) {
+				final int	pivot = findPivot(source, size, y);
+
+				if (source[pivot*size+y] == 0) {
+					return Operand.of(0);
+				}
+				else if (pivot != y) {
+					swapRows(source, size, pivot, y);
+					det = -det;
+				}
+				final double	diag = source[y*size+y];
+
+				det *= diag;
+				for(int i = y + 1; i < size; i++) {	// subtract current line from all lines below to make zeroes at the current column
+					final double	factor = source[i*size+y] / diag;
+
+					if (factor != 0) {
+						for(int x = y; x < size; x++) {
+							source[i*size+x] -= factor * source[y*size+x];
+						}
+					}
+				}
+			}
+			return Operand.of((int)Math.round(det));
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final int[]	source = content;
+		final int		width = getWidth();
+		int			sum = 0;
+
+		for(int index = 0, maxIndex = Math.min(width, getHeight()); index < maxIndex; index++) {
+			sum += source[index*width+index];
+		}
+		return Operand.of(sum);
+	}
+
+	@Override
+	protected PlainIntMatrix invertInternal() throws CalculationException {
+		throw new UnsupportedOperationException("Inversion is not applicable for ["+getContentType()+"] matrices, cast matrix to ["+ContentType.REAL_DOUBLE+"] before");
+	}
+
+	private static int aggregate(final int[] source, final int from, final int step, final int count, final AggregateType type) {
+		switch (type) {
+			case AVG	:
+				return count > 0 ? aggregate(source, from, step, count, AggregateType.SUM) / count : 0;
+			case MAX	:
+				int	max = source[from];
+
+				for(int index = 1, where = from + step; index < count; index++, where += step) {
+					max = Math.max(max, source[where]);
+				}
+				return max;
+			case MIN	:
+				int	min = source[from];
+
+				for(int index = 1, where = from + step; index < count; index++, where += step) {
+					min = Math.min(min, source[where]);
+				}
+				return min;
+			case SUM	:
+				int	sum = 0;
+
+				for(int index = 0, where = from; index < count; index++, where += step) {
+					sum += source[where];
+				}
+				return sum;
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+
+	private static double[] toDouble(final int[] content) {
+		final double[]	result = new double[content.length];
+
+		for(int index = 0; index < result.length; index++) {
+			result[index] = content[index];
+		}
+		return result;
+	}
+
+	private static int findPivot(final double[] source, final int size, final int column) {
+		int		pivot = column;
+
+		for(int y = column + 1; y < size; y++) {
+			if (Math.abs(source[y*size+column]) > Math.abs(source[pivot*size+column])) {
+				pivot = y;
+			}
+		}
+		return pivot;
+	}
+
+	private static void swapRows(final double[] source, final int size, final int row1, final int row2) {
+		for(int x = 0; x < size; x++) {
+			final double	temp = source[row1*size+x];
+
+			source[row1*size+x] = source[row2*size+x];
+			source[row2*size+x] = temp;
+		}
+	}
+}
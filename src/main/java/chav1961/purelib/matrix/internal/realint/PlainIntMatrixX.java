@@ -0,0 +1,550 @@
+package chav1961.purelib.matrix.internal.realint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractExternalMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements external matrix with int content. Matrix content is stored in the temporary file and is processed tile by tile
+ * (see {@linkplain AbstractExternalMatrix}).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainIntMatrixX extends AbstractExternalMatrix<PlainIntMatrixX> {
+	@FunctionalInterface
+	private static interface Operation {
+		int apply(int left, int right);
+	}
+
+	public PlainIntMatrixX(final int width, final int height) throws IOException {
+		this(width, height, TILE_SIZE);
+	}
+
+	public PlainIntMatrixX(final int width, final int height, final int tileSize) throws IOException {
+		super(ContentType.REAL_INT, width, height, Integer.BYTES, tileSize);
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		try {
+			final PlainIntMatrixX	result = new PlainIntMatrixX(getWidth(), getHeight(), getTileSize());
+
+			transferTo(result);
+			return result;
+		} catch (IOException e) {
+			throw new CloneNotSupportedException(e.getLocalizedMessage());
+		}
+	}
+
+	@Override
+	public PlainIntMatrixX transpose() throws CalculationException {
+		final PlainIntMatrixX	result = newMatrix(getHeight(), getWidth());
+		final int		width = getWidth(), height = getHeight();
+
+		try {
+			forEachTile(0, height, (fromRow, rows, tile)->{
+				final IntBuffer	source = tile.asIntBuffer();
+
+				result.forEachTile(0, width, (fromColumn, columns, targetTile)->{
+					final IntBuffer	target = targetTile.asIntBuffer();
+
+					for(int x = 0; x < columns; x++) {
+						for(int y = 0; y < rows; y++) {
+							target.put(x*height+fromRow+y, source.get(y*width+fromColumn+x));
+						}
+					}
+				});
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final IntBuffer	target = tile.asIntBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						target.put(y*width+x, in.readInt());
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX downloadInternal(final Piece piece, final PlainIntMatrixX in) throws IOException {
+		in.transferTo(piece, this, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainIntMatrixX uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final IntBuffer	source = tile.asIntBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						out.writeInt(source.get(y*width+x));
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX uploadInternal(final Piece piece, final PlainIntMatrixX out) throws IOException {
+		transferTo(piece, out, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainIntMatrixX cropInternal(final Piece piece) throws CalculationException {
+		final PlainIntMatrixX	result = newMatrix(piece.getWidth(), piece.getHeight());
+
+		try {
+			transferTo(piece, result, 0, 0);
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainIntMatrixX applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final IntApplyCallback	ac = (IntApplyCallback)callback;
+		final int				width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final IntBuffer	source = tile.asIntBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						source.put(y*width+x, ac.apply(x, fromRow+y, source.get(y*width+x)));
+					}
+				}
+			});
+			return this;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final TileCursor	cursor = new TileCursor();
+				boolean				image = false;
+
+				@Override public boolean readBoolean() throws IOException {return cursor.next().getInt() != 0;}
+				@Override public int readInt() throws IOException {return cursor.next().getInt();}
+				@Override public long readLong() throws IOException {return (long)cursor.next().getInt();}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() throws IOException {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return cursor.next().getInt();
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case IN_MEMORY	:
+				try {
+					return new PlainIntMatrix(getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final TileCursor	cursor = new TileCursor();
+
+						@Override
+						public int readInt() throws IOException {
+							return cursor.next().getInt();
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX addInternal(final PlainIntMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left + right);
+	}
+
+	@Override
+	protected PlainIntMatrixX addInternal(final Operand another) throws CalculationException {
+		return process(another.getInt(), (left, right)->left + right);
+	}
+
+	@Override
+	protected PlainIntMatrixX subtractInternal(final PlainIntMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left - right);
+	}
+
+	@Override
+	protected PlainIntMatrixX subtractInternal(final Operand another) throws CalculationException {
+		return process(another.getInt(), (left, right)->left - right);
+	}
+
+	@Override
+	protected PlainIntMatrixX subtractRevInternal(final PlainIntMatrixX another) throws CalculationException {
+		return process(another, (left, right)->right - left);
+	}
+
+	@Override
+	protected PlainIntMatrixX subtractRevInternal(final Operand another) throws CalculationException {
+		return process(another.getInt(), (left, right)->right - left);
+	}
+
+	@Override
+	protected PlainIntMatrixX mulInternal(final PlainIntMatrixX another) throws CalculationException {
+		final int		width = getWidth(), height = getHeight(), anotherWidth = another.getWidth();
+		final PlainIntMatrixX	result = newMatrix(anotherWidth, height);
+		final int		rowsPerTile = getRowsPerTile(Math.max(width, anotherWidth)), depthPerTile = Math.min(width, another.getRowsPerTile());
+		final int[]	leftPart = new int[rowsPerTile * depthPerTile], rightPart = new int[depthPerTile * anotherWidth], product = new int[rowsPerTile * anotherWidth];
+
+		try {
+			for(int fromRow = 0; fromRow < height; fromRow += rowsPerTile) {
+				final int		rows = Math.min(rowsPerTile, height - fromRow);
+				final IntBuffer	left = map(fromRow, rows).asIntBuffer();
+
+				Arrays.fill(product, 0, rows * anotherWidth, 0);
+				for(int fromDepth = 0; fromDepth < width; fromDepth += depthPerTile) {
+					final int	depth = Math.min(depthPerTile, width - fromDepth);
+
+					for(int y = 0; y < rows; y++) {
+						left.get(y*width+fromDepth, leftPart, y*depth, depth);
+					}
+					another.map(fromDepth, depth).asIntBuffer().get(0, rightPart, 0, depth*anotherWidth);
+					MultiplicationEngine.multiply(leftPart, depth, rows, rightPart, anotherWidth, product);
+				}
+				result.map(fromRow, rows).asIntBuffer().put(0, product, 0, rows*anotherWidth);
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX mulTInternal(final PlainIntMatrixX another) throws CalculationException {
+		final PlainIntMatrixX	transposed = transpose();
+
+		try {
+			return transposed.mulInternal(another);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX mulRevInternal(final PlainIntMatrixX another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainIntMatrixX mulRevTInternal(final PlainIntMatrixX another) throws CalculationException {
+		final PlainIntMatrixX	transposed = transpose();
+
+		try {
+			return another.mulInternal(transposed);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX mulHadamardInternal(final PlainIntMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left * right);
+	}
+
+	@Override
+	protected PlainIntMatrixX mulKronekerInternal(final PlainIntMatrixX another) throws CalculationException {
+		final PlainIntMatrixX	result = newMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+		final int[]	row = new int[width1];
+
+		try {
+			for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+				final int	targetRow = y1 * height2;
+
+				map(y1, 1).asIntBuffer().get(0, row);
+				another.forEachTile(0, height2, (fromRow, rows, tile)->{
+					final IntBuffer	source = tile.asIntBuffer();
+					final IntBuffer	target = result.map(targetRow+fromRow, rows).asIntBuffer();
+
+					for(int y2 = 0; y2 < rows; y2++) {
+						for(int x1 = 0; x1 < width1; x1++) {
+							final int	value = row[x1];
+
+							if (value != 0) {
+								for(int x2 = 0, from = y2*width2, to = y2*targetWidth + x1*width2; x2 < width2; x2++) {
+									target.put(to+x2, value * source.get(from+x2));
+								}
+							}
+						}
+					}
+				});
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainIntMatrixX mulKronekerRevInternal(final PlainIntMatrixX another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainIntMatrixX mulInternal(final Operand another) throws CalculationException {
+		return process(another.getInt(), (left, right)->left * right);
+	}
+
+	@Override
+	protected PlainIntMatrixX divInternal(final Operand another) throws CalculationException {
+		return process(another.getInt(), (left, right)->left / right);
+	}
+
+	@Override
+	protected PlainIntMatrixX divRevInternal(final Operand another) throws CalculationException {
+		return process(another.getInt(), (left, right)->right / left);
+	}
+
+	@Override
+	protected PlainIntMatrixX aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int		width = getWidth(), fromX = piece.getX(), fromY = piece.getY();
+		final PlainIntMatrixX	result;
+
+		try {
+			switch (dir) {
+				case BY_COLUMNS	:
+					final int[]	columns = new int[piece.getWidth()];
+
+					result = newMatrix(piece.getWidth(), 1);
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final IntBuffer	source = tile.asIntBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0; x < columns.length; x++) {
+								final int	value = source.get(y*width+fromX+x);
+
+								columns[x] = fromRow + y == fromY ? value : aggregate(columns[x], value, type);
+							}
+						}
+					});
+					if (type == AggregateType.AVG) {
+						for(int x = 0; x < columns.length; x++) {
+							columns[x] /= piece.getHeight();
+						}
+					}
+					result.map(0, 1).asIntBuffer().put(0, columns);
+					break;
+				case BY_ROWS	:
+					result = newMatrix(1, piece.getHeight());
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final IntBuffer	source = tile.asIntBuffer();
+						final IntBuffer	target = result.map(fromRow - fromY, rows).asIntBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							int		total = source.get(y*width+fromX);
+
+							for(int x = 1, maxX = piece.getWidth(); x < maxX; x++) {
+								total = aggregate(total, source.get(y*width+fromX+x), type);
+							}
+							target.put(y, type == AggregateType.AVG ? (int)(total / piece.getWidth()) : total);
+						}
+					});
+					break;
+				case TOTAL		:
+					final int[]	total = new int[1];
+
+					result = newMatrix(1, 1);
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final IntBuffer	source = tile.asIntBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								final int	value = source.get(y*width+fromX+x);
+
+								total[0] = fromRow + y == fromY && x == 0 ? value : aggregate(total[0], value, type);
+							}
+						}
+					});
+					if (type == AggregateType.AVG) {
+						total[0] /= piece.getWidth() * piece.getHeight();
+					}
+					result.map(0, 1).asIntBuffer().put(0, total);
+					break;
+				default:
+					throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Calculate determinant. Matrix is loaded into memory to calculate determinant.</p>
+	 */
+	@Override
+	public Operand det() throws CalculationException {
+		try(final PlainIntMatrix	inMemory = (PlainIntMatrix)castInternal(StoreType.IN_MEMORY)) {
+			return inMemory.det();
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final int		width = getWidth();
+		final int[]	sum = new int[1];
+
+		try {
+			forEachTile(0, Math.min(width, getHeight()), (fromRow, rows, tile)->{
+				final IntBuffer	source = tile.asIntBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					sum[0] += source.get(y*width+fromRow+y);
+				}
+			});
+			return Operand.of(sum[0]);
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Invert matrix. Matrix is loaded into memory to invert it.</p>
+	 */
+	@Override
+	protected PlainIntMatrixX invertInternal() throws CalculationException {
+		try(final PlainIntMatrix	inMemory = (PlainIntMatrix)castInternal(StoreType.IN_MEMORY);
+			final PlainIntMatrix	inverted = inMemory.invert()) {
+			return (PlainIntMatrixX)inverted.cast(StoreType.EXTERNAL);
+		}
+	}
+
+	private PlainIntMatrixX newMatrix(final int width, final int height) throws CalculationException {
+		try {
+			return new PlainIntMatrixX(width, height, getTileSize());
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainIntMatrixX process(final PlainIntMatrixX another, final Operation op) throws CalculationException {
+		final PlainIntMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final IntBuffer	source1 = tile.asIntBuffer();
+				final IntBuffer	source2 = another.map(fromRow, rows).asIntBuffer();
+				final IntBuffer	target = result.map(fromRow, rows).asIntBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index++) {
+					target.put(index, op.apply(source1.get(index), source2.get(index)));
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainIntMatrixX process(final int value, final Operation op) throws CalculationException {
+		final PlainIntMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final IntBuffer	source = tile.asIntBuffer();
+				final IntBuffer	target = result.map(fromRow, rows).asIntBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index++) {
+					target.put(index, op.apply(source.get(index), value));
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private static int aggregate(final int total, final int value, final AggregateType type) {
+		switch (type) {
+			case AVG : case SUM	:
+				return total + value;
+			case MAX	:
+				return Math.max(total, value);
+			case MIN	:
+				return Math.min(total, value);
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+}
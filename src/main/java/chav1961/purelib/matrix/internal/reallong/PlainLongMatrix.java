@@ -0,0 +1,526 @@
+package chav1961.purelib.matrix.internal.reallong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractBaseMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements in-memory matrix with long content. All matrix content is stored by rows in one contiguous
+ * long array.</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainLongMatrix extends AbstractBaseMatrix<PlainLongMatrix>{
+	private final long[]	content;
+
+	public PlainLongMatrix(final int width,final int height) {
+		super(ContentType.REAL_LONG, FormatType.PLAIN, StoreType.IN_MEMORY, width, height);
+		this.content = new long[width*height];
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+
+		System.arraycopy(content, 0, result.content, 0, content.length);
+		return result;
+	}
+
+	@Override
+	public PlainLongMatrix transpose() throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getHeight(), getWidth());
+		final long[]	target = result.content;
+		final long[]	source = content;
+		final int		width = getWidth(), height = getHeight();
+
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				target[x*height+y] = source[y*width+x];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final long[]	target = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				target[y*width+x] = in.readLong();
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainLongMatrix downloadInternal(final Piece piece, final PlainLongMatrix in) throws IOException {
+		final long[]	target = content;
+		final long[]	source = in.content;
+		final int		width = getWidth(), sourceWidth = in.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, y*sourceWidth+piece.getX(), target, y*width+piece.getX(), piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainLongMatrix uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final long[]	source = content;
+		final int		width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				out.writeLong(source[y*width+x]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainLongMatrix uploadInternal(final Piece piece, final PlainLongMatrix out) throws IOException {
+		final long[]	source = content;
+		final long[]	target = out.content;
+		final int		width = getWidth(), targetWidth = out.getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, y*width+piece.getX(), target, y*targetWidth+piece.getX(), piece.getWidth());
+		}
+		return this;
+	}
+
+	@Override
+	protected PlainLongMatrix cropInternal(final Piece piece) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(piece.getWidth(), piece.getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final int		width = getWidth();
+
+		for(int y = 0, maxY = piece.getHeight(); y < maxY; y++) {
+			System.arraycopy(source, (piece.getY()+y)*width+piece.getX(), target, y*piece.getWidth(), piece.getWidth());
+		}
+		return result;
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainLongMatrix applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final long[]		source = content;
+		final LongApplyCallback	ac = (LongApplyCallback)callback;
+		final int			width = getWidth();
+
+		for(int y = piece.getY(), maxY = y + piece.getHeight(); y < maxY; y++) {
+			for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+				source[y*width+x] = ac.apply(x, y, source[y*width+x]);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final long[]	source = content;
+				int				index = 0;
+				boolean			image = false;
+
+				@Override public boolean readBoolean() throws IOException {return source[index++] != 0;}
+				@Override public int readInt() throws IOException {return (int)source[index++];}
+				@Override public long readLong() throws IOException {return source[index++];}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return source[index++];
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return MatrixFactory.newMatrix(getContentType(), getFormatType(), type, getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final long[]	source = content;
+						int	index = 0;
+
+						@Override
+						public long readLong() throws IOException {
+							return source[index++];
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			case IN_MEMORY	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainLongMatrix addInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source1 = content;
+		final long[]	source2 = another.content;
+		final long[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] + source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix addInternal(final Operand another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final long		value = another.getLong();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] + value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix subtractInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source1 = content;
+		final long[]	source2 = another.content;
+		final long[]	target = result.content;
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source1[index] - source2[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix subtractInternal(final Operand another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final long		value = another.getLong();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] - value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix subtractRevInternal(final PlainLongMatrix another) throws CalculationException {
+		return another.subtractInternal(this);
+	}
+
+	@Override
+	protected PlainLongMatrix subtractRevInternal(final Operand another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final long		value = another.getLong();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = value - source[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix mulInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(another.getWidth(), getHeight());
+
+		MultiplicationEngine.multiply(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix mulTInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(another.getWidth(), getWidth());
+
+		MultiplicationEngine.multiplyTransposedLeft(content, getWidth(), getHeight(), another.content, another.getWidth(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix mulRevInternal(final PlainLongMatrix another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainLongMatrix mulRevTInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getHeight(), another.getHeight());
+
+		MultiplicationEngine.multiplyTransposedRight(another.content, another.getWidth(), another.getHeight(), content, getHeight(), result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix mulHadamardInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+
+		MultiplicationEngine.multiplyHadamard(content, another.content, result.content);
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix mulKronekerInternal(final PlainLongMatrix another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final long[]	source1 = content;
+		final long[]	source2 = another.content;
+		final long[]	target = result.content;
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+
+		for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+			for(int x1 = 0; x1 < width1; x1++) {
+				final long	value = source1[y1*width1+x1];
+
+				if (value != 0) {
+					for(int y2 = 0; y2 < height2; y2++) {
+						for(int x2 = 0, from = y2*width2, to = (y1*height2+y2)*targetWidth + x1*width2; x2 < width2; x2++) {
+							target[to+x2] = value * source2[from+x2];
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix mulKronekerRevInternal(final PlainLongMatrix another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainLongMatrix mulInternal(final Operand another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final long		value = another.getLong();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] * value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix divInternal(final Operand another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final long		value = another.getLong();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = source[index] / value;
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix divRevInternal(final Operand another) throws CalculationException {
+		final PlainLongMatrix	result = new PlainLongMatrix(getWidth(), getHeight());
+		final long[]	source = content;
+		final long[]	target = result.content;
+		final long		value = another.getLong();
+
+		for(int index = 0, maxIndex = target.length; index < maxIndex; index++) {
+			target[index] = value / source[index];
+		}
+		return result;
+	}
+
+	@Override
+	protected PlainLongMatrix aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final long[]	source = content;
+		final int		width = getWidth();
+		final PlainLongMatrix	result;
+
+		switch (dir) {
+			case BY_COLUMNS	:
+				result = new PlainLongMatrix(piece.getWidth(), 1);
+				for(int x = piece.getX(), where = 0, maxX = x + piece.getWidth(); x < maxX; x++, where++) {
+					result.content[where] = aggregate(source, piece.getY()*width+x, width, piece.getHeight(), type);
+				}
+				break;
+			case BY_ROWS	:
+				result = new PlainLongMatrix(1, piece.getHeight());
+				for(int y = piece.getY(), where = 0, maxY = y + piece.getHeight(); y < maxY; y++, where++) {
+					result.content[where] = aggregate(source, y*width+piece.getX(), 1, piece.getWidth(), type);
+				}
+				break;
+			case TOTAL		:
+				final PlainLongMatrix	rows = aggregateInternal(piece, AggregateDirection.BY_ROWS, type == AggregateType.AVG ? AggregateType.SUM : type);
+
+				result = new PlainLongMatrix(1, 1);
+				result.content[0] = aggregate(rows.content, 0, 1, rows.content.length, type == AggregateType.AVG ? AggregateType.SUM : type);
+				if (type == AggregateType.AVG) {
+					result.content[0] /= piece.getWidth() * piece.getHeight();
+				}
+				break;
+			default:
+				throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+		}
+		return result;
+	}
+
+	@Override
+	public Operand det() throws CalculationException {
+		if (getWidth() != getHeight()) {
+			throw new IllegalStateException("Current matrix is not a square matrix: "+getMatrixBounds(this)+", determinant is not applicable for it");
+		}
+		else {
+			final int		size = getWidth();
+			final double[]	source = toDouble(content);
+			double			det = 1;
+
+			for(int y = 0; y < size; y++) {
+				final int	pivot = findPivot(source, size, y);
+
+				if (source[pivot*size+y] == 0) {
+					return Operand.of(0L);
+				}
+				else if (pivot != y) {
+					swapRows(source, size, pivot, y);
+					det = -det;
+				}
+				final double	diag = source[y*size+y];
+
+				det *= diag;
+				for(int i = y + 1; i < size; i++) {	// subtract current line from all lines below to make zeroes at the current column
+					final double	factor = source[i*size+y] / diag;
+
+					if (factor != 0) {
+						for(int x = y; x < size; x++) {
+							source[i*size+x] -= factor * source[y*size+x];
+						}
+					}
+				}
+			}
+			return Operand.of(Math.round(det));
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final long[]	source = content;
+		final int		width = getWidth();
+		long			sum = 0;
+
+		for(int index = 0, maxIndex = Math.min(width, getHeight()); index < maxIndex; index++) {
+			sum += source[index*width+index];
+		}
+		return Operand.of(sum);
+	}
+
+	@Override
+	protected PlainLongMatrix invertInternal() throws CalculationException {
+		throw new UnsupportedOperationException("Inversion is not applicable for ["+getContentType()+"] matrices, cast matrix to ["+ContentType.REAL_DOUBLE+"] before");
+	}
+
+	private static long aggregate(final long[] source, final int from, final int step, final int count, final AggregateType type) {
+		switch (type) {
+			case AVG	:
+				return count > 0 ? aggregate(source, from, step, count, AggregateType.SUM) / count : 0;
+			case MAX	:
+				long	max = source[from];
+
+				for(int index = 1, where = from + step; index < count; index++, where += step) {
+					max = Math.max(max, source[where]);
+				}
+				return max;
+			case MIN	:
+				long	min = source[from];
+
+				for(int index = 1, where = from + step; index < count; index++, where += step) {
+					min = Math.min(min, source[where]);
+				}
+				return min;
+			case SUM	:
+				long	sum = 0;
+
+				for(int index = 0, where = from; index < count; index++, where += step) {
+					sum += source[where];
+				}
+				return sum;
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+
+	private static double[] toDouble(final long[] content) {
+		final double[]	result = new double[content.length];
+
+		for(int index = 0; index < result.length; index++) {
+			result[index] = content[index];
+		}
+		return result;
+	}
+
+	private static int findPivot(final double[] source, final int size, final int column) {
+		int		pivot = column;
+
+		for(int y = column + 1; y < size; y++) {
+			if (Math.abs(source[y*size+column]) > Math.abs(source[pivot*size+column])) {
+				pivot = y;
+			}
+		}
+		return pivot;
+	}
+
+	private static void swapRows(final double[] source, final int size, final int row1, final int row2) {
+		for(int x = 0; x < size; x++) {
+			final double	temp = source[row1*size+x];
+
+			source[row1*size+x] = source[row2*size+x];
+			source[row2*size+x] = temp;
+		}
+	}
+}
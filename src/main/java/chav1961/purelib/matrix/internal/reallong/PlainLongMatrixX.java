@@ -0,0 +1,550 @@
+package chav1961.purelib.matrix.internal.reallong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.AbstractExternalMatrix;
+import chav1961.purelib.matrix.MultiplicationEngine;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.streams.DataInputAdapter;
+
+/**
+ * <p>This class implements external matrix with long content. Matrix content is stored in the temporary file and is processed tile by tile
+ * (see {@linkplain AbstractExternalMatrix}).</p>
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class PlainLongMatrixX extends AbstractExternalMatrix<PlainLongMatrixX> {
+	@FunctionalInterface
+	private static interface Operation {
+		long apply(long left, long right);
+	}
+
+	public PlainLongMatrixX(final int width, final int height) throws IOException {
+		this(width, height, TILE_SIZE);
+	}
+
+	public PlainLongMatrixX(final int width, final int height, final int tileSize) throws IOException {
+		super(ContentType.REAL_LONG, width, height, Long.BYTES, tileSize);
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		try {
+			final PlainLongMatrixX	result = new PlainLongMatrixX(getWidth(), getHeight(), getTileSize());
+
+			transferTo(result);
+			return result;
+		} catch (IOException e) {
+			throw new CloneNotSupportedException(e.getLocalizedMessage());
+		}
+	}
+
+	@Override
+	public PlainLongMatrixX transpose() throws CalculationException {
+		final PlainLongMatrixX	result = newMatrix(getHeight(), getWidth());
+		final int		width = getWidth(), height = getHeight();
+
+		try {
+			forEachTile(0, height, (fromRow, rows, tile)->{
+				final LongBuffer	source = tile.asLongBuffer();
+
+				result.forEachTile(0, width, (fromColumn, columns, targetTile)->{
+					final LongBuffer	target = targetTile.asLongBuffer();
+
+					for(int x = 0; x < columns; x++) {
+						for(int y = 0; y < rows; y++) {
+							target.put(x*height+fromRow+y, source.get(y*width+fromColumn+x));
+						}
+					}
+				});
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX downloadInternal(final Piece piece, final DataInput in) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final LongBuffer	target = tile.asLongBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						target.put(y*width+x, in.readLong());
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX downloadInternal(final Piece piece, final PlainLongMatrixX in) throws IOException {
+		in.transferTo(piece, this, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainLongMatrixX uploadInternal(final Piece piece, final DataOutput out) throws IOException {
+		final int	width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final LongBuffer	source = tile.asLongBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						out.writeLong(source.get(y*width+x));
+					}
+				}
+			});
+			return this;
+		} catch (CalculationException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX uploadInternal(final Piece piece, final PlainLongMatrixX out) throws IOException {
+		transferTo(piece, out, piece.getX(), piece.getY());
+		return this;
+	}
+
+	@Override
+	protected PlainLongMatrixX cropInternal(final Piece piece) throws CalculationException {
+		final PlainLongMatrixX	result = newMatrix(piece.getWidth(), piece.getHeight());
+
+		try {
+			transferTo(piece, result, 0, 0);
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected <AC extends ApplyCallback> PlainLongMatrixX applyInternal(final Piece piece, final AC callback) throws CalculationException {
+		final LongApplyCallback	ac = (LongApplyCallback)callback;
+		final int				width = getWidth();
+
+		try {
+			forEachTile(piece.getY(), piece.getY() + piece.getHeight(), (fromRow, rows, tile)->{
+				final LongBuffer	source = tile.asLongBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					for(int x = piece.getX(), maxX = x + piece.getWidth(); x < maxX; x++) {
+						source.put(y*width+x, ac.apply(x, fromRow+y, source.get(y*width+x)));
+					}
+				}
+			});
+			return this;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final ContentType type) throws CalculationException {
+		final BaseMatrix<?>	result = MatrixFactory.newMatrix(type, getFormatType(), getStoreType(), getWidth(), getHeight());
+		final boolean		complex = type == ContentType.COMPLEX_FLOAT || type == ContentType.COMPLEX_DOUBLE;
+
+		try {
+			result.download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+				final TileCursor	cursor = new TileCursor();
+				boolean				image = false;
+
+				@Override public boolean readBoolean() throws IOException {return cursor.next().getLong() != 0;}
+				@Override public int readInt() throws IOException {return (int)cursor.next().getLong();}
+				@Override public long readLong() throws IOException {return cursor.next().getLong();}
+				@Override public float readFloat() throws IOException {return (float)next();}
+				@Override public double readDouble() throws IOException {return next();}
+
+				private double next() throws IOException {
+					if (complex) {
+						image = !image;
+						if (!image) {
+							return 0;
+						}
+					}
+					return cursor.next().getLong();
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final FormatType type) throws CalculationException {
+		switch (type) {
+			case BITMAP		:
+				throw new IllegalArgumentException("Format ["+type+"] is not applicable for ["+getClass().getCanonicalName()+"] matrix");
+			case PLAIN		:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			default:
+				throw new UnsupportedOperationException("Format type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected BaseMatrix<?> castInternal(final StoreType type) throws CalculationException {
+		switch (type) {
+			case EXTERNAL	:
+				try {
+					return (BaseMatrix<?>) this.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new CalculationException(e);
+				}
+			case IN_MEMORY	:
+				try {
+					return new PlainLongMatrix(getWidth(), getHeight()).download(Piece.of(0, 0, getWidth(), getHeight()), new DataInputAdapter() {
+						final TileCursor	cursor = new TileCursor();
+
+						@Override
+						public long readLong() throws IOException {
+							return cursor.next().getLong();
+						}
+					});
+				} catch (IOException e) {
+					throw new CalculationException(e.getLocalizedMessage(), e);
+				}
+			default:
+				throw new UnsupportedOperationException("Store type ["+type+"] is not supported yet");
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX addInternal(final PlainLongMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left + right);
+	}
+
+	@Override
+	protected PlainLongMatrixX addInternal(final Operand another) throws CalculationException {
+		return process(another.getLong(), (left, right)->left + right);
+	}
+
+	@Override
+	protected PlainLongMatrixX subtractInternal(final PlainLongMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left - right);
+	}
+
+	@Override
+	protected PlainLongMatrixX subtractInternal(final Operand another) throws CalculationException {
+		return process(another.getLong(), (left, right)->left - right);
+	}
+
+	@Override
+	protected PlainLongMatrixX subtractRevInternal(final PlainLongMatrixX another) throws CalculationException {
+		return process(another, (left, right)->right - left);
+	}
+
+	@Override
+	protected PlainLongMatrixX subtractRevInternal(final Operand another) throws CalculationException {
+		return process(another.getLong(), (left, right)->right - left);
+	}
+
+	@Override
+	protected PlainLongMatrixX mulInternal(final PlainLongMatrixX another) throws CalculationException {
+		final int		width = getWidth(), height = getHeight(), anotherWidth = another.getWidth();
+		final PlainLongMatrixX	result = newMatrix(anotherWidth, height);
+		final int		rowsPerTile = getRowsPerTile(Math.max(width, anotherWidth)), depthPerTile = Math.min(width, another.getRowsPerTile());
+		final long[]	leftPart = new long[rowsPerTile * depthPerTile], rightPart = new long[depthPerTile * anotherWidth], product = new long[rowsPerTile * anotherWidth];
+
+		try {
+			for(int fromRow = 0; fromRow < height; fromRow += rowsPerTile) {
+				final int		rows = Math.min(rowsPerTile, height - fromRow);
+				final LongBuffer	left = map(fromRow, rows).asLongBuffer();
+
+				Arrays.fill(product, 0, rows * anotherWidth, 0L);
+				for(int fromDepth = 0; fromDepth < width; fromDepth += depthPerTile) {
+					final int	depth = Math.min(depthPerTile, width - fromDepth);
+
+					for(int y = 0; y < rows; y++) {
+						left.get(y*width+fromDepth, leftPart, y*depth, depth);
+					}
+					another.map(fromDepth, depth).asLongBuffer().get(0, rightPart, 0, depth*anotherWidth);
+					MultiplicationEngine.multiply(leftPart, depth, rows, rightPart, anotherWidth, product);
+				}
+				result.map(fromRow, rows).asLongBuffer().put(0, product, 0, rows*anotherWidth);
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX mulTInternal(final PlainLongMatrixX another) throws CalculationException {
+		final PlainLongMatrixX	transposed = transpose();
+
+		try {
+			return transposed.mulInternal(another);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX mulRevInternal(final PlainLongMatrixX another) throws CalculationException {
+		return another.mulInternal(this);
+	}
+
+	@Override
+	protected PlainLongMatrixX mulRevTInternal(final PlainLongMatrixX another) throws CalculationException {
+		final PlainLongMatrixX	transposed = transpose();
+
+		try {
+			return another.mulInternal(transposed);
+		} finally {
+			transposed.close();
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX mulHadamardInternal(final PlainLongMatrixX another) throws CalculationException {
+		return process(another, (left, right)->left * right);
+	}
+
+	@Override
+	protected PlainLongMatrixX mulKronekerInternal(final PlainLongMatrixX another) throws CalculationException {
+		final PlainLongMatrixX	result = newMatrix(getWidth()*another.getWidth(), getHeight()*another.getHeight());
+		final int		width1 = getWidth(), width2 = another.getWidth(), height2 = another.getHeight(), targetWidth = result.getWidth();
+		final long[]	row = new long[width1];
+
+		try {
+			for(int y1 = 0, maxY1 = getHeight(); y1 < maxY1; y1++) {
+				final int	targetRow = y1 * height2;
+
+				map(y1, 1).asLongBuffer().get(0, row);
+				another.forEachTile(0, height2, (fromRow, rows, tile)->{
+					final LongBuffer	source = tile.asLongBuffer();
+					final LongBuffer	target = result.map(targetRow+fromRow, rows).asLongBuffer();
+
+					for(int y2 = 0; y2 < rows; y2++) {
+						for(int x1 = 0; x1 < width1; x1++) {
+							final long	value = row[x1];
+
+							if (value != 0) {
+								for(int x2 = 0, from = y2*width2, to = y2*targetWidth + x1*width2; x2 < width2; x2++) {
+									target.put(to+x2, value * source.get(from+x2));
+								}
+							}
+						}
+					}
+				});
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	@Override
+	protected PlainLongMatrixX mulKronekerRevInternal(final PlainLongMatrixX another) throws CalculationException {
+		return another.mulKronekerInternal(this);
+	}
+
+	@Override
+	protected PlainLongMatrixX mulInternal(final Operand another) throws CalculationException {
+		return process(another.getLong(), (left, right)->left * right);
+	}
+
+	@Override
+	protected PlainLongMatrixX divInternal(final Operand another) throws CalculationException {
+		return process(another.getLong(), (left, right)->left / right);
+	}
+
+	@Override
+	protected PlainLongMatrixX divRevInternal(final Operand another) throws CalculationException {
+		return process(another.getLong(), (left, right)->right / left);
+	}
+
+	@Override
+	protected PlainLongMatrixX aggregateInternal(final Piece piece, final AggregateDirection dir, final AggregateType type) throws CalculationException {
+		final int		width = getWidth(), fromX = piece.getX(), fromY = piece.getY();
+		final PlainLongMatrixX	result;
+
+		try {
+			switch (dir) {
+				case BY_COLUMNS	:
+					final long[]	columns = new long[piece.getWidth()];
+
+					result = newMatrix(piece.getWidth(), 1);
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final LongBuffer	source = tile.asLongBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0; x < columns.length; x++) {
+								final long	value = source.get(y*width+fromX+x);
+
+								columns[x] = fromRow + y == fromY ? value : aggregate(columns[x], value, type);
+							}
+						}
+					});
+					if (type == AggregateType.AVG) {
+						for(int x = 0; x < columns.length; x++) {
+							columns[x] /= piece.getHeight();
+						}
+					}
+					result.map(0, 1).asLongBuffer().put(0, columns);
+					break;
+				case BY_ROWS	:
+					result = newMatrix(1, piece.getHeight());
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final LongBuffer	source = tile.asLongBuffer();
+						final LongBuffer	target = result.map(fromRow - fromY, rows).asLongBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							long		total = source.get(y*width+fromX);
+
+							for(int x = 1, maxX = piece.getWidth(); x < maxX; x++) {
+								total = aggregate(total, source.get(y*width+fromX+x), type);
+							}
+							target.put(y, type == AggregateType.AVG ? (long)(total / piece.getWidth()) : total);
+						}
+					});
+					break;
+				case TOTAL		:
+					final long[]	total = new long[1];
+
+					result = newMatrix(1, 1);
+					forEachTile(fromY, fromY + piece.getHeight(), (fromRow, rows, tile)->{
+						final LongBuffer	source = tile.asLongBuffer();
+
+						for(int y = 0; y < rows; y++) {
+							for(int x = 0, maxX = piece.getWidth(); x < maxX; x++) {
+								final long	value = source.get(y*width+fromX+x);
+
+								total[0] = fromRow + y == fromY && x == 0 ? value : aggregate(total[0], value, type);
+							}
+						}
+					});
+					if (type == AggregateType.AVG) {
+						total[0] /= piece.getWidth() * piece.getHeight();
+					}
+					result.map(0, 1).asLongBuffer().put(0, total);
+					break;
+				default:
+					throw new UnsupportedOperationException("Aggregate direction ["+dir+"] is not supported yet");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Calculate determinant. Matrix is loaded into memory to calculate determinant.</p>
+	 */
+	@Override
+	public Operand det() throws CalculationException {
+		try(final PlainLongMatrix	inMemory = (PlainLongMatrix)castInternal(StoreType.IN_MEMORY)) {
+			return inMemory.det();
+		}
+	}
+
+	@Override
+	public Operand track() throws CalculationException {
+		final int		width = getWidth();
+		final long[]	sum = new long[1];
+
+		try {
+			forEachTile(0, Math.min(width, getHeight()), (fromRow, rows, tile)->{
+				final LongBuffer	source = tile.asLongBuffer();
+
+				for(int y = 0; y < rows; y++) {
+					sum[0] += source.get(y*width+fromRow+y);
+				}
+			});
+			return Operand.of(sum[0]);
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * <p>Invert matrix. Matrix is loaded into memory to invert it.</p>
+	 */
+	@Override
+	protected PlainLongMatrixX invertInternal() throws CalculationException {
+		try(final PlainLongMatrix	inMemory = (PlainLongMatrix)castInternal(StoreType.IN_MEMORY);
+			final PlainLongMatrix	inverted = inMemory.invert()) {
+			return (PlainLongMatrixX)inverted.cast(StoreType.EXTERNAL);
+		}
+	}
+
+	private PlainLongMatrixX newMatrix(final int width, final int height) throws CalculationException {
+		try {
+			return new PlainLongMatrixX(width, height, getTileSize());
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainLongMatrixX process(final PlainLongMatrixX another, final Operation op) throws CalculationException {
+		final PlainLongMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final LongBuffer	source1 = tile.asLongBuffer();
+				final LongBuffer	source2 = another.map(fromRow, rows).asLongBuffer();
+				final LongBuffer	target = result.map(fromRow, rows).asLongBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index++) {
+					target.put(index, op.apply(source1.get(index), source2.get(index)));
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private PlainLongMatrixX process(final long value, final Operation op) throws CalculationException {
+		final PlainLongMatrixX	result = newMatrix(getWidth(), getHeight());
+
+		try {
+			forEachTile(0, getHeight(), (fromRow, rows, tile)->{
+				final LongBuffer	source = tile.asLongBuffer();
+				final LongBuffer	target = result.map(fromRow, rows).asLongBuffer();
+
+				for(int index = 0, maxIndex = target.limit(); index < maxIndex; index++) {
+					target.put(index, op.apply(source.get(index), value));
+				}
+			});
+			return result;
+		} catch (IOException e) {
+			throw new CalculationException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private static long aggregate(final long total, final long value, final AggregateType type) {
+		switch (type) {
+			case AVG : case SUM	:
+				return total + value;
+			case MAX	:
+				return Math.max(total, value);
+			case MIN	:
+				return Math.min(total, value);
+			default:
+				throw new UnsupportedOperationException("Aggregation type ["+type+"] is not supported yet");
+		}
+	}
+}
@@ -1,51 +1,866 @@
 package chav1961.purelib.sql;
 
+import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import chav1961.purelib.basic.interfaces.LoggerFacade;
+import chav1961.purelib.basic.interfaces.LoggerFacade.Severity;
+import chav1961.purelib.enumerations.ContinueMode;
 import chav1961.purelib.sql.interfaces.RawAndOrTreeInterface;
 
-public class MappedAndOrTree implements RawAndOrTreeInterface  {
-	public MappedAndOrTree(final LoggerFacade logger, final FileChannel channel) {
-		
+/**
+ * <p>This class is a persistent variant of the And/Or tree (see {@link chav1961.purelib.basic.AndOrTree}). All the tree content is stored in the file and
+ * accessed via memory-mapped buffers, so reopening existent tree doesn't need to rebuild it and takes time independent of the tree size. Every tree node
+ * contains AND part (a 'substring' of the key), OR part (ordered array of the next bytes and parallel array of the references to child nodes) and TERM part
+ * (identifier associated with the key terminated in the node). Negative identifier means 'no key terminated here'.</p>
+ *
+ * <p>File layout is:</p>
+ * <ul>
+ * <li>header (magic, version, root node address, number of keys, end of the allocated space and free lists heads)</li>
+ * <li>nodes, allocated by power of two blocks. Released blocks are collected into free lists and reused</li>
+ * </ul>
+ * <p>File is mapped by segments of {@value #SEGMENT_SIZE} bytes, and no one node crosses segment boundary.</p>
+ *
+ * <p>The tree can be opened in read-only mode (see {@link #MappedAndOrTree(LoggerFacade, FileChannel, boolean)}). In this mode the file is mapped
+ * with {@link MapMode#READ_ONLY} mode and can be shared between a lot of processes. This class is thread-safe: any number of threads can seek and walk
+ * the tree concurrently, modification of the tree is exclusive. Channel passed is owned by the caller, and the caller must close it after closing the tree.</p>
+ *
+ * @see chav1961.purelib.basic.AndOrTree
+ * @see chav1961.purelib.sql JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class MappedAndOrTree implements RawAndOrTreeInterface, Flushable, Closeable {
+	/**
+	 * <p>Segment size to map file content</p>
+	 */
+	public static final int		SEGMENT_SIZE = 1 << 26;
+	/**
+	 * <p>Max length of the AND part of the node. Longer keys are stored as chains of nodes</p>
+	 */
+	public static final int		MAX_PREFIX = 1024;
+
+	private static final int	MAGIC = 0xDEDA00F1;
+	private static final int	VERSION = 1;
+	private static final int	SEGMENT_SHIFT = 26;
+	private static final long	SEGMENT_MASK = SEGMENT_SIZE - 1;
+	private static final int	INITIAL_SIZE = 1 << 16;
+	private static final int	MIN_CLASS = 5;
+	private static final int	FREE_LISTS = 32;
+
+	private static final int	HEADER_MAGIC = 0;
+	private static final int	HEADER_VERSION = 4;
+	private static final int	HEADER_ROOT = 8;
+	private static final int	HEADER_COUNT = 16;
+	private static final int	HEADER_END = 24;
+	private static final int	HEADER_FREE = 32;
+	private static final int	HEADER_SIZE = 512;
+
+	private static final int	NODE_ID = 0;
+	private static final int	NODE_PREFIX_LENGTH = 8;
+	private static final int	NODE_CHILDREN_COUNT = 12;
+	private static final int	NODE_DATA = 16;
+
+	private static final long	NO_ID = -1;
+
+	private final LoggerFacade				logger;
+	private final FileChannel				channel;
+	private final boolean					readOnly;
+	private final ReadWriteLock				lock = new ReentrantReadWriteLock();
+	private final List<MappedByteBuffer>	segments = new ArrayList<>();
+	private long							mappedSize;
+	private boolean							closed = false;
+
+	/**
+	 * <p>Constructor of the class. Opens the tree in read-write mode. Empty file will be initialized as empty tree.</p>
+	 * @param logger logger to print messages to. Can't be null
+	 * @param channel channel to store tree to. Can't be null. Must be opened for reading and writing
+	 * @throws NullPointerException when any parameter is null
+	 * @throws IOException on any I/O errors or when the file content is not a tree
+	 */
+	public MappedAndOrTree(final LoggerFacade logger, final FileChannel channel) throws NullPointerException, IOException {
+		this(logger, channel, false);
+	}
+
+	/**
+	 * <p>Constructor of the class. Opening the tree doesn't read file content and takes time independent of the tree size.</p>
+	 * @param logger logger to print messages to. Can't be null
+	 * @param channel channel to store tree to. Can't be null. Must be opened for reading (and writing, when read-only mode is off)
+	 * @param readOnly open tree in read-only mode. Any modifications of the tree will throw {@link IllegalStateException}
+	 * @throws NullPointerException when any parameter is null
+	 * @throws IOException on any I/O errors or when the file content is not a tree
+	 */
+	public MappedAndOrTree(final LoggerFacade logger, final FileChannel channel, final boolean readOnly) throws NullPointerException, IOException {
+		if (logger == null) {
+			throw new NullPointerException("Logger can't be null");
+		}
+		else if (channel == null) {
+			throw new NullPointerException("Channel can't be null");
+		}
+		else {
+			this.logger = logger;
+			this.channel = channel;
+			this.readOnly = readOnly;
+
+			final long	size = channel.size();
+
+			if (size == 0) {
+				if (readOnly) {
+					throw new IOException("Empty file can't be opened in read-only mode");
+				}
+				else {
+					remap(INITIAL_SIZE);
+					putInt(HEADER_MAGIC, MAGIC);
+					putInt(HEADER_VERSION, VERSION);
+					putLong(HEADER_COUNT, 0);
+					putLong(HEADER_END, HEADER_SIZE);
+					for (int index = 0; index < FREE_LISTS; index++) {
+						putLong(HEADER_FREE + 8 * index, 0);
+					}
+					final long	root = allocate(nodeSize(0, 0));
+
+					putLong(root + NODE_ID, NO_ID);
+					putInt(root + NODE_PREFIX_LENGTH, 0);
+					putInt(root + NODE_CHILDREN_COUNT, 0);
+					putLong(HEADER_ROOT, root);
+					logger.message(Severity.debug, "Mapped And/Or tree was initialized");
+				}
+			}
+			else if (size < HEADER_SIZE) {
+				throw new IOException("File is too short to contain And/Or tree");
+			}
+			else {
+				remap(size);
+				if (getInt(HEADER_MAGIC) != MAGIC) {
+					throw new IOException("File doesn't contain And/Or tree (illegal magic)");
+				}
+				else if (getInt(HEADER_VERSION) != VERSION) {
+					throw new IOException("Unsupported And/Or tree version ["+getInt(HEADER_VERSION)+"], awaited ["+VERSION+"]");
+				}
+				else if (getLong(HEADER_END) > size) {
+					throw new IOException("And/Or tree file is truncated");
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Get number of keys in the tree</p>
+	 * @return number of keys in the tree
+	 */
+	public long size() {
+		final Lock	rl = lock.readLock();
+
+		rl.lock();
+		try{ensureOpened();
+			return getLong(HEADER_COUNT);
+		} finally {
+			rl.unlock();
+		}
+	}
+
+	/**
+	 * <p>Is the tree opened in read-only mode</p>
+	 * @return true if yes
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		final Lock	rl = lock.readLock();
+
+		rl.lock();
+		try{ensureOpened();
+			if (!readOnly) {
+				for (MappedByteBuffer item : segments) {
+					item.force();
+				}
+			}
+		} finally {
+			rl.unlock();
+		}
 	}
-	
+
+	/**
+	 * <p>Flush the tree content and release mapped buffers. Channel passed to constructor is not closed.</p>
+	 */
 	@Override
-	public void placeContent(byte[] content, int from, int length, long id) {
-		// TODO Auto-generated method stub
-		
+	public void close() throws IOException {
+		final Lock	wl = lock.writeLock();
+
+		wl.lock();
+		try{if (!closed) {
+				if (!readOnly) {
+					for (MappedByteBuffer item : segments) {
+						item.force();
+					}
+				}
+				segments.clear();
+				closed = true;
+			}
+		} finally {
+			wl.unlock();
+		}
 	}
 
 	@Override
-	public long seekContent(byte[] content, int from, int length) {
-		// TODO Auto-generated method stub
-		return 0;
+	public void placeContent(final byte[] content, final int from, final int length, final long id) {
+		checkContent(content, from, length);
+		if (id < 0) {
+			throw new IllegalArgumentException("Id ["+id+"] can't be negative");
+		}
+		else {
+			final Lock	wl = lock.writeLock();
+
+			wl.lock();
+			try{ensureWritable();
+				place(content, from, from + length, id);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				wl.unlock();
+			}
+		}
 	}
 
 	@Override
-	public <T> void walkContent(byte[] content, int from, int length, boolean backwardWalk, WalkCallback<T> callback) {
-		// TODO Auto-generated method stub
-		
+	public long seekContent(final byte[] content, final int from, final int length) {
+		checkContent(content, from, length);
+
+		final Lock	rl = lock.readLock();
+
+		rl.lock();
+		try{ensureOpened();
+			final long	node = seekNode(content, from, from + length);
+
+			return node == 0 ? NO_ID : getLong(node + NODE_ID);
+		} finally {
+			rl.unlock();
+		}
 	}
 
+	/**
+	 * <p>Walk all the keys started with the given content. Keys are walked in the lexicographic (unsigned byte) order. Shorter keys are walked before longer
+	 * (after longer for backward walk). Callback can return {@link ContinueMode#STOP} to stop walking, {@link ContinueMode#SKIP_CHILDREN} to skip keys continuing
+	 * the current one (forward walk only) and {@link ContinueMode#SKIP_SIBLINGS} to skip the rest of keys with the same parent. Any other values are treated as
+	 * {@link ContinueMode#CONTINUE}. Content passed to callback is valid during call only. Parameter passed to callback is always null.</p>
+	 * <p>Keys are collected under the read lock and callback is called after unlocking, so callback can modify the tree. Such modifications are not
+	 * visible in the current walk.</p>
+	 */
 	@Override
-	public boolean changeContentId(byte[] content, int from, int length, long id) {
-		// TODO Auto-generated method stub
-		return false;
+	public <T> void walkContent(final byte[] content, final int from, final int length, final boolean backwardWalk, final WalkCallback<T> callback) {
+		checkContent(content, from, length);
+		if (callback == null) {
+			throw new NullPointerException("Callback can't be null");
+		}
+		else {
+			final Lock				rl = lock.readLock();
+			final List<WalkItem>	items = new ArrayList<>();
+
+			rl.lock();
+			try{ensureOpened();
+				final int	to = from + length;
+				long		node = getLong(HEADER_ROOT);
+				int			pos = from;
+
+				for (;;) {
+					final int	prefixLength = getInt(node + NODE_PREFIX_LENGTH), compared = Math.min(prefixLength, to - pos);
+
+					for (int index = 0; index < compared; index++) {
+						if (getByte(node + NODE_DATA + index) != content[pos + index]) {
+							return;
+						}
+					}
+					if (to - pos <= prefixLength) {
+						final KeyBuffer	key = new KeyBuffer(length + prefixLength);
+
+						System.arraycopy(content, from, key.content, 0, pos - from);
+						key.length = pos - from;
+						collect(node, key, backwardWalk, items);
+						break;
+					}
+					else {
+						pos += prefixLength;
+						final long	child = findChild(node, content[pos]);
+
+						if (child == 0) {
+							return;
+						}
+						else {
+							node = child;
+						}
+					}
+				}
+			} finally {
+				rl.unlock();
+			}
+			replay(items, backwardWalk, callback);
+		}
 	}
 
 	@Override
-	public long removeContent(byte[] content, int from, int length) {
-		// TODO Auto-generated method stub
-		return 0;
+	public boolean changeContentId(final byte[] content, final int from, final int length, final long id) {
+		checkContent(content, from, length);
+		if (id < 0) {
+			throw new IllegalArgumentException("Id ["+id+"] can't be negative");
+		}
+		else {
+			final Lock	wl = lock.writeLock();
+
+			wl.lock();
+			try{ensureWritable();
+				final long	node = seekNode(content, from, from + length);
+
+				if (node == 0 || getLong(node + NODE_ID) < 0) {
+					return false;
+				}
+				else {
+					putLong(node + NODE_ID, id);
+					return true;
+				}
+			} finally {
+				wl.unlock();
+			}
+		}
+	}
+
+	@Override
+	public long removeContent(final byte[] content, final int from, final int length) {
+		checkContent(content, from, length);
+
+		final Lock	wl = lock.writeLock();
+
+		wl.lock();
+		try{ensureWritable();
+			return remove(content, from, from + length);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			wl.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MappedAndOrTree [readOnly=" + readOnly + ", mappedSize=" + mappedSize + ", closed=" + closed + "]";
+	}
+
+	private void place(final byte[] content, final int from, final int to, final long id) throws IOException {
+		long	slot = HEADER_ROOT, node = getLong(slot);
+		int		pos = from;
+
+		for (;;) {
+			final int	prefixLength = getInt(node + NODE_PREFIX_LENGTH);
+			int			common = 0;
+
+			while (common < prefixLength && pos + common < to && getByte(node + NODE_DATA + common) == content[pos + common]) {
+				common++;
+			}
+			if (common < prefixLength) {	// Split the node
+				final Node	lower = readNode(node), upper = new Node(Arrays.copyOf(lower.prefix, common));
+
+				lower.prefix = Arrays.copyOfRange(lower.prefix, common, lower.prefix.length);
+				upper.labels = new byte[] {lower.prefix[0]};
+				upper.children = new long[] {storeNode(node, lower)};
+				if (pos + common == to) {
+					upper.id = id;
+				}
+				else {
+					upper.insertChild(content[pos + common], createChain(content, pos + common, to, id));
+				}
+				putLong(slot, writeNode(upper));
+				putLong(HEADER_COUNT, getLong(HEADER_COUNT) + 1);
+				return;
+			}
+			pos += prefixLength;
+			if (pos == to) {
+				if (getLong(node + NODE_ID) < 0) {
+					putLong(HEADER_COUNT, getLong(HEADER_COUNT) + 1);
+				}
+				putLong(node + NODE_ID, id);
+				return;
+			}
+			else {
+				final int	index = findChildIndex(node, content[pos]);
+
+				if (index >= 0) {
+					slot = childSlot(node, index);
+					node = getLong(slot);
+				}
+				else {
+					final Node	current = readNode(node);
+
+					current.insertChild(content[pos], createChain(content, pos, to, id));
+					putLong(slot, storeNode(node, current));
+					putLong(HEADER_COUNT, getLong(HEADER_COUNT) + 1);
+					return;
+				}
+			}
+		}
+	}
+
+	private long createChain(final byte[] content, final int from, final int to, final long id) throws IOException {
+		if (to - from > MAX_PREFIX) {
+			final Node	node = new Node(Arrays.copyOfRange(content, from, from + MAX_PREFIX));
+
+			node.labels = new byte[] {content[from + MAX_PREFIX]};
+			node.children = new long[] {createChain(content, from + MAX_PREFIX, to, id)};
+			return writeNode(node);
+		}
+		else {
+			final Node	node = new Node(Arrays.copyOfRange(content, from, to));
+
+			node.id = id;
+			return writeNode(node);
+		}
+	}
+
+	private long remove(final byte[] content, final int from, final int to) throws IOException {
+		final long[]	slots = new long[to - from + 2];
+		long			node = getLong(HEADER_ROOT);
+		int				pos = from, depth = 0;
+
+		slots[depth++] = HEADER_ROOT;
+		for (;;) {
+			final int	prefixLength = getInt(node + NODE_PREFIX_LENGTH);
+
+			if (to - pos < prefixLength) {
+				return NO_ID;
+			}
+			for (int index = 0; index < prefixLength; index++) {
+				if (getByte(node + NODE_DATA + index) != content[pos + index]) {
+					return NO_ID;
+				}
+			}
+			pos += prefixLength;
+			if (pos == to) {
+				break;
+			}
+			else {
+				final int	index = findChildIndex(node, content[pos]);
+
+				if (index < 0) {
+					return NO_ID;
+				}
+				else {
+					slots[depth++] = childSlot(node, index);
+					node = getLong(slots[depth - 1]);
+				}
+			}
+		}
+		final long	oldId = getLong(node + NODE_ID);
+
+		if (oldId < 0) {
+			return NO_ID;
+		}
+		putLong(node + NODE_ID, NO_ID);
+		putLong(HEADER_COUNT, getLong(HEADER_COUNT) - 1);
+
+		for (int level = depth - 1; level > 0; level--) {	// Compact tree up to the root
+			final long	current = getLong(slots[level]);
+			final Node	currentNode = readNode(current);
+
+			if (currentNode.id >= 0) {
+				break;
+			}
+			else if (currentNode.children.length == 0) {
+				final long	parent = getLong(slots[level - 1]);
+				final Node	parentNode = readNode(parent);
+
+				parentNode.removeChild(currentNode.prefix[0]);
+				freeNode(current);
+				putLong(slots[level - 1], storeNode(parent, parentNode));
+			}
+			else {
+				if (currentNode.children.length == 1) {
+					mergeWithChild(slots[level], current, currentNode);
+				}
+				break;
+			}
+		}
+		return oldId;
+	}
+
+	private void mergeWithChild(final long slot, final long node, final Node current) throws IOException {
+		final long	childNode = current.children[0];
+		final Node	child = readNode(childNode);
+
+		if (current.prefix.length + child.prefix.length <= MAX_PREFIX) {
+			final byte[]	prefix = Arrays.copyOf(current.prefix, current.prefix.length + child.prefix.length);
+
+			System.arraycopy(child.prefix, 0, prefix, current.prefix.length, child.prefix.length);
+			child.prefix = prefix;
+			freeNode(node);
+			putLong(slot, storeNode(childNode, child));
+		}
+		else {
+			putLong(slot, storeNode(node, current));
+		}
+	}
+
+	private long seekNode(final byte[] content, final int from, final int to) {
+		long	node = getLong(HEADER_ROOT);
+		int		pos = from;
+
+		for (;;) {
+			final int	prefixLength = getInt(node + NODE_PREFIX_LENGTH);
+
+			if (to - pos < prefixLength) {
+				return 0;
+			}
+			for (int index = 0; index < prefixLength; index++) {
+				if (getByte(node + NODE_DATA + index) != content[pos + index]) {
+					return 0;
+				}
+			}
+			pos += prefixLength;
+			if (pos == to) {
+				return node;
+			}
+			else if ((node = findChild(node, content[pos])) == 0) {
+				return 0;
+			}
+		}
+	}
+
+	private void collect(final long node, final KeyBuffer key, final boolean backwardWalk, final List<WalkItem> items) {
+		final int	prefixLength = getInt(node + NODE_PREFIX_LENGTH), childrenCount = getInt(node + NODE_CHILDREN_COUNT), oldLength = key.length;
+		final long	id = getLong(node + NODE_ID);
+
+		key.ensureCapacity(oldLength + prefixLength);
+		getBytes(node + NODE_DATA, key.content, oldLength, prefixLength);
+		key.length = oldLength + prefixLength;
+		try{if (!backwardWalk && id >= 0) {
+				items.add(new WalkItem(Arrays.copyOf(key.content, key.length), id, oldLength));
+			}
+			for (int index = 0; index < childrenCount; index++) {
+				collect(getLong(childSlot(node, backwardWalk ? childrenCount - 1 - index : index)), key, backwardWalk, items);
+			}
+			if (backwardWalk && id >= 0) {
+				items.add(new WalkItem(Arrays.copyOf(key.content, key.length), id, oldLength));
+			}
+		} finally {
+			key.length = oldLength;
+		}
+	}
+
+	/*
+	 * Every subtree is a contiguous range in the collected items, and all keys of the subtree continue the subtree key. So skipping children or the rest
+	 * of siblings means skipping the items continuing the appropriative key.
+	 */
+	private static <T> void replay(final List<WalkItem> items, final boolean backwardWalk, final WalkCallback<T> callback) {
+		byte[]	skip = null;
+		int		skipLength = 0;
+
+		for (WalkItem item : items) {
+			if (skip != null && item.key.length > skipLength && Arrays.equals(item.key, 0, skipLength, skip, 0, skipLength)) {
+				continue;
+			}
+			else {
+				final ContinueMode	mode = callback.process(item.key, 0, item.key.length, item.id, null);
+
+				if (mode == ContinueMode.STOP) {
+					return;
+				}
+				else if (mode == ContinueMode.SKIP_SIBLINGS) {
+					skip = item.key;
+					skipLength = item.parentLength;
+				}
+				else if (mode == ContinueMode.SKIP_CHILDREN && !backwardWalk) {
+					skip = item.key;
+					skipLength = item.key.length;
+				}
+			}
+		}
+	}
+
+	private long findChild(final long node, final byte label) {
+		final int	index = findChildIndex(node, label);
+
+		return index < 0 ? 0 : getLong(childSlot(node, index));
+	}
+
+	private int findChildIndex(final long node, final byte label) {
+		final long	labels = node + NODE_DATA + align(getInt(node + NODE_PREFIX_LENGTH));
+		final int	key = label & 0xFF;
+		int			low = 0, high = getInt(node + NODE_CHILDREN_COUNT) - 1;
+
+		while (low <= high) {
+			final int	mid = (low + high) >>> 1, value = getByte(labels + mid) & 0xFF;
+
+			if (value < key) {
+				low = mid + 1;
+			}
+			else if (value > key) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private long childSlot(final long node, final int index) {
+		return node + NODE_DATA + align(getInt(node + NODE_PREFIX_LENGTH)) + align(getInt(node + NODE_CHILDREN_COUNT)) + 8L * index;
+	}
+
+	private Node readNode(final long node) {
+		final Node	result = new Node(new byte[getInt(node + NODE_PREFIX_LENGTH)]);
+		final int	childrenCount = getInt(node + NODE_CHILDREN_COUNT);
+		final long	labels = node + NODE_DATA + align(result.prefix.length), children = labels + align(childrenCount);
+
+		result.id = getLong(node + NODE_ID);
+		getBytes(node + NODE_DATA, result.prefix, 0, result.prefix.length);
+		result.labels = new byte[childrenCount];
+		getBytes(labels, result.labels, 0, childrenCount);
+		result.children = new long[childrenCount];
+		for (int index = 0; index < childrenCount; index++) {
+			result.children[index] = getLong(children + 8L * index);
+		}
+		return result;
+	}
+
+	private long storeNode(final long oldAddress, final Node node) throws IOException {
+		final int	oldSize = nodeSize(getInt(oldAddress + NODE_PREFIX_LENGTH), getInt(oldAddress + NODE_CHILDREN_COUNT));
+
+		if (sizeClass(oldSize) == sizeClass(node.size())) {
+			writeNode(oldAddress, node);
+			return oldAddress;
+		}
+		else {
+			free(oldAddress, oldSize);
+			return writeNode(node);
+		}
+	}
+
+	private void freeNode(final long address) throws IOException {
+		free(address, nodeSize(getInt(address + NODE_PREFIX_LENGTH), getInt(address + NODE_CHILDREN_COUNT)));
+	}
+
+	private long writeNode(final Node node) throws IOException {
+		final long	address = allocate(node.size());
+
+		writeNode(address, node);
+		return address;
+	}
+
+	private void writeNode(final long address, final Node node) {
+		final long	labels = address + NODE_DATA + align(node.prefix.length), children = labels + align(node.labels.length);
+
+		putLong(address + NODE_ID, node.id);
+		putInt(address + NODE_PREFIX_LENGTH, node.prefix.length);
+		putInt(address + NODE_CHILDREN_COUNT, node.labels.length);
+		putBytes(address + NODE_DATA, node.prefix);
+		putBytes(labels, node.labels);
+		for (int index = 0; index < node.children.length; index++) {
+			putLong(children + 8L * index, node.children[index]);
+		}
 	}
-	
+
 	private long allocate(final long size) throws IOException {
-		return 0;
+		final int	sizeClass = sizeClass(size);
+		final long	freeHead = HEADER_FREE + 8 * sizeClass, head = getLong(freeHead);
+
+		if (head != 0) {
+			putLong(freeHead, getLong(head));
+			return head;
+		}
+		else {
+			final long	blockSize = 1L << sizeClass;
+			long		address = getLong(HEADER_END);
+
+			if ((address & SEGMENT_MASK) + blockSize > SEGMENT_SIZE) {
+				address = (address | SEGMENT_MASK) + 1;
+			}
+			if (address + blockSize > mappedSize) {
+				remap(Math.max(address + blockSize, Math.min(2 * mappedSize, mappedSize + SEGMENT_SIZE)));
+			}
+			putLong(HEADER_END, address + blockSize);
+			return address;
+		}
 	}
-	
+
 	private void free(final long address, final long size) throws IOException {
-		
+		final long	freeHead = HEADER_FREE + 8 * sizeClass(size);
+
+		putLong(address, getLong(freeHead));
+		putLong(freeHead, address);
+	}
+
+	private void remap(final long size) throws IOException {
+		final long	newSize = (size + INITIAL_SIZE - 1) & ~(long)(INITIAL_SIZE - 1);
+		final int	lastSegment = (int)((newSize - 1) >>> SEGMENT_SHIFT);
+
+		for (int index = 0; index <= lastSegment; index++) {
+			final long	segmentStart = (long)index << SEGMENT_SHIFT, segmentSize = Math.min(SEGMENT_SIZE, (readOnly ? size : newSize) - segmentStart);
+
+			if (index >= segments.size()) {
+				segments.add(channel.map(readOnly ? MapMode.READ_ONLY : MapMode.READ_WRITE, segmentStart, segmentSize));
+			}
+			else if (segments.get(index).capacity() != segmentSize) {
+				segments.set(index, channel.map(readOnly ? MapMode.READ_ONLY : MapMode.READ_WRITE, segmentStart, segmentSize));
+			}
+		}
+		mappedSize = readOnly ? size : newSize;
+		if (logger.isLoggedNow(Severity.trace)) {
+			logger.message(Severity.trace, "Mapped And/Or tree: mapped size is %1$d bytes", mappedSize);
+		}
+	}
+
+	private void ensureOpened() {
+		if (closed) {
+			throw new IllegalStateException("Tree is already closed");
+		}
+	}
+
+	private void ensureWritable() {
+		ensureOpened();
+		if (readOnly) {
+			throw new IllegalStateException("Tree is opened in read-only mode");
+		}
+	}
+
+	private static void checkContent(final byte[] content, final int from, final int length) {
+		if (content == null) {
+			throw new NullPointerException("Content can't be null");
+		}
+		else if (from < 0 || from > content.length) {
+			throw new IllegalArgumentException("From position ["+from+"] out of range 0.."+content.length);
+		}
+		else if (length < 0 || from + length > content.length) {
+			throw new IllegalArgumentException("Length ["+length+"] out of range 0.."+(content.length-from));
+		}
+	}
+
+	private static int nodeSize(final int prefixLength, final int childrenCount) {
+		return NODE_DATA + align(prefixLength) + align(childrenCount) + 8 * childrenCount;
+	}
+
+	private static int align(final int size) {
+		return (size + 7) & ~7;
+	}
+
+	private static int sizeClass(final long size) {
+		return Math.max(MIN_CLASS, 64 - Long.numberOfLeadingZeros(size - 1));
+	}
+
+	private byte getByte(final long address) {
+		return segments.get((int)(address >>> SEGMENT_SHIFT)).get((int)(address & SEGMENT_MASK));
+	}
+
+	private void getBytes(final long address, final byte[] content, final int from, final int length) {
+		segments.get((int)(address >>> SEGMENT_SHIFT)).get((int)(address & SEGMENT_MASK), content, from, length);
+	}
+
+	private int getInt(final long address) {
+		return segments.get((int)(address >>> SEGMENT_SHIFT)).getInt((int)(address & SEGMENT_MASK));
+	}
+
+	private long getLong(final long address) {
+		return segments.get((int)(address >>> SEGMENT_SHIFT)).getLong((int)(address & SEGMENT_MASK));
+	}
+
+	private void putBytes(final long address, final byte[] content) {
+		segments.get((int)(address >>> SEGMENT_SHIFT)).put((int)(address & SEGMENT_MASK), content);
+	}
+
+	private void putInt(final long address, final int value) {
+		segments.get((int)(address >>> SEGMENT_SHIFT)).putInt((int)(address & SEGMENT_MASK), value);
+	}
+
+	private void putLong(final long address, final long value) {
+		segments.get((int)(address >>> SEGMENT_SHIFT)).putLong((int)(address & SEGMENT_MASK), value);
+	}
+
+	private static class Node {
+		long	id = NO_ID;
+		byte[]	prefix;
+		byte[]	labels = new byte[0];
+		long[]	children = new long[0];
+
+		Node(final byte[] prefix) {
+			this.prefix = prefix;
+		}
+
+		int size() {
+			return nodeSize(prefix.length, labels.length);
+		}
+
+		void insertChild(final byte label, final long child) {
+			int	index = 0;
+
+			while (index < labels.length && (labels[index] & 0xFF) < (label & 0xFF)) {
+				index++;
+			}
+			final byte[]	newLabels = new byte[labels.length + 1];
+			final long[]	newChildren = new long[children.length + 1];
+
+			System.arraycopy(labels, 0, newLabels, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newLabels[index] = label;
+			newChildren[index] = child;
+			System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+			labels = newLabels;
+			children = newChildren;
+		}
+
+		void removeChild(final byte label) {
+			for (int index = 0; index < labels.length; index++) {
+				if (labels[index] == label) {
+					final byte[]	newLabels = new byte[labels.length - 1];
+					final long[]	newChildren = new long[children.length - 1];
+
+					System.arraycopy(labels, 0, newLabels, 0, index);
+					System.arraycopy(children, 0, newChildren, 0, index);
+					System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+					System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+					labels = newLabels;
+					children = newChildren;
+					return;
+				}
+			}
+		}
+	}
+
+	private static class WalkItem {
+		final byte[]	key;
+		final long		id;
+		final int		parentLength;
+
+		WalkItem(final byte[] key, final long id, final int parentLength) {
+			this.key = key;
+			this.id = id;
+			this.parentLength = parentLength;
+		}
+	}
+
+	private static class KeyBuffer {
+		byte[]	content;
+		int		length = 0;
+
+		KeyBuffer(final int initialSize) {
+			content = new byte[Math.max(16, initialSize)];
+		}
+
+		void ensureCapacity(final int size) {
+			if (size > content.length) {
+				content = Arrays.copyOf(content, Math.max(size, 2 * content.length));
+			}
+		}
 	}
 }
@@ -0,0 +1,571 @@
+package chav1961.purelib.streams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import chav1961.purelib.basic.exceptions.SyntaxException;
+import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
+import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
+
+/**
+ * <p>This class implements a StAX-styled parser of the compact binary JSON representation printed by the {@linkplain BinaryJsonStaxPrinter}. It's a drop-in
+ * replacement of the {@linkplain JsonStaxParser}: it returns the same sequence of lexemas (including {@linkplain JsonStaxParserLexType#NAME_SPLITTER} and
+ * {@linkplain JsonStaxParserLexType#LIST_SPLITTER} which are not stored in the binary content), so any code parsing JSON content with the {@linkplain JsonStaxParser}
+ * (for example, {@linkplain chav1961.purelib.json.JsonSerializer} or {@linkplain chav1961.purelib.json.JsonUtils#loadJsonTree(JsonStaxParser)}) can parse binary
+ * content without any changes. Binary format description see {@linkplain BinaryJsonStaxPrinter}.</p>
+ * <p>Binary content has no lines, so {@linkplain #row()} method always returns 0, and {@linkplain #col()} method returns byte offset of the current lexema in the
+ * input stream.</p>
+ * <p>This class is not thread-safe.</p>
+ * @see BinaryJsonStaxPrinter
+ * @see chav1961.purelib.streams JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class BinaryJsonStaxParser extends JsonStaxParser {
+	public static final int					DEFAULT_BUFFER_SIZE = 65536;
+	public static final int					MINIMAL_BUFFER_SIZE = 64;
+
+	private static final char[]				EMPTY_CONTENT = new char[0];
+	private static final byte				OBJ_STARTER = '{';
+	private static final byte				ARRAY_STARTER = '[';
+
+	private final InputStream				is;
+	private final SyntaxTreeInterface<?>	tree;
+	private final List<String>				dictionary = new ArrayList<>();
+	private byte[]							buffer;
+	private int								cursor = 0, filled = 0;
+	private long							bufferStart = 0, lexemaStart = 0;
+	private byte[]							pseudoStack = new byte[64];
+	private boolean[]						valueAwaited = new boolean[64];
+	private int								pseudoStackDepth = 0;
+	private boolean							nameSplitterAwaited = false, listSplitterAwaited = false;
+	private JsonStaxParserLexType			currentLex = null;
+	private boolean							booleanResult;
+	private long							longResult, nameIdResult;
+	private double							doubleResult;
+	private char[]							charsResult = new char[256];
+	private int								charsLength;
+	private String							nameResult;
+	private Exception						detected = null;
+	private boolean							closed = false;
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param is stream to parse binary JSON content from
+	 * @throws IOException on any I/O errors
+	 * @throws NullPointerException when stream is null
+	 */
+	public BinaryJsonStaxParser(final InputStream is) throws IOException, NullPointerException {
+		this(is, DEFAULT_BUFFER_SIZE, null);
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param is stream to parse binary JSON content from
+	 * @param tree tree with field names which ids are stored in the content. Must be the same tree was passed to the {@linkplain BinaryJsonStaxPrinter}. Can be null
+	 * @throws IOException on any I/O errors
+	 * @throws NullPointerException when stream is null
+	 */
+	public BinaryJsonStaxParser(final InputStream is, final SyntaxTreeInterface<?> tree) throws IOException, NullPointerException {
+		this(is, DEFAULT_BUFFER_SIZE, tree);
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param is stream to parse binary JSON content from
+	 * @param bufferSize size of the buffer to read content to
+	 * @param tree tree with field names which ids are stored in the content. Must be the same tree was passed to the {@linkplain BinaryJsonStaxPrinter}. Can be null
+	 * @throws IOException on any I/O errors
+	 * @throws NullPointerException when stream is null
+	 * @throws IllegalArgumentException when buffer size is too small
+	 */
+	public BinaryJsonStaxParser(final InputStream is, final int bufferSize, final SyntaxTreeInterface<?> tree) throws IOException, NullPointerException, IllegalArgumentException {
+		super(CharBuffer.wrap(EMPTY_CONTENT), tree);
+		if (is == null) {
+			throw new NullPointerException("Input stream can't be null");
+		}
+		else if (bufferSize < MINIMAL_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Buffer size ["+bufferSize+"] need be at least "+MINIMAL_BUFFER_SIZE);
+		}
+		else {
+			this.is = is;
+			this.tree = tree;
+			this.buffer = new byte[bufferSize];
+			this.pseudoStack[0] = ' ';
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			buffer = null;
+			pseudoStack = null;
+		}
+		if (detected != null) {
+			throw new IOException(detected.getLocalizedMessage(),detected);
+		}
+	}
+
+	/**
+	 * <p>Reset parser context. Input stream can't be rewound, so parsing continues from the current position of the stream. Name dictionary of the
+	 * stream will not be cleared</p>
+	 * @throws IOException on any I/O errors
+	 */
+	@Override
+	public void reset() throws IOException {
+		pseudoStackDepth = 0;
+		pseudoStack[0] = ' ';
+		nameSplitterAwaited = listSplitterAwaited = false;
+		currentLex = null;
+		detected = null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed || detected != null) {
+			return false;
+		}
+		else if (nameSplitterAwaited || cursor < filled) {
+			return true;
+		}
+		else {
+			try{return fill(1);
+			} catch (IOException e) {
+				detected = e;
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public JsonStaxParserLexType next() {
+		if (closed) {
+			throw new IllegalStateException("Attempt to call this method on closed stream");
+		}
+		else if (nameSplitterAwaited) {
+			nameSplitterAwaited = false;
+			valueAwaited[pseudoStackDepth] = true;
+			return currentLex = JsonStaxParserLexType.NAME_SPLITTER;
+		}
+		else {
+			try{if (!fill(1)) {
+					lexemaStart = bufferStart + cursor;
+					detected = new SyntaxException(0, lexemaStart, "End of data in the stream");
+					return currentLex = JsonStaxParserLexType.ERROR;
+				}
+				lexemaStart = bufferStart + cursor;
+
+				final int	tag = buffer[cursor++] & 0xFF;
+
+				if (listSplitterAwaited) {
+					listSplitterAwaited = false;
+					if (tag != BinaryJsonStaxPrinter.TAG_END_OBJECT && tag != BinaryJsonStaxPrinter.TAG_END_ARRAY) {
+						cursor--;	// Tag will be processed on the next call
+						return currentLex = JsonStaxParserLexType.LIST_SPLITTER;
+					}
+				}
+				if (tag >= BinaryJsonStaxPrinter.TAG_SHORT_NAME_REF) {
+					return name(tag - BinaryJsonStaxPrinter.TAG_SHORT_NAME_REF);
+				}
+				else if (tag >= BinaryJsonStaxPrinter.TAG_SMALL_INTEGER) {
+					final long	zigzag = tag - BinaryJsonStaxPrinter.TAG_SMALL_INTEGER;
+
+					longResult = (zigzag >>> 1) ^ -(zigzag & 1);
+					return value(JsonStaxParserLexType.INTEGER_VALUE);
+				}
+				else {
+					switch (tag) {
+						case BinaryJsonStaxPrinter.TAG_START_OBJECT	:
+							return start(OBJ_STARTER, JsonStaxParserLexType.START_OBJECT);
+						case BinaryJsonStaxPrinter.TAG_END_OBJECT	:
+							return end(OBJ_STARTER, JsonStaxParserLexType.END_OBJECT);
+						case BinaryJsonStaxPrinter.TAG_START_ARRAY	:
+							return start(ARRAY_STARTER, JsonStaxParserLexType.START_ARRAY);
+						case BinaryJsonStaxPrinter.TAG_END_ARRAY	:
+							return end(ARRAY_STARTER, JsonStaxParserLexType.END_ARRAY);
+						case BinaryJsonStaxPrinter.TAG_NULL			:
+							return value(JsonStaxParserLexType.NULL_VALUE);
+						case BinaryJsonStaxPrinter.TAG_FALSE		:
+							booleanResult = false;
+							return value(JsonStaxParserLexType.BOOLEAN_VALUE);
+						case BinaryJsonStaxPrinter.TAG_TRUE			:
+							booleanResult = true;
+							return value(JsonStaxParserLexType.BOOLEAN_VALUE);
+						case BinaryJsonStaxPrinter.TAG_FLOAT		:
+							doubleResult = Float.intBitsToFloat((int)readFixed(4));
+							return value(JsonStaxParserLexType.REAL_VALUE);
+						case BinaryJsonStaxPrinter.TAG_DOUBLE		:
+							doubleResult = Double.longBitsToDouble(readFixed(8));
+							return value(JsonStaxParserLexType.REAL_VALUE);
+						case BinaryJsonStaxPrinter.TAG_INTEGER		:
+							final long	zigzag = readVarInt();
+
+							longResult = (zigzag >>> 1) ^ -(zigzag & 1);
+							return value(JsonStaxParserLexType.INTEGER_VALUE);
+						case BinaryJsonStaxPrinter.TAG_STRING		:
+							readString();
+							return value(JsonStaxParserLexType.STRING_VALUE);
+						case BinaryJsonStaxPrinter.TAG_NAME			:
+							readString();
+							final String	name = new String(charsResult, 0, charsLength);
+
+							if (dictionary.size() < BinaryJsonStaxPrinter.MAX_DICTIONARY_SIZE) {
+								dictionary.add(name);
+							}
+							return name(name, -1);
+						case BinaryJsonStaxPrinter.TAG_NAME_REF		:
+							return name(readVarInt());
+						case BinaryJsonStaxPrinter.TAG_NAME_ID		:
+							final long	id = readVarInt();
+
+							if (tree == null || !tree.contains(id)) {
+								return error("Name id ["+id+"] is missing in the name's tree");
+							}
+							else {
+								return name(tree.getName(id), id);
+							}
+						default :
+							return error("Unknown tag [0x"+Integer.toHexString(tag)+"] in the stream");
+					}
+				}
+			} catch (SyntaxException exc) {
+				detected = exc;
+				return currentLex = JsonStaxParserLexType.ERROR;
+			} catch (IOException exc) {
+				detected = exc;
+				return currentLex = JsonStaxParserLexType.ERROR;
+			}
+		}
+	}
+
+	@Override
+	public JsonStaxParserLexType current() {
+		if (currentLex == null) {
+			throw new IllegalStateException("Attempt to call this method before any next() calls");
+		}
+		else {
+			return currentLex;
+		}
+	}
+
+	@Override
+	public int nameId() throws IOException, IllegalStateException {
+		if (tree == null) {
+			throw new IllegalStateException("You can't use this method because name tree was not passed to the constructor");
+		}
+		else if (currentLex != JsonStaxParserLexType.NAME) {
+			throw new IllegalStateException("Attempt to read name when lex type is ["+currentLex+"]");
+		}
+		else if (nameIdResult >= 0) {
+			return (int)nameIdResult;
+		}
+		else {
+			return (int)tree.seekName(nameResult);
+		}
+	}
+
+	@Override
+	public String name() throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.NAME) {
+			throw new IllegalStateException("Attempt to read name when lex type is ["+currentLex+"]");
+		}
+		else {
+			return nameResult;
+		}
+	}
+
+	@Override
+	public int name(final char[] content, final int from, final int to) throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.NAME) {
+			throw new IllegalStateException("Attempt to read string when lex type is ["+currentLex+"]");
+		}
+		else {
+			final int	minLen = Math.min(to-from,nameResult.length());
+
+			nameResult.getChars(0,minLen,content,from);
+			return minLen;
+		}
+	}
+
+	@Override
+	public CharSequence nameSlice() throws IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.NAME) {
+			throw new IllegalStateException("Attempt to read name when lex type is ["+currentLex+"]");
+		}
+		else {
+			return nameResult;
+		}
+	}
+
+	@Override
+	public boolean booleanValue() throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.BOOLEAN_VALUE) {
+			throw new IllegalStateException("Attempt to read boolean when lex type is ["+currentLex+"]");
+		}
+		else {
+			return booleanResult;
+		}
+	}
+
+	@Override
+	public long intValue() throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.INTEGER_VALUE) {
+			throw new IllegalStateException("Attempt to read integer when lex type is ["+currentLex+"]");
+		}
+		else {
+			return longResult;
+		}
+	}
+
+	@Override
+	public double realValue() throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.REAL_VALUE) {
+			throw new IllegalStateException("Attempt to read real when lex type is ["+currentLex+"]");
+		}
+		else {
+			return doubleResult;
+		}
+	}
+
+	@Override
+	public String stringValue() throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.STRING_VALUE) {
+			throw new IllegalStateException("Attempt to read string when lex type is ["+currentLex+"]");
+		}
+		else {
+			return new String(charsResult,0,charsLength);
+		}
+	}
+
+	@Override
+	public int stringValue(final char[] content, final int from, final int to) throws IOException, IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.STRING_VALUE) {
+			throw new IllegalStateException("Attempt to read string when lex type is ["+currentLex+"]");
+		}
+		else {
+			final int	minLen = Math.min(to-from,charsLength);
+
+			System.arraycopy(charsResult,0,content,from,minLen);
+			return minLen;
+		}
+	}
+
+	@Override
+	public CharSequence stringValueSlice() throws IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.STRING_VALUE) {
+			throw new IllegalStateException("Attempt to read string when lex type is ["+currentLex+"]");
+		}
+		else {
+			return CharBuffer.wrap(charsResult,0,charsLength);
+		}
+	}
+
+	/**
+	 * <p>Get current row. Binary content has no rows, so the method always returns 0</p>
+	 * @return always 0
+	 */
+	@Override
+	public long row() {
+		return 0;
+	}
+
+	/**
+	 * <p>Get byte offset of the current lexema in the input stream</p>
+	 * @return byte offset of the current lexema
+	 */
+	@Override
+	public long col() {
+		return lexemaStart;
+	}
+
+	@Override
+	public Exception getLastError() {
+		return detected;
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryJsonStaxParser [current()=" + currentLex + ", col()=" + col() + ", dictionarySize=" + dictionary.size() + "]";
+	}
+
+	private JsonStaxParserLexType start(final byte starter, final JsonStaxParserLexType lex) throws SyntaxException {
+		if (!isValueAwaited()) {
+			return error("Unwaited "+(starter == OBJ_STARTER ? "object" : "array")+" start in the stream");
+		}
+		else {
+			if (pseudoStackDepth >= pseudoStack.length - 1) {
+				pseudoStack = Arrays.copyOf(pseudoStack, 2 * pseudoStack.length);
+				valueAwaited = Arrays.copyOf(valueAwaited, 2 * valueAwaited.length);
+			}
+			pseudoStackDepth++;
+			pseudoStack[pseudoStackDepth] = starter;
+			valueAwaited[pseudoStackDepth] = starter == ARRAY_STARTER;
+			return currentLex = lex;
+		}
+	}
+
+	private JsonStaxParserLexType end(final byte starter, final JsonStaxParserLexType lex) throws SyntaxException {
+		if (pseudoStackDepth == 0 || pseudoStack[pseudoStackDepth] != starter || starter == OBJ_STARTER && valueAwaited[pseudoStackDepth]) {
+			return error("Unwaited "+(starter == OBJ_STARTER ? "object" : "array")+" end in the stream");
+		}
+		else {
+			pseudoStackDepth--;
+			return value(lex);
+		}
+	}
+
+	private JsonStaxParserLexType value(final JsonStaxParserLexType lex) throws SyntaxException {
+		if (lex != JsonStaxParserLexType.END_OBJECT && lex != JsonStaxParserLexType.END_ARRAY && !isValueAwaited()) {
+			return error("Unwaited value in the stream");
+		}
+		else {
+			if (pseudoStackDepth > 0) {
+				listSplitterAwaited = true;
+				valueAwaited[pseudoStackDepth] = pseudoStack[pseudoStackDepth] == ARRAY_STARTER;
+			}
+			return currentLex = lex;
+		}
+	}
+
+	private JsonStaxParserLexType name(final long index) throws SyntaxException {
+		if (index < 0 || index >= dictionary.size()) {
+			return error("Name reference ["+index+"] is missing in the name dictionary");
+		}
+		else {
+			return name(dictionary.get((int)index), -1);
+		}
+	}
+
+	private JsonStaxParserLexType name(final String name, final long nameId) throws SyntaxException {
+		if (pseudoStackDepth == 0 || pseudoStack[pseudoStackDepth] != OBJ_STARTER || valueAwaited[pseudoStackDepth]) {
+			return error("Unwaited name in the stream");
+		}
+		else {
+			nameResult = name;
+			nameIdResult = nameId;
+			nameSplitterAwaited = true;
+			return currentLex = JsonStaxParserLexType.NAME;
+		}
+	}
+
+	private <T> T error(final String message) throws SyntaxException {
+		throw new SyntaxException(0, lexemaStart, message);
+	}
+
+	private boolean isValueAwaited() {
+		return pseudoStackDepth == 0 || valueAwaited[pseudoStackDepth];
+	}
+
+	private long readFixed(final int size) throws IOException, SyntaxException {
+		if (!fill(size)) {
+			return error("Unexpected end of data in the stream");
+		}
+		else {
+			final byte[]	temp = buffer;
+			long			result = 0;
+
+			for (int index = 0; index < size; index++) {
+				result = (result << 8) | (temp[cursor++] & 0xFF);
+			}
+			return result;
+		}
+	}
+
+	private long readVarInt() throws IOException, SyntaxException {
+		long	result = 0;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			if (!fill(1)) {
+				return error("Unexpected end of data in the stream");
+			}
+			else {
+				final int	current = buffer[cursor++];
+
+				result |= (long)(current & 0x7F) << shift;
+				if (current >= 0) {
+					return result;
+				}
+			}
+		}
+		return error("Too long varint in the stream");
+	}
+
+	private void readString() throws IOException, SyntaxException {
+		final long	length = readVarInt();
+
+		if (length > Integer.MAX_VALUE - 16) {
+			error("Too long string in the stream");
+		}
+		else if (!fill((int)length)) {
+			error("Unexpected end of data in the stream");
+		}
+		else {
+			final byte[]	temp = buffer;
+			final int		end = cursor + (int)length;
+			char[]			chars = charsResult;
+			int				charsLen = 0;
+
+			if (chars.length < length) {
+				chars = charsResult = new char[Math.max((int)length, 2 * chars.length)];
+			}
+			while (cursor < end) {
+				final int	current = temp[cursor++] & 0xFF;
+
+				if (current < 0x80) {
+					chars[charsLen++] = (char)current;
+				}
+				else if (current >= 0xC0 && current < 0xE0 && cursor < end) {
+					chars[charsLen++] = (char)(((current & 0x1F) << 6) | (temp[cursor++] & 0x3F));
+				}
+				else if (current >= 0xE0 && current < 0xF0 && cursor + 1 < end) {
+					chars[charsLen++] = (char)(((current & 0x0F) << 12) | ((temp[cursor] & 0x3F) << 6) | (temp[cursor+1] & 0x3F));
+					cursor += 2;
+				}
+				else if (current >= 0xF0 && current < 0xF8 && cursor + 2 < end) {
+					final int	codePoint = ((current & 0x07) << 18) | ((temp[cursor] & 0x3F) << 12) | ((temp[cursor+1] & 0x3F) << 6) | (temp[cursor+2] & 0x3F);
+
+					chars[charsLen++] = Character.highSurrogate(codePoint);
+					chars[charsLen++] = Character.lowSurrogate(codePoint);
+					cursor += 3;
+				}
+				else {
+					error("Illegal UTF-8 sequence in the string");
+				}
+			}
+			charsLength = charsLen;
+		}
+	}
+
+	private boolean fill(final int size) throws IOException {
+		if (filled - cursor >= size) {
+			return true;
+		}
+		else {
+			if (size > buffer.length) {	// Huge string
+				buffer = Arrays.copyOf(buffer, Math.max(size, 2 * buffer.length));
+			}
+			if (cursor > 0) {
+				System.arraycopy(buffer, cursor, buffer, 0, filled - cursor);
+				bufferStart += cursor;
+				filled -= cursor;
+				cursor = 0;
+			}
+			while (filled < size) {
+				final int	read = is.read(buffer, filled, buffer.length - filled);
+
+				if (read < 0) {
+					return false;
+				}
+				else {
+					filled += read;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,664 @@
+package chav1961.purelib.streams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import chav1961.purelib.basic.AndOrTree;
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
+
+/**
+ * <p>This class implements a StAX-styled printer of the compact binary JSON representation. It's a drop-in replacement of the {@linkplain JsonStaxPrinter}, so any code
+ * printing JSON content with the {@linkplain JsonStaxPrinter} (for example, {@linkplain chav1961.purelib.json.JsonSerializer} or
+ * {@linkplain chav1961.purelib.json.JsonUtils#unloadJsonTree(chav1961.purelib.json.JsonNode, JsonStaxPrinter)}) can print binary content without any changes.
+ * Use {@linkplain BinaryJsonStaxParser} to read the content printed.</p>
+ * <p>Binary format is similar to CBOR and Smile. Every lexema starts with one-byte tag:</p>
+ * <ul>
+ * <li>0x00/0x01 - start/end of object</li>
+ * <li>0x02/0x03 - start/end of array</li>
+ * <li>0x04, 0x05, 0x06 - null, false and true values</li>
+ * <li>0x07 - real value which can be stored as float without precision loss, 4 bytes (big-endian IEEE 754) follows</li>
+ * <li>0x08 - real value, 8 bytes (big-endian IEEE 754) follows</li>
+ * <li>0x09 - integer value, zigzag-encoded <i>varint</i> follows</li>
+ * <li>0x0A - string value, <i>varint</i> length of the UTF-8 representation and UTF-8 representation follows</li>
+ * <li>0x0B - field name, <i>varint</i> length of the UTF-8 representation and UTF-8 representation follows</li>
+ * <li>0x0C - field name reference, <i>varint</i> index of the name in the name dictionary of the stream follows</li>
+ * <li>0x0D - field name id, <i>varint</i> id of the name in the {@linkplain SyntaxTreeInterface} follows</li>
+ * <li>0x40..0x7F - integer value in range -32..31, zigzag-encoded into 6 lower bits of the tag</li>
+ * <li>0x80..0xFF - field name reference for the first 128 names of the name dictionary, index is stored in 7 lower bits of the tag</li>
+ * </ul>
+ * <p><i>Varint</i> is an unsigned integer stored by 7 bits per byte, lower bits first, and high bit of the byte means <i>more bytes follows</i>. List and
+ * name splitters are not stored at all. Every field name is stored as UTF-8 literal only once. It's registered in the name dictionary of the stream, and all
+ * the next occurrences of the name are stored as it's index in the dictionary. When {@linkplain SyntaxTreeInterface} is passed to the constructor, names
+ * known in the tree are stored as their tree ids, so the same tree must be passed to the {@linkplain BinaryJsonStaxParser} to read the content.</p>
+ * <p>This class is not thread-safe.</p>
+ * @see BinaryJsonStaxParser
+ * @see chav1961.purelib.streams JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class BinaryJsonStaxPrinter extends JsonStaxPrinter {
+	public static final int					DEFAULT_BUFFER_SIZE = 65536;
+	public static final int					MINIMAL_BUFFER_SIZE = 64;
+
+	static final int						TAG_START_OBJECT = 0x00;
+	static final int						TAG_END_OBJECT = 0x01;
+	static final int						TAG_START_ARRAY = 0x02;
+	static final int						TAG_END_ARRAY = 0x03;
+	static final int						TAG_NULL = 0x04;
+	static final int						TAG_FALSE = 0x05;
+	static final int						TAG_TRUE = 0x06;
+	static final int						TAG_FLOAT = 0x07;
+	static final int						TAG_DOUBLE = 0x08;
+	static final int						TAG_INTEGER = 0x09;
+	static final int						TAG_STRING = 0x0A;
+	static final int						TAG_NAME = 0x0B;
+	static final int						TAG_NAME_REF = 0x0C;
+	static final int						TAG_NAME_ID = 0x0D;
+	static final int						TAG_SMALL_INTEGER = 0x40;
+	static final int						TAG_SHORT_NAME_REF = 0x80;
+	static final int						SMALL_INTEGER_RANGE = 0x40;
+	static final int						SHORT_NAME_REF_RANGE = 0x80;
+	static final int						MAX_DICTIONARY_SIZE = 65536;
+
+	private static final byte				VALUE_AWAITING = 0;
+	private static final byte				NAME_AWAITING = 1;
+	private static final byte				SPLITTER_AWAITING = 2;
+	private static final byte				OBJ_STARTER = '{';
+	private static final byte				ARRAY_STARTER = '[';
+
+	private final OutputStream				os;
+	private final SyntaxTreeInterface<?>	tree;
+	private final SyntaxTreeInterface<Object>	dictionary = new AndOrTree<>();
+	private final byte[]					buffer;
+	private char[]							tempString = new char[256];
+	private byte[]							pseudoStack = new byte[64];
+	private byte[]							pseudoStackState = new byte[64];
+	private int								bufferFill = 0, pseudoStackFill = 0, dictionarySize = 0;
+	private boolean							closed = false;
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param os stream to pass binary JSON content to
+	 * @throws NullPointerException when stream is null
+	 */
+	public BinaryJsonStaxPrinter(final OutputStream os) throws NullPointerException {
+		this(os, DEFAULT_BUFFER_SIZE, null);
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param os stream to pass binary JSON content to
+	 * @param tree tree with field names to store as name ids. Can be null
+	 * @throws NullPointerException when stream is null
+	 */
+	public BinaryJsonStaxPrinter(final OutputStream os, final SyntaxTreeInterface<?> tree) throws NullPointerException {
+		this(os, DEFAULT_BUFFER_SIZE, tree);
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param os stream to pass binary JSON content to
+	 * @param bufferSize size of the buffer to write content
+	 * @param tree tree with field names to store as name ids. Can be null
+	 * @throws NullPointerException when stream is null
+	 * @throws IllegalArgumentException when buffer size is too small
+	 */
+	public BinaryJsonStaxPrinter(final OutputStream os, final int bufferSize, final SyntaxTreeInterface<?> tree) throws NullPointerException, IllegalArgumentException {
+		super(os, tree);
+		if (bufferSize < MINIMAL_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Buffer size ["+bufferSize+"] need be at least "+MINIMAL_BUFFER_SIZE);
+		}
+		else {
+			this.os = os;
+			this.tree = tree;
+			this.buffer = new byte[bufferSize];
+			this.pseudoStack[0] = ' ';
+			this.pseudoStackState[0] = VALUE_AWAITING;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			throw new IOException("Attempt to flush closed printer");
+		}
+		else {
+			if (bufferFill > 0) {
+				flushBuffer();
+			}
+			os.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			flush();
+			if (pseudoStackFill > 0) {
+				throw new IOException("Unclosed object/array pairs in the stream: "+new String(pseudoStack,1,pseudoStackFill));
+			}
+			else {
+				closed = true;
+			}
+		}
+	}
+
+	/**
+	 * <p>Reset printer context. Name dictionary of the stream will not be cleared</p>
+	 * @throws IOException on any I/O errors
+	 */
+	@Override
+	public void reset() throws IOException {
+		if (closed) {
+			throw new IOException("Attempt to reset closed printer");
+		}
+		else {
+			pseudoStackFill = 0;
+			this.pseudoStack[0] = ' ';
+			this.pseudoStackState[0] = VALUE_AWAITING;
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter value(final boolean value) throws IOException {
+		checkValueAwaiting();
+		writeByte(value ? TAG_TRUE : TAG_FALSE);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter value(final long value) throws IOException {
+		checkValueAwaiting();
+		writeLong(value);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter value(final double value) throws IOException {
+		checkValueAwaiting();
+		writeDouble(value);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter value(final String value) throws IOException {
+		checkValueAwaiting();
+		final int	valueLen = value.length();
+
+		if (valueLen > tempString.length) {
+			tempString = new char[Math.max(valueLen, 2 * tempString.length)];
+		}
+		value.getChars(0, valueLen, tempString, 0);
+		writeString(TAG_STRING, tempString, 0, valueLen);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter value(final char[] content, final int from, final int to) throws IOException {
+		checkValueAwaiting();
+		writeString(TAG_STRING, content, from, to);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final boolean[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (boolean item : array) {
+				writeByte(item ? TAG_TRUE : TAG_FALSE);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final byte[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (byte item : array) {
+				writeLong(item);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final char[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (int index = 0, maxIndex = array.length; index < maxIndex; index++) {
+				writeString(TAG_STRING, array, index, index + 1);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final double[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (double item : array) {
+				writeDouble(item);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final float[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (float item : array) {
+				writeDouble(item);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final int[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (int item : array) {
+				writeLong(item);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final long[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (long item : array) {
+				writeLong(item);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final short[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (short item : array) {
+				writeLong(item);
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter array(final String[] array) throws IOException {
+		checkValueAwaiting();
+		if (array == null) {
+			return nullValue();
+		}
+		else {
+			writeByte(TAG_START_ARRAY);
+			for (String item : array) {
+				if (item == null) {
+					writeByte(TAG_NULL);
+				}
+				else {
+					final int	itemLen = item.length();
+
+					if (itemLen > tempString.length) {
+						tempString = new char[Math.max(itemLen, 2 * tempString.length)];
+					}
+					item.getChars(0, itemLen, tempString, 0);
+					writeString(TAG_STRING, tempString, 0, itemLen);
+				}
+			}
+			return endArrayValue();
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter nullValue() throws IOException {
+		checkValueAwaiting();
+		writeByte(TAG_NULL);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter name(final String name) throws IOException {
+		if (Utils.checkEmptyOrNullString(name)) {
+			throw new IllegalArgumentException("Name can't be null or empty");
+		}
+		else {
+			checkNameAwaiting();
+			final int	nameLen = name.length();
+
+			if (nameLen > tempString.length) {
+				tempString = new char[Math.max(nameLen, 2 * tempString.length)];
+			}
+			name.getChars(0, nameLen, tempString, 0);
+			writeName(tempString, 0, nameLen);
+			pseudoStackState[pseudoStackFill] = VALUE_AWAITING;
+			return this;
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter name(final long nameId) throws IOException, IllegalStateException {
+		if (tree == null) {
+			throw new IllegalStateException("You doesn't pass tree parameter into the constructor so can't use this method");
+		}
+		else {
+			checkNameAwaiting();
+			if (!tree.contains(nameId)) {
+				throw new IllegalArgumentException("Name id ["+nameId+"] is missing in the name's tree");
+			}
+			else {
+				writeTagged(TAG_NAME_ID, nameId);
+				pseudoStackState[pseudoStackFill] = VALUE_AWAITING;
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter name(final char[] content, final int from, final int to) throws IOException {
+		final int	nameLen;
+
+		if (content == null || content.length == 0) {
+			throw new IllegalArgumentException("Content to write can't be null or zero-length array");
+		}
+		else if (from < 0 || from > (nameLen = content.length)) {
+			throw new IllegalArgumentException("From location ["+from+"] out of range 0.."+(content.length-1));
+		}
+		else if (to < 0 || to > nameLen) {
+			throw new IllegalArgumentException("To location ["+to+"] out of range 0.."+(nameLen-1));
+		}
+		else {
+			checkNameAwaiting();
+			writeName(content, from, to);
+			pseudoStackState[pseudoStackFill] = VALUE_AWAITING;
+			return this;
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter startObject() throws IOException {
+		checkValueAwaiting();
+		writeByte(TAG_START_OBJECT);
+		push(OBJ_STARTER, NAME_AWAITING);
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter endObject() throws IOException {
+		if (closed) {
+			throw new IOException("Attempt to write into closed printer");
+		}
+		else if (pseudoStackFill == 0 || pseudoStack[pseudoStackFill] != OBJ_STARTER) {
+			throw new IOException("Output structure failure: object end is not awaiting here");
+		}
+		else if (pseudoStackState[pseudoStackFill] == VALUE_AWAITING) {
+			throw new IOException("Output structure failure: value is awaiting here");
+		}
+		else {
+			writeByte(TAG_END_OBJECT);
+			pseudoStackFill--;
+			pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+			return this;
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter startArray() throws IOException {
+		checkValueAwaiting();
+		writeByte(TAG_START_ARRAY);
+		push(ARRAY_STARTER, VALUE_AWAITING);
+		return this;
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter endArray() throws IOException {
+		if (closed) {
+			throw new IOException("Attempt to write into closed printer");
+		}
+		else if (pseudoStackFill == 0 || pseudoStack[pseudoStackFill] != ARRAY_STARTER) {
+			throw new IOException("Output structure failure: array end is not awaiting here");
+		}
+		else {
+			writeByte(TAG_END_ARRAY);
+			pseudoStackFill--;
+			pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+			return this;
+		}
+	}
+
+	@Override
+	public BinaryJsonStaxPrinter splitter() throws IOException {
+		if (pseudoStackFill == 0 || pseudoStackState[pseudoStackFill] != SPLITTER_AWAITING) {
+			throw new IOException("Output structure failure: splitter is not awaiting here ("+(pseudoStackFill == 0 ? "none" : pseudoStackState[pseudoStackFill])+")");
+		}
+		else {	// Splitters are not stored in the binary content
+			pseudoStackState[pseudoStackFill] = pseudoStack[pseudoStackFill] == OBJ_STARTER ? NAME_AWAITING : VALUE_AWAITING;
+			return this;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryJsonStaxPrinter [depth=" + pseudoStackFill + ", dictionarySize=" + dictionarySize + "]";
+	}
+
+	private void checkValueAwaiting() throws IOException {
+		if (closed) {
+			throw new IOException("Attempt to write into closed printer");
+		}
+		else if (pseudoStackState[pseudoStackFill] != VALUE_AWAITING) {
+			throw new IOException("Output structure failure: value is not awaiting here");
+		}
+	}
+
+	private void checkNameAwaiting() throws IOException {
+		if (closed) {
+			throw new IOException("Attempt to write into closed printer");
+		}
+		else if (pseudoStackFill == 0 || pseudoStack[pseudoStackFill] == ARRAY_STARTER) {
+			throw new IOException("Name outside the object");
+		}
+		else if (pseudoStackState[pseudoStackFill] != NAME_AWAITING) {
+			throw new IOException("Output structure failure: name is not awaiting here");
+		}
+	}
+
+	private void push(final byte starter, final byte state) {
+		if (pseudoStackFill >= pseudoStack.length - 1) {
+			pseudoStack = Arrays.copyOf(pseudoStack, 2 * pseudoStack.length);
+			pseudoStackState = Arrays.copyOf(pseudoStackState, 2 * pseudoStackState.length);
+		}
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		pseudoStackFill++;
+		pseudoStack[pseudoStackFill] = starter;
+		pseudoStackState[pseudoStackFill] = state;
+	}
+
+	private BinaryJsonStaxPrinter endArrayValue() throws IOException {
+		writeByte(TAG_END_ARRAY);
+		pseudoStackState[pseudoStackFill] = SPLITTER_AWAITING;
+		return this;
+	}
+
+	private void writeName(final char[] content, final int from, final int to) throws IOException {
+		long	id;
+
+		if (tree != null && (id = tree.seekName(content, from, to)) >= 0) {
+			writeTagged(TAG_NAME_ID, id);
+		}
+		else if ((id = dictionary.seekName(content, from, to)) >= 0) {
+			if (id < SHORT_NAME_REF_RANGE) {
+				writeByte(TAG_SHORT_NAME_REF | (int)id);
+			}
+			else {
+				writeTagged(TAG_NAME_REF, id);
+			}
+		}
+		else {
+			if (dictionarySize < MAX_DICTIONARY_SIZE) {
+				dictionary.placeName(content, from, to, dictionarySize++, null);
+			}
+			writeString(TAG_NAME, content, from, to);
+		}
+	}
+
+	private void writeLong(final long value) throws IOException {
+		final long	zigzag = (value << 1) ^ (value >> 63);
+
+		if (zigzag >= 0 && zigzag < SMALL_INTEGER_RANGE) {
+			writeByte(TAG_SMALL_INTEGER | (int)zigzag);
+		}
+		else {
+			writeTagged(TAG_INTEGER, zigzag);
+		}
+	}
+
+	private void writeDouble(final double value) throws IOException {
+		final float	floatValue = (float)value;
+
+		if (floatValue == value || Double.isNaN(value)) {
+			final int	bits = Float.floatToIntBits(floatValue);
+
+			ensureSpace(5);
+			buffer[bufferFill++] = TAG_FLOAT;
+			buffer[bufferFill++] = (byte)(bits >> 24);
+			buffer[bufferFill++] = (byte)(bits >> 16);
+			buffer[bufferFill++] = (byte)(bits >> 8);
+			buffer[bufferFill++] = (byte)bits;
+		}
+		else {
+			final long	bits = Double.doubleToLongBits(value);
+
+			ensureSpace(9);
+			buffer[bufferFill++] = TAG_DOUBLE;
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				buffer[bufferFill++] = (byte)(bits >> shift);
+			}
+		}
+	}
+
+	private void writeString(final int tag, final char[] content, final int from, final int to) throws IOException {
+		int		utfLen = 0;
+
+		for (int index = from; index < to; index++) {
+			final char	ch = content[index];
+
+			if (ch < 0x80) {
+				utfLen++;
+			}
+			else if (ch < 0x800) {
+				utfLen += 2;
+			}
+			else if (Character.isHighSurrogate(ch) && index < to - 1 && Character.isLowSurrogate(content[index + 1])) {
+				utfLen += 4;
+				index++;
+			}
+			else {
+				utfLen += 3;
+			}
+		}
+		writeTagged(tag, utfLen);
+
+		final byte[]	temp = buffer;
+
+		for (int index = from; index < to; index++) {
+			final char	ch = content[index];
+
+			if (bufferFill + 4 > temp.length) {
+				flushBuffer();
+			}
+			if (ch < 0x80) {
+				temp[bufferFill++] = (byte)ch;
+			}
+			else if (ch < 0x800) {
+				temp[bufferFill++] = (byte)(0xC0 | (ch >> 6));
+				temp[bufferFill++] = (byte)(0x80 | (ch & 0x3F));
+			}
+			else if (Character.isHighSurrogate(ch) && index < to - 1 && Character.isLowSurrogate(content[index + 1])) {
+				final int	codePoint = Character.toCodePoint(ch, content[++index]);
+
+				temp[bufferFill++] = (byte)(0xF0 | (codePoint >> 18));
+				temp[bufferFill++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+				temp[bufferFill++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+				temp[bufferFill++] = (byte)(0x80 | (codePoint & 0x3F));
+			}
+			else {	// Unpaired surrogates are also stored as 3-byte sequence to keep the content as-is
+				temp[bufferFill++] = (byte)(0xE0 | (ch >> 12));
+				temp[bufferFill++] = (byte)(0x80 | ((ch >> 6) & 0x3F));
+				temp[bufferFill++] = (byte)(0x80 | (ch & 0x3F));
+			}
+		}
+	}
+
+	private void writeTagged(final int tag, long value) throws IOException {
+		ensureSpace(11);
+		buffer[bufferFill++] = (byte)tag;
+		while ((value & ~0x7FL) != 0) {
+			buffer[bufferFill++] = (byte)(0x80 | (value & 0x7F));
+			value >>>= 7;
+		}
+		buffer[bufferFill++] = (byte)value;
+	}
+
+	private void writeByte(final int value) throws IOException {
+		if (bufferFill >= buffer.length) {
+			flushBuffer();
+		}
+		buffer[bufferFill++] = (byte)value;
+	}
+
+	private void ensureSpace(final int size) throws IOException {
+		if (bufferFill + size > buffer.length) {
+			flushBuffer();
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		os.write(buffer, 0, bufferFill);
+		bufferFill = 0;
+	}
+}
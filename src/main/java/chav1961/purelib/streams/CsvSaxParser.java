@@ -67,6 +67,8 @@ public class CsvSaxParser {
 					lblp.write(reader);
 				}
 				handler.endDoc();
+			} catch (SyntaxException exc) {
+				throw exc;
 			} catch (ContentException exc) {
 				throw new SyntaxException(0,0,exc.getMessage(),exc);
 			}
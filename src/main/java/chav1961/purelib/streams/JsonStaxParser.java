@@ -3,6 +3,12 @@ package chav1961.purelib.streams;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -25,6 +31,10 @@ import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
  * }<br>
  * </code>
  * <p>JSON format is according to <a href="https://tools.ietf.org/html/rfc7159">RFC 7159</a></p>
+ * <p>Parser can also be created for in-memory content. When content is a {@linkplain CharBuffer} with accessible backing array, parser works directly on the 
+ * backing array and doesn't copy any data into it's own buffer. When content is a UTF-8 {@linkplain ByteBuffer} (for example, {@linkplain java.nio.MappedByteBuffer} 
+ * of the huge JSON file), it's decoded directly into the parser buffer piece by piece, without any intermediate streams. Methods {@linkplain #nameSlice()} and 
+ * {@linkplain #stringValueSlice()} give access to the parsed names and strings without creating strings.</p>
  * <p>This class is not thread-safe.</p>
  * 
  * @see <a href="https://tools.ietf.org/html/rfc7159">RFC 7159</a> 
@@ -32,7 +42,7 @@ import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
  * @see chav1961.purelib.streams JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.2
- * @last.update 0.0.3
+ * @last.update 0.0.9
  */
 
 public class JsonStaxParser implements JsonStaxParserInterface {
@@ -49,13 +59,17 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 	private static final int				LIST_SPLITTER_AWAITED = 3;
 
 	private final Reader					rdr;
+	private final ByteBuffer				bytes;
+	private final CharsetDecoder			decoder;
+	private final int						bytesStart, wrappedStart, wrappedEnd;
+	private final boolean					wrapped;
 	private final int						bufferSize;
 	private final SyntaxTreeInterface<?>	tree;
 	private final int[]						bounds = new int[2];	
 	private final long						forParsedLong[] = new long[1];
 	private final double					forParsedDouble[] = new double[1];
 	private final StringBuilder				sb = new StringBuilder(), sbResult = new StringBuilder(); 
-	private boolean							closed = false, parsedBoolean, shortString, escapedString;
+	private boolean							closed = false, parsedBoolean, shortString, escapedString, bytesFlushed = false;
 	private char[]							buffer, pseudoStack = new char[64];
 	private int[]							awaitedLex = new int[64];
 	private int								cursor = 0, currentLen, currentRow = 0, currentCol = 0, pseudoStackDepth = 0;
@@ -107,6 +121,105 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		}
 		else {
 			this.rdr = reader;
+			this.bytes = null;
+			this.decoder = null;
+			this.bytesStart = this.wrappedStart = this.wrappedEnd = 0;
+			this.wrapped = false;
+			this.bufferSize = bufferSize;
+			this.tree = tree;
+			this.buffer = new char[bufferSize];
+			readBlock();
+			pseudoStack[0] = ' ';
+			awaitedLex[0] = VALUE_AWAITED;
+		}
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param content content to parse. Content is parsed from it's current position to it's limit. Position of the content will not be changed
+	 * @throws IOException on any errors
+	 * @since 0.0.9
+	 */
+	public JsonStaxParser(final CharBuffer content) throws IOException {
+		this(content,null);
+	}
+	
+	/**
+	 * <p>Constructor of the class. When the content has an accessible backing array, parser works directly on it without copying. Content must not be changed
+	 * while parsing.</p>
+	 * @param content content to parse. Content is parsed from it's current position to it's limit. Position of the content will not be changed
+	 * @param tree tree to keep available field names in the JSON. Can be null 
+	 * @throws IOException on any errors
+	 * @throws NullPointerException when content is null
+	 * @since 0.0.9
+	 */
+	public JsonStaxParser(final CharBuffer content, final SyntaxTreeInterface<?> tree) throws IOException, NullPointerException {
+		if (content == null) {
+			throw new NullPointerException("Content can't be null"); 
+		}
+		else {
+			this.bytes = null;
+			this.decoder = null;
+			this.bytesStart = 0;
+			this.tree = tree;
+			if (content.hasArray()) {
+				this.rdr = null;
+				this.wrapped = true;
+				this.buffer = content.array();
+				this.bufferSize = buffer.length;
+				this.wrappedStart = content.arrayOffset() + content.position();
+				this.wrappedEnd = content.arrayOffset() + content.limit();
+				cursor = wrappedStart;
+				currentLen = wrappedEnd;
+			}
+			else {	// Read-only or direct buffer - the same as reader
+				this.rdr = new CharBufferReader(content.duplicate());
+				this.wrapped = false;
+				this.bufferSize = DEFAULT_BUFFER_SIZE;
+				this.wrappedStart = this.wrappedEnd = 0;
+				this.buffer = new char[bufferSize];
+				readBlock();
+			}
+			pseudoStack[0] = ' ';
+			awaitedLex[0] = VALUE_AWAITED;
+		}
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param content UTF-8 content to parse. Content is parsed from it's current position to it's limit. Position of the content will not be changed
+	 * @throws IOException on any errors
+	 * @since 0.0.9
+	 */
+	public JsonStaxParser(final ByteBuffer content) throws IOException {
+		this(content,DEFAULT_BUFFER_SIZE,null);
+	}
+	
+	/**
+	 * <p>Constructor of the class. Content is decoded directly into the parser buffer piece by piece, so the whole content is never copied. It's a preferred
+	 * way to parse huge memory-mapped JSON files.</p>
+	 * @param content UTF-8 content to parse. Content is parsed from it's current position to it's limit. Position of the content will not be changed
+	 * @param bufferSize size of the buffer to decode piece of data to
+	 * @param tree tree to keep available field names in the JSON. Can be null 
+	 * @throws IOException on any errors
+	 * @throws NullPointerException when content is null
+	 * @throws IllegalArgumentException when buffer size is too small
+	 * @since 0.0.9
+	 */
+	public JsonStaxParser(final ByteBuffer content, final int bufferSize, final SyntaxTreeInterface<?> tree) throws IOException, NullPointerException, IllegalArgumentException {
+		if (content == null) {
+			throw new NullPointerException("Content can't be null"); 
+		}
+		else if (bufferSize < MINIMAL_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Buffer size ["+bufferSize+"] need be at least "+MINIMAL_BUFFER_SIZE); 
+		}
+		else {
+			this.rdr = null;
+			this.bytes = content.duplicate();
+			this.bytesStart = bytes.position();
+			this.decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+			this.wrappedStart = this.wrappedEnd = 0;
+			this.wrapped = false;
 			this.bufferSize = bufferSize;
 			this.tree = tree;
 			this.buffer = new char[bufferSize];
@@ -129,12 +242,28 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 	}
 
 	/**
-	 * <p>Reset parser content</p> 
+	 * <p>Reset parser content. Parsers for in-memory content ({@linkplain CharBuffer} and {@linkplain ByteBuffer}) start parsing from the beginning of the content</p> 
 	 * @throws IOException on any I/O errors
+	 * @last.update 0.0.9
 	 */
 	@Override
 	public void reset() throws IOException {
-		readBlock();
+		if (wrapped) {
+			cursor = wrappedStart;
+			currentLen = wrappedEnd;
+		}
+		else if (bytes != null) {
+			bytes.position(bytesStart);
+			decoder.reset();
+			bytesFlushed = false;
+			readBlock();
+		}
+		else {
+			if (rdr instanceof CharBufferReader) {
+				((CharBufferReader)rdr).rewind();
+			}
+			readBlock();
+		}
 		pseudoStackDepth = 0;
 		pseudoStack[0] = ' ';
 		awaitedLex[0] = VALUE_AWAITED;
@@ -172,11 +301,11 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 			final char[]	temp = buffer;
 			int				multiplier = 1;
 
-			while (cursor < temp.length && temp[cursor] <= ' ') {
+			while (cursor < currentLen && temp[cursor] <= ' ') {
 				cursor++;
 			}
 			
-			try{if (cursor >= temp.length) {
+			try{if (cursor >= currentLen) {
 					detected = new SyntaxException(currentRow,currentCol,"End of data in the stream");
 					return currentLex = JsonStaxParserLexType.ERROR;
 				}
@@ -335,7 +464,7 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 							} while (readBlock());
 							
 							currentLex = JsonStaxParserLexType.INTEGER_VALUE;
-							if (temp[cursor] == '.') {
+							if (cursor < currentLen && temp[cursor] == '.') {
 								currentLex = JsonStaxParserLexType.REAL_VALUE;
 								cursor++;
 								
@@ -352,7 +481,7 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 								} while (readBlock());
 							}
 							
-							if (temp[cursor] == 'e' || temp[cursor] == 'E') {
+							if (cursor < currentLen && (temp[cursor] == 'e' || temp[cursor] == 'E')) {
 								currentLex = JsonStaxParserLexType.REAL_VALUE;
 								cursor++;
 								
@@ -409,9 +538,13 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 							return currentLex;
 						case '\"'	:
 							int		fromString = ++cursor;
-							boolean	moreThanBlock = false, escaped = false;
+							boolean	moreThanBlock = false, escaped = false, skipFirst = false;
 							
-							do {while (cursor < currentLen && temp[cursor] != '\"') {
+							do {if (skipFirst) {	// Escaped char is the first char in the next block
+									cursor++;
+									skipFirst = false;
+								}
+								while (cursor < currentLen && temp[cursor] != '\"') {
 									if (temp[cursor] == '\\') {
 										escaped = true;
 										cursor++;
@@ -426,7 +559,7 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 										moreThanBlock = true;
 										sb.setLength(0);
 									}
-									sb.setLength(0);
+									skipFirst = cursor > currentLen;
 									sb.append(buffer,fromString,currentLen-fromString);
 									fromString = 0;
 								}
@@ -437,14 +570,12 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 								return currentLex = JsonStaxParserLexType.ERROR;
 							}
 							else {
-								if (moreThanBlock) {
-									if (escaped) {
-										sbResult.setLength(0);
-										cursor = UnsafedCharUtils.uncheckedParseString(sb.append(buffer,0,cursor-1).toString().toCharArray(),fromString,'\"',sbResult);
-									}
-									else {
-										cursor = UnsafedCharUtils.uncheckedParseUnescapedString(sb.append(buffer,0,cursor-1).toString().toCharArray(),fromString, '\"',true,bounds);
-									}
+								if (moreThanBlock) {	// String content is collected in the sb, parse it together with the closing quote
+									final int	closing = cursor;
+									
+									sbResult.setLength(0);
+									UnsafedCharUtils.uncheckedParseStringExtended(sb.append(buffer,0,closing+1).toString().toCharArray(),0,'\"',sbResult);
+									cursor = closing + 1;
 									shortString = false;
 								}
 								else {
@@ -516,7 +647,7 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		else if (currentLex != JsonStaxParserLexType.NAME) {
 			throw new IllegalStateException("Attempt to read name when lex type is ["+currentLex+"]");
 		}
-		else if (shortString) {
+		else if (shortString && !escapedString) {
 			return (int)tree.seekName(buffer,bounds[0],bounds[1]+1);
 		}
 		else {
@@ -535,7 +666,7 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		if (currentLex != JsonStaxParserLexType.NAME) {
 			throw new IllegalStateException("Attempt to read name when lex type is ["+currentLex+"]");
 		}
-		else if (shortString) {
+		else if (shortString && !escapedString) {
 			return new String(buffer,bounds[0],bounds[1]-bounds[0]+1);
 		}
 		else {
@@ -556,20 +687,39 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		if (currentLex != JsonStaxParserLexType.NAME) {
 			throw new IllegalStateException("Attempt to read string when lex type is ["+currentLex+"]");
 		}
-		else if (shortString) {
+		else if (shortString && !escapedString) {
 			final int	minLen = Math.min(to-from,bounds[1]-bounds[0]+1);
 			
 			System.arraycopy(buffer,bounds[0],content,from,minLen);
 			return minLen;
 		}
 		else {
-			final int	minLen = Math.min(to-from,sb.length());
+			final int	minLen = Math.min(to-from,sbResult.length());
 			
-			sbResult.getChars(0,minLen,content,0);
+			sbResult.getChars(0,minLen,content,from);
 			return minLen;
 		}
 	}
 
+	/**
+	 * <p>Get current field name from source input without creating string. Returned sequence is valid until the next call of the {@linkplain #next()} method
+	 * only</p>
+	 * @return field name. Can't be null
+	 * @throws IllegalStateException if current lexema is not a name
+	 * @since 0.0.9 
+	 */
+	public CharSequence nameSlice() throws IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.NAME) {
+			throw new IllegalStateException("Attempt to read name when lex type is ["+currentLex+"]");
+		}
+		else if (shortString && !escapedString) {
+			return CharBuffer.wrap(buffer,bounds[0],bounds[1]-bounds[0]+1);
+		}
+		else {
+			return sbResult;
+		}
+	}
+
 	/**
 	 * <p>Get current boolean value from source input</p>
 	 * @return boolean value
@@ -659,11 +809,30 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		else {
 			final int	minLen = Math.min(to-from,sbResult.length());
 			
-			sbResult.getChars(0,minLen,content,0);
+			sbResult.getChars(0,minLen,content,from);
 			return minLen;
 		}
 	}
 
+	/**
+	 * <p>Get current string value from source input without creating string. Returned sequence is valid until the next call of the {@linkplain #next()} method
+	 * only</p>
+	 * @return string value. Can't be null
+	 * @throws IllegalStateException if current lexema is not a string value
+	 * @since 0.0.9 
+	 */
+	public CharSequence stringValueSlice() throws IllegalStateException {
+		if (currentLex != JsonStaxParserLexType.STRING_VALUE) {
+			throw new IllegalStateException("Attempt to read string when lex type is ["+currentLex+"]");
+		}
+		else if (shortString && !escapedString) {
+			return CharBuffer.wrap(buffer,bounds[0],bounds[1]-bounds[0]+1);
+		}
+		else {
+			return sbResult;
+		}
+	}
+
 	/**
 	 * <p>Get current row inside Reader</p>
 	 * @return current row
@@ -700,8 +869,34 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 
 	private boolean readBlock() throws IOException {
 		cursor = 0;
-		buffer[0] = 0;
-		return (currentLen = rdr.read(buffer,0,bufferSize)) > 0;
+		if (wrapped) {	// The same as end of stream for reader. Content array is not ours, so don't touch it 
+			currentLen = -1;
+			return false;
+		}
+		else if (bytes != null) {
+			buffer[0] = 0;
+			if (bytesFlushed) {
+				currentLen = -1;
+				return false;
+			}
+			else {
+				final CharBuffer	target = CharBuffer.wrap(buffer,0,bufferSize);
+				final CoderResult	rc = decoder.decode(bytes,target,true);
+				
+				if (rc.isError()) {
+					rc.throwException();
+				}
+				if (!bytes.hasRemaining()) {
+					decoder.flush(target);
+					bytesFlushed = true;
+				}
+				return (currentLen = target.position()) > 0;
+			}
+		}
+		else {
+			buffer[0] = 0;
+			return (currentLen = rdr.read(buffer,0,bufferSize)) > 0;
+		}
 	}
 
 	private boolean compare(final char[] value) throws IOException {
@@ -709,7 +904,9 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		
 		for (int index = 0, maxIndex = value.length; index < maxIndex; index++, start++) {
 			if (start >= currentLen) {
-				readBlock();
+				if (!readBlock()) {
+					return false;
+				}
 				start = cursor;
 			}
 			if (buffer[start] != value[index]) {
@@ -744,6 +941,37 @@ public class JsonStaxParser implements JsonStaxParserInterface {
 		return false;
 	}
 
+	private static class CharBufferReader extends Reader {
+		private final CharBuffer	content;
+		private final int			start;
+		
+		CharBufferReader(final CharBuffer content) {
+			this.content = content;
+			this.start = content.position();
+		}
+		
+		void rewind() {
+			content.position(start);
+		}
+
+		@Override
+		public int read(final char[] cbuf, final int off, final int len) throws IOException {
+			if (!content.hasRemaining()) {
+				return -1;
+			}
+			else {
+				final int	toRead = Math.min(len,content.remaining());
+				
+				content.get(cbuf,off,toRead);
+				return toRead;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+		}
+	}
+	
 	private static class StaxWrapper implements JsonStaxParserInterface {
 		private final JsonStaxParserInterface	delegate;
 		private final JsonStaxParserLexType 	terminator;
@@ -3,6 +3,7 @@ package chav1961.purelib.streams;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Arrays;
 
@@ -19,7 +20,7 @@ import chav1961.purelib.basic.intern.UnsafedCharUtils;
  * @see chav1961.purelib.streams JUnit tests
  * @author Alexander Chernomyrdin aka chav1961
  * @since 0.0.2
- * @last.update 0.0.7
+ * @last.update 0.0.9
  */
 
 public class JsonStaxPrinter implements Closeable, Flushable {
@@ -104,6 +105,25 @@ public class JsonStaxPrinter implements Closeable, Flushable {
 		}
 	}
 
+	/**
+	 * <p>Constructor for the child classes which print content in other formats and don't use {@linkplain Writer}. Child classes must override
+	 * all the printing methods of the class</p>
+	 * @param os binary stream to print content to. Can't be null
+	 * @param tree tree to keep field names inside the JSON. Can be null
+	 * @throws NullPointerException when stream is null
+	 * @see BinaryJsonStaxPrinter
+	 * @since 0.0.9
+	 */
+	protected JsonStaxPrinter(final OutputStream os, final SyntaxTreeInterface<?> tree) throws NullPointerException {
+		if (os == null) {
+			throw new NullPointerException("Output stream can't be null");
+		}
+		this.writer = null;
+		this.buffer = null;
+		this.bufferSize = 0;
+		this.tree = tree;
+	}
+
 	@Override
 	public void flush() throws IOException {
 		if (closed) {
@@ -0,0 +1,824 @@
+package chav1961.purelib.streams;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import chav1961.purelib.basic.exceptions.ContentException;
+import chav1961.purelib.basic.exceptions.SyntaxException;
+import chav1961.purelib.streams.interfaces.CsvSaxHandler;
+import chav1961.purelib.streams.interfaces.JsonSaxHandler;
+
+/**
+ * <p>This class implements parallel parsing of the huge record-oriented content: newline-delimited JSON (JSON lines, every line is an independent JSON document)
+ * and CSV. Content is read sequentially and is split into chunks at the record boundaries, then every chunk is parsed by it's own parser instance
+ * ({@linkplain CsvSaxParser} or {@linkplain JsonSaxParser}) in the executor passed. Parsed records can be delivered:</p>
+ * <ul>
+ * <li>to the single handler. Workers record chunk events and the calling thread replays them to the handler in the content order or in the chunk completion order,
+ * so the handler is always called from the calling thread only;</li>
+ * <li>to the handlers got from the handler supplier. Every chunk gets it's own handler, which is called directly from the worker thread;</li>
+ * <li>as a {@linkplain Stream} of records converted by the {@linkplain RecordParser}.</li>
+ * </ul>
+ * <p>Number of chunks in progress is limited, so memory usage doesn't depend on the content size. Any executor can be used, including {@linkplain ForkJoinPool}
+ * or virtual thread executor. CSV records can contain quoted line breaks, so CSV content is split by the quote-aware scanner. Line numbers in the
+ * {@linkplain SyntaxException} thrown are absolute line numbers in the content. When CSV content has no names line, number of CSV fields is checked inside
+ * every chunk only.</p>
+ * <p>Usage of this class is:</p>
+ * <code>
+ * 		final ParallelRecordsParser	prp = new ParallelRecordsParser();<br>
+ * 		prp.parseJsonLines(new InputStreamReader(...), handler, true);<br>
+ * </code>
+ * <p>This class is thread-safe, but handlers passed are not required to be thread-safe. Reader passed is not closed by the class.</p>
+ * @see CsvSaxParser
+ * @see JsonSaxParser
+ * @see chav1961.purelib.streams JUnit tests
+ * @author Alexander Chernomyrdin aka chav1961
+ * @since 0.0.9
+ */
+public class ParallelRecordsParser {
+	/**
+	 * <p>Default chunk size (in chars)</p>
+	 */
+	public static final int		DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * <p>Minimal chunk size (in chars)</p>
+	 */
+	public static final int		MINIMAL_CHUNK_SIZE = 16;
+
+	/**
+	 * <p>This interface describes converter of the record content to the record object</p>
+	 * @param <T> record object type
+	 * @author Alexander Chernomyrdin aka chav1961
+	 * @since 0.0.9
+	 */
+	@FunctionalInterface
+	public static interface RecordParser<T> {
+		/**
+		 * <p>Convert record content. Content doesn't contain trailing line terminator. Blank records are skipped and are never passed to this method</p>
+		 * @param lineNo absolute line number of the record start (1-based)
+		 * @param data chunk data containing the record. Can't be changed and can't be kept after return
+		 * @param from start position of the record in the data
+		 * @param len record length
+		 * @return record object. Null records are skipped
+		 * @throws IOException on any I/O errors
+		 * @throws SyntaxException on any record syntax errors
+		 */
+		T parse(long lineNo, char[] data, int from, int len) throws IOException, SyntaxException;
+	}
+
+	private final Executor	executor;
+	private final int		chunkSize;
+	private final int		chunksInProgress;
+
+	/**
+	 * <p>Constructor of the class. {@linkplain ForkJoinPool#commonPool()} will be used to parse chunks</p>
+	 */
+	public ParallelRecordsParser() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param executor executor to parse chunks in. Can't be null
+	 * @throws NullPointerException when executor is null
+	 */
+	public ParallelRecordsParser(final Executor executor) throws NullPointerException {
+		this(executor,DEFAULT_CHUNK_SIZE,2*Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * <p>Constructor of the class</p>
+	 * @param executor executor to parse chunks in. Can't be null
+	 * @param chunkSize chunk size (in chars). Chunk will be enlarged automatically when any record is longer than chunk size
+	 * @param chunksInProgress maximum number of chunks which are read, but not delivered yet. Must be positive
+	 * @throws NullPointerException when executor is null
+	 * @throws IllegalArgumentException when chunk size is less than {@value #MINIMAL_CHUNK_SIZE} or chunks in progress is not positive
+	 */
+	public ParallelRecordsParser(final Executor executor, final int chunkSize, final int chunksInProgress) throws NullPointerException, IllegalArgumentException {
+		if (executor == null) {
+			throw new NullPointerException("Executor can't be null");
+		}
+		else if (chunkSize < MINIMAL_CHUNK_SIZE) {
+			throw new IllegalArgumentException("Chunk size ["+chunkSize+"] need be at least "+MINIMAL_CHUNK_SIZE);
+		}
+		else if (chunksInProgress <= 0) {
+			throw new IllegalArgumentException("Chunks in progress ["+chunksInProgress+"] must be positive");
+		}
+		else {
+			this.executor = executor;
+			this.chunkSize = chunkSize;
+			this.chunksInProgress = chunksInProgress;
+		}
+	}
+
+	/**
+	 * <p>Parse CSV content and deliver it to the single handler. Handler is called from the calling thread only and gets all the events as if the content
+	 * was parsed by the {@linkplain CsvSaxParser}</p>
+	 * @param reader reader to get content from. Can't be null
+	 * @param handler handler to deliver events to. Can't be null
+	 * @param ordered true - records must be delivered in the content order, false - chunks of records are delivered in the order they are parsed
+	 * @param splitter CSV fields splitter
+	 * @param firstLineIsNames first line of the content contains field names
+	 * @param asStrings deliver string content as strings
+	 * @param asNumbers deliver numeric content as numbers
+	 * @throws IOException on any I/O errors
+	 * @throws SyntaxException on any syntax errors in the content
+	 * @throws NullPointerException when reader or handler is null
+	 */
+	public void parseCsv(final Reader reader, final CsvSaxHandler handler, final boolean ordered, final char splitter, final boolean firstLineIsNames, final boolean asStrings, final boolean asNumbers) throws IOException, SyntaxException, NullPointerException {
+		if (reader == null) {
+			throw new NullPointerException("Reader can't be null");
+		}
+		else if (handler == null) {
+			throw new NullPointerException("Handler can't be null");
+		}
+		else {
+			try{handler.startDoc();
+				new Pipeline<CsvRecorder>(new ChunkReader(reader,chunkSize,true,firstLineIsNames),ordered,(chunk)->{
+					final CsvRecorder	recorder = new CsvRecorder(chunk.index > 0);	// Names must be delivered once
+
+					parseCsv(new CsvSaxParser(recorder,splitter,firstLineIsNames,asStrings,asNumbers),chunk,firstLineIsNames);
+					return recorder;
+				}).forEach((chunk,recorder)->recorder.replay(handler,chunk.firstLine));
+				handler.endDoc();
+			} catch (SyntaxException exc) {
+				throw exc;
+			} catch (ContentException exc) {
+				throw new SyntaxException(0,0,exc.getLocalizedMessage(),exc);
+			}
+		}
+	}
+
+	/**
+	 * <p>Parse CSV content and deliver it to the handlers got from supplier. Every chunk of content gets it's own handler, so handlers are called
+	 * from worker threads in parallel. Every handler gets {@linkplain CsvSaxHandler#startDoc()} and {@linkplain CsvSaxHandler#endDoc()} events, and field
+	 * names (if any) before data</p>
+	 * @param reader reader to get content from. Can't be null
+	 * @param handlers supplier of the handlers. Can't be null and can't return null
+	 * @param splitter CSV fields splitter
+	 * @param firstLineIsNames first line of the content contains field names
+	 * @param asStrings deliver string content as strings
+	 * @param asNumbers deliver numeric content as numbers
+	 * @throws IOException on any I/O errors
+	 * @throws SyntaxException on any syntax errors in the content
+	 * @throws NullPointerException when reader or handler supplier is null
+	 */
+	public void parseCsv(final Reader reader, final Supplier<? extends CsvSaxHandler> handlers, final char splitter, final boolean firstLineIsNames, final boolean asStrings, final boolean asNumbers) throws IOException, SyntaxException, NullPointerException {
+		if (reader == null) {
+			throw new NullPointerException("Reader can't be null");
+		}
+		else if (handlers == null) {
+			throw new NullPointerException("Handler supplier can't be null");
+		}
+		else {
+			new Pipeline<Boolean>(new ChunkReader(reader,chunkSize,true,firstLineIsNames),false,(chunk)->{
+				parseCsv(new CsvSaxParser(handlers.get(),splitter,firstLineIsNames,asStrings,asNumbers),chunk,firstLineIsNames);
+				return Boolean.TRUE;
+			}).forEach((chunk,result)->{});
+		}
+	}
+
+	/**
+	 * <p>Parse JSON lines content and deliver it to the single handler. Handler is called from the calling thread only and gets all the events as if every
+	 * line of the content was parsed by it's own {@linkplain JsonSaxParser} (so every line fires {@linkplain JsonSaxHandler#startDoc()} and
+	 * {@linkplain JsonSaxHandler#endDoc()} events). Blank lines are skipped</p>
+	 * @param reader reader to get content from. Can't be null
+	 * @param handler handler to deliver events to. Can't be null
+	 * @param ordered true - records must be delivered in the content order, false - chunks of records are delivered in the order they are parsed
+	 * @throws IOException on any I/O errors
+	 * @throws SyntaxException on any syntax errors in the content
+	 * @throws NullPointerException when reader or handler is null
+	 */
+	public void parseJsonLines(final Reader reader, final JsonSaxHandler handler, final boolean ordered) throws IOException, SyntaxException, NullPointerException {
+		if (reader == null) {
+			throw new NullPointerException("Reader can't be null");
+		}
+		else if (handler == null) {
+			throw new NullPointerException("Handler can't be null");
+		}
+		else {
+			new Pipeline<JsonRecorder>(new ChunkReader(reader,chunkSize,false,false),ordered,(chunk)->{
+				final JsonRecorder	recorder = new JsonRecorder();
+
+				parseJsonLines(new JsonSaxParser(recorder),chunk);
+				return recorder;
+			}).forEach((chunk,recorder)->recorder.replay(handler,chunk.firstLine));
+		}
+	}
+
+	/**
+	 * <p>Parse JSON lines content and deliver it to the handlers got from supplier. Every chunk of content gets it's own handler, so handlers are called
+	 * from worker threads in parallel. Every line of the content fires {@linkplain JsonSaxHandler#startDoc()} and {@linkplain JsonSaxHandler#endDoc()}
+	 * events. Blank lines are skipped</p>
+	 * @param reader reader to get content from. Can't be null
+	 * @param handlers supplier of the handlers. Can't be null and can't return null
+	 * @throws IOException on any I/O errors
+	 * @throws SyntaxException on any syntax errors in the content
+	 * @throws NullPointerException when reader or handler supplier is null
+	 */
+	public void parseJsonLines(final Reader reader, final Supplier<? extends JsonSaxHandler> handlers) throws IOException, SyntaxException, NullPointerException {
+		if (reader == null) {
+			throw new NullPointerException("Reader can't be null");
+		}
+		else if (handlers == null) {
+			throw new NullPointerException("Handler supplier can't be null");
+		}
+		else {
+			new Pipeline<Boolean>(new ChunkReader(reader,chunkSize,false,false),false,(chunk)->{
+				parseJsonLines(new JsonSaxParser(handlers.get()),chunk);
+				return Boolean.TRUE;
+			}).forEach((chunk,result)->{});
+		}
+	}
+
+	/**
+	 * <p>Get content records as a stream. Records are converted by the record parser in parallel, but the stream returned is sequential. Stream should be
+	 * closed when it's not consumed completely. {@linkplain IOException} and {@linkplain SyntaxException} are wrapped into {@linkplain UncheckedIOException}</p>
+	 * @param <T> record object type
+	 * @param reader reader to get content from. Can't be null
+	 * @param csvQuoting true - content is a CSV, and line breaks inside double quotes don't split records, false - every line is a record (JSON lines)
+	 * @param parser record parser. Can't be null. Called from worker threads in parallel
+	 * @param ordered true - records must be in the content order, false - chunks of records are in the order they are parsed
+	 * @return stream of records. Can't be null
+	 * @throws NullPointerException when reader or parser is null
+	 */
+	public <T> Stream<T> records(final Reader reader, final boolean csvQuoting, final RecordParser<T> parser, final boolean ordered) throws NullPointerException {
+		if (reader == null) {
+			throw new NullPointerException("Reader can't be null");
+		}
+		else if (parser == null) {
+			throw new NullPointerException("Record parser can't be null");
+		}
+		else {
+			final Pipeline<List<T>>	pipeline = new Pipeline<>(new ChunkReader(reader,chunkSize,csvQuoting,false),ordered,(chunk)->{
+											final List<T>	result = new ArrayList<>();
+
+											forEachRecord(chunk,csvQuoting,(lineNo,data,from,len)->{
+												final T	item = parser.parse(lineNo,data,from,len);
+
+												if (item != null) {
+													result.add(item);
+												}
+												return null;
+											});
+											return result;
+										});
+
+			return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL) {
+						Iterator<T>	current = Collections.emptyIterator();
+
+						@Override
+						public boolean tryAdvance(final Consumer<? super T> action) {
+							while (!current.hasNext()) {
+								try{final Done<List<T>>	done = pipeline.next();
+
+									if (done == null) {
+										return false;
+									}
+									else {
+										current = done.result.iterator();
+									}
+								} catch (IOException exc) {
+									throw new UncheckedIOException(exc);
+								} catch (SyntaxException exc) {
+									throw new UncheckedIOException(new IOException(exc.getLocalizedMessage(),exc));
+								}
+							}
+							action.accept(current.next());
+							return true;
+						}
+					},false).onClose(()->pipeline.cancel());
+		}
+	}
+
+	private static void parseCsv(final CsvSaxParser parser, final Chunk chunk, final boolean firstLineIsNames) throws IOException, SyntaxException {
+		try{if (firstLineIsNames) {	// Every chunk starts with the names line, so number of fields is checked by names
+				parser.parse(chunk.data,0,chunk.to);
+			}
+			else {
+				parser.parse(chunk.data,chunk.from,chunk.to-chunk.from);
+			}
+		} catch (SyntaxException exc) {
+			if (exc.getRow() <= 1 && firstLineIsNames) {
+				throw relocate(exc,1);
+			}
+			else {
+				throw relocate(exc,exc.getRow()+chunk.firstLine-(firstLineIsNames ? 2 : 1));
+			}
+		}
+	}
+
+	private static void parseJsonLines(final JsonSaxParser parser, final Chunk chunk) throws IOException, SyntaxException {
+		forEachRecord(chunk,false,(lineNo,data,from,len)->{
+			try{parser.parse(data,from,len);
+			} catch (SyntaxException exc) {
+				throw relocate(exc,lineNo);
+			}
+			return null;
+		});
+	}
+
+	private static SyntaxException relocate(final SyntaxException exc, final long lineNo) {
+		final String	prefix = "Line "+exc.getRow()+", pos "+exc.getCol()+": ", message = exc.getMessage();
+		
+		return new SyntaxException(lineNo,exc.getCol(),message.startsWith(prefix) ? message.substring(prefix.length()) : message,exc);
+	}
+
+	private static void forEachRecord(final Chunk chunk, final boolean csvQuoting, final RecordParser<?> callback) throws IOException, SyntaxException {
+		final char[]	data = chunk.data;
+		long			line = chunk.firstLine, recordLine = line;
+		boolean			inQuotes = false;
+		int				start = chunk.from;
+
+		for (int index = chunk.from, end = chunk.to; index < end; index++) {
+			final char	current = data[index];
+
+			if (current == '\"' && csvQuoting) {
+				inQuotes = !inQuotes;
+			}
+			else if (current == '\n') {
+				line++;
+				if (!inQuotes) {
+					processRecord(callback,recordLine,data,start,index);
+					start = index + 1;
+					recordLine = line;
+				}
+			}
+		}
+		if (start < chunk.to) {
+			processRecord(callback,recordLine,data,start,chunk.to);
+		}
+	}
+
+	private static void processRecord(final RecordParser<?> callback, final long lineNo, final char[] data, final int from, int to) throws IOException, SyntaxException {
+		if (to > from && data[to-1] == '\r') {
+			to--;
+		}
+		for (int index = from; index < to; index++) {
+			if (data[index] > ' ') {
+				callback.parse(lineNo,data,from,to-from);
+				return;
+			}
+		}
+	}
+
+	private static class Chunk {
+		final int		index;
+		final long		firstLine;
+		final char[]	data;
+		final int		from, to;
+
+		Chunk(final int index, final long firstLine, final char[] data, final int from, final int to) {
+			this.index = index;
+			this.firstLine = firstLine;
+			this.data = data;
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	/**
+	 * <p>Splits content into chunks at the record boundaries. Data before "from" position of any chunk is the first (names) line of the content, when names
+	 * line was requested</p>
+	 */
+	private static class ChunkReader {
+		private final Reader	reader;
+		private final int		chunkSize;
+		private final boolean	csvQuoting;
+		private final boolean	namesLine;
+		private char[]			prefix = new char[0];
+		private char[]			carry = new char[0];
+		private int				carryLength = 0, index = 0;
+		private long			lineNo = 1;
+		private boolean			eof = false;
+
+		ChunkReader(final Reader reader, final int chunkSize, final boolean csvQuoting, final boolean namesLine) {
+			this.reader = reader;
+			this.chunkSize = chunkSize;
+			this.csvQuoting = csvQuoting;
+			this.namesLine = namesLine;
+		}
+
+		Chunk next() throws IOException {
+			if (eof && carryLength == 0) {
+				return null;
+			}
+			else {
+				char[]		buffer = new char[prefix.length + carryLength + chunkSize];
+				final int	from = prefix.length;
+				int			length = from + carryLength, scanned = from, boundary = -1, lines = 0, linesAtBoundary = 0;
+				boolean		inQuotes = false;
+
+				System.arraycopy(prefix,0,buffer,0,from);
+				System.arraycopy(carry,0,buffer,from,carryLength);
+				for (;;) {
+					while (!eof && length < buffer.length) {
+						final int	read = reader.read(buffer,length,buffer.length-length);
+
+						if (read < 0) {
+							eof = true;
+						}
+						else {
+							length += read;
+						}
+					}
+					for (int pos = scanned; pos < length; pos++) {
+						final char	current = buffer[pos];
+
+						if (current == '\"' && csvQuoting) {
+							inQuotes = !inQuotes;
+						}
+						else if (current == '\n') {
+							lines++;
+							if (!inQuotes) {
+								boundary = pos;
+								linesAtBoundary = lines;
+							}
+						}
+					}
+					scanned = length;
+					if (eof) {
+						boundary = length - 1;
+						linesAtBoundary = lines;
+						break;
+					}
+					else if (boundary >= 0) {
+						break;
+					}
+					else {	// Record is longer than chunk
+						buffer = Arrays.copyOf(buffer,2*buffer.length);
+					}
+				}
+				final int	to = boundary + 1;
+
+				carryLength = length - to;
+				if (carry.length < carryLength) {
+					carry = new char[carryLength];
+				}
+				System.arraycopy(buffer,to,carry,0,carryLength);
+
+				if (to == from) {
+					return null;
+				}
+				else if (namesLine && index == 0) {	// Extract names line to copy it into all the chunks
+					int	namesEnd = from;
+
+					inQuotes = false;
+					while (namesEnd < to && (buffer[namesEnd] != '\n' || inQuotes)) {
+						if (buffer[namesEnd] == '\"') {
+							inQuotes = !inQuotes;
+						}
+						namesEnd++;
+					}
+					namesEnd = Math.min(namesEnd + 1,to);
+					prefix = Arrays.copyOf(buffer,namesEnd);
+					lineNo += linesAtBoundary;
+					return new Chunk(index++,2,buffer,namesEnd,to);
+				}
+				else {
+					final Chunk	result = new Chunk(index++,lineNo,buffer,from,to);
+
+					lineNo += linesAtBoundary;
+					return result;
+				}
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private static interface ChunkTask<R> {
+		R process(Chunk chunk) throws IOException, ContentException;
+	}
+
+	@FunctionalInterface
+	private static interface ChunkConsumer<R> {
+		void accept(Chunk chunk, R result) throws IOException, SyntaxException;
+	}
+
+	private static class Done<R> {
+		final Chunk		chunk;
+		final R			result;
+		final Throwable	error;
+
+		Done(final Chunk chunk, final R result, final Throwable error) {
+			this.chunk = chunk;
+			this.result = result;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * <p>Reads chunks, parses them in the executor and returns results. Number of chunks in progress is limited</p>
+	 */
+	private class Pipeline<R> {
+		private final ChunkReader						chunks;
+		private final boolean							ordered;
+		private final ChunkTask<R>						task;
+		private final ArrayDeque<CompletableFuture<Done<R>>>	inOrder = new ArrayDeque<>();
+		private final BlockingQueue<Done<R>>			completed = new LinkedBlockingQueue<>();
+		private int										inProgress = 0;
+		private boolean									exhausted = false;
+		private volatile boolean						cancelled = false;
+
+		Pipeline(final ChunkReader chunks, final boolean ordered, final ChunkTask<R> task) {
+			this.chunks = chunks;
+			this.ordered = ordered;
+			this.task = task;
+		}
+
+		void forEach(final ChunkConsumer<R> consumer) throws IOException, SyntaxException {
+			try{Done<R>	done;
+
+				while ((done = next()) != null) {
+					consumer.accept(done.chunk,done.result);
+				}
+			} finally {
+				cancel();
+			}
+		}
+
+		Done<R> next() throws IOException, SyntaxException {
+			while (!exhausted && !cancelled && inProgress < chunksInProgress) {
+				final Chunk	chunk = chunks.next();
+
+				if (chunk == null) {
+					exhausted = true;
+				}
+				else {
+					final CompletableFuture<Done<R>>	future = CompletableFuture.supplyAsync(()->execute(chunk),executor);
+
+					if (ordered) {
+						inOrder.add(future);
+					}
+					else {
+						future.thenAccept(completed::add);
+					}
+					inProgress++;
+				}
+			}
+			if (inProgress == 0) {
+				return null;
+			}
+			else {
+				final Done<R>	done;
+
+				if (ordered) {
+					done = inOrder.removeFirst().join();
+				}
+				else {
+					try{done = completed.take();
+					} catch (InterruptedException e) {
+						cancel();
+						throw new InterruptedIOException();
+					}
+				}
+				inProgress--;
+				if (done.error != null) {
+					cancel();
+					rethrow(done.error,done.chunk);
+				}
+				return done;
+			}
+		}
+
+		void cancel() {
+			cancelled = true;
+		}
+
+		private Done<R> execute(final Chunk chunk) {
+			if (cancelled) {
+				return new Done<>(chunk,null,null);
+			}
+			else {
+				try{return new Done<>(chunk,task.process(chunk),null);
+				} catch (Throwable t) {
+					return new Done<>(chunk,null,t);
+				}
+			}
+		}
+
+		private void rethrow(final Throwable t, final Chunk chunk) throws IOException, SyntaxException {
+			if (t instanceof SyntaxException) {
+				throw (SyntaxException)t;
+			}
+			else if (t instanceof ContentException) {
+				throw new SyntaxException(chunk.firstLine,0,t.getLocalizedMessage(),t);
+			}
+			else if (t instanceof IOException) {
+				throw (IOException)t;
+			}
+			else if (t instanceof RuntimeException) {
+				throw (RuntimeException)t;
+			}
+			else if (t instanceof Error) {
+				throw (Error)t;
+			}
+			else {
+				throw new IOException(t.getLocalizedMessage(),t);
+			}
+		}
+	}
+
+	/**
+	 * <p>Common part of the event recorders. Every event is stored as operation code and up to three numeric arguments. Strings are stored as object references,
+	 * char arrays are copied into the common char store.</p>
+	 */
+	private static class EventRecorder {
+		byte[]		ops = new byte[256];
+		long[]		first = new long[256], second = new long[256];
+		Object[]	refs = null;
+		char[]		chars = new char[1024];
+		int			count = 0, charsLength = 0;
+
+		int add(final byte op, final long firstArg, final long secondArg) {
+			if (count >= ops.length) {
+				ops = Arrays.copyOf(ops,2*ops.length);
+				first = Arrays.copyOf(first,2*first.length);
+				second = Arrays.copyOf(second,2*second.length);
+				if (refs != null) {
+					refs = Arrays.copyOf(refs,2*refs.length);
+				}
+			}
+			ops[count] = op;
+			first[count] = firstArg;
+			second[count] = secondArg;
+			return count++;
+		}
+
+		void add(final byte op, final long firstArg, final Object ref) {
+			final int	index = add(op,firstArg,0);
+
+			if (refs == null) {
+				refs = new Object[ops.length];
+			}
+			refs[index] = ref;
+		}
+
+		void add(final byte op, final long firstArg, final char[] data, final int from, final int len) {
+			if (charsLength + len > chars.length) {
+				chars = Arrays.copyOf(chars,Math.max(2*chars.length,charsLength+len));
+			}
+			System.arraycopy(data,from,chars,charsLength,len);
+			add(op,firstArg,((long)charsLength << 32) | len);
+			charsLength += len;
+		}
+
+		static SyntaxException toSyntax(final ContentException exc, final long lineNo) {
+			return exc instanceof SyntaxException ? (SyntaxException)exc : new SyntaxException(lineNo,0,exc.getLocalizedMessage(),exc);
+		}
+
+		static int from(final long packed) {
+			return (int)(packed >>> 32);
+		}
+
+		static int len(final long packed) {
+			return (int)packed;
+		}
+	}
+
+	private static class CsvRecorder extends EventRecorder implements CsvSaxHandler {
+		private static final byte	START_CAPTION = 0;
+		private static final byte	NAME_STRING = 1;
+		private static final byte	NAME_CHARS = 2;
+		private static final byte	END_CAPTION = 3;
+		private static final byte	START_DATA = 4;
+		private static final byte	VALUE_NULL = 5;
+		private static final byte	VALUE_LONG = 6;
+		private static final byte	VALUE_DOUBLE = 7;
+		private static final byte	VALUE_STRING = 8;
+		private static final byte	VALUE_CHARS = 9;
+		private static final byte	END_DATA = 10;
+
+		private final boolean		skipNames;
+
+		CsvRecorder(final boolean skipNames) {
+			this.skipNames = skipNames;
+		}
+
+		@Override public void startDoc() throws ContentException {}	// Document is started and ended by the caller
+		@Override public void endDoc() throws ContentException {}
+		@Override public void startCaption() throws ContentException {if (!skipNames) add(START_CAPTION,0,0);}
+		@Override public void name(final int position, final String name) throws ContentException {if (!skipNames) add(NAME_STRING,position,name);}
+		@Override public void name(final int position, final char[] name, final int from, final int len) throws ContentException {if (!skipNames) add(NAME_CHARS,position,name,from,len);}
+		@Override public void endCaption() throws ContentException {if (!skipNames) add(END_CAPTION,0,0);}
+		@Override public void startData() throws ContentException {add(START_DATA,0,0);}
+		@Override public void value(final int position) throws ContentException {add(VALUE_NULL,position,0);}
+		@Override public void value(final int position, final long value) throws ContentException {add(VALUE_LONG,position,value);}
+		@Override public void value(final int position, final double value) throws ContentException {add(VALUE_DOUBLE,position,Double.doubleToRawLongBits(value));}
+		@Override public void value(final int position, final String value) throws ContentException {add(VALUE_STRING,position,value);}
+		@Override public void value(final int position, final char[] value, final int from, final int len) throws ContentException {add(VALUE_CHARS,position,value,from,len);}
+		@Override public void endData() throws ContentException {add(END_DATA,0,0);}
+
+		void replay(final CsvSaxHandler handler, final long lineNo) throws SyntaxException {
+			for (int index = 0; index < count; index++) {
+				final int	position = (int)first[index];
+
+				try{switch (ops[index]) {
+						case START_CAPTION	: handler.startCaption(); break;
+						case NAME_STRING	: handler.name(position,(String)refs[index]); break;
+						case NAME_CHARS		: handler.name(position,chars,from(second[index]),len(second[index])); break;
+						case END_CAPTION	: handler.endCaption(); break;
+						case START_DATA		: handler.startData(); break;
+						case VALUE_NULL		: handler.value(position); break;
+						case VALUE_LONG		: handler.value(position,second[index]); break;
+						case VALUE_DOUBLE	: handler.value(position,Double.longBitsToDouble(second[index])); break;
+						case VALUE_STRING	: handler.value(position,(String)refs[index]); break;
+						case VALUE_CHARS	: handler.value(position,chars,from(second[index]),len(second[index])); break;
+						case END_DATA		: handler.endData(); break;
+						default : throw new UnsupportedOperationException("Operation code ["+ops[index]+"] is not supported yet");
+					}
+				} catch (ContentException exc) {
+					throw toSyntax(exc,lineNo);
+				}
+			}
+		}
+	}
+
+	private static class JsonRecorder extends EventRecorder implements JsonSaxHandler {
+		private static final byte	START_DOC = 0;
+		private static final byte	END_DOC = 1;
+		private static final byte	START_OBJ = 2;
+		private static final byte	END_OBJ = 3;
+		private static final byte	START_ARR = 4;
+		private static final byte	END_ARR = 5;
+		private static final byte	NAME_CHARS = 6;
+		private static final byte	NAME_STRING = 7;
+		private static final byte	NAME_ID = 8;
+		private static final byte	END_NAME = 9;
+		private static final byte	START_INDEX = 10;
+		private static final byte	END_INDEX = 11;
+		private static final byte	VALUE_CHARS = 12;
+		private static final byte	VALUE_STRING = 13;
+		private static final byte	VALUE_LONG = 14;
+		private static final byte	VALUE_DOUBLE = 15;
+		private static final byte	VALUE_BOOLEAN = 16;
+		private static final byte	VALUE_NULL = 17;
+
+		@Override public void startDoc() throws ContentException {add(START_DOC,0,0);}
+		@Override public void endDoc() throws ContentException {add(END_DOC,0,0);}
+		@Override public void startObj() throws ContentException {add(START_OBJ,0,0);}
+		@Override public void endObj() throws ContentException {add(END_OBJ,0,0);}
+		@Override public void startArr() throws ContentException {add(START_ARR,0,0);}
+		@Override public void endArr() throws ContentException {add(END_ARR,0,0);}
+		@Override public void startName(final char[] data, final int from, final int len) throws ContentException {add(NAME_CHARS,0,data,from,len);}
+		@Override public void startName(final String name) throws ContentException {add(NAME_STRING,0,name);}
+		@Override public void startName(final long id) throws ContentException {add(NAME_ID,id,0);}
+		@Override public void endName() throws ContentException {add(END_NAME,0,0);}
+		@Override public void startIndex(final int index) throws ContentException {add(START_INDEX,index,0);}
+		@Override public void endIndex() throws ContentException {add(END_INDEX,0,0);}
+		@Override public void value(final char[] data, final int from, final int len) throws ContentException {add(VALUE_CHARS,0,data,from,len);}
+		@Override public void value(final String data) throws ContentException {add(VALUE_STRING,0,data);}
+		@Override public void value(final long data) throws ContentException {add(VALUE_LONG,data,0);}
+		@Override public void value(final double data) throws ContentException {add(VALUE_DOUBLE,Double.doubleToRawLongBits(data),0);}
+		@Override public void value(final boolean data) throws ContentException {add(VALUE_BOOLEAN,data ? 1 : 0,0);}
+		@Override public void value() throws ContentException {add(VALUE_NULL,0,0);}
+
+		void replay(final JsonSaxHandler handler, final long lineNo) throws SyntaxException {
+			for (int index = 0; index < count; index++) {
+				try{switch (ops[index]) {
+						case START_DOC		: handler.startDoc(); break;
+						case END_DOC		: handler.endDoc(); break;
+						case START_OBJ		: handler.startObj(); break;
+						case END_OBJ		: handler.endObj(); break;
+						case START_ARR		: handler.startArr(); break;
+						case END_ARR		: handler.endArr(); break;
+						case NAME_CHARS		: handler.startName(chars,from(second[index]),len(second[index])); break;
+						case NAME_STRING	: handler.startName((String)refs[index]); break;
+						case NAME_ID		: handler.startName(first[index]); break;
+						case END_NAME		: handler.endName(); break;
+						case START_INDEX	: handler.startIndex((int)first[index]); break;
+						case END_INDEX		: handler.endIndex(); break;
+						case VALUE_CHARS	: handler.value(chars,from(second[index]),len(second[index])); break;
+						case VALUE_STRING	: handler.value((String)refs[index]); break;
+						case VALUE_LONG		: handler.value(first[index]); break;
+						case VALUE_DOUBLE	: handler.value(Double.longBitsToDouble(first[index])); break;
+						case VALUE_BOOLEAN	: handler.value(first[index] != 0); break;
+						case VALUE_NULL		: handler.value(); break;
+						default : throw new UnsupportedOperationException("Operation code ["+ops[index]+"] is not supported yet");
+					}
+				} catch (ContentException exc) {
+					throw toSyntax(exc,lineNo);
+				}
+			}
+		}
+	}
+}
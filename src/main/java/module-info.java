@@ -76,11 +76,12 @@ module chav1961.purelib {
 			, chav1961.purelib.fsys.internal.FileSystemOnFileSystem 
 			, chav1961.purelib.fsys.internal.FileSystemOnXMLReadOnly 
 			, chav1961.purelib.fsys.internal.FileSystemOnRMI 
-			, chav1961.purelib.fsys.internal.FileSystemInMemory;
+			, chav1961.purelib.fsys.internal.FileSystemInMemory
+			, chav1961.purelib.fsys.internal.FileSystemOnDedupStore;
 
 	uses chav1961.purelib.fsys.interfaces.FileSystemInterfaceDescriptor;
 	provides chav1961.purelib.fsys.interfaces.FileSystemInterfaceDescriptor with 
-			chav1961.purelib.fsys.internal.FileSystemOnFile, chav1961.purelib.fsys.internal.FileSystemOnFileSystem, chav1961.purelib.fsys.internal.FileSystemOnXMLReadOnly, chav1961.purelib.fsys.internal.FileSystemOnRMI, chav1961.purelib.fsys.internal.FileSystemInMemory;
+			chav1961.purelib.fsys.internal.FileSystemOnFile, chav1961.purelib.fsys.internal.FileSystemOnFileSystem, chav1961.purelib.fsys.internal.FileSystemOnXMLReadOnly, chav1961.purelib.fsys.internal.FileSystemOnRMI, chav1961.purelib.fsys.internal.FileSystemInMemory, chav1961.purelib.fsys.internal.FileSystemOnDedupStore;
 	
 	uses chav1961.purelib.i18n.interfaces.Localizer;
 	provides chav1961.purelib.i18n.interfaces.Localizer with 
@@ -96,6 +97,9 @@ module chav1961.purelib {
 	provides chav1961.purelib.sql.interfaces.ResultSetContentParser with 
 			chav1961.purelib.sql.content.CsvContentParser, chav1961.purelib.sql.content.XMLContentParser, chav1961.purelib.sql.content.JsonContentParser;	
 
+	uses chav1961.purelib.matrix.interfaces.MatrixFactory;
+	provides chav1961.purelib.matrix.interfaces.MatrixFactory with chav1961.purelib.matrix.OrdinalMatrixFactory;
+
 	uses chav1961.purelib.ui.interfaces.UIServer;
 	provides chav1961.purelib.ui.interfaces.UIServer with 
 			chav1961.purelib.ui.swing.SwingUIServerImpl;	
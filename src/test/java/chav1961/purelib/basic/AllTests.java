@@ -9,9 +9,9 @@ import chav1961.purelib.basic.logs.LoggerFacadeTest;
 @SelectClasses({ ArgParserTest.class, AsmScriptEngineTest.class, BitCharSetTest.class, BKTreeTest.class,
 		CharArrayPieceTest.class, CharUtilsTest.class, ColorUtilsTest.class, ConsoleCommandManagerTest.class,
 		CSSUtilsTest.class, DirectoryListenerTest.class, FSMTest.class, GettersAndSettersFactoryTest.class,
-		InternalUtilsTest.class, LineByLineProcessorTest.class, LoggerFacadeTest.class, LongIdMapTest.class,
+		InternalUtilsTest.class, LineByLineProcessorTest.class, LoggerFacadeTest.class, LongHashMapTest.class, LongIdMapTest.class,
 		MimeTypeTest.class, PluggableClassLoaderTest.class, PureLibSettingsTest.class, ReusableInstancesTest.class,
-		ScriptEngineTest.class, SequenceIteratorTest.class, SubstitutablePropertiesTest.class, SyntaxTreeTest.class,
+		ScriptEngineTest.class, SequenceIteratorTest.class, StringInternerTest.class, SubstitutablePropertiesTest.class, SyntaxTreeTest.class,
 		TemporaryStoreTest.class, UnsafedUtilsTest.class, URIUtilsTest.class, UtilsTest.class, XMLBasedParserText.class,
 		XMLUtilsTest.class, NamedValueTest.class, ListRangeMatcherTest.class })
 public class AllTests {
@@ -3,7 +3,11 @@ package chav1961.purelib.basic;
 import java.util.Arrays;
 
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
@@ -88,4 +92,123 @@ public class BKTreeTest {
 		} catch (NullPointerException exc) {
 		}
 	}	
+
+	@Test
+	public void emptyTreeTest() {
+		final BKTree<char[],String>	tree = new BKTree<>(char[].class, BKTree.CHAR_ARRAY_LEVENSTAIN);
+		final Set<String>			walked = new HashSet<>();
+
+		Assert.assertFalse(tree.contains("test".toCharArray()));
+		tree.walk((v1,m,v2)->walked.add(v2));
+		tree.walk("test".toCharArray(),1,(v1,m,v2)->walked.add(v2));
+		tree.walk("test".toCharArray(),1,(v1,m,v2)->walked.add(v2),ForkJoinPool.commonPool());
+		tree.addAll(new char[0][], new String[0]);
+		Assert.assertTrue(walked.isEmpty());
+	}
+
+	@Test
+	public void boundedLevenstainTest() {
+		final Random	rnd = new Random(1);
+		
+		for (int index = 0; index < 1000; index++) {
+			final char[]	left = randomWord(rnd, 12), right = randomWord(rnd, 12);
+			final int		distance = CharUtils.calcLevenstain(left, right).distance;
+			
+			for (int limit = 0; limit <= 12; limit++) {
+				Assert.assertEquals(Math.min(distance, limit + 1), CharUtils.calcLevenstain(left, right, limit));
+			}
+		}
+		Assert.assertEquals(0, CharUtils.calcLevenstain("test".toCharArray(), "test".toCharArray(), 0));
+		Assert.assertEquals(2, CharUtils.calcLevenstain("".toCharArray(), "test".toCharArray(), 1));
+		
+		try{CharUtils.calcLevenstain(null, "test".toCharArray(), 1);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{CharUtils.calcLevenstain("test".toCharArray(), null, 1);
+			Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{CharUtils.calcLevenstain("test".toCharArray(), "test".toCharArray(), -1);
+			Assert.fail("Mandatory exception was not detected (negative 3-rd argument)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void bulkAndParallelTest() {
+		final Random		rnd = new Random(2);
+		final Set<String>	unique = new HashSet<>();
+		
+		while (unique.size() < 3000) {
+			unique.add(new String(randomWord(rnd, 8)));
+		}
+		final String[]		words = unique.toArray(new String[unique.size()]);
+		final char[][]		content = new char[words.length][];
+		
+		for (int index = 0; index < words.length; index++) {
+			content[index] = words[index].toCharArray();
+		}
+		
+		final BKTree<char[],String>	bulk = new BKTree<>(char[].class, BKTree.CHAR_ARRAY_LEVENSTAIN);
+		final BKTree<char[],String>	plain = new BKTree<>(char[].class, (v1,v2)->CharUtils.calcLevenstain(v1, v2).distance);
+		
+		bulk.addAll(content, words);
+		for (int index = 0; index < words.length; index++) {
+			plain.add(content[index], words[index]);
+		}
+		for (String item : words) {
+			Assert.assertTrue(bulk.contains(item.toCharArray()));
+		}
+		Assert.assertFalse(bulk.contains("unknown!".toCharArray()));
+		
+		for (int index = 0; index < 20; index++) {
+			final char[]		template = randomWord(rnd, 8);
+			final int			maxMetrics = index % 4;
+			final Set<String>	awaited = new HashSet<>(), seqBulk = new HashSet<>(), seqPlain = new HashSet<>(), parallel = ConcurrentHashMap.newKeySet();
+			
+			for (String item : words) {
+				if (CharUtils.calcLevenstain(template, item.toCharArray()).distance <= maxMetrics) {
+					awaited.add(item);
+				}
+			}
+			bulk.walk(template, maxMetrics, (v1,m,v2)->seqBulk.add(v2));
+			plain.walk(template, maxMetrics, (v1,m,v2)->seqPlain.add(v2));
+			bulk.walk(template, maxMetrics, (v1,m,v2)->parallel.add(v2), ForkJoinPool.commonPool());
+			Assert.assertEquals(awaited, seqBulk);
+			Assert.assertEquals(awaited, seqPlain);
+			Assert.assertEquals(awaited, parallel);
+		}
+		
+		final AtomicInteger	counter = new AtomicInteger();
+		
+		bulk.walk(content[0], 8, (v1,m,v2)->counter.incrementAndGet() < 10, ForkJoinPool.commonPool());
+		Assert.assertTrue(counter.get() < words.length);
+		
+		try{bulk.addAll(new char[][] {"a".toCharArray()}, new String[2]);
+			Assert.fail("Mandatory exception was not detected (different array lengths)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{bulk.addAll(new char[][] {null}, new String[1]);
+			Assert.fail("Mandatory exception was not detected (nulls inside 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new BKTree<char[],String>(char[].class, BKTree.CHAR_ARRAY_LEVENSTAIN).addAll(new char[][] {"a".toCharArray(), "a".toCharArray()}, new String[2]);
+			Assert.fail("Mandatory exception was not detected (duplicates inside 1-st argument)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{bulk.walk(content[0], 1, (v1,m,v2)->true, null);
+			Assert.fail("Mandatory exception was not detected (null 4-th argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
+	
+	private static char[] randomWord(final Random rnd, final int maxLength) {
+		final char[]	result = new char[1 + rnd.nextInt(maxLength)];
+		
+		for (int index = 0; index < result.length; index++) {
+			result[index] = (char)('a' + rnd.nextInt(6));
+		}
+		return result;
+	}
 }
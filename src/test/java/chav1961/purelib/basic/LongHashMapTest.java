@@ -0,0 +1,122 @@
+package chav1961.purelib.basic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
+
+@Tag("OrdinalTestCategory")
+public class LongHashMapTest {
+	@Test
+	public void basicTest() {
+		final LongHashMap<String>	map = new LongHashMap<>();
+
+		Assert.assertEquals(map.put(1,"test string 1"),map);
+		Assert.assertEquals(map.put(Long.MIN_VALUE,"test string 2"),map);
+		Assert.assertEquals(map.put(0,null),map);
+		Assert.assertEquals(3,map.size());
+
+		Assert.assertTrue(map.contains(1));
+		Assert.assertTrue(map.contains(Long.MIN_VALUE));
+		Assert.assertTrue(map.contains(0));
+		Assert.assertFalse(map.contains(2000000));
+
+		Assert.assertEquals("test string 1",map.get(1));
+		Assert.assertEquals("test string 2",map.get(Long.MIN_VALUE));
+		Assert.assertNull(map.get(0));
+		Assert.assertNull(map.get(2000000));
+
+		Assert.assertEquals("test string 1",map.remove(1));
+		Assert.assertNull(map.remove(1));
+		Assert.assertFalse(map.contains(1));
+		Assert.assertEquals(2,map.size());
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertFalse(map.contains(Long.MIN_VALUE));
+
+		try{map.walk(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new LongHashMap<>(-1);
+			Assert.fail("Mandatory exception was not detected (negative 1-st argument)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void randomTest() {
+		final LongHashMap<Long>		map = new LongHashMap<>();
+		final LongLongHashMap		longMap = new LongLongHashMap();
+		final Map<Long,Long>		etalon = new HashMap<>();
+		final Random				rand = new Random(12345);
+
+		for (int index = 0; index < 200000; index++) {
+			final long	key = rand.nextInt(50000) * 0x100000001L;	// Sparse keys with the same low bits
+
+			switch (rand.nextInt(4)) {
+				case 0	:
+					Assert.assertEquals(etalon.remove(key),map.remove(key));
+					longMap.remove(key,-1);
+					break;
+				case 1	:
+					Assert.assertEquals(etalon.get(key),map.get(key));
+					Assert.assertEquals(etalon.containsKey(key) ? etalon.get(key).longValue() : -1,longMap.get(key,-1));
+					break;
+				default :
+					etalon.put(key,(long)index);
+					map.put(key,(long)index);
+					longMap.put(key,index);
+					break;
+			}
+			Assert.assertEquals(etalon.size(),map.size());
+			Assert.assertEquals(etalon.size(),longMap.size());
+		}
+
+		final Map<Long,Long>		walked = new HashMap<>(), walkedLong = new HashMap<>();
+
+		map.walk((id,value)->{walked.put(id,value); return true;});
+		longMap.walk((id,value)->{walkedLong.put(id,value); return true;});
+		Assert.assertEquals(etalon,walked);
+		Assert.assertEquals(etalon,walkedLong);
+
+		for (Long key : etalon.keySet()) {
+			Assert.assertEquals(etalon.get(key),map.remove(key.longValue()));
+		}
+		Assert.assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void longLongTest() {
+		final LongLongHashMap	map = new LongLongHashMap(4);
+
+		Assert.assertEquals(map.put(10,100),map);
+		Assert.assertEquals(100,map.get(10,-1));
+		Assert.assertEquals(-1,map.get(20,-1));
+		Assert.assertEquals(105,map.addAndGet(10,5));
+		Assert.assertEquals(5,map.addAndGet(20,5));
+		Assert.assertEquals(2,map.size());
+		Assert.assertEquals(105,map.remove(10,-1));
+		Assert.assertEquals(-1,map.remove(10,-1));
+		Assert.assertFalse(map.contains(10));
+		Assert.assertTrue(map.contains(20));
+	}
+
+	@Test
+	public void sparseAndOrTreeTest() {
+		final SyntaxTreeInterface<String>	tree = new AndOrTree<>(1,1,true);
+
+		tree.placeName("first",Long.MAX_VALUE / 3,"cargo 1");
+		tree.placeName("second",7,"cargo 2");
+		Assert.assertEquals("first",tree.getName(Long.MAX_VALUE / 3));
+		Assert.assertEquals("cargo 1",tree.getCargo(Long.MAX_VALUE / 3));
+		Assert.assertEquals("second",tree.getName(7));
+		Assert.assertEquals(7,tree.seekName("second"));
+	}
+}
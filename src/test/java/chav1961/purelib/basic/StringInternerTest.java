@@ -0,0 +1,116 @@
+package chav1961.purelib.basic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.StringInterner.EvictionPolicy;
+
+@Tag("OrdinalTestCategory")
+public class StringInternerTest {
+	@Test
+	public void basicTest() {
+		for (EvictionPolicy policy : EvictionPolicy.values()) {
+			final StringInterner	interner = new StringInterner(4, policy, 1000);
+			final char[]			content = "test string test".toCharArray();
+			final String			first = interner.intern(content, 0, 4);
+
+			Assert.assertEquals("test", first);
+			Assert.assertSame(first, interner.intern(content, 12, 16));
+			Assert.assertSame(first, interner.intern(new String("test")));
+			Assert.assertEquals("", interner.intern(content, 4, 4));
+			Assert.assertSame(interner.intern(content, 4, 4), interner.intern(""));
+			Assert.assertNull(interner.intern(null));
+			Assert.assertEquals(policy, interner.getEvictionPolicy());
+			Assert.assertEquals(2, interner.size());
+
+			interner.clear();
+			Assert.assertEquals(0, interner.size());
+			Assert.assertNotSame(first, interner.intern(content, 0, 4));
+		}
+
+		final StringInterner	interner = new StringInterner();
+
+		try{interner.intern(null, 0, 0);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{interner.intern(new char[2], 3, 3);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{interner.intern(new char[2], 1, 0);
+			Assert.fail("Mandatory exception was not detected (3-rd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new StringInterner(0, EvictionPolicy.NONE, 1);
+			Assert.fail("Mandatory exception was not detected (1-st argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new StringInterner(1, null, 1);
+			Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new StringInterner(1, EvictionPolicy.BOUNDED, 0);
+			Assert.fail("Mandatory exception was not detected (3-rd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void boundedTest() {
+		final StringInterner	interner = new StringInterner(2, EvictionPolicy.BOUNDED, 100);
+		final String			hot = interner.intern("hot");
+
+		for (int index = 0; index < 10000; index++) {
+			interner.intern("value"+index);
+			Assert.assertSame(hot, interner.intern("hot"));
+			Assert.assertTrue(interner.size() <= 100);
+		}
+	}
+
+	@Test
+	public void concurrentTest() throws Exception {
+		final StringInterner	interner = new StringInterner(EvictionPolicy.NONE, Integer.MAX_VALUE);
+		final ExecutorService	service = Executors.newFixedThreadPool(4);
+		final List<Future<String[]>>	results = new ArrayList<>();
+
+		try{for (int thread = 0; thread < 4; thread++) {
+				results.add(service.submit(()->{
+					final String[]	result = new String[1000];
+
+					for (int index = 0; index < result.length; index++) {
+						result[index] = interner.intern(("key"+index).toCharArray(), 0, ("key"+index).length());
+					}
+					return result;
+				}));
+			}
+			final String[]	first = results.get(0).get();
+
+			for (Future<String[]> item : results) {
+				final String[]	current = item.get();
+
+				for (int index = 0; index < first.length; index++) {
+					Assert.assertSame(first[index], current[index]);
+				}
+			}
+			Assert.assertEquals(1000, interner.size());
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void charUtilsTest() {
+		final char[]	content = "abcabc".toCharArray();
+
+		Assert.assertSame(CharUtils.buildIdenticalString(content, 0, 3), CharUtils.buildIdenticalString(content, 3, 6));
+		Assert.assertSame(CharUtils.buildIdenticalString(content, 0, 3), CharUtils.buildIdenticalString(new String("abc")));
+	}
+}
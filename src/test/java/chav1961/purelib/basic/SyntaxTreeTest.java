@@ -61,6 +61,66 @@ public class SyntaxTreeTest {
 		extendedFunctionalityTest(new AndOrTree<Object>());
 	}
 
+	@Tag("OrdinalTestCategory")
+	@Test
+	public void concurrentTreeTest() throws InterruptedException {
+		basicFunctionalityTest(new ConcurrentAndOrTree<Object>());
+		extendedFunctionalityTest(new ConcurrentAndOrTree<Object>());
+
+		final SyntaxTreeInterface<Object>	tt = new ConcurrentAndOrTree<>();
+		final long	id1 = tt.placeName((CharSequence)"abcd", "1"), id2 = tt.placeName((CharSequence)"abce", "2"), id3 = tt.placeName((CharSequence)"ab", "3"), id4 = tt.placeName((CharSequence)"b", "4");
+		final StringBuilder	sb = new StringBuilder();
+
+		tt.walk((CharSequence)"abc", (name, len, id, cargo)->{sb.append(new String(name, 0, len)).append(';'); return true;});
+		Assert.assertEquals("abcd;abce;", sb.toString());
+		sb.setLength(0);
+		tt.walkBack((name, len, id, cargo)->{sb.append(new String(name, 0, len)).append(';'); return true;});
+		Assert.assertEquals("b;ab;abce;abcd;", sb.toString());
+		Assert.assertEquals(id1, tt.seekNameI((CharSequence)"ABCD"));
+		Assert.assertEquals("1", tt.getCargo(id1));
+
+		Assert.assertTrue(tt.removeName(id3));
+		Assert.assertFalse(tt.removeName(id3));
+		Assert.assertTrue(tt.seekName((CharSequence)"ab") < 0);
+		Assert.assertEquals(id2, tt.seekName((CharSequence)"abce"));
+		Assert.assertTrue(tt.removeName(id1));
+		Assert.assertEquals(id2, tt.seekName((CharSequence)"abce"));
+		Assert.assertEquals(id4, tt.seekName((CharSequence)"b"));
+		Assert.assertEquals(2, tt.size());
+		
+		final ConcurrentAndOrTree<Object>	shared = new ConcurrentAndOrTree<>();
+		final int			names = 2000;
+		final boolean[]		failed = new boolean[1];
+		final Thread[]		readers = new Thread[3];
+		final Thread		writer = new Thread(()->{
+								for (int index = 0; index < names; index++) {
+									shared.placeName((CharSequence)("name"+index), index, Integer.valueOf(index));
+								}
+							});
+		
+		for (int index = 0; index < readers.length; index++) {
+			readers[index] = new Thread(()->{
+				for (int pass = 0; pass < 20; pass++) {
+					for (int item = 0; item < names; item++) {
+						final long	id = shared.seekName((CharSequence)("name"+item));
+						
+						if (id >= 0 && (id != item || !Integer.valueOf(item).equals(shared.getCargo(id)))) {
+							failed[0] = true;
+						}
+					}
+				}
+			});
+			readers[index].start();
+		}
+		writer.start();
+		writer.join();
+		for (Thread item : readers) {
+			item.join();
+		}
+		Assert.assertFalse(failed[0]);
+		Assert.assertEquals(names, shared.size());
+	}
+
 	@Tag("PerformanceTestCategory")
 	@Test
 	public void performanceTest() throws InterruptedException {
@@ -0,0 +1,70 @@
+package chav1961.purelib.basic.growablearrays;
+
+import java.io.PrintStream;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.testing.TestingUtils;
+
+public class StreamsPerformanceTest {
+	private static final int		PERF_AMOUNT = 24;
+	private static final int		PERF_LOOPS = 10;
+	private final PrintStream		ps = TestingUtils.err(); 
+
+	@Tag("PerformanceTestCategory")
+	@Test
+	public void parallelVsSequentialTest() {
+		final GrowableIntArray	gia = new GrowableIntArray(false, 16);
+		
+		ps.println("Start preparation...");
+		for (int index = 0; index < (1 << PERF_AMOUNT); index++) {
+			gia.append(index & 0xFF);
+		}
+		final long	expected = gia.toStream().sequential().summaryStatistics().getSum();
+		
+		ps.println("Start test...");
+		for (int warmup = 0; warmup < 2; warmup++) {
+			sequentialSum(gia);
+			parallelSum(gia);
+		}
+		
+		long	sequentialTime = 0, parallelTime = 0, sequentialFilter = 0, parallelFilter = 0;
+		
+		for (int loop = 0; loop < PERF_LOOPS; loop++) {
+			final long	startTime1 = System.nanoTime();
+			
+			Assert.assertEquals(expected, sequentialSum(gia));
+			
+			final long	startTime2 = System.nanoTime();
+			
+			Assert.assertEquals(expected, parallelSum(gia));
+			
+			final long	startTime3 = System.nanoTime();
+			final long	seqCount = gia.toStream().sequential().filter((v)->v % 3 == 0).count();
+			final long	startTime4 = System.nanoTime();
+			final long	parCount = gia.toStream().parallel().filter((v)->v % 3 == 0).count();
+			final long	startTime5 = System.nanoTime();
+			
+			Assert.assertEquals(seqCount, parCount);
+			sequentialTime += startTime2 - startTime1;
+			parallelTime += startTime3 - startTime2;
+			sequentialFilter += startTime4 - startTime3;
+			parallelFilter += startTime5 - startTime4;
+		}
+		ps.println("Sum: sequential="+(sequentialTime/PERF_LOOPS)+"ns, parallel="+(parallelTime/PERF_LOOPS)+"ns, ratio="+(1.0*sequentialTime/parallelTime));
+		ps.println("Filter: sequential="+(sequentialFilter/PERF_LOOPS)+"ns, parallel="+(parallelFilter/PERF_LOOPS)+"ns, ratio="+(1.0*sequentialFilter/parallelFilter));
+	}
+
+	private static long sequentialSum(final GrowableIntArray gia) {
+		final long[]	result = {0};
+		
+		gia.toStream().forEachOrdered((int value)->result[0] += value);
+		return result[0];
+	}
+
+	private static long parallelSum(final GrowableIntArray gia) {
+		return gia.toStream().parallel().collect(()->new long[1], (acc, value)->acc[0] += value, (left, right)->left[0] += right[0])[0];
+	}
+}
@@ -1,6 +1,8 @@
 package chav1961.purelib.basic.growablearrays;
 
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.OptionalDouble;
 
 import java.util.OptionalInt;
@@ -15,6 +17,8 @@ import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
 
+import chav1961.purelib.basic.growablearrays.ArrayUtils.SpliteratorOfInt;
+
 @Tag("OrdinalTestCategory")
 public class StreamsTest {
 	@Test
@@ -32,7 +36,7 @@ public class StreamsTest {
 			} catch (NullPointerException exc) {
 			}
 			
-			Assert.assertTrue(is.isParallel());
+			Assert.assertFalse(is.isParallel());
 			Assert.assertArrayEquals(new int[0], is.toArray());
 			
 			Assert.assertEquals(0, is.count());
@@ -98,7 +102,8 @@ public class StreamsTest {
 		}
 
 		// Stream is immutable, and terminal functions exhaust it!!!
-		Assert.assertTrue(gia.toStream().isParallel());
+		Assert.assertFalse(gia.toStream().isParallel());
+		Assert.assertTrue(gia.toStream().parallel().isParallel());
 		Assert.assertArrayEquals(gia.extract(), gia.toStream().toArray());
 		
 		Assert.assertEquals(512, gia.toStream().count());
@@ -158,7 +163,7 @@ public class StreamsTest {
 			} catch (NullPointerException exc) {
 			}
 			
-			Assert.assertTrue(is.isParallel());
+			Assert.assertFalse(is.isParallel());
 			Assert.assertArrayEquals(new long[0], is.toArray());
 			
 			Assert.assertEquals(0, is.count());
@@ -224,7 +229,8 @@ public class StreamsTest {
 		}
 
 		// Stream is immutable, and terminal functions exhaust it!!!
-		Assert.assertTrue(gia.toStream().isParallel());
+		Assert.assertFalse(gia.toStream().isParallel());
+		Assert.assertTrue(gia.toStream().parallel().isParallel());
 		Assert.assertArrayEquals(gia.extract(), gia.toStream().toArray());
 		
 		Assert.assertEquals(512, gia.toStream().count());
@@ -284,7 +290,7 @@ public class StreamsTest {
 			} catch (NullPointerException exc) {
 			}
 			
-			Assert.assertTrue(is.isParallel());
+			Assert.assertFalse(is.isParallel());
 			Assert.assertArrayEquals(new double[0], is.toArray(), 0.0001);
 			
 			Assert.assertEquals(0, is.count());
@@ -350,7 +356,8 @@ public class StreamsTest {
 		}
 
 		// Stream is immutable, and terminal functions exhaust it!!!
-		Assert.assertTrue(gia.toStream().isParallel());
+		Assert.assertFalse(gia.toStream().isParallel());
+		Assert.assertTrue(gia.toStream().parallel().isParallel());
 		Assert.assertArrayEquals(gia.extract(), gia.toStream().toArray(), 0.0001);
 		
 		Assert.assertEquals(512, gia.toStream().count());
@@ -814,4 +821,90 @@ public class StreamsTest {
 		} catch (NullPointerException exc) {
 		}
 	}
+
+	@Test
+	public void parallelSplittingTest() {
+		final int				size = 1 << 20;
+		final GrowableIntArray	sliced = new GrowableIntArray(false, 10), plain = new GrowableIntArray(true);
+		final GrowableLongArray	slicedLong = new GrowableLongArray(false, 10);
+		final GrowableDoubleArray	slicedDouble = new GrowableDoubleArray(false, 10);
+		long					sum = 0; 
+		
+		for (int index = 0; index < size; index++) {
+			sliced.append(index % 1000);
+			plain.append(index % 1000);
+			slicedLong.append(index);
+			slicedDouble.append(index % 1000);
+			sum += index % 1000;
+		}
+		
+		for (GrowableIntArray gia : new GrowableIntArray[] {sliced, plain}) {
+			final SpliteratorOfInt	right = gia.getSpliterator(), left = (SpliteratorOfInt)right.trySplit();
+			
+			Assert.assertNotNull(left);
+			Assert.assertEquals(size, left.estimateSize() + right.estimateSize());
+			Assert.assertEquals(size / 2, left.estimateSize());
+			Assert.assertEquals(0, left.estimateSize() % 1024);
+			
+			final int[]	first = new int[1];
+			
+			Assert.assertTrue(left.tryAdvance((int value)->first[0] = value));
+			Assert.assertEquals(0, first[0]);
+			
+			Assert.assertEquals(sum, gia.toStream().parallel().summaryStatistics().getSum());
+			Assert.assertEquals(size, gia.toStream().parallel().count());
+			Assert.assertEquals(OptionalInt.of(999), gia.toStream().parallel().reduce(Math::max));
+			Assert.assertEquals(-1, gia.toStream().parallel().reduce(-1, Math::min));
+			Assert.assertEquals(OptionalInt.empty(), gia.toStream().parallel().filter((v)->v < 0).reduce(Math::max));
+			Assert.assertEquals(size / 2, gia.toStream().parallel().filter((v)->v % 2 == 0).count());
+			Assert.assertEquals(1000, gia.toStream().parallel().distinct().count());
+			Assert.assertArrayEquals(gia.extract(), gia.toStream().parallel().collect(()->new GrowableIntArray(false), (acc, val)->acc.append(val), (l, r)->l.append(r.extract())).extract());
+		}
+		
+		Assert.assertEquals(((long)size) * (size - 1) / 2, slicedLong.toStream().parallel().sum());
+		Assert.assertEquals(OptionalLong.of(size - 1), slicedLong.toStream().parallel().filter((v)->v % 2 == 1).max());
+		Assert.assertEquals(sum, slicedDouble.toStream().parallel().sum(), 0.001);
+		Assert.assertEquals(OptionalDouble.of(-1), slicedDouble.toStream().parallel().map((v)->-v-1).max());
+		Assert.assertEquals(OptionalDouble.of(-1000), slicedDouble.toStream().parallel().map((v)->-v-1).min());
+	}
+
+	@Test
+	public void sequentialByDefaultTest() {
+		final int					size = 1 << 21;
+		final GrowableIntArray		gia = new GrowableIntArray(false, 10);
+		final GrowableLongArray		gla = new GrowableLongArray(false, 10);
+		final GrowableDoubleArray	gda = new GrowableDoubleArray(false, 10);
+		
+		for (int index = 0; index < size; index++) {
+			gia.append(index);
+			gla.append(index);
+			gda.append(index);
+		}
+		Assert.assertFalse(gia.toStream().isParallel());
+		Assert.assertFalse(gla.toStream().filter((v)->true).isParallel());
+		Assert.assertFalse(gda.toStream().map((v)->v).isParallel());
+		Assert.assertTrue(gia.toStream().parallel().isParallel());
+		Assert.assertTrue(gia.toStream().parallel().map((v)->v).isParallel());
+		Assert.assertFalse(gia.toStream().parallel().sequential().isParallel());
+		
+		final List<Integer>	ints = new ArrayList<>();	// Not thread-safe collection
+		final List<Long>	longs = new ArrayList<>();
+		final List<Double>	doubles = new ArrayList<>();
+		
+		gia.toStream().forEach(ints::add);
+		gla.toStream().forEach(longs::add);
+		gda.toStream().forEach(doubles::add);
+		Assert.assertEquals(size, ints.size());
+		Assert.assertEquals(size, longs.size());
+		Assert.assertEquals(size, doubles.size());
+		for (int index = 0; index < size; index++) {
+			Assert.assertEquals(index, ints.get(index).intValue());
+		}
+		
+		ints.clear();
+		gia.toStream().filter((v)->v % 2 == 0).collect(()->ints, (acc, val)->acc.add(val), null);
+		Assert.assertEquals(size / 2, ints.size());
+		Assert.assertEquals(((long)size) * (size - 1) / 2, gia.toStream().parallel().asLongStream().sum());
+		Assert.assertEquals(size - 1, gia.toStream().max().getAsInt());
+	}
 }
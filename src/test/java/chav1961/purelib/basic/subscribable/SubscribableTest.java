@@ -1,5 +1,8 @@
 package chav1961.purelib.basic.subscribable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Assert;
 
 import org.junit.jupiter.api.Test;
@@ -221,4 +224,29 @@ public class SubscribableTest {
 		ss.refresh();
 		Assert.assertTrue(flag[0]);
 	}
+
+	@Test 
+	public void asyncTest() {
+		final List<Runnable>		tasks = new ArrayList<>();
+		final SubscribableInt		si = new SubscribableInt(true, (r)->tasks.add(r));
+		final int[]					values = new int[2];
+		final int[]					count = new int[1];
+		
+		si.addListener((oldVal,newVal)->{values[0] = oldVal; values[1] = newVal; count[0]++;});
+		si.set(10);
+		si.set(20);
+		si.set(30);
+		Assert.assertEquals(0,count[0]);
+		Assert.assertEquals(1,tasks.size());
+		
+		tasks.remove(0).run();
+		Assert.assertEquals(1,count[0]);
+		Assert.assertEquals(20,values[0]);
+		Assert.assertEquals(30,values[1]);
+		
+		try{new SubscribableInt(true, null);
+			Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
 }
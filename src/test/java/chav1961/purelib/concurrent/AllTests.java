@@ -4,8 +4,8 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectClasses({ JUnitExecutorTest.class, LightWeightFutureTest.class, ListenablesTest.class,
-		SimpleBitmapResourceDispatcherTest.class, SimpleObjectResourceDispatcherTest.class, XByteStreamTest.class,
+@SelectClasses({ JUnitExecutorTest.class, LightWeightFutureTest.class, LightWeightListenerListTest.class, ListenablesTest.class, LockFreeResourceDispatcherTest.class, RingBufferTest.class,
+		SimpleBitmapResourceDispatcherTest.class, SimpleObjectResourceDispatcherTest.class, StagedPipelineTest.class, XByteStreamTest.class,
 		XCharStreamTest.class, XStreamTest.class })
 public class AllTests {
 
@@ -0,0 +1,168 @@
+package chav1961.purelib.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("OrdinalTestCategory")
+public class LightWeightListenerListTest {
+	@Test
+	public void basicTest() {
+		final LightWeightListenerList<String>	list = new LightWeightListenerList<>(String.class);
+		final StringBuilder						sb = new StringBuilder();
+
+		Assert.assertFalse(list.isAsynchronous());
+		list.fireEvent((l)->sb.append(l));
+		Assert.assertEquals("", sb.toString());
+
+		list.addListener("1");
+		list.addListener("2");
+		list.addListener("3");
+		list.fireEvent((l)->sb.append(l));
+		Assert.assertEquals("123", sb.toString());
+
+		list.removeListener("2");
+		list.removeListener("unknown");
+		sb.setLength(0);
+		list.fireEvent((l)->sb.append(l));
+		Assert.assertEquals("13", sb.toString());
+
+		sb.setLength(0);
+		list.fireEvent((l)->{
+			if ("1".equals(l)) {
+				throw new IllegalArgumentException("test");
+			}
+			sb.append(l);
+		});
+		Assert.assertEquals("3", sb.toString());
+
+		list.clear();
+		sb.setLength(0);
+		list.fireEvent((l)->sb.append(l));
+		Assert.assertEquals("", sb.toString());
+
+		try{list.addListener(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{list.removeListener(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{list.fireEvent(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{list.fireEventAsync((l)->{});
+			Assert.fail("Mandatory exception was not detected (synchronous list)");
+		} catch (IllegalStateException exc) {
+		}
+		try{new LightWeightListenerList<String>(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new LightWeightListenerList<String>(String.class, false, null);
+			Assert.fail("Mandatory exception was not detected (null 3-rd argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
+
+	@Test
+	public void strictTest() {
+		final LightWeightListenerList<String>	list = new LightWeightListenerList<>(String.class, true);
+		final StringBuilder						sb = new StringBuilder();
+
+		list.addListener("1");
+		list.addListener("2");
+		list.fireEvent((l)->{
+			sb.append(l);
+			list.removeListener("2");
+		});
+		Assert.assertEquals("1", sb.toString());
+	}
+
+	@Test
+	public void asyncTest() {
+		final List<Runnable>					tasks = new ArrayList<>();
+		final Executor							executor = (r)->tasks.add(r);
+		final LightWeightListenerList<String>	list = new LightWeightListenerList<>(String.class, false, executor);
+		final StringBuilder						sb = new StringBuilder();
+
+		Assert.assertTrue(list.isAsynchronous());
+		list.addListener("1");
+
+		list.fireEventAsync((l)->sb.append(l).append('a'));
+		list.fireEventAsync((l)->sb.append(l).append('b'));
+		Assert.assertEquals(2, tasks.size());
+		Assert.assertEquals("", sb.toString());
+		runAll(tasks);
+		Assert.assertEquals("1a1b", sb.toString());
+
+		sb.setLength(0);
+		list.fireEventAsync("key", (l)->sb.append(l).append('a'));
+		list.fireEventAsync("key", (l)->sb.append(l).append('b'));
+		list.fireEventAsync("key", (l)->sb.append(l).append('c'));
+		list.fireEventAsync("another", (l)->sb.append(l).append('d'));
+		Assert.assertEquals(2, tasks.size());
+		runAll(tasks);
+		Assert.assertEquals("1c1d", sb.toString());
+
+		list.fireEventAsync("key", (l)->sb.append(l).append('e'));
+		Assert.assertEquals(1, tasks.size());
+		runAll(tasks);
+		Assert.assertEquals("1c1d1e", sb.toString());
+
+		try{list.fireEventAsync(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{list.fireEventAsync(null, (l)->{});
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{list.fireEventAsync("key", null);
+			Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
+
+	@Test
+	public void asyncRejectTest() {
+		final List<Runnable>					tasks = new ArrayList<>();
+		final boolean[]							reject = {true};
+		final Executor							executor = (r)->{
+													if (reject[0]) {
+														throw new RejectedExecutionException("Rejected");
+													}
+													else {
+														tasks.add(r);
+													}
+												};
+		final LightWeightListenerList<String>	list = new LightWeightListenerList<>(String.class, false, executor);
+		final StringBuilder						sb = new StringBuilder();
+
+		list.addListener("1");
+		try{list.fireEventAsync("key", (l)->sb.append(l).append('a'));
+			Assert.fail("Mandatory exception was not detected (executor rejects task)");
+		} catch (RejectedExecutionException exc) {
+		}
+
+		reject[0] = false;
+		list.fireEventAsync("key", (l)->sb.append(l).append('b'));
+		Assert.assertEquals(1, tasks.size());		// Key is not left pending after rejection
+		runAll(tasks);
+		Assert.assertEquals("1b", sb.toString());
+	}
+
+	private static void runAll(final List<Runnable> tasks) {
+		for (Runnable item : tasks) {
+			item.run();
+		}
+		tasks.clear();
+	}
+}
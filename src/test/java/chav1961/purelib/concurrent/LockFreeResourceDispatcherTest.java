@@ -0,0 +1,263 @@
+package chav1961.purelib.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.FlowException;
+import chav1961.purelib.concurrent.interfaces.ResourceDispatcherLock;
+
+@Tag("OrdinalTestCategory")
+public class LockFreeResourceDispatcherTest {
+	@Test
+	public void basicTest() throws FlowException, InterruptedException {
+		try(final LockFreeResourceDispatcher<String>	rd = new LockFreeResourceDispatcher<>("first")) {
+			Assert.assertFalse(rd.isFair());
+			Assert.assertTrue(rd.isResourceRegistered("first"));
+			Assert.assertFalse(rd.isResourceRegistered("second"));
+
+			rd.registerResource("second");
+			Assert.assertTrue(rd.isResourceRegistered("second"));
+			Assert.assertEquals(2, rd.getRegisteredResources().size());
+
+			try{rd.registerResource(null);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{rd.registerResource("second");
+				Assert.fail("Mandatory exception was not detected (already registered)");
+			} catch (IllegalArgumentException exc) {
+			}
+
+			rd.unregisterResource("second");
+			Assert.assertFalse(rd.isResourceRegistered("second"));
+
+			try{rd.unregisterResource(null);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{rd.unregisterResource("second");
+				Assert.fail("Mandatory exception was not detected (not registered)");
+			} catch (IllegalArgumentException exc) {
+			}
+
+			try{rd.lock("first");
+				Assert.fail("Mandatory exception was not detected (not started)");
+			} catch (FlowException exc) {
+			}
+
+			rd.start();
+			try(final ResourceDispatcherLock	lock = rd.lock("first", "first")) {
+				Assert.assertTrue(rd.isResourceLocked("first"));
+				Assert.assertNull(rd.tryLock("first"));
+			}
+			Assert.assertFalse(rd.isResourceLocked("first"));
+
+			final ResourceDispatcherLock	lock = rd.tryLock("first");
+
+			Assert.assertNotNull(lock);
+			lock.close();
+			try{lock.close();
+				Assert.fail("Mandatory exception was not detected (already unlocked)");
+			} catch (IllegalStateException exc) {
+			}
+
+			try{rd.lock("first", "unknown");
+				Assert.fail("Mandatory exception was not detected (not registered)");
+			} catch (FlowException exc) {
+			}
+			Assert.assertFalse(rd.isResourceLocked("first"));
+			try{rd.lock();
+				Assert.fail("Mandatory exception was not detected (empty argument)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{rd.lock("first", null);
+				Assert.fail("Mandatory exception was not detected (nulls inside)");
+			} catch (IllegalArgumentException exc) {
+			}
+
+			rd.suspend();
+			try{rd.lock("first");
+				Assert.fail("Mandatory exception was not detected (suspended)");
+			} catch (FlowException exc) {
+			}
+			rd.resume();
+
+			final LockFreeResourceDispatcher.ContentionStatistics	stat = rd.getStatistics();
+
+			Assert.assertEquals(4, stat.getLockRequests());
+			Assert.assertEquals(1, stat.getFailedRequests());
+			Assert.assertEquals(0, stat.getContendedRequests());
+			rd.resetStatistics();
+			Assert.assertEquals(0, rd.getStatistics().getLockRequests());
+		}
+
+		try{new LockFreeResourceDispatcher<String>((String[])null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new LockFreeResourceDispatcher<String>(false, -1);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new LockFreeResourceDispatcher<String>("first", "first");
+			Assert.fail("Mandatory exception was not detected (duplicates inside)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void lifeCycleTest() throws IllegalStateException, InterruptedException {
+		try(final LockFreeResourceDispatcher<String>	rd = new LockFreeResourceDispatcher<>("first")) {
+			Assert.assertFalse(rd.isStarted());
+			Assert.assertFalse(rd.isSuspended());
+
+			try{rd.suspend();
+				Assert.fail("Mandatory exception was not detected (not started)");
+			} catch (IllegalStateException exc) {
+			}
+			rd.start();
+			Assert.assertTrue(rd.isStarted());
+			try{rd.start();
+				Assert.fail("Mandatory exception was not detected (already started)");
+			} catch (IllegalStateException exc) {
+			}
+			rd.suspend();
+			Assert.assertTrue(rd.isSuspended());
+			rd.resume();
+			Assert.assertFalse(rd.isSuspended());
+			try{rd.resume();
+				Assert.fail("Mandatory exception was not detected (not suspended)");
+			} catch (IllegalStateException exc) {
+			}
+			rd.stop();
+			Assert.assertFalse(rd.isStarted());
+			try{rd.stop();
+				Assert.fail("Mandatory exception was not detected (not started)");
+			} catch (IllegalStateException exc) {
+			}
+		}
+	}
+
+	@Test
+	public void contentionTest() throws InterruptedException {
+		contentionTest(false);
+		contentionTest(true);
+	}
+
+	@Test
+	public void waitersTest() throws FlowException, InterruptedException {
+		try(final LockFreeResourceDispatcher<String>	rd = new LockFreeResourceDispatcher<>(true, 0)) {
+			final AtomicReference<Exception>	result = new AtomicReference<>();
+			final CountDownLatch				latch = new CountDownLatch(1);
+
+			rd.registerResource("first");
+			rd.registerResource("second");
+			rd.start();
+
+			final ResourceDispatcherLock	lock = rd.lock("second");
+			final Thread	t = new Thread(()->{
+								try(final ResourceDispatcherLock	waiting = rd.lock("first", "second")) {
+								} catch (Exception exc) {
+									result.set(exc);
+								}
+								latch.countDown();
+							});
+			t.setDaemon(true);
+			t.start();
+
+			while (!rd.isResourceLocked("first")) {
+				Thread.sleep(10);
+			}
+			Thread.sleep(100);
+			Assert.assertEquals(1, latch.getCount());
+			rd.unregisterResource("second");
+			latch.await();
+			Assert.assertTrue(result.get() instanceof FlowException);
+			Assert.assertFalse(rd.isResourceLocked("first"));
+			lock.close();
+
+			final CountDownLatch		stopLatch = new CountDownLatch(1);
+			final ResourceDispatcherLock	firstLock = rd.lock("first");
+			final Thread	t2 = new Thread(()->{
+								try(final ResourceDispatcherLock	waiting = rd.lock("first")) {
+									result.set(null);
+								} catch (Exception exc) {
+									result.set(exc);
+								}
+								stopLatch.countDown();
+							});
+			t2.setDaemon(true);
+			t2.start();
+			while (rd.getStatistics().getContendedRequests() < 2) {
+				Thread.sleep(10);
+			}
+			rd.stop();
+			stopLatch.await();
+			Assert.assertTrue(result.get() instanceof FlowException);
+			firstLock.close();
+		}
+	}
+
+	private static void contentionTest(final boolean fair) throws InterruptedException {
+		final int		threads = 4, iterations = 2000;
+		final String[]	resources = {"r0", "r1", "r2", "r3"};
+		final int[]		counters = new int[resources.length];
+		final AtomicInteger[]	owners = new AtomicInteger[resources.length];
+		final AtomicInteger	violations = new AtomicInteger();
+		final CountDownLatch	latch = new CountDownLatch(threads);
+
+		for (int index = 0; index < owners.length; index++) {
+			owners[index] = new AtomicInteger();
+		}
+		try(final LockFreeResourceDispatcher<String>	rd = new LockFreeResourceDispatcher<>(fair, 16)) {
+			for (String item : resources) {
+				rd.registerResource(item);
+			}
+			rd.start();
+			for (int t = 0; t < threads; t++) {
+				final int	threadIndex = t;
+				final Thread	thread = new Thread(()->{
+										try{for (int index = 0; index < iterations; index++) {
+												final int	first = (threadIndex + index) % resources.length, second = (threadIndex + index + 1) % resources.length;
+
+												// Reverse order for the odd threads to provoke deadlocks in naive implementations
+												try(final ResourceDispatcherLock	lock = threadIndex % 2 == 0 ? rd.lock(resources[first], resources[second]) : rd.lock(resources[second], resources[first])) {
+													if (owners[first].getAndIncrement() != 0 || owners[second].getAndIncrement() != 0) {
+														violations.incrementAndGet();
+													}
+													counters[first]++;
+													counters[second]++;
+													owners[first].decrementAndGet();
+													owners[second].decrementAndGet();
+												}
+											}
+										} catch (FlowException | InterruptedException exc) {
+											violations.incrementAndGet();
+										} finally {
+											latch.countDown();
+										}
+									});
+				thread.setDaemon(true);
+				thread.start();
+			}
+			latch.await();
+
+			int	total = 0;
+
+			for (int value : counters) {
+				total += value;
+			}
+			Assert.assertEquals(0, violations.get());
+			Assert.assertEquals(2 * threads * iterations, total);
+			Assert.assertEquals(threads * iterations, rd.getStatistics().getLockRequests());
+			for (String item : resources) {
+				Assert.assertFalse(rd.isResourceLocked(item));
+			}
+		}
+	}
+}
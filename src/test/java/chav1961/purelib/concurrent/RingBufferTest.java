@@ -0,0 +1,157 @@
+package chav1961.purelib.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.concurrent.RingBuffer.ProducerType;
+import chav1961.purelib.concurrent.RingBuffer.WaitStrategy;
+
+@Tag("OrdinalTestCategory")
+public class RingBufferTest {
+	@Test
+	public void basicTest() throws InterruptedException {
+		try(final RingBuffer<String>	rb = new RingBuffer<>(3)) {
+			Assert.assertEquals(4, rb.capacity());
+			Assert.assertEquals(ProducerType.SINGLE, rb.getProducerType());
+			Assert.assertEquals(WaitStrategy.PARK, rb.getWaitStrategy());
+			Assert.assertEquals(0, rb.size());
+			Assert.assertNull(rb.poll());
+			Assert.assertNull(rb.poll(10, TimeUnit.MILLISECONDS));
+
+			Assert.assertTrue(rb.offer("1"));
+			rb.put("2");
+			rb.put(new String[] {"3", "4"}, 0, 2);
+			Assert.assertEquals(4, rb.size());
+			Assert.assertFalse(rb.offer("5"));
+
+			Assert.assertEquals("1", rb.poll());
+			Assert.assertEquals("2", rb.take());
+
+			final String[]	target = new String[10];
+
+			Assert.assertEquals(2, rb.drainTo(target, 0, target.length));
+			Assert.assertEquals("3", target[0]);
+			Assert.assertEquals("4", target[1]);
+			Assert.assertEquals(0, rb.drainTo(target, 0, target.length));
+
+			rb.put("5");
+			rb.close();
+			Assert.assertTrue(rb.isClosed());
+			try{rb.put("6");
+				Assert.fail("Mandatory exception was not detected (closed buffer)");
+			} catch (IllegalStateException exc) {
+			}
+			Assert.assertEquals(1, rb.take(target, 0, target.length));
+			Assert.assertEquals("5", target[0]);
+			Assert.assertEquals(-1, rb.take(target, 0, target.length));
+			Assert.assertNull(rb.take());
+
+			try{rb.offer(null);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{rb.put(new String[] {"1", null}, 0, 2);
+				Assert.fail("Mandatory exception was not detected (nulls inside)");
+			} catch (NullPointerException exc) {
+			}
+			try{rb.put(new String[] {"1"}, 0, 2);
+				Assert.fail("Mandatory exception was not detected (3-rd argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{rb.drainTo(target, 11, 0);
+				Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{rb.poll(-1, TimeUnit.SECONDS);
+				Assert.fail("Mandatory exception was not detected (1-st argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+		}
+
+		try{new RingBuffer<String>(0);
+			Assert.fail("Mandatory exception was not detected (1-st argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new RingBuffer<String>(10, null, WaitStrategy.SPIN);
+			Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new RingBuffer<String>(10, ProducerType.SINGLE, null);
+			Assert.fail("Mandatory exception was not detected (null 3-rd argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
+
+	@Test
+	public void transferTest() throws InterruptedException {
+		for (WaitStrategy strategy : WaitStrategy.values()) {
+			transfer(ProducerType.SINGLE, strategy, 1);
+			transfer(ProducerType.MULTI, strategy, 3);
+		}
+	}
+
+	private static void transfer(final ProducerType type, final WaitStrategy strategy, final int producers) throws InterruptedException {
+		final int					amount = 5000, batch = 7;
+		final RingBuffer<Integer>	rb = new RingBuffer<>(64, type, strategy);
+		final CountDownLatch		latch = new CountDownLatch(producers);
+		final AtomicInteger			errors = new AtomicInteger();
+
+		for (int p = 0; p < producers; p++) {
+			final int		producer = p;
+			final Thread	t = new Thread(()->{
+								final Integer[]	buffer = new Integer[batch];
+
+								try{for (int index = 0; index < amount; index += batch) {
+										final int	count = Math.min(batch, amount - index);
+
+										for (int item = 0; item < count; item++) {
+											buffer[item] = producer * amount + index + item;
+										}
+										rb.put(buffer, 0, count);
+									}
+								} catch (InterruptedException e) {
+									errors.incrementAndGet();
+								} finally {
+									latch.countDown();
+								}
+							});
+			t.setDaemon(true);
+			t.start();
+		}
+
+		final Thread	closer = new Thread(()->{
+							try{latch.await();
+							} catch (InterruptedException e) {
+								errors.incrementAndGet();
+							} finally {
+								rb.close();
+							}
+						});
+		closer.setDaemon(true);
+		closer.start();
+
+		final int[]		last = new int[producers];
+		final Integer[]	target = new Integer[10];
+		int				total = 0, len;
+
+		for (int index = 0; index < last.length; index++) {
+			last[index] = -1;
+		}
+		while ((len = rb.take(target, 0, target.length)) >= 0) {
+			for (int index = 0; index < len; index++) {
+				final int	producer = target[index] / amount, value = target[index] % amount;
+
+				Assert.assertEquals(last[producer] + 1, value);
+				last[producer] = value;
+			}
+			total += len;
+		}
+		Assert.assertEquals(producers * amount, total);
+		Assert.assertEquals(0, errors.get());
+	}
+}
@@ -0,0 +1,246 @@
+package chav1961.purelib.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.concurrent.StagedPipeline.LatencyHistogram;
+import chav1961.purelib.concurrent.interfaces.RequestProcessor;
+import chav1961.purelib.concurrent.interfaces.StagedFuture;
+
+@Tag("OrdinalTestCategory")
+public class StagedPipelineTest {
+	private static enum Stages {
+		PARSE, UNUSED, MULTIPLY, FORMAT
+	}
+
+	@Test
+	public void basicTest() throws InterruptedException {
+		try(final StagedPipeline<Stages,String,String>	pipe = new StagedPipeline<>(Stages.class)) {
+			try{pipe.start();
+				Assert.fail("Mandatory exception was not detected (no stages configured)");
+			} catch (IllegalStateException exc) {
+			}
+			try{pipe.submit("1");
+				Assert.fail("Mandatory exception was not detected (not started)");
+			} catch (IllegalStateException exc) {
+			}
+
+			pipe.stage(Stages.PARSE, 10, 1, 1, (List<RequestProcessor<String,String>> batch)->batch.get(0).complete(batch.get(0).take()));
+
+			try{pipe.stage(Stages.PARSE, 10, 1, 1, (List<RequestProcessor<String,String>> batch)->{});
+				Assert.fail("Mandatory exception was not detected (stage already configured)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{pipe.stage(null, 10, 1, 1, (List<RequestProcessor<String,String>> batch)->{});
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{pipe.stage(Stages.FORMAT, 0, 1, 1, (List<RequestProcessor<String,String>> batch)->{});
+				Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{pipe.stage(Stages.FORMAT, 10, 0, 1, (List<RequestProcessor<String,String>> batch)->{});
+				Assert.fail("Mandatory exception was not detected (3-rd argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{pipe.stage(Stages.FORMAT, 10, 1, 0, (List<RequestProcessor<String,String>> batch)->{});
+				Assert.fail("Mandatory exception was not detected (4-th argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{pipe.stage(Stages.FORMAT, 10, 1, 1, null);
+				Assert.fail("Mandatory exception was not detected (null 5-th argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{pipe.getLatencyHistogram(Stages.FORMAT);
+				Assert.fail("Mandatory exception was not detected (stage is not configured)");
+			} catch (IllegalArgumentException exc) {
+			}
+
+			pipe.start();
+			Assert.assertTrue(pipe.isStarted());
+			try{pipe.stage(Stages.FORMAT, 10, 1, 1, (List<RequestProcessor<String,String>> batch)->{});
+				Assert.fail("Mandatory exception was not detected (pipeline is started)");
+			} catch (IllegalStateException exc) {
+			}
+			try{pipe.submit(null);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			pipe.suspend();
+			Assert.assertTrue(pipe.isSuspended());
+			try{pipe.submit("1");
+				Assert.fail("Mandatory exception was not detected (pipeline is suspended)");
+			} catch (IllegalStateException exc) {
+			}
+			pipe.resume();
+			pipe.stop();
+			Assert.assertFalse(pipe.isStarted());
+		}
+		try{new StagedPipeline<Stages,String,String>(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
+
+	@Test
+	public void suspendTest() throws InterruptedException, ExecutionException {
+		try(final StagedPipeline<Stages,String,String>	pipe = new StagedPipeline<>(Stages.class)) {
+			pipe.stage(Stages.PARSE, 10, 2, 1, (List<RequestProcessor<String,String>> batch)->batch.get(0).complete(batch.get(0).take()));
+			pipe.start();
+			pipe.suspend();
+			Assert.assertTrue(waitForState(Thread.State.WAITING, 2));		// Suspended workers are parked, not polling
+			pipe.resume();
+			Assert.assertEquals("test", pipe.submit("test").get());
+			pipe.suspend();
+			Assert.assertTrue(waitForState(Thread.State.WAITING, 2));
+			pipe.stop();		// Parked workers must be terminated too
+			Assert.assertFalse(pipe.isStarted());
+		}
+	}
+
+	@Test
+	public void processingTest() throws InterruptedException, ExecutionException {
+		try(final StagedPipeline<Stages,String,String>	pipe = new StagedPipeline<>(Stages.class)) {
+			pipe.stage(Stages.FORMAT, 4, 1, 1, (List<RequestProcessor<Long,String>> batch)->{
+					for (RequestProcessor<Long,String> item : batch) {
+						item.complete("<"+item.take()+">");
+					}
+				})
+				.stage(Stages.PARSE, 4, 2, 8, (List<RequestProcessor<String,Long>> batch)->{
+					for (RequestProcessor<String,Long> item : batch) {
+						if (item.take().isEmpty()) {
+							item.reject();
+						}
+						else {
+							item.complete(Long.valueOf(item.take()));
+						}
+					}
+				})
+				.stage(Stages.MULTIPLY, 4, 3, 4, (List<RequestProcessor<Long,Long>> batch)->{
+					for (RequestProcessor<Long,Long> item : batch) {
+						if (item.take() < 0) {
+							throw new IllegalArgumentException("Negative value");
+						}
+						else if (item.take() != 13) {	// Not completed request will be failed by pipeline
+							item.complete(item.take() * 2);
+						}
+					}
+				});
+			pipe.start();
+
+			final List<StagedFuture<Stages,String>>	futures = new ArrayList<>();
+
+			for (int index = 0; index < 200; index++) {
+				futures.add(pipe.submit(String.valueOf(index)));
+			}
+			for (int index = 0; index < futures.size(); index++) {
+				if (index == 13) {
+					try{futures.get(index).get();
+						Assert.fail("Mandatory exception was not detected (request was not completed)");
+					} catch (ExecutionException exc) {
+						Assert.assertTrue(exc.getCause() instanceof IllegalStateException);
+					}
+				}
+				else {
+					Assert.assertEquals("<"+(2 * index)+">", futures.get(index).get());
+					Assert.assertEquals(Stages.FORMAT, futures.get(index).currentStage());
+				}
+			}
+
+			final StagedFuture<Stages,String>	failed = pipe.submit("-1");
+
+			try{failed.get();
+				Assert.fail("Mandatory exception was not detected (stage failure)");
+			} catch (ExecutionException exc) {
+				Assert.assertTrue(exc.getCause() instanceof IllegalArgumentException);
+			}
+			Assert.assertEquals(Stages.MULTIPLY, failed.currentStage());
+
+			final StagedFuture<Stages,String>	rejected = pipe.submit("");
+
+			Assert.assertNull(rejected.get());
+			Assert.assertTrue(rejected.isCancelled());
+			Assert.assertEquals(Stages.PARSE, rejected.currentStage());
+
+			final LatencyHistogram	hist = pipe.getLatencyHistogram(Stages.MULTIPLY);
+
+			Assert.assertEquals(201, hist.getCount());
+			Assert.assertEquals(199, pipe.getLatencyHistogram(Stages.FORMAT).getCount());
+			Assert.assertTrue(hist.getPercentile(50) <= hist.getPercentile(99));
+			Assert.assertTrue(hist.getPercentile(99) <= hist.getMax());
+			Assert.assertTrue(pipe.getBatchCount(Stages.PARSE) <= 202);
+			Assert.assertEquals(0, pipe.getQueueLength(Stages.PARSE));
+		}
+	}
+
+	@Test
+	public void backpressureTest() throws InterruptedException, ExecutionException {
+		try(final StagedPipeline<Stages,Integer,Integer>	pipe = new StagedPipeline<>(Stages.class)) {
+			final Object	gate = new Object();
+
+			pipe.stage(Stages.PARSE, 2, 1, 1, (List<RequestProcessor<Integer,Integer>> batch)->{
+				synchronized (gate) {
+					batch.get(0).complete(batch.get(0).take());
+				}
+			});
+			pipe.start();
+
+			final List<StagedFuture<Stages,Integer>>	submitted = new ArrayList<>();
+
+			synchronized (gate) {
+				StagedFuture<Stages,Integer>	f;
+
+				while ((f = pipe.trySubmit(submitted.size())) != null) {
+					submitted.add(f);
+				}
+				Assert.assertTrue(submitted.size() >= 2 && submitted.size() <= 3);
+			}
+			for (int index = 0; index < submitted.size(); index++) {
+				Assert.assertEquals(Integer.valueOf(index), submitted.get(index).get());
+			}
+		}
+	}
+
+	@Test
+	public void histogramTest() {
+		final LatencyHistogram	hist = new LatencyHistogram();
+
+		Assert.assertEquals(0, hist.getPercentile(50));
+		for (int index = 1; index <= 1000; index++) {
+			hist.record(index);
+		}
+		Assert.assertEquals(1000, hist.getCount());
+		Assert.assertEquals(500, hist.getMean());
+		Assert.assertEquals(1000, hist.getMax());
+		Assert.assertEquals(511, hist.getPercentile(50));
+		Assert.assertEquals(1000, hist.getPercentile(100));
+		try{hist.getPercentile(101);
+			Assert.fail("Mandatory exception was not detected (1-st argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		hist.reset();
+		Assert.assertEquals(0, hist.getCount());
+	}
+
+	private static boolean waitForState(final Thread.State state, final int amount) throws InterruptedException {
+		for (int attempt = 0; attempt < 100; attempt++) {
+			int	count = 0;
+
+			for (Thread item : Thread.getAllStackTraces().keySet()) {
+				if (item.getName().startsWith("StagedPipeline-") && item.getName().contains("-"+Stages.PARSE+"-") && item.getState() == state) {
+					count++;
+				}
+			}
+			if (count == amount) {
+				return true;
+			}
+			Thread.sleep(50);
+		}
+		return false;
+	}
+}
@@ -170,4 +170,39 @@ public class XByteStreamTest {
 			Assert.assertEquals("ok",t1Ex.getResponse(2000));
 		}
 	}
+
+	@Test
+	public void ringTest() throws IOException, InterruptedException {
+		final byte[]	content = new byte[100000], result = new byte[content.length];
+		final int[]		read = new int[1];
+		
+		for (int index = 0; index < content.length; index++) {
+			content[index] = (byte)index;
+		}
+		
+		try(final XByteStream	xbs = new XByteStream(4, RingBuffer.WaitStrategy.PARK)) {
+			final Thread	t = new Thread(()->{
+									try(final InputStream	is = xbs.createInputStream()) {
+										int	len;
+										
+										while ((len = is.read(result, read[0], Math.min(1000, result.length - read[0]))) > 0) {
+											read[0] += len;
+										}
+									} catch (IOException e) {
+										read[0] = -1;
+									}
+								});
+			t.setDaemon(true);
+			t.start();
+			
+			try(final OutputStream	os = xbs.createOutputStream()) {
+				for (int index = 0; index < content.length; index += 333) {
+					os.write(content, index, Math.min(333, content.length - index));
+				}
+			}
+			t.join();
+		}
+		Assert.assertEquals(content.length, read[0]);
+		Assert.assertArrayEquals(content, result);
+	}
 }
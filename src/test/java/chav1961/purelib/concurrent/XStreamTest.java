@@ -5,12 +5,10 @@ import java.io.Reader;
 import java.io.Writer;
 
 import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import org.junit.experimental.categories.Category;
 
-import chav1961.purelib.testing.OrdinalTestCategory;
-
-@Category(OrdinalTestCategory.class)
+@Tag("OrdinalTestCategory")
 public class XStreamTest {
 	private boolean			readErrorsDetected;
 	
@@ -45,4 +43,42 @@ public class XStreamTest {
 			Assert.fail("Error in the reader!");
 		}
 	}
+
+	@Test
+	public void ringTest() throws IOException, InterruptedException {
+		final StringBuilder	sb = new StringBuilder();
+		final Thread		t;
+		
+		readErrorsDetected = false;
+		try(final XStream	xs = new XStream(4, RingBuffer.WaitStrategy.YIELD);
+			final Writer	wr = xs.getWriter()) {
+
+			t = new Thread(()->{
+					try(final Reader	rdr = xs.getReader()) {
+						final char[]	buffer = new char[100];
+						int				len;
+						
+						while ((len = rdr.read(buffer)) > 0) {
+							sb.append(buffer, 0, len);
+						}
+					} catch (IOException e) {
+						readErrorsDetected  = true;
+					}
+				});
+			t.setDaemon(true);
+			t.start();
+			for (int index = 0; index < 1000; index++) {
+				wr.write("test string "+index+"\n");
+			}
+		}
+		t.join();
+		if (readErrorsDetected) {
+			Assert.fail("Error in the reader!");
+		}
+		
+		final String[]	lines = sb.toString().split("\n");
+		
+		Assert.assertEquals(1000, lines.length);
+		Assert.assertEquals("test string 999", lines[999]);
+	}
 }
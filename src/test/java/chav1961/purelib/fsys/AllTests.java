@@ -4,8 +4,8 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectClasses({ FileSystemClassLoaderTest.class, FileSystemFactoryTest.class, FileSystemTest.class,
-		FileSystemURLConnectionTest.class })
+@SelectClasses({ FileSystemClassLoaderTest.class, FileSystemFactoryTest.class, FileSystemInMemoryTest.class, FileSystemOnDedupStoreTest.class, FileSystemTest.class,
+		FileSystemURLConnectionTest.class, FileSystemWithCacheTest.class })
 public class AllTests {
 
 }
@@ -17,6 +17,7 @@ import chav1961.purelib.basic.exceptions.EnvironmentException;
 import chav1961.purelib.fsys.interfaces.FileSystemInterface;
 import chav1961.purelib.fsys.interfaces.FileSystemInterfaceDescriptor;
 import chav1961.purelib.fsys.internal.FileSystemInMemory;
+import chav1961.purelib.fsys.internal.FileSystemOnDedupStore;
 import chav1961.purelib.fsys.internal.FileSystemOnFile;
 import chav1961.purelib.fsys.internal.FileSystemOnFileSystem;
 import chav1961.purelib.fsys.internal.FileSystemOnRMI;
@@ -75,11 +76,12 @@ public class FileSystemFactoryTest {
 		for (FileSystemInterface item : ServiceLoader.load(FileSystemInterface.class)) {
 			providers.add((Class<FileSystemInterface>)item.getClass());
 		}
-		Assert.assertEquals(5,providers.size());
+		Assert.assertEquals(6,providers.size());
 		Assert.assertTrue(providers.contains(FileSystemOnFile.class));
 		Assert.assertTrue(providers.contains(FileSystemOnFileSystem.class));
 		Assert.assertTrue(providers.contains(FileSystemOnXMLReadOnly.class));
 		Assert.assertTrue(providers.contains(FileSystemOnRMI.class));
 		Assert.assertTrue(providers.contains(FileSystemInMemory.class));
+		Assert.assertTrue(providers.contains(FileSystemOnDedupStore.class));
 	}
 }
@@ -0,0 +1,170 @@
+package chav1961.purelib.fsys;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.EnvironmentException;
+import chav1961.purelib.fsys.interfaces.FileSystemInterface;
+import chav1961.purelib.fsys.internal.FileSystemInMemory;
+
+@Tag("OrdinalTestCategory")
+public class FileSystemInMemoryTest {
+	@Test
+	public void chunkTest() throws IOException {
+		for (boolean offHeap : new boolean[] {false, true}) {
+			try(final FileSystemInterface	fs = new FileSystemInMemory(URI.create("/"), 64, offHeap)) {
+				final byte[]	content = new byte[1000];
+
+				for (int index = 0; index < content.length; index++) {
+					content[index] = (byte)index;
+				}
+				fs.open("/dir/file.bin").create();
+				Assert.assertTrue(fs.open("/dir").isDirectory());
+
+				try(final OutputStream	os = fs.open("/dir/file.bin").write()) {
+					os.write(content, 0, 10);
+					os.write(content[10]);
+					os.write(content, 11, content.length - 11);
+				}
+				Assert.assertEquals(content.length, fs.open("/dir/file.bin").size());
+				Assert.assertArrayEquals(content, read(fs, "/dir/file.bin"));
+
+				try(final OutputStream	os = fs.open("/dir/file.bin").append().write()) {
+					for (int index = 0; index < 10; index++) {
+						os.write(content, 0, 100);
+					}
+				}
+				final byte[]	appended = read(fs, "/dir/file.bin");
+
+				Assert.assertEquals(2 * content.length, appended.length);
+				Assert.assertArrayEquals(content, Arrays.copyOfRange(appended, 0, content.length));
+				Assert.assertArrayEquals(Arrays.copyOfRange(content, 0, 100), Arrays.copyOfRange(appended, 1900, 2000));
+
+				try(final InputStream	is = fs.open("/dir/file.bin").read()) {
+					Assert.assertEquals(100, is.skip(100));
+					Assert.assertEquals(100, is.read());
+					Assert.assertEquals(1899, is.available());
+				}
+
+				try(final OutputStream	os = fs.open("/dir/file.bin").write()) {
+					os.write(content, 0, 5);
+				}
+				Assert.assertArrayEquals(Arrays.copyOfRange(content, 0, 5), read(fs, "/dir/file.bin"));
+			}
+		}
+
+		try{new FileSystemInMemory(URI.create("/"), 0, false);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void snapshotTest() throws IOException {
+		try(final FileSystemInterface	fs = new FileSystemInMemory(URI.create("/"), 64, false)) {
+			fs.open("/file.txt").create();
+			try(final OutputStream	os = fs.open("/file.txt").write()) {
+				os.write("before".getBytes());
+			}
+
+			try(final InputStream	is = fs.open("/file.txt").read()) {
+				try(final OutputStream	os = fs.open("/file.txt").append().write()) {
+					os.write(" and after".getBytes());
+				}
+				Assert.assertEquals("before", new String(is.readAllBytes()));
+			}
+			Assert.assertEquals("before and after", new String(read(fs, "/file.txt")));
+
+			try(final InputStream	is = fs.open("/file.txt").read();
+				final OutputStream	os = fs.open("/file.txt").write()) {
+				os.write("new".getBytes());
+				Assert.assertEquals("before and after", new String(read(fs, "/file.txt")));	// Not published until close
+				os.close();
+				Assert.assertEquals("before and after", new String(is.readAllBytes()));
+			}
+			Assert.assertEquals("new", new String(read(fs, "/file.txt")));
+
+			fs.open("/file.txt").rename("renamed.txt");
+			Assert.assertFalse(fs.open("/file.txt").exists());
+			Assert.assertEquals("new", new String(read(fs, "/renamed.txt")));
+			Assert.assertEquals(1, fs.open("/").list().length);
+
+			try{fs.open("/unknown.txt").read();
+				Assert.fail("Mandatory exception was not detected (file not exists)");
+			} catch (IOException exc) {
+			}
+			try{fs.open("/").read();
+				Assert.fail("Mandatory exception was not detected (directory can't be read)");
+			} catch (IOException exc) {
+			}
+		}
+	}
+
+	@Test
+	public void concurrentTest() throws IOException, InterruptedException {
+		try(final FileSystemInterface	fs = new FileSystemInMemory(URI.create("/"), 128, false)) {
+			final AtomicReference<Throwable>	error = new AtomicReference<>();
+			final Thread[]						threads = new Thread[8];
+
+			for (int index = 0; index < threads.length; index++) {
+				final int	number = index;
+
+				threads[index] = new Thread(()->{
+					try(final FileSystemInterface	clone = fs.clone()) {
+						for (int file = 0; file < 20; file++) {
+							clone.open("/dir"+number+"/file"+file+".txt").create();
+							try(final OutputStream	os = clone.open("/dir"+number+"/file"+file+".txt").append().write()) {
+								for (int line = 0; line < 50; line++) {
+									os.write(("line"+line+"\n").getBytes());
+								}
+							}
+						}
+					} catch (Throwable exc) {
+						error.compareAndSet(null, exc);
+					}
+				});
+				threads[index].start();
+			}
+			for (Thread item : threads) {
+				item.join();
+			}
+			Assert.assertNull(error.get());
+			Assert.assertEquals(threads.length, fs.open("/").list().length);
+			for (int index = 0; index < threads.length; index++) {
+				Assert.assertEquals(20, fs.open("/dir"+index).list().length);
+				Assert.assertTrue(new String(read(fs, "/dir"+index+"/file19.txt")).endsWith("line49\n"));
+			}
+		}
+	}
+
+	@Test
+	public void uriTest() throws IOException, EnvironmentException {
+		try(final FileSystemInterface	fs = new FileSystemInMemory().newInstance(URI.create("fsys:memory:/?chunkSize=128&offHeap=true"))) {
+			fs.open("/file.txt").create();
+			try(final OutputStream	os = fs.open("/file.txt").write()) {
+				os.write(new byte[1000]);
+			}
+			Assert.assertEquals(1000, fs.open("/file.txt").size());
+		}
+
+		try{new FileSystemInMemory().newInstance(URI.create("fsys:memory:/?chunkSize=unknown"));
+			Assert.fail("Mandatory exception was not detected (invalid query)");
+		} catch (EnvironmentException exc) {
+		}
+	}
+
+	private static byte[] read(final FileSystemInterface fs, final String path) throws IOException {
+		try(final FileSystemInterface	item = fs.clone().open(path);
+			final InputStream			is = item.read()) {
+			return is.readAllBytes();
+		}
+	}
+}
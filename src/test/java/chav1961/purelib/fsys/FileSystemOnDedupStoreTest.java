@@ -0,0 +1,229 @@
+package chav1961.purelib.fsys;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.exceptions.EnvironmentException;
+import chav1961.purelib.fsys.interfaces.FileSystemInterface;
+import chav1961.purelib.fsys.internal.FileSystemOnDedupStore;
+
+@Tag("OrdinalTestCategory")
+public class FileSystemOnDedupStoreTest {
+	private File	storeDir;
+
+	@BeforeEach
+	public void prepare() throws IOException {
+		storeDir = Files.createTempDirectory("dedupStore").toFile();
+	}
+
+	@AfterEach
+	public void unprepare() {
+		Utils.deleteDir(storeDir);
+	}
+
+	@Test
+	public void deduplicationTest() throws IOException {
+		final byte[]	random = new byte[10000], text = new byte[10000];
+
+		new Random(1).nextBytes(random);
+		for (int index = 0; index < text.length; index++) {
+			text[index] = (byte)('a' + index % 7);
+		}
+
+		try(final FileSystemOnDedupStore	fs = new FileSystemOnDedupStore(storeDir, 1024, true)) {
+			write(fs, "/dir/first.bin", random);
+			Assert.assertEquals(10, fs.getBlockCount());
+			write(fs, "/dir/second.bin", random);
+			Assert.assertEquals(10, fs.getBlockCount());
+			Assert.assertArrayEquals(random, read(fs, "/dir/second.bin"));
+
+			write(fs, "/text.txt", text);
+			Assert.assertArrayEquals(text, read(fs, "/text.txt"));
+			Assert.assertTrue(storeSize(new File(storeDir, "blocks")) < random.length + text.length / 2);	// Random blocks are stored once, text is compressed
+
+			try(final OutputStream	os = fs.open("/dir/second.bin").append().write()) {
+				os.write(text, 0, 500);
+			}
+			final byte[]	appended = read(fs, "/dir/second.bin");
+
+			Assert.assertEquals(10500, appended.length);
+			Assert.assertArrayEquals(random, Arrays.copyOfRange(appended, 0, random.length));
+			Assert.assertArrayEquals(Arrays.copyOfRange(text, 0, 500), Arrays.copyOfRange(appended, random.length, appended.length));
+
+			try(final InputStream	is = fs.open("/dir/second.bin").read()) {
+				Assert.assertEquals(9000, is.skip(9000));
+				Assert.assertEquals(random[9000] & 0xFF, is.read());
+			}
+
+			fs.open("/dir/first.bin").delete();
+			fs.open("/dir/second.bin").delete();
+			Assert.assertArrayEquals(text, read(fs, "/text.txt"));
+			Assert.assertEquals(1, fs.open("/").list().length - 1);		// "/dir" and "/text.txt"
+
+			try{fs.open("/").delete();
+				Assert.fail("Mandatory exception was not detected (root can't be deleted)");
+			} catch (IOException exc) {
+			}
+		}
+
+		try{new FileSystemOnDedupStore(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new FileSystemOnDedupStore(storeDir, 1, true);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new FileSystemOnDedupStore(new File(storeDir, "index"));
+			Assert.fail("Mandatory exception was not detected (1-st argument is not a directory)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void persistenceTest() throws IOException, EnvironmentException {
+		final byte[]	content = new byte[5000];
+
+		new Random(2).nextBytes(content);
+		try(final FileSystemInterface	fs = new FileSystemOnDedupStore().newInstance(URI.create("fsys:dedup:"+storeDir.toURI().getPath()+"?blockSize=2048&compress=false"))) {
+			write(fs, "/a/b/c.bin", content);
+			write(fs, "/a/b/d.bin", content);
+			fs.open("/a/b").rename("e");
+		}
+
+		try(final FileSystemOnDedupStore	fs = new FileSystemOnDedupStore(storeDir)) {
+			Assert.assertEquals(3, fs.getBlockCount());
+			Assert.assertFalse(fs.open("/a/b").exists());
+			Assert.assertTrue(fs.open("/a/e").isDirectory());
+			Assert.assertEquals(2, fs.open("/a/e").list().length);
+			Assert.assertArrayEquals(content, read(fs, "/a/e/c.bin"));
+
+			try(final InputStream	is = fs.open("/a/e/c.bin").read()) {
+				fs.open("/a/e/c.bin").delete();
+				fs.open("/a/e/d.bin").delete();
+				Assert.assertArrayEquals(content, is.readAllBytes());	// Blocks are pinned by the stream
+			}
+			Assert.assertEquals(0, fs.getBlockCount());
+		}
+	}
+
+	@Test
+	public void concurrentTest() throws IOException, InterruptedException {
+		final byte[]	content = new byte[8192];
+
+		new Random(3).nextBytes(content);
+		try(final FileSystemOnDedupStore	fs = new FileSystemOnDedupStore(storeDir, 1024, true)) {
+			final AtomicReference<Throwable>	error = new AtomicReference<>();
+			final Thread[]						threads = new Thread[8];
+
+			for (int index = 0; index < threads.length; index++) {
+				final int	number = index;
+
+				threads[index] = new Thread(()->{
+					try{for (int file = 0; file < 10; file++) {
+							write(fs, "/dir"+number+"/file"+file+".bin", content);
+						}
+					} catch (Throwable exc) {
+						error.compareAndSet(null, exc);
+					}
+				});
+				threads[index].start();
+			}
+			for (Thread item : threads) {
+				item.join();
+			}
+			Assert.assertNull(error.get());
+			Assert.assertEquals(8, fs.getBlockCount());		// The same content is stored once
+			for (int index = 0; index < threads.length; index++) {
+				Assert.assertArrayEquals(content, read(fs, "/dir"+index+"/file9.bin"));
+			}
+			Assert.assertEquals(8, countFiles(new File(storeDir, "blocks")));	// No temporary files remain
+		}
+	}
+
+	@Test
+	public void failedSaveTest() throws IOException {
+		final byte[]	content = new byte[5000], another = new byte[5000];
+		final File		blocker = new File(storeDir, "index.tmp");
+
+		new Random(4).nextBytes(content);
+		new Random(5).nextBytes(another);
+		try(final FileSystemOnDedupStore	fs = new FileSystemOnDedupStore(storeDir, 2048, false)) {
+			write(fs, "/file.bin", content);
+			Assert.assertTrue(blocker.mkdir());		// Index can't be saved now
+
+			try{write(fs, "/file.bin", another);
+				Assert.fail("Mandatory exception was not detected (index can't be saved)");
+			} catch (IOException exc) {
+			}
+			try{fs.open("/file.bin").delete();
+				Assert.fail("Mandatory exception was not detected (index can't be saved)");
+			} catch (IOException exc) {
+			}
+			Assert.assertEquals(3, fs.getBlockCount());
+			Assert.assertArrayEquals(content, read(fs, "/file.bin"));
+			Assert.assertTrue(blocker.delete());
+		}
+
+		final File	orphanDir = new File(new File(storeDir, "blocks"), "ff");
+
+		orphanDir.mkdirs();
+		Assert.assertTrue(new File(orphanDir, "ff00").createNewFile());			// Block is not released due to crash
+		Assert.assertTrue(new File(orphanDir, "ff01.tmp").createNewFile());		// Block is not published due to crash
+
+		try(final FileSystemOnDedupStore	fs = new FileSystemOnDedupStore(storeDir)) {
+			Assert.assertEquals(3, countFiles(new File(storeDir, "blocks")));
+			Assert.assertArrayEquals(content, read(fs, "/file.bin"));
+		}
+	}
+
+	private static void write(final FileSystemInterface fs, final String path, final byte[] content) throws IOException {
+		try(final FileSystemInterface	item = fs.clone().open(path)) {
+			if (!item.exists()) {
+				item.create();
+			}
+			try(final OutputStream	os = item.write()) {
+				os.write(content);
+			}
+		}
+	}
+
+	private static byte[] read(final FileSystemInterface fs, final String path) throws IOException {
+		try(final FileSystemInterface	item = fs.clone().open(path);
+			final InputStream			is = item.read()) {
+			return is.readAllBytes();
+		}
+	}
+
+	private static int countFiles(final File dir) {
+		int	count = 0;
+
+		for (File item : dir.listFiles()) {
+			count += item.isDirectory() ? countFiles(item) : 1;
+		}
+		return count;
+	}
+
+	private static long storeSize(final File dir) {
+		long	size = 0;
+
+		for (File item : dir.listFiles()) {
+			size += item.isDirectory() ? storeSize(item) : item.length();
+		}
+		return size;
+	}
+}
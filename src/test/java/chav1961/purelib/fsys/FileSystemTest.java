@@ -1,6 +1,7 @@
 package chav1961.purelib.fsys;
 
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 
 import java.io.File;
@@ -8,18 +9,29 @@ import java.io.FileFilter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.rmi.registry.Registry;
 import java.rmi.server.ExportException;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.jar.JarOutputStream;
+import java.util.regex.Pattern;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
@@ -28,9 +40,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 
 import chav1961.purelib.basic.Utils;
+import chav1961.purelib.basic.interfaces.ProgressIndicator;
+import chav1961.purelib.fsys.interfaces.DataWrapperInterface;
 import chav1961.purelib.fsys.interfaces.FileSystemInterface;
 import chav1961.purelib.fsys.internal.FileSystemInMemory;
 import chav1961.purelib.fsys.internal.FileSystemOnClassLoader;
+import chav1961.purelib.fsys.internal.FileSystemOnDedupStore;
 import chav1961.purelib.fsys.internal.FileSystemOnFile;
 import chav1961.purelib.fsys.internal.FileSystemOnFileSystem;
 import chav1961.purelib.fsys.internal.FileSystemOnRMI;
@@ -195,6 +210,11 @@ public class FileSystemTest {
 		try(final FileSystemInterface	fs = new FileSystemInMemory(URI.create("/"))) {
 			test(fs,false);
 		}
+
+		// test file system on deduplicating store
+		try(final FileSystemInterface	fs = new FileSystemOnDedupStore(new File("./src/test/resources/chav1961/purelib/fsys/fsTest/dedupStore"))) {
+			test(fs,false);
+		}
 		
 		// Test RMI connection to the file system
 		try{java.rmi.registry.LocateRegistry.createRegistry(Registry.REGISTRY_PORT);	// Start RMI registry
@@ -209,6 +229,71 @@ public class FileSystemTest {
 		
 	}
 
+	@Test
+	public void channelTest() throws Exception {
+		try(final FileSystemInterface	fs = new FileSystemOnFile(new File("./src/test/resources/chav1961/purelib/fsys/fsTest/").toURI())) {
+			channelTest(fs,true);
+		}
+		try(final FileSystemInterface	fs = new FileSystemInMemory(URI.create("/"))) {
+			channelTest(fs,false);
+		}
+	}
+
+	@Test
+	public void unknownSizeChannelTest() throws Exception {
+		final byte[]				content = new byte[3 * ChunkedByteChannel.CHUNK_SIZE + 17];
+		final DataWrapperInterface	wrapper = new DataWrapperInterface() {
+										@Override public OutputStream getOutputStream(boolean append) throws IOException {throw new IOException();}
+										@Override public InputStream getInputStream() throws IOException {return new ByteArrayInputStream(content);}
+										@Override public URI[] list(Pattern pattern) throws IOException {return new URI[0];}
+										@Override public void mkDir() throws IOException {}
+										@Override public void create() throws IOException {}
+										@Override public void delete() throws IOException {}
+										@Override public Map<String, Object> getAttributes() throws IOException {return Utils.mkMap(ATTR_EXIST, true, ATTR_DIR, false, ATTR_NAME, "file");}
+										@Override public void linkAttributes(Map<String, Object> attributes) throws IOException {}
+										@Override public void setName(String name) throws IOException {}
+										@Override public boolean tryLock(String path, boolean sharedMode) throws IOException {return true;}
+										@Override public void lock(String path, boolean sharedMode) throws IOException {}
+										@Override public void unlock(String path, boolean sharedMode) throws IOException {}
+									};
+
+		Arrays.fill(content, (byte)1);
+		try(final SeekableByteChannel	channel = ChunkedByteChannel.open(wrapper, Set.of(StandardOpenOption.READ))) {
+			final ByteBuffer	buffer = ByteBuffer.allocate(1000);
+			long				total = 0;
+			int					read;
+
+			Assert.assertTrue(channel instanceof ChunkedByteChannel);
+			while ((read = channel.read(buffer)) > 0) {
+				total += read;
+				buffer.clear();
+			}
+			Assert.assertEquals(content.length, total);
+			Assert.assertEquals(content.length, channel.size());
+		}
+		try(final SeekableByteChannel	channel = ChunkedByteChannel.open(wrapper, Set.of(StandardOpenOption.READ))) {
+			Assert.assertEquals(content.length, channel.size());
+		}
+	}
+
+	@Test
+	public void parallelTreeTest() throws Exception {
+		try(final FileSystemInterface	fs = new FileSystemOnFile(new File("./src/test/resources/chav1961/purelib/fsys/fsTest/").toURI())) {
+			parallelTreeTest(fs);
+		}
+		try(final FileSystemInterface	fs = new FileSystemInMemory(URI.create("/"))) {
+			parallelTreeTest(fs);
+		}
+		try(final FileSystemInterface	from = new FileSystemInMemory(URI.create("/"));
+			final FileSystemInterface	to = new FileSystemOnFile(new File("./src/test/resources/chav1961/purelib/fsys/fsTest/").toURI())) {
+			
+			fillTree(from.open("/"), 10);
+			from.open("/").move(to.open("/"), 2, ProgressIndicator.DUMMY);
+			Assert.assertEquals(0, from.open("/").list().length);
+			checkTree(to.open("/"), 10);
+		}
+	}
+
 	@Test
 	public void joinTest() throws Exception {
 		try(final FileSystemInterface	fs = new FileSystemOnFile(new File("./src/test/resources/chav1961/purelib/fsys/fsTest/").toURI())) {
@@ -239,6 +324,178 @@ public class FileSystemTest {
 	}
 	
 	
+	private void parallelTreeTest(final FileSystemInterface fs) throws Exception {
+		final long[]	processed = new long[2];
+		final ProgressIndicator	pi = new ProgressIndicator() {
+									@Override public void start(String caption, long total) {processed[0] = total;}
+									@Override public void start(String caption) {}
+									@Override public boolean processed(long value) {processed[1] = Math.max(processed[1], value); return true;}
+									@Override public void end() {}
+								};
+		
+		fs.open("/src").mkDir();
+		fs.open("/copy").mkDir();
+		fs.open("/move").mkDir();
+		fillTree(fs.open("/src"), 30);
+		
+		try(final FileSystemInterface	target = fs.clone()) {
+			fs.open("/src").copy(target.open("/copy"), 3, pi);
+			checkTree(target.open("/copy"), 30);
+			Assert.assertTrue(processed[0] > 0);
+			Assert.assertEquals(processed[0], processed[1]);
+			
+			fs.open("/src/dir0/file0.txt").copy(target.open("/"), 3, ProgressIndicator.DUMMY);
+			Assert.assertTrue(target.open("/file0.txt").isFile());
+			Assert.assertEquals(fs.open("/src/dir0/file0.txt").size(), target.size());
+			
+			fs.open("/src").move(target.open("/move"), 3, ProgressIndicator.DUMMY);
+			Assert.assertFalse(fs.open("/src").exists());
+			checkTree(target.open("/move"), 30);
+			
+			fs.open("/copy").deleteAll(3, pi);
+			Assert.assertFalse(fs.open("/copy").exists());
+			
+			try{fs.open("/move").copy(target.open("/copy2").mkDir(), 1, new ProgressIndicator() {
+									@Override public void start(String caption, long total) {}
+									@Override public void start(String caption) {}
+									@Override public boolean processed(long value) {return false;}
+									@Override public void end() {}
+								});
+				Assert.fail("Mandatory exception was not detected (interrupted by progress indicator)");
+			} catch (InterruptedIOException exc) {
+			}
+
+			try{fs.open("/move").copy(null, 1, ProgressIndicator.DUMMY);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{fs.open("/move").copy(target, 0, ProgressIndicator.DUMMY);
+				Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{fs.open("/move").move(target, 1, null);
+				Assert.fail("Mandatory exception was not detected (null 3-rd argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{fs.open("/move").deleteAll(0, ProgressIndicator.DUMMY);
+				Assert.fail("Mandatory exception was not detected (1-st argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+		}
+		fs.open("/move").deleteAll(2, ProgressIndicator.DUMMY);
+		Assert.assertFalse(fs.open("/move").exists());
+		
+		final long	size = fs.open("/file0.txt").size();
+		
+		fs.open("/other").mkDir();
+		try(final OutputStream	os = fs.open("/other/file0.txt").create().write()) {
+			os.write("existent content".getBytes());
+		}
+		fs.open("/file0.txt").move(fs.clone().open("/other"), 2, ProgressIndicator.DUMMY);
+		Assert.assertFalse(fs.open("/file0.txt").exists());
+		Assert.assertEquals(size, fs.open("/other/file0.txt").size());
+		fs.open("/other").deleteAll(2, ProgressIndicator.DUMMY);
+	}
+
+	private static void fillTree(final FileSystemInterface fs, final int amount) throws IOException {
+		final String	root = fs.getPath().endsWith("/") ? fs.getPath() : fs.getPath() + '/';
+		
+		try(final FileSystemInterface	fsi = fs.clone()) {
+			for (int index = 0; index < amount; index++) {
+				final String	dir = root + "dir" + (index % 3) + (index % 2 == 0 ? "" : "/sub");
+				
+				fsi.open(dir).mkDir();
+				try(final OutputStream	os = fsi.open(dir + "/file" + index + ".txt").create().write()) {
+					for (int count = 0; count <= index; count++) {
+						os.write(("line "+count+"\n").getBytes());
+					}
+				}
+			}
+		}
+	}
+
+	private static void checkTree(final FileSystemInterface fs, final int amount) throws IOException {
+		final String	root = fs.getPath().endsWith("/") ? fs.getPath() : fs.getPath() + '/';
+		
+		try(final FileSystemInterface	fsi = fs.clone()) {
+			for (int index = 0; index < amount; index++) {
+				final ByteArrayOutputStream	baos = new ByteArrayOutputStream();
+				
+				fsi.open(root + "dir" + (index % 3) + (index % 2 == 0 ? "" : "/sub") + "/file" + index + ".txt").copy(baos);
+				Assert.assertEquals("line "+index+"\n", baos.toString().substring(baos.toString().lastIndexOf("line")));
+			}
+		}
+	}
+
+	private void channelTest(final FileSystemInterface fs, final boolean nativeChannel) throws Exception {
+		final byte[]	content = new byte[3 * ChunkedByteChannel.CHUNK_SIZE + 100];
+		final byte[]	read = new byte[content.length];
+		
+		for (int index = 0; index < content.length; index++) {
+			content[index] = (byte)(index % 251);
+		}
+		try{fs.open("/channel.bin").channel(Set.of(StandardOpenOption.READ));
+			Assert.fail("Mandatory exception was not detected (file is not exists)");
+		} catch (NoSuchFileException exc) {
+		}
+
+		try(final SeekableByteChannel	sbc = fs.open("/channel.bin").channel(Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))) {
+			Assert.assertEquals(nativeChannel, sbc instanceof FileChannel);
+			Assert.assertEquals(content.length, sbc.write(ByteBuffer.wrap(content)));
+			Assert.assertEquals(content.length, sbc.size());
+		}
+		Assert.assertEquals(content.length, fs.open("/channel.bin").size());
+		try{fs.open("/channel.bin").channel(Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW));
+			Assert.fail("Mandatory exception was not detected (file already exists)");
+		} catch (FileAlreadyExistsException exc) {
+		}
+
+		try(final SeekableByteChannel	sbc = fs.open("/channel.bin").channel(Set.of(StandardOpenOption.READ))) {
+			final ByteBuffer	bb = ByteBuffer.allocate(10);
+			
+			Assert.assertEquals(content.length, sbc.size());
+			sbc.position(2 * ChunkedByteChannel.CHUNK_SIZE + 5);
+			Assert.assertEquals(10, sbc.read(bb));
+			Assert.assertArrayEquals(Arrays.copyOfRange(content, 2 * ChunkedByteChannel.CHUNK_SIZE + 5, 2 * ChunkedByteChannel.CHUNK_SIZE + 15), bb.array());
+			
+			bb.clear();
+			sbc.position(3);
+			Assert.assertEquals(10, sbc.read(bb));
+			Assert.assertArrayEquals(Arrays.copyOfRange(content, 3, 13), bb.array());
+			
+			sbc.position(content.length);
+			bb.clear();
+			Assert.assertEquals(-1, sbc.read(bb));
+			try{sbc.write(ByteBuffer.wrap(content));
+				Assert.fail("Mandatory exception was not detected (read-only channel)");
+			} catch (NonWritableChannelException exc) {
+			}
+			sbc.position(0);
+			Assert.assertEquals(content.length, Channels.newInputStream(sbc).readAllBytes().length);
+		}
+
+		try(final SeekableByteChannel	sbc = fs.open("/channel.bin").channel(Set.of(StandardOpenOption.READ, StandardOpenOption.WRITE))) {
+			sbc.position(ChunkedByteChannel.CHUNK_SIZE - 2);
+			sbc.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}));
+			sbc.truncate(content.length - 50);
+		}
+		System.arraycopy(new byte[] {1, 2, 3, 4}, 0, content, ChunkedByteChannel.CHUNK_SIZE - 2, 4);
+		try(final SeekableByteChannel	sbc = fs.open("/channel.bin").channel(Set.of(StandardOpenOption.READ))) {
+			final ByteBuffer	bb = ByteBuffer.wrap(read);
+			
+			while (sbc.read(bb) > 0) {
+			}
+			Assert.assertEquals(content.length - 50, bb.position());
+			Assert.assertArrayEquals(Arrays.copyOf(content, content.length - 50), Arrays.copyOf(read, content.length - 50));
+		}
+
+		try(final SeekableByteChannel	sbc = fs.open("/channel.bin").channel(Set.of(StandardOpenOption.APPEND))) {
+			sbc.write(ByteBuffer.wrap(new byte[] {5, 6}));
+		}
+		Assert.assertEquals(content.length - 48, fs.open("/channel.bin").size());
+		fs.open("/channel.bin").delete();
+	}
+	
 	private void test(final FileSystemInterface fs, boolean testMetadata) throws Exception {
 		int	count;
 		
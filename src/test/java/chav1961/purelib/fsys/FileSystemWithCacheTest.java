@@ -0,0 +1,181 @@
+package chav1961.purelib.fsys;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.Utils;
+import chav1961.purelib.fsys.interfaces.FileSystemInterface;
+import chav1961.purelib.fsys.internal.FileSystemInMemory;
+
+@Tag("OrdinalTestCategory")
+public class FileSystemWithCacheTest {
+	@Test
+	public void basicTest() throws IOException {
+		final AbstractFileSystem	nested = new FileSystemInMemory(URI.create("/"));
+
+		nested.open("/a").mkDir();
+		write(nested, "/a/x.txt", "v1");
+
+		try(final FileSystemWithCache	fs = new FileSystemWithCache(nested, 60_000, 100, 1024)) {
+			Assert.assertEquals("v1", read(fs, "/a/x.txt"));
+			Assert.assertEquals(1, fs.open("/a").list().length);
+
+			final long	hits = fs.getHitCount();
+
+			write(nested, "/a/x.txt", "v2");
+			nested.open("/a/y.txt").create();
+			Assert.assertEquals("v1", read(fs, "/a/x.txt"));
+			Assert.assertEquals(1, fs.open("/a").list().length);
+			Assert.assertTrue(fs.getHitCount() > hits);
+
+			fs.open("/a");
+			fs.invalidate();
+			Assert.assertEquals("v2", read(fs, "/a/x.txt"));
+			Assert.assertEquals(2, fs.open("/a").list().length);
+
+			write(fs, "/a/x.txt", "v3");
+			Assert.assertEquals("v3", read(nested, "/a/x.txt"));
+			Assert.assertEquals("v3", read(fs, "/a/x.txt"));
+
+			fs.open("/a/z.txt").create();
+			Assert.assertEquals(3, fs.open("/a").list().length);
+			fs.open("/a/z.txt").rename("w.txt");
+			Assert.assertTrue(fs.open("/a/w.txt").exists());
+			Assert.assertFalse(fs.open("/a/z.txt").exists());
+			fs.open("/a/w.txt").delete();
+			Assert.assertFalse(fs.open("/a/w.txt").exists());
+			Assert.assertEquals(2, fs.open("/a").list().length);
+
+			write(nested, "/a/x.txt", "v4");
+			fs.invalidateAll();
+			Assert.assertEquals("v4", read(fs, "/a/x.txt"));
+		}
+
+		try{new FileSystemWithCache(null, 1, 1, 1);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new FileSystemWithCache(nested, 0, 1, 1);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new FileSystemWithCache(nested, 1, 0, 1);
+			Assert.fail("Mandatory exception was not detected (3-rd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new FileSystemWithCache(nested, 1, 1, -1);
+			Assert.fail("Mandatory exception was not detected (4-th argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new FileSystemWithCache(nested, 1, 1, 1, new File("./unknown/directory"), 1);
+			Assert.fail("Mandatory exception was not detected (5-th argument is not a directory)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void expirationAndEvictionTest() throws IOException, InterruptedException {
+		final AbstractFileSystem	nested = new FileSystemInMemory(URI.create("/"));
+
+		for (int index = 0; index < 5; index++) {
+			write(nested, "/f"+index+".txt", "old content"+index);
+		}
+
+		try(final FileSystemWithCache	fs = new FileSystemWithCache(nested, 100, 100, 4 * 12)) {
+			Assert.assertEquals("old content0", read(fs, "/f0.txt"));
+			write(nested, "/f0.txt", "new content0");
+			Assert.assertEquals("old content0", read(fs, "/f0.txt"));
+			Thread.sleep(200);
+			Assert.assertEquals("new content0", read(fs, "/f0.txt"));
+		}
+
+		try(final FileSystemWithCache	fs = new FileSystemWithCache(nested, 60_000, 100, 4 * 12)) {
+			for (int index = 0; index < 5; index++) {
+				Assert.assertTrue(read(fs, "/f"+index+".txt").endsWith("content"+index));
+			}
+			write(nested, "/f0.txt", "NEW content0");
+			write(nested, "/f4.txt", "NEW content4");
+			Assert.assertEquals("NEW content0", read(fs, "/f0.txt"));	// Evicted by LRU
+			Assert.assertEquals("old content4", read(fs, "/f4.txt"));	// Still in the cache
+		}
+	}
+
+	@Test
+	public void diskTierTest() throws IOException {
+		final AbstractFileSystem	nested = new FileSystemInMemory(URI.create("/"));
+		final File					dir = Files.createTempDirectory("fsCache").toFile();
+
+		for (int index = 0; index < 5; index++) {
+			write(nested, "/f"+index+".txt", "old content"+index);
+		}
+
+		try{try(final FileSystemWithCache	fs = new FileSystemWithCache(nested, 60_000, 100, 4 * 12, dir, 1024)) {
+				for (int index = 0; index < 5; index++) {
+					read(fs, "/f"+index+".txt");
+				}
+				Assert.assertTrue(dir.list().length > 0);
+
+				write(nested, "/f0.txt", "NEW content0");
+				Assert.assertEquals("old content0", read(fs, "/f0.txt"));	// Restored from the disk tier
+			}
+			Assert.assertEquals(0, dir.list().length);
+
+			for (int index = 5; index < 10; index++) {
+				write(nested, "/f"+index+".txt", "old content"+index);
+			}
+			try(final FileSystemWithCache	fs = new FileSystemWithCache(nested, 60_000, 100, 4 * 12, dir, 2 * 12)) {
+				for (int index = 0; index < 10; index++) {
+					read(fs, "/f"+index+".txt");
+				}
+				Assert.assertEquals(1, dir.list().length);
+				Assert.assertEquals(2, dir.listFiles()[0].list().length);		// Files evicted from the disk tier are removed
+			}
+			Assert.assertEquals(0, dir.list().length);
+		} finally {
+			Utils.deleteDir(dir);
+		}
+	}
+
+	@Test
+	public void mountTest() throws IOException {
+		final AbstractFileSystem	nested = new FileSystemInMemory(URI.create("/"));
+
+		write(nested, "/x.txt", "mounted");
+		try(final FileSystemInterface	root = new FileSystemInMemory(URI.create("/"))) {
+			root.open("/mnt").mkDir();
+			root.mount(new FileSystemWithCache(nested, 60_000, 100, 1024));
+
+			Assert.assertEquals("mounted", read(root, "/mnt/x.txt"));
+			write(root, "/mnt/x.txt", "changed");
+			Assert.assertEquals("changed", read(nested, "/x.txt"));
+			Assert.assertEquals("changed", read(root, "/mnt/x.txt"));
+		}
+	}
+
+	private static void write(final FileSystemInterface fs, final String path, final String content) throws IOException {
+		try(final FileSystemInterface	item = fs.clone().open(path)) {
+			if (!item.exists()) {
+				item.create();
+			}
+			try(final OutputStream	os = item.write()) {
+				os.write(content.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private static String read(final FileSystemInterface fs, final String path) throws IOException {
+		try(final FileSystemInterface	item = fs.clone().open(path);
+			final InputStream			is = item.read()) {
+			return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
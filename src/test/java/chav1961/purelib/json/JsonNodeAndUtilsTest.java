@@ -1594,6 +1594,72 @@ public class JsonNodeAndUtilsTest {
 		}
 	}	
 	
+	@Test
+	public void staxFilterTest() throws IOException, ContentException {
+		final String	content = "{\"id\":10,\"items\":[{\"name\":\"first\",\"value\":100,\"tags\":[\"a\",\"b\"]},{\"name\":\"second\",\"value\":200,\"tags\":[]},"
+										+ "{\"name\":\"third\",\"value\":300.0,\"nested\":{\"name\":\"deep\",\"flag\":true,\"none\":null}}],\"total\":3}";
+		final JsonNode	root = loadJson(content);
+		
+		for (String expr : new String[] {"/", "/**", "/*", "/id", "/items/[]/name", "/items/[0..1]", "/items/[has(i%2 == 0)]/value", "/**/name", "/**/name:\"second\",\"deep\"", 
+										 "/**/tags/[]", "/i*/[]/*/flag", "/total:1..5", "/missing", "/**/name#../value:200"}) {
+			final List<String>	etalon = new ArrayList<>(), streamed = new ArrayList<>();
+			
+			JsonUtils.walkDownJson(root,JsonUtils.filterOf(expr,(mode,node,path)->{etalon.add(printCall(mode,node,path)); return ContinueMode.CONTINUE;}));
+			try(final Reader			rdr = new StringReader(content);
+				final JsonStaxParser	parser = new JsonStaxParser(rdr)) {
+				
+				parser.next();
+				Assert.assertEquals(ContinueMode.CONTINUE,JsonUtils.staxFilterOf(expr,(mode,node,path)->{streamed.add(printCall(mode,node,path)); return ContinueMode.CONTINUE;}).filter(parser));
+				Assert.assertFalse(parser.hasNext());
+			}
+			Assert.assertEquals(expr,etalon,streamed);
+		}
+		
+		final int[]		count = new int[1];
+		
+		try(final Reader			rdr = new StringReader(content);
+			final JsonStaxParser	parser = new JsonStaxParser(rdr)) {
+			
+			parser.next();
+			Assert.assertEquals(ContinueMode.STOP,JsonUtils.staxFilterOf("/**/name",(mode,node,path)->{count[0]++; return mode == NodeEnterMode.EXIT ? ContinueMode.STOP : ContinueMode.CONTINUE;}).filter(parser));
+			Assert.assertEquals(2,count[0]);
+		}
+
+		try(final Reader			rdr = new StringReader("{\"x\":[1,2}");
+			final JsonStaxParser	parser = new JsonStaxParser(rdr)) {
+			
+			parser.next();
+			JsonUtils.staxFilterOf("/x/[]",(mode,node,path)->ContinueMode.CONTINUE).filter(parser);
+			Assert.fail("Mandatory exception was not detected (illegal JSON)");
+		} catch (SyntaxException exc) {
+		}
+		try{JsonUtils.staxFilterOf("/x",(mode,node,path)->ContinueMode.CONTINUE).filter(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{JsonUtils.staxFilterOf(null,(mode,node,path)->ContinueMode.CONTINUE);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{JsonUtils.staxFilterOf("/x",null);
+			Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{JsonUtils.staxFilterOf("/[0..1,]",(mode,node,path)->ContinueMode.CONTINUE);
+			Assert.fail("Mandatory exception was not detected (syntax error)");
+		} catch (SyntaxException exc) {
+		}
+	}
+	
+	private static String printCall(final NodeEnterMode mode, final JsonNode node, final Object... path) {
+		final StringBuilder	sb = new StringBuilder().append(mode).append(':').append(node.getType()).append(':').append(node.getName()).append(':');
+		
+		for (Object item : path) {
+			sb.append('/').append(item instanceof JsonNode ? "node" : item);	// Stream filter doesn't load unmatched nodes into the path
+		}
+		return sb.append(':').append(node.getType() == JsonNodeType.JsonArray || node.getType() == JsonNodeType.JsonObject ? node.childrenCount() : node.toString()).toString();
+	}
+	
 	private JsonNode loadJson(final String content) throws IOException, SyntaxException {
 		try(final Reader			rdr = new StringReader(content);
 			final JsonStaxParser	parser = new JsonStaxParser(rdr)) {
@@ -1930,6 +1930,80 @@ public class JsonSerializerTest {
 		Assert.assertEquals(serChild.deserialize(collector.getParser()),sourceChildRestored);
 	}
 
+	@Tag("OrdinalTestCategory")
+	@Test
+	public void generatedCodeTest() throws EnvironmentException, SyntaxException, PrintingException, ContentException, IOException {
+		final char[]									buffer = new char[1024], etalon = new char[1024];
+		final JsonSerializer<SimpleParentSerializable>	refSer = JsonSerializer.buildSerializer(SimpleParentSerializable.class);
+		final JsonSerializer<SimpleParentSerializable>	genSer = JsonSerializer.buildSerializer(SimpleParentSerializable.class,true);
+		final SimpleParentSerializable					source = new SimpleParentSerializable(
+															true,new boolean[]{true,false}
+															,(byte)-100, new byte[]{-100,0,100}
+															,'Z',"123".toCharArray()
+															,100.0,new double[]{-100.0,0.0,100.0}
+															,100.0f,new float[]{-100.0f,0.0f,100.0f}
+															,-100,new int[]{-100,0,100}
+															,12345678901L,new long[]{-100L,0,100L}
+															,(short)100,new short[]{(short)-100,0,(short)100}
+															,"test",new String[]{"shaize"}
+														);
+		final SimpleParentSerializable[]				result = new SimpleParentSerializable[1];
+		final StaxCollector								collector = new StaxCollector();
+		final int										len = refSer.serialize(source,etalon,0,true);
+		JsonStaxPrinter									prn;
+
+		Assert.assertSame(genSer,JsonSerializer.buildSerializer(SimpleParentSerializable.class,true));
+		Assert.assertEquals(len,genSer.serialize(source,buffer,0,true));
+		Assert.assertEquals(new String(etalon,0,len),new String(buffer,0,len));
+		Assert.assertTrue(genSer.serialize(source,new char[10],0,true) < 0);
+		Assert.assertEquals(len,genSer.deserialize(buffer,0,result));
+		Assert.assertEquals(source,result[0]);
+
+		Arrays.fill(buffer,' ');
+		genSer.serialize(source,new ArrayCharTarget(buffer,0));
+		Assert.assertEquals(new String(etalon,0,len),new String(buffer,0,len));
+		Assert.assertEquals(source,genSer.deserialize(new ArrayCharSource(buffer)));
+
+		prn = collector.getPrinter();
+		genSer.serialize(source,prn);
+		prn.flush();
+		Assert.assertEquals(source,genSer.deserialize(collector.getParser()));
+
+		final JsonSerializer<PublicPojo>	pojoSer = JsonSerializer.buildSerializer(PublicPojo.class,true);
+		final PublicPojo[]					pojoResult = new PublicPojo[1];
+		final PublicPojo					pojo = new PublicPojo();
+		
+		pojo.id = 12345678901L;
+		pojo.count = -7;
+		pojo.active = true;
+		pojo.ratio = 2.0;
+		pojo.name = "pojo";
+		pojo.tags = new String[]{"a","b"};
+		pojo.nested = new PublicPojo();
+		pojo.nested.name = "nested";
+		
+		final String	pojoEtalon = "{\"active\":true,\"count\":-7,\"id\":12345678901,\"name\":\"pojo\",\"nested\":{\"active\":false,\"count\":0,\"id\":0,\"name\":\"nested\",\"nested\":null,\"ratio\":0,\"tags\":null},\"ratio\":2,\"tags\":[\"a\",\"b\"]}";
+		final int		pojoLen = pojoSer.serialize(pojo,buffer,0,true);
+
+		Assert.assertEquals(pojoEtalon,new String(buffer,0,pojoLen));
+		Assert.assertEquals(pojoLen,pojoSer.deserialize(buffer,0,pojoResult));
+		Assert.assertEquals(pojo,pojoResult[0]);
+
+		prn = collector.getPrinter();
+		pojoSer.serialize(pojo,prn);
+		prn.flush();
+		Assert.assertEquals(pojo,pojoSer.deserialize(collector.getParser()));
+		
+		try{JsonSerializer.buildSerializer(null,true);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{JsonSerializer.buildSerializer(Object.class,true);
+			Assert.fail("Mandatory exception was not detected (class without fields)");
+		} catch (EnvironmentException exc) {
+		}
+	}
+
 	public void basicAnyClassPerformanceTest() throws EnvironmentException, SyntaxException, PrintingException, ContentException, IOException {
 		System.gc();
 		
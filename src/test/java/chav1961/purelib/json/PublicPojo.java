@@ -0,0 +1,34 @@
+package chav1961.purelib.json;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public class PublicPojo {
+	public long			id;
+	public int			count;
+	public boolean		active;
+	public double		ratio;
+	public String		name;
+	public String[]		tags;
+	public PublicPojo	nested;
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, count, active, ratio, name, nested) * 31 + Arrays.hashCode(tags);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final PublicPojo other = (PublicPojo) obj;
+		return id == other.id && count == other.count && active == other.active && Double.compare(ratio, other.ratio) == 0
+				&& Objects.equals(name, other.name) && Arrays.equals(tags, other.tags) && Objects.equals(nested, other.nested);
+	}
+
+	@Override
+	public String toString() {
+		return "PublicPojo [id=" + id + ", count=" + count + ", active=" + active + ", ratio=" + ratio + ", name=" + name + ", tags=" + Arrays.toString(tags) + ", nested=" + nested + "]";
+	}
+}
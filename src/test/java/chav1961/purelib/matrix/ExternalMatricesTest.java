@@ -0,0 +1,176 @@
+package chav1961.purelib.matrix;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.AggregateDirection;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.AggregateType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.ContentType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.FormatType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Operand;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Piece;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.StoreType;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrix;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrixX;
+import chav1961.purelib.matrix.internal.realdouble.PlainDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PlainDoubleMatrixX;
+import chav1961.purelib.matrix.internal.realint.PlainIntMatrixX;
+import chav1961.purelib.streams.DataInputAdapter;
+import chav1961.purelib.streams.DataOutputAdapter;
+
+@Tag("OrdinalTestCategory")
+public class ExternalMatricesTest {
+	private static final int	TILE_SIZE = 100;	// Small tile to process matrices with a lot of tiles
+
+	@Test
+	public void factoryTest() throws CalculationException {
+		for (ContentType type : ContentType.values()) {
+			if (type != ContentType.BIT) {
+				try(final BaseMatrix<?>	matrix = MatrixFactory.newMatrix(type, FormatType.PLAIN, StoreType.EXTERNAL, 3, 2)) {
+					Assert.assertEquals(type, matrix.getContentType());
+					Assert.assertEquals(StoreType.EXTERNAL, matrix.getStoreType());
+					Assert.assertEquals(3, matrix.getWidth());
+					Assert.assertEquals(2, matrix.getHeight());
+				}
+			}
+		}
+
+		try{MatrixFactory.newMatrix(ContentType.BIT, FormatType.PLAIN, StoreType.EXTERNAL, 3, 2);
+			Assert.fail("Mandatory exception was not detected (unsupported content type)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void doubleMatrixTest() throws CalculationException, IOException {
+		final PlainDoubleMatrix		left = new PlainDoubleMatrix(7, 5), right = new PlainDoubleMatrix(4, 7), same = new PlainDoubleMatrix(7, 5);
+		final PlainDoubleMatrixX	leftX = new PlainDoubleMatrixX(7, 5, TILE_SIZE), rightX = new PlainDoubleMatrixX(4, 7, TILE_SIZE), sameX = new PlainDoubleMatrixX(7, 5, TILE_SIZE);
+
+		fill(left, leftX, 1);
+		fill(right, rightX, 2);
+		fill(same, sameX, 3);
+
+		Assert.assertArrayEquals(unload(left.mul(right)), unload(leftX.mul(rightX)), 0.000001);
+		Assert.assertArrayEquals(unload(right.mulRev(left)), unload(rightX.mulRev(leftX)), 0.000001);
+		Assert.assertArrayEquals(unload(left.mulT(same)), unload(leftX.mulT(sameX)), 0.000001);
+		Assert.assertArrayEquals(unload(left.mulRevT(same)), unload(leftX.mulRevT(sameX)), 0.000001);
+		Assert.assertArrayEquals(unload(left.add(same)), unload(leftX.add(sameX)), 0.0);
+		Assert.assertArrayEquals(unload(left.subtract(same)), unload(leftX.subtract(sameX)), 0.0);
+		Assert.assertArrayEquals(unload(left.mulHadamard(same)), unload(leftX.mulHadamard(sameX)), 0.0);
+		Assert.assertArrayEquals(unload(left.mulKroneker(right)), unload(leftX.mulKroneker(rightX)), 0.0);
+		Assert.assertArrayEquals(unload(left.mul(Operand.of(2.0))), unload(leftX.mul(Operand.of(2.0))), 0.0);
+		Assert.assertArrayEquals(unload(left.transpose()), unload(leftX.transpose()), 0.0);
+		Assert.assertArrayEquals(unload(left.crop(Piece.of(1, 2, 3, 3))), unload(leftX.crop(Piece.of(1, 2, 3, 3))), 0.0);
+		Assert.assertEquals(left.track().getDouble(), leftX.track().getDouble(), 0.0);
+
+		for (AggregateDirection dir : AggregateDirection.values()) {
+			for (AggregateType type : AggregateType.values()) {
+				Assert.assertArrayEquals(unload(left.aggregate(Piece.of(1, 1, 5, 3), dir, type)), unload(leftX.aggregate(Piece.of(1, 1, 5, 3), dir, type)), 0.000001);
+			}
+		}
+
+		final PlainDoubleMatrix		square = (PlainDoubleMatrix)left.crop(Piece.of(0, 0, 5, 5));
+		final PlainDoubleMatrixX	squareX = (PlainDoubleMatrixX)leftX.crop(Piece.of(0, 0, 5, 5));
+
+		Assert.assertEquals(square.det().getDouble(), squareX.det().getDouble(), 0.000001);
+		Assert.assertArrayEquals(unload(square.invert()), unload(squareX.invert()), 0.000001);
+
+		final BaseMatrix<?>	inMemory = leftX.cast(StoreType.IN_MEMORY);
+
+		Assert.assertTrue(inMemory instanceof PlainDoubleMatrix);
+		Assert.assertArrayEquals(unload(left), unload(inMemory), 0.0);
+
+		final BaseMatrix<?>	external = left.cast(StoreType.EXTERNAL);
+
+		Assert.assertTrue(external instanceof PlainDoubleMatrixX);
+		Assert.assertArrayEquals(unload(left), unload(external), 0.0);
+
+		final BaseMatrix<?>	integer = leftX.cast(ContentType.REAL_INT);
+
+		Assert.assertTrue(integer instanceof PlainIntMatrixX);
+		Assert.assertArrayEquals(unload(left), unload(integer.cast(ContentType.REAL_DOUBLE)), 0.0);
+		external.close();
+		integer.close();
+		leftX.close();
+		rightX.close();
+		sameX.close();
+	}
+
+	@Test
+	public void complexMatrixTest() throws CalculationException, IOException {
+		final PlainComplexFloatMatrix	left = new PlainComplexFloatMatrix(3, 4), right = new PlainComplexFloatMatrix(5, 3);
+		final PlainComplexFloatMatrixX	leftX = new PlainComplexFloatMatrixX(3, 4, TILE_SIZE), rightX = new PlainComplexFloatMatrixX(5, 3, TILE_SIZE);
+
+		fill(left, leftX, 1);
+		fill(right, rightX, 2);
+
+		Assert.assertArrayEquals(unload(left.mul(right)), unload(leftX.mul(rightX)), 0.0001);
+		Assert.assertArrayEquals(unload(left.add(left)), unload(leftX.add(leftX)), 0.0);
+		Assert.assertArrayEquals(unload(left.mul(Operand.of(1f, 2f))), unload(leftX.mul(Operand.of(1f, 2f))), 0.0001);
+		Assert.assertArrayEquals(unload(left.div(Operand.of(1f, 2f))), unload(leftX.div(Operand.of(1f, 2f))), 0.0001);
+		Assert.assertArrayEquals(unload(left.transpose()), unload(leftX.transpose()), 0.0);
+		Assert.assertArrayEquals(unload(left.mulKroneker(right)), unload(leftX.mulKroneker(rightX)), 0.0001);
+		Assert.assertArrayEquals(unload(left.aggregate(Piece.of(0, 0, 3, 4), AggregateDirection.BY_ROWS, AggregateType.SUM)), unload(leftX.aggregate(Piece.of(0, 0, 3, 4), AggregateDirection.BY_ROWS, AggregateType.SUM)), 0.0001);
+		Assert.assertArrayEquals(unload(left.cast(ContentType.REAL_DOUBLE)), unload(leftX.cast(ContentType.REAL_DOUBLE)), 0.0);
+		leftX.close();
+		rightX.close();
+	}
+
+	private static void fill(final BaseMatrix<?> matrix, final BaseMatrix<?> matrixX, final int seed) throws IOException {
+		final DataInputAdapter	dia = new DataInputAdapter() {
+									int	value = seed;
+
+									@Override
+									public float readFloat() throws IOException {
+										return (float)readDouble();
+									}
+
+									@Override
+									public double readDouble() throws IOException {
+										value = (value * 31 + 7) % 101;
+										return value - 50;
+									}
+								};
+
+		matrix.download(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), dia);
+		matrixX.download(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataInputAdapter() {
+			final double[]	content = unload(matrix);
+			int				index = 0;
+
+			@Override
+			public float readFloat() throws IOException {
+				return (float)content[index++];
+			}
+
+			@Override
+			public double readDouble() throws IOException {
+				return content[index++];
+			}
+		});
+	}
+
+	private static double[] unload(final BaseMatrix<?> matrix) throws IOException {
+		final double[]	result = new double[(matrix.getContentType() == ContentType.COMPLEX_FLOAT ? 2 : 1) * matrix.getWidth() * matrix.getHeight()];
+
+		matrix.upload(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeFloat(final float v) throws IOException {
+				result[index++] = v;
+			}
+
+			@Override
+			public void writeDouble(final double v) throws IOException {
+				result[index++] = v;
+			}
+		});
+		return result;
+	}
+}
@@ -0,0 +1,337 @@
+package chav1961.purelib.matrix;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Piece;
+import chav1961.purelib.matrix.internal.bit.PlainBitMatrix;
+import chav1961.purelib.matrix.internal.complexfloat.PlainComplexFloatMatrix;
+import chav1961.purelib.streams.DataInputAdapter;
+import chav1961.purelib.streams.DataOutputAdapter;
+
+@Tag("OrdinalTestCategory")
+public class MultiplicationEngineTest {
+	private static final int[][]	SIZES = {{1, 1, 1}, {3, 5, 7}, {65, 63, 129}, {130, 70, 90}};
+
+	@Test
+	public void intMultiplicationTest() {
+		final Random	rand = new Random(1);
+
+		for (int[] size : SIZES) {
+			final int	width = size[0], height = size[1], rightWidth = size[2];
+			final int[]	left = new int[width * height], right = new int[height * rightWidth], rightT = new int[rightWidth * width];
+
+			for (int index = 0; index < left.length; index++) {
+				left[index] = rand.nextInt(100) - 50;
+			}
+			for (int index = 0; index < right.length; index++) {
+				right[index] = rand.nextInt(100) - 50;
+			}
+			for (int index = 0; index < rightT.length; index++) {
+				rightT[index] = rand.nextInt(100) - 50;
+			}
+
+			final int[]	awaited = new int[height * rightWidth], result = new int[height * rightWidth];
+
+			// left[height x width] * transpose(rightT[rightWidth x width])
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < rightWidth; x++) {
+					int	sum = 0;
+
+					for (int k = 0; k < width; k++) {
+						sum += left[y * width + k] * rightT[x * width + k];
+					}
+					awaited[y * rightWidth + x] = sum;
+				}
+			}
+			MultiplicationEngine.multiplyTransposedRight(left, width, height, rightT, rightWidth, result);
+			Assert.assertArrayEquals(awaited, result);
+
+			final int[]	plain = new int[width * rightWidth], plainAwaited = new int[width * rightWidth];
+			final int[]	square = new int[height * width];
+
+			// left[height x width]^T * right[height x rightWidth]
+			for (int y = 0; y < width; y++) {
+				for (int x = 0; x < rightWidth; x++) {
+					int	sum = 0;
+
+					for (int k = 0; k < height; k++) {
+						sum += left[k * width + y] * right[k * rightWidth + x];
+					}
+					plainAwaited[y * rightWidth + x] = sum;
+				}
+			}
+			MultiplicationEngine.multiplyTransposedLeft(left, width, height, right, rightWidth, plain);
+			Assert.assertArrayEquals(plainAwaited, plain);
+
+			// right[height x rightWidth]^T used as (rightWidth x height) plain matrix multiplied by left[height x width]
+			final int[]	rightTransposed = new int[rightWidth * height];
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < rightWidth; x++) {
+					rightTransposed[x * height + y] = right[y * rightWidth + x];
+				}
+			}
+			final int[]	mul = new int[rightWidth * width], mulAwaited = new int[rightWidth * width];
+
+			for (int y = 0; y < rightWidth; y++) {
+				for (int x = 0; x < width; x++) {
+					int	sum = 0;
+
+					for (int k = 0; k < height; k++) {
+						sum += rightTransposed[y * height + k] * left[k * width + x];
+					}
+					mulAwaited[y * width + x] = sum;
+				}
+			}
+			MultiplicationEngine.multiply(rightTransposed, height, rightWidth, left, width, mul);
+			Assert.assertArrayEquals(mulAwaited, mul);
+
+			MultiplicationEngine.multiplyHadamard(left, left, square);
+			for (int index = 0; index < square.length; index++) {
+				Assert.assertEquals(left[index] * left[index], square[index]);
+			}
+		}
+	}
+
+	@Test
+	public void longAndDoubleMultiplicationTest() {
+		final Random	rand = new Random(2);
+
+		for (int[] size : SIZES) {
+			final int		width = size[0], height = size[1], rightWidth = size[2];
+			final long[]	leftL = new long[width * height], rightL = new long[width * rightWidth];
+			final double[]	leftD = new double[width * height], rightD = new double[width * rightWidth];
+			final float[]	leftF = new float[width * height], rightF = new float[width * rightWidth];
+
+			for (int index = 0; index < leftL.length; index++) {
+				leftL[index] = rand.nextInt(100) - 50;
+				leftD[index] = leftL[index];
+				leftF[index] = leftL[index];
+			}
+			for (int index = 0; index < rightL.length; index++) {
+				rightL[index] = rand.nextInt(100) - 50;
+				rightD[index] = rightL[index];
+				rightF[index] = rightL[index];
+			}
+			final long[]	resultL = new long[height * rightWidth], awaited = new long[height * rightWidth];
+			final double[]	resultD = new double[height * rightWidth];
+			final float[]	resultF = new float[height * rightWidth];
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < rightWidth; x++) {
+					long	sum = 0;
+
+					for (int k = 0; k < width; k++) {
+						sum += leftL[y * width + k] * rightL[k * rightWidth + x];
+					}
+					awaited[y * rightWidth + x] = sum;
+				}
+			}
+			MultiplicationEngine.multiply(leftL, width, height, rightL, rightWidth, resultL);
+			MultiplicationEngine.multiply(leftD, width, height, rightD, rightWidth, resultD);
+			MultiplicationEngine.multiply(leftF, width, height, rightF, rightWidth, resultF);
+			Assert.assertArrayEquals(awaited, resultL);
+			for (int index = 0; index < awaited.length; index++) {
+				Assert.assertEquals(awaited[index], resultD[index], 0.0);
+				Assert.assertEquals(awaited[index], resultF[index], 0.0f);
+			}
+		}
+	}
+
+	@Test
+	public void complexMultiplicationTest() {
+		final Random	rand = new Random(3);
+
+		for (int[] size : SIZES) {
+			final int		width = size[0], height = size[1], rightWidth = size[2];
+			final double[]	left = new double[2 * width * height], right = new double[2 * width * rightWidth];
+			final float[]	leftF = new float[left.length], rightF = new float[right.length];
+
+			for (int index = 0; index < left.length; index++) {
+				left[index] = rand.nextInt(20) - 10;
+				leftF[index] = (float)left[index];
+			}
+			for (int index = 0; index < right.length; index++) {
+				right[index] = rand.nextInt(20) - 10;
+				rightF[index] = (float)right[index];
+			}
+			final double[]	result = new double[2 * height * rightWidth], awaited = new double[2 * height * rightWidth];
+			final float[]	resultF = new float[2 * height * rightWidth];
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < rightWidth; x++) {
+					double	real = 0, image = 0;
+
+					for (int k = 0; k < width; k++) {
+						final double	lr = left[2 * (y * width + k)], li = left[2 * (y * width + k) + 1];
+						final double	rr = right[2 * (k * rightWidth + x)], ri = right[2 * (k * rightWidth + x) + 1];
+
+						real += lr * rr - li * ri;
+						image += lr * ri + li * rr;
+					}
+					awaited[2 * (y * rightWidth + x)] = real;
+					awaited[2 * (y * rightWidth + x) + 1] = image;
+				}
+			}
+			MultiplicationEngine.multiplyComplex(left, width, height, right, rightWidth, result);
+			MultiplicationEngine.multiplyComplex(leftF, width, height, rightF, rightWidth, resultF);
+			Assert.assertArrayEquals(awaited, result, 0.0);
+			for (int index = 0; index < awaited.length; index++) {
+				Assert.assertEquals(awaited[index], resultF[index], 0.0f);
+			}
+		}
+	}
+
+	@Test
+	public void nanPropagationTest() {
+		final double[]	left = {0, 1}, right = {Double.NaN, Double.POSITIVE_INFINITY}, result = new double[4];
+		final float[]	leftF = {0, 1}, rightF = {Float.NaN, Float.POSITIVE_INFINITY}, resultF = new float[4];
+
+		MultiplicationEngine.multiply(left, 1, 2, right, 2, result);
+		Assert.assertTrue(Double.isNaN(result[0]) && Double.isNaN(result[1]));	// 0 * NaN = NaN, 0 * Inf = NaN
+		MultiplicationEngine.multiply(leftF, 1, 2, rightF, 2, resultF);
+		Assert.assertTrue(Float.isNaN(resultF[0]) && Float.isNaN(resultF[1]));
+
+		Arrays.fill(result, 0);
+		MultiplicationEngine.multiplyTransposedLeft(left, 2, 1, new double[] {Double.POSITIVE_INFINITY}, 1, result);
+		Assert.assertTrue(Double.isNaN(result[0]));
+		Assert.assertEquals(Double.POSITIVE_INFINITY, result[1], 0.0);
+
+		final double[]	complexLeft = {0, 0}, complexRight = {Double.NaN, 0}, complexResult = new double[2];
+
+		MultiplicationEngine.multiplyComplex(complexLeft, 1, 1, complexRight, 1, complexResult);
+		Assert.assertTrue(Double.isNaN(complexResult[0]));
+	}
+
+	@Test
+	public void bitMultiplicationTest() {
+		final Random	rand = new Random(4);
+
+		for (int[] size : SIZES) {
+			final int		width = size[0], height = size[1], rightWidth = size[2];
+			final boolean[]	left = new boolean[width * height], right = new boolean[width * rightWidth];
+
+			for (int index = 0; index < left.length; index++) {
+				left[index] = rand.nextInt(10) == 0;
+			}
+			for (int index = 0; index < right.length; index++) {
+				right[index] = rand.nextInt(10) == 0;
+			}
+			final boolean[]	result = new boolean[height * rightWidth], awaited = new boolean[height * rightWidth];
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < rightWidth; x++) {
+					boolean	sum = false;
+
+					for (int k = 0; k < width; k++) {
+						sum |= left[y * width + k] & right[k * rightWidth + x];
+					}
+					awaited[y * rightWidth + x] = sum;
+				}
+			}
+			MultiplicationEngine.multiply(left, width, height, right, rightWidth, result);
+			Assert.assertArrayEquals(awaited, result);
+		}
+	}
+
+	@Test
+	public void complexMatrixTest() throws CalculationException, IOException {
+		final PlainComplexFloatMatrix	left = new PlainComplexFloatMatrix(3, 2), right = new PlainComplexFloatMatrix(2, 3);
+		final float[]	leftContent = {1, 0,  2, 1,  0, 1,
+									   3, 0,  0, 0,  1, -1};
+		final float[]	rightContent = {1, 0,  0, 1,
+										0, 0,  1, 0,
+										2, 0,  0, 0};
+
+		load(left, leftContent);
+		load(right, rightContent);
+
+		// [1, 2+i, i; 3, 0, 1-i] * [1, i; 0, 1; 2, 0] = [1+2i, 2+2i; 5-2i, 3i]
+		Assert.assertArrayEquals(new float[] {1, 2, 2, 2, 5, -2, 0, 3}, unload(left.mul(right)), 0.0f);
+		Assert.assertArrayEquals(new float[] {1, 2, 2, 2, 5, -2, 0, 3}, unload(right.mulRev(left)), 0.0f);
+		// transpose(left) * left
+		Assert.assertArrayEquals(unload(left.transpose().mul(left)), unload(left.mulT(left)), 0.0f);
+		// right * transpose(right)
+		Assert.assertArrayEquals(unload(right.mul(right.transpose())), unload(right.mulRevT(right)), 0.0f);
+		// element-by-element
+		Assert.assertArrayEquals(new float[] {1, 0,  3, 4,  -1, 0,  9, 0,  0, 0,  0, -2}, unload(left.mulHadamard(left)), 0.0f);
+
+		try{left.mul(left);
+			Assert.fail("Mandatory exception was not detected (incompatible matrix sizes)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void bitMatrixTest() throws CalculationException, IOException {
+		final PlainBitMatrix	left = new PlainBitMatrix(2, 2), right = new PlainBitMatrix(2, 2);
+
+		left.download(Piece.of(0, 0, 2, 2), new DataInputAdapter() {
+			final boolean[]	content = {true, false, true, true};
+			int				index = 0;
+
+			@Override
+			public boolean readBoolean() throws IOException {
+				return content[index++];
+			}
+		});
+		right.download(Piece.of(0, 0, 2, 2), new DataInputAdapter() {
+			final boolean[]	content = {false, true, false, false};
+			int				index = 0;
+
+			@Override
+			public boolean readBoolean() throws IOException {
+				return content[index++];
+			}
+		});
+		Assert.assertArrayEquals(new boolean[] {false, true, false, true}, unload(left.mul(right)));
+		Assert.assertArrayEquals(new boolean[] {false, false, false, false}, unload(left.mulHadamard(right)));
+		Assert.assertArrayEquals(new boolean[] {true, true, true, true}, unload(left.add(right)));
+	}
+
+	private static void load(final PlainComplexFloatMatrix matrix, final float[] content) throws IOException {
+		matrix.download(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataInputAdapter() {
+			int	index = 0;
+
+			@Override
+			public float readFloat() throws IOException {
+				return content[index++];
+			}
+		});
+	}
+
+	private static float[] unload(final PlainComplexFloatMatrix matrix) throws IOException {
+		final float[]	result = new float[2 * matrix.getWidth() * matrix.getHeight()];
+
+		matrix.upload(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeFloat(final float v) throws IOException {
+				result[index++] = v;
+			}
+		});
+		return result;
+	}
+
+	private static boolean[] unload(final PlainBitMatrix matrix) throws IOException {
+		final boolean[]	result = new boolean[matrix.getWidth() * matrix.getHeight()];
+
+		matrix.upload(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeBoolean(final boolean v) throws IOException {
+				result[index++] = v;
+			}
+		});
+		return result;
+	}
+}
@@ -0,0 +1,173 @@
+package chav1961.purelib.matrix;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.AggregateDirection;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.AggregateType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.ContentType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.FormatType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Operand;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Piece;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.StoreType;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.matrix.internal.complexdouble.PlainComplexDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PlainDoubleMatrix;
+import chav1961.purelib.matrix.internal.realint.PlainIntMatrix;
+import chav1961.purelib.streams.DataInputAdapter;
+import chav1961.purelib.streams.DataOutputAdapter;
+
+@Tag("OrdinalTestCategory")
+public class PlainMatricesTest {
+	@Test
+	public void factoryTest() throws CalculationException {
+		for (ContentType type : ContentType.values()) {
+			final BaseMatrix<?>	matrix = MatrixFactory.newMatrix(type, FormatType.PLAIN, StoreType.IN_MEMORY, 3, 2);
+
+			Assert.assertEquals(type, matrix.getContentType());
+			Assert.assertEquals(FormatType.PLAIN, matrix.getFormatType());
+			Assert.assertEquals(StoreType.IN_MEMORY, matrix.getStoreType());
+			Assert.assertEquals(3, matrix.getWidth());
+			Assert.assertEquals(2, matrix.getHeight());
+		}
+
+		try{MatrixFactory.newMatrix(null, FormatType.PLAIN, StoreType.IN_MEMORY, 3, 2);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{MatrixFactory.newMatrix(ContentType.REAL_INT, FormatType.PLAIN, StoreType.IN_MEMORY, 0, 2);
+			Assert.fail("Mandatory exception was not detected (non-positive 4-th argument)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void doubleMatrixTest() throws CalculationException, IOException {
+		final PlainDoubleMatrix	matrix = new PlainDoubleMatrix(2, 2), another = new PlainDoubleMatrix(2, 2);
+
+		load(matrix, 4, 7, 2, 6);
+		load(another, 1, 2, 3, 4);
+
+		Assert.assertArrayEquals(new double[] {5, 9, 5, 10}, unload(matrix.add(another)), 0.0);
+		Assert.assertArrayEquals(new double[] {3, 5, -1, 2}, unload(matrix.subtract(another)), 0.0);
+		Assert.assertArrayEquals(new double[] {25, 36, 20, 28}, unload(matrix.mul(another)), 0.0);
+		Assert.assertArrayEquals(new double[] {25, 36, 20, 28}, unload(another.mulRev(matrix)), 0.0);
+		Assert.assertArrayEquals(new double[] {4, 14, 6, 24}, unload(matrix.mulHadamard(another)), 0.0);
+		Assert.assertArrayEquals(new double[] {8, 14, 4, 12}, unload(matrix.mul(Operand.of(2.0))), 0.0);
+		Assert.assertArrayEquals(new double[] {4, 2, 7, 6}, unload(matrix.transpose()), 0.0);
+		Assert.assertArrayEquals(unload(matrix.transpose().mul(another)), unload(matrix.mulT(another)), 0.0);
+		Assert.assertArrayEquals(unload(another.mul(matrix.transpose())), unload(matrix.mulRevT(another)), 0.0);
+
+		Assert.assertEquals(10.0, matrix.det().getDouble(), 0.000001);
+		Assert.assertEquals(10.0, matrix.track().getDouble(), 0.0);
+		Assert.assertArrayEquals(new double[] {0.6, -0.7, -0.2, 0.4}, unload(matrix.invert()), 0.000001);
+		Assert.assertArrayEquals(new double[] {1, 0, 0, 1}, unload(matrix.mul(matrix.invert())), 0.000001);
+
+		Assert.assertArrayEquals(new double[] {6, 13}, unload((PlainDoubleMatrix)matrix.aggregate(Piece.of(0, 0, 2, 2), AggregateDirection.BY_COLUMNS, AggregateType.SUM)), 0.0);
+		Assert.assertArrayEquals(new double[] {7, 6}, unload((PlainDoubleMatrix)matrix.aggregate(Piece.of(0, 0, 2, 2), AggregateDirection.BY_ROWS, AggregateType.MAX)), 0.0);
+		Assert.assertArrayEquals(new double[] {4.75}, unload((PlainDoubleMatrix)matrix.aggregate(Piece.of(0, 0, 2, 2), AggregateDirection.TOTAL, AggregateType.AVG)), 0.0);
+
+		final PlainDoubleMatrix	singular = new PlainDoubleMatrix(2, 2);
+
+		load(singular, 1, 2, 2, 4);
+		Assert.assertEquals(0.0, singular.det().getDouble(), 0.0);
+		try{singular.invert();
+			Assert.fail("Mandatory exception was not detected (singular matrix)");
+		} catch (CalculationException exc) {
+		}
+	}
+
+	@Test
+	public void intMatrixTest() throws CalculationException, IOException {
+		final PlainIntMatrix	matrix = new PlainIntMatrix(3, 3);
+
+		matrix.download(Piece.of(0, 0, 3, 3), new DataInputAdapter() {
+			final int[]	content = {2, 0, 1, 1, 3, 2, 1, 1, 2};
+			int			index = 0;
+
+			@Override
+			public int readInt() throws IOException {
+				return content[index++];
+			}
+		});
+		Assert.assertEquals(6, matrix.det().getInt());
+		Assert.assertEquals(7, matrix.track().getInt());
+
+		final BaseMatrix<?>	casted = matrix.cast(ContentType.REAL_DOUBLE);
+
+		Assert.assertTrue(casted instanceof PlainDoubleMatrix);
+		Assert.assertArrayEquals(new double[] {2, 0, 1, 1, 3, 2, 1, 1, 2}, unload((PlainDoubleMatrix)casted), 0.0);
+
+		final BaseMatrix<?>	complex = matrix.cast(ContentType.COMPLEX_DOUBLE);
+		final double[]		complexContent = new double[18];
+
+		Assert.assertTrue(complex instanceof PlainComplexDoubleMatrix);
+		((PlainComplexDoubleMatrix)complex).upload(Piece.of(0, 0, 3, 3), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeDouble(final double v) throws IOException {
+				complexContent[index++] = v;
+			}
+		});
+		Assert.assertArrayEquals(new double[] {2, 0, 0, 0, 1, 0, 1, 0, 3, 0, 2, 0, 1, 0, 1, 0, 2, 0}, complexContent, 0.0);
+		Assert.assertArrayEquals(new double[] {2, 0, 1, 1, 3, 2, 1, 1, 2}, unload((PlainDoubleMatrix)complex.cast(ContentType.REAL_DOUBLE)), 0.0);
+
+		final PlainComplexDoubleMatrix	complexMatrix = new PlainComplexDoubleMatrix(2, 2);
+		final double[]					identity = new double[8];
+
+		complexMatrix.download(Piece.of(0, 0, 2, 2), new DataInputAdapter() {
+			final double[]	content = new double[] {1, 1, 2, 0, 3, 0, 4, -1};
+			int	index = 0;
+
+			@Override
+			public double readDouble() throws IOException {
+				return content[index++];
+			}
+		});
+		complexMatrix.mul(complexMatrix.invert()).upload(Piece.of(0, 0, 2, 2), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeDouble(final double v) throws IOException {
+				identity[index++] = v;
+			}
+		});
+		Assert.assertArrayEquals(new double[] {1, 0, 0, 0, 0, 0, 1, 0}, identity, 0.000001);
+
+		try{matrix.invert();
+			Assert.fail("Mandatory exception was not detected (inversion of integer matrix)");
+		} catch (UnsupportedOperationException exc) {
+		}
+	}
+
+	private static void load(final PlainDoubleMatrix matrix, final double... content) throws IOException {
+		matrix.download(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataInputAdapter() {
+			int	index = 0;
+
+			@Override
+			public double readDouble() throws IOException {
+				return content[index++];
+			}
+		});
+	}
+
+	private static double[] unload(final PlainDoubleMatrix matrix) throws IOException {
+		final double[]	result = new double[matrix.getWidth() * matrix.getHeight()];
+
+		matrix.upload(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeDouble(final double v) throws IOException {
+				result[index++] = v;
+			}
+		});
+		return result;
+	}
+}
@@ -0,0 +1,135 @@
+package chav1961.purelib.matrix;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.CalculationException;
+import chav1961.purelib.matrix.interfaces.BaseMatrix;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.AggregateDirection;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.AggregateType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.ContentType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.DoubleApplyCallback;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.FormatType;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Operand;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.Piece;
+import chav1961.purelib.matrix.interfaces.BaseMatrix.StoreType;
+import chav1961.purelib.matrix.interfaces.MatrixFactory;
+import chav1961.purelib.matrix.internal.realdouble.ListDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PackedLineDoubleMatrix;
+import chav1961.purelib.matrix.internal.realdouble.PlainDoubleMatrix;
+import chav1961.purelib.streams.DataInputAdapter;
+import chav1961.purelib.streams.DataOutputAdapter;
+
+@Tag("OrdinalTestCategory")
+public class SparseMatricesTest {
+	@Test
+	public void packedLineTest() throws CalculationException, IOException {
+		final PlainDoubleMatrix	left = sparse(7, 5, 1), right = sparse(4, 7, 2), same = sparse(7, 5, 3);
+		final PackedLineDoubleMatrix	leftS = (PackedLineDoubleMatrix)left.cast(FormatType.PACKED_LINE);
+		final PackedLineDoubleMatrix	rightS = (PackedLineDoubleMatrix)right.cast(FormatType.PACKED_LINE);
+		final PackedLineDoubleMatrix	sameS = (PackedLineDoubleMatrix)same.cast(FormatType.PACKED_LINE);
+
+		Assert.assertTrue(leftS.getNonZeroCount() < 7 * 5);
+		Assert.assertArrayEquals(unload(left), unload(leftS), 0.0);
+		Assert.assertArrayEquals(unload(left.mul(right)), unload(leftS.mul(rightS)), 0.000001);
+		Assert.assertArrayEquals(unload(left.mul(right)), unload(leftS.mul(right)), 0.000001);
+		Assert.assertArrayEquals(unload(left.mul(right)), unload(rightS.mulRev(left)), 0.000001);
+		Assert.assertArrayEquals(unload(left.mulT(same)), unload(leftS.mulT(sameS)), 0.000001);
+		Assert.assertArrayEquals(unload(left.mulRevT(same)), unload(leftS.mulRevT(sameS)), 0.000001);
+		Assert.assertArrayEquals(unload(left.add(same)), unload(leftS.add(sameS)), 0.0);
+		Assert.assertArrayEquals(unload(left.subtract(same)), unload(leftS.subtract(sameS)), 0.0);
+		Assert.assertArrayEquals(unload(left.mulHadamard(same)), unload(leftS.mulHadamard(sameS)), 0.0);
+		Assert.assertArrayEquals(unload(left.mulKroneker(right)), unload(leftS.mulKroneker(rightS)), 0.0);
+		Assert.assertArrayEquals(unload(left.add(Operand.of(2.0))), unload(leftS.add(Operand.of(2.0))), 0.0);
+		Assert.assertArrayEquals(unload(left.div(Operand.of(2.0))), unload(leftS.div(Operand.of(2.0))), 0.0);
+		Assert.assertArrayEquals(unload(left.transpose()), unload(leftS.transpose()), 0.0);
+		Assert.assertArrayEquals(unload(left.crop(Piece.of(1, 2, 3, 3))), unload(leftS.crop(Piece.of(1, 2, 3, 3))), 0.0);
+		Assert.assertEquals(left.track().getDouble(), leftS.track().getDouble(), 0.0);
+
+		for (AggregateDirection dir : AggregateDirection.values()) {
+			for (AggregateType type : AggregateType.values()) {
+				Assert.assertArrayEquals(unload(left.aggregate(Piece.of(1, 1, 5, 3), dir, type)), unload(leftS.aggregate(Piece.of(1, 1, 5, 3), dir, type)), 0.000001);
+			}
+		}
+
+		final DoubleApplyCallback	callback = (x, y, value)->x == y ? value + 1 : value;
+
+		left.apply(Piece.of(0, 0, 3, 3), callback);
+		leftS.apply(Piece.of(0, 0, 3, 3), callback);
+		Assert.assertArrayEquals(unload(left), unload(leftS), 0.0);
+
+		final BaseMatrix<?>	plain = leftS.cast(FormatType.PLAIN);
+
+		Assert.assertTrue(plain instanceof PlainDoubleMatrix);
+		Assert.assertArrayEquals(unload(left), unload(plain), 0.0);
+		Assert.assertEquals(ContentType.REAL_FLOAT, leftS.cast(ContentType.REAL_FLOAT).getContentType());
+	}
+
+	@Test
+	public void listTest() throws CalculationException, IOException {
+		final ListDoubleMatrix	list = new ListDoubleMatrix(4, 3, new int[] {2, 0, 1, 0, 2}, new int[] {3, 1, 2, 1, 0}, new double[] {5, 1, 2, 3, 4});
+
+		Assert.assertEquals(4, list.getNonZeroCount());
+		Assert.assertArrayEquals(new double[] {0, 4, 0, 0, 0, 0, 2, 0, 4, 0, 0, 5}, unload(list), 0.0);
+
+		final PlainDoubleMatrix	dense = (PlainDoubleMatrix)list.cast(FormatType.PLAIN);
+		final PlainDoubleMatrix	right = sparse(2, 4, 4);
+		final ListDoubleMatrix	rightL = (ListDoubleMatrix)right.cast(FormatType.LIST);
+
+		Assert.assertArrayEquals(unload(dense.mul(right)), unload(list.mul(rightL)), 0.000001);
+		Assert.assertArrayEquals(unload(dense.mul(right)), unload(list.mul(right)), 0.000001);
+		Assert.assertArrayEquals(unload(dense.add(dense)), unload(list.add(list)), 0.0);
+		Assert.assertArrayEquals(unload(dense.transpose()), unload(list.transpose()), 0.0);
+		Assert.assertArrayEquals(unload(dense.aggregate(Piece.of(0, 0, 4, 3), AggregateDirection.BY_COLUMNS, AggregateType.MIN)), unload(list.aggregate(Piece.of(0, 0, 4, 3), AggregateDirection.BY_COLUMNS, AggregateType.MIN)), 0.0);
+		Assert.assertTrue(list.cast(FormatType.PACKED_LINE) instanceof PackedLineDoubleMatrix);
+
+		list.download(Piece.of(1, 1, 1, 1), new DataInputAdapter() {
+			@Override
+			public double readDouble() throws IOException {
+				return 7;
+			}
+		});
+		Assert.assertEquals(5, list.getNonZeroCount());
+		Assert.assertEquals(7.0, list.track().getDouble(), 0.0);
+
+		final BaseMatrix<?>	fromFactory = MatrixFactory.newMatrix(ContentType.REAL_DOUBLE, FormatType.LIST, StoreType.IN_MEMORY, 3, 3);
+
+		Assert.assertTrue(fromFactory instanceof ListDoubleMatrix);
+		try{new ListDoubleMatrix(4, 3, new int[] {3}, new int[] {0}, new double[] {1});
+			Assert.fail("Mandatory exception was not detected (element outside the matrix)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	private static PlainDoubleMatrix sparse(final int width, final int height, final int seed) throws IOException {
+		final PlainDoubleMatrix	result = new PlainDoubleMatrix(width, height);
+
+		result.download(Piece.of(0, 0, width, height), new DataInputAdapter() {
+			int	value = seed;
+
+			@Override
+			public double readDouble() throws IOException {
+				value = (value * 31 + 7) % 101;
+				return value % 3 == 0 ? value - 50 : 0;
+			}
+		});
+		return result;
+	}
+
+	private static double[] unload(final BaseMatrix<?> matrix) throws IOException {
+		final double[]	result = new double[matrix.getWidth() * matrix.getHeight()];
+
+		matrix.upload(Piece.of(0, 0, matrix.getWidth(), matrix.getHeight()), new DataOutputAdapter() {
+			int	index = 0;
+
+			@Override
+			public void writeDouble(final double v) throws IOException {
+				result[index++] = v;
+			}
+		});
+		return result;
+	}
+}
@@ -4,7 +4,7 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectClasses({ ArraysLobsAndXMLsTest.class, ResultSetTests.class, RsMetaDataElementTest.class,
+@SelectClasses({ ArraysLobsAndXMLsTest.class, MappedAndOrTreeTest.class, ResultSetTests.class, RsMetaDataElementTest.class,
 		SimpleResultSetProviderTest.class, SQLUtilsTest.class })
 public class AllTests {
 
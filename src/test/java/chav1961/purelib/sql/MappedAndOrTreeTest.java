@@ -0,0 +1,231 @@
+package chav1961.purelib.sql;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.PureLibSettings;
+import chav1961.purelib.enumerations.ContinueMode;
+
+@Tag("OrdinalTestCategory")
+public class MappedAndOrTreeTest {
+	@Test
+	public void basicTest() throws IOException {
+		final File	file = File.createTempFile("purelib", ".tree");
+
+		try(final FileChannel		fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			final MappedAndOrTree	tree = new MappedAndOrTree(PureLibSettings.CURRENT_LOGGER, fc)) {
+
+			Assert.assertEquals(0, tree.size());
+			place(tree, "test", 1);
+			place(tree, "testing", 2);
+			place(tree, "tea", 3);
+			place(tree, "", 4);
+			place(tree, "team", 5);
+
+			Assert.assertEquals(5, tree.size());
+			Assert.assertEquals(1, seek(tree, "test"));
+			Assert.assertEquals(2, seek(tree, "testing"));
+			Assert.assertEquals(3, seek(tree, "tea"));
+			Assert.assertEquals(4, seek(tree, ""));
+			Assert.assertEquals(5, seek(tree, "team"));
+			Assert.assertTrue(seek(tree, "te") < 0);
+			Assert.assertTrue(seek(tree, "testin") < 0);
+			Assert.assertTrue(seek(tree, "unknown") < 0);
+
+			place(tree, "test", 10);
+			Assert.assertEquals(5, tree.size());
+			Assert.assertEquals(10, seek(tree, "test"));
+
+			Assert.assertTrue(tree.changeContentId(bytes("tea"), 0, 3, 30));
+			Assert.assertFalse(tree.changeContentId(bytes("te"), 0, 2, 30));
+			Assert.assertEquals(30, seek(tree, "tea"));
+
+			Assert.assertEquals(10, tree.removeContent(bytes("test"), 0, 4));
+			Assert.assertTrue(tree.removeContent(bytes("test"), 0, 4) < 0);
+			Assert.assertTrue(seek(tree, "test") < 0);
+			Assert.assertEquals(2, seek(tree, "testing"));
+			Assert.assertEquals(4, tree.size());
+
+			try{place(tree, "test", -1);
+				Assert.fail("Mandatory exception was not detected (negative id)");
+			} catch (IllegalArgumentException exc) {
+			}
+			try{tree.seekContent(null, 0, 0);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{tree.seekContent(bytes("test"), 2, 3);
+				Assert.fail("Mandatory exception was not detected (2-nd and 3-rd argument out of range)");
+			} catch (IllegalArgumentException exc) {
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void walkTest() throws IOException {
+		final File	file = File.createTempFile("purelib", ".tree");
+
+		try(final FileChannel		fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			final MappedAndOrTree	tree = new MappedAndOrTree(PureLibSettings.CURRENT_LOGGER, fc)) {
+			final String[]			keys = {"abc", "ab", "abd", "b", "abcde", "ac"};
+
+			for (int index = 0; index < keys.length; index++) {
+				place(tree, keys[index], index);
+			}
+			Assert.assertEquals(List.of("ab", "abc", "abcde", "abd", "ac", "b"), walk(tree, "", false, null));
+			Assert.assertEquals(List.of("b", "ac", "abd", "abcde", "abc", "ab"), walk(tree, "", true, null));
+			Assert.assertEquals(List.of("ab", "abc", "abcde", "abd"), walk(tree, "ab", false, null));
+			Assert.assertEquals(List.of("abc", "abcde"), walk(tree, "abc", false, null));
+			Assert.assertEquals(List.of("abcde"), walk(tree, "abcd", false, null));
+			Assert.assertEquals(List.of(), walk(tree, "abx", false, null));
+			Assert.assertEquals(List.of("ab", "abc", "abcde"), walk(tree, "", false, "abcde"));
+			Assert.assertEquals(List.of("ab", "ac", "b"), walkSkipChildren(tree));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void walkModificationTest() throws IOException, InterruptedException {
+		final File	file = File.createTempFile("purelib", ".tree");
+
+		try(final FileChannel		fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			final MappedAndOrTree	tree = new MappedAndOrTree(PureLibSettings.CURRENT_LOGGER, fc)) {
+			final List<String>		walked = new ArrayList<>();
+			final Thread			t = new Thread(()->{
+										tree.walkContent(new byte[0], 0, 0, false, (data, from, len, id, parameter) -> {
+											final String	key = new String(data, from, len, StandardCharsets.UTF_8);
+
+											walked.add(key);
+											tree.removeContent(data, from, len);	// Callback is called outside the lock, so tree can be modified
+											place(tree, key.toUpperCase(), id);
+											return ContinueMode.CONTINUE;
+										});
+									});
+
+			place(tree, "a", 1);
+			place(tree, "ab", 2);
+			place(tree, "b", 3);
+			t.start();
+			t.join(10_000);
+			Assert.assertFalse(t.isAlive());
+			Assert.assertEquals(List.of("a", "ab", "b"), walked);		// Modifications are not visible in the current walk
+			Assert.assertEquals(List.of("A", "AB", "B"), walk(tree, "", false, null));
+			Assert.assertEquals(2, seek(tree, "AB"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void persistenceTest() throws IOException {
+		final File						file = File.createTempFile("purelib", ".tree");
+		final TreeMap<String, Long>		keys = new TreeMap<>();
+		final StringBuilder				sb = new StringBuilder();
+		int								value = 1;
+
+		for (int index = 0; index < 20000; index++) {
+			sb.setLength(0);
+			for (int length = 0; length < 1 + index % 17; length++) {
+				value = (value * 31 + 7) % 10007;
+				sb.append((char)('a' + value % 7));
+			}
+			keys.put(sb.toString(), (long)index);
+		}
+		for (int index = 0; index < 2 * MappedAndOrTree.MAX_PREFIX + 10; index++) {
+			sb.append('z');
+		}
+		keys.put(sb.toString(), 1_000_000_000_000L);	// Long key, stored as a chain of nodes
+
+		try{try(final FileChannel		fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+				final MappedAndOrTree	tree = new MappedAndOrTree(PureLibSettings.CURRENT_LOGGER, fc)) {
+				for (String key : keys.keySet()) {
+					place(tree, key, keys.get(key));
+				}
+				Assert.assertEquals(keys.size(), tree.size());
+			}
+			try(final FileChannel		fc = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				final MappedAndOrTree	tree = new MappedAndOrTree(PureLibSettings.CURRENT_LOGGER, fc, true)) {
+				Assert.assertTrue(tree.isReadOnly());
+				Assert.assertEquals(keys.size(), tree.size());
+				for (String key : keys.keySet()) {
+					Assert.assertEquals(keys.get(key).longValue(), seek(tree, key));
+				}
+				Assert.assertEquals(new ArrayList<>(keys.keySet()), walk(tree, "", false, null));
+
+				try{place(tree, "new", 1);
+					Assert.fail("Mandatory exception was not detected (read-only tree)");
+				} catch (IllegalStateException exc) {
+				}
+			}
+			try(final FileChannel		fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+				final MappedAndOrTree	tree = new MappedAndOrTree(PureLibSettings.CURRENT_LOGGER, fc)) {
+				int	count = 0;
+
+				for (String key : new ArrayList<>(keys.keySet())) {
+					if (count++ % 2 == 0) {
+						Assert.assertEquals(keys.remove(key).longValue(), tree.removeContent(bytes(key), 0, bytes(key).length));
+					}
+				}
+				Assert.assertEquals(keys.size(), tree.size());
+				for (String key : keys.keySet()) {
+					Assert.assertEquals(keys.get(key).longValue(), seek(tree, key));
+				}
+				Assert.assertEquals(new ArrayList<>(keys.keySet()), walk(tree, "", false, null));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static byte[] bytes(final String key) {
+		return key.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void place(final MappedAndOrTree tree, final String key, final long id) {
+		final byte[]	content = bytes(key);
+
+		tree.placeContent(content, 0, content.length, id);
+	}
+
+	private static long seek(final MappedAndOrTree tree, final String key) {
+		final byte[]	content = bytes(key);
+
+		return tree.seekContent(content, 0, content.length);
+	}
+
+	private static List<String> walk(final MappedAndOrTree tree, final String prefix, final boolean backward, final String stopAt) {
+		final byte[]		content = bytes(prefix);
+		final List<String>	result = new ArrayList<>();
+
+		tree.walkContent(content, 0, content.length, backward, (data, from, len, id, parameter) -> {
+			final String	key = new String(data, from, len, StandardCharsets.UTF_8);
+
+			result.add(key);
+			return key.equals(stopAt) ? ContinueMode.STOP : ContinueMode.CONTINUE;
+		});
+		return result;
+	}
+
+	private static List<String> walkSkipChildren(final MappedAndOrTree tree) {
+		final List<String>	result = new ArrayList<>();
+
+		tree.walkContent(new byte[0], 0, 0, false, (data, from, len, id, parameter) -> {
+			result.add(new String(data, from, len, StandardCharsets.UTF_8));
+			return ContinueMode.SKIP_CHILDREN;
+		});
+		return result;
+	}
+}
@@ -4,8 +4,8 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectClasses({ CharSourcesAndTargetsTest.class, CsvSaxParserTest.class, CsvStaxParserTest.class,
-		JsonSaxParserTest.class, JsonStaxParserTest.class, JsonStaxPrinterTest.class, StreamsUtilTest.class })
+@SelectClasses({ BinaryJsonStaxTest.class, CharSourcesAndTargetsTest.class, CsvSaxParserTest.class, CsvStaxParserTest.class,
+		JsonSaxParserTest.class, JsonStaxParserTest.class, JsonStaxPrinterTest.class, ParallelRecordsParserTest.class, StreamsUtilTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,209 @@
+package chav1961.purelib.streams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.AndOrTree;
+import chav1961.purelib.basic.exceptions.ContentException;
+import chav1961.purelib.basic.exceptions.SyntaxException;
+import chav1961.purelib.basic.interfaces.SyntaxTreeInterface;
+import chav1961.purelib.json.JsonNode;
+import chav1961.purelib.json.JsonSerializer;
+import chav1961.purelib.json.JsonUtils;
+import chav1961.purelib.streams.interfaces.JsonStaxParserLexType;
+
+@Tag("OrdinalTestCategory")
+public class BinaryJsonStaxTest {
+	@Test
+	public void lexemasTest() throws IOException {
+		final String	content = "{\"a\":[1,-2,300000,-9223372036854775808,1.5,0.1,true,false,null,\"text\",\"жизнь 😀\"],\"b\":{},\"c\":[],\"d\":{\"b\":[{\"c\":\"\"}]}}";
+		final List<String>	etalon = new ArrayList<>(), binary = new ArrayList<>();
+
+		try(final JsonStaxParser	parser = new JsonStaxParser(new StringReader(content))) {
+			collect(parser, etalon);
+		}
+		try(final BinaryJsonStaxParser	parser = new BinaryJsonStaxParser(new ByteArrayInputStream(toBinary(content, null)))) {
+			collect(parser, binary);
+			Assert.assertNull(parser.getLastError());
+		}
+		Assert.assertEquals(etalon, binary);
+	}
+
+	@Test
+	public void treeTest() throws IOException, ContentException {
+		final StringBuilder	sb = new StringBuilder("[");
+
+		for (int index = 0; index < 300; index++) {
+			sb.append(index > 0 ? "," : "").append("{\"id\":").append(index).append(",\"name\":\"name").append(index).append("\",\"field").append(index).append("\":").append(index * 1.25).append('}');
+		}
+		final String	content = sb.append(']').toString();
+		final JsonNode	etalon = loadTree(new JsonStaxParser(new StringReader(content)));
+		final byte[]	binary = toBinary(content, null);
+
+		Assert.assertEquals(etalon, loadTree(new BinaryJsonStaxParser(new ByteArrayInputStream(binary), BinaryJsonStaxParser.MINIMAL_BUFFER_SIZE, null)));
+		Assert.assertTrue(binary.length < content.length() * 3 / 4);
+
+		final SyntaxTreeInterface<Object>	tree = new AndOrTree<>();
+
+		tree.placeName("id", null);
+		tree.placeName("name", null);
+
+		final byte[]	binaryWithTree = toBinary(content, tree);
+
+		try(final BinaryJsonStaxParser	parser = new BinaryJsonStaxParser(new ByteArrayInputStream(binaryWithTree), tree)) {
+			Assert.assertEquals(JsonStaxParserLexType.START_ARRAY, parser.next());
+			Assert.assertEquals(JsonStaxParserLexType.START_OBJECT, parser.next());
+			Assert.assertEquals(JsonStaxParserLexType.NAME, parser.next());
+			Assert.assertEquals("id", parser.name());
+			Assert.assertEquals(tree.seekName("id"), parser.nameId());
+		}
+		Assert.assertEquals(etalon, loadTree(new BinaryJsonStaxParser(new ByteArrayInputStream(binaryWithTree), tree)));
+
+		try(final BinaryJsonStaxParser	parser = new BinaryJsonStaxParser(new ByteArrayInputStream(binaryWithTree))) {
+			parser.next();
+			JsonUtils.loadJsonTree(parser);
+			Assert.fail("Mandatory exception was not detected (name tree is missing)");
+		} catch (SyntaxException exc) {
+		}
+		try(final BinaryJsonStaxParser	parser = new BinaryJsonStaxParser(new ByteArrayInputStream(binary, 0, binary.length / 2))) {
+			parser.next();
+			JsonUtils.loadJsonTree(parser);
+			Assert.fail("Mandatory exception was not detected (truncated content)");
+		} catch (SyntaxException | IOException exc) {
+		}
+	}
+
+	@Test
+	public void serializerTest() throws IOException, ContentException {
+		final JsonSerializer<JsonPrimitives>	serializer = JsonSerializer.buildSerializer(JsonPrimitives.class);
+		final JsonPrimitives	instance = new JsonPrimitives();
+		final ByteArrayOutputStream	baos = new ByteArrayOutputStream();
+
+		instance.x = -10;
+		instance.y = Long.MAX_VALUE;
+		instance.z = 1.5f;
+		instance.t = Math.PI;
+		instance.a = true;
+		instance.b = 127;
+		instance.c = -300;
+		instance.d = 'ж';
+
+		try(final BinaryJsonStaxPrinter	printer = new BinaryJsonStaxPrinter(baos)) {
+			serializer.serialize(instance, printer);
+		}
+		try(final BinaryJsonStaxParser	parser = new BinaryJsonStaxParser(new ByteArrayInputStream(baos.toByteArray()))) {
+			parser.next();
+
+			final JsonPrimitives	result = serializer.deserialize(parser);
+
+			Assert.assertEquals(instance.x, result.x);
+			Assert.assertEquals(instance.y, result.y);
+			Assert.assertEquals(instance.z, result.z, 0.0f);
+			Assert.assertEquals(instance.t, result.t, 0.0);
+			Assert.assertEquals(instance.a, result.a);
+			Assert.assertEquals(instance.b, result.b);
+			Assert.assertEquals(instance.c, result.c);
+			Assert.assertEquals(instance.d, result.d);
+		}
+
+		final JsonSerializer<long[]>	arraySerializer = JsonSerializer.buildSerializer(long[].class);
+		final long[]	array = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE};
+
+		baos.reset();
+		try(final BinaryJsonStaxPrinter	printer = new BinaryJsonStaxPrinter(baos)) {
+			arraySerializer.serialize(array, printer);
+		}
+		final BinaryJsonStaxParser	parser = new BinaryJsonStaxParser(new ByteArrayInputStream(baos.toByteArray()));
+
+		parser.next();
+		Assert.assertArrayEquals(array, arraySerializer.deserialize(parser));
+		Assert.assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void printerTest() throws IOException {
+		try(final BinaryJsonStaxPrinter	printer = new BinaryJsonStaxPrinter(new ByteArrayOutputStream())) {
+			try{printer.name("name");
+				Assert.fail("Mandatory exception was not detected (name outside the object)");
+			} catch (IOException exc) {
+			}
+			printer.startObject();
+			try{printer.value(10);
+				Assert.fail("Mandatory exception was not detected (value without name)");
+			} catch (IOException exc) {
+			}
+			try{printer.name(10);
+				Assert.fail("Mandatory exception was not detected (name id without tree)");
+			} catch (IllegalStateException exc) {
+			}
+			try{printer.endArray();
+				Assert.fail("Mandatory exception was not detected (unpaired end)");
+			} catch (IOException exc) {
+			}
+			printer.name("name").array(new int[] {1,2,3}).endObject();
+		}
+		try(final BinaryJsonStaxPrinter	printer = new BinaryJsonStaxPrinter(new ByteArrayOutputStream())) {
+			printer.startArray();
+			printer.close();
+			Assert.fail("Mandatory exception was not detected (unclosed array)");
+		} catch (IOException exc) {
+		}
+		try{new BinaryJsonStaxPrinter(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new BinaryJsonStaxPrinter(new ByteArrayOutputStream(), 1, null);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new BinaryJsonStaxParser(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+	}
+
+	private static byte[] toBinary(final String content, final SyntaxTreeInterface<?> tree) throws IOException {
+		final ByteArrayOutputStream	baos = new ByteArrayOutputStream();
+
+		try(final JsonStaxParser		parser = new JsonStaxParser(new StringReader(content));
+			final BinaryJsonStaxPrinter	printer = new BinaryJsonStaxPrinter(baos, BinaryJsonStaxPrinter.MINIMAL_BUFFER_SIZE, tree)) {
+
+			parser.next();
+			JsonUtils.unloadJsonTree(JsonUtils.loadJsonTree(parser), printer);
+		} catch (ContentException exc) {
+			throw new IOException(exc);
+		}
+		return baos.toByteArray();
+	}
+
+	private static JsonNode loadTree(final JsonStaxParser parser) throws IOException, SyntaxException {
+		try{parser.next();
+			return JsonUtils.loadJsonTree(parser);
+		} finally {
+			parser.close();
+		}
+	}
+
+	private static void collect(final JsonStaxParser parser, final List<String> result) throws IOException {
+		while (parser.hasNext()) {
+			final JsonStaxParserLexType	lex = parser.next();
+
+			switch (lex) {
+				case BOOLEAN_VALUE	: result.add(lex+":"+parser.booleanValue()); break;
+				case INTEGER_VALUE	: result.add(lex+":"+parser.intValue()); break;
+				case REAL_VALUE		: result.add(lex+":"+parser.realValue()); break;
+				case STRING_VALUE	: result.add(lex+":"+parser.stringValue()); break;
+				case NAME			: result.add(lex+":"+parser.name()); break;
+				default				: result.add(lex.toString()); break;
+			}
+		}
+	}
+}
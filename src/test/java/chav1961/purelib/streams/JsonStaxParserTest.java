@@ -4,6 +4,9 @@ package chav1961.purelib.streams;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,7 +57,97 @@ public class JsonStaxParserTest {
 		Assert.assertArrayEquals(parse("[{\"x\":null},{\"x\":null}]"),new JsonStaxParserLexType[]{JsonStaxParserLexType.START_ARRAY,JsonStaxParserLexType.START_OBJECT,JsonStaxParserLexType.NAME,JsonStaxParserLexType.NAME_SPLITTER,JsonStaxParserLexType.NULL_VALUE,JsonStaxParserLexType.END_OBJECT,JsonStaxParserLexType.LIST_SPLITTER,JsonStaxParserLexType.START_OBJECT,JsonStaxParserLexType.NAME,JsonStaxParserLexType.NAME_SPLITTER,JsonStaxParserLexType.NULL_VALUE,JsonStaxParserLexType.END_OBJECT,JsonStaxParserLexType.END_ARRAY});
 		Assert.assertArrayEquals(parse("{\"x\":[],\"y\":[100]}"),new JsonStaxParserLexType[]{JsonStaxParserLexType.START_OBJECT,JsonStaxParserLexType.NAME,JsonStaxParserLexType.NAME_SPLITTER,JsonStaxParserLexType.START_ARRAY,JsonStaxParserLexType.END_ARRAY,JsonStaxParserLexType.LIST_SPLITTER,JsonStaxParserLexType.NAME,JsonStaxParserLexType.NAME_SPLITTER,JsonStaxParserLexType.START_ARRAY,JsonStaxParserLexType.INTEGER_VALUE,JsonStaxParserLexType.END_ARRAY,JsonStaxParserLexType.END_OBJECT});
 	}
+
+	@Test
+	public void inMemoryTest() throws IOException {
+		final String	content = "{\"name\":\"value\",\"esc\\\"aped\":\"a\\nb\",\"\u0444\u044B\u0432\":[100,-200,1.5e2,true,false,null],\"last\":123}";
+		final String	etalon = collect(new JsonStaxParser(new StringReader(content)));
+		final char[]	surrounded = ("12.5e\"" + content + "1.5e").toCharArray();	// Garbage around the content must be ignored
+
+		Assert.assertEquals(etalon,collect(new JsonStaxParser(CharBuffer.wrap(content.toCharArray()))));
+		Assert.assertEquals(etalon,collect(new JsonStaxParser(CharBuffer.wrap(surrounded,6,content.length()))));
+		Assert.assertEquals(etalon,collect(new JsonStaxParser(CharBuffer.wrap(surrounded).position(6).limit(6+content.length()).slice())));
+		Assert.assertEquals(etalon,collect(new JsonStaxParser(CharBuffer.wrap(content.toCharArray()).asReadOnlyBuffer())));
+		Assert.assertEquals(etalon,collect(new JsonStaxParser(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)))));
+		
+		final byte[]		utf8 = content.getBytes(StandardCharsets.UTF_8); 
+		final ByteBuffer	direct = ByteBuffer.allocateDirect(utf8.length);
+		
+		direct.put(utf8).flip();
+		Assert.assertEquals(etalon,collect(new JsonStaxParser(direct)));
+		Assert.assertEquals(0,direct.position());
+		
+		Assert.assertEquals("INTEGER_VALUE:-1;",collect(new JsonStaxParser(CharBuffer.wrap("[100]-1".toCharArray()).position(5))));
+
+		final StringBuilder	sb = new StringBuilder().append('[');
+		
+		for (int index = 0; index < 10000; index++) {	// Content greater than buffer size
+			sb.append(index == 0 ? "" : ",").append("{\"\u0438\u043C\u044F\":\"\u0437\u043D\u0430\u0447\u0435\u043D\u0438\u0435").append(index).append("\",\"id\":").append(index).append('}');
+		}
+		final String	huge = sb.append(']').toString();
+		final String	hugeEtalon = collect(new JsonStaxParser(new StringReader(huge)));
+		
+		Assert.assertEquals(hugeEtalon,collect(new JsonStaxParser(CharBuffer.wrap(huge.toCharArray()))));
+		Assert.assertEquals(hugeEtalon,collect(new JsonStaxParser(ByteBuffer.wrap(huge.getBytes(StandardCharsets.UTF_8)),JsonStaxParser.MINIMAL_BUFFER_SIZE,null)));
+		
+		try(final JsonStaxParser	pars = new JsonStaxParser(CharBuffer.wrap("{\"key\":\"val\\tue\"}"))) {
+			Assert.assertEquals(JsonStaxParserLexType.START_OBJECT,pars.next());
+			Assert.assertEquals(JsonStaxParserLexType.NAME,pars.next());
+			Assert.assertEquals("key",pars.nameSlice().toString());
+			Assert.assertEquals(JsonStaxParserLexType.NAME_SPLITTER,pars.next());
+			Assert.assertEquals(JsonStaxParserLexType.STRING_VALUE,pars.next());
+			Assert.assertEquals("val\tue",pars.stringValueSlice().toString());
+			try{pars.nameSlice();
+				Assert.fail("Mandatory exception was not detected (illegal lexema)");
+			} catch (IllegalStateException exc) {
+			}
+			pars.reset();
+			Assert.assertEquals(JsonStaxParserLexType.START_OBJECT,pars.next());
+		}
+		
+		try{new JsonStaxParser((CharBuffer)null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new JsonStaxParser((ByteBuffer)null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new JsonStaxParser(ByteBuffer.allocate(1),1,null);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
 	
+	private static String collect(final JsonStaxParser parser) throws IOException {
+		final StringBuilder	sb = new StringBuilder();
+		final char[]		temp = new char[100];
+		
+		try(final JsonStaxParser	pars = parser) {
+			for (JsonStaxParserLexType item : pars) {
+				sb.append(item);
+				switch (item) {
+					case NAME			:
+						Assert.assertEquals(pars.name(),pars.nameSlice().toString());
+						Assert.assertEquals(pars.name(),new String(temp,1,pars.name(temp,1,temp.length)));
+						sb.append(':').append(pars.name());
+						break;
+					case STRING_VALUE	:
+						Assert.assertEquals(pars.stringValue(),pars.stringValueSlice().toString());
+						Assert.assertEquals(pars.stringValue(),new String(temp,1,pars.stringValue(temp,1,temp.length)));
+						sb.append(':').append(pars.stringValue());
+						break;
+					case INTEGER_VALUE	: sb.append(':').append(pars.intValue()); break;
+					case REAL_VALUE		: sb.append(':').append(pars.realValue()); break;
+					case BOOLEAN_VALUE	: sb.append(':').append(pars.booleanValue()); break;
+					case ERROR			: sb.append(':').append(pars.getLastError().getMessage()); break;
+					default :
+				}
+				sb.append(';');
+			}
+		}
+		return sb.toString();
+	}
 	
 	private JsonStaxParserLexType[] parse(final String parsing) throws IOException {
 		final List<JsonStaxParserLexType>	result =  new ArrayList<>();
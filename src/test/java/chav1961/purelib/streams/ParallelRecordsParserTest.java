@@ -0,0 +1,224 @@
+package chav1961.purelib.streams;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import chav1961.purelib.basic.exceptions.ContentException;
+import chav1961.purelib.basic.exceptions.SyntaxException;
+import chav1961.purelib.streams.interfaces.CsvSaxHandler;
+import chav1961.purelib.streams.interfaces.JsonSaxHandler;
+
+@Tag("OrdinalTestCategory")
+public class ParallelRecordsParserTest {
+	@Test
+	public void csvTest() throws IOException, SyntaxException, InterruptedException {
+		final StringBuilder	sb = new StringBuilder("id,name,\"value\"\n");
+
+		for (int index = 0; index < 500; index++) {
+			sb.append(index).append(",\"name ").append(index).append(index % 7 == 0 ? "\nsecond line\"," : "\",").append(index * 0.5).append('\n');
+		}
+		final String		content = sb.toString();
+		final CsvLogger		etalon = new CsvLogger();
+		final ExecutorService	service = Executors.newFixedThreadPool(3);
+
+		new CsvSaxParser(etalon,',',true,true,true).parse(content);
+
+		try{final ParallelRecordsParser	prp = new ParallelRecordsParser(service,64,4);
+			final CsvLogger				ordered = new CsvLogger(), unordered = new CsvLogger();
+
+			prp.parseCsv(new StringReader(content),ordered,true,',',true,true,true);
+			Assert.assertEquals(etalon.log,ordered.log);
+
+			prp.parseCsv(new StringReader(content),unordered,false,',',true,true,true);
+			Assert.assertEquals(etalon.log.size(),unordered.log.size());
+			Assert.assertEquals(sorted(etalon.log),sorted(unordered.log));
+
+			final List<CsvLogger>	handlers = Collections.synchronizedList(new ArrayList<>());
+
+			prp.parseCsv(new StringReader(content),()->{final CsvLogger h = new CsvLogger(); handlers.add(h); return h;},',',true,true,true);
+			Assert.assertTrue(handlers.size() > 1);
+
+			final List<String>		joined = new ArrayList<>();
+
+			for (CsvLogger item : handlers) {
+				Assert.assertEquals("startDoc",item.log.get(0));
+				Assert.assertEquals(etalon.log.subList(0,6),item.log.subList(0,6));	// Every handler gets names
+				joined.addAll(item.log.subList(6,item.log.size()-1));
+			}
+			Assert.assertEquals(sorted(etalon.log.subList(6,etalon.log.size()-1)),sorted(joined));
+
+			for (ParallelRecordsParser item : new ParallelRecordsParser[] {prp, new ParallelRecordsParser(service,ParallelRecordsParser.MINIMAL_CHUNK_SIZE,2)}) {
+				try{item.parseCsv(new StringReader("a,b\n1,2\n3,4\n5,6\n7,8\n9,10\n11,12,13\n14,15\n"),new CsvLogger(),true,',',true,true,true);
+					Assert.fail("Mandatory exception was not detected (different number of fields)");
+				} catch (SyntaxException exc) {
+					Assert.assertEquals(7,exc.getRow());
+				}
+				try{item.parseCsv(new StringReader("a,b\n1,2\n3,4\n5,6\n7,8\n9,10\n11,12,13\n14,15\n"),()->new CsvLogger(),',',true,true,true);
+					Assert.fail("Mandatory exception was not detected (different number of fields)");
+				} catch (SyntaxException exc) {
+					Assert.assertEquals(7,exc.getRow());
+				}
+			}
+			try{prp.parseCsv(null,new CsvLogger(),true,',',true,true,true);
+				Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+			} catch (NullPointerException exc) {
+			}
+			try{prp.parseCsv(new StringReader(content),(CsvSaxHandler)null,true,',',true,true,true);
+				Assert.fail("Mandatory exception was not detected (null 2-nd argument)");
+			} catch (NullPointerException exc) {
+			}
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void jsonLinesTest() throws IOException, SyntaxException {
+		final StringBuilder	sb = new StringBuilder();
+		final JsonLogger	etalon = new JsonLogger();
+		final JsonSaxParser	parser = new JsonSaxParser(etalon);
+
+		for (int index = 0; index < 300; index++) {
+			final String	line = "{\"id\":"+index+",\"name\":\"name "+index+"\",\"flags\":[true,false,null],\"value\":"+index+".5}";
+
+			sb.append(line).append(index % 5 == 0 ? "\r\n\n" : "\n");
+			parser.parse(line);
+		}
+		final String	content = sb.toString();
+		final ParallelRecordsParser	prp = new ParallelRecordsParser(ForkJoinPool.commonPool(),100,3);
+		final JsonLogger	ordered = new JsonLogger(), unordered = new JsonLogger();
+
+		prp.parseJsonLines(new StringReader(content),ordered,true);
+		Assert.assertEquals(etalon.log,ordered.log);
+
+		prp.parseJsonLines(new StringReader(content),unordered,false);
+		Assert.assertEquals(sorted(etalon.log),sorted(unordered.log));
+
+		final List<JsonLogger>	handlers = Collections.synchronizedList(new ArrayList<>());
+		final List<String>		joined = new ArrayList<>();
+
+		prp.parseJsonLines(new StringReader(content),()->{final JsonLogger h = new JsonLogger(); handlers.add(h); return h;});
+		for (JsonLogger item : handlers) {
+			joined.addAll(item.log);
+		}
+		Assert.assertEquals(sorted(etalon.log),sorted(joined));
+
+		for (ParallelRecordsParser item : new ParallelRecordsParser[] {prp, new ParallelRecordsParser(ForkJoinPool.commonPool(),ParallelRecordsParser.MINIMAL_CHUNK_SIZE,2)}) {
+			try{item.parseJsonLines(new StringReader("{}\n{}\n\n{}\n{\"a\":}\n{}\n"),new JsonLogger(),true);
+				Assert.fail("Mandatory exception was not detected (illegal JSON)");
+			} catch (SyntaxException exc) {
+				Assert.assertEquals(5,exc.getRow());
+			}
+		}
+	}
+
+	@Test
+	public void streamTest() throws IOException {
+		final List<String>	lines = new ArrayList<>();
+
+		for (int index = 0; index < 1000; index++) {
+			lines.add("line "+index);
+		}
+		final String	content = String.join("\r\n",lines);
+		final ParallelRecordsParser	prp = new ParallelRecordsParser(ForkJoinPool.commonPool(),ParallelRecordsParser.MINIMAL_CHUNK_SIZE,8);
+
+		try(final Stream<String>	stream = prp.records(new StringReader(content),false,(lineNo,data,from,len)->{
+											Assert.assertEquals("line "+(lineNo-1),new String(data,from,len));
+											return new String(data,from,len);
+										},true)) {
+			Assert.assertEquals(lines,stream.collect(Collectors.toList()));
+		}
+		try(final Stream<String>	stream = prp.records(new StringReader(content),false,(lineNo,data,from,len)->new String(data,from,len),false)) {
+			Assert.assertEquals(sorted(lines),sorted(stream.collect(Collectors.toList())));
+		}
+		try(final Stream<String>	stream = prp.records(new StringReader("1,\"a\nb\"\n2,c\n"),true,(lineNo,data,from,len)->lineNo+":"+new String(data,from,len),true)) {
+			Assert.assertEquals(Arrays.asList("1:1,\"a\nb\"","3:2,c"),stream.collect(Collectors.toList()));
+		}
+		try(final Stream<String>	stream = prp.records(new StringReader(content),false,(lineNo,data,from,len)->{
+											if (lineNo == 500) {
+												throw new SyntaxException(lineNo,0,"test");
+											}
+											return null;
+										},true)) {
+			stream.count();
+			Assert.fail("Mandatory exception was not detected (exception in the parser)");
+		} catch (UncheckedIOException exc) {
+			Assert.assertTrue(exc.getCause().getCause() instanceof SyntaxException);
+		}
+		try{new ParallelRecordsParser(null);
+			Assert.fail("Mandatory exception was not detected (null 1-st argument)");
+		} catch (NullPointerException exc) {
+		}
+		try{new ParallelRecordsParser(ForkJoinPool.commonPool(),1,1);
+			Assert.fail("Mandatory exception was not detected (2-nd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+		try{new ParallelRecordsParser(ForkJoinPool.commonPool(),ParallelRecordsParser.MINIMAL_CHUNK_SIZE,0);
+			Assert.fail("Mandatory exception was not detected (3-rd argument out of range)");
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	private static List<String> sorted(final List<String> source) {
+		final List<String>	result = new ArrayList<>(source);
+
+		Collections.sort(result);
+		return result;
+	}
+
+	private static class CsvLogger implements CsvSaxHandler {
+		final List<String>	log = new ArrayList<>();
+
+		@Override public void startDoc() throws ContentException {log.add("startDoc");}
+		@Override public void endDoc() throws ContentException {log.add("endDoc");}
+		@Override public void startCaption() throws ContentException {log.add("startCaption");}
+		@Override public void name(int position, String name) throws ContentException {log.add("name:"+position+":"+name);}
+		@Override public void name(int position, char[] name, int from, int len) throws ContentException {log.add("name:"+position+":"+new String(name,from,len));}
+		@Override public void endCaption() throws ContentException {log.add("endCaption");}
+		@Override public void startData() throws ContentException {}
+		@Override public void value(int position) throws ContentException {log.add("null:"+position);}
+		@Override public void value(int position, long value) throws ContentException {log.add("long:"+position+":"+value);}
+		@Override public void value(int position, double value) throws ContentException {log.add("double:"+position+":"+value);}
+		@Override public void value(int position, String value) throws ContentException {log.add("string:"+position+":"+value);}
+		@Override public void value(int position, char[] value, int from, int len) throws ContentException {log.add("string:"+position+":"+new String(value,from,len));}
+		@Override public void endData() throws ContentException {}
+	}
+
+	private static class JsonLogger implements JsonSaxHandler {
+		final List<String>	log = new ArrayList<>();
+		final StringBuilder	sb = new StringBuilder();
+
+		@Override public void startDoc() throws ContentException {sb.setLength(0);}
+		@Override public void endDoc() throws ContentException {log.add(sb.toString());}
+		@Override public void startObj() throws ContentException {sb.append('{');}
+		@Override public void endObj() throws ContentException {sb.append('}');}
+		@Override public void startArr() throws ContentException {sb.append('[');}
+		@Override public void endArr() throws ContentException {sb.append(']');}
+		@Override public void startName(char[] data, int from, int len) throws ContentException {sb.append(data,from,len).append('=');}
+		@Override public void startName(String name) throws ContentException {sb.append(name).append('=');}
+		@Override public void startName(long id) throws ContentException {sb.append(id).append('=');}
+		@Override public void endName() throws ContentException {sb.append(';');}
+		@Override public void startIndex(int index) throws ContentException {sb.append(index).append(':');}
+		@Override public void endIndex() throws ContentException {sb.append(';');}
+		@Override public void value(char[] data, int from, int len) throws ContentException {sb.append('"').append(data,from,len).append('"');}
+		@Override public void value(String data) throws ContentException {sb.append('"').append(data).append('"');}
+		@Override public void value(long data) throws ContentException {sb.append(data);}
+		@Override public void value(double data) throws ContentException {sb.append(data);}
+		@Override public void value(boolean data) throws ContentException {sb.append(data);}
+		@Override public void value() throws ContentException {sb.append("null");}
+	}
+}